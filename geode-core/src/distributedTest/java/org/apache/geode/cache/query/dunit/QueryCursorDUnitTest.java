@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.dunit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+import java.io.Serializable;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.cache.query.QueryCursor;
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.cache.query.data.Portfolio;
+import org.apache.geode.internal.cache.tier.sockets.CacheClientNotifier;
+import org.apache.geode.test.dunit.rules.ClientVM;
+import org.apache.geode.test.dunit.rules.ClusterStartupRule;
+import org.apache.geode.test.dunit.rules.MemberVM;
+import org.apache.geode.test.junit.categories.OQLQueryTest;
+
+@Category({OQLQueryTest.class})
+public class QueryCursorDUnitTest implements Serializable {
+  private static final int NUMBER_OF_PORTFOLIOS = 100;
+
+  @Rule
+  public ClusterStartupRule cluster = new ClusterStartupRule();
+
+  private MemberVM server;
+  private ClientVM client;
+
+  private static QueryCursor<Portfolio> openCursor;
+
+  @Before
+  public void before() throws Exception {
+    server = cluster.startServerVM(0, s -> s.withRegion(RegionShortcut.REPLICATE, "portfolios"));
+    server.invoke(() -> {
+      Region<Integer, Portfolio> region = ClusterStartupRule.getCache().getRegion("portfolios");
+      for (int i = 0; i < NUMBER_OF_PORTFOLIOS; i++) {
+        region.put(i, new Portfolio(i));
+      }
+    });
+    int port = server.getPort();
+    client = cluster.startClientVM(1, ccf -> ccf.addPoolServer("localhost", port));
+  }
+
+  @Test
+  public void clientCursorReadsAllResultsInBatches() {
+    client.invoke(() -> {
+      QueryService queryService = ClusterStartupRule.getClientCache().getQueryService();
+      Set<Integer> ids = new HashSet<>();
+      try (QueryCursor<Portfolio> cursor =
+          queryService.newQuery("select * from /portfolios").executeWithCursor(7)) {
+        cursor.forEachRemaining(portfolio -> ids.add(portfolio.getID()));
+      }
+      assertThat(ids).hasSize(NUMBER_OF_PORTFOLIOS);
+    });
+    // exhausted cursors are discarded by the server
+    server.invoke(() -> assertThat(getServerCursorCount()).isEqualTo(0));
+  }
+
+  @Test
+  public void serverHoldsOpenCursorUntilClientClosesIt() {
+    client.invoke(() -> {
+      QueryService queryService = ClusterStartupRule.getClientCache().getQueryService();
+      openCursor = queryService.newQuery("select * from /portfolios").executeWithCursor(10);
+      assertThat(openCursor.next()).isNotNull();
+    });
+    server.invoke(() -> assertThat(getServerCursorCount()).isEqualTo(1));
+
+    client.invoke(() -> {
+      openCursor.close();
+      assertThat(openCursor.hasNext()).isFalse();
+      openCursor = null;
+    });
+    server.invoke(() -> await().atMost(30, TimeUnit.SECONDS)
+        .until(() -> getServerCursorCount() == 0));
+  }
+
+  @Test
+  public void serverQueryIteratesResultsInPlace() {
+    server.invoke(() -> {
+      QueryService queryService = ClusterStartupRule.getCache().getQueryService();
+      Set<Integer> ids = new HashSet<>();
+      try (QueryCursor<Portfolio> cursor = queryService
+          .newQuery("select * from /portfolios p where p.ID >= $1").executeWithCursor(10, 50)) {
+        cursor.forEachRemaining(portfolio -> ids.add(portfolio.getID()));
+      }
+      assertThat(ids).hasSize(NUMBER_OF_PORTFOLIOS - 50);
+
+      try (QueryCursor<Integer> cursor =
+          queryService.newQuery("select count(*) from /portfolios").executeWithCursor(10)) {
+        assertThat(cursor.next()).isEqualTo(NUMBER_OF_PORTFOLIOS);
+        assertThat(cursor.hasNext()).isFalse();
+      }
+
+      assertThatThrownBy(
+          () -> queryService.newQuery("select * from /portfolios").executeWithCursor(0))
+              .isInstanceOf(IllegalArgumentException.class);
+      // cursors of server queries are not registered for clients
+      assertThat(getServerCursorCount()).isEqualTo(0);
+    });
+  }
+
+  private static long getServerCursorCount() {
+    return CacheClientNotifier.getInstance().getStats().getQueryCursorCount();
+  }
+}
@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.tier.sockets;
+
+import static org.apache.geode.distributed.ConfigurationProperties.DURABLE_CLIENT_ID;
+import static org.apache.geode.distributed.ConfigurationProperties.DURABLE_CLIENT_TIMEOUT;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.awaitility.Awaitility;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.EntryEvent;
+import org.apache.geode.cache.InterestResultPolicy;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionEvent;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.cache.client.ClientCache;
+import org.apache.geode.cache.client.ClientRegionShortcut;
+import org.apache.geode.cache.client.internal.ClientSideHandshakeImpl;
+import org.apache.geode.cache.util.CacheListenerAdapter;
+import org.apache.geode.test.dunit.VM;
+import org.apache.geode.test.dunit.rules.ClusterStartupRule;
+import org.apache.geode.test.dunit.rules.MemberVM;
+import org.apache.geode.test.junit.categories.ClientSubscriptionTest;
+
+/**
+ * Verifies that events queued for a client which asked for event batching are dispatched to it in
+ * batches, and are applied by the client in the order they were queued.
+ */
+@Category({ClientSubscriptionTest.class})
+public class ClientEventBatchingDUnitTest implements Serializable {
+  private static final String REGION_NAME = "region";
+
+  /**
+   * Not a multiple of the dispatch batch size, so the marker queued behind the events of a durable
+   * client is sent inside the last batch.
+   */
+  private static final int EVENTS = 450;
+
+  @Rule
+  public ClusterStartupRule cluster = new ClusterStartupRule();
+
+  private MemberVM server;
+
+  private VM clientVM;
+
+  private static final List<Integer> receivedValues =
+      Collections.synchronizedList(new ArrayList<>());
+
+  private static volatile boolean regionLive;
+
+  @Before
+  public void before() {
+    server = cluster.startServerVM(0, s -> s.withRegion(RegionShortcut.REPLICATE, REGION_NAME));
+    clientVM = cluster.getVM(1);
+    clientVM.invoke(() -> {
+      System.setProperty(ClientSideHandshakeImpl.REQUEST_EVENT_BATCHING_PROPERTY, "true");
+      receivedValues.clear();
+      regionLive = false;
+    });
+  }
+
+  @After
+  public void after() {
+    clientVM.invoke(
+        () -> System.clearProperty(ClientSideHandshakeImpl.REQUEST_EVENT_BATCHING_PROPERTY));
+  }
+
+  @Test
+  public void eventsQueuedForADurableClientAreDispatchedInBatchesInOrder() throws Exception {
+    Properties durableProperties = new Properties();
+    durableProperties.setProperty(DURABLE_CLIENT_ID, "batchingClient");
+    durableProperties.setProperty(DURABLE_CLIENT_TIMEOUT, "300");
+    int port = server.getPort();
+
+    cluster.startClientVM(1, durableProperties,
+        ccf -> ccf.setPoolSubscriptionEnabled(true).addPoolServer("localhost", port));
+    clientVM.invoke(() -> {
+      createRegionAndRegisterInterest(true);
+      ClusterStartupRule.getClientCache().close(true);
+    });
+
+    // queue events while the durable client is away
+    server.invoke(() -> {
+      Awaitility.await().atMost(30, TimeUnit.SECONDS)
+          .until(() -> getClientProxy() != null && getClientProxy().isPaused());
+      assertThat(getClientProxy().isEventBatching()).isTrue();
+      Region<String, Integer> region = ClusterStartupRule.getCache().getRegion(REGION_NAME);
+      for (int i = 0; i < EVENTS; i++) {
+        region.put("key-" + (i % 10), i);
+      }
+    });
+
+    // the queue and the marker added when the client is ready are drained in batches
+    cluster.startClientVM(1, durableProperties,
+        ccf -> ccf.setPoolSubscriptionEnabled(true).addPoolServer("localhost", port));
+    clientVM.invoke(() -> {
+      createRegionAndRegisterInterest(true);
+      awaitAllEvents();
+      Awaitility.await().atMost(30, TimeUnit.SECONDS).until(() -> regionLive);
+    });
+
+    server.invoke(
+        () -> assertThat(getClientProxy().getStatistics().getEventBatchesSent()).isPositive());
+  }
+
+  @Test
+  public void eventsDispatchedWhileTheClientIsConnectedArriveInOrder() throws Exception {
+    int port = server.getPort();
+    cluster.startClientVM(1,
+        ccf -> ccf.setPoolSubscriptionEnabled(true).addPoolServer("localhost", port));
+    clientVM.invoke(() -> createRegionAndRegisterInterest(false));
+
+    server.invoke(() -> {
+      assertThat(getClientProxy().isEventBatching()).isTrue();
+      Region<String, Integer> region = ClusterStartupRule.getCache().getRegion(REGION_NAME);
+      for (int i = 0; i < EVENTS; i++) {
+        region.put("key-" + (i % 10), i);
+      }
+    });
+
+    clientVM.invoke(ClientEventBatchingDUnitTest::awaitAllEvents);
+  }
+
+  private static void createRegionAndRegisterInterest(boolean durable) {
+    ClientCache clientCache = ClusterStartupRule.getClientCache();
+    Region<String, Integer> region = clientCache
+        .<String, Integer>createClientRegionFactory(ClientRegionShortcut.CACHING_PROXY)
+        .addCacheListener(new CacheListenerAdapter<String, Integer>() {
+          @Override
+          public void afterCreate(EntryEvent<String, Integer> event) {
+            receivedValues.add(event.getNewValue());
+          }
+
+          @Override
+          public void afterUpdate(EntryEvent<String, Integer> event) {
+            receivedValues.add(event.getNewValue());
+          }
+
+          @Override
+          public void afterRegionLive(RegionEvent<String, Integer> event) {
+            regionLive = true;
+          }
+        }).create(REGION_NAME);
+    region.registerInterestForAllKeys(InterestResultPolicy.NONE, durable);
+    if (durable) {
+      clientCache.readyForEvents();
+    }
+  }
+
+  private static void awaitAllEvents() {
+    Awaitility.await().atMost(60, TimeUnit.SECONDS)
+        .until(() -> receivedValues.size() >= EVENTS);
+    List<Integer> expected = new ArrayList<>();
+    for (int i = 0; i < EVENTS; i++) {
+      expected.add(i);
+    }
+    synchronized (receivedValues) {
+      assertThat(receivedValues).containsExactlyElementsOf(expected);
+    }
+  }
+
+  private static CacheClientProxy getClientProxy() {
+    CacheClientNotifier notifier = CacheClientNotifier.getInstance();
+    if (notifier == null || notifier.getClientProxies().isEmpty()) {
+      return null;
+    }
+    return notifier.getClientProxies().iterator().next();
+  }
+}
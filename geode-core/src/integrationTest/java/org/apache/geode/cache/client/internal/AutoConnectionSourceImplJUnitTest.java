@@ -40,6 +40,7 @@ import java.util.Set;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import junit.framework.Assert;
 import org.awaitility.Awaitility;
@@ -63,8 +64,11 @@ import org.apache.geode.cache.client.SubscriptionNotEnabledException;
 import org.apache.geode.cache.client.internal.locator.ClientConnectionRequest;
 import org.apache.geode.cache.client.internal.locator.ClientConnectionResponse;
 import org.apache.geode.cache.client.internal.locator.LocatorListResponse;
+import org.apache.geode.cache.client.internal.locator.ServerListLeaseRequest;
+import org.apache.geode.cache.client.internal.locator.ServerListLeaseResponse;
 import org.apache.geode.cache.client.internal.locator.ServerLocationRequest;
 import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.cache.server.ServerLoad;
 import org.apache.geode.distributed.DistributedSystem;
 import org.apache.geode.distributed.internal.DistributionConfig;
 import org.apache.geode.distributed.internal.InternalConfigurationPersistenceService;
@@ -318,6 +322,44 @@ public class AutoConnectionSourceImplJUnitTest {
     assertEquals(loc1, source.findServer(null));
   }
 
+  @Test
+  public void testServersArePickedFromLeasedServerList() throws Exception {
+    System.setProperty(AutoConnectionSourceImpl.USE_SERVER_LIST_LEASE_PROPERTY, "true");
+    InetSocketAddress isa = new InetSocketAddress(InetAddress.getLocalHost(), port);
+    List<InetSocketAddress> locators = new ArrayList<>();
+    locators.add(isa);
+    List<HostAddress> la = new ArrayList<>();
+    la.add(new HostAddress(isa, isa.getHostName()));
+    AutoConnectionSourceImpl leasingSource =
+        new AutoConnectionSourceImpl(locators, la, "", 60 * 1000);
+    leasingSource.start(pool);
+    startFakeLocator();
+
+    ServerLocation loc1 = new ServerLocation("localhost", 4423);
+    ServerLocation loc2 = new ServerLocation("localhost", 4424);
+    ArrayList<ServerLocation> servers = new ArrayList<>();
+    servers.add(loc1);
+    servers.add(loc2);
+    ArrayList<ServerLoad> loads = new ArrayList<>();
+    loads.add(new ServerLoad(0, 1, 0, 1));
+    loads.add(new ServerLoad(0, 1, 0, 1));
+    handler.nextServerListLeaseResponse = new ServerListLeaseResponse(servers, loads, 60 * 1000);
+    long leasedPicks = poolStats.getLeasedServerPicks();
+
+    Set<ServerLocation> picked = new HashSet<>();
+    for (int i = 0; i < 10; i++) {
+      picked.add(leasingSource.findServer(null));
+    }
+    Set<ServerLocation> excluded = new HashSet<>();
+    excluded.add(loc1);
+
+    assertEquals(servers.size(), picked.size());
+    assertEquals(loc2, leasingSource.findServer(excluded));
+    assertEquals(1, handler.serverListLeaseRequests.get());
+    assertEquals(0, handler.connectionRequests.get());
+    assertEquals(leasedPicks + 11, poolStats.getLeasedServerPicks());
+  }
+
   /**
    * This tests that discovery works even after one of two locators was shut down
    *
@@ -420,13 +462,19 @@ public class AutoConnectionSourceImplJUnitTest {
   protected static class FakeHandler implements TcpHandler {
     protected volatile ClientConnectionResponse nextConnectionResponse;
     protected volatile LocatorListResponse nextLocatorListResponse;;
-
+    protected volatile ServerListLeaseResponse nextServerListLeaseResponse;
+    protected final AtomicInteger connectionRequests = new AtomicInteger();
+    protected final AtomicInteger serverListLeaseRequests = new AtomicInteger();
 
     public void init(TcpServer tcpServer) {}
 
     public Object processRequest(Object request) throws IOException {
       if (request instanceof ClientConnectionRequest) {
+        connectionRequests.incrementAndGet();
         return nextConnectionResponse;
+      } else if (request instanceof ServerListLeaseRequest) {
+        serverListLeaseRequests.incrementAndGet();
+        return nextServerListLeaseResponse;
       } else {
         return nextLocatorListResponse;
       }
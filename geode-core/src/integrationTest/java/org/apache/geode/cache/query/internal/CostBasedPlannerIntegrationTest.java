@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.cache.query.Index;
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.cache.query.data.Portfolio;
+import org.apache.geode.cache.query.internal.index.AbstractIndex;
+import org.apache.geode.cache.query.internal.index.IndexManager;
+import org.apache.geode.test.junit.categories.OQLQueryTest;
+import org.apache.geode.test.junit.rules.ServerStarterRule;
+
+@Category({OQLQueryTest.class})
+public class CostBasedPlannerIntegrationTest {
+  @Rule
+  public ServerStarterRule serverStarterRule = new ServerStarterRule().withAutoStart();
+
+  private QueryService queryService;
+  private Index statusIndex;
+  private Index idIndex;
+
+  @Before
+  public void setup() throws Exception {
+    IndexManager.COST_BASED_PLANNER = true;
+    Cache cache = serverStarterRule.getCache();
+    Region<Integer, Portfolio> portfolios = cache
+        .<Integer, Portfolio>createRegionFactory(RegionShortcut.REPLICATE).create("portfolios");
+    for (int i = 0; i < 1000; i++) {
+      portfolios.put(i, new Portfolio(i));
+    }
+    queryService = cache.getQueryService();
+    statusIndex = queryService.createIndex("statusIndex", "p.status", "/portfolios p");
+    idIndex = queryService.createIndex("idIndex", "p.ID", "/portfolios p");
+  }
+
+  @After
+  public void tearDown() {
+    IndexManager.COST_BASED_PLANNER = false;
+    QueryObserverHolder.reset();
+  }
+
+  @Test
+  public void selectiveRangeIsChosenOverUnselectiveEquality() throws Exception {
+    // the first lookups schedule the key statistics to be built in the background
+    await().atMost(30, TimeUnit.SECONDS)
+        .until(() -> ((AbstractIndex) statusIndex).getKeyStatistics() != null
+            && ((AbstractIndex) idIndex).getKeyStatistics() != null);
+    List<Index> lookedUpIndexes = new ArrayList<>();
+    QueryObserverHolder.setInstance(new QueryObserverAdapter() {
+      @Override
+      public void beforeIndexLookup(Index index, int oper, Object key) {
+        lookedUpIndexes.add(index);
+      }
+
+      @Override
+      public void beforeIndexLookup(Index index, int lowerBoundOperator, Object lowerBoundKey,
+          int upperBoundOperator, Object upperBoundKey, Set notEqualKeys) {
+        lookedUpIndexes.add(index);
+      }
+    });
+
+    SelectResults results = (SelectResults) queryService
+        .newQuery("select * from /portfolios p where p.status = 'active' and p.ID > 990")
+        .execute();
+
+    assertThat(results).hasSize(4);
+    assertThat(lookedUpIndexes).containsExactly(idIndex);
+  }
+}
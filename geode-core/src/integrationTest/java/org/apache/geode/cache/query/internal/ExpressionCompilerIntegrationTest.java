@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.cache.query.data.Portfolio;
+import org.apache.geode.test.junit.categories.OQLQueryTest;
+import org.apache.geode.test.junit.rules.ServerStarterRule;
+
+@Category({OQLQueryTest.class})
+public class ExpressionCompilerIntegrationTest {
+  @Rule
+  public ServerStarterRule serverStarterRule = new ServerStarterRule().withAutoStart();
+
+  private QueryService queryService;
+
+  @Before
+  public void setup() {
+    Cache cache = serverStarterRule.getCache();
+    Region<Integer, Portfolio> region =
+        cache.<Integer, Portfolio>createRegionFactory(RegionShortcut.REPLICATE).create("portfolio");
+    for (int i = 0; i < 20; i++) {
+      region.put(i, new Portfolio(i));
+    }
+    queryService = cache.getQueryService();
+  }
+
+  @After
+  public void tearDown() {
+    DefaultQueryService.COMPILE_QUERY_EXPRESSIONS = false;
+  }
+
+  @Test
+  public void compiledComparisonsAndJunctionsMatchInterpretedResults() throws Exception {
+    assertSameResults("select * from /portfolio p where p.ID > 5 and p.status = 'active'");
+    assertSameResults("select * from /portfolio p where p.ID < 3 or p.pkid = '7'");
+    assertSameResults("select * from /portfolio p where not (p.ID >= 10) and p.isActive");
+    assertSameResults("select * from /portfolio p where p.status <> 'active'");
+  }
+
+  @Test
+  public void compiledProjectionsMatchInterpretedResults() throws Exception {
+    assertSameResults("select p.ID, p.status from /portfolio p where p.ID > $1", 4);
+    assertSameResults("select distinct p.status from /portfolio p");
+    assertSameResults("select ID from /portfolio where status = 'inactive'");
+  }
+
+  @Test
+  public void compiledPathsOverNestedIteratorsMatchInterpretedResults() throws Exception {
+    assertSameResults("select distinct p.ID, pos.secId from /portfolio p, p.positions.values pos"
+        + " where pos.secId = 'IBM' or pos.mktValue > 2.0");
+  }
+
+  private void assertSameResults(String queryString, Object... params) throws Exception {
+    DefaultQueryService.COMPILE_QUERY_EXPRESSIONS = false;
+    SelectResults interpreted =
+        (SelectResults) queryService.newQuery(queryString).execute(params);
+    DefaultQueryService.COMPILE_QUERY_EXPRESSIONS = true;
+    SelectResults compiled = (SelectResults) queryService.newQuery(queryString).execute(params);
+
+    assertThat(compiled.asList()).containsExactlyInAnyOrderElementsOf(interpreted.asList());
+  }
+}
@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.PartitionAttributesFactory;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.cache.query.data.Portfolio;
+import org.apache.geode.test.junit.categories.OQLQueryTest;
+import org.apache.geode.test.junit.rules.ServerStarterRule;
+
+@Category({OQLQueryTest.class})
+public class HashJoinIntegrationTest {
+  @Rule
+  public ServerStarterRule serverStarterRule = new ServerStarterRule().withAutoStart();
+
+  private QueryService queryService;
+
+  @Before
+  public void setup() {
+    Cache cache = serverStarterRule.getCache();
+    Region<Integer, Portfolio> portfolios =
+        cache.<Integer, Portfolio>createRegionFactory(RegionShortcut.REPLICATE).create("rr1");
+    Region<Integer, Portfolio> others =
+        cache.<Integer, Portfolio>createRegionFactory(RegionShortcut.REPLICATE).create("rr2");
+    Region<Integer, Portfolio> partitioned =
+        cache.<Integer, Portfolio>createRegionFactory(RegionShortcut.PARTITION).create("pr1");
+    Region<Integer, Portfolio> colocated =
+        cache.<Integer, Portfolio>createRegionFactory(RegionShortcut.PARTITION)
+            .setPartitionAttributes(
+                new PartitionAttributesFactory<Integer, Portfolio>().setColocatedWith("pr1")
+                    .create())
+            .create("pr2");
+    for (int i = 0; i < 20; i++) {
+      portfolios.put(i, new Portfolio(i));
+      partitioned.put(i, new Portfolio(i));
+    }
+    for (int i = 10; i < 40; i++) {
+      others.put(i, new Portfolio(i));
+      colocated.put(i, new Portfolio(i));
+    }
+    queryService = cache.getQueryService();
+  }
+
+  @After
+  public void tearDown() {
+    DefaultQueryService.HASH_JOIN_ENABLED = true;
+  }
+
+  @Test
+  public void equalityJoinMatchesNestedIterationResults() throws Exception {
+    SelectResults results =
+        assertSameResults("select p1.ID, p2.ID from /rr1 p1, /rr2 p2 where p1.ID = p2.ID");
+    assertThat(results).hasSize(10);
+    assertSameResults("select * from /rr1 p1, /rr2 p2 where p2.pkid = p1.pkid");
+    assertSameResults("select p1.ID from /rr1 p1, /rr2 p2 where p2.ID = p1.ID + 10");
+  }
+
+  @Test
+  public void joinWithOtherConditionsMatchesNestedIterationResults() throws Exception {
+    assertSameResults("select p1.ID, p2.ID from /rr1 p1, /rr2 p2"
+        + " where p1.status = 'active' and p1.ID = p2.ID and p2.ID > $1", 12);
+    assertSameResults("select distinct p1.status from /rr1 p1, /rr2 p2 where p1.ID = p2.ID");
+    assertSameResults(
+        "select p1.ID, p2.ID from /rr1 p1, /rr2 p2 where p1.ID = p2.ID order by p1.ID desc");
+  }
+
+  @Test
+  public void joinOnValuesOfDifferentTypesMatchesNestedIterationResults() throws Exception {
+    assertSameResults("select p1.ID, p2.ID from /rr1 p1, /rr2 p2 where p1.ID = p2.createTime");
+    assertSameResults("select p1.ID, p2.ID from /rr1 p1, /rr2 p2 where p1.shortID = p2.shortID");
+    assertSameResults("select p1.ID from /rr1 p1, /rr2 p2 where p1.position2 = p2.position2");
+  }
+
+  @Test
+  public void joinHonorsLimit() throws Exception {
+    DefaultQueryService.HASH_JOIN_ENABLED = true;
+    SelectResults results = (SelectResults) queryService
+        .newQuery("select p1.ID, p2.ID from /rr1 p1, /rr2 p2 where p1.ID = p2.ID limit 4")
+        .execute();
+
+    assertThat(results).hasSize(4);
+  }
+
+  @Test
+  public void joinOfColocatedPartitionedRegionsMatchesNestedIterationResults()
+      throws Exception {
+    SelectResults results =
+        assertSameResults("select p1.ID, p2.ID from /pr1 p1, /pr2 p2 where p1.ID = p2.ID");
+    assertThat(results).hasSize(10);
+  }
+
+  private SelectResults assertSameResults(String queryString, Object... params)
+      throws Exception {
+    DefaultQueryService.HASH_JOIN_ENABLED = false;
+    SelectResults nested = (SelectResults) queryService.newQuery(queryString).execute(params);
+    DefaultQueryService.HASH_JOIN_ENABLED = true;
+    SelectResults joined = (SelectResults) queryService.newQuery(queryString).execute(params);
+
+    assertThat(joined.asList()).containsExactlyInAnyOrderElementsOf(nested.asList());
+    return joined;
+  }
+}
@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.cache.query.data.Portfolio;
+import org.apache.geode.test.junit.categories.OQLQueryTest;
+import org.apache.geode.test.junit.rules.ServerStarterRule;
+
+/**
+ * Runs aggregate queries on a partitioned region, whose bucket results are combined per member,
+ * and checks them against the same queries on a replicated region.
+ */
+@Category({OQLQueryTest.class})
+public class PartitionedGroupByIntegrationTest {
+  @Rule
+  public ServerStarterRule serverStarterRule = new ServerStarterRule().withAutoStart();
+
+  private QueryService queryService;
+
+  @Before
+  public void createRegions() {
+    Cache cache = serverStarterRule.getCache();
+    Region<Integer, Portfolio> partitioned =
+        cache.<Integer, Portfolio>createRegionFactory(RegionShortcut.PARTITION).create("pr");
+    Region<Integer, Portfolio> replicated =
+        cache.<Integer, Portfolio>createRegionFactory(RegionShortcut.REPLICATE).create("rr");
+    for (int i = 0; i < 1000; i++) {
+      Portfolio portfolio = new Portfolio(i);
+      partitioned.put(i, portfolio);
+      replicated.put(i, portfolio);
+    }
+    this.queryService = cache.getQueryService();
+  }
+
+  private void assertSameResults(String queryTemplate) throws Exception {
+    SelectResults expected = (SelectResults) this.queryService
+        .newQuery(String.format(queryTemplate, "/rr")).execute();
+    SelectResults actual = (SelectResults) this.queryService
+        .newQuery(String.format(queryTemplate, "/pr")).execute();
+
+    assertThat(actual.asList()).isEqualTo(expected.asList());
+  }
+
+  @Test
+  public void groupedAggregatesMatchReplicatedRegion() throws Exception {
+    assertSameResults("select p.status, sum(p.ID), count(p.ID), avg(p.ID), min(p.ID), max(p.ID)"
+        + " from %s p group by p.status order by p.status");
+  }
+
+  @Test
+  public void groupedDistinctAggregatesMatchReplicatedRegion() throws Exception {
+    assertSameResults("select p.status, count(distinct p.ID), sum(distinct p.ID),"
+        + " avg(distinct p.ID) from %s p group by p.status order by p.status");
+  }
+
+  @Test
+  public void ungroupedAggregatesMatchReplicatedRegion() throws Exception {
+    assertSameResults("select sum(p.ID), count(p.ID), avg(p.ID), max(p.ID) from %s p");
+  }
+}
@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.cache.query.Query;
+import org.apache.geode.cache.query.QueryInvalidException;
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.cache.query.Struct;
+import org.apache.geode.cache.query.data.Portfolio;
+import org.apache.geode.test.junit.categories.OQLQueryTest;
+import org.apache.geode.test.junit.rules.ServerStarterRule;
+
+@Category({OQLQueryTest.class})
+public class QueryExplanationIntegrationTest {
+  @Rule
+  public ServerStarterRule serverStarterRule = new ServerStarterRule().withAutoStart();
+
+  private QueryService queryService;
+
+  @Before
+  public void setup() throws Exception {
+    Cache cache = serverStarterRule.getCache();
+    Region<Integer, Portfolio> portfolios =
+        cache.<Integer, Portfolio>createRegionFactory(RegionShortcut.REPLICATE).create("rr1");
+    Region<Integer, Portfolio> indexed =
+        cache.<Integer, Portfolio>createRegionFactory(RegionShortcut.REPLICATE).create("rr2");
+    Region<Integer, Portfolio> partitioned =
+        cache.<Integer, Portfolio>createRegionFactory(RegionShortcut.PARTITION).create("pr1");
+    for (int i = 0; i < 20; i++) {
+      portfolios.put(i, new Portfolio(i));
+      indexed.put(i, new Portfolio(i));
+      partitioned.put(i, new Portfolio(i));
+    }
+    queryService = cache.getQueryService();
+    queryService.createIndex("idIndex", "p.ID", "/rr2 p");
+  }
+
+  @Test
+  public void explainReturnsOperatorsInsteadOfResults() throws Exception {
+    SelectResults results = execute("<explain> select * from /rr1 p where p.ID > 5");
+
+    assertThat(results.getCollectionType().getElementType().isStructType()).isTrue();
+    Struct select = getOperator(results, "Select");
+    assertThat(select.getStructType().getFieldNames()).containsExactly("operator", "detail");
+    assertThat(select.get("detail")).isEqualTo("where");
+    assertThat(getOperator(results, "Query").get("detail"))
+        .isEqualTo("<explain> select * from /rr1 p where p.ID > 5");
+    assertThat(getOperator(results, "Scan").get("detail")).isEqualTo("/rr1 p");
+  }
+
+  @Test
+  public void explainAnalyzeCountsRowsOfScan() throws Exception {
+    SelectResults results = execute("<explain analyze> select * from /rr1 p where p.ID > 5");
+
+    Struct select = getOperator(results, "Select");
+    assertThat(select.getStructType().getFieldNames()).containsExactly("operator", "detail",
+        "rows", "timeMillis", "indexLookups", "deserializations");
+    assertThat(select.get("rows")).isEqualTo(14L);
+    assertThat(getOperator(results, "Scan").get("rows")).isEqualTo(20L);
+    assertThat(getOperator(results, "Query").get("rows")).isEqualTo(14L);
+  }
+
+  @Test
+  public void explainAnalyzeCountsIndexLookups() throws Exception {
+    SelectResults results = execute("<EXPLAIN ANALYZE> select * from /rr2 p where p.ID = 3");
+
+    Struct lookup = getOperator(results, "IndexLookup");
+    assertThat(lookup.get("detail")).isEqualTo("idIndex");
+    assertThat(lookup.get("indexLookups")).isEqualTo(1L);
+    assertThat(lookup.get("rows")).isEqualTo(1L);
+    assertThat(getOperator(results, "Select").get("rows")).isEqualTo(1L);
+    assertThat(getOperators(results)).doesNotContain("Scan");
+  }
+
+  @Test
+  public void explainAnalyzeOfPartitionedRegionGathersBucketOperators() throws Exception {
+    SelectResults results =
+        execute("<explain analyze> select * from /pr1 p where p.status = 'active'");
+
+    Struct gather = getOperator(results, "PartitionedRegion");
+    assertThat(gather.get("detail")).isEqualTo("/pr1 on 1 members");
+    assertThat(gather.get("rows")).isEqualTo(10L);
+    assertThat(getOperator(results, "Select").get("rows")).isEqualTo(10L);
+    assertThat(getOperator(results, "Scan").get("rows")).isEqualTo(20L);
+  }
+
+  @Test
+  public void explainedQueryCanBeExecutedByThreadsAtOnce() throws Exception {
+    Query query = queryService.newQuery("<explain analyze> select * from /rr1 p where p.ID > 5");
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<SelectResults>> futures = new ArrayList<>();
+      for (int i = 0; i < 40; i++) {
+        futures.add(executor.submit(() -> (SelectResults) query.execute()));
+      }
+      for (Future<SelectResults> future : futures) {
+        SelectResults results = future.get();
+        assertThat(getOperator(results, "Scan").get("rows")).isEqualTo(20L);
+        assertThat(getOperator(results, "Query").get("rows")).isEqualTo(14L);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    assertThat(((DefaultQuery) query).getExplanation()).isNull();
+  }
+
+  @Test
+  public void explainOfUnknownOptionIsInvalid() {
+    assertThatThrownBy(() -> queryService.newQuery("<explain everything> select * from /rr1"))
+        .isInstanceOf(QueryInvalidException.class);
+  }
+
+  private SelectResults execute(String queryString) throws Exception {
+    return (SelectResults) queryService.newQuery(queryString).execute();
+  }
+
+  private List<String> getOperators(SelectResults results) {
+    List<String> operators = new ArrayList<>();
+    for (Object row : results) {
+      operators.add(((String) ((Struct) row).get("operator")).trim());
+    }
+    return operators;
+  }
+
+  private Struct getOperator(SelectResults results, String operator) {
+    for (Object row : results) {
+      Struct struct = (Struct) row;
+      if (((String) struct.get("operator")).trim().equals(operator)) {
+        return struct;
+      }
+    }
+    throw new AssertionError("no " + operator + " operator in " + getOperators(results));
+  }
+}
@@ -18,6 +18,7 @@ import static org.junit.Assert.assertTrue;
 
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import org.junit.After;
@@ -382,5 +383,10 @@ public class QueryObserverCallbackJUnitTest {
     public void orderByColumnsEqual() {
       // nothing
     }
+
+    @Override
+    public void afterCostBasedPlanChosen(CompiledValue junction, List<PlanInfo> plans) {
+      // nothing
+    }
   }
 }
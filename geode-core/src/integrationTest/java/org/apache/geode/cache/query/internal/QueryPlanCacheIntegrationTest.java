@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.cache.query.data.Portfolio;
+import org.apache.geode.internal.cache.InternalCache;
+import org.apache.geode.test.junit.categories.OQLQueryTest;
+import org.apache.geode.test.junit.rules.ServerStarterRule;
+
+@Category({OQLQueryTest.class})
+public class QueryPlanCacheIntegrationTest {
+  @Rule
+  public ServerStarterRule serverStarterRule = new ServerStarterRule().withAutoStart();
+
+  private InternalCache cache;
+  private QueryService queryService;
+  private Region<Integer, Portfolio> portfolios;
+
+  @Before
+  public void setup() {
+    cache = serverStarterRule.getCache();
+    portfolios = cache.<Integer, Portfolio>createRegionFactory(RegionShortcut.PARTITION)
+        .create("portfolios");
+    queryService = cache.getQueryService();
+  }
+
+  @Test
+  public void bucketCreationKeepsCachedPlans() throws Exception {
+    queryService.newQuery("select * from /portfolios p where p.ID > 0").execute();
+    assertThat(cache.getQueryPlanCache().size()).isEqualTo(1);
+
+    for (int i = 0; i < 200; i++) {
+      portfolios.put(i, new Portfolio(i));
+    }
+
+    assertThat(cache.getQueryPlanCache().size()).isEqualTo(1);
+  }
+
+  @Test
+  public void partitionedIndexCreationDiscardsCachedPlans() throws Exception {
+    for (int i = 0; i < 200; i++) {
+      portfolios.put(i, new Portfolio(i));
+    }
+    queryService.newQuery("select * from /portfolios p where p.ID > 0").execute();
+    assertThat(cache.getQueryPlanCache().size()).isEqualTo(1);
+
+    queryService.createIndex("idIndex", "p.ID", "/portfolios p");
+
+    assertThat(cache.getQueryPlanCache().size()).isEqualTo(0);
+  }
+
+  @Test
+  public void regionCreationDiscardsCachedPlans() throws Exception {
+    queryService.newQuery("select * from /portfolios p where p.ID > 0").execute();
+    assertThat(cache.getQueryPlanCache().size()).isEqualTo(1);
+
+    cache.createRegionFactory(RegionShortcut.REPLICATE).create("others");
+
+    assertThat(cache.getQueryPlanCache().size()).isEqualTo(0);
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionFactory;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.cache.query.Index;
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.cache.query.data.Portfolio;
+import org.apache.geode.cache.query.internal.DefaultQuery;
+import org.apache.geode.internal.cache.InternalCache;
+import org.apache.geode.internal.cache.LocalRegion;
+import org.apache.geode.test.junit.categories.OQLIndexTest;
+import org.apache.geode.test.junit.rules.ServerStarterRule;
+
+@Category({OQLIndexTest.class})
+public class AsyncIndexBatchUpdateIntegrationTest {
+  @Rule
+  public ServerStarterRule serverStarterRule = new ServerStarterRule().withAutoStart();
+
+  private static final int ENTRIES = 2000;
+
+  private Region<Integer, Portfolio> createAsyncRegion(InternalCache cache) {
+    RegionFactory<Integer, Portfolio> factory =
+        cache.createRegionFactory(RegionShortcut.REPLICATE);
+    factory.setIndexMaintenanceSynchronous(false);
+    return factory.create("portfolio");
+  }
+
+  @Test
+  public void waitForAsyncUpdatesReturnsOnceAllQueuedUpdatesAreApplied() throws Exception {
+    InternalCache cache = serverStarterRule.getCache();
+    Region<Integer, Portfolio> region = createAsyncRegion(cache);
+    QueryService queryService = cache.getQueryService();
+    Index index = queryService.createIndex("idIndex", "p.ID", "/portfolio p");
+
+    for (int i = 0; i < ENTRIES; i++) {
+      region.put(i, new Portfolio(i));
+    }
+    IndexManager indexManager = ((LocalRegion) region).getIndexManager();
+
+    assertThat(indexManager.waitForAsyncUpdates(cache.cacheTimeMillis(), 30000)).isTrue();
+    assertThat(indexManager.getUpdaterThread().isDone()).isTrue();
+    assertThat(index.getStatistics().getNumberOfValues()).isEqualTo(ENTRIES);
+
+    for (int i = 0; i < ENTRIES; i += 2) {
+      region.destroy(i);
+    }
+    assertThat(indexManager.waitForAsyncUpdates(cache.cacheTimeMillis(), 30000)).isTrue();
+    assertThat(index.getStatistics().getNumberOfValues()).isEqualTo(ENTRIES / 2);
+  }
+
+  @Test
+  public void queryRequestingIndexFreshnessSeesPrecedingUpdates() throws Exception {
+    InternalCache cache = serverStarterRule.getCache();
+    Region<Integer, Portfolio> region = createAsyncRegion(cache);
+    QueryService queryService = cache.getQueryService();
+    queryService.createIndex("idIndex", "p.ID", "/portfolio p");
+
+    for (int i = 0; i < ENTRIES; i++) {
+      region.put(i, new Portfolio(i));
+    }
+    DefaultQuery query =
+        (DefaultQuery) queryService.newQuery("select * from /portfolio p where p.ID >= 0");
+    query.setIndexFreshness(cache.cacheTimeMillis());
+    SelectResults results = (SelectResults) query.execute();
+
+    assertThat(results).hasSize(ENTRIES);
+  }
+}
@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.cache.query.Index;
+import org.apache.geode.cache.query.IndexType;
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.cache.query.data.Portfolio;
+import org.apache.geode.internal.cache.CachePerfStats;
+import org.apache.geode.internal.cache.RegionEntry;
+import org.apache.geode.internal.size.ObjectGraphSizer;
+import org.apache.geode.test.junit.categories.OQLIndexTest;
+import org.apache.geode.test.junit.rules.ServerStarterRule;
+
+@Category({OQLIndexTest.class})
+public class BitmapIndexIntegrationTest {
+  @Rule
+  public ServerStarterRule serverStarterRule = new ServerStarterRule().withAutoStart();
+
+  private static final String[] QUERIES = {
+      "select * from /portfolio p where p.status = 'active' and p.pkid = '4'",
+      "select * from /portfolio p where p.status = 'active' and p.pkid <> '4'",
+      "select * from /portfolio p where p.status = 'inactive' or p.pkid = '4'",
+      "select * from /portfolio p where p.status <> 'active' and p.pkid <> '3'",
+      "select * from /portfolio p where p.status = 'active' and p.pkid = '4' and p.ID > 2",
+      "select * from /portfolio p where p.status in set('active', 'unknown')",
+      "select p.ID from /portfolio p where p.status = 'active' and p.pkid <> '6' order by p.ID",
+      "select * from /portfolio p where p.status = 'active' and p.pkid <> '8' limit 3"};
+
+  /** Sizes the structures an index holds, leaving out the entries and evaluator they refer to */
+  private static final ObjectGraphSizer.ObjectFilter INDEX_STORAGE =
+      (parent, object) -> !(object instanceof RegionEntry
+          || object instanceof IndexedExpressionEvaluator || object instanceof CachePerfStats);
+
+  private Region<Integer, Portfolio> createRegion(RegionShortcut shortcut) {
+    return createRegion(shortcut, 100);
+  }
+
+  private Region<Integer, Portfolio> createRegion(RegionShortcut shortcut, int entries) {
+    Cache cache = serverStarterRule.getCache();
+    Region<Integer, Portfolio> region =
+        cache.<Integer, Portfolio>createRegionFactory(shortcut).create("portfolio");
+    for (int i = 0; i < entries; i++) {
+      region.put(i, new Portfolio(i));
+    }
+    return region;
+  }
+
+  private long sizeOf(Object storage) throws Exception {
+    return ObjectGraphSizer.size(storage, INDEX_STORAGE, false);
+  }
+
+  private List<List> executeQueries(QueryService queryService) throws Exception {
+    List<List> results = new ArrayList<>();
+    for (String query : QUERIES) {
+      results.add(((SelectResults) queryService.newQuery(query).execute()).asList());
+    }
+    return results;
+  }
+
+  private void assertSameResults(List<List> expected, List<List> actual) {
+    for (int i = 0; i < QUERIES.length; i++) {
+      if (QUERIES[i].contains("limit")) {
+        assertThat(actual.get(i)).hasSameSizeAs(expected.get(i));
+      } else if (QUERIES[i].contains("order by")) {
+        assertThat(actual.get(i)).as(QUERIES[i]).containsExactlyElementsOf(expected.get(i));
+      } else {
+        assertThat(actual.get(i)).as(QUERIES[i])
+            .containsExactlyInAnyOrderElementsOf(expected.get(i));
+      }
+    }
+  }
+
+  private void verifyBitmapIndexesMatchUnindexedResults(RegionShortcut shortcut)
+      throws Exception {
+    Region<Integer, Portfolio> region = createRegion(shortcut);
+    QueryService queryService = serverStarterRule.getCache().getQueryService();
+    List<List> expected = executeQueries(queryService);
+
+    Index statusIndex = queryService.createBitmapIndex("statusIndex", "p.status", "/portfolio p");
+    Index pkidIndex = queryService.createBitmapIndex("pkidIndex", "p.pkid", "/portfolio p");
+    assertThat(statusIndex.getType()).isEqualTo(IndexType.BITMAP);
+    assertSameResults(expected, executeQueries(queryService));
+    assertThat(statusIndex.getStatistics().getTotalUses()
+        + pkidIndex.getStatistics().getTotalUses()).isGreaterThan(0);
+
+    // move entries between keys and remove some, then compare with a fresh unindexed run
+    for (int i = 0; i < 100; i += 5) {
+      Portfolio portfolio = new Portfolio(i);
+      portfolio.status = "active".equals(portfolio.status) ? "inactive" : "active";
+      region.put(i, portfolio);
+    }
+    for (int i = 1; i < 100; i += 7) {
+      region.destroy(i);
+    }
+    List<List> indexed = executeQueries(queryService);
+    queryService.removeIndexes();
+    assertSameResults(executeQueries(queryService), indexed);
+  }
+
+  @Test
+  public void bitmapIndexesOnReplicatedRegionMatchUnindexedResults() throws Exception {
+    verifyBitmapIndexesMatchUnindexedResults(RegionShortcut.REPLICATE);
+  }
+
+  @Test
+  public void bitmapIndexesOnPartitionedRegionMatchUnindexedResults() throws Exception {
+    verifyBitmapIndexesMatchUnindexedResults(RegionShortcut.PARTITION);
+  }
+
+  @Test
+  public void bitmapIndexesUseLessMemoryThanHashIndexes() throws Exception {
+    createRegion(RegionShortcut.REPLICATE, 20000);
+    QueryService queryService = serverStarterRule.getCache().getQueryService();
+
+    HashIndex statusHashIndex =
+        (HashIndex) queryService.createHashIndex("statusIndex", "p.status", "/portfolio p");
+    HashIndex typeHashIndex =
+        (HashIndex) queryService.createHashIndex("typeIndex", "p.type", "/portfolio p");
+    long statusHashIndexSize = sizeOf(statusHashIndex.entriesSet);
+    long hashIndexesSize = statusHashIndexSize + sizeOf(typeHashIndex.entriesSet);
+    queryService.removeIndexes();
+
+    BitmapIndex statusBitmapIndex =
+        (BitmapIndex) queryService.createBitmapIndex("statusIndex", "p.status", "/portfolio p");
+    BitmapIndex typeBitmapIndex =
+        (BitmapIndex) queryService.createBitmapIndex("typeIndex", "p.type", "/portfolio p");
+    assertThat(statusBitmapIndex.getEntryOrdinals())
+        .isSameAs(typeBitmapIndex.getEntryOrdinals());
+    long statusBitmapsSize = sizeOf(statusBitmapIndex.keyToBitmap);
+    long bitmapIndexesSize = sizeOf(statusBitmapIndex.getEntryOrdinals()) + statusBitmapsSize
+        + sizeOf(typeBitmapIndex.keyToBitmap);
+
+    // a bitmap index holds nothing per entry but its bits
+    assertThat(statusBitmapsSize).isLessThan(statusHashIndexSize / 4);
+    // the entry ordinals are shared by the bitmap indexes of the region
+    assertThat(bitmapIndexesSize).isLessThan(hashIndexesSize);
+  }
+
+  @Test
+  public void bitmapIndexIsNotSupportedWithAsynchronousMaintenance() {
+    Cache cache = serverStarterRule.getCache();
+    cache.<Integer, Portfolio>createRegionFactory(RegionShortcut.REPLICATE)
+        .setIndexMaintenanceSynchronous(false).create("portfolio");
+
+    assertThatThrownBy(() -> cache.getQueryService().createBitmapIndex("statusIndex", "p.status",
+        "/portfolio p")).isInstanceOf(UnsupportedOperationException.class);
+  }
+}
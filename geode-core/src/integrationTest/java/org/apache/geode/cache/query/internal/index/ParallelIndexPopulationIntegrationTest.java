@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.cache.query.Index;
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.cache.query.data.Portfolio;
+import org.apache.geode.test.junit.categories.OQLIndexTest;
+import org.apache.geode.test.junit.rules.ServerStarterRule;
+
+@Category({OQLIndexTest.class})
+public class ParallelIndexPopulationIntegrationTest {
+  @Rule
+  public ServerStarterRule serverStarterRule = new ServerStarterRule().withAutoStart();
+
+  private static final int ENTRIES = 5000;
+
+  private void verifyDefinedIndexesArePopulated(RegionShortcut shortcut) throws Exception {
+    Cache cache = serverStarterRule.getCache();
+    Region<Integer, Portfolio> region =
+        cache.<Integer, Portfolio>createRegionFactory(shortcut).create("portfolio");
+    for (int i = 0; i < ENTRIES; i++) {
+      region.put(i, new Portfolio(i));
+    }
+    QueryService queryService = cache.getQueryService();
+    queryService.defineIndex("idIndex", "p.ID", "/portfolio p");
+    queryService.defineIndex("statusIndex", "p.status", "/portfolio p");
+    queryService.defineIndex("pkidIndex", "p.pkid", "/portfolio p");
+
+    List<Index> indexes = queryService.createDefinedIndexes();
+
+    assertThat(indexes).hasSize(3);
+    for (Index index : indexes) {
+      assertThat(((AbstractIndex) index).isPopulated()).isTrue();
+    }
+    Index idIndex = queryService.getIndex(region, "idIndex");
+    assertThat(idIndex.getStatistics().getNumberOfValues()).isEqualTo(ENTRIES);
+    Index statusIndex = queryService.getIndex(region, "statusIndex");
+    assertThat(statusIndex.getStatistics().getNumberOfValues()).isEqualTo(ENTRIES);
+
+    SelectResults results = (SelectResults) queryService
+        .newQuery("select * from /portfolio p where p.ID < 100 and p.status = 'active'")
+        .execute();
+    assertThat(results).hasSize(50);
+    results = (SelectResults) queryService
+        .newQuery("select * from /portfolio p where p.pkid = '4321'").execute();
+    assertThat(results).hasSize(1);
+  }
+
+  @Test
+  public void definedIndexesOnReplicatedRegionArePopulatedInOneScan() throws Exception {
+    verifyDefinedIndexesArePopulated(RegionShortcut.REPLICATE);
+  }
+
+  @Test
+  public void definedIndexesOnPartitionedRegionArePopulatedAcrossBuckets() throws Exception {
+    verifyDefinedIndexesArePopulated(RegionShortcut.PARTITION);
+  }
+}
@@ -14,8 +14,11 @@
  */
 package org.apache.geode.cache.query.partitioned;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 
 import org.junit.Before;
@@ -26,6 +29,7 @@ import org.apache.geode.LogWriter;
 import org.apache.geode.cache.Region;
 import org.apache.geode.cache.query.Query;
 import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.cache.query.Struct;
 import org.apache.geode.cache.query.data.PortfolioData;
 import org.apache.geode.internal.Assert;
 import org.apache.geode.internal.cache.PRQueryProcessor;
@@ -136,6 +140,49 @@ public class PRQueryNumThreadsJUnitTest {
     }
   }
 
+  /**
+   * Verifies that the partial results of the bucket groups evaluated in parallel are merged for
+   * LIMIT, DISTINCT, ORDER BY, COUNT and aggregate queries.
+   */
+  @Test
+  public void testPartialResultsAreMerged() throws Exception {
+    Region region = PartitionedRegionTestHelper.createPartitionedRegion(regionName, "100", 0);
+    PortfolioData[] portfolios = new PortfolioData[100];
+    for (int j = 0; j < 100; j++) {
+      portfolios[j] = new PortfolioData(j);
+    }
+    PRQueryProcessor.TEST_NUM_THREADS = 4;
+    try {
+      populateData(region, portfolios);
+      String from = " from /" + region.getName() + " p";
+
+      SelectResults sr = executeQuery(region, "select * " + from + " where p.ID >= 0 limit 7");
+      assertEquals(7, sr.size());
+
+      sr = executeQuery(region, "select distinct p.status " + from);
+      assertEquals(2, sr.size());
+
+      sr = executeQuery(region, "select p.ID " + from + " order by p.ID desc limit 5");
+      assertEquals(Arrays.asList(99, 98, 97, 96, 95), sr.asList());
+
+      sr = executeQuery(region, "select count(*) " + from + " where p.ID < 50");
+      assertEquals(Collections.singletonList(50), sr.asList());
+
+      sr = executeQuery(region, "select max(p.ID), sum(p.ID) " + from);
+      Struct aggregates = (Struct) sr.asList().get(0);
+      assertEquals(99, aggregates.getFieldValues()[0]);
+      assertEquals(4950, ((Number) aggregates.getFieldValues()[1]).intValue());
+    } finally {
+      PRQueryProcessor.TEST_NUM_THREADS = 0;
+      region.close();
+    }
+  }
+
+  private SelectResults executeQuery(Region region, String queryString) throws Exception {
+    Query query = region.getCache().getQueryService().newQuery(queryString);
+    return (SelectResults) query.execute();
+  }
+
   /**
    * Populates the region with the Objects stores in the data Object array.
    *
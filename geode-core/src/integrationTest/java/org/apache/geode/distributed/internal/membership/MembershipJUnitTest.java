@@ -51,8 +51,10 @@ import org.apache.geode.distributed.internal.membership.gms.ServiceConfig;
 import org.apache.geode.distributed.internal.membership.gms.Services;
 import org.apache.geode.distributed.internal.membership.gms.interfaces.JoinLeave;
 import org.apache.geode.distributed.internal.membership.gms.membership.GMSJoinLeave;
+import org.apache.geode.distributed.internal.membership.gms.messages.FullViewRequestMessage;
 import org.apache.geode.distributed.internal.membership.gms.messages.HeartbeatMessage;
 import org.apache.geode.distributed.internal.membership.gms.messages.HeartbeatRequestMessage;
+import org.apache.geode.distributed.internal.membership.gms.messages.InstallViewDeltaMessage;
 import org.apache.geode.distributed.internal.membership.gms.messages.InstallViewMessage;
 import org.apache.geode.distributed.internal.membership.gms.messages.JoinRequestMessage;
 import org.apache.geode.distributed.internal.membership.gms.messages.JoinResponseMessage;
@@ -476,6 +478,18 @@ public class MembershipJUnitTest {
     } catch (Exception e) {
       // okay
     }
+    try {
+      new InstallViewDeltaMessage().process(dm);
+      fail("expected an exception to be thrown");
+    } catch (Exception e) {
+      // okay
+    }
+    try {
+      new FullViewRequestMessage().process(dm);
+      fail("expected an exception to be thrown");
+    } catch (Exception e) {
+      // okay
+    }
     try {
       new JoinRequestMessage().process(dm);
       fail("expected an exception to be thrown");
@@ -47,6 +47,7 @@ import java.net.Socket;
 import java.net.SocketAddress;
 import java.net.UnknownHostException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Properties;
 import java.util.concurrent.TimeUnit;
@@ -84,6 +85,8 @@ import org.apache.geode.distributed.internal.membership.gms.interfaces.Messenger
 import org.apache.geode.distributed.internal.membership.gms.messages.FinalCheckPassedMessage;
 import org.apache.geode.distributed.internal.membership.gms.messages.HeartbeatMessage;
 import org.apache.geode.distributed.internal.membership.gms.messages.HeartbeatRequestMessage;
+import org.apache.geode.distributed.internal.membership.gms.messages.ProbeRequestMessage;
+import org.apache.geode.distributed.internal.membership.gms.messages.ProbeResponseMessage;
 import org.apache.geode.distributed.internal.membership.gms.messages.SuspectMembersMessage;
 import org.apache.geode.distributed.internal.membership.gms.messages.SuspectRequest;
 import org.apache.geode.internal.HeapDataOutputStream;
@@ -274,6 +277,74 @@ public class GMSHealthMonitorJUnitTest {
     Assert.assertTrue(gmsHealthMonitor.getStats().getSuspectsSent() > 0);
   }
 
+  @Test
+  public void testSwimSuspectsMemberThatDoesNotRespondToProbes() throws Exception {
+    gmsHealthMonitor.useSwim = true;
+    installAView();
+
+    // every other member is probed once in each interval. Allow time for the direct and
+    // indirect probes of at least one member to go unanswered
+    Thread.sleep(3 * memberTimeout + 100);
+
+    assertTrue(gmsHealthMonitor.getStats().getHeartbeatRequestsSent() > 0);
+    assertTrue(gmsHealthMonitor.getStats().getSuspectsSent() > 0);
+    verify(messenger, atLeastOnce()).send(isA(ProbeRequestMessage.class));
+  }
+
+  @Test
+  public void testSwimChecksOlderMembersWithHeartbeatRequests() throws Exception {
+    gmsHealthMonitor.useSwim = true;
+    for (InternalDistributedMember mbr : mockMembers) {
+      if (mbr != mockMembers.get(myAddressIndex)) {
+        mbr.setVersionObjectForTest(Version.GEODE_180);
+      }
+    }
+    try {
+      installAView();
+
+      Thread.sleep(3 * memberTimeout + 100);
+
+      verify(messenger, atLeastOnce()).send(isA(HeartbeatRequestMessage.class));
+      verify(messenger, never()).send(isA(ProbeRequestMessage.class));
+    } finally {
+      for (InternalDistributedMember mbr : mockMembers) {
+        mbr.setVersionObjectForTest(Version.CURRENT);
+      }
+    }
+  }
+
+  @Test
+  public void testProbeRequestForThisMemberIsAnswered() throws Exception {
+    gmsHealthMonitor.useSwim = true;
+    NetView v = installAView();
+    InternalDistributedMember me = mockMembers.get(myAddressIndex);
+    me.setVmViewId(v.getViewId());
+
+    ProbeRequestMessage request =
+        new ProbeRequestMessage(me, 1, me, Collections.emptyList());
+    request.setSender(mockMembers.get(0));
+    gmsHealthMonitor.processMessage(request);
+
+    verify(messenger, atLeastOnce()).send(isA(ProbeResponseMessage.class));
+    assertEquals(1, gmsHealthMonitor.getStats().getHeartbeatRequestsReceived());
+  }
+
+  @Test
+  public void testProbeResponseClearsSuspicion() throws Exception {
+    gmsHealthMonitor.useSwim = true;
+    installAView();
+    InternalDistributedMember suspect = mockMembers.get(myAddressIndex + 1);
+    gmsHealthMonitor.memberSuspected(mockMembers.get(0), suspect, "test");
+    assertTrue(gmsHealthMonitor.isSuspectMember(suspect));
+
+    ProbeResponseMessage response = new ProbeResponseMessage(mockMembers.get(myAddressIndex), 1,
+        suspect, Collections.emptyList());
+    response.setSender(suspect);
+    gmsHealthMonitor.processMessage(response);
+
+    assertFalse(gmsHealthMonitor.isSuspectMember(suspect));
+  }
+
   private NetView installAView() {
     System.out.println("installAView starting");
     NetView v = new NetView(mockMembers.get(0), 2, mockMembers);
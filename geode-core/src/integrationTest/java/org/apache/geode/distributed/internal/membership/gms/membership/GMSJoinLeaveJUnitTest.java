@@ -23,6 +23,7 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Matchers.isA;
+import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
@@ -49,12 +50,14 @@ import org.junit.After;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
+import org.mockito.ArgumentCaptor;
 import org.mockito.internal.verification.Times;
 import org.mockito.verification.Timeout;
 
 import org.apache.geode.distributed.DistributedMember;
 import org.apache.geode.distributed.internal.ClusterDistributionManager;
 import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.distributed.internal.DistributionMessage;
 import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
 import org.apache.geode.distributed.internal.membership.NetView;
 import org.apache.geode.distributed.internal.membership.gms.GMSMember;
@@ -72,6 +75,8 @@ import org.apache.geode.distributed.internal.membership.gms.membership.GMSJoinLe
 import org.apache.geode.distributed.internal.membership.gms.membership.GMSJoinLeave.TcpClientWrapper;
 import org.apache.geode.distributed.internal.membership.gms.membership.GMSJoinLeave.ViewCreator;
 import org.apache.geode.distributed.internal.membership.gms.membership.GMSJoinLeave.ViewReplyProcessor;
+import org.apache.geode.distributed.internal.membership.gms.messages.FullViewRequestMessage;
+import org.apache.geode.distributed.internal.membership.gms.messages.InstallViewDeltaMessage;
 import org.apache.geode.distributed.internal.membership.gms.messages.InstallViewMessage;
 import org.apache.geode.distributed.internal.membership.gms.messages.JoinRequestMessage;
 import org.apache.geode.distributed.internal.membership.gms.messages.JoinResponseMessage;
@@ -342,6 +347,127 @@ public class GMSJoinLeaveJUnitTest {
     Assert.assertEquals(netView, gmsJoinLeave.getView());
   }
 
+  @Test
+  public void testViewDeltaIsAppliedToCurrentView() throws Exception {
+    initMocks();
+    prepareAndInstallView(mockMembers[0],
+        createMemberList(mockMembers[0], gmsJoinLeaveMemberId, mockMembers[1]));
+    NetView currentView = gmsJoinLeave.getView();
+
+    NetView newView = new NetView(mockMembers[0], currentView.getViewId() + 1,
+        createMemberList(mockMembers[0], gmsJoinLeaveMemberId, mockMembers[2]));
+    newView.setFailureDetectionPort(mockMembers[2], 1234);
+    InstallViewDeltaMessage msg =
+        InstallViewDeltaMessage.create(currentView, newView, credentials, false);
+    msg.setSender(mockMembers[0]);
+    gmsJoinLeave.processMessage(msg);
+
+    assertEquals(newView, gmsJoinLeave.getView());
+    assertEquals(newView.getViewId(), gmsJoinLeave.getView().getViewId());
+    assertEquals(1234, gmsJoinLeave.getView().getFailureDetectionPort(mockMembers[2]));
+    verify(messenger, never()).send(isA(FullViewRequestMessage.class));
+  }
+
+  @Test
+  public void testFullViewIsRequestedIfViewDeltaCannotBeApplied() throws Exception {
+    initMocks();
+    prepareAndInstallView(mockMembers[0],
+        createMemberList(mockMembers[0], gmsJoinLeaveMemberId, mockMembers[1]));
+    NetView currentView = gmsJoinLeave.getView();
+
+    // a delta from a view that this member never received
+    NetView missedView = new NetView(mockMembers[0], currentView.getViewId() + 1,
+        createMemberList(mockMembers[0], gmsJoinLeaveMemberId, mockMembers[1], mockMembers[3]));
+    NetView newView = new NetView(mockMembers[0], missedView.getViewId() + 1, createMemberList(
+        mockMembers[0], gmsJoinLeaveMemberId, mockMembers[1], mockMembers[3], mockMembers[2]));
+    InstallViewDeltaMessage msg =
+        InstallViewDeltaMessage.create(missedView, newView, credentials, true);
+    msg.setSender(mockMembers[0]);
+    gmsJoinLeave.processMessage(msg);
+
+    assertEquals(currentView, gmsJoinLeave.getView());
+    verify(messenger).send(isA(FullViewRequestMessage.class));
+  }
+
+  @Test
+  public void testViewIsSentAsDeltaToMembersOfPreviousView() throws Exception {
+    initMocks();
+    prepareAndInstallView(mockMembers[0],
+        createMemberList(mockMembers[0], gmsJoinLeaveMemberId, mockMembers[1]));
+    NetView currentView = gmsJoinLeave.getView();
+
+    List<InternalDistributedMember> members = new ArrayList<>(currentView.getMembers());
+    members.add(mockMembers[2]);
+    NetView newView = new NetView(mockMembers[0], currentView.getViewId() + 1, members);
+    gmsJoinLeave.sendView(newView, Collections.singletonList(mockMembers[2]));
+
+    ArgumentCaptor<DistributionMessage> captor =
+        ArgumentCaptor.forClass(DistributionMessage.class);
+    verify(messenger, atLeastOnce()).send(captor.capture(), isA(NetView.class));
+    Set<InternalDistributedMember> deltaRecipients = new HashSet<>();
+    Set<InternalDistributedMember> fullRecipients = new HashSet<>();
+    for (DistributionMessage m : captor.getAllValues()) {
+      if (m instanceof InstallViewDeltaMessage) {
+        deltaRecipients.addAll(Arrays.asList(m.getRecipients()));
+      } else if (m instanceof InstallViewMessage) {
+        fullRecipients.addAll(Arrays.asList(m.getRecipients()));
+      }
+    }
+    assertEquals(new HashSet<>(createMemberList(mockMembers[0], mockMembers[1])),
+        deltaRecipients);
+    assertEquals(Collections.singleton(mockMembers[2]), fullRecipients);
+  }
+
+  @Test
+  public void testViewIsSentInFullToMembersOlderThanGeode190() throws Exception {
+    initMocks();
+    mockMembers[1].setVersionObjectForTest(Version.GEODE_180);
+    prepareAndInstallView(mockMembers[0],
+        createMemberList(mockMembers[0], gmsJoinLeaveMemberId, mockMembers[1]));
+    NetView currentView = gmsJoinLeave.getView();
+
+    List<InternalDistributedMember> members = new ArrayList<>(currentView.getMembers());
+    members.add(mockMembers[2]);
+    NetView newView = new NetView(mockMembers[0], currentView.getViewId() + 1, members);
+    gmsJoinLeave.sendView(newView, Collections.singletonList(mockMembers[2]));
+
+    ArgumentCaptor<DistributionMessage> captor =
+        ArgumentCaptor.forClass(DistributionMessage.class);
+    verify(messenger, atLeastOnce()).send(captor.capture(), isA(NetView.class));
+    Set<InternalDistributedMember> deltaRecipients = new HashSet<>();
+    Set<InternalDistributedMember> fullRecipients = new HashSet<>();
+    for (DistributionMessage m : captor.getAllValues()) {
+      if (m instanceof InstallViewDeltaMessage) {
+        deltaRecipients.addAll(Arrays.asList(m.getRecipients()));
+      } else if (m instanceof InstallViewMessage) {
+        fullRecipients.addAll(Arrays.asList(m.getRecipients()));
+      }
+    }
+    assertEquals(Collections.singleton(mockMembers[0]), deltaRecipients);
+    assertEquals(new HashSet<>(createMemberList(mockMembers[1], mockMembers[2])),
+        fullRecipients);
+  }
+
+  @Test
+  public void testFullViewRequestIsAnswered() throws Exception {
+    initMocks();
+    prepareAndInstallView(mockMembers[0],
+        createMemberList(mockMembers[0], gmsJoinLeaveMemberId, mockMembers[1]));
+    NetView currentView = gmsJoinLeave.getView();
+
+    FullViewRequestMessage request =
+        new FullViewRequestMessage(gmsJoinLeaveMemberId, currentView.getViewId(), false);
+    request.setSender(mockMembers[1]);
+    gmsJoinLeave.processMessage(request);
+
+    ArgumentCaptor<InstallViewMessage> captor = ArgumentCaptor.forClass(InstallViewMessage.class);
+    verify(messenger).send(captor.capture(), isA(NetView.class));
+    assertEquals(currentView, captor.getValue().getView());
+    assertFalse(captor.getValue().isPreparing());
+    assertEquals(Collections.singletonList(mockMembers[1]),
+        Arrays.asList(captor.getValue().getRecipients()));
+  }
+
   private List<InternalDistributedMember> createMemberList(InternalDistributedMember... members) {
     List<InternalDistributedMember> memberList =
         new ArrayList<InternalDistributedMember>(members.length);
@@ -32,7 +32,9 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.After;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.contrib.java.lang.system.RestoreSystemProperties;
 import org.junit.experimental.categories.Category;
 
 import org.apache.geode.DataSerializable;
@@ -54,6 +56,9 @@ public class TcpServerJUnitTest {
   private SimpleStats stats;
   private TcpServer server;
 
+  @Rule
+  public final RestoreSystemProperties restoreSystemProperties = new RestoreSystemProperties();
+
   @Before
   public void setup() {
     SocketCreatorFactory.setDistributionConfig(new DistributionConfigImpl(new Properties()));
@@ -103,6 +108,35 @@ public class TcpServerJUnitTest {
 
   }
 
+  @Test
+  public void testWithSelector() throws Exception {
+    System.setProperty(TcpServer.USE_SELECTOR_PROPERTY, "true");
+    EchoHandler handler = new EchoHandler();
+    start(handler);
+
+    TestObject test = new TestObject();
+    test.id = 5;
+    TestObject result =
+        (TestObject) new TcpClient().requestToServer(localhost, port, test, 60 * 1000);
+    assertEquals(test.id, result.id);
+
+    String[] info = new TcpClient().getInfo(localhost, port);
+    assertNotNull(info);
+    assertTrue(info.length > 1);
+
+    try {
+      new TcpClient().stop(localhost, port);
+    } catch (ConnectException ignore) {
+      // must not be running
+    }
+    server.join(60 * 1000);
+    assertFalse(server.isAlive());
+    assertTrue(handler.shutdown);
+
+    assertEquals(4, stats.started.get());
+    assertEquals(4, stats.ended.get());
+  }
+
   @Test
   public void testConcurrency() throws Exception {
     CountDownLatch latch = new CountDownLatch(1);
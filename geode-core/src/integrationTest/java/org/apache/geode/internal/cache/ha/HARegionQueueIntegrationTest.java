@@ -83,12 +83,14 @@ import org.apache.geode.internal.cache.InternalCache;
 import org.apache.geode.internal.cache.InternalRegionArguments;
 import org.apache.geode.internal.cache.LocalRegion;
 import org.apache.geode.internal.cache.VMCachedDeserializable;
+import org.apache.geode.internal.cache.tier.MessageType;
 import org.apache.geode.internal.cache.tier.sockets.CacheClientNotifier;
 import org.apache.geode.internal.cache.tier.sockets.CacheServerStats;
 import org.apache.geode.internal.cache.tier.sockets.ClientProxyMembershipID;
 import org.apache.geode.internal.cache.tier.sockets.ClientUpdateMessage;
 import org.apache.geode.internal.cache.tier.sockets.ClientUpdateMessageImpl;
 import org.apache.geode.internal.cache.tier.sockets.ConnectionListener;
+import org.apache.geode.internal.cache.tier.sockets.Handshake;
 import org.apache.geode.internal.cache.tier.sockets.HAEventWrapper;
 import org.apache.geode.internal.concurrent.ConcurrentHashSet;
 import org.apache.geode.internal.util.BlobHelper;
@@ -624,6 +626,174 @@ public class HARegionQueueIntegrationTest {
     }
   }
 
+  @Test
+  public void readAheadFaultsOverflowedEventsBackIntoMemory() throws Exception {
+    HAContainerRegion haContainerRegion = createHAContainerRegion(
+        EvictionAttributes.createLRUEntryAttributes(200, EvictionAction.OVERFLOW_TO_DISK));
+    HARegionQueueStats stats =
+        new HARegionQueueStats(cache.getDistributedSystem(), "readAheadFaultsOverflowedEvents");
+    HARegionQueue haRegionQueue =
+        createHARegionQueue(haContainerRegion, 0, createMockHARegion(), stats);
+
+    List<HAEventWrapper> wrappers = new ArrayList<>();
+    for (int i = 0; i < 300; ++i) {
+      ClientUpdateMessage message = new ClientUpdateMessageImpl(EnumListenerEvent.AFTER_UPDATE,
+          (LocalRegion) dataRegion, "key" + i, "value".getBytes(), (byte) 0x01, null,
+          new ClientProxyMembershipID(), new EventID(new byte[] {1}, 1, i));
+      HAEventWrapper wrapper = new HAEventWrapper(message);
+      wrapper.setHAContainer(haContainerRegion);
+      haRegionQueue.put(wrapper);
+      wrappers.add(wrapper);
+    }
+
+    // the oldest events, at the head of the queue, have been overflowed to disk
+    long overflowed = 0;
+    for (int i = 0; i < HARegionQueue.READ_AHEAD_EVENTS; ++i) {
+      if (!isResident(haContainerRegion, wrappers.get(i))) {
+        overflowed++;
+      }
+    }
+    assertThat(overflowed).isGreaterThan(0);
+
+    haRegionQueue.readAhead(1, 0);
+
+    for (int i = 0; i < HARegionQueue.READ_AHEAD_EVENTS; ++i) {
+      assertThat(isResident(haContainerRegion, wrappers.get(i))).isTrue();
+    }
+    assertThat(stats.getEventsReadAhead()).isEqualTo(overflowed);
+  }
+
+  @Test
+  public void readAheadDoesNotCountResidentEvents() throws Exception {
+    HAContainerRegion haContainerRegion = createHAContainerRegion(
+        EvictionAttributes.createLRUEntryAttributes(200, EvictionAction.OVERFLOW_TO_DISK));
+    HARegionQueueStats stats =
+        new HARegionQueueStats(cache.getDistributedSystem(), "readAheadDoesNotCountResident");
+    HARegionQueue haRegionQueue =
+        createHARegionQueue(haContainerRegion, 0, createMockHARegion(), stats);
+
+    for (int i = 0; i < 100; ++i) {
+      ClientUpdateMessage message = new ClientUpdateMessageImpl(EnumListenerEvent.AFTER_UPDATE,
+          (LocalRegion) dataRegion, "key" + i, "value".getBytes(), (byte) 0x01, null,
+          new ClientProxyMembershipID(), new EventID(new byte[] {1}, 1, i));
+      HAEventWrapper wrapper = new HAEventWrapper(message);
+      wrapper.setHAContainer(haContainerRegion);
+      haRegionQueue.put(wrapper);
+    }
+
+    haRegionQueue.readAhead(1, 0);
+
+    assertThat(stats.getEventsReadAhead()).isEqualTo(0);
+  }
+
+  @Test
+  public void conflatesUpdatesOnlyWhileAdaptiveConflationIsEnabled() throws Exception {
+    HAContainerWrapper haContainerWrapper = new HAContainerMap(new ConcurrentHashMap());
+    HARegionQueue haRegionQueue = createHARegionQueue(haContainerWrapper, 0,
+        createMockHARegion(), mock(HARegionQueueStats.class), Handshake.CONFLATION_DEFAULT, false);
+
+    haRegionQueue.put(createUpdateWrapper(haContainerWrapper, "key", 0));
+    haRegionQueue.put(createUpdateWrapper(haContainerWrapper, "key", 1));
+    assertThat(haRegionQueue.size()).isEqualTo(2);
+
+    haRegionQueue.setAdaptiveConflation(true);
+    haRegionQueue.put(createUpdateWrapper(haContainerWrapper, "key", 2));
+    haRegionQueue.put(createUpdateWrapper(haContainerWrapper, "key", 3));
+    assertThat(haRegionQueue.size()).isEqualTo(3);
+
+    haRegionQueue.setAdaptiveConflation(false);
+    haRegionQueue.put(createUpdateWrapper(haContainerWrapper, "key", 4));
+    assertThat(haRegionQueue.size()).isEqualTo(4);
+  }
+
+  @Test
+  public void doesNotAdaptivelyConflateUpdatesWithCqs() throws Exception {
+    HAContainerWrapper haContainerWrapper = new HAContainerMap(new ConcurrentHashMap());
+    HARegionQueue haRegionQueue = createHARegionQueue(haContainerWrapper, 0,
+        createMockHARegion(), mock(HARegionQueueStats.class), Handshake.CONFLATION_DEFAULT, false);
+    haRegionQueue.setAdaptiveConflation(true);
+
+    for (int i = 0; i < 2; ++i) {
+      HAEventWrapper wrapper = createUpdateWrapper(haContainerWrapper, "key", i);
+      ((ClientUpdateMessageImpl) wrapper.getClientUpdateMessage())
+          .addClientCq(Mockito.mock(ClientProxyMembershipID.class), "cq",
+              MessageType.LOCAL_UPDATE);
+      haRegionQueue.put(wrapper);
+    }
+
+    assertThat(haRegionQueue.size()).isEqualTo(2);
+  }
+
+  @Test
+  public void removesEventsQueuedWhileAdaptiveConflationWasEnabled() throws Exception {
+    HAContainerWrapper haContainerWrapper = new HAContainerMap(new ConcurrentHashMap());
+    HARegionQueue haRegionQueue = createHARegionQueue(haContainerWrapper, 0,
+        createMockHARegion(), mock(HARegionQueueStats.class), Handshake.CONFLATION_DEFAULT, false);
+
+    HAEventWrapper notConflated = createUpdateWrapper(haContainerWrapper, "key1", 0);
+    assertThat(haRegionQueue.mayHaveBeenConflated(notConflated)).isFalse();
+    haRegionQueue.put(notConflated);
+
+    haRegionQueue.setAdaptiveConflation(true);
+    haRegionQueue.put(createUpdateWrapper(haContainerWrapper, "key2", 1));
+    haRegionQueue.setAdaptiveConflation(false);
+    haRegionQueue.put(createUpdateWrapper(haContainerWrapper, "key3", 2));
+
+    // once used, events of any key may have been added to the conflation map
+    assertThat(haRegionQueue.mayHaveBeenConflated(notConflated)).isTrue();
+
+    // the first and last events are not in the conflation map, which removal must tolerate
+    for (int i = 0; i < 3; ++i) {
+      assertThat(haRegionQueue.peek()).isNotNull();
+      haRegionQueue.remove();
+    }
+    assertThat(haRegionQueue.size()).isEqualTo(0);
+  }
+
+  @Test
+  public void peekNextPeeksEventsBehindPeekedEvents() throws Exception {
+    HAContainerWrapper haContainerWrapper = new HAContainerMap(new ConcurrentHashMap());
+    HARegionQueue haRegionQueue = createHARegionQueue(haContainerWrapper, 0,
+        createMockHARegion(), mock(HARegionQueueStats.class), Handshake.CONFLATION_DEFAULT, false);
+    for (int i = 0; i < 3; i++) {
+      haRegionQueue.put(createUpdateWrapper(haContainerWrapper, "key" + i, i));
+    }
+
+    try {
+      assertThat(((ClientUpdateMessage) haRegionQueue.peek()).getKeyOfInterest())
+          .isEqualTo("key0");
+      assertThat(((ClientUpdateMessage) haRegionQueue.peekNext()).getKeyOfInterest())
+          .isEqualTo("key1");
+      assertThat(((ClientUpdateMessage) haRegionQueue.peekNext()).getKeyOfInterest())
+          .isEqualTo("key2");
+      assertThat(haRegionQueue.peekNext()).isNull();
+
+      haRegionQueue.unpeek(2);
+
+      assertThat(((ClientUpdateMessage) haRegionQueue.peekNext()).getKeyOfInterest())
+          .isEqualTo("key1");
+    } finally {
+      haRegionQueue.clearPeekedIDs();
+    }
+  }
+
+  private HAEventWrapper createUpdateWrapper(HAContainerWrapper haContainerWrapper, String key,
+      int sequenceId) {
+    ClientUpdateMessage message = new ClientUpdateMessageImpl(EnumListenerEvent.AFTER_UPDATE,
+        (LocalRegion) dataRegion, key, "value".getBytes(), (byte) 0x01, null,
+        new ClientProxyMembershipID(), new EventID(new byte[] {1}, 1, sequenceId));
+    HAEventWrapper wrapper = new HAEventWrapper(message);
+    wrapper.setHAContainer(haContainerWrapper);
+    // as done by the CacheClientNotifier, so that the wrapper keeps its message while being put
+    wrapper.incrementPutInProgressCounter();
+    return wrapper;
+  }
+
+  private boolean isResident(HAContainerRegion haContainerRegion, HAEventWrapper wrapper) {
+    LocalRegion region = (LocalRegion) haContainerRegion.getMapForTest();
+    return !region.getRegionEntry(wrapper).isValueNull();
+  }
+
   private HARegion createMockHARegion() {
     HARegion haRegion = Mockito.mock(HARegion.class);
     when(haRegion.getGemFireCache()).thenReturn((InternalCache) cache);
@@ -647,22 +817,28 @@ public class HARegionQueueIntegrationTest {
   }
 
   private HAContainerRegion createHAContainerRegion() throws Exception {
-    Region haContainerRegionRegion = createHAContainerRegionRegion();
+    return createHAContainerRegion(
+        EvictionAttributes.createLIFOEntryAttributes(1000, EvictionAction.OVERFLOW_TO_DISK));
+  }
+
+  private HAContainerRegion createHAContainerRegion(EvictionAttributes evictionAttributes)
+      throws Exception {
+    Region haContainerRegionRegion = createHAContainerRegionRegion(evictionAttributes);
 
     HAContainerRegion haContainerRegion = new HAContainerRegion(haContainerRegionRegion);
 
     return haContainerRegion;
   }
 
-  private Region createHAContainerRegionRegion() throws Exception {
+  private Region createHAContainerRegionRegion(EvictionAttributes evictionAttributes)
+      throws Exception {
     AttributesFactory factory = new AttributesFactory();
     factory.setScope(Scope.LOCAL);
     factory.setDiskStoreName(null);
     factory.setDiskSynchronous(true);
     factory.setDataPolicy(DataPolicy.NORMAL);
     factory.setStatisticsEnabled(true);
-    factory.setEvictionAttributes(
-        EvictionAttributes.createLIFOEntryAttributes(1000, EvictionAction.OVERFLOW_TO_DISK));
+    factory.setEvictionAttributes(evictionAttributes);
     Region region = ((GemFireCacheImpl) cache).createVMRegion(
         CacheServerImpl.generateNameForClientMsgsRegion(0), factory.create(),
         new InternalRegionArguments().setDestroyLockFlag(true).setRecreateFlag(false)
@@ -672,6 +848,19 @@ public class HARegionQueueIntegrationTest {
 
   private HARegionQueue createHARegionQueue(Map haContainer, int index, HARegion haRegion,
       boolean puttingGIIDataInQueue) throws Exception {
+    return createHARegionQueue(haContainer, index, haRegion, mock(HARegionQueueStats.class),
+        Handshake.CONFLATION_ON, puttingGIIDataInQueue);
+  }
+
+  private HARegionQueue createHARegionQueue(Map haContainer, int index, HARegion haRegion,
+      HARegionQueueStats stats) throws Exception {
+    return createHARegionQueue(haContainer, index, haRegion, stats, Handshake.CONFLATION_ON,
+        false);
+  }
+
+  private HARegionQueue createHARegionQueue(Map haContainer, int index, HARegion haRegion,
+      HARegionQueueStats stats, byte clientConflation, boolean puttingGIIDataInQueue)
+      throws Exception {
     StoppableReentrantReadWriteLock giiLock = Mockito.mock(StoppableReentrantReadWriteLock.class);
     doReturn(Mockito.mock(StoppableReentrantReadWriteLock.StoppableWriteLock.class)).when(giiLock)
         .writeLock();
@@ -682,7 +871,7 @@ public class HARegionQueueIntegrationTest {
         new StoppableReentrantReadWriteLock(cache.getCancelCriterion());
 
     return new HARegionQueue("haRegion+" + index, haRegion, (InternalCache) cache, haContainer,
-        null, (byte) 1, true, mock(HARegionQueueStats.class), giiLock, rwLock,
+        null, clientConflation, true, stats, giiLock, rwLock,
         mock(CancelCriterion.class), puttingGIIDataInQueue);
   }
 
@@ -0,0 +1,211 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.net;
+
+import static org.apache.geode.distributed.ConfigurationProperties.CLUSTER_SSL_CIPHERS;
+import static org.apache.geode.distributed.ConfigurationProperties.CLUSTER_SSL_ENABLED;
+import static org.apache.geode.distributed.ConfigurationProperties.CLUSTER_SSL_PROTOCOLS;
+import static org.apache.geode.distributed.ConfigurationProperties.CLUSTER_SSL_REQUIRE_AUTHENTICATION;
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+import static org.apache.geode.internal.security.SecurableCommunicationChannel.CLUSTER;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.contrib.java.lang.system.RestoreSystemProperties;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+
+import org.apache.geode.distributed.internal.DistributionConfigImpl;
+import org.apache.geode.test.junit.categories.MembershipTest;
+
+/**
+ * Integration tests for {@link NioSslEngine} and {@link NioSslSocket}, with the server side of each
+ * connection accepted from a {@link ServerSocketChannel} and the client side an SSLSocket.
+ */
+@Category({MembershipTest.class})
+public class NioSslEngineIntegrationTest {
+
+  private SocketCreator socketCreator;
+  private InetAddress localHost;
+  private ServerSocketChannel serverChannel;
+  private ExecutorService clientExecutor;
+
+  @Rule
+  public RestoreSystemProperties restoreSystemProperties = new RestoreSystemProperties();
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Before
+  public void setUp() throws Exception {
+    File keystore = copyKeystoreResourceToFile("/ssl/trusted.keystore");
+    System.setProperty("javax.net.ssl.trustStore", keystore.getCanonicalPath());
+    System.setProperty("javax.net.ssl.trustStorePassword", "password");
+    System.setProperty("javax.net.ssl.keyStore", keystore.getCanonicalPath());
+    System.setProperty("javax.net.ssl.keyStorePassword", "password");
+
+    Properties properties = new Properties();
+    properties.setProperty(MCAST_PORT, "0");
+    properties.setProperty(CLUSTER_SSL_ENABLED, "true");
+    properties.setProperty(CLUSTER_SSL_REQUIRE_AUTHENTICATION, "true");
+    properties.setProperty(CLUSTER_SSL_CIPHERS, "any");
+    properties.setProperty(CLUSTER_SSL_PROTOCOLS, "TLSv1.2");
+
+    SocketCreatorFactory.setDistributionConfig(new DistributionConfigImpl(properties));
+    this.socketCreator = SocketCreatorFactory.getSocketCreatorForComponent(CLUSTER);
+
+    this.localHost = InetAddress.getLocalHost();
+    this.serverChannel = ServerSocketChannel.open();
+    this.serverChannel.socket().bind(new InetSocketAddress(this.localHost, 0));
+    this.clientExecutor = Executors.newSingleThreadExecutor();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    this.clientExecutor.shutdownNow();
+    this.serverChannel.close();
+    SocketCreatorFactory.close();
+  }
+
+  @Test
+  public void dataIsExchangedThroughTheEngine() throws Exception {
+    byte[] request = new byte[100000];
+    new Random(1).nextBytes(request);
+    Future<byte[]> reply = this.clientExecutor.submit(() -> {
+      try (Socket client = connect()) {
+        DataOutputStream out = new DataOutputStream(client.getOutputStream());
+        out.writeInt(request.length);
+        out.write(request);
+        out.flush();
+        DataInputStream in = new DataInputStream(client.getInputStream());
+        byte[] echoed = new byte[in.readInt()];
+        in.readFully(echoed);
+        return echoed;
+      }
+    });
+
+    try (NioSslSocket server = accept()) {
+      assertThat(server.getChannel()).isNull();
+      assertThat(server.getSocketChannel().isBlocking()).isTrue();
+      DataInputStream in = new DataInputStream(server.getInputStream());
+      byte[] received = new byte[in.readInt()];
+      in.readFully(received);
+      DataOutputStream out = new DataOutputStream(server.getOutputStream());
+      out.writeInt(received.length);
+      out.write(received);
+      out.flush();
+
+      assertThat(reply.get(1, TimeUnit.MINUTES)).isEqualTo(request);
+    }
+  }
+
+  @Test
+  public void bufferedInputIsReportedUntilConsumed() throws Exception {
+    this.clientExecutor.submit(() -> {
+      try (Socket client = connect()) {
+        // send both values in a single record
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(1);
+        out.writeInt(2);
+        client.getOutputStream().write(bytes.toByteArray());
+        client.getOutputStream().flush();
+        // wait for the server to close the connection
+        client.getInputStream().read();
+      }
+      return null;
+    });
+
+    try (NioSslSocket server = accept()) {
+      DataInputStream in = new DataInputStream(server.getInputStream());
+      assertThat(in.readInt()).isEqualTo(1);
+      assertThat(server.hasBufferedInput()).isTrue();
+      assertThat(in.readInt()).isEqualTo(2);
+      assertThat(server.hasBufferedInput()).isFalse();
+    }
+  }
+
+  @Test
+  public void secondConnectionResumesSession() throws Exception {
+    for (int i = 0; i < 2; i++) {
+      final int value = i;
+      Future<Integer> reply = this.clientExecutor.submit(() -> {
+        try (Socket client = connect()) {
+          client.getOutputStream().write(value);
+          client.getOutputStream().flush();
+          return client.getInputStream().read();
+        }
+      });
+      try (NioSslSocket server = accept()) {
+        assertThat(server.getEngine().isSessionResumed()).isEqualTo(i > 0);
+        server.getOutputStream().write(server.getInputStream().read());
+        assertThat(reply.get(1, TimeUnit.MINUTES)).isEqualTo(i);
+      }
+    }
+  }
+
+  @Test
+  public void handshakeCanTimeoutOnServer() throws Exception {
+    try (Socket client = new Socket(this.localHost, this.serverChannel.socket().getLocalPort());
+        SocketChannel channel = this.serverChannel.accept()) {
+      assertThatThrownBy(() -> this.socketCreator.handshakeNioSocket(channel.socket(), false, 500))
+          .isInstanceOf(SocketTimeoutException.class);
+      assertThat(channel.isBlocking()).isTrue();
+    }
+  }
+
+  private Socket connect() throws IOException {
+    return this.socketCreator.connectForClient(this.localHost.getHostAddress(),
+        this.serverChannel.socket().getLocalPort(), 0);
+  }
+
+  private NioSslSocket accept() throws IOException {
+    SocketChannel channel = this.serverChannel.accept();
+    return this.socketCreator.handshakeNioSocket(channel.socket(), false, 60000);
+  }
+
+  private File copyKeystoreResourceToFile(final String name) throws IOException {
+    URL resource = getClass().getResource(name);
+    assertThat(resource).isNotNull();
+
+    File file = this.temporaryFolder.newFile(name.replaceFirst(".*/", ""));
+    FileUtils.copyURLToFile(resource, file);
+    return file;
+  }
+}
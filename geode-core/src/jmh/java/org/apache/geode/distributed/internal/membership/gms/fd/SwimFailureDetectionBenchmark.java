@@ -0,0 +1,205 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal.membership.gms.fd;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
+
+/**
+ * Simulates SWIM failure detection in a cluster of hundreds of members within one JVM. Each
+ * member has its own {@link ProbeTargetSelector} and {@link MembershipGossip}, and probes are
+ * delivered synchronously, one protocol period at a time. Some members are crashed at the start of
+ * the simulation, which runs until every surviving member knows that they are suspect.
+ * <p>
+ * The auxiliary counters report the number of protocol periods until the first member detects a
+ * crash, the number of periods until the suspicion has reached every member, the number of
+ * messages each member sends per period and the number of suspect reports sent to the
+ * coordinators. With SWIM the first three should stay roughly constant as the cluster grows.
+ */
+@State(Scope.Thread)
+@Fork(1)
+public class SwimFailureDetectionBenchmark {
+
+  @Param({"100", "200", "400", "800"})
+  public int members;
+
+  @Param({"1", "5"})
+  public int crashedMembers;
+
+  private List<InternalDistributedMember> ids;
+
+  private final Random random = new Random(1);
+
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  @State(Scope.Thread)
+  public static class Results {
+    public long periodsToDetect;
+    public long periodsToDisseminate;
+    public double messagesPerMemberPerPeriod;
+    public long suspectReports;
+  }
+
+  @Setup(Level.Trial)
+  public void createMembers() throws UnknownHostException {
+    InetAddress address = InetAddress.getByName("127.0.0.1");
+    ids = new ArrayList<>(members);
+    for (int i = 0; i < members; i++) {
+      ids.add(new InternalDistributedMember(address, 10000 + i));
+    }
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 3)
+  @BenchmarkMode(Mode.SingleShotTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public void detectCrashedMembers(Results results) {
+    Simulation simulation = new Simulation(ids, random);
+    for (int i = 0; i < crashedMembers; i++) {
+      simulation.crash(ids.get(random.nextInt(ids.size())));
+    }
+    simulation.run(results);
+  }
+
+  private static class Simulation {
+    private static final int MAX_PERIODS = 10000;
+
+    private final List<InternalDistributedMember> ids;
+    private final List<ProbeTargetSelector> selectors = new ArrayList<>();
+    private final List<MembershipGossip> gossips = new ArrayList<>();
+    private final List<Set<InternalDistributedMember>> reported = new ArrayList<>();
+    private final Map<InternalDistributedMember, Integer> indexes = new HashMap<>();
+    private final Set<InternalDistributedMember> crashed = new HashSet<>();
+
+    Simulation(List<InternalDistributedMember> ids, Random random) {
+      this.ids = ids;
+      for (InternalDistributedMember id : ids) {
+        indexes.put(id, indexes.size());
+        ProbeTargetSelector selector = new ProbeTargetSelector(id, new Random(random.nextLong()));
+        selector.setMembers(ids);
+        selectors.add(selector);
+        MembershipGossip gossip = new MembershipGossip(id);
+        gossip.viewChanged(ids);
+        gossips.add(gossip);
+        reported.add(new HashSet<>());
+      }
+    }
+
+    void crash(InternalDistributedMember member) {
+      crashed.add(member);
+    }
+
+    private boolean isAlive(InternalDistributedMember member) {
+      return !crashed.contains(member);
+    }
+
+    private MembershipGossip gossipOf(InternalDistributedMember member) {
+      return gossips.get(indexes.get(member));
+    }
+
+    void run(Results results) {
+      long messages = 0;
+      int liveMembers = ids.size() - crashed.size();
+      int period = 0;
+      boolean detected = false;
+      while (period < MAX_PERIODS) {
+        period++;
+        for (int i = 0; i < ids.size(); i++) {
+          InternalDistributedMember member = ids.get(i);
+          if (!isAlive(member)) {
+            continue;
+          }
+          messages += probe(i, member, results);
+        }
+        if (!detected && results.suspectReports > 0) {
+          detected = true;
+          results.periodsToDetect = period;
+        }
+        if (allSuspicionsDisseminated()) {
+          break;
+        }
+      }
+      results.periodsToDisseminate = period;
+      results.messagesPerMemberPerPeriod = (double) messages / liveMembers / period;
+    }
+
+    private int probe(int index, InternalDistributedMember member, Results results) {
+      ProbeTargetSelector selector = selectors.get(index);
+      MembershipGossip gossip = gossips.get(index);
+      Set<InternalDistributedMember> alreadyReported = reported.get(index);
+      InternalDistributedMember target = selector.nextTarget(alreadyReported::contains);
+      if (target == null) {
+        return 0;
+      }
+      if (isAlive(target)) {
+        MembershipGossip targetGossip = gossipOf(target);
+        targetGossip.merge(gossip.nextUpdates(target));
+        gossip.merge(targetGossip.nextUpdates(member));
+        return 2;
+      }
+      int sent = 1;
+      List<InternalDistributedMember> helpers = selector.chooseHelpers(target,
+          GMSHealthMonitor.NUM_INDIRECT_PROBES, helper -> !isAlive(helper));
+      for (InternalDistributedMember helper : helpers) {
+        // the request to the helper and the helper's probe of the crashed target
+        gossipOf(helper).merge(gossip.nextUpdates(helper));
+        sent += 2;
+      }
+      if (gossip.suspect(target)) {
+        alreadyReported.add(target);
+        results.suspectReports++;
+      }
+      return sent;
+    }
+
+    private boolean allSuspicionsDisseminated() {
+      for (int i = 0; i < ids.size(); i++) {
+        if (!isAlive(ids.get(i))) {
+          continue;
+        }
+        for (InternalDistributedMember suspect : crashed) {
+          if (!gossips.get(i).isSuspect(suspect)) {
+            return false;
+          }
+        }
+      }
+      return true;
+    }
+  }
+}
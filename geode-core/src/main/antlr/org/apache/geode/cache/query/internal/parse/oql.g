@@ -348,6 +348,7 @@ tokens {
 
 queryProgram :
 		( traceCommand )?
+		( explainCommand )?
        	( 
        
        		( declaration ( TOK_SEMIC! declaration )* ( TOK_SEMIC! query ) ) (TOK_SEMIC!)?
@@ -368,6 +369,15 @@ traceCommand:
 			TOK_GT!
 		)
 	;
+
+explainCommand:
+		(
+			TOK_LT!
+			"explain"^<AST=org.apache.geode.cache.query.internal.parse.ASTExplain>
+			( Identifier )?
+			TOK_GT!
+		)
+	;
      
 
 loneFromClause :
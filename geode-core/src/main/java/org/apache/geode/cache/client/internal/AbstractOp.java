@@ -87,6 +87,9 @@ public abstract class AbstractOp implements Op {
     }
     getMessage().setComms(cnx.getSocket(), cnx.getInputStream(), cnx.getOutputStream(),
         cnx.getCommBuffer(), cnx.getStats());
+    Endpoint endpoint = cnx.getEndpoint();
+    getMessage().setCompressedPartsNegotiation(
+        endpoint != null && endpoint.isCompressedPartsAccepted());
     try {
       sendMessage(cnx);
     } finally {
@@ -207,6 +210,9 @@ public abstract class AbstractOp implements Op {
           msg.unsetComms();
           processSecureBytes(cnx, msg);
         }
+        if (msg.isCompressedPartsAccepted() && cnx.getEndpoint() != null) {
+          cnx.getEndpoint().setCompressedPartsAccepted();
+        }
         return processResponse(msg, cnx);
       }
     } else {
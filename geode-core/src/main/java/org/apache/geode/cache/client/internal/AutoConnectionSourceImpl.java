@@ -25,6 +25,7 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -44,6 +45,8 @@ import org.apache.geode.cache.client.internal.locator.LocatorListRequest;
 import org.apache.geode.cache.client.internal.locator.LocatorListResponse;
 import org.apache.geode.cache.client.internal.locator.QueueConnectionRequest;
 import org.apache.geode.cache.client.internal.locator.QueueConnectionResponse;
+import org.apache.geode.cache.client.internal.locator.ServerListLeaseRequest;
+import org.apache.geode.cache.client.internal.locator.ServerListLeaseResponse;
 import org.apache.geode.cache.client.internal.locator.ServerLocationRequest;
 import org.apache.geode.cache.client.internal.locator.ServerLocationResponse;
 import org.apache.geode.distributed.internal.DistributionConfig;
@@ -68,6 +71,14 @@ public class AutoConnectionSourceImpl implements ConnectionSource {
   private TcpClient tcpClient;
 
   protected static final LocatorListRequest LOCATOR_LIST_REQUEST = new LocatorListRequest();
+
+  /**
+   * When set the pool leases a snapshot of the servers and their load from a locator and picks
+   * servers from it until the lease expires, instead of asking a locator for every connection. All
+   * locators must support server list leases.
+   */
+  public static final String USE_SERVER_LIST_LEASE_PROPERTY =
+      DistributionConfig.GEMFIRE_PREFIX + "USE_SERVER_LIST_LEASE";
   private static final Comparator<HostAddress> SOCKET_ADDRESS_COMPARATOR =
       new Comparator<HostAddress>() {
         public int compare(HostAddress address, HostAddress otherAddress) {
@@ -97,6 +108,10 @@ public class AutoConnectionSourceImpl implements ConnectionSource {
   private long locatorUpdateInterval;
   private volatile LocatorDiscoveryCallback locatorCallback = new LocatorDiscoveryCallbackAdapter();
   private volatile boolean isBalanced = true;
+  private final boolean useServerListLease;
+  private final AtomicReference<LeasedServerList> leasedServers = new AtomicReference<>();
+  private final Object leaseLock = new Object();
+  private final Random random = new Random();
   /**
    * key is the InetSocketAddress of the locator. value will be an exception if we have already
    * found the locator to be dead. value will be null if we last saw him alive.
@@ -114,6 +129,7 @@ public class AutoConnectionSourceImpl implements ConnectionSource {
     this.connectionTimeout = handshakeTimeout;
     this.serverGroup = serverGroup;
     this.tcpClient = new TcpClient();
+    this.useServerListLease = Boolean.getBoolean(USE_SERVER_LIST_LEASE_PROPERTY);
   }
 
   public boolean isBalanced() {
@@ -153,6 +169,14 @@ public class AutoConnectionSourceImpl implements ConnectionSource {
     if (PoolImpl.TEST_DURABLE_IS_NET_DOWN) {
       return null;
     }
+    LeasedServerList leased = getLeasedServerList();
+    if (leased != null) {
+      ServerLocation server = leased.pickServer(excludedServers);
+      if (server != null) {
+        pool.getStats().incLeasedServerPicks();
+        return server;
+      }
+    }
     ClientConnectionRequest request = new ClientConnectionRequest(excludedServers, serverGroup);
     ClientConnectionResponse response = (ClientConnectionResponse) queryLocators(request);
     if (response == null) {
@@ -167,6 +191,16 @@ public class AutoConnectionSourceImpl implements ConnectionSource {
     if (PoolImpl.TEST_DURABLE_IS_NET_DOWN) {
       return new ArrayList();
     }
+    if (!findDurableQueue) {
+      LeasedServerList leased = getLeasedServerList();
+      if (leased != null) {
+        List<ServerLocation> servers = leased.pickServersForQueue(excludedServers, numServers);
+        if (!servers.isEmpty()) {
+          pool.getStats().incLeasedServerPicks();
+          return servers;
+        }
+      }
+    }
     QueueConnectionRequest request = new QueueConnectionRequest(proxyId, numServers,
         excludedServers, serverGroup, findDurableQueue);
     QueueConnectionResponse response = (QueueConnectionResponse) queryLocators(request);
@@ -178,6 +212,44 @@ public class AutoConnectionSourceImpl implements ConnectionSource {
     return result;
   }
 
+  /**
+   * Returns the leased server list, asking a locator for a new lease if the current one has
+   * expired. Returns null if leases are not in use or no locator returned any servers.
+   */
+  LeasedServerList getLeasedServerList() {
+    if (!useServerListLease) {
+      return null;
+    }
+    LeasedServerList leased = leasedServers.get();
+    if (leased != null && !leased.isExpired(System.currentTimeMillis())) {
+      return leased;
+    }
+    synchronized (leaseLock) {
+      long now = System.currentTimeMillis();
+      leased = leasedServers.get();
+      if (leased != null && !leased.isExpired(now)) {
+        return leased;
+      }
+      ServerListLeaseResponse response =
+          (ServerListLeaseResponse) queryLocators(new ServerListLeaseRequest(serverGroup));
+      if (response == null || !response.hasResult()) {
+        leasedServers.set(null);
+        return null;
+      }
+      // shorten each lease by a random amount so that clients that leased their lists at the
+      // same time don't all come back to the locators at the same time
+      long leaseTime = response.getLeaseTime();
+      long expirationTime = now + leaseTime - (long) (random.nextDouble() * leaseTime / 4);
+      leased = new LeasedServerList(response.getServers(), response.getLoads(), expirationTime,
+          random);
+      leasedServers.set(leased);
+      if (logger.isDebugEnabled()) {
+        logger.debug("Leased server list {} for {}ms", leased, expirationTime - now);
+      }
+      return leased;
+    }
+  }
+
   @Override
   public List<InetSocketAddress> getOnlineLocators() {
     if (PoolImpl.TEST_DURABLE_IS_NET_DOWN) {
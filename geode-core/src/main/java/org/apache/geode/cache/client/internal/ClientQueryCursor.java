@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.cache.query.QueryCursor;
+import org.apache.geode.internal.logging.LogService;
+
+/**
+ * A {@link QueryCursor} over the results of a query executed on a server. Holds one batch of
+ * results at a time and only asks the server for the next batch once the current one has been
+ * iterated, so the rate at which the server sends results is set by the rate at which they are
+ * consumed. Not thread safe.
+ *
+ * @since Geode 1.8
+ */
+public class ClientQueryCursor<E> implements QueryCursor<E> {
+  private static final Logger logger = LogService.getLogger();
+
+  private final ExecutablePool pool;
+
+  private final int fetchSize;
+
+  /** The attributes of the user that opened the cursor when using multiuser authentication. */
+  private final UserAttributes userAttributes;
+
+  private QueryCursorOp.Batch batch;
+
+  private Iterator<Object> rows;
+
+  private boolean closed;
+
+  public ClientQueryCursor(ExecutablePool pool, QueryCursorOp.Batch firstBatch, int fetchSize,
+      UserAttributes userAttributes) {
+    this.pool = pool;
+    this.fetchSize = fetchSize;
+    this.userAttributes = userAttributes;
+    this.batch = firstBatch;
+    this.rows = firstBatch.getRows().iterator();
+  }
+
+  @Override
+  public boolean hasNext() {
+    while (!this.rows.hasNext()) {
+      if (this.closed || !this.batch.hasMore()) {
+        return false;
+      }
+      fetchNextBatch();
+    }
+    return true;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public E next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    return (E) this.rows.next();
+  }
+
+  private void fetchNextBatch() {
+    UserAttributes previous = UserAttributes.userAttributes.get();
+    UserAttributes.userAttributes.set(this.userAttributes);
+    try {
+      this.batch = QueryCursorOp.fetch(this.pool, this.batch.getServer(),
+          this.batch.getCursorId(), this.fetchSize);
+    } catch (RuntimeException e) {
+      // the server discards a cursor whose batch could not be read
+      this.closed = true;
+      throw e;
+    } finally {
+      UserAttributes.userAttributes.set(previous);
+    }
+    this.rows = this.batch.getRows().iterator();
+  }
+
+  @Override
+  public void close() {
+    if (this.closed) {
+      return;
+    }
+    this.closed = true;
+    this.rows = Collections.emptyIterator();
+    if (!this.batch.hasMore()) {
+      return;
+    }
+    UserAttributes previous = UserAttributes.userAttributes.get();
+    UserAttributes.userAttributes.set(this.userAttributes);
+    try {
+      QueryCursorOp.close(this.pool, this.batch.getServer(), this.batch.getCursorId());
+    } catch (RuntimeException e) {
+      // the server discards idle cursors on its own
+      if (logger.isDebugEnabled()) {
+        logger.debug("Unable to close query cursor {} on {}", this.batch.getCursorId(),
+            this.batch.getServer(), e);
+      }
+    } finally {
+      UserAttributes.userAttributes.set(previous);
+    }
+  }
+}
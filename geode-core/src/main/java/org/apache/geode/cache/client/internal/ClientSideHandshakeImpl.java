@@ -80,6 +80,16 @@ public class ClientSideHandshakeImpl extends Handshake implements ClientSideHand
 
   private final byte replyCode;
 
+  /**
+   * System property which, if true, makes the subscription connections of this client ask servers
+   * to dispatch queued events in batches of several events per message. It is read at each
+   * handshake.
+   *
+   * @since Geode 1.8
+   */
+  public static final String REQUEST_EVENT_BATCHING_PROPERTY =
+      DistributionConfig.GEMFIRE_PREFIX + "client.subscriptionEventBatching";
+
   @Override
   protected byte getReplyCode() {
     return replyCode;
@@ -124,7 +134,11 @@ public class ClientSideHandshakeImpl extends Handshake implements ClientSideHand
     // handshakes.
     // Client side handshake code uses this.currentClientVersion which can be
     // set via tests.
-    if (currentClientVersion.compareTo(Version.GFE_603) >= 0) {
+    if (currentClientVersion.compareTo(Version.GEODE_190) >= 0) {
+      byte eventBatching = Boolean.getBoolean(REQUEST_EVENT_BATCHING_PROPERTY) ? EVENT_BATCHING_ON
+          : EVENT_BATCHING_OFF;
+      this.overrides = new byte[] {(byte) (this.clientConflation | (eventBatching << 2))};
+    } else if (currentClientVersion.compareTo(Version.GFE_603) >= 0) {
       this.overrides = new byte[] {this.clientConflation};
     }
   }
@@ -374,6 +374,7 @@ public class ConnectionStats implements MessageStats {
   private static final int messageBytesBeingReceivedId;
   private static final int receivedBytesId;
   private static final int sentBytesId;
+  private static final int bytesSavedByCompressionId;
 
   private static final int executeFunctionInProgressId;
   private static final int executeFunctionSendInProgressId;
@@ -819,6 +820,9 @@ public class ConnectionStats implements MessageStats {
               f.createLongCounter("sentBytes",
                   "Total number of bytes sent to server over a client-to-server connection.",
                   "bytes"),
+              f.createLongCounter("bytesSavedByCompression",
+                  "Total number of bytes not sent to server over a client-to-server connection because message parts were compressed.",
+                  "bytes"),
               f.createIntGauge("messagesBeingReceived",
                   "Current number of message being received off the network or being processed after reception over a client-to-server connection.",
                   "messages"),
@@ -1620,6 +1624,7 @@ public class ConnectionStats implements MessageStats {
 
       receivedBytesId = type.nameToId("receivedBytes");
       sentBytesId = type.nameToId("sentBytes");
+      bytesSavedByCompressionId = type.nameToId("bytesSavedByCompression");
       messagesBeingReceivedId = type.nameToId("messagesBeingReceived");
       messageBytesBeingReceivedId = type.nameToId("messageBytesBeingReceived");
 
@@ -3210,6 +3215,10 @@ public class ConnectionStats implements MessageStats {
     this.stats.incLong(sentBytesId, v);
   }
 
+  public void incBytesSavedByCompression(long v) {
+    this.stats.incLong(bytesSavedByCompressionId, v);
+  }
+
   public void incMessagesBeingReceived(int bytes) {
     stats.incInt(messagesBeingReceivedId, 1);
     if (bytes > 0) {
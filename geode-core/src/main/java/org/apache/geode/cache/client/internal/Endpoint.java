@@ -36,6 +36,10 @@ public class Endpoint {
   private final EndpointManagerImpl manager;
   private final DistributedMember memberId;
   private volatile boolean closed;
+  /**
+   * True once a reply from this server has said that it can read compressed message parts
+   */
+  private volatile boolean compressedPartsAccepted;
 
   Endpoint(EndpointManagerImpl endpointManager, DistributedSystem ds, ServerLocation location,
       ConnectionStats stats, DistributedMember memberId) {
@@ -69,6 +73,14 @@ public class Endpoint {
     return closed;
   }
 
+  public boolean isCompressedPartsAccepted() {
+    return compressedPartsAccepted;
+  }
+
+  public void setCompressedPartsAccepted() {
+    this.compressedPartsAccepted = true;
+  }
+
   public ConnectionStats getStats() {
     return stats;
   }
@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.apache.geode.cache.server.ServerLoad;
+import org.apache.geode.distributed.internal.ServerLocation;
+
+/**
+ * A snapshot of the servers in a server group and their load, leased from a locator. Until the
+ * lease expires the pool picks servers from this list instead of asking a locator for each
+ * connection.
+ * <p>
+ * Like the locator, the list adds a server's load per connection to its load each time the server
+ * is picked, so a client spreads its own connections across the servers. To keep clients that
+ * received the same snapshot from all picking the same server, connection servers are picked with
+ * the "power of two choices": two servers are chosen at random and the less loaded one is used.
+ */
+class LeasedServerList {
+
+  private final List<ServerLocation> servers;
+
+  private final float[] connectionLoads;
+
+  private final float[] loadsPerConnection;
+
+  private final float[] queueLoads;
+
+  private final float[] loadsPerQueue;
+
+  private final long expirationTime;
+
+  private final Random random;
+
+  LeasedServerList(List<ServerLocation> servers, List<ServerLoad> loads, long expirationTime,
+      Random random) {
+    this.servers = new ArrayList<>(servers);
+    this.expirationTime = expirationTime;
+    this.random = random;
+    int size = servers.size();
+    connectionLoads = new float[size];
+    loadsPerConnection = new float[size];
+    queueLoads = new float[size];
+    loadsPerQueue = new float[size];
+    for (int i = 0; i < size; i++) {
+      ServerLoad load = loads.get(i);
+      connectionLoads[i] = load.getConnectionLoad();
+      loadsPerConnection[i] = load.getLoadPerConnection();
+      queueLoads[i] = load.getSubscriptionConnectionLoad();
+      loadsPerQueue[i] = load.getLoadPerSubscriptionConnection();
+    }
+  }
+
+  boolean isExpired(long now) {
+    return now >= expirationTime;
+  }
+
+  List<ServerLocation> getServers() {
+    return Collections.unmodifiableList(servers);
+  }
+
+  /**
+   * Picks a server for a client to server connection.
+   *
+   * @param excludedServers servers that must not be picked
+   * @return the picked server, or null if every server is excluded
+   */
+  synchronized ServerLocation pickServer(Set excludedServers) {
+    List<Integer> candidates = findCandidates(excludedServers);
+    if (candidates.isEmpty()) {
+      return null;
+    }
+    int picked = candidates.get(random.nextInt(candidates.size()));
+    if (candidates.size() > 1) {
+      int other = picked;
+      while (other == picked) {
+        other = candidates.get(random.nextInt(candidates.size()));
+      }
+      if (connectionLoads[other] < connectionLoads[picked]) {
+        picked = other;
+      }
+    }
+    connectionLoads[picked] += loadsPerConnection[picked];
+    return servers.get(picked);
+  }
+
+  /**
+   * Picks the least loaded servers to host a client's subscription queues.
+   *
+   * @param excludedServers servers that must not be picked
+   * @param count the number of servers wanted, or -1 for all servers
+   * @return the picked servers in random order, so that the primary queue is spread over the
+   *         servers
+   */
+  synchronized List<ServerLocation> pickServersForQueue(Set excludedServers, int count) {
+    List<Integer> candidates = findCandidates(excludedServers);
+    candidates.sort(Comparator.comparingDouble(index -> queueLoads[index]));
+    if (count >= 0 && count < candidates.size()) {
+      candidates = candidates.subList(0, count);
+    }
+    List<ServerLocation> result = new ArrayList<>(candidates.size());
+    for (int index : candidates) {
+      queueLoads[index] += loadsPerQueue[index];
+      result.add(servers.get(index));
+    }
+    Collections.shuffle(result, random);
+    return result;
+  }
+
+  private List<Integer> findCandidates(Set excludedServers) {
+    List<Integer> candidates = new ArrayList<>(servers.size());
+    for (int i = 0; i < servers.size(); i++) {
+      if (excludedServers == null || !excludedServers.contains(servers.get(i))) {
+        candidates.add(i);
+      }
+    }
+    return candidates;
+  }
+
+  @Override
+  public String toString() {
+    return "LeasedServerList" + servers;
+  }
+}
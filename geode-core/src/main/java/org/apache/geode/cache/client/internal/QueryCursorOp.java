@@ -0,0 +1,326 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.geode.SerializationException;
+import org.apache.geode.cache.client.ServerOperationException;
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.cache.query.internal.StructImpl;
+import org.apache.geode.cache.query.internal.types.StructTypeImpl;
+import org.apache.geode.cache.query.types.CollectionType;
+import org.apache.geode.cache.query.types.ObjectType;
+import org.apache.geode.distributed.DistributedMember;
+import org.apache.geode.distributed.internal.ServerLocation;
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
+import org.apache.geode.internal.Version;
+import org.apache.geode.internal.cache.tier.MessageType;
+import org.apache.geode.internal.cache.tier.sockets.ChunkedMessage;
+import org.apache.geode.internal.cache.tier.sockets.Message;
+import org.apache.geode.internal.cache.tier.sockets.ObjectPartList;
+
+/**
+ * Opens, reads and closes query cursors on a server. A cursor is opened on any server; its later
+ * batches are read from, and it is closed on, the server that opened it.
+ * <p>
+ * Servers older than {@link Version#GEODE_190} do not know the cursor messages. Opening a cursor on
+ * such a server executes a plain query instead, and all of its results are returned as a single
+ * final batch.
+ *
+ * @see ClientQueryCursor
+ * @since Geode 1.8
+ */
+public class QueryCursorOp {
+
+  /**
+   * Executes a query on a server and returns the first batch of its results.
+   *
+   * @param pool the pool to use to communicate with the server.
+   * @param queryString the query to execute
+   * @param queryParams the query parameters; may be null
+   * @param fetchSize the maximum number of rows to return in each batch
+   */
+  public static Batch open(ExecutablePool pool, String queryString, Object[] queryParams,
+      int fetchSize) {
+    return (Batch) pool.execute(new OpenOpImpl(queryString, queryParams, fetchSize));
+  }
+
+  /**
+   * Returns the next batch of results of a cursor from the server that opened it.
+   */
+  public static Batch fetch(ExecutablePool pool, ServerLocation server, long cursorId,
+      int fetchSize) {
+    return (Batch) pool.executeOn(server, new FetchOpImpl(cursorId, fetchSize));
+  }
+
+  /**
+   * Releases a cursor that has not been read to the end on the server that opened it.
+   */
+  public static void close(ExecutablePool pool, ServerLocation server, long cursorId) {
+    pool.executeOn(server, new CloseOpImpl(cursorId));
+  }
+
+  private QueryCursorOp() {
+    // no instances allowed
+  }
+
+  /**
+   * Returns true if the server at the other end of the given connection handles the query cursor
+   * messages.
+   */
+  static boolean supportsCursors(Connection cnx) {
+    DistributedMember server = cnx.getEndpoint().getMemberId();
+    return server instanceof InternalDistributedMember && ((InternalDistributedMember) server)
+        .getVersionObject().compareTo(Version.GEODE_190) >= 0;
+  }
+
+  /**
+   * One batch of rows of a query cursor, along with where to read the next batch from.
+   */
+  public static class Batch {
+    private final List<Object> rows;
+
+    private final long cursorId;
+
+    private final ServerLocation server;
+
+    public Batch(List<Object> rows, long cursorId, ServerLocation server) {
+      this.rows = rows;
+      this.cursorId = cursorId;
+      this.server = server;
+    }
+
+    public List<Object> getRows() {
+      return this.rows;
+    }
+
+    /**
+     * Returns the id of the cursor on the server, or zero if the cursor has no more results.
+     */
+    public long getCursorId() {
+      return this.cursorId;
+    }
+
+    public ServerLocation getServer() {
+      return this.server;
+    }
+
+    public boolean hasMore() {
+      return this.cursorId != 0;
+    }
+  }
+
+  private abstract static class BatchOpImpl extends AbstractOp {
+
+    BatchOpImpl(int msgType, int numParts) {
+      super(msgType, numParts);
+    }
+
+    @Override
+    protected Message createResponseMessage() {
+      return new ChunkedMessage(3, Version.CURRENT);
+    }
+
+    @Override
+    protected Object processResponse(Message msg) throws Exception {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    protected Object processResponse(Message msg, Connection con) throws Exception {
+      final List<Object> rows = new ArrayList<>();
+      final long[] cursorIdRef = new long[1];
+      final Exception[] exceptionRef = new Exception[1];
+      ChunkHandler ch = new ChunkHandler() {
+        public void handle(ChunkedMessage cm) throws Exception {
+          Object o = cm.getPart(0).getObject();
+          if (o instanceof Throwable) {
+            String s = "While performing a remote " + getOpName();
+            exceptionRef[0] = new ServerOperationException(s, (Throwable) o);
+            return;
+          }
+          CollectionType collectionType = (CollectionType) o;
+          Object queryResult;
+          try {
+            queryResult = cm.getPart(1).getObject();
+          } catch (Exception e) {
+            String s = "While deserializing " + getOpName() + " result";
+            exceptionRef[0] = new SerializationException(s, e);
+            return;
+          }
+          if (queryResult instanceof Throwable) {
+            String s = "While performing a remote " + getOpName();
+            exceptionRef[0] = new ServerOperationException(s, (Throwable) queryResult);
+            return;
+          }
+          cursorIdRef[0] = cm.getPart(2).getLong();
+          if (queryResult instanceof Integer) {
+            rows.add(queryResult);
+          } else {
+            addRows(rows, collectionType, queryResult);
+          }
+        }
+      };
+      processChunkedResponse((ChunkedMessage) msg, getOpName(), ch);
+      if (exceptionRef[0] != null) {
+        throw exceptionRef[0];
+      }
+      return new Batch(rows, cursorIdRef[0], con.getServer());
+    }
+
+    private void addRows(List<Object> rows, CollectionType collectionType, Object queryResult) {
+      ObjectType objectType = collectionType.getElementType();
+      // for select * queries, the serialized object byte arrays are
+      // returned as part of ObjectPartList
+      boolean isObjectPartList = queryResult instanceof ObjectPartList;
+      Object[] resultArray = isObjectPartList
+          ? ((ObjectPartList) queryResult).getObjects().toArray() : (Object[]) queryResult;
+      if (objectType.isStructType()) {
+        for (Object result : resultArray) {
+          Object[] fieldValues = isObjectPartList
+              ? ((ObjectPartList) result).getObjects().toArray() : (Object[]) result;
+          rows.add(new StructImpl((StructTypeImpl) objectType, fieldValues));
+        }
+      } else {
+        rows.addAll(Arrays.asList(resultArray));
+      }
+    }
+
+    protected abstract String getOpName();
+
+    @Override
+    protected boolean isErrorResponse(int msgType) {
+      return msgType == MessageType.QUERY_DATA_ERROR;
+    }
+
+    @Override
+    protected long startAttempt(ConnectionStats stats) {
+      return stats.startQuery();
+    }
+
+    @Override
+    protected void endSendAttempt(ConnectionStats stats, long start) {
+      stats.endQuerySend(start, hasFailed());
+    }
+
+    @Override
+    protected void endAttempt(ConnectionStats stats, long start) {
+      stats.endQuery(start, hasTimedOut(), hasFailed());
+    }
+  }
+
+  static class OpenOpImpl extends BatchOpImpl {
+    private final String queryString;
+
+    private final Object[] queryParams;
+
+    /**
+     * @throws org.apache.geode.SerializationException if serialization fails
+     */
+    OpenOpImpl(String queryString, Object[] queryParams, int fetchSize) {
+      super(MessageType.QUERY_CURSOR_OPEN,
+          3 + (queryParams == null ? 0 : queryParams.length));
+      this.queryString = queryString;
+      this.queryParams = queryParams;
+      Object[] params = queryParams == null ? new Object[0] : queryParams;
+      getMessage().addStringPart(queryString);
+      getMessage().addIntPart(fetchSize);
+      getMessage().addIntPart(params.length);
+      for (Object param : params) {
+        getMessage().addObjPart(param);
+      }
+    }
+
+    @Override
+    public Object attempt(Connection cnx) throws Exception {
+      if (supportsCursors(cnx)) {
+        return super.attempt(cnx);
+      }
+      return toFinalBatch((SelectResults<?>) createQueryOp().attempt(cnx), cnx.getServer());
+    }
+
+    /**
+     * Returns the plain query used in place of the cursor on servers that do not support cursors.
+     */
+    AbstractOp createQueryOp() {
+      if (this.queryParams != null && this.queryParams.length > 0) {
+        return new QueryOp.QueryOpImpl(this.queryString, this.queryParams);
+      }
+      return new QueryOp.QueryOpImpl(this.queryString);
+    }
+
+    /**
+     * Returns all the results of a plain query as the only batch of a cursor.
+     */
+    static Batch toFinalBatch(SelectResults<?> results, ServerLocation server) {
+      List<Object> rows = results == null ? new ArrayList<>() : new ArrayList<>(results);
+      return new Batch(rows, 0, server);
+    }
+
+    @Override
+    protected String getOpName() {
+      return "query cursor open";
+    }
+  }
+
+  static class FetchOpImpl extends BatchOpImpl {
+    FetchOpImpl(long cursorId, int fetchSize) {
+      super(MessageType.QUERY_CURSOR_FETCH, 2);
+      getMessage().addLongPart(cursorId);
+      getMessage().addIntPart(fetchSize);
+    }
+
+    @Override
+    protected String getOpName() {
+      return "query cursor fetch";
+    }
+  }
+
+  static class CloseOpImpl extends AbstractOp {
+    CloseOpImpl(long cursorId) {
+      super(MessageType.QUERY_CURSOR_CLOSE, 1);
+      getMessage().addLongPart(cursorId);
+    }
+
+    @Override
+    protected Object processResponse(Message msg) throws Exception {
+      processAck(msg, "query cursor close");
+      return null;
+    }
+
+    @Override
+    protected boolean isErrorResponse(int msgType) {
+      return false;
+    }
+
+    @Override
+    protected long startAttempt(ConnectionStats stats) {
+      return stats.startQuery();
+    }
+
+    @Override
+    protected void endSendAttempt(ConnectionStats stats, long start) {
+      stats.endQuerySend(start, hasFailed());
+    }
+
+    @Override
+    protected void endAttempt(ConnectionStats stats, long start) {
+      stats.endQuery(start, hasTimedOut(), hasFailed());
+    }
+  }
+}
@@ -15,6 +15,7 @@
 package org.apache.geode.cache.client.internal;
 
 
+import org.apache.geode.cache.query.QueryCursor;
 import org.apache.geode.cache.query.SelectResults;
 import org.apache.geode.distributed.internal.ServerLocation;
 
@@ -69,4 +70,20 @@ public class ServerProxy {
     return QueryOp.execute(this.pool, queryPredicate, queryParams);
   }
 
+  /**
+   * Does a query on a server, returning a cursor that reads the results from the server in batches
+   * as it is iterated.
+   *
+   * @param queryPredicate A query language boolean query predicate
+   * @param fetchSize the number of results to read from the server at a time
+   * @since Geode 1.8
+   */
+  public <E> QueryCursor<E> queryWithCursor(String queryPredicate, Object[] queryParams,
+      int fetchSize) {
+    QueryCursorOp.Batch firstBatch =
+        QueryCursorOp.open(this.pool, queryPredicate, queryParams, fetchSize);
+    return new ClientQueryCursor<>(this.pool, firstBatch, fetchSize,
+        UserAttributes.userAttributes.get());
+  }
+
 }
@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal.locator;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.geode.cache.server.ServerLoad;
+import org.apache.geode.distributed.internal.ServerLocation;
+import org.apache.geode.internal.DataSerializableFixedID;
+import org.apache.geode.internal.InternalDataSerializer;
+
+/**
+ * A response from a locator holding the servers of a server group, the load of each server and the
+ * number of milliseconds the client may pick servers from this list before asking again.
+ */
+public class ServerListLeaseResponse extends ServerLocationResponse {
+
+  private ArrayList<ServerLocation> servers;
+
+  private ArrayList<ServerLoad> loads;
+
+  private long leaseTime;
+
+  /** For data serializer */
+  public ServerListLeaseResponse() {
+    super();
+  }
+
+  public ServerListLeaseResponse(ArrayList<ServerLocation> servers, ArrayList<ServerLoad> loads,
+      long leaseTime) {
+    this.servers = servers;
+    this.loads = loads;
+    this.leaseTime = leaseTime;
+  }
+
+  public void fromData(DataInput in) throws IOException, ClassNotFoundException {
+    this.servers = SerializationHelper.readServerLocationList(in);
+    int size = in.readInt();
+    this.loads = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      ServerLoad load = new ServerLoad();
+      InternalDataSerializer.invokeFromData(load, in);
+      this.loads.add(load);
+    }
+    this.leaseTime = in.readLong();
+  }
+
+  public void toData(DataOutput out) throws IOException {
+    SerializationHelper.writeServerLocationList(servers, out);
+    out.writeInt(loads.size());
+    for (ServerLoad load : loads) {
+      InternalDataSerializer.invokeToData(load, out);
+    }
+    out.writeLong(leaseTime);
+  }
+
+  public List<ServerLocation> getServers() {
+    return servers;
+  }
+
+  /**
+   * Returns the load of each server, in the same order as {@link #getServers()}
+   */
+  public List<ServerLoad> getLoads() {
+    return loads;
+  }
+
+  public long getLeaseTime() {
+    return leaseTime;
+  }
+
+  @Override
+  public String toString() {
+    return "ServerListLeaseResponse{servers=" + servers + ", loads=" + loads + ", leaseTime="
+        + leaseTime + "}";
+  }
+
+  public int getDSFID() {
+    return DataSerializableFixedID.SERVER_LIST_LEASE_RESPONSE;
+  }
+
+  @Override
+  public boolean hasResult() {
+    return this.servers != null && !this.servers.isEmpty();
+  }
+}
@@ -57,6 +57,23 @@ public enum IndexType {
   @Deprecated
   HASH("HASH"),
 
+  /**
+   * The index type of a bitmap index. A bitmap index keeps, for every distinct value of the
+   * indexedExpression, a compressed bitmap of the region entries holding that value. It is used for
+   * the comparison of some function of a region value with a constant, using the equality and not
+   * equals operators, and suits expressions with few distinct values such as a status or a type.
+   * The equality and not equals conditions of a query which are served by bitmap indexes on the
+   * same region are evaluated together by combining their bitmaps.
+   * <p>
+   * Like a hash index, a bitmap index is not supported for regions with asynchronous index
+   * maintenance or for from clauses with multiple iterators, and a functional index is created
+   * instead for regions which overflow to disk.
+   *
+   * @see QueryService#createBitmapIndex(String, String, String)
+   * @since Geode 1.8
+   */
+  BITMAP("BITMAP"),
+
 
   /**
    * The index type of a primary key index. A primary key index uses the keys in the region itself.
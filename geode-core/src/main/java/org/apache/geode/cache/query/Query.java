@@ -128,6 +128,38 @@ public interface Query {
   Object execute(Object... params) throws FunctionDomainException, TypeMismatchException,
       NameResolutionException, QueryInvocationTargetException;
 
+  /**
+   * Executes this query with the given parameters and returns a cursor over its results. When the
+   * query is executed on a server through a client pool, the results are streamed to the client
+   * in batches of <code>fetchSize</code> rows as the cursor is iterated, rather than being sent
+   * all at once. If the query resolves to a single value, such as a <code>count(*)</code>, the
+   * cursor returns that value as its only element. When the query is executed in this member, it
+   * is executed as by {@link #execute(Object...)} and the cursor iterates its results in place.
+   * Servers older than Geode 1.9 cannot stream results; against such a server the query is
+   * executed as by {@link #execute(Object...)} and all of its results are sent at once.
+   * <p>
+   * Queries obtained from a {@link QueryService} always support cursors. This method has a default
+   * implementation only so that other implementations of this interface keep compiling; it throws
+   * <code>UnsupportedOperationException</code>.
+   *
+   * @param fetchSize the number of rows to transfer from the server at a time
+   * @param params Values that are bound to parameters (such as <code>$1</code>) in this query.
+   *
+   * @return a cursor over the results of the query; close it if it is not read to the end.
+   *
+   * @throws IllegalArgumentException if <code>fetchSize</code> is not positive, or the number of
+   *         bound parameters does not match the number of placeholders
+   * @throws UnsupportedOperationException if this query was not obtained from a
+   *         {@link QueryService} and does not implement this method
+   * @see #execute(Object...)
+   * @since Geode 1.8
+   */
+  default <E> QueryCursor<E> executeWithCursor(int fetchSize, Object... params)
+      throws FunctionDomainException, TypeMismatchException, NameResolutionException,
+      QueryInvocationTargetException {
+    throw new UnsupportedOperationException();
+  }
+
   /**
    * Executes this query on the partitioned data-store associated with the given
    * RegionFunctionContext and returns an object that represents its result. An Exception is thrown
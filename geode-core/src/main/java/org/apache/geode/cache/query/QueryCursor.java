@@ -0,0 +1,40 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query;
+
+import java.util.Iterator;
+
+/**
+ * An iterator over the results of a query that is read lazily. When the query is executed on a
+ * server the results are transferred in batches of the fetch size given to
+ * {@link Query#executeWithCursor(int, Object...)}; the next batch is only requested once the
+ * rows already received have been iterated, so the client never holds more than one batch and
+ * the server only sends rows as fast as the client consumes them.
+ *
+ * A cursor that is not iterated to the end should be closed to release the results the server
+ * holds for it. Servers discard cursors that are left idle, after which iterating them fails.
+ *
+ * @param <E> the type of the query results
+ * @since Geode 1.8
+ */
+public interface QueryCursor<E> extends Iterator<E>, AutoCloseable {
+
+  /**
+   * Releases the results held for this cursor. Further calls to {@link #hasNext()} return false.
+   * Closing a cursor more than once, or after it is exhausted, has no effect.
+   */
+  @Override
+  void close();
+}
@@ -264,6 +264,75 @@ public interface QueryService {
       String imports) throws IndexInvalidException, IndexNameConflictException,
       IndexExistsException, RegionNotFoundException, UnsupportedOperationException;
 
+  /**
+   * Create a bitmap index that can be used when executing equality and not equals queries. A bitmap
+   * index keeps a compressed bitmap of the region entries for each distinct value of the indexed
+   * expression, so it suits expressions with few distinct values. The conditions of a query served
+   * by bitmap indexes on the same region are evaluated together by combining their bitmaps.
+   *
+   * @param indexName the name of this index.
+   * @param indexedExpression refers to the field of the region values that are referenced by the
+   *        regionPath.
+   * @param regionPath that resolves to region values or nested collections of region values which
+   *        will correspond to the FROM clause in a query. The regionPath is restricted to only one
+   *        expression
+   *
+   *        Example: Query1: "Select * from /portfolio p where p.status = 'active' and p.type =
+   *        'type1'" For indexes on the status and type fields: indexExpressions: "p.status" and
+   *        "p.type" regionPath: "/portfolio p"
+   *
+   * @return the newly created Index
+   * @throws QueryInvalidException if the argument query language strings have invalid syntax
+   * @throws IndexInvalidException if the arguments do not correctly specify an index
+   * @throws IndexNameConflictException if an index with this name already exists
+   * @throws IndexExistsException if an index with these parameters already exists with a different
+   *         name
+   * @throws RegionNotFoundException if the region referred to in the fromClause doesn't exist
+   * @throws UnsupportedOperationException If Index is being created on a region which does not
+   *         support indexes.
+   *
+   * @since Geode 1.8
+   */
+  default Index createBitmapIndex(String indexName, String indexedExpression, String regionPath)
+      throws IndexInvalidException, IndexNameConflictException, IndexExistsException,
+      RegionNotFoundException, UnsupportedOperationException {
+    return createBitmapIndex(indexName, indexedExpression, regionPath, null);
+  }
+
+  /**
+   * Create a bitmap index that can be used when executing equality and not equals queries. The
+   * default implementation creates the index through
+   * {@link #createIndex(String, IndexType, String, String, String)}.
+   *
+   * @param indexName the name of this index.
+   * @param indexedExpression refers to the field of the region values that are referenced by the
+   *        regionPath.
+   * @param regionPath that resolves to region values or nested collections of region values which
+   *        will correspond to the FROM clause in a query. The regionPath must include exactly one
+   *        region The regionPath is restricted to only one expression
+   * @param imports string containing imports (in the query language syntax, each import statement
+   *        separated by a semicolon), provides packages and classes used in variable typing in the
+   *        Indexed and FROM expressions. The use is the same as for the FROM clause in querying.
+   *
+   * @return the newly created Index
+   * @throws QueryInvalidException if the argument query language strings have invalid syntax
+   * @throws IndexInvalidException if the arguments do not correctly specify an index
+   * @throws IndexNameConflictException if an index with this name already exists
+   * @throws IndexExistsException if an index with these parameters already exists with a different
+   *         name
+   * @throws RegionNotFoundException if the region referred to in the fromClause doesn't exist
+   * @throws UnsupportedOperationException If Index is being created on a region which does not
+   *         support indexes.
+   *
+   * @since Geode 1.8
+   */
+  @SuppressWarnings("deprecation")
+  default Index createBitmapIndex(String indexName, String indexedExpression, String regionPath,
+      String imports) throws IndexInvalidException, IndexNameConflictException,
+      IndexExistsException, RegionNotFoundException, UnsupportedOperationException {
+    return createIndex(indexName, IndexType.BITMAP, indexedExpression, regionPath, imports);
+  }
+
   /**
    *
    * @deprecated As of 6.6.2, use {@link #createIndex(String, String, String)} and
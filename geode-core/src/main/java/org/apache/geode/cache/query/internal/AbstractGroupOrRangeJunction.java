@@ -265,6 +265,7 @@ public abstract class AbstractGroupOrRangeJunction extends AbstractCompiledValue
 
     // Sort the operands in increasing order of resultset size
     Iterator i = sortedConditionsList.iterator();
+    boolean filterEvaluated = false;
     // SortedSet intersectionSet = new TreeSet(new SelectResultsComparator());
     while (i.hasNext()) {
       // Asif:TODO The intermediate ResultSet should be passed as null when
@@ -285,6 +286,11 @@ public abstract class AbstractGroupOrRangeJunction extends AbstractCompiledValue
       // RangeJunction then the Filter is a RangeJunctionEvaluator
       SelectResults filterResults = null;
       Filter filter = (Filter) i.next();
+      if (_operator == LITERAL_and && filterEvaluated && CostBasedPlanner.isEnabled()
+          && CostBasedPlanner.isIterationCheaper(intermediateResults.size(), filter, context)) {
+        // the remaining filter operands are cheaper to evaluate on the intermediate results
+        break;
+      }
       boolean isConditioningNeeded = filter.isConditioningNeededForIndex(
           this.indpndntItr.length == 1 ? this.indpndntItr[0] : null, context,
           this.completeExpansion);
@@ -308,6 +314,7 @@ public abstract class AbstractGroupOrRangeJunction extends AbstractCompiledValue
               (intermediateResults == null || !isConditioningNeeded) ? filterResults
                   : QueryUtils.intersection(intermediateResults, filterResults, context);
           i.remove();
+          filterEvaluated = true;
           if (intermediateResults.size() <= indexThresholdSize) {
             // Abort further intersection , the residual filter operands will be transferred for
             // iter evaluation
@@ -0,0 +1,363 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.geode.cache.query.AmbiguousNameException;
+import org.apache.geode.cache.query.FunctionDomainException;
+import org.apache.geode.cache.query.NameResolutionException;
+import org.apache.geode.cache.query.QueryInvocationTargetException;
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.cache.query.TypeMismatchException;
+import org.apache.geode.cache.query.internal.index.BitmapIndex;
+import org.apache.geode.cache.query.internal.index.CompressedBitmap;
+import org.apache.geode.cache.query.internal.index.PartitionedIndex;
+import org.apache.geode.internal.cache.BucketRegion;
+
+/**
+ * This structure contains the equality and inequality conditions of a GroupJunction which are
+ * served by {@link BitmapIndex}es on the same region. Rather than using one of those conditions as
+ * the filter and iterating the rest, the bitmaps of all the conditions are intersected ( AND) or
+ * unioned ( OR) and only the entries of the combined bitmap are fetched.
+ *
+ * The entries are fetched through one of the conditions, the delegate, exactly as a single
+ * CompiledComparison would fetch them, so the expansion, projection, limit and order by handling of
+ * the index result stays the same. While the delegate is evaluated, this junction is registered in
+ * the execution context under {@link CompiledValue#BITMAP_FILTER}, which makes the bitmap index of
+ * the delegate return the entries of the combined bitmap instead of those of its own key.
+ *
+ * @since Geode 1.8
+ */
+public class BitmapJunction extends AbstractCompiledValue implements Filter {
+
+  private final int operator;
+
+  private final CompiledComparison[] operands;
+
+  private final IndexInfo[] indexInfos;
+
+  /** the operand whose index lookup returns the combined entries */
+  private CompiledComparison delegate;
+
+  private IndexInfo delegateInfo;
+
+  /** index keys and operators of the operands, evaluated once per filter evaluation */
+  private Object[] keys;
+
+  private int[] operators;
+
+  /**
+   * false if the last bitmap evaluated is a superset of the matching entries, because an index of
+   * an operand was missing for the bucket. The junction is evaluated by one thread at a time.
+   */
+  private boolean exact = true;
+
+  private BitmapJunction(int operator, CompiledComparison[] operands, IndexInfo[] indexInfos,
+      int delegate) {
+    this.operator = operator;
+    this.operands = operands;
+    this.indexInfos = indexInfos;
+    this.delegate = operands[delegate];
+    this.delegateInfo = indexInfos[delegate];
+  }
+
+  /**
+   * Returns true if bitmap junctions can be used in this context. The junction hands its state to
+   * the index through the execution cache, which only query execution contexts provide, and CQs
+   * evaluate their conditions one event at a time.
+   */
+  static boolean isApplicable(ExecutionContext context) {
+    return context instanceof QueryExecutionContext && !context.isCqQueryContext();
+  }
+
+  /**
+   * @return the index info of the operand if it is a comparison that can be folded into a bitmap
+   *         junction, else null
+   */
+  static IndexInfo getBitmapIndexInfo(CompiledValue operand, ExecutionContext context)
+      throws FunctionDomainException, TypeMismatchException, NameResolutionException,
+      QueryInvocationTargetException {
+    if (operand.getClass() != CompiledComparison.class) {
+      return null;
+    }
+    PlanInfo planInfo = operand.getPlanInfo(context);
+    if (!planInfo.evalAsFilter || planInfo.indexes.size() != 1
+        || !(planInfo.indexes.get(0) instanceof BitmapIndex)) {
+      return null;
+    }
+    IndexInfo[] indexInfo = ((CompiledComparison) operand).getIndexInfo(context);
+    if (indexInfo == null || indexInfo.length != 1) {
+      return null;
+    }
+    int op = ((CompiledComparison) operand).getOperator();
+    if (op != TOK_EQ && op != TOK_NE && op != TOK_NE_ALT) {
+      return null;
+    }
+    return indexInfo[0];
+  }
+
+  /**
+   * Creates a junction over comparisons whose indexes share the same entry ordinals, as found by
+   * {@link #getBitmapIndexInfo}. The delegate is the preferred condition if there is one, so that an
+   * order by applied at the index uses the right key.
+   */
+  static BitmapJunction create(int operator, List<CompiledComparison> operands,
+      List<IndexInfo> indexInfos, ExecutionContext context)
+      throws FunctionDomainException, TypeMismatchException, NameResolutionException,
+      QueryInvocationTargetException {
+    int delegate = 0;
+    for (int i = 0; i < operands.size(); i++) {
+      if (operands.get(i).getPlanInfo(context).isPreferred) {
+        delegate = i;
+        break;
+      }
+    }
+    BitmapJunction junction = new BitmapJunction(operator,
+        operands.toArray(new CompiledComparison[operands.size()]),
+        indexInfos.toArray(new IndexInfo[indexInfos.size()]), delegate);
+    junction.computeDependencies(context);
+    return junction;
+  }
+
+  @Override
+  public SelectResults filterEvaluate(ExecutionContext context, SelectResults iterationLimit,
+      boolean completeExpansionNeeded, CompiledValue iterOperands, RuntimeIterator[] indpndntItrs,
+      boolean isIntersection, boolean conditioningNeeded, boolean evaluateProjection)
+      throws FunctionDomainException, TypeMismatchException, NameResolutionException,
+      QueryInvocationTargetException {
+    this.keys = new Object[this.operands.length];
+    this.operators = new int[this.operands.length];
+    int delegateIndex = -1;
+    for (int i = 0; i < this.operands.length; i++) {
+      this.keys[i] = this.indexInfos[i].evaluateIndexKey(context);
+      this.operators[i] = this.operands[i].reflectOnOperator(this.indexInfos[i]._key());
+      if (this.operands[i] == this.delegate) {
+        delegateIndex = i;
+      }
+    }
+    if (this.operator == LITERAL_or && QueryService.UNDEFINED.equals(this.keys[delegateIndex])) {
+      // a delegate comparing with UNDEFINED would short circuit to an empty result
+      for (int i = 0; i < this.operands.length; i++) {
+        if (!QueryService.UNDEFINED.equals(this.keys[i])) {
+          this.delegate = this.operands[i];
+          this.delegateInfo = this.indexInfos[i];
+          break;
+        }
+      }
+    }
+    context.cachePut(BITMAP_FILTER, this);
+    try {
+      return this.delegate.filterEvaluate(context, iterationLimit, completeExpansionNeeded,
+          iterOperands, indpndntItrs, isIntersection, conditioningNeeded, evaluateProjection);
+    } finally {
+      context.cachePut(BITMAP_FILTER, null);
+    }
+  }
+
+  @Override
+  public SelectResults filterEvaluate(ExecutionContext context, SelectResults intermediateResults)
+      throws FunctionDomainException, TypeMismatchException, NameResolutionException,
+      QueryInvocationTargetException {
+    RuntimeIterator indpndntItr = null;
+    List currentScopeIndpndntItrs = context.getAllIndependentIteratorsOfCurrentScope();
+    Set rntmItrs = QueryUtils.getCurrentScopeUltimateRuntimeIteratorsIfAny(this, context);
+    if (rntmItrs.size() == 1 && currentScopeIndpndntItrs.size() == 1) {
+      indpndntItr = (RuntimeIterator) rntmItrs.iterator().next();
+    }
+    return filterEvaluate(context, intermediateResults, true, null,
+        indpndntItr != null ? new RuntimeIterator[] {indpndntItr} : null, true,
+        isConditioningNeededForIndex(indpndntItr, context, true), true);
+  }
+
+  /**
+   * Returns true if this junction is being evaluated through the given index, or through the index
+   * of the same name on another bucket of the partitioned region.
+   */
+  public boolean isEvaluatedBy(BitmapIndex index) {
+    return this.delegateInfo._index == index
+        || this.delegateInfo._index.getName().equals(index.getName());
+  }
+
+  /**
+   * Combines the bitmaps of all the operands for the region of the given index, which is the
+   * delegate's index or its counterpart on another bucket.
+   */
+  public CompressedBitmap evaluateBitmap(BitmapIndex target, ExecutionContext context)
+      throws TypeMismatchException, QueryInvocationTargetException {
+    this.exact = true;
+    CompressedBitmap result = null;
+    for (int i = 0; i < this.operands.length; i++) {
+      BitmapIndex index = getIndexForRegionOf((BitmapIndex) this.indexInfos[i]._index, target);
+      CompressedBitmap bitmap;
+      if (index == null) {
+        // the index is not available for this bucket; fall back to a superset of the matching
+        // entries, every one of which gets verified against all the conditions
+        this.exact = false;
+        if (this.operator == LITERAL_and) {
+          continue;
+        }
+        bitmap = target.getAllEntries();
+      } else {
+        bitmap = index.getBitmap(this.keys[i], this.operators[i]);
+      }
+      if (result == null) {
+        result = bitmap;
+      } else if (this.operator == LITERAL_and) {
+        result = result.and(bitmap);
+      } else {
+        result = result.or(bitmap);
+      }
+      if (this.operator == LITERAL_and && result.isEmpty()) {
+        break;
+      }
+    }
+    return result == null ? new CompressedBitmap() : result;
+  }
+
+  private BitmapIndex getIndexForRegionOf(BitmapIndex index, BitmapIndex target)
+      throws QueryInvocationTargetException {
+    if (index.getRegion() == target.getRegion()) {
+      return index;
+    }
+    if (target.getRegion() instanceof BucketRegion) {
+      BucketRegion bucket = (BucketRegion) target.getRegion();
+      Object bucketIndex = PartitionedIndex.getBucketIndex(bucket.getPartitionedRegion(),
+          index.getName(), bucket.getId());
+      if (bucketIndex instanceof BitmapIndex && ((BitmapIndex) bucketIndex)
+          .getEntryOrdinals() == target.getEntryOrdinals()) {
+        return (BitmapIndex) bucketIndex;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * @return false if the bitmap last evaluated may hold entries not matching the conditions
+   */
+  public boolean isExact() {
+    return this.exact;
+  }
+
+  /**
+   * Verifies the current value of the independent iterator against all the conditions; used for
+   * entries modified while the query was running.
+   */
+  public boolean verify(ExecutionContext context) throws FunctionDomainException,
+      TypeMismatchException, NameResolutionException, QueryInvocationTargetException {
+    return Boolean.TRUE.equals(evaluate(context));
+  }
+
+  @Override
+  public Object evaluate(ExecutionContext context) throws FunctionDomainException,
+      TypeMismatchException, NameResolutionException, QueryInvocationTargetException {
+    return new CompiledJunction(this.operands, this.operator).evaluate(context);
+  }
+
+  @Override
+  public PlanInfo getPlanInfo(ExecutionContext context) throws FunctionDomainException,
+      TypeMismatchException, NameResolutionException, QueryInvocationTargetException {
+    return this.delegate.getPlanInfo(context);
+  }
+
+  @Override
+  public Set computeDependencies(ExecutionContext context)
+      throws TypeMismatchException, AmbiguousNameException, NameResolutionException {
+    for (CompiledComparison operand : this.operands) {
+      context.addDependencies(this, operand.computeDependencies(context));
+    }
+    return context.getDependencySet(this, true);
+  }
+
+  @Override
+  public int getSizeEstimate(ExecutionContext context) throws FunctionDomainException,
+      TypeMismatchException, NameResolutionException, QueryInvocationTargetException {
+    long size = this.operator == LITERAL_and ? Integer.MAX_VALUE : 0;
+    for (CompiledComparison operand : this.operands) {
+      int operandSize = operand.getSizeEstimate(context);
+      size = this.operator == LITERAL_and ? Math.min(size, operandSize) : size + operandSize;
+    }
+    return (int) Math.min(size, Integer.MAX_VALUE);
+  }
+
+  @Override
+  public boolean isBetterFilter(Filter comparedTo, ExecutionContext context, int thisSize)
+      throws FunctionDomainException, TypeMismatchException, NameResolutionException,
+      QueryInvocationTargetException {
+    int thatSize = comparedTo.getSizeEstimate(context);
+    if (CostBasedPlanner.isEnabled() && !(context instanceof QueryExecutionContext
+        && ((QueryExecutionContext) context).hasHints())) {
+      return CostBasedPlanner.isCheaper(getOperator(), thisSize, comparedTo.getOperator(),
+          thatSize);
+    }
+    // the combined bitmap is bounded by the most selective of its conditions
+    return thisSize <= thatSize;
+  }
+
+  /**
+   * Reports the junction as an equality if it intersects at least one equality, so that it ranks
+   * with single conditions the way its result size does.
+   */
+  @Override
+  public int getOperator() {
+    if (this.operator == LITERAL_and) {
+      for (CompiledComparison operand : this.operands) {
+        if (operand.getOperator() == TOK_EQ) {
+          return TOK_EQ;
+        }
+      }
+      return TOK_NE;
+    }
+    return LITERAL_or;
+  }
+
+  @Override
+  public boolean isConditioningNeededForIndex(RuntimeIterator independentIter,
+      ExecutionContext context, boolean completeExpnsNeeded)
+      throws AmbiguousNameException, TypeMismatchException, NameResolutionException {
+    return this.delegate.isConditioningNeededForIndex(independentIter, context,
+        completeExpnsNeeded);
+  }
+
+  @Override
+  public boolean isProjectionEvaluationAPossibility(ExecutionContext context) {
+    return true;
+  }
+
+  @Override
+  public boolean isLimitApplicableAtIndexLevel(ExecutionContext context) {
+    return true;
+  }
+
+  @Override
+  public boolean isOrderByApplicableAtIndexLevel(ExecutionContext context,
+      String canonicalizedOrderByClause) throws FunctionDomainException, TypeMismatchException,
+      NameResolutionException, QueryInvocationTargetException {
+    return this.delegate.isOrderByApplicableAtIndexLevel(context, canonicalizedOrderByClause);
+  }
+
+  @Override
+  public List getChildren() {
+    return Arrays.asList(this.operands);
+  }
+
+  @Override
+  public int getType() {
+    return BITMAPJUNCTION;
+  }
+}
@@ -14,21 +14,28 @@
  */
 package org.apache.geode.cache.query.internal;
 
+import org.apache.geode.cache.query.Aggregator;
 import org.apache.geode.cache.query.AmbiguousNameException;
 import org.apache.geode.cache.query.FunctionDomainException;
 import org.apache.geode.cache.query.NameResolutionException;
 import org.apache.geode.cache.query.QueryInvocationTargetException;
 import org.apache.geode.cache.query.TypeMismatchException;
+import org.apache.geode.cache.query.internal.aggregate.ApproxCountDistinct;
+import org.apache.geode.cache.query.internal.aggregate.ApproxCountDistinctBucketNode;
+import org.apache.geode.cache.query.internal.aggregate.ApproxCountDistinctMemberNode;
+import org.apache.geode.cache.query.internal.aggregate.ApproxCountDistinctPRQueryNode;
 import org.apache.geode.cache.query.internal.aggregate.Avg;
 import org.apache.geode.cache.query.internal.aggregate.AvgBucketNode;
 import org.apache.geode.cache.query.internal.aggregate.AvgDistinct;
 import org.apache.geode.cache.query.internal.aggregate.AvgDistinctPRQueryNode;
+import org.apache.geode.cache.query.internal.aggregate.AvgMemberNode;
 import org.apache.geode.cache.query.internal.aggregate.AvgPRQueryNode;
 import org.apache.geode.cache.query.internal.aggregate.Count;
 import org.apache.geode.cache.query.internal.aggregate.CountDistinct;
 import org.apache.geode.cache.query.internal.aggregate.CountDistinctPRQueryNode;
 import org.apache.geode.cache.query.internal.aggregate.CountPRQueryNode;
 import org.apache.geode.cache.query.internal.aggregate.DistinctAggregator;
+import org.apache.geode.cache.query.internal.aggregate.DistinctMemberNode;
 import org.apache.geode.cache.query.internal.aggregate.MaxMin;
 import org.apache.geode.cache.query.internal.aggregate.Sum;
 import org.apache.geode.cache.query.internal.aggregate.SumDistinct;
@@ -36,9 +43,18 @@ import org.apache.geode.cache.query.internal.aggregate.SumDistinctPRQueryNode;
 import org.apache.geode.cache.query.internal.parse.OQLLexerTokenTypes;
 import org.apache.geode.cache.query.internal.types.ObjectTypeImpl;
 import org.apache.geode.cache.query.types.ObjectType;
+import org.apache.geode.distributed.internal.DistributionConfig;
 
 public class CompiledAggregateFunction extends AbstractCompiledValue {
 
+  /**
+   * System property to estimate COUNT(DISTINCT ...) with HyperLogLog sketches instead of collecting
+   * the distinct values. Bucket nodes then ship a fixed size sketch per group rather than every
+   * distinct value. Must be set the same way on all members hosting a partitioned region.
+   */
+  public static final boolean APPROXIMATE_COUNT_DISTINCT =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "Query.APPROXIMATE_COUNT_DISTINCT");
+
   private final CompiledValue expr;
   private final int aggFuncType;
   private final boolean distinctOnly;
@@ -64,6 +80,9 @@ public class CompiledAggregateFunction extends AbstractCompiledValue {
       TypeMismatchException, NameResolutionException, QueryInvocationTargetException {
     boolean isPRQueryNode = context.getIsPRQueryNode();
     boolean isBucketNode = context.getBucketList() != null;
+    if (context.getCombinesBucketResults()) {
+      return createBucketResultsCombiner();
+    }
     switch (this.aggFuncType) {
 
       case OQLLexerTokenTypes.SUM:
@@ -89,6 +108,10 @@ public class CompiledAggregateFunction extends AbstractCompiledValue {
         }
 
       case OQLLexerTokenTypes.COUNT:
+        if (this.distinctOnly && APPROXIMATE_COUNT_DISTINCT) {
+          return isPRQueryNode ? new ApproxCountDistinctPRQueryNode()
+              : (isBucketNode ? new ApproxCountDistinctBucketNode() : new ApproxCountDistinct());
+        }
         if (isPRQueryNode) {
           return this.distinctOnly ? new CountDistinctPRQueryNode() : new CountPRQueryNode();
         } else {
@@ -103,6 +126,38 @@ public class CompiledAggregateFunction extends AbstractCompiledValue {
 
   }
 
+  /**
+   * Returns the aggregator folding the partial results of several bucket nodes into one partial
+   * result of the same form, which the PR query node combines as if it came from a single bucket.
+   */
+  private Aggregator createBucketResultsCombiner() {
+    switch (this.aggFuncType) {
+
+      case OQLLexerTokenTypes.SUM:
+        return this.distinctOnly ? new DistinctMemberNode() : new Sum();
+
+      case OQLLexerTokenTypes.MAX:
+        return new MaxMin(true);
+
+      case OQLLexerTokenTypes.MIN:
+        return new MaxMin(false);
+
+      case OQLLexerTokenTypes.AVG:
+        return this.distinctOnly ? new DistinctMemberNode() : new AvgMemberNode();
+
+      case OQLLexerTokenTypes.COUNT:
+        if (this.distinctOnly) {
+          return APPROXIMATE_COUNT_DISTINCT ? new ApproxCountDistinctMemberNode()
+              : new DistinctMemberNode();
+        }
+        return new CountPRQueryNode();
+
+      default:
+        throw new UnsupportedOperationException("Aggregate function not implemented");
+
+    }
+  }
+
   private String getStringRep() {
     switch (this.aggFuncType) {
 
@@ -79,9 +79,15 @@ public class CompiledComparison extends AbstractCompiledValue
 
   public Object evaluate(ExecutionContext context) throws FunctionDomainException,
       TypeMismatchException, NameResolutionException, QueryInvocationTargetException {
-    Object left = _left.evaluate(context);
-    Object right = _right.evaluate(context);
+    return evaluate(_left.evaluate(context), _right.evaluate(context), context);
+  }
 
+  /**
+   * Compares the already evaluated operands of this comparison. Used by {@link ExpressionCompiler}
+   * which evaluates the operands itself.
+   */
+  Object evaluate(Object left, Object right, ExecutionContext context)
+      throws TypeMismatchException {
     if (context.isCqQueryContext() && left instanceof Region.Entry) {
       left = ((Region.Entry) left).getValue();
     }
@@ -355,6 +361,7 @@ public class CompiledComparison extends AbstractCompiledValue
      *
      */
 
+    long lookupStart = QueryExplanation.startIndexLookup(context);
     try {
       if (!createEmptySet) {
         observer.beforeIndexLookup(indexInfo._index, op, key);
@@ -475,6 +482,7 @@ public class CompiledComparison extends AbstractCompiledValue
     } finally {
       if (!createEmptySet) {
         observer.afterIndexLookup(set);
+        QueryExplanation.endIndexLookup(context, indexInfo._index, lookupStart, set);
       }
     }
     if (conditioningNeeded) {
@@ -554,6 +562,7 @@ public class CompiledComparison extends AbstractCompiledValue
           "A relationship index is not usable for any condition other than equality");
 
       List data = null;
+      long lookupStart = QueryExplanation.startIndexLookup(context);
       try {
         observer.beforeIndexLookup(indxInfo[0]._index, this._operator, null);
         observer.beforeIndexLookup(indxInfo[1]._index, this._operator, null);
@@ -564,6 +573,8 @@ public class CompiledComparison extends AbstractCompiledValue
         }
       } finally {
         observer.afterIndexLookup(data);
+        QueryExplanation.endIndexJoin(context, indxInfo[0]._index, indxInfo[1]._index, lookupStart,
+            data);
       }
       return QueryUtils.getConditionedRelationshipIndexResultsExpandedToTopOrCGJLevel(data,
           indxInfo, context, completeExpansionNeeded, iterOperands, indpdntItrs);
@@ -776,6 +787,10 @@ public class CompiledComparison extends AbstractCompiledValue
       return thisSize <= thatSize;
     }
 
+    if (CostBasedPlanner.isEnabled()) {
+      return CostBasedPlanner.isCheaper(this._operator, thisSize, thatOperator, thatSize);
+    }
+
     // There may be some hard rules that give unoptimal selections based on these switch cases.
     if (this._operator == TOK_EQ || this._operator == TOK_NE || this._operator == TOK_NE_ALT) {
       switch (thatOperator) {
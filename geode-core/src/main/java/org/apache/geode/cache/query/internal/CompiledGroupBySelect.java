@@ -14,8 +14,10 @@
  */
 package org.apache.geode.cache.query.internal;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.BitSet;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
@@ -156,14 +158,66 @@ public class CompiledGroupBySelect extends CompiledSelect {
   public SelectResults evaluate(ExecutionContext context) throws FunctionDomainException,
       TypeMismatchException, NameResolutionException, QueryInvocationTargetException {
     SelectResults sr = super.evaluate(context);
-    return this.applyAggregateAndGroupBy(sr, context);
-
+    QueryExplanation explanation = QueryExplanation.get(context);
+    if (explanation == null) {
+      return this.applyAggregateAndGroupBy(sr, context);
+    }
+    QueryExplanation.Execution execution = explanation.start(context, "GroupBy", "");
+    SelectResults results = null;
+    try {
+      results = this.applyAggregateAndGroupBy(sr, context);
+      return results;
+    } finally {
+      execution.end(context, results);
+    }
   }
 
   public SelectResults applyAggregateAndGroupBy(SelectResults baseResults, ExecutionContext context)
       throws FunctionDomainException, TypeMismatchException, NameResolutionException,
       QueryInvocationTargetException {
-    ObjectType elementType = baseResults.getCollectionType().getElementType();
+    return applyAggregateAndGroupBy(baseResults.iterator(),
+        baseResults.getCollectionType().getElementType(), context);
+  }
+
+  /**
+   * Folds the grouped results of the local buckets of a member into one row per group, so that the
+   * member sends a single partial aggregate per group to the PR query node rather than one per
+   * bucket. The rows keep the form a bucket node produces, ordered by the group by columns if
+   * there are any.
+   *
+   * @param bucketResults the results of the buckets, already merged into one ordered collection if
+   *        the query has group by columns
+   * @param context a context with the bucket list of the member set and
+   *        {@link ExecutionContext#setCombinesBucketResults(boolean)} on
+   */
+  public SelectResults combineBucketResults(Collection<Collection> bucketResults,
+      ExecutionContext context) throws FunctionDomainException, TypeMismatchException,
+      NameResolutionException, QueryInvocationTargetException {
+    ObjectType elementType = null;
+    List<Collection> results = new ArrayList<>(bucketResults.size());
+    for (Collection bucketResult : bucketResults) {
+      if (bucketResult instanceof SelectResults) {
+        elementType = ((SelectResults) bucketResult).getCollectionType().getElementType();
+        results.add(bucketResult);
+      }
+    }
+    if (results.size() == 1) {
+      return applyAggregateAndGroupBy(results.get(0).iterator(), elementType, context);
+    }
+    if (this.orderByAttrs != null) {
+      throw new IllegalStateException("Grouped bucket results must be merged before combining");
+    }
+    // without group by columns each bucket returns no more than one row
+    List rows = new ArrayList();
+    for (Collection bucketResult : results) {
+      rows.addAll(bucketResult);
+    }
+    return applyAggregateAndGroupBy(rows.iterator(), elementType, context);
+  }
+
+  private SelectResults applyAggregateAndGroupBy(Iterator baseResults, ObjectType elementType,
+      ExecutionContext context) throws FunctionDomainException, TypeMismatchException,
+      NameResolutionException, QueryInvocationTargetException {
     boolean isStruct = elementType != null && elementType.isStructType();
     boolean isBucketNodes = context.getBucketList() != null;
     boolean createOrderedResultSet = isBucketNodes && this.orderByAttrs != null;
@@ -177,7 +231,7 @@ public class CompiledGroupBySelect extends CompiledSelect {
       applyGroupBy(baseResults, context, isStruct, newResults, aggregators, !createOrderedResultSet,
           objectChangedMarker, limitValue);
     } else {
-      Iterator iter = baseResults.iterator();
+      Iterator iter = baseResults;
       Object current = null;
       boolean unterminated = iter.hasNext();
       while (iter.hasNext()) {
@@ -260,11 +314,11 @@ public class CompiledGroupBySelect extends CompiledSelect {
     }
   }
 
-  private void applyGroupBy(SelectResults baseResults, ExecutionContext context, boolean isStruct,
+  private void applyGroupBy(Iterator baseResults, ExecutionContext context, boolean isStruct,
       SelectResults newResults, Aggregator[] aggregators, boolean isStructFields,
       boolean[] objectChangedMarker, int limitValue) throws FunctionDomainException,
       TypeMismatchException, NameResolutionException, QueryInvocationTargetException {
-    Iterator iter = baseResults.iterator();
+    Iterator iter = baseResults;
     Object[] orderByTupleHolderCurrent = null;
     Object[] orderByTupleHolderPrev = null;
     Object orderByCurrent = null;
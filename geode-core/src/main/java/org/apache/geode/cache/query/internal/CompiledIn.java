@@ -225,7 +225,8 @@ public class CompiledIn extends AbstractCompiledValue implements Indexable {
       // index
       if (indexInfo[0]._index.getCanonicalizedIndexedExpression().equals(preferredCondn)
           && (indexInfo[0]._index.getType() == IndexType.FUNCTIONAL
-              || indexInfo[0]._index.getType() == IndexType.HASH)) {
+              || indexInfo[0]._index.getType() == IndexType.HASH
+              || indexInfo[0]._index.getType() == IndexType.BITMAP)) {
         result.isPreferred = true;
       }
     }
@@ -517,6 +518,7 @@ public class CompiledIn extends AbstractCompiledValue implements Indexable {
     }
 
     QueryObserver observer = QueryObserverHolder.getInstance();
+    long lookupStart = QueryExplanation.startIndexLookup(context);
     try {
       Object evalColln = evaluateColln(context);
       observer.beforeIndexLookup(indexInfo._index, TOK_EQ, evalColln);
@@ -585,6 +587,7 @@ public class CompiledIn extends AbstractCompiledValue implements Indexable {
       return results;
     } finally {
       observer.afterIndexLookup(results);
+      QueryExplanation.endIndexLookup(context, indexInfo._index, lookupStart, results);
     }
   }
 
@@ -698,6 +701,10 @@ public class CompiledIn extends AbstractCompiledValue implements Indexable {
       return thisSize <= thatSize;
     }
 
+    if (CostBasedPlanner.isEnabled()) {
+      return CostBasedPlanner.isCheaper(getOperator(), thisSize, thatOperator, thatSize);
+    }
+
     switch (thatOperator) {
       case TOK_EQ:
       case TOK_NE:
@@ -27,6 +27,7 @@ import java.util.Set;
 
 import org.apache.geode.InternalGemFireError;
 import org.apache.geode.cache.EntryDestroyedException;
+import org.apache.geode.cache.Region;
 import org.apache.geode.cache.query.AmbiguousNameException;
 import org.apache.geode.cache.query.FunctionDomainException;
 import org.apache.geode.cache.query.NameResolutionException;
@@ -41,6 +42,7 @@ import org.apache.geode.cache.query.internal.parse.OQLLexerTokenTypes;
 import org.apache.geode.cache.query.internal.types.StructTypeImpl;
 import org.apache.geode.cache.query.types.ObjectType;
 import org.apache.geode.internal.Assert;
+import org.apache.geode.internal.cache.BucketRegion;
 import org.apache.geode.internal.i18n.LocalizedStrings;
 
 /**
@@ -233,6 +235,9 @@ public class CompiledJunction extends AbstractCompiledValue implements Negatable
     // The checks invoked before this function have ensured that all the
     // operands are of type ComparisonQueryInfo and of the form 'var = constant'.
     // Also need for sorting will not arise if there are only two operands
+    if (CostBasedPlanner.isEnabled()) {
+      return CostBasedPlanner.sortFiltersByCost(this, this._operands, context);
+    }
     int len = this._operands.length;
     List sortedList = new ArrayList(len);
     for (int i = 0; i < len; ++i) {
@@ -267,6 +272,7 @@ public class CompiledJunction extends AbstractCompiledValue implements Negatable
 
     // Sort the operands in increasing order of resultset size
     Iterator sortedConditionsItr = sortedConditionsList.iterator();
+    boolean filterEvaluated = false;
     while (sortedConditionsItr.hasNext()) {
       // Asif:TODO The intermediate ResultSet should be passed as null when invoking
       // filterEvaluate. Just because filterEvaluate is being called, itself
@@ -280,8 +286,13 @@ public class CompiledJunction extends AbstractCompiledValue implements Negatable
       // recursion being ended by evaluating auxIterEvaluate if any. The passing
       // of IntermediateResult in filterEvalaute causes AND junction evaluation
       // to be corrupted , if the intermediateResultset contains some value.
-      SelectResults filterResults =
-          ((Filter) sortedConditionsItr.next()).filterEvaluate(context, null);
+      Filter filter = (Filter) sortedConditionsItr.next();
+      if (_operator == LITERAL_and && filterEvaluated && CostBasedPlanner.isEnabled()
+          && CostBasedPlanner.isIterationCheaper(intermediateResults.size(), filter, context)) {
+        // the remaining filter operands are cheaper to evaluate on the intermediate results
+        break;
+      }
+      SelectResults filterResults = filter.filterEvaluate(context, null);
       if (_operator == LITERAL_and) {
         if (filterResults != null && filterResults.isEmpty()) {
           return filterResults;
@@ -290,6 +301,7 @@ public class CompiledJunction extends AbstractCompiledValue implements Negatable
               : QueryUtils.intersection(intermediateResults, filterResults, context);
 
           sortedConditionsItr.remove();
+          filterEvaluated = true;
 
           if (intermediateResults.size() <= indexThresholdSize) {
             // Abort further intersection , the remaining filter operands will be
@@ -429,7 +441,7 @@ public class CompiledJunction extends AbstractCompiledValue implements Negatable
     return _operator;
   }
 
-  List getOperands() {
+  public List getOperands() {
     // return unmodifiable copy
     return Collections.unmodifiableList(Arrays.asList(_operands));
   }
@@ -702,7 +714,7 @@ public class CompiledJunction extends AbstractCompiledValue implements Negatable
       Object listOrPosition = null;
       boolean evalAsFilter = tempOp.getPlanInfo(context).evalAsFilter;
       // TODO:Do not club Like predicate in an existing range
-      if (evalAsFilter) {
+      if (evalAsFilter && !(tempOp instanceof BitmapJunction)) {
         indx = ((Indexable) tempOp).getIndexInfo(context);
         // We are now sorting these for joins, therefore we need to weed out the join indexes
         if (!IndexManager.JOIN_OPTIMIZATION || indx.length == 1) {
@@ -761,6 +773,43 @@ public class CompiledJunction extends AbstractCompiledValue implements Negatable
     }
   }
 
+  /**
+   * Replaces the equality and inequality conditions of a group which are served by bitmap indexes
+   * on the same region with a single BitmapJunction, so that their bitmaps are combined instead of
+   * one condition being used as the filter and the others iterated. The indexes of a partitioned
+   * region are represented by the index of an arbitrary bucket, so those are grouped by the
+   * partitioned region.
+   */
+  private void foldBitmapOperands(List operandsList, ExecutionContext context)
+      throws FunctionDomainException, TypeMismatchException, NameResolutionException,
+      QueryInvocationTargetException {
+    if (operandsList.size() < 2 || !BitmapJunction.isApplicable(context)) {
+      return;
+    }
+    Map<Region, List<CompiledComparison>> operandsByRegion = new LinkedHashMap<>();
+    Map<Region, List<IndexInfo>> indexInfosByRegion = new HashMap<>();
+    for (Object operand : operandsList) {
+      IndexInfo indexInfo = BitmapJunction.getBitmapIndexInfo((CompiledValue) operand, context);
+      if (indexInfo != null) {
+        Region region = indexInfo._index.getRegion();
+        if (region instanceof BucketRegion) {
+          region = ((BucketRegion) region).getPartitionedRegion();
+        }
+        operandsByRegion.computeIfAbsent(region, k -> new ArrayList<>())
+            .add((CompiledComparison) operand);
+        indexInfosByRegion.computeIfAbsent(region, k -> new ArrayList<>()).add(indexInfo);
+      }
+    }
+    for (Map.Entry<Region, List<CompiledComparison>> entry : operandsByRegion.entrySet()) {
+      List<CompiledComparison> operands = entry.getValue();
+      if (operands.size() > 1) {
+        operandsList.removeAll(operands);
+        operandsList.add(BitmapJunction.create(this._operator, operands,
+            indexInfosByRegion.get(entry.getKey()), context));
+      }
+    }
+  }
+
   // TODO: Optmize this function further in terms of creation of Arrays &
   // Lists
   private Filter createJunction(List compositeIterOperands, Map compositeFilterOpsMap,
@@ -819,6 +868,7 @@ public class CompiledJunction extends AbstractCompiledValue implements Negatable
           }
         }
       }
+      foldBitmapOperands(operandsList, context);
       size = operandsList.size();
       Map sameIndexOperands = new HashMap(size);
       CompiledValue cv[] = new CompiledValue[size];
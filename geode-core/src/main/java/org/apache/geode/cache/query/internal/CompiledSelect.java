@@ -390,6 +390,46 @@ public class CompiledSelect extends AbstractCompiledValue {
 
   public SelectResults evaluate(ExecutionContext context) throws FunctionDomainException,
       TypeMismatchException, NameResolutionException, QueryInvocationTargetException {
+    QueryExplanation explanation = QueryExplanation.get(context);
+    if (explanation == null) {
+      return evaluateSelect(context);
+    }
+    QueryExplanation.Execution execution =
+        explanation.start(context, "Select", getExplainDetail());
+    SelectResults results = null;
+    try {
+      results = evaluateSelect(context);
+      return results;
+    } finally {
+      execution.end(context, results);
+    }
+  }
+
+  /**
+   * Returns the clauses of this select shown in the plan of an explained query.
+   */
+  private String getExplainDetail() {
+    StringBuilder detail = new StringBuilder();
+    if (this.distinct) {
+      detail.append("distinct ");
+    }
+    if (this.count) {
+      detail.append("count ");
+    }
+    if (this.whereClause != null) {
+      detail.append("where ");
+    }
+    if (this.orderByAttrs != null) {
+      detail.append("order by ");
+    }
+    if (this.limit != null) {
+      detail.append("limit ");
+    }
+    return detail.toString().trim();
+  }
+
+  private SelectResults evaluateSelect(ExecutionContext context) throws FunctionDomainException,
+      TypeMismatchException, NameResolutionException, QueryInvocationTargetException {
     context.newScope((Integer) context.cacheGet(scopeID));
     context.pushExecCache((Integer) context.cacheGet(scopeID));
     context.setDistinct(this.distinct);
@@ -695,9 +735,24 @@ public class CompiledSelect extends AbstractCompiledValue {
         return results;
       }
     }
+    ExpressionCompiler.Evaluator whereEvaluator = null;
+    ExpressionCompiler.Evaluator[] projectionEvaluators = null;
+    if (ExpressionCompiler.isEnabled(context)) {
+      if (evaluateWhereClause) {
+        whereEvaluator = ExpressionCompiler.compile(this.whereClause, context);
+      }
+      if (this.projAttrs != null) {
+        projectionEvaluators = ExpressionCompiler.compileProjection(this.projAttrs, context);
+      }
+    }
     int numElementsInResult = 0;
     try {
-      doNestedIterations(0, results, context, evaluateWhereClause, numElementsInResult);
+      HashJoin join = evaluateWhereClause ? HashJoin.create(this.whereClause, context) : null;
+      if (join == null
+          || !doHashJoin(join, results, context, whereEvaluator, projectionEvaluators)) {
+        doNestedIterations(0, results, context, evaluateWhereClause, whereEvaluator,
+            projectionEvaluators, numElementsInResult);
+      }
     } catch (CompiledSelect.NullIteratorException ignore) {
       return null;
     }
@@ -762,52 +817,17 @@ public class CompiledSelect extends AbstractCompiledValue {
 
   // returns the number of elements added in the return ResultSet
   private int doNestedIterations(int level, SelectResults results, ExecutionContext context,
-      boolean evaluateWhereClause, int numElementsInResult)
+      boolean evaluateWhereClause, ExpressionCompiler.Evaluator whereEvaluator,
+      ExpressionCompiler.Evaluator[] projectionEvaluators, int numElementsInResult)
       throws TypeMismatchException, FunctionDomainException, NameResolutionException,
       QueryInvocationTargetException, CompiledSelect.NullIteratorException {
     List iterList = context.getCurrentIterators();
     if (level == iterList.size()) {
-      boolean addToResults = true;
-      if (evaluateWhereClause) {
-        Object result = this.whereClause.evaluate(context);
-        QueryObserver observer = QueryObserverHolder.getInstance();
-        observer.afterIterationEvaluation(result);
-        if (result == null) {
-          addToResults = false;
-        } else if (result instanceof Boolean) {
-          addToResults = (Boolean) result;
-        } else if (result == QueryService.UNDEFINED) {
-          // add UNDEFINED to results only for NOT EQUALS queries
-          if (this.whereClause.getType() == COMPARISON) {
-            int operator = ((Filter) this.whereClause).getOperator();
-            if ((operator != TOK_NE && operator != TOK_NE_ALT)) {
-              addToResults = false;
-            }
-          } else {
-            addToResults = false;
-          }
-        } else {
-          throw new TypeMismatchException(
-              LocalizedStrings.CompiledSelect_THE_WHERE_CLAUSE_WAS_TYPE_0_INSTEAD_OF_BOOLEAN
-                  .toLocalizedString(result.getClass().getName()));
-        }
-      }
-      if (addToResults) {
-        int occurrence =
-            applyProjectionAndAddToResultSet(context, results, this.orderByAttrs == null);
-        // If the occurrence is greater than 1, then only in case of
-        // non distinct query should it be treated as contributing to size
-        // else duplication will be eliminated when making it distinct using
-        // ResultsCollectionWrapper and we will fall short of limit
-        if (occurrence == 1 || (occurrence > 1 && !this.distinct)) {
-          // (Unique i.e first time occurrence) or subsequent occurrence
-          // for non distinct query
-          ++numElementsInResult;
-        }
-      }
+      numElementsInResult = evaluateCurrentRow(results, context, evaluateWhereClause,
+          whereEvaluator, projectionEvaluators, numElementsInResult);
     } else {
       RuntimeIterator rIter = (RuntimeIterator) iterList.get(level);
-      SelectResults sr = rIter.evaluateCollection(context);
+      SelectResults sr = evaluateIteratorCollection(rIter, context);
       if (sr == null) {
         return 0; // continue iteration if a collection evaluates to UNDEFINED
       }
@@ -821,25 +841,24 @@ public class CompiledSelect extends AbstractCompiledValue {
         return 1;
       }
 
-      // #44807: select * query should not deserialize objects
-      // In case of "select *" queries we can keep the results in serialized
-      // form and send it to the client.
-      if (context.getQuery() != null && ((DefaultQuery) context.getQuery()).isKeepSerialized()
-          && sr instanceof QRegion) {
-        ((QRegion) sr).setKeepSerialized(true);
-      }
+      QueryExplanation explanation = QueryExplanation.get(context);
+      QueryPlanNode scan = explanation == null ? null
+          : explanation.getOperator(context, "Scan", getScanDetail(rIter, sr));
 
       // Iterate through the data set.
       for (Object aSr : sr) {
         // Check if query execution on this thread is canceled.
         QueryMonitor.isQueryExecutionCanceled();
+        if (scan != null) {
+          scan.addRows(1);
+        }
 
         Object currObj = aSr;
         rIter.setCurrent(currObj);
         QueryObserver observer = QueryObserverHolder.getInstance();
         observer.beforeIterationEvaluation(rIter, currObj);
         numElementsInResult = doNestedIterations(level + 1, results, context, evaluateWhereClause,
-            numElementsInResult);
+            whereEvaluator, projectionEvaluators, numElementsInResult);
         Integer limitValue = evaluateLimitValue(context, this.limit);
         if (this.orderByAttrs == null && limitValue > -1 && numElementsInResult == limitValue) {
           break;
@@ -849,6 +868,134 @@ public class CompiledSelect extends AbstractCompiledValue {
     return numElementsInResult;
   }
 
+  /**
+   * Joins the rows of the two iterators of the select with a hash join, evaluating the WHERE
+   * clause only on the pairs of rows which can satisfy the join equality.
+   *
+   * @return false if the rows could not be hashed and must be joined with nested iterations
+   */
+  private boolean doHashJoin(HashJoin join, SelectResults results, ExecutionContext context,
+      ExpressionCompiler.Evaluator whereEvaluator,
+      ExpressionCompiler.Evaluator[] projectionEvaluators)
+      throws TypeMismatchException, FunctionDomainException, NameResolutionException,
+      QueryInvocationTargetException, CompiledSelect.NullIteratorException {
+    List iterList = context.getCurrentIterators();
+    SelectResults firstRows =
+        evaluateIteratorCollection((RuntimeIterator) iterList.get(0), context);
+    SelectResults secondRows =
+        evaluateIteratorCollection((RuntimeIterator) iterList.get(1), context);
+    if (firstRows == null || secondRows == null) {
+      return true; // no rows if a collection evaluates to UNDEFINED
+    }
+    if (!join.build(context, firstRows, secondRows)) {
+      return false;
+    }
+
+    RuntimeIterator probeIterator = join.getProbeIterator();
+    RuntimeIterator buildIterator = join.getBuildIterator();
+    QueryExplanation explanation = QueryExplanation.get(context);
+    QueryPlanNode joinNode = explanation == null ? null
+        : explanation.getOperator(context, "HashJoin",
+            "build " + buildIterator.getName() + ", probe " + probeIterator.getName());
+    QueryObserver observer = QueryObserverHolder.getInstance();
+    Integer limitValue = evaluateLimitValue(context, this.limit);
+    int numElementsInResult = 0;
+    for (Object probeRow : join.getProbeRows()) {
+      // Check if query execution on this thread is canceled.
+      QueryMonitor.isQueryExecutionCanceled();
+
+      probeIterator.setCurrent(probeRow);
+      observer.beforeIterationEvaluation(probeIterator, probeRow);
+      for (Object buildRow : join.getMatchingRows(context)) {
+        buildIterator.setCurrent(buildRow);
+        observer.beforeIterationEvaluation(buildIterator, buildRow);
+        if (joinNode != null) {
+          joinNode.addRows(1);
+        }
+        numElementsInResult = evaluateCurrentRow(results, context, true, whereEvaluator,
+            projectionEvaluators, numElementsInResult);
+        if (this.orderByAttrs == null && limitValue > -1 && numElementsInResult == limitValue) {
+          return true;
+        }
+      }
+    }
+    return true;
+  }
+
+  private String getScanDetail(RuntimeIterator rIter, SelectResults collection) {
+    if (collection instanceof QRegion) {
+      return ((QRegion) collection).getFullPath() + " " + rIter.getName();
+    }
+    return rIter.getName();
+  }
+
+  private SelectResults evaluateIteratorCollection(RuntimeIterator rIter,
+      ExecutionContext context) throws TypeMismatchException, FunctionDomainException,
+      NameResolutionException, QueryInvocationTargetException {
+    SelectResults sr = rIter.evaluateCollection(context);
+    // #44807: select * query should not deserialize objects
+    // In case of "select *" queries we can keep the results in serialized
+    // form and send it to the client.
+    if (sr != null && context.getQuery() != null
+        && ((DefaultQuery) context.getQuery()).isKeepSerialized() && sr instanceof QRegion) {
+      ((QRegion) sr).setKeepSerialized(true);
+    }
+    return sr;
+  }
+
+  /**
+   * Evaluates the WHERE clause on the current rows of the iterators and adds the projection of
+   * the rows to the results if they satisfy it.
+   *
+   * @return the number of elements in the results counting towards the limit
+   */
+  private int evaluateCurrentRow(SelectResults results, ExecutionContext context,
+      boolean evaluateWhereClause, ExpressionCompiler.Evaluator whereEvaluator,
+      ExpressionCompiler.Evaluator[] projectionEvaluators, int numElementsInResult)
+      throws TypeMismatchException, FunctionDomainException, NameResolutionException,
+      QueryInvocationTargetException, CompiledSelect.NullIteratorException {
+    boolean addToResults = true;
+    if (evaluateWhereClause) {
+      Object result = whereEvaluator != null ? whereEvaluator.evaluate(context)
+          : this.whereClause.evaluate(context);
+      QueryObserver observer = QueryObserverHolder.getInstance();
+      observer.afterIterationEvaluation(result);
+      if (result == null) {
+        addToResults = false;
+      } else if (result instanceof Boolean) {
+        addToResults = (Boolean) result;
+      } else if (result == QueryService.UNDEFINED) {
+        // add UNDEFINED to results only for NOT EQUALS queries
+        if (this.whereClause.getType() == COMPARISON) {
+          int operator = ((Filter) this.whereClause).getOperator();
+          if ((operator != TOK_NE && operator != TOK_NE_ALT)) {
+            addToResults = false;
+          }
+        } else {
+          addToResults = false;
+        }
+      } else {
+        throw new TypeMismatchException(
+            LocalizedStrings.CompiledSelect_THE_WHERE_CLAUSE_WAS_TYPE_0_INSTEAD_OF_BOOLEAN
+                .toLocalizedString(result.getClass().getName()));
+      }
+    }
+    if (addToResults) {
+      int occurrence = applyProjectionAndAddToResultSet(context, results,
+          this.orderByAttrs == null, projectionEvaluators);
+      // If the occurrence is greater than 1, then only in case of
+      // non distinct query should it be treated as contributing to size
+      // else duplication will be eliminated when making it distinct using
+      // ResultsCollectionWrapper and we will fall short of limit
+      if (occurrence == 1 || (occurrence > 1 && !this.distinct)) {
+        // (Unique i.e first time occurrence) or subsequent occurrence
+        // for non distinct query
+        ++numElementsInResult;
+      }
+    }
+    return numElementsInResult;
+  }
+
   private SelectResults applyProjectionOnCollection(SelectResults resultSet,
       ExecutionContext context, boolean ignoreOrderBy) throws TypeMismatchException,
       FunctionDomainException, NameResolutionException, QueryInvocationTargetException {
@@ -955,7 +1102,8 @@ public class CompiledSelect extends AbstractCompiledValue {
   }
 
   private SelectResults prepareEmptyResultSet(ExecutionContext context, boolean ignoreOrderBy)
-      throws TypeMismatchException, AmbiguousNameException {
+      throws TypeMismatchException, FunctionDomainException, NameResolutionException,
+      QueryInvocationTargetException {
     // If no projection attributes or '*' as projection attribute & more than one/RunTimeIterator
     // then create a StructSet.
     // If attribute is null or '*' & only one RuntimeIterator then create a ResultSet.
@@ -979,6 +1127,9 @@ public class CompiledSelect extends AbstractCompiledValue {
     boolean nullValuesAtStart = orderByAttrs != null && !orderByAttrs.get(0).getCriterion();
     OrderByComparator comparator;
     boolean isOrdered = this.orderByAttrs != null;
+    // rows sorted here beyond the LIMIT can never be returned, by this bucket or otherwise
+    int topNBound =
+        isOrdered && !ignoreOrderBy && !this.count ? evaluateLimitValue(context, this.limit) : -1;
 
     switch (DataContainerType.determineDataContainerType(isOrdered, distinct,
         elementType.isStructType(), ignoreOrderBy)) {
@@ -999,12 +1150,17 @@ public class CompiledSelect extends AbstractCompiledValue {
         comparator = this.hasUnmappedOrderByCols
             ? new OrderByComparatorMapped(this.orderByAttrs, elementType, context)
             : new OrderByComparator(this.orderByAttrs, elementType, context);
-        return new SortedStructSet(comparator, (StructTypeImpl) elementType);
+        SortedStructSet structSet = new SortedStructSet(comparator, (StructTypeImpl) elementType);
+        structSet.setTopNBound(topNBound);
+        return structSet;
       case ORDERED_INDISTINCT_STRUCT_UNIGNORED:
         comparator = this.hasUnmappedOrderByCols
             ? new OrderByComparatorMapped(this.orderByAttrs, elementType, context)
             : new OrderByComparator(this.orderByAttrs, elementType, context);
-        return new SortedStructBag(comparator, (StructType) elementType, nullValuesAtStart);
+        SortedStructBag structBag =
+            new SortedStructBag(comparator, (StructType) elementType, nullValuesAtStart);
+        structBag.setTopNBound(topNBound);
+        return structBag;
       case ORDERED_DISTINCT_RESULTS_IGNORED:
         results = new LinkedResultSet();
         results.setElementType(elementType);
@@ -1017,16 +1173,18 @@ public class CompiledSelect extends AbstractCompiledValue {
         comparator = this.hasUnmappedOrderByCols
             ? new OrderByComparatorMapped(this.orderByAttrs, elementType, context)
             : new OrderByComparator(this.orderByAttrs, elementType, context);
-        results = new SortedResultSet(comparator);
-        results.setElementType(elementType);
-        return results;
+        SortedResultSet resultSet = new SortedResultSet(comparator);
+        resultSet.setElementType(elementType);
+        resultSet.setTopNBound(topNBound);
+        return resultSet;
       case ORDERED_INDISTINCT_RESULTS_UNIGNORED:
         comparator = this.hasUnmappedOrderByCols
             ? new OrderByComparatorMapped(this.orderByAttrs, elementType, context)
             : new OrderByComparator(this.orderByAttrs, elementType, context);
-        results = new SortedResultsBag(comparator, nullValuesAtStart);
-        results.setElementType(elementType);
-        return results;
+        SortedResultsBag resultsBag = new SortedResultsBag(comparator, nullValuesAtStart);
+        resultsBag.setElementType(elementType);
+        resultsBag.setTopNBound(topNBound);
+        return resultsBag;
     }
     throw new TypeMismatchException("Logical inconsistency in CompiledSelect");
   }
@@ -1142,6 +1300,17 @@ public class CompiledSelect extends AbstractCompiledValue {
   private int applyProjectionAndAddToResultSet(ExecutionContext context, SelectResults resultSet,
       boolean ignoreOrderBy) throws FunctionDomainException, TypeMismatchException,
       NameResolutionException, QueryInvocationTargetException {
+    return applyProjectionAndAddToResultSet(context, resultSet, ignoreOrderBy, null);
+  }
+
+  /**
+   * @param projectionEvaluators the compiled projection attributes, or null if they are to be
+   *        interpreted
+   */
+  private int applyProjectionAndAddToResultSet(ExecutionContext context, SelectResults resultSet,
+      boolean ignoreOrderBy, ExpressionCompiler.Evaluator[] projectionEvaluators)
+      throws FunctionDomainException, TypeMismatchException, NameResolutionException,
+      QueryInvocationTargetException {
     List currrentRuntimeIters = context.getCurrentIterators();
 
     int occurrence = 0;
@@ -1296,7 +1465,8 @@ public class CompiledSelect extends AbstractCompiledValue {
       Object[] values = new Object[projCount];
       for (int i = 0; i < projCount; i++) {
         Object projDef[] = (Object[]) projAttrs.get(i);
-        values[i] = ((CompiledValue) projDef[1]).evaluate(context);
+        values[i] = projectionEvaluators != null ? projectionEvaluators[i].evaluate(context)
+            : ((CompiledValue) projDef[1]).evaluate(context);
         // For local queries with distinct, deserialize all PdxInstances
         // as we do not have a way to compare Pdx and non Pdx objects in case
         // the cache has a mix of pdx and non pdx objects.
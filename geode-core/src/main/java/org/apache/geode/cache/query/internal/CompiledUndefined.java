@@ -99,12 +99,14 @@ public class CompiledUndefined extends AbstractCompiledValue implements Negatabl
     int op = _is_defined ? TOK_NE : TOK_EQ;
     Object key = QueryService.UNDEFINED;
     QueryObserver observer = QueryObserverHolder.getInstance();
+    long lookupStart = QueryExplanation.startIndexLookup(context);
     try {
       observer.beforeIndexLookup(idxInfo[0]._index, op, key);
       context.cachePut(CompiledValue.INDEX_INFO, idxInfo[0]);
       idxInfo[0]._index.query(key, op, set, context);
     } finally {
       observer.afterIndexLookup(set);
+      QueryExplanation.endIndexLookup(context, idxInfo[0]._index, lookupStart, set);
     }
     return QueryUtils.getConditionedIndexResults(set, idxInfo[0], context, indexFieldsSize,
         completeExpansionNeeded, iterOperands, indpndntItrs);
@@ -281,6 +283,10 @@ public class CompiledUndefined extends AbstractCompiledValue implements Negatabl
       return thisSize <= thatSize;
     }
 
+    if (CostBasedPlanner.isEnabled()) {
+      return CostBasedPlanner.isCheaper(thisOperator, thisSize, thatOperator, thatSize);
+    }
+
     switch (thatOperator) {
       case TOK_EQ:
       case TOK_NE:
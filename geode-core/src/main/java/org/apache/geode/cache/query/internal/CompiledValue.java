@@ -51,6 +51,7 @@ public interface CompiledValue {
   int SUBTRACTION = -20;
   int DIVISION = -21;
   int MULTIPLICATION = -22;
+  int BITMAPJUNCTION = -23;
   int INDEX_RESULT_THRESHOLD_DEFAULT = 100;
   String INDX_THRESHOLD_PROP_STR = DistributionConfig.GEMFIRE_PREFIX + "Query.INDEX_THRESHOLD_SIZE";
   String INDEX_INFO = "index_info";
@@ -65,6 +66,7 @@ public interface CompiledValue {
   String CAN_APPLY_ORDER_BY_AT_INDEX = "can_apply_orderby_at_index";
   String PREF_INDEX_COND = "preferred_index_condition";
   String QUERY_INDEX_HINTS = "query_index_hints";
+  String BITMAP_FILTER = "bitmap_filter";
 
   CompiledValue MAP_INDEX_ALL_KEYS = new AbstractCompiledValue() {
     @Override
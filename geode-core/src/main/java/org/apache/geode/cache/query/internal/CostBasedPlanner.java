@@ -0,0 +1,207 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.cache.query.FunctionDomainException;
+import org.apache.geode.cache.query.NameResolutionException;
+import org.apache.geode.cache.query.QueryInvocationTargetException;
+import org.apache.geode.cache.query.TypeMismatchException;
+import org.apache.geode.cache.query.internal.index.IndexManager;
+import org.apache.geode.cache.query.internal.parse.OQLLexerTokenTypes;
+import org.apache.geode.internal.logging.LogService;
+
+/**
+ * Chooses filter operands and their evaluation order from estimated costs when
+ * {@link IndexManager#COST_BASED_PLANNER} is set. The estimates come from the indexes, which use
+ * their key statistics for range conditions, so a selective range condition is preferred over an
+ * unselective equality condition. Without the property the operator heuristics of the filters
+ * apply.
+ * <p>
+ * The cost of a filter is the number of values it fetches from its index plus one seek, a not
+ * equal condition also walks the rest of the index. Ties go to equality, then range, then not
+ * equal conditions.
+ */
+class CostBasedPlanner implements OQLLexerTokenTypes {
+  private static final Logger logger = LogService.getLogger();
+
+  /** The cost of positioning on a key of an index */
+  static final int SEEK_COST = 1;
+
+  /** The cost of fetching one value from an index */
+  static final int ROW_COST = 1;
+
+  /** The cost of evaluating a condition on one value by iteration */
+  static final int ITERATION_COST = 2;
+
+  private CostBasedPlanner() {}
+
+  static boolean isEnabled() {
+    return IndexManager.COST_BASED_PLANNER;
+  }
+
+  static long estimateCost(int operator, int size) {
+    long cost = (long) size * ROW_COST + SEEK_COST;
+    if (operator == TOK_NE || operator == TOK_NE_ALT) {
+      cost += (long) size * ROW_COST;
+    }
+    return cost;
+  }
+
+  /**
+   * Returns true if a filter is at least as cheap as the one it is compared to
+   */
+  static boolean isCheaper(int thisOperator, int thisSize, int thatOperator, int thatSize) {
+    long thisCost = estimateCost(thisOperator, thisSize);
+    long thatCost = estimateCost(thatOperator, thatSize);
+    if (thisCost != thatCost) {
+      return thisCost < thatCost;
+    }
+    return rank(thisOperator) <= rank(thatOperator);
+  }
+
+  private static int rank(int operator) {
+    switch (operator) {
+      case TOK_EQ:
+        return 0;
+      case TOK_NE:
+      case TOK_NE_ALT:
+        return 2;
+      default:
+        return 1;
+    }
+  }
+
+  /**
+   * Returns true if evaluating the remaining conditions on the intermediate results by iteration
+   * is cheaper than fetching the results of the next filter and intersecting them.
+   */
+  static boolean isIterationCheaper(int intermediateSize, Filter nextFilter,
+      ExecutionContext context) throws FunctionDomainException, TypeMismatchException,
+      NameResolutionException, QueryInvocationTargetException {
+    long iterationCost = (long) intermediateSize * ITERATION_COST;
+    long filterCost = estimateCost(nextFilter.getOperator(), nextFilter.getSizeEstimate(context))
+        + (long) intermediateSize * ROW_COST;
+    return iterationCost <= filterCost;
+  }
+
+  /**
+   * Estimates the size of a range junction from the comparisons it is made of. The smallest single
+   * condition bounds the estimate; a lower and an upper bound on the same index are estimated
+   * together by the index.
+   */
+  static int estimateRangeJunctionSize(CompiledValue[] operands, ExecutionContext context)
+      throws FunctionDomainException, TypeMismatchException, NameResolutionException,
+      QueryInvocationTargetException {
+    int size = Integer.MAX_VALUE;
+    IndexInfo lowerInfo = null;
+    Object lowerKey = null;
+    int lowerOp = 0;
+    int lowerSize = Integer.MAX_VALUE;
+    IndexInfo upperInfo = null;
+    Object upperKey = null;
+    int upperOp = 0;
+    int upperSize = Integer.MAX_VALUE;
+    for (CompiledValue operand : operands) {
+      if (!(operand instanceof Filter)) {
+        continue;
+      }
+      int operandSize = ((Filter) operand).getSizeEstimate(context);
+      size = Math.min(size, operandSize);
+      if (!(operand instanceof CompiledComparison)) {
+        continue;
+      }
+      CompiledComparison comparison = (CompiledComparison) operand;
+      IndexInfo[] indexInfo = comparison.getIndexInfo(context);
+      if (indexInfo == null || indexInfo.length != 1) {
+        continue;
+      }
+      int op = comparison.reflectOnOperator(indexInfo[0]._key());
+      if ((op == TOK_GT || op == TOK_GE) && operandSize < lowerSize) {
+        lowerInfo = indexInfo[0];
+        lowerKey = indexInfo[0].evaluateIndexKey(context);
+        lowerOp = op;
+        lowerSize = operandSize;
+      } else if ((op == TOK_LT || op == TOK_LE) && operandSize < upperSize) {
+        upperInfo = indexInfo[0];
+        upperKey = indexInfo[0].evaluateIndexKey(context);
+        upperOp = op;
+        upperSize = operandSize;
+      }
+    }
+    if (lowerInfo != null && upperInfo != null && lowerInfo._index == upperInfo._index) {
+      size = Math.min(size, lowerInfo._index.getSizeEstimate(lowerKey, lowerOp, upperKey, upperOp,
+          lowerInfo._matchLevel));
+    }
+    return size;
+  }
+
+  /**
+   * Orders the filter operands of an AND or OR junction by increasing estimated cost, estimating
+   * each operand once, and reports the resulting plan.
+   */
+  static List sortFiltersByCost(CompiledValue junction, CompiledValue[] operands,
+      ExecutionContext context) throws FunctionDomainException, TypeMismatchException,
+      NameResolutionException, QueryInvocationTargetException {
+    List<PlanInfo> plans = new ArrayList<>(operands.length);
+    for (CompiledValue operand : operands) {
+      Filter filter = (Filter) operand;
+      PlanInfo plan = new PlanInfo();
+      plan.evalAsFilter = true;
+      plan.filter = operand;
+      if (operand instanceof Indexable) {
+        IndexInfo[] indexInfo = ((Indexable) operand).getIndexInfo(context);
+        if (indexInfo != null) {
+          for (IndexInfo info : indexInfo) {
+            plan.indexes.add(info._index);
+          }
+        }
+      }
+      plan.estimatedSize = filter.getSizeEstimate(context);
+      plan.estimatedCost = estimateCost(filter.getOperator(), plan.estimatedSize);
+      plans.add(plan);
+    }
+    // a stable sort keeps the written order of operands with the same cost and operator rank
+    Collections.sort(plans, (first, second) -> {
+      int result = Long.compare(first.estimatedCost, second.estimatedCost);
+      if (result == 0) {
+        result = Integer.compare(rank(((Filter) first.filter).getOperator()),
+            rank(((Filter) second.filter).getOperator()));
+      }
+      return result;
+    });
+    planChosen(junction, plans);
+
+    List sortedList = new ArrayList(plans.size());
+    for (PlanInfo plan : plans) {
+      sortedList.add(plan.filter);
+    }
+    return sortedList;
+  }
+
+  private static void planChosen(CompiledValue junction, List<PlanInfo> plans) {
+    if (DefaultQuery.QUERY_VERBOSE) {
+      logger.info("Cost based plan for {}: {}", junction.getClass().getSimpleName(), plans);
+    } else if (logger.isDebugEnabled()) {
+      logger.debug("Cost based plan for {}: {}", junction.getClass().getSimpleName(), plans);
+    }
+    QueryObserverHolder.getInstance().afterCostBasedPlanChosen(junction, plans);
+  }
+}
@@ -37,6 +37,7 @@ import org.apache.geode.cache.persistence.PartitionOfflineException;
 import org.apache.geode.cache.query.FunctionDomainException;
 import org.apache.geode.cache.query.NameResolutionException;
 import org.apache.geode.cache.query.Query;
+import org.apache.geode.cache.query.QueryCursor;
 import org.apache.geode.cache.query.QueryException;
 import org.apache.geode.cache.query.QueryInvalidException;
 import org.apache.geode.cache.query.QueryInvocationTargetException;
@@ -46,14 +47,17 @@ import org.apache.geode.cache.query.RegionNotFoundException;
 import org.apache.geode.cache.query.SelectResults;
 import org.apache.geode.cache.query.TypeMismatchException;
 import org.apache.geode.cache.query.internal.cq.InternalCqQuery;
+import org.apache.geode.cache.query.internal.index.IndexManager;
 import org.apache.geode.distributed.internal.DistributionConfig;
 import org.apache.geode.internal.NanoTimer;
 import org.apache.geode.internal.cache.BucketRegion;
 import org.apache.geode.internal.cache.CachePerfStats;
 import org.apache.geode.internal.cache.InternalCache;
 import org.apache.geode.internal.cache.LocalDataSet;
+import org.apache.geode.internal.cache.LocalRegion;
 import org.apache.geode.internal.cache.PRQueryProcessor;
 import org.apache.geode.internal.cache.PartitionedRegion;
+import org.apache.geode.internal.cache.PartitionedRegionDataStore;
 import org.apache.geode.internal.cache.TXManagerImpl;
 import org.apache.geode.internal.cache.TXStateProxy;
 import org.apache.geode.internal.i18n.LocalizedStrings;
@@ -79,6 +83,16 @@ public class DefaultQuery implements Query {
 
   private boolean traceOn = false;
 
+  private boolean explainOn = false;
+
+  private boolean analyzeOn = false;
+
+  /**
+   * the plan of the execution of an explained query by the current thread, kept per thread as the
+   * same query can be executed by several threads at once
+   */
+  private final ThreadLocal<QueryExplanation> explanation = new ThreadLocal<>();
+
   private static final Object[] EMPTY_ARRAY = new Object[0];
 
   public static boolean QUERY_VERBOSE =
@@ -94,6 +108,14 @@ public class DefaultQuery implements Query {
 
   public static int TEST_COMPILED_QUERY_CLEAR_TIME = -1;
 
+  /**
+   * System property to bound how long a query that asked for index freshness waits for the
+   * asynchronous index updaters to catch up, in MilliSecs. When the time is up the query runs
+   * against the indexes as they are.
+   */
+  public static final long INDEX_FRESHNESS_TIMEOUT =
+      Long.getLong(DistributionConfig.GEMFIRE_PREFIX + "Query.INDEX_FRESHNESS_TIMEOUT", 10000);
+
   /**
    * Use to represent null result. Used while adding PR results to the results-queue, which is a
    * blocking queue.
@@ -132,6 +154,9 @@ public class DefaultQuery implements Query {
   // to prevent objects from getting deserialized
   private boolean keepSerialized = false;
 
+  /** cache time the asynchronously maintained indexes must reflect; 0 if not required */
+  private long indexFreshnessTime = 0;
+
 
   /**
    * Caches the fields not found in any Pdx version. This threadlocal will be cleaned up after query
@@ -167,21 +192,46 @@ public class DefaultQuery implements Query {
    * @see QueryService#newQuery
    */
   public DefaultQuery(String queryString, InternalCache cache, boolean isForRemote) {
+    this(queryString, compile(queryString, cache, isForRemote), cache);
+  }
+
+  /**
+   * Creates a query from a plan that has already been compiled, possibly shared with other queries
+   * by the {@link QueryPlanCache}.
+   */
+  DefaultQuery(String queryString, QueryPlanCache.Plan plan, InternalCache cache) {
     this.queryString = queryString;
+    this.compiledQuery = plan.getCompiledQuery();
+    this.traceOn = plan.isTraceRequested() || QUERY_VERBOSE;
+    this.explainOn = plan.isExplainRequested();
+    this.analyzeOn = plan.isAnalyzeRequested();
+    this.cache = cache;
+    this.stats = new DefaultQueryStatistics();
+  }
+
+  /**
+   * Parses the given query string and, for queries that are to be executed in this member,
+   * computes the dependencies of its ORDER BY or GROUP BY clauses.
+   *
+   * @throws QueryInvalidException if the query string is not valid
+   */
+  static QueryPlanCache.Plan compile(String queryString, InternalCache cache,
+      boolean isForRemote) {
     QCompiler compiler = new QCompiler();
-    this.compiledQuery = compiler.compileQuery(queryString);
-    CompiledSelect cs = getSimpleSelect();
-    if (cs != null && !isForRemote && (cs.isGroupBy() || cs.isOrderBy())) {
-      QueryExecutionContext ctx = new QueryExecutionContext(null, cache);
-      try {
-        cs.computeDependencies(ctx);
-      } catch (QueryException qe) {
-        throw new QueryInvalidException("", qe);
+    CompiledValue compiledQuery = compiler.compileQuery(queryString);
+    if (compiledQuery instanceof CompiledSelect && !isForRemote) {
+      CompiledSelect cs = (CompiledSelect) compiledQuery;
+      if (cs.isGroupBy() || cs.isOrderBy()) {
+        QueryExecutionContext ctx = new QueryExecutionContext(null, cache);
+        try {
+          cs.computeDependencies(ctx);
+        } catch (QueryException qe) {
+          throw new QueryInvalidException("", qe);
+        }
       }
     }
-    this.traceOn = compiler.isTraceRequested() || QUERY_VERBOSE;
-    this.cache = cache;
-    this.stats = new DefaultQueryStatistics();
+    return new QueryPlanCache.Plan(compiledQuery, compiler.isTraceRequested(),
+        compiler.isExplainRequested(), compiler.isAnalyzeRequested());
   }
 
   /**
@@ -222,6 +272,16 @@ public class DefaultQuery implements Query {
       return executeOnServer(params);
     }
 
+    if (this.explainOn && this.explanation.get() == null) {
+      QueryExplanation explanation = startExplanation();
+      long start = System.nanoTime();
+      try {
+        return explainResults(explanation, start, execute(params));
+      } finally {
+        endExplanation();
+      }
+    }
+
     long startTime = 0L;
     if (this.traceOn && this.cache != null) {
       startTime = NanoTimer.getTime();
@@ -320,6 +380,35 @@ public class DefaultQuery implements Query {
     }
   }
 
+  /**
+   * On a client the results are read from the server in batches of <code>fetchSize</code> as the
+   * cursor is iterated. Locally the query is executed as by {@link #execute(Object[])} and the
+   * cursor iterates the results in place.
+   */
+  @Override
+  @SuppressWarnings("unchecked")
+  public <E> QueryCursor<E> executeWithCursor(int fetchSize, Object... params)
+      throws FunctionDomainException, TypeMismatchException, NameResolutionException,
+      QueryInvocationTargetException {
+    if (fetchSize <= 0) {
+      throw new IllegalArgumentException("fetchSize must be greater than zero: " + fetchSize);
+    }
+    if (params == null) {
+      throw new IllegalArgumentException(
+          LocalizedStrings.DefaultQuery_PARAMETERS_CANNOT_BE_NULL.toLocalizedString());
+    }
+
+    if (this.serverProxy != null) {
+      return executeWithCursorOnServer(fetchSize, params);
+    }
+
+    Object result = execute(params);
+    if (result instanceof SelectResults) {
+      return new LocalQueryCursor<>(((SelectResults<E>) result).iterator());
+    }
+    return new LocalQueryCursor<>(Collections.singletonList((E) result).iterator());
+  }
+
   /**
    * For Order by queries ,since they are already ordered by the comparator && it takes care of
    * conversion, we do not have to wrap it in a wrapper
@@ -347,6 +436,49 @@ public class DefaultQuery implements Query {
     return result;
   }
 
+  private <E> QueryCursor<E> executeWithCursorOnServer(int fetchSize, Object[] parameters) {
+    long startTime = CachePerfStats.getStatTime();
+    try {
+      if (this.proxyCache != null) {
+        if (this.proxyCache.isClosed()) {
+          throw proxyCache.getCacheClosedException("Cache is closed for this user.");
+        }
+        UserAttributes.userAttributes.set(this.proxyCache.getUserAttributes());
+      }
+      return this.serverProxy.queryWithCursor(this.queryString, parameters, fetchSize);
+    } finally {
+      UserAttributes.userAttributes.set(null);
+      long endTime = CachePerfStats.getStatTime();
+      updateStatistics(endTime - startTime);
+    }
+  }
+
+  /**
+   * A cursor over results that have already been computed in this member.
+   */
+  private static class LocalQueryCursor<E> implements QueryCursor<E> {
+    private Iterator<E> results;
+
+    LocalQueryCursor(Iterator<E> results) {
+      this.results = results;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return this.results.hasNext();
+    }
+
+    @Override
+    public E next() {
+      return this.results.next();
+    }
+
+    @Override
+    public void close() {
+      this.results = Collections.emptyIterator();
+    }
+  }
+
   /**
    * Execute a PR Query on the specified bucket. Assumes query already meets restrictions for PR
    * Query, and the first iterator in the FROM clause can be replaced with the BucketRegion.
@@ -433,6 +565,9 @@ public class DefaultQuery implements Query {
         DefaultQuery.testHook.doTestHook(6, this);
       }
       Object results = null;
+      if (this.indexFreshnessTime > 0) {
+        waitForIndexFreshness(context);
+      }
       try {
         // two-pass evaluation.
         // first pre-compute dependencies, cached in the context.
@@ -630,6 +765,47 @@ public class DefaultQuery implements Query {
     return this.traceOn;
   }
 
+  /**
+   * Returns true if the query has an {@code <explain>} prefix, in which case it returns the
+   * operators of its plan instead of its results.
+   */
+  public boolean isExplained() {
+    return this.explainOn;
+  }
+
+  /**
+   * Returns the plan of the execution of this query by the current thread, or null if it is not
+   * explained.
+   */
+  public QueryExplanation getExplanation() {
+    return this.explanation.get();
+  }
+
+  /**
+   * Starts collecting the plan of an execution of this explained query by the current thread.
+   * Called on members executing an explained query for a partitioned region before executing it on
+   * their buckets, which must call {@link #endExplanation()} once done.
+   */
+  public QueryExplanation startExplanation() {
+    QueryExplanation explanation = new QueryExplanation(this.queryString, this.analyzeOn);
+    this.explanation.set(explanation);
+    return explanation;
+  }
+
+  /**
+   * Ends the execution of this explained query by the current thread.
+   */
+  public void endExplanation() {
+    this.explanation.remove();
+  }
+
+  private SelectResults explainResults(QueryExplanation explanation, long start, Object result) {
+    QueryPlanNode root = explanation.getRoot();
+    root.addTime(System.nanoTime() - start);
+    root.addRows(result instanceof Collection ? ((Collection) result).size() : 1);
+    return explanation.toSelectResults();
+  }
+
   class DefaultQueryStatistics implements QueryStatistics {
 
     /**
@@ -868,6 +1044,16 @@ public class DefaultQuery implements Query {
           LocalizedStrings.DefaultQuery_PARAMETERS_CANNOT_BE_NULL.toLocalizedString());
     }
 
+    if (this.explainOn && this.explanation.get() == null) {
+      QueryExplanation explanation = startExplanation();
+      long start = System.nanoTime();
+      try {
+        return explainResults(explanation, start, execute(context, params));
+      } finally {
+        endExplanation();
+      }
+    }
+
     long startTime = 0L;
     if (this.traceOn && this.cache != null) {
       startTime = NanoTimer.getTime();
@@ -956,6 +1142,72 @@ public class DefaultQuery implements Query {
     return this.isRemoteQuery;
   }
 
+  /**
+   * Requests that indexes maintained asynchronously reflect every update made up to the given cache
+   * time before this query reads them. Only the indexes of this member are waited for.
+   *
+   * @param cacheTimeMillis a value of {@link InternalCache#cacheTimeMillis()}, or 0 to not wait
+   */
+  public void setIndexFreshness(long cacheTimeMillis) {
+    this.indexFreshnessTime = cacheTimeMillis;
+  }
+
+  public long getIndexFreshness() {
+    return this.indexFreshnessTime;
+  }
+
+  /**
+   * Waits, up to {@link #INDEX_FRESHNESS_TIMEOUT}, for the index updaters of the regions (or of the
+   * local buckets) this query reads to apply the updates queued up to the requested time.
+   */
+  private void waitForIndexFreshness(ExecutionContext context) {
+    List<IndexManager> indexManagers = new ArrayList<>();
+    for (String regionPath : getRegionsInQuery(context.getBindArguments())) {
+      Region rgn = this.cache.getRegion(regionPath);
+      if (rgn instanceof PartitionedRegion) {
+        PartitionedRegionDataStore dataStore = ((PartitionedRegion) rgn).getDataStore();
+        if (dataStore == null) {
+          continue;
+        }
+        List bucketList = context.getBucketList();
+        if (bucketList != null) {
+          for (Object bucketId : bucketList) {
+            BucketRegion bucket = dataStore.getLocalBucketById((Integer) bucketId);
+            if (bucket != null && bucket.getIndexManager() != null) {
+              indexManagers.add(bucket.getIndexManager());
+            }
+          }
+        } else {
+          for (BucketRegion bucket : dataStore.getAllLocalBucketRegions()) {
+            if (bucket.getIndexManager() != null) {
+              indexManagers.add(bucket.getIndexManager());
+            }
+          }
+        }
+      } else if (rgn instanceof LocalRegion && ((LocalRegion) rgn).getIndexManager() != null) {
+        indexManagers.add(((LocalRegion) rgn).getIndexManager());
+      }
+    }
+
+    long deadline = System.currentTimeMillis() + INDEX_FRESHNESS_TIMEOUT;
+    try {
+      for (IndexManager indexManager : indexManagers) {
+        long remaining = deadline - System.currentTimeMillis();
+        if (remaining <= 0
+            || !indexManager.waitForAsyncUpdates(this.indexFreshnessTime, remaining)) {
+          if (this.cache.getLogger().fineEnabled()) {
+            this.cache.getLogger().fine("Index updates did not catch up with time "
+                + this.indexFreshnessTime + " within " + INDEX_FRESHNESS_TIMEOUT
+                + " ms; executing query " + this.queryString + " on the current indexes");
+          }
+          return;
+        }
+      }
+    } catch (InterruptedException ignore) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
   public void setRemoteQuery(boolean isRemoteQuery) {
     this.isRemoteQuery = isRemoteQuery;
   }
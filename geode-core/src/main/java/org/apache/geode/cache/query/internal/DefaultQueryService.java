@@ -101,6 +101,21 @@ public class DefaultQueryService implements InternalQueryService {
       DistributionConfig.GEMFIRE_PREFIX + "QueryService.allowUntrustedMethodInvocation");
 
 
+  /**
+   * System property to compile the WHERE clause and projection attributes of unindexed selects
+   * before iterating over their collections, see {@link ExpressionCompiler}. By default its set to
+   * false.
+   */
+  public static boolean COMPILE_QUERY_EXPRESSIONS =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "QueryService.compileExpressions");
+
+  /**
+   * System property to disable evaluating unindexed equality joins between two regions with a
+   * hash join, see {@link HashJoin}. By default hash joins are enabled.
+   */
+  public static boolean HASH_JOIN_ENABLED =
+      !Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "QueryService.disableHashJoin");
+
   /** Test purpose only */
   public static boolean TEST_QUERY_HETEROGENEOUS_OBJECTS = false;
 
@@ -152,9 +167,16 @@ public class DefaultQueryService implements InternalQueryService {
       throw new QueryInvalidException(
           LocalizedStrings.DefaultQueryService_THE_QUERY_STRING_MUST_NOT_BE_EMPTY
               .toLocalizedString());
-    ServerProxy serverProxy = pool == null ? null : new ServerProxy(pool);
-    DefaultQuery query = new DefaultQuery(queryString, this.cache, serverProxy != null);
-    query.setServerProxy(serverProxy);
+    if (pool == null) {
+      // Local queries, including those sent by clients, reuse cached plans
+      QueryPlanCache planCache = this.cache.getQueryPlanCache();
+      if (planCache != null) {
+        return planCache.newQuery(queryString);
+      }
+      return new DefaultQuery(queryString, this.cache, false);
+    }
+    DefaultQuery query = new DefaultQuery(queryString, this.cache, true);
+    query.setServerProxy(new ServerProxy(pool));
     return query;
   }
 
@@ -175,6 +197,17 @@ public class DefaultQueryService implements InternalQueryService {
     return createIndex(indexName, IndexType.HASH, indexedExpression, fromClause, imports);
   }
 
+  public Index createBitmapIndex(String indexName, String indexedExpression, String fromClause)
+      throws IndexNameConflictException, IndexExistsException, RegionNotFoundException {
+    return createBitmapIndex(indexName, indexedExpression, fromClause, null);
+  }
+
+  public Index createBitmapIndex(String indexName, String indexedExpression, String fromClause,
+      String imports)
+      throws IndexNameConflictException, IndexExistsException, RegionNotFoundException {
+    return createIndex(indexName, IndexType.BITMAP, indexedExpression, fromClause, imports);
+  }
+
   public Index createIndex(String indexName, String indexedExpression, String fromClause)
       throws IndexNameConflictException, IndexExistsException, RegionNotFoundException {
     return createIndex(indexName, IndexType.FUNCTIONAL, indexedExpression, fromClause, null);
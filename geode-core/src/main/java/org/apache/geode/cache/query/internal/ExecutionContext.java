@@ -92,6 +92,7 @@ public class ExecutionContext {
   private boolean distinct = false;
   private Object currentProjectionField = null;
   private boolean isPRQueryNode = false;
+  private boolean combinesBucketResults = false;
 
   /**
    * Param specialIteratorVar name of special variable to use to denote the current iteration
@@ -590,6 +591,22 @@ public class ExecutionContext {
     return null;
   }
 
+  /**
+   * Returns the explanation of the query executed with this context, or null if it is not
+   * explained.
+   */
+  public QueryExplanation getQueryExplanation() {
+    return null;
+  }
+
+  QueryPlanNode getExplainNode() {
+    throw new UnsupportedOperationException("Method should not have been called");
+  }
+
+  void setExplainNode(QueryPlanNode node) {
+    throw new UnsupportedOperationException("Method should not have been called");
+  }
+
   public void pushExecCache(int scopeNum) {
     throw new UnsupportedOperationException("Method should not have been called");
   }
@@ -646,4 +663,16 @@ public class ExecutionContext {
     return this.isPRQueryNode;
   }
 
+  /**
+   * Set on a data store member folding the grouped results of its local buckets together before
+   * they are sent to the PR query node.
+   */
+  public void setCombinesBucketResults(boolean combinesBucketResults) {
+    this.combinesBucketResults = combinesBucketResults;
+  }
+
+  public boolean getCombinesBucketResults() {
+    return this.combinesBucketResults;
+  }
+
 }
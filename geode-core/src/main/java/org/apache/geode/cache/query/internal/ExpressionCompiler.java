@@ -0,0 +1,431 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.geode.cache.EntryDestroyedException;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.query.AmbiguousNameException;
+import org.apache.geode.cache.query.FunctionDomainException;
+import org.apache.geode.cache.query.NameNotFoundException;
+import org.apache.geode.cache.query.NameResolutionException;
+import org.apache.geode.cache.query.QueryInvocationTargetException;
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.cache.query.Struct;
+import org.apache.geode.cache.query.TypeMismatchException;
+import org.apache.geode.cache.query.internal.parse.OQLLexerTokenTypes;
+import org.apache.geode.internal.cache.PartitionedRegion;
+import org.apache.geode.internal.cache.Token;
+import org.apache.geode.internal.i18n.LocalizedStrings;
+import org.apache.geode.pdx.PdxInstance;
+import org.apache.geode.pdx.internal.PdxInstanceImpl;
+import org.apache.geode.pdx.internal.PdxType;
+
+/**
+ * Compiles the WHERE clause and projection attributes of a select into evaluators that are run
+ * for every row of an iteration instead of interpreting the expression tree. Attribute paths on
+ * the iterators of the select are turned into chains of {@link MethodHandle}s that are specialized
+ * for the class of the values they read, or for the {@link PdxType} of PDX values, and
+ * comparisons, AND/OR junctions and negations are evaluated directly on the results of their
+ * compiled operands. Any other expression is left to be interpreted.
+ *
+ * The evaluators produce exactly the values the interpreted expressions would. They are created
+ * for a single execution, so each execution authorizes the methods it invokes.
+ *
+ * @since Geode 1.8
+ */
+final class ExpressionCompiler {
+
+  /** handles of the fields and methods used as attributes, shared by all queries */
+  private static final ConcurrentMap<Member, MethodHandle> handles = new ConcurrentHashMap<>();
+
+  private static final MethodType ACCESSOR_TYPE = MethodType.methodType(Object.class, Object.class);
+
+  private ExpressionCompiler() {}
+
+  /**
+   * Whether the expressions of a select should be compiled for the given execution. Expressions of
+   * CQs are always interpreted since they are evaluated against region entries.
+   */
+  static boolean isEnabled(ExecutionContext context) {
+    return DefaultQueryService.COMPILE_QUERY_EXPRESSIONS && !context.isCqQueryContext();
+  }
+
+  /**
+   * Compiles an expression evaluated in the scope of the current iterators of the context.
+   */
+  static Evaluator compile(CompiledValue expr, ExecutionContext context) {
+    if (expr.getClass() == CompiledComparison.class) {
+      CompiledComparison comparison = (CompiledComparison) expr;
+      List operands = comparison.getChildren();
+      return new ComparisonEvaluator(comparison, compile((CompiledValue) operands.get(0), context),
+          compile((CompiledValue) operands.get(1), context));
+    }
+    if (expr.getClass() == CompiledJunction.class) {
+      CompiledJunction junction = (CompiledJunction) expr;
+      List operands = junction.getOperands();
+      Evaluator[] evaluators = new Evaluator[operands.size()];
+      for (int i = 0; i < evaluators.length; i++) {
+        evaluators[i] = compile((CompiledValue) operands.get(i), context);
+      }
+      return new JunctionEvaluator(junction.getOperator(), evaluators);
+    }
+    if (expr.getClass() == CompiledNegation.class) {
+      return new NegationEvaluator(compile((CompiledValue) expr.getChildren().get(0), context));
+    }
+    if (expr.getType() == OQLLexerTokenTypes.Identifier
+        || expr.getType() == CompiledValue.PATH) {
+      Evaluator path = compilePath(expr, context);
+      if (path != null) {
+        return path;
+      }
+    }
+    return new InterpretedEvaluator(expr);
+  }
+
+  /**
+   * Compiles the projection attributes of a select, in the form kept by {@link CompiledSelect}.
+   */
+  static Evaluator[] compileProjection(List projAttrs, ExecutionContext context) {
+    Evaluator[] evaluators = new Evaluator[projAttrs.size()];
+    for (int i = 0; i < evaluators.length; i++) {
+      Object[] projDef = (Object[]) projAttrs.get(i);
+      evaluators[i] = compile((CompiledValue) projDef[1], context);
+    }
+    return evaluators;
+  }
+
+  private static Evaluator compilePath(CompiledValue expr, ExecutionContext context) {
+    MethodInvocationAuthorizer authorizer =
+        context.getCache().getQueryService().getMethodInvocationAuthorizer();
+    for (Object o : context.getCurrentIterators()) {
+      RuntimeIterator iterator = (RuntimeIterator) o;
+      List path;
+      try {
+        path = expr.getPathOnIterator(iterator, context);
+      } catch (TypeMismatchException | AmbiguousNameException ignore) {
+        return null;
+      }
+      if (path == null) {
+        continue;
+      }
+      if (path.isEmpty()) {
+        return null;
+      }
+      AttributeAccessor[] accessors = new AttributeAccessor[path.size()];
+      for (int i = 0; i < accessors.length; i++) {
+        accessors[i] = new AttributeAccessor(authorizer, (String) path.get(i));
+      }
+      return new PathEvaluator(iterator, accessors);
+    }
+    return null;
+  }
+
+  /**
+   * The compiled form of an expression.
+   */
+  interface Evaluator {
+    Object evaluate(ExecutionContext context) throws FunctionDomainException,
+        TypeMismatchException, NameResolutionException, QueryInvocationTargetException;
+  }
+
+  private static class InterpretedEvaluator implements Evaluator {
+    private final CompiledValue expr;
+
+    InterpretedEvaluator(CompiledValue expr) {
+      this.expr = expr;
+    }
+
+    @Override
+    public Object evaluate(ExecutionContext context) throws FunctionDomainException,
+        TypeMismatchException, NameResolutionException, QueryInvocationTargetException {
+      return this.expr.evaluate(context);
+    }
+  }
+
+  private static class ComparisonEvaluator implements Evaluator {
+    private final CompiledComparison comparison;
+
+    private final Evaluator left;
+
+    private final Evaluator right;
+
+    ComparisonEvaluator(CompiledComparison comparison, Evaluator left, Evaluator right) {
+      this.comparison = comparison;
+      this.left = left;
+      this.right = right;
+    }
+
+    @Override
+    public Object evaluate(ExecutionContext context) throws FunctionDomainException,
+        TypeMismatchException, NameResolutionException, QueryInvocationTargetException {
+      return this.comparison.evaluate(this.left.evaluate(context), this.right.evaluate(context),
+          context);
+    }
+  }
+
+  /**
+   * Evaluates AND and OR with the same short circuiting and UNDEFINED handling as
+   * {@link CompiledJunction#evaluate(ExecutionContext)}.
+   */
+  private static class JunctionEvaluator implements Evaluator {
+    private final boolean isOr;
+
+    private final Evaluator[] operands;
+
+    JunctionEvaluator(int operator, Evaluator[] operands) {
+      this.isOr = operator == OQLLexerTokenTypes.LITERAL_or;
+      this.operands = operands;
+    }
+
+    @Override
+    public Object evaluate(ExecutionContext context) throws FunctionDomainException,
+        TypeMismatchException, NameResolutionException, QueryInvocationTargetException {
+      Object r = this.operands[0].evaluate(context);
+      if (r instanceof Boolean && (Boolean) r == this.isOr) {
+        return r;
+      }
+      if (r == null || r == QueryService.UNDEFINED) {
+        r = QueryService.UNDEFINED;
+      } else if (!(r instanceof Boolean)) {
+        throw notBoolean(r);
+      }
+      for (int i = 1; i < this.operands.length; i++) {
+        Object ri;
+        try {
+          ri = this.operands[i].evaluate(context);
+        } catch (EntryDestroyedException ignore) {
+          continue;
+        }
+        if (ri instanceof Boolean && (Boolean) ri == this.isOr) {
+          return ri;
+        }
+        if (ri == null || ri == QueryService.UNDEFINED || r == QueryService.UNDEFINED) {
+          r = QueryService.UNDEFINED;
+          continue;
+        } else if (!(ri instanceof Boolean)) {
+          throw notBoolean(ri);
+        }
+        // neither operand short circuits, so both have the same value
+        r = Boolean.valueOf(!this.isOr);
+      }
+      return r;
+    }
+
+    private TypeMismatchException notBoolean(Object value) {
+      return new TypeMismatchException(
+          LocalizedStrings.CompiledJunction_LITERAL_ANDLITERAL_OR_OPERANDS_MUST_BE_OF_TYPE_BOOLEAN_NOT_TYPE_0
+              .toLocalizedString(value.getClass().getName()));
+    }
+  }
+
+  private static class NegationEvaluator implements Evaluator {
+    private final Evaluator operand;
+
+    NegationEvaluator(Evaluator operand) {
+      this.operand = operand;
+    }
+
+    @Override
+    public Object evaluate(ExecutionContext context) throws FunctionDomainException,
+        TypeMismatchException, NameResolutionException, QueryInvocationTargetException {
+      return CompiledNegation.negateObject(this.operand.evaluate(context));
+    }
+  }
+
+  /**
+   * Reads a path of attributes from the current value of an iterator.
+   */
+  private static class PathEvaluator implements Evaluator {
+    private final RuntimeIterator iterator;
+
+    private final AttributeAccessor[] accessors;
+
+    PathEvaluator(RuntimeIterator iterator, AttributeAccessor[] accessors) {
+      this.iterator = iterator;
+      this.accessors = accessors;
+    }
+
+    @Override
+    public Object evaluate(ExecutionContext context)
+        throws NameNotFoundException, QueryInvocationTargetException {
+      Object value = this.iterator.evaluate(context);
+      PartitionedRegion pr = context.getPartitionedRegion();
+      for (AttributeAccessor accessor : this.accessors) {
+        value = accessor.read(value, context);
+        // check for BucketRegion substitution, as CompiledPath does
+        if (pr != null && value instanceof Region
+            && pr.getFullPath().equals(((Region) value).getFullPath())) {
+          value = context.getBucketRegion();
+        }
+      }
+      return value;
+    }
+  }
+
+  /**
+   * Reads one attribute, specializing on the class or PDX type of the last value read. Values of
+   * any other kind are read the way {@link CompiledPath} reads them.
+   */
+  private static class AttributeAccessor {
+    private final MethodInvocationAuthorizer authorizer;
+
+    private final String name;
+
+    /** immutable, so it may be replaced concurrently without further synchronization */
+    private Specialization specialization;
+
+    AttributeAccessor(MethodInvocationAuthorizer authorizer, String name) {
+      this.authorizer = authorizer;
+      this.name = name;
+    }
+
+    Object read(Object target, ExecutionContext context)
+        throws NameNotFoundException, QueryInvocationTargetException {
+      if (target == null || target == QueryService.UNDEFINED || target instanceof Token) {
+        return QueryService.UNDEFINED;
+      }
+      Specialization s = this.specialization;
+      if (s == null || !s.accepts(target)) {
+        s = specialize(target);
+        if (s == null) {
+          return PathUtils.evaluateAttribute(context, target, this.name);
+        }
+        this.specialization = s;
+      }
+      return s.read(target);
+    }
+
+    private Specialization specialize(Object target) {
+      if (target instanceof Struct || target instanceof Region) {
+        // struct fields are looked up by name and region access is authorized per region
+        return null;
+      }
+      if (target instanceof PdxInstanceImpl) {
+        PdxType pdxType = ((PdxInstanceImpl) target).getPdxType();
+        if (pdxType.getPdxField(this.name) == null) {
+          return null;
+        }
+        return new PdxSpecialization(pdxType, this.name);
+      }
+      if (target instanceof PdxInstance) {
+        return null;
+      }
+      Member member;
+      try {
+        member = new AttributeDescriptor(this.authorizer, this.name)
+            .getReadMember(target.getClass());
+      } catch (NameNotFoundException ignore) {
+        return null;
+      }
+      if (member instanceof Method) {
+        this.authorizer.authorizeMethodInvocation((Method) member, target);
+      }
+      MethodHandle handle = getHandle(member);
+      if (handle == null) {
+        return null;
+      }
+      return new ClassSpecialization(target.getClass(), handle);
+    }
+  }
+
+  private static MethodHandle getHandle(Member member) {
+    MethodHandle handle = handles.get(member);
+    if (handle == null) {
+      try {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        if (member instanceof Method) {
+          handle = lookup.unreflect((Method) member);
+        } else {
+          handle = lookup.unreflectGetter((Field) member);
+        }
+      } catch (IllegalAccessException ignore) {
+        return null;
+      }
+      handle = handle.asType(ACCESSOR_TYPE);
+      handles.putIfAbsent(member, handle);
+    }
+    return handle;
+  }
+
+  private abstract static class Specialization {
+    abstract boolean accepts(Object target);
+
+    abstract Object read(Object target) throws QueryInvocationTargetException;
+  }
+
+  private static class ClassSpecialization extends Specialization {
+    private final Class<?> targetClass;
+
+    private final MethodHandle handle;
+
+    ClassSpecialization(Class<?> targetClass, MethodHandle handle) {
+      this.targetClass = targetClass;
+      this.handle = handle;
+    }
+
+    @Override
+    boolean accepts(Object target) {
+      return target.getClass() == this.targetClass;
+    }
+
+    @Override
+    Object read(Object target) throws QueryInvocationTargetException {
+      try {
+        return (Object) this.handle.invokeExact(target);
+      } catch (EntryDestroyedException ignore) {
+        return QueryService.UNDEFINED;
+      } catch (Exception e) {
+        throw new QueryInvocationTargetException(e);
+      } catch (Error e) {
+        throw e;
+      } catch (Throwable t) {
+        throw new QueryInvocationTargetException(t);
+      }
+    }
+  }
+
+  private static class PdxSpecialization extends Specialization {
+    private final PdxType pdxType;
+
+    private final String name;
+
+    PdxSpecialization(PdxType pdxType, String name) {
+      this.pdxType = pdxType;
+      this.name = name;
+    }
+
+    @Override
+    boolean accepts(Object target) {
+      return target instanceof PdxInstanceImpl
+          && ((PdxInstanceImpl) target).getPdxType() == this.pdxType;
+    }
+
+    @Override
+    Object read(Object target) {
+      // returns a PdxString for string fields, as AttributeDescriptor does
+      return ((PdxInstanceImpl) target).getRawField(this.name);
+    }
+  }
+}
@@ -0,0 +1,206 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.geode.cache.query.FunctionDomainException;
+import org.apache.geode.cache.query.NameResolutionException;
+import org.apache.geode.cache.query.QueryInvocationTargetException;
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.cache.query.TypeMismatchException;
+import org.apache.geode.cache.query.internal.parse.OQLLexerTokenTypes;
+import org.apache.geode.pdx.internal.PdxString;
+
+/**
+ * Joins the rows of the two region iterators of a select on an equality between an expression of
+ * each iterator in its WHERE clause. The rows of the smaller collection are hashed on their side
+ * of the equality, and every row of the other collection is only paired with the rows hashed under
+ * the same key, instead of with every row of the smaller collection. It is used for selects whose
+ * WHERE clause cannot be evaluated with an index.
+ *
+ * The keys of values which compare equal in OQL are equal, so that no pair of rows satisfying the
+ * equality is missed. Values of different types can share a key, so the WHERE clause must still
+ * be evaluated on every pair of rows. When the join expression of a hashed row evaluates to a value
+ * that cannot be hashed, the join is abandoned before any pair is returned.
+ *
+ * A query on colocated partitioned regions is executed on each bucket with the iterators evaluating
+ * to the data of that bucket and of its colocated buckets, so the join is done bucket by bucket.
+ *
+ * @since Geode 1.8
+ */
+public final class HashJoin {
+
+  /** key of the rows whose join expression evaluates to null */
+  private static final Object NULL_KEY = new Object();
+
+  private final RuntimeIterator[] iterators;
+
+  private final CompiledValue[] keyExpressions;
+
+  /** index in {@link #iterators} of the iterator whose rows are hashed */
+  private int buildSide;
+
+  private SelectResults buildRows;
+
+  private SelectResults probeRows;
+
+  private Map<Object, List<Object>> table;
+
+  private HashJoin(RuntimeIterator[] iterators, CompiledValue[] keyExpressions) {
+    this.iterators = iterators;
+    this.keyExpressions = keyExpressions;
+  }
+
+  /**
+   * Returns the join of the current iterators of the context on an equality of the given WHERE
+   * clause, or null if the iterators cannot be hash joined.
+   */
+  static HashJoin create(CompiledValue whereClause, ExecutionContext context) {
+    if (!DefaultQueryService.HASH_JOIN_ENABLED || context.isCqQueryContext()) {
+      return null;
+    }
+    List currentIterators = context.getCurrentIterators();
+    if (currentIterators.size() != 2
+        || context.getAllIndependentIteratorsOfCurrentScope().size() != 2) {
+      return null;
+    }
+    RuntimeIterator first = (RuntimeIterator) currentIterators.get(0);
+    RuntimeIterator second = (RuntimeIterator) currentIterators.get(1);
+
+    List conditions;
+    if (whereClause.getClass() == CompiledJunction.class
+        && ((CompiledJunction) whereClause).getOperator() == OQLLexerTokenTypes.LITERAL_and) {
+      conditions = ((CompiledJunction) whereClause).getOperands();
+    } else {
+      conditions = Collections.singletonList(whereClause);
+    }
+    for (Object condition : conditions) {
+      if (condition.getClass() != CompiledComparison.class
+          || ((CompiledComparison) condition).getOperator() != OQLLexerTokenTypes.TOK_EQ) {
+        continue;
+      }
+      CompiledComparison comparison = (CompiledComparison) condition;
+      RuntimeIterator[] iterators = new RuntimeIterator[] {first, second};
+      if (isKeyOf(comparison._left, first, second, context)
+          && isKeyOf(comparison._right, second, first, context)) {
+        return new HashJoin(iterators,
+            new CompiledValue[] {comparison._left, comparison._right});
+      }
+      if (isKeyOf(comparison._right, first, second, context)
+          && isKeyOf(comparison._left, second, first, context)) {
+        return new HashJoin(iterators,
+            new CompiledValue[] {comparison._right, comparison._left});
+      }
+    }
+    return null;
+  }
+
+  private static boolean isKeyOf(CompiledValue expression, RuntimeIterator iterator,
+      RuntimeIterator other, ExecutionContext context) {
+    return context.isDependentOn(expression, iterator) && !context.isDependentOn(expression, other);
+  }
+
+  /**
+   * Hashes the rows of the smaller of the collections of the two iterators.
+   *
+   * @return false if the join expression of a row could not be hashed, in which case the rows
+   *         must be joined by iterating over every pair of them
+   */
+  boolean build(ExecutionContext context, SelectResults firstRows, SelectResults secondRows)
+      throws FunctionDomainException, TypeMismatchException, NameResolutionException,
+      QueryInvocationTargetException {
+    this.buildSide = firstRows.size() <= secondRows.size() ? 0 : 1;
+    this.buildRows = this.buildSide == 0 ? firstRows : secondRows;
+    this.probeRows = this.buildSide == 0 ? secondRows : firstRows;
+    this.table = new HashMap<>();
+
+    RuntimeIterator iterator = this.iterators[this.buildSide];
+    CompiledValue keyExpression = this.keyExpressions[this.buildSide];
+    for (Object row : this.buildRows) {
+      // Check if query execution on this thread is canceled.
+      QueryMonitor.isQueryExecutionCanceled();
+      iterator.setCurrent(row);
+      Object key = getHashKey(keyExpression.evaluate(context));
+      if (key == null) {
+        this.table = null;
+        return false;
+      }
+      this.table.computeIfAbsent(key, k -> new ArrayList<>(1)).add(row);
+    }
+    return true;
+  }
+
+  RuntimeIterator getBuildIterator() {
+    return this.iterators[this.buildSide];
+  }
+
+  RuntimeIterator getProbeIterator() {
+    return this.iterators[1 - this.buildSide];
+  }
+
+  SelectResults getProbeRows() {
+    return this.probeRows;
+  }
+
+  /**
+   * Returns the hashed rows which can satisfy the join equality with the current row of the probe
+   * iterator.
+   */
+  Collection getMatchingRows(ExecutionContext context) throws FunctionDomainException,
+      TypeMismatchException, NameResolutionException, QueryInvocationTargetException {
+    Object key = getHashKey(this.keyExpressions[1 - this.buildSide].evaluate(context));
+    if (key == null) {
+      return this.buildRows;
+    }
+    List<Object> rows = this.table.get(key);
+    return rows == null ? Collections.emptyList() : rows;
+  }
+
+  /**
+   * Returns the key under which a row whose join expression evaluates to the given value is
+   * hashed, or null if the value cannot be hashed consistently with OQL equality.
+   */
+  public static Object getHashKey(Object value) {
+    if (value == null) {
+      return NULL_KEY;
+    }
+    if (value instanceof String || value instanceof Boolean || value == QueryService.UNDEFINED) {
+      return value;
+    }
+    if (value instanceof PdxString || value instanceof Character) {
+      return value.toString();
+    }
+    if (value instanceof Number) {
+      double number = ((Number) value).doubleValue();
+      // -0.0 and 0.0 are equal but their Doubles are not
+      return number == 0.0 ? 0.0 : number;
+    }
+    if (value instanceof Date) {
+      return (double) ((Date) value).getTime();
+    }
+    if (value instanceof Enum) {
+      return ((Enum) value).name();
+    }
+    return null;
+  }
+}
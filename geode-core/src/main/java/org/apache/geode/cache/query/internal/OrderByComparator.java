@@ -138,6 +138,22 @@ public class OrderByComparator implements Comparator {
     // No op
   }
 
+  /**
+   * Releases the sort criteria cached for a row which has been dropped from the sorted results.
+   */
+  void removeEvaluatedSortCriteria(Object row) {
+    // No op
+  }
+
+  /**
+   * Called by a sorted results collection kept to the top N rows after it drops the last row.
+   */
+  static void rowDropped(Comparator comparator, Object row) {
+    if (comparator instanceof OrderByComparator) {
+      ((OrderByComparator) comparator).removeEvaluatedSortCriteria(row);
+    }
+  }
+
   private int compareHelperMethod(Object obj1, Object obj2) {
     if (obj1 == null || obj2 == null) {
       return compareIfOneOrMoreNull(obj1, obj2);
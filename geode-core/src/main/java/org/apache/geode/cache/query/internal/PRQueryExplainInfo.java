@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import org.apache.geode.DataSerializer;
+
+/**
+ * The trace info of a member executing an explained query for a partitioned region, carrying the
+ * plan of the query on the member. It has its own fixed id so that the trace info of queries that
+ * are not explained keeps the format older members read; only members that understand the
+ * {@code <explain>} prefix send explained queries.
+ *
+ * @since Geode 1.8
+ */
+public class PRQueryExplainInfo extends PRQueryTraceInfo {
+
+  private QueryPlanNode explanation;
+
+  public PRQueryExplainInfo() {}
+
+  public PRQueryExplainInfo(QueryPlanNode explanation) {
+    this.explanation = explanation;
+  }
+
+  @Override
+  public void toData(DataOutput out) throws IOException {
+    super.toData(out);
+    DataSerializer.writeObject(explanation, out);
+  }
+
+  @Override
+  public void fromData(DataInput in) throws IOException, ClassNotFoundException {
+    super.fromData(in);
+    explanation = DataSerializer.readObject(in);
+  }
+
+  @Override
+  public int getDSFID() {
+    return PR_QUERY_EXPLAIN_INFO;
+  }
+
+  @Override
+  public QueryPlanNode getExplanation() {
+    return explanation;
+  }
+
+  public void setExplanation(QueryPlanNode explanation) {
+    this.explanation = explanation;
+  }
+}
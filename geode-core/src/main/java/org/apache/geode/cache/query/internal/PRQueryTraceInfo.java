@@ -104,4 +104,11 @@ public class PRQueryTraceInfo implements DataSerializableFixedID {
     this.indexesUsed = indexesUsed;
   }
 
+  /**
+   * Returns the plan of an explained query on the member, null if the query is not explained.
+   */
+  public QueryPlanNode getExplanation() {
+    return null;
+  }
+
 }
@@ -22,11 +22,61 @@ package org.apache.geode.cache.query.internal;
  */
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
-class PlanInfo {
+import org.apache.geode.cache.query.Index;
+
+public class PlanInfo {
 
   boolean evalAsFilter = false;
   boolean isPreferred = false;
   List indexes = new ArrayList();
+
+  /** The filter this plan was chosen for, set by the cost-based planner */
+  CompiledValue filter;
+
+  /** The estimated number of values fetched by the filter, or -1 if not estimated */
+  int estimatedSize = -1;
+
+  /** The estimated cost of evaluating the filter, or -1 if not estimated */
+  long estimatedCost = -1;
+
+  public boolean isEvalAsFilter() {
+    return this.evalAsFilter;
+  }
+
+  public List getIndexes() {
+    return Collections.unmodifiableList(this.indexes);
+  }
+
+  public CompiledValue getFilter() {
+    return this.filter;
+  }
+
+  public int getEstimatedSize() {
+    return this.estimatedSize;
+  }
+
+  public long getEstimatedCost() {
+    return this.estimatedCost;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder("PlanInfo[");
+    if (this.filter != null) {
+      sb.append("filter=").append(this.filter.getClass().getSimpleName()).append("; ");
+    }
+    sb.append("indexes=[");
+    for (int i = 0; i < this.indexes.size(); i++) {
+      if (i > 0) {
+        sb.append(", ");
+      }
+      sb.append(((Index) this.indexes.get(i)).getName());
+    }
+    sb.append("]; estimatedSize=").append(this.estimatedSize).append("; estimatedCost=")
+        .append(this.estimatedCost).append(']');
+    return sb.toString();
+  }
 }
@@ -95,6 +95,20 @@ public class ProxyQueryService implements QueryService {
         "Index creation on the server is not supported from the client.");
   }
 
+  public Index createBitmapIndex(String indexName, String indexedExpression, String fromClause)
+      throws IndexInvalidException, IndexNameConflictException, IndexExistsException,
+      RegionNotFoundException, UnsupportedOperationException {
+    throw new UnsupportedOperationException(
+        "Index creation on the server is not supported from the client.");
+  }
+
+  public Index createBitmapIndex(String indexName, String indexedExpression, String fromClause,
+      String imports) throws IndexInvalidException, IndexNameConflictException,
+      IndexExistsException, RegionNotFoundException, UnsupportedOperationException {
+    throw new UnsupportedOperationException(
+        "Index creation on the server is not supported from the client.");
+  }
+
   public Index createIndex(String indexName, IndexType indexType, String indexedExpression,
       String fromClause) throws IndexInvalidException, IndexNameConflictException,
       IndexExistsException, RegionNotFoundException, UnsupportedOperationException {
@@ -58,6 +58,8 @@ public class QCompiler implements OQLLexerTokenTypes {
   private Map imports = new HashMap();
   private final boolean isForIndexCompilation;
   private boolean traceOn;
+  private boolean explainOn;
+  private boolean analyzeOn;
 
   public QCompiler() {
     this.isForIndexCompilation = false;
@@ -622,6 +624,19 @@ public class QCompiler implements OQLLexerTokenTypes {
     return traceOn;
   }
 
+  public void explainRequest(boolean analyze) {
+    this.explainOn = true;
+    this.analyzeOn = analyze;
+  }
+
+  public boolean isExplainRequested() {
+    return explainOn;
+  }
+
+  public boolean isAnalyzeRequested() {
+    return analyzeOn;
+  }
+
   public void setHint(int numOfChildren) {
     ArrayList list = new ArrayList();
     for (int i = 0; i < numOfChildren; i++) {
@@ -43,6 +43,13 @@ public class QueryExecutionContext extends ExecutionContext {
 
   private boolean indexUsed = false;
 
+  private final QueryExplanation explanation;
+
+  /**
+   * the operator of the explained query this context is executing
+   */
+  private QueryPlanNode explainNode;
+
   /**
    * stack used to determine which execCache to currently be using
    */
@@ -67,11 +74,23 @@ public class QueryExecutionContext extends ExecutionContext {
   public QueryExecutionContext(Object[] bindArguments, InternalCache cache) {
     super(bindArguments, cache);
     this.query = null;
+    this.explanation = null;
   }
 
   public QueryExecutionContext(Object[] bindArguments, InternalCache cache, Query query) {
+    this(bindArguments, cache, query,
+        query instanceof DefaultQuery ? ((DefaultQuery) query).getExplanation() : null);
+  }
+
+  /**
+   * @param explanation the plan of the explained query collected by this context, for contexts
+   *        created by other threads than the one executing the query
+   */
+  public QueryExecutionContext(Object[] bindArguments, InternalCache cache, Query query,
+      QueryExplanation explanation) {
     super(bindArguments, cache);
     this.query = query;
+    this.explanation = explanation;
   }
 
   @Override
@@ -156,6 +175,21 @@ public class QueryExecutionContext extends ExecutionContext {
     return query;
   }
 
+  @Override
+  public QueryExplanation getQueryExplanation() {
+    return this.explanation;
+  }
+
+  @Override
+  QueryPlanNode getExplainNode() {
+    return this.explainNode;
+  }
+
+  @Override
+  void setExplainNode(QueryPlanNode node) {
+    this.explainNode = node;
+  }
+
   @Override
   public void setBucketList(List list) {
     this.bucketList = list;
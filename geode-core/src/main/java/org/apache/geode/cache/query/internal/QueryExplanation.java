@@ -0,0 +1,233 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.apache.geode.cache.query.Index;
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.cache.query.internal.types.ObjectTypeImpl;
+import org.apache.geode.cache.query.internal.types.StructTypeImpl;
+import org.apache.geode.cache.query.types.ObjectType;
+import org.apache.geode.internal.util.BlobHelper;
+
+/**
+ * The plan of a query executed with an {@code <explain>} or {@code <explain analyze>} prefix.
+ * Instead of its results, such a query returns one struct per operator of the plan that was chosen
+ * while executing it, in depth first order. The operators of an {@code <explain>} query have an
+ * operator name, indented by their depth in the plan, and a detail such as the index or region
+ * they read. Those of an {@code <explain analyze>} query also have the number of rows they
+ * produced, the time spent in them, and the number of index lookups and deserializations they
+ * did. For a partitioned region these are summed over the buckets and members that executed the
+ * operator.
+ *
+ * @since Geode 1.8
+ */
+public class QueryExplanation {
+
+  private static final String[] PLAN_FIELDS = {"operator", "detail"};
+
+  private static final String[] ANALYZE_FIELDS =
+      {"operator", "detail", "rows", "timeMillis", "indexLookups", "deserializations"};
+
+  private final boolean analyze;
+
+  private final QueryPlanNode root;
+
+  /** the node under which the operators executed by this member are added */
+  private volatile QueryPlanNode executionRoot;
+
+  QueryExplanation(String queryString, boolean analyze) {
+    this.analyze = analyze;
+    this.root = new QueryPlanNode("Query", queryString);
+    this.executionRoot = this.root;
+  }
+
+  /**
+   * Returns the explanation of the query executed with the given context, or null if the query is
+   * not explained.
+   */
+  public static QueryExplanation get(ExecutionContext context) {
+    return context.getQueryExplanation();
+  }
+
+  public boolean isAnalyze() {
+    return this.analyze;
+  }
+
+  public QueryPlanNode getRoot() {
+    return this.root;
+  }
+
+  public QueryPlanNode getExecutionRoot() {
+    return this.executionRoot;
+  }
+
+  /**
+   * Sets the node under which the operators executed by this member are added, such as the node
+   * gathering the results of the members of a partitioned region.
+   */
+  public void setExecutionRoot(QueryPlanNode executionRoot) {
+    this.executionRoot = executionRoot;
+  }
+
+  /**
+   * Returns the node of an operator executed as part of the operator the context is executing.
+   */
+  public QueryPlanNode getOperator(ExecutionContext context, String operator, String detail) {
+    QueryPlanNode parent = context.getExplainNode();
+    if (parent == null) {
+      parent = this.executionRoot;
+    }
+    return parent.getChild(operator, detail);
+  }
+
+  /**
+   * Starts executing an operator in the given context. The operators executed in the context until
+   * the returned execution is ended are added as children of the operator.
+   */
+  public Execution start(ExecutionContext context, String operator, String detail) {
+    QueryPlanNode parent = context.getExplainNode();
+    QueryPlanNode node = getOperator(context, operator, detail);
+    context.setExplainNode(node);
+    return new Execution(parent, node);
+  }
+
+  /**
+   * Returns the start time of an index lookup done in the given context, or zero if the query is
+   * not explained.
+   */
+  static long startIndexLookup(ExecutionContext context) {
+    return context.getQueryExplanation() == null ? 0L : System.nanoTime();
+  }
+
+  static void endIndexLookup(ExecutionContext context, Index index, long start,
+      Collection results) {
+    endIndexLookup(context, "IndexLookup", index.getName(), start, results);
+  }
+
+  static void endIndexJoin(ExecutionContext context, Index index1, Index index2, long start,
+      Collection results) {
+    endIndexLookup(context, "IndexJoin", index1.getName() + ", " + index2.getName(), start,
+        results);
+  }
+
+  private static void endIndexLookup(ExecutionContext context, String operator, String detail,
+      long start, Collection results) {
+    QueryExplanation explanation = context.getQueryExplanation();
+    if (explanation == null) {
+      return;
+    }
+    QueryPlanNode node = explanation.getOperator(context, operator, detail);
+    node.addIndexLookups(1);
+    node.addTime(System.nanoTime() - start);
+    if (results != null) {
+      node.addRows(results.size());
+    }
+  }
+
+  /**
+   * Returns the operators of the plan, one struct per operator.
+   */
+  SelectResults toSelectResults() {
+    String[] fieldNames = this.analyze ? ANALYZE_FIELDS : PLAN_FIELDS;
+    ObjectType[] fieldTypes = new ObjectType[fieldNames.length];
+    for (int i = 0; i < fieldTypes.length; i++) {
+      fieldTypes[i] = i < 2 ? new ObjectTypeImpl(String.class) : new ObjectTypeImpl(Number.class);
+    }
+    StructTypeImpl type = new StructTypeImpl(fieldNames, fieldTypes);
+    List<StructImpl> operators = new ArrayList<>();
+    addOperators(this.root, 0, type, operators);
+    ResultsCollectionWrapper results = new ResultsCollectionWrapper(type, operators);
+    results.setModifiable(false);
+    return results;
+  }
+
+  private void addOperators(QueryPlanNode node, int depth, StructTypeImpl type,
+      List<StructImpl> operators) {
+    StringBuilder operator = new StringBuilder();
+    for (int i = 0; i < depth; i++) {
+      operator.append("  ");
+    }
+    operator.append(node.getOperator());
+    String detail = node.getDetail();
+    if (node.getMembers() > 0) {
+      detail = detail + " on " + node.getMembers() + " members";
+    }
+    Object[] values;
+    if (this.analyze) {
+      values = new Object[] {operator.toString(), detail, node.getRows(),
+          node.getTimeNanos() / 1000 / 1000.0, node.getIndexLookups(),
+          node.getDeserializations()};
+    } else {
+      values = new Object[] {operator.toString(), detail};
+    }
+    operators.add(new StructImpl(type, values));
+    for (QueryPlanNode child : node.getChildren()) {
+      addOperators(child, depth + 1, type, operators);
+    }
+  }
+
+  /**
+   * An execution of an operator by one thread, timing it and counting the rows it produced and the
+   * blobs deserialized by the thread while executing it.
+   */
+  public static class Execution {
+
+    private final QueryPlanNode parent;
+
+    private final QueryPlanNode node;
+
+    private final long start;
+
+    private final boolean countingStarted;
+
+    private final long startDeserializations;
+
+    private Execution(QueryPlanNode parent, QueryPlanNode node) {
+      this.parent = parent;
+      this.node = node;
+      this.countingStarted = BlobHelper.startCountingDeserializations();
+      this.startDeserializations = BlobHelper.getDeserializationCount();
+      this.start = System.nanoTime();
+    }
+
+    public QueryPlanNode getNode() {
+      return this.node;
+    }
+
+    /**
+     * Ends the execution, restoring the operator executed by the context before it started.
+     *
+     * @param result the result of the operator, or null if it failed
+     */
+    public void end(ExecutionContext context, Object result) {
+      this.node.addTime(System.nanoTime() - this.start);
+      this.node.addDeserializations(
+          BlobHelper.getDeserializationCount() - this.startDeserializations);
+      if (this.countingStarted) {
+        BlobHelper.stopCountingDeserializations();
+      }
+      if (result instanceof Collection) {
+        this.node.addRows(((Collection) result).size());
+      } else if (result != null) {
+        this.node.addRows(1);
+      }
+      context.setExplainNode(this.parent);
+    }
+  }
+}
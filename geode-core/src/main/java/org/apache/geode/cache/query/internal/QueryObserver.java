@@ -15,6 +15,7 @@
 package org.apache.geode.cache.query.internal;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Set;
 
 import org.apache.geode.cache.query.Index;
@@ -282,4 +283,13 @@ public interface QueryObserver {
    */
   void orderByColumnsEqual();
 
+  /**
+   * Callback issued when the cost-based planner has ordered the filter operands of a junction.
+   *
+   * @param junction the junction whose operands were ordered
+   * @param plans the plans of the filter operands in evaluation order, each carrying the estimated
+   *        size and cost of its filter
+   */
+  void afterCostBasedPlanChosen(CompiledValue junction, List<PlanInfo> plans);
+
 }
@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.internal.cache.CachePerfStats;
+import org.apache.geode.internal.cache.InternalCache;
+import org.apache.geode.internal.logging.LogService;
+
+/**
+ * A bounded, least recently used cache of compiled query plans keyed by query string. Queries
+ * created for local execution, including those received from clients and the per-member
+ * executions of partitioned region queries, share the compiled tree of an identical earlier query
+ * instead of parsing the query string again. The compiled tree is already shared between
+ * concurrent executions of a single {@link DefaultQuery}, so sharing it between queries with the
+ * same text adds no new constraints on it.
+ *
+ * The plans of ORDER BY and GROUP BY queries depend on the regions they reference, so the whole
+ * cache is cleared whenever a region or an index is created or destroyed.
+ *
+ * @since Geode 1.8
+ */
+public class QueryPlanCache {
+  private static final Logger logger = LogService.getLogger();
+
+  /**
+   * The maximum number of plans kept. Zero disables the cache.
+   */
+  public static final int DEFAULT_MAX_SIZE =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "Query.PLAN_CACHE_SIZE", 1000);
+
+  private final InternalCache cache;
+
+  private final CachePerfStats stats;
+
+  private final int maxSize;
+
+  /** Guarded by itself; iterates from least to most recently used. */
+  private final LinkedHashMap<String, Plan> plans;
+
+  /**
+   * Incremented on every invalidation, so that a plan compiled before an invalidation is not added
+   * after it.
+   */
+  private long generation;
+
+  public QueryPlanCache(InternalCache cache, CachePerfStats stats) {
+    this(cache, stats, DEFAULT_MAX_SIZE);
+  }
+
+  QueryPlanCache(InternalCache cache, CachePerfStats stats, int maxSize) {
+    this.cache = cache;
+    this.stats = stats;
+    this.maxSize = maxSize;
+    this.plans = new LinkedHashMap<String, Plan>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Plan> eldest) {
+        if (size() > QueryPlanCache.this.maxSize) {
+          QueryPlanCache.this.stats.incQueryPlanCacheEvictions();
+          return true;
+        }
+        return false;
+      }
+    };
+  }
+
+  /**
+   * Returns a new query for local execution of the given query string, compiling it only if its
+   * plan is not already cached.
+   *
+   * @throws org.apache.geode.cache.query.QueryInvalidException if the query string is not valid
+   */
+  public DefaultQuery newQuery(String queryString) {
+    Plan plan = null;
+    long compileGeneration = 0;
+    if (this.maxSize > 0) {
+      synchronized (this.plans) {
+        plan = this.plans.get(queryString);
+        compileGeneration = this.generation;
+      }
+    }
+    if (plan != null) {
+      this.stats.incQueryPlanCacheHits();
+    } else {
+      this.stats.incQueryPlanCacheMisses();
+      plan = DefaultQuery.compile(queryString, this.cache, false);
+      if (this.maxSize > 0 && isCacheable(plan)) {
+        synchronized (this.plans) {
+          if (compileGeneration == this.generation) {
+            this.plans.put(queryString, plan);
+          }
+        }
+      }
+    }
+    return new DefaultQuery(queryString, plan, this.cache);
+  }
+
+  /**
+   * A COUNT(*) select keeps a running count on its compiled tree while it is evaluated, so its
+   * plan is not shared.
+   */
+  private boolean isCacheable(Plan plan) {
+    CompiledValue compiledQuery = plan.getCompiledQuery();
+    return !(compiledQuery instanceof CompiledSelect)
+        || !((CompiledSelect) compiledQuery).isCount();
+  }
+
+  /**
+   * Discards all cached plans. Called when an index or region is created or destroyed.
+   */
+  public void invalidate() {
+    synchronized (this.plans) {
+      this.generation++;
+      if (this.plans.isEmpty()) {
+        return;
+      }
+      this.plans.clear();
+    }
+    this.stats.incQueryPlanCacheInvalidations();
+    if (logger.isDebugEnabled()) {
+      logger.debug("Cleared the query plan cache");
+    }
+  }
+
+  public int size() {
+    synchronized (this.plans) {
+      return this.plans.size();
+    }
+  }
+
+  /**
+   * The parsed and analyzed form of a query string.
+   */
+  static class Plan {
+    private final CompiledValue compiledQuery;
+
+    private final boolean traceRequested;
+
+    private final boolean explainRequested;
+
+    private final boolean analyzeRequested;
+
+    Plan(CompiledValue compiledQuery, boolean traceRequested, boolean explainRequested,
+        boolean analyzeRequested) {
+      this.compiledQuery = compiledQuery;
+      this.traceRequested = traceRequested;
+      this.explainRequested = explainRequested;
+      this.analyzeRequested = analyzeRequested;
+    }
+
+    CompiledValue getCompiledQuery() {
+      return this.compiledQuery;
+    }
+
+    boolean isTraceRequested() {
+      return this.traceRequested;
+    }
+
+    boolean isExplainRequested() {
+      return this.explainRequested;
+    }
+
+    boolean isAnalyzeRequested() {
+      return this.analyzeRequested;
+    }
+  }
+}
@@ -0,0 +1,195 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.geode.DataSerializer;
+import org.apache.geode.internal.DataSerializableFixedID;
+import org.apache.geode.internal.Version;
+
+/**
+ * An operator of the plan of an explained query, with the rows it produced, the time spent in it
+ * and the index lookups and deserializations done by it. The counters of an operator include those
+ * of its children. The operators executed by the buckets of a member, and by the members of a
+ * partitioned region, are identified by their operator name and detail and their counters are
+ * summed.
+ *
+ * @see QueryExplanation
+ * @since Geode 1.8
+ */
+public class QueryPlanNode implements DataSerializableFixedID {
+
+  private String operator;
+
+  private String detail;
+
+  /** number of members whose plans were merged into this node */
+  private final AtomicInteger members = new AtomicInteger();
+
+  private final AtomicLong rows = new AtomicLong();
+
+  private final AtomicLong timeNanos = new AtomicLong();
+
+  private final AtomicLong indexLookups = new AtomicLong();
+
+  private final AtomicLong deserializations = new AtomicLong();
+
+  private final List<QueryPlanNode> children = new ArrayList<>();
+
+  public QueryPlanNode() {}
+
+  QueryPlanNode(String operator, String detail) {
+    this.operator = operator;
+    this.detail = detail;
+  }
+
+  public String getOperator() {
+    return this.operator;
+  }
+
+  public String getDetail() {
+    return this.detail;
+  }
+
+  public int getMembers() {
+    return this.members.get();
+  }
+
+  public long getRows() {
+    return this.rows.get();
+  }
+
+  public long getTimeNanos() {
+    return this.timeNanos.get();
+  }
+
+  public long getIndexLookups() {
+    return this.indexLookups.get();
+  }
+
+  public long getDeserializations() {
+    return this.deserializations.get();
+  }
+
+  public List<QueryPlanNode> getChildren() {
+    synchronized (this.children) {
+      return new ArrayList<>(this.children);
+    }
+  }
+
+  /**
+   * Returns the child with the given operator and detail, adding it if this node has none.
+   */
+  public QueryPlanNode getChild(String operator, String detail) {
+    synchronized (this.children) {
+      for (QueryPlanNode child : this.children) {
+        if (child.operator.equals(operator) && child.detail.equals(detail)) {
+          return child;
+        }
+      }
+      QueryPlanNode child = new QueryPlanNode(operator, detail);
+      this.children.add(child);
+      return child;
+    }
+  }
+
+  public void addMembers(int count) {
+    this.members.addAndGet(count);
+  }
+
+  public void addRows(long count) {
+    this.rows.addAndGet(count);
+  }
+
+  public void addTime(long nanos) {
+    this.timeNanos.addAndGet(nanos);
+  }
+
+  void addIndexLookups(long count) {
+    this.indexLookups.addAndGet(count);
+  }
+
+  void addDeserializations(long count) {
+    this.deserializations.addAndGet(count);
+  }
+
+  /**
+   * Adds the counters of the children of a plan executed by another member to those of the
+   * matching children of this node.
+   */
+  public void mergeChildren(QueryPlanNode memberPlan) {
+    for (QueryPlanNode memberChild : memberPlan.getChildren()) {
+      getChild(memberChild.operator, memberChild.detail).merge(memberChild);
+    }
+  }
+
+  private void merge(QueryPlanNode other) {
+    addRows(other.getRows());
+    addTime(other.getTimeNanos());
+    addIndexLookups(other.getIndexLookups());
+    addDeserializations(other.getDeserializations());
+    addMembers(other.getMembers());
+    mergeChildren(other);
+  }
+
+  @Override
+  public int getDSFID() {
+    return QUERY_PLAN_NODE;
+  }
+
+  @Override
+  public void toData(DataOutput out) throws IOException {
+    DataSerializer.writeString(this.operator, out);
+    DataSerializer.writeString(this.detail, out);
+    out.writeInt(getMembers());
+    out.writeLong(getRows());
+    out.writeLong(getTimeNanos());
+    out.writeLong(getIndexLookups());
+    out.writeLong(getDeserializations());
+    DataSerializer.writeArrayList((ArrayList<QueryPlanNode>) getChildren(), out);
+  }
+
+  @Override
+  public void fromData(DataInput in) throws IOException, ClassNotFoundException {
+    this.operator = DataSerializer.readString(in);
+    this.detail = DataSerializer.readString(in);
+    this.members.set(in.readInt());
+    this.rows.set(in.readLong());
+    this.timeNanos.set(in.readLong());
+    this.indexLookups.set(in.readLong());
+    this.deserializations.set(in.readLong());
+    List<QueryPlanNode> readChildren = DataSerializer.readArrayList(in);
+    if (readChildren != null) {
+      this.children.addAll(readChildren);
+    }
+  }
+
+  @Override
+  public Version[] getSerializationVersions() {
+    return null;
+  }
+
+  @Override
+  public String toString() {
+    return this.operator + " " + this.detail + " (rows=" + getRows() + ")";
+  }
+}
@@ -1160,6 +1160,7 @@ public class QueryUtils {
     QueryObserver observer = QueryObserverHolder.getInstance();
     if (noOfIndexesToUse == 2) {
       List data = null;
+      long lookupStart = QueryExplanation.startIndexLookup(context);
       try {
         ArrayList resultData = new ArrayList();
         observer.beforeIndexLookup(indxInfo[0]._index, OQLLexerTokenTypes.TOK_EQ, null);
@@ -1171,6 +1172,8 @@ public class QueryUtils {
         }
       } finally {
         observer.afterIndexLookup(data);
+        QueryExplanation.endIndexJoin(context, indxInfo[0]._index, indxInfo[1]._index, lookupStart,
+            data);
       }
       // For sure we need to evaluate both the conditions & expand it only to
       // its own respective
@@ -1310,6 +1313,7 @@ public class QueryUtils {
       // iterate over the intermediate structset
       Iterator intrmdtRsItr = intermediateResults.iterator();
       observer = QueryObserverHolder.getInstance();
+      long lookupStart = QueryExplanation.startIndexLookup(context);
       try {
         observer.beforeIndexLookup(singleUsblIndex, OQLLexerTokenTypes.TOK_EQ, null);
         observer.beforeIterJoinOfSingleIndexResults(singleUsblIndex, nonUsableICH.indxInfo._index);
@@ -1335,6 +1339,7 @@ public class QueryUtils {
       } finally {
         observer.afterIterJoinOfSingleIndexResults(returnSet);
         observer.afterIndexLookup(returnSet);
+        QueryExplanation.endIndexLookup(context, singleUsblIndex, lookupStart, returnSet);
       }
       return returnSet;
     } else {
@@ -119,6 +119,11 @@ public class RangeJunction extends AbstractGroupOrRangeJunction {
       return thisSize <= comparedTo.getSizeEstimate(context);
     }
 
+    if (CostBasedPlanner.isEnabled()) {
+      return CostBasedPlanner.isCheaper(getOperator(), thisSize, comparedTo.getOperator(),
+          comparedTo.getSizeEstimate(context));
+    }
+
     int thatOperator = comparedTo.getOperator();
     switch (thatOperator) {
       case TOK_EQ:
@@ -511,7 +516,11 @@ public class RangeJunction extends AbstractGroupOrRangeJunction {
     Support.assertionFailed("Should not have come here");
   }
 
-  public int getSizeEstimate(ExecutionContext context) {
+  public int getSizeEstimate(ExecutionContext context) throws FunctionDomainException,
+      TypeMismatchException, NameResolutionException, QueryInvocationTargetException {
+    if (CostBasedPlanner.isEnabled()) {
+      return CostBasedPlanner.estimateRangeJunctionSize(this._operands, context);
+    }
     // TODO:Asif:Try to estimate better
     return RANGE_SIZE_ESTIMATE;
   }
@@ -759,6 +768,7 @@ public class RangeJunction extends AbstractGroupOrRangeJunction {
        * StructBag , then only we need to do any expansion.
        *
        */
+      long lookupStart = QueryExplanation.startIndexLookup(context);
       try {
         observer.beforeIndexLookup(this.indxInfo._index, OQLLexerTokenTypes.TOK_NE,
             this.notEqualTypeKeys);
@@ -766,6 +776,7 @@ public class RangeJunction extends AbstractGroupOrRangeJunction {
         this.indxInfo._index.query(set, notEqualTypeKeys, context);
       } finally {
         observer.afterIndexLookup(set);
+        QueryExplanation.endIndexLookup(context, this.indxInfo._index, lookupStart, set);
       }
       return QueryUtils.getConditionedIndexResults(set, this.indxInfo, context, indexFieldsSize,
           completeExpansionNeeded, iterOperands, indpndntItrs);
@@ -814,7 +825,12 @@ public class RangeJunction extends AbstractGroupOrRangeJunction {
       return NOTEQUALCONDITIONEVALUATOR;
     }
 
-    public int getSizeEstimate(ExecutionContext context) {
+    public int getSizeEstimate(ExecutionContext context) throws TypeMismatchException {
+      if (CostBasedPlanner.isEnabled() && this.notEqualTypeKeys != null
+          && !this.notEqualTypeKeys.isEmpty()) {
+        return this.indxInfo._index.getSizeEstimate(this.notEqualTypeKeys.iterator().next(),
+            TOK_NE, this.indxInfo._matchLevel);
+      }
       return RANGE_SIZE_ESTIMATE;
     }
 
@@ -842,6 +858,11 @@ public class RangeJunction extends AbstractGroupOrRangeJunction {
         return thisSize <= comparedTo.getSizeEstimate(context);
       }
 
+      if (CostBasedPlanner.isEnabled()) {
+        return CostBasedPlanner.isCheaper(getOperator(), thisSize, thatOperator,
+            comparedTo.getSizeEstimate(context));
+      }
+
       switch (thatOperator) {
         case TOK_EQ:
           isThisBetter = false;
@@ -947,12 +968,14 @@ public class RangeJunction extends AbstractGroupOrRangeJunction {
        * StructBag , then only we need to do any expansion.
        *
        */
+      long lookupStart = QueryExplanation.startIndexLookup(context);
       try {
         observer.beforeIndexLookup(this.indxInfo._index, this.condnOp, this.condnKey);
         context.cachePut(CompiledValue.INDEX_INFO, this.indxInfo);
         this.indxInfo._index.query(this.condnKey, this.condnOp, set, notEqualTypeKeys, context);
       } finally {
         observer.afterIndexLookup(set);
+        QueryExplanation.endIndexLookup(context, this.indxInfo._index, lookupStart, set);
       }
       return QueryUtils.getConditionedIndexResults(set, this.indxInfo, context, indexFieldsSize,
           completeExpansionNeeded, iterOperands, indpndntItrs);
@@ -974,6 +997,15 @@ public class RangeJunction extends AbstractGroupOrRangeJunction {
       return SINGLECONDNEVALUATOR;
     }
 
+    @Override
+    public int getSizeEstimate(ExecutionContext context) throws TypeMismatchException {
+      if (CostBasedPlanner.isEnabled()) {
+        return this.indxInfo._index.getSizeEstimate(this.condnKey, this.condnOp,
+            this.indxInfo._matchLevel);
+      }
+      return RANGE_SIZE_ESTIMATE;
+    }
+
     @Override
     public void visitNodes(NodeVisitor visitor) {
       Support.assertionFailed("Should not have come here");
@@ -1087,6 +1119,7 @@ public class RangeJunction extends AbstractGroupOrRangeJunction {
        * StructBag , then only we need to do any expansion.
        *
        */
+      long lookupStart = QueryExplanation.startIndexLookup(context);
       try {
         observer.beforeIndexLookup(this.indxInfo._index, this.greaterCondnOp, this.greaterCondnKey,
             this.lessCondnOp, this.lessCondnKey, this.notEqualTypeKeys);
@@ -1095,6 +1128,7 @@ public class RangeJunction extends AbstractGroupOrRangeJunction {
             this.lessCondnOp, set, notEqualTypeKeys, context);
       } finally {
         observer.afterIndexLookup(set);
+        QueryExplanation.endIndexLookup(context, this.indxInfo._index, lookupStart, set);
       }
       return QueryUtils.getConditionedIndexResults(set, this.indxInfo, context, indexFieldsSize,
           completeExpansionNeeded, iterOperands, indpndntItrs);
@@ -1126,6 +1160,15 @@ public class RangeJunction extends AbstractGroupOrRangeJunction {
       return DOUBLECONDNRANGEJUNCTIONEVALUATOR;
     }
 
+    @Override
+    public int getSizeEstimate(ExecutionContext context) throws TypeMismatchException {
+      if (CostBasedPlanner.isEnabled()) {
+        return this.indxInfo._index.getSizeEstimate(this.greaterCondnKey, this.greaterCondnOp,
+            this.lessCondnKey, this.lessCondnOp, this.indxInfo._matchLevel);
+      }
+      return RANGE_SIZE_ESTIMATE;
+    }
+
     @Override
     public void visitNodes(NodeVisitor visitor) {
       Support.assertionFailed("Should not have come here");
@@ -48,6 +48,9 @@ public class SortedResultSet extends TreeSet
 
   private ObjectType elementType;
 
+  /** the number of elements kept when only the top N in sort order are needed; 0 to keep all */
+  private transient int topNBound;
+
   public SortedResultSet() {}
 
   SortedResultSet(Collection c) {
@@ -79,6 +82,23 @@ public class SortedResultSet extends TreeSet
     return super.equals(other);
   }
 
+  /**
+   * Keeps no more than the first {@code bound} elements in sort order, dropping the last element
+   * whenever an addition exceeds the bound.
+   */
+  void setTopNBound(int bound) {
+    this.topNBound = bound;
+  }
+
+  @Override
+  public boolean add(Object element) {
+    boolean added = super.add(element);
+    if (this.topNBound > 0 && size() > this.topNBound) {
+      OrderByComparator.rowDropped(comparator(), pollLast());
+    }
+    return added;
+  }
+
   public void setElementType(ObjectType elementType) {
     if (elementType instanceof StructType)
       throw new IllegalArgumentException(
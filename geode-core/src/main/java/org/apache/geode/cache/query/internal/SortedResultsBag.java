@@ -40,6 +40,8 @@ public class SortedResultsBag<E> extends Bag implements Ordered {
   private final Map<E, Integer> sortedMap;
   private final boolean orderedDataAddition;
   private final boolean emitNullAtStart;
+  /** the number of elements kept when only the top N in sort order are needed; 0 to keep all */
+  private int topNBound;
 
   /**
    * Constructor for unordered input
@@ -140,6 +142,50 @@ public class SortedResultsBag<E> extends Bag implements Ordered {
     return false;
   }
 
+  /**
+   * Keeps no more than the first {@code bound} elements in sort order. Once an addition exceeds the
+   * bound the last element is dropped, so an ORDER BY with a LIMIT holds at most LIMIT rows rather
+   * than every row it iterates. Ignored for ordered input, which is limited as it is added.
+   */
+  void setTopNBound(int bound) {
+    if (!this.orderedDataAddition) {
+      this.topNBound = bound;
+    }
+  }
+
+  @Override
+  public boolean add(Object element) {
+    boolean added = super.add(element);
+    dropElementsBeyondTopN();
+    return added;
+  }
+
+  @Override
+  public int addAndGetOccurence(Object element) {
+    int occurrence = super.addAndGetOccurence(element);
+    dropElementsBeyondTopN();
+    return occurrence;
+  }
+
+  private void dropElementsBeyondTopN() {
+    if (this.topNBound <= 0 || this.size <= this.topNBound) {
+      return;
+    }
+    if (this.numNulls > 0 && (!this.emitNullAtStart || this.sortedMap.isEmpty())) {
+      this.numNulls--;
+    } else {
+      E last = ((SortedMap<E, Integer>) this.sortedMap).lastKey();
+      int count = mapGet(last);
+      if (count == 1) {
+        mapRemove(last);
+        OrderByComparator.rowDropped(comparator(), last);
+      } else {
+        mapPut(last, count - 1);
+      }
+    }
+    this.size--;
+  }
+
   @Override
   protected int mapGet(Object element) {
     Integer count = this.sortedMap.get(element);
@@ -54,6 +54,9 @@ public class SortedStructSet extends TreeSet
    */
   private boolean modifiable = true;
 
+  /** the number of elements kept when only the top N in sort order are needed; 0 to keep all */
+  private transient int topNBound;
+
   /** Creates a new instance of StructSet */
   public SortedStructSet() {};
 
@@ -113,7 +116,19 @@ public class SortedStructSet extends TreeSet
    * For internal use. Just add the Object[] values for a struct with same type
    */
   public boolean addFieldValues(Object[] fieldValues) {
-    return super.add(fieldValues);
+    boolean added = super.add(fieldValues);
+    if (this.topNBound > 0 && size() > this.topNBound) {
+      OrderByComparator.rowDropped(comparator(), pollLast());
+    }
+    return added;
+  }
+
+  /**
+   * Keeps no more than the first {@code bound} structs in sort order, dropping the last one
+   * whenever an addition exceeds the bound.
+   */
+  void setTopNBound(int bound) {
+    this.topNBound = bound;
   }
 
   /**
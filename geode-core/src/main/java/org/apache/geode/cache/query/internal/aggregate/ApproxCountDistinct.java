@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.aggregate;
+
+import java.io.IOException;
+
+import org.apache.geode.InternalGemFireException;
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.internal.hll.CardinalityMergeException;
+import org.apache.geode.internal.hll.HyperLogLogPlus;
+
+/**
+ * Estimates the count of distinct values with a {@link HyperLogLogPlus} sketch. Used in place of
+ * {@link CountDistinct} when approximate distinct counts are enabled.
+ *
+ * @since Geode 1.8
+ */
+public class ApproxCountDistinct extends AbstractAggregator {
+
+  private static final int PRECISION = 12;
+
+  private static final int SPARSE_PRECISION = 25;
+
+  /** starts in the sparse format, so that small groups stay small */
+  protected final HyperLogLogPlus sketch = new HyperLogLogPlus(PRECISION, SPARSE_PRECISION);
+
+  @Override
+  public void accumulate(Object value) {
+    if (value != null && value != QueryService.UNDEFINED) {
+      this.sketch.offer(value);
+    }
+  }
+
+  @Override
+  public void init() {}
+
+  @Override
+  public Object terminate() {
+    return Integer.valueOf((int) Math.min(Integer.MAX_VALUE, this.sketch.cardinality()));
+  }
+
+  /**
+   * Returns the sketch in the form sent to the node combining the sketches.
+   */
+  protected byte[] getSketchBytes() {
+    try {
+      return this.sketch.getBytes();
+    } catch (IOException e) {
+      throw new InternalGemFireException(e);
+    }
+  }
+
+  /**
+   * Folds in a sketch returned by {@link #getSketchBytes()}.
+   */
+  protected void mergeSketch(byte[] bytes) {
+    try {
+      this.sketch.addAll(HyperLogLogPlus.Builder.build(bytes));
+    } catch (IOException | CardinalityMergeException e) {
+      throw new InternalGemFireException(e);
+    }
+  }
+
+}
@@ -23,6 +23,11 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -61,10 +66,12 @@ import org.apache.geode.cache.query.internal.Support;
 import org.apache.geode.cache.query.internal.index.IndexStore.IndexStoreEntry;
 import org.apache.geode.cache.query.internal.parse.OQLLexerTokenTypes;
 import org.apache.geode.cache.query.internal.types.StructTypeImpl;
+import org.apache.geode.cache.query.internal.types.TypeUtils;
 import org.apache.geode.cache.query.types.ObjectType;
 import org.apache.geode.internal.Assert;
 import org.apache.geode.internal.cache.BucketRegion;
 import org.apache.geode.internal.cache.CachedDeserializable;
+import org.apache.geode.internal.cache.GemfireCacheHelper;
 import org.apache.geode.internal.cache.InternalCache;
 import org.apache.geode.internal.cache.LocalRegion;
 import org.apache.geode.internal.cache.PartitionedRegion;
@@ -74,6 +81,7 @@ import org.apache.geode.internal.cache.partitioned.Bucket;
 import org.apache.geode.internal.cache.persistence.query.CloseableIterator;
 import org.apache.geode.internal.i18n.LocalizedStrings;
 import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.internal.logging.LoggingThreadGroup;
 import org.apache.geode.internal.offheap.annotations.Retained;
 import org.apache.geode.pdx.PdxInstance;
 import org.apache.geode.pdx.internal.PdxString;
@@ -90,6 +98,22 @@ import org.apache.geode.pdx.internal.PdxString;
 public abstract class AbstractIndex implements IndexProtocol {
   private static final Logger logger = LogService.getLogger();
 
+  /**
+   * Rebuilds the key statistics of all indexes so that queries never scan an index themselves. Its
+   * only thread times out when there is nothing to rebuild.
+   */
+  private static final ThreadPoolExecutor keyStatisticsPool = createKeyStatisticsPool();
+
+  private static ThreadPoolExecutor createKeyStatisticsPool() {
+    ThreadGroup group =
+        LoggingThreadGroup.createThreadGroup("Index Key Statistics Thread Group", logger);
+    ThreadPoolExecutor pool = new ThreadPoolExecutor(1, 1, 10, TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(),
+        GemfireCacheHelper.CreateThreadFactory(group, "Index Key Statistics Builder"));
+    pool.allowCoreThreadTimeOut(true);
+    return pool;
+  }
+
   // package-private to avoid synthetic accessor
   static final AtomicIntegerFieldUpdater<RegionEntryToValuesMap> atomicUpdater =
       AtomicIntegerFieldUpdater.newUpdater(RegionEntryToValuesMap.class, "numValues");
@@ -120,6 +144,11 @@ public abstract class AbstractIndex implements IndexProtocol {
 
   InternalIndexStatistics internalIndexStats;
 
+  /** Key statistics for the cost-based planner, built lazily by indexes that keep them */
+  private volatile IndexKeyStatistics keyStatistics;
+
+  private final AtomicBoolean keyStatisticsRebuilding = new AtomicBoolean();
+
   /** For PartitionedIndex for now */
   protected Index prIndex;
 
@@ -182,6 +211,105 @@ public abstract class AbstractIndex implements IndexProtocol {
     return this.internalIndexStats;
   }
 
+  /**
+   * Returns the key statistics of this index used by the cost-based planner. If there are none yet,
+   * or the index has been updated enough since they were built, a rebuild is scheduled in the
+   * background and the previous statistics are returned meanwhile.
+   *
+   * @return the key statistics, or null if the planner is disabled, this index keeps none or they
+   *         have not been built yet
+   */
+  public IndexKeyStatistics getKeyStatistics() {
+    if (!IndexManager.COST_BASED_PLANNER) {
+      return null;
+    }
+    IndexKeyStatistics statistics = this.keyStatistics;
+    long numUpdates = this.internalIndexStats.getNumUpdates();
+    if ((statistics == null || statistics.isStale(numUpdates))
+        && this.keyStatisticsRebuilding.compareAndSet(false, true)) {
+      try {
+        keyStatisticsPool.execute(this::rebuildKeyStatistics);
+      } catch (RejectedExecutionException e) {
+        this.keyStatisticsRebuilding.set(false);
+      }
+    }
+    return statistics;
+  }
+
+  private void rebuildKeyStatistics() {
+    try {
+      if (!isValid()) {
+        return;
+      }
+      IndexKeyStatistics.Builder builder = new IndexKeyStatistics.Builder(
+          this.internalIndexStats.getNumberOfValues(), this.internalIndexStats.getNumUpdates());
+      if (collectKeyStatistics(builder)) {
+        this.keyStatistics = builder.build();
+      }
+    } catch (RuntimeException e) {
+      if (logger.isDebugEnabled()) {
+        logger.debug("Could not rebuild the key statistics of index {}", this.indexName, e);
+      }
+    } finally {
+      this.keyStatisticsRebuilding.set(false);
+    }
+  }
+
+  /**
+   * Adds the keys of this index, in ascending order, with their number of values to the builder.
+   * Indexes that do not keep their keys sorted return false.
+   */
+  boolean collectKeyStatistics(IndexKeyStatistics.Builder builder) {
+    return false;
+  }
+
+  /**
+   * Returns the number of values of a range condition estimated from the key statistics of this
+   * index, or -1 if there are no statistics or the keys cannot be compared with those of the index.
+   * A null operator means there is no bound on that side.
+   */
+  int estimateRangeSize(Object lowerKey, int lowerOp, Object upperKey, int upperOp,
+      int matchLevel) throws TypeMismatchException {
+    if (matchLevel > 0 || !isEstimableBound(lowerKey, lowerOp)
+        || !isEstimableBound(upperKey, upperOp)) {
+      return -1;
+    }
+    IndexKeyStatistics statistics = getKeyStatistics();
+    if (statistics == null) {
+      return -1;
+    }
+    if (lowerKey != null) {
+      lowerKey = getPdxStringForIndexedPdxKeys(TypeUtils.indexKeyFor(lowerKey));
+    }
+    if (upperKey != null) {
+      upperKey = getPdxStringForIndexedPdxKeys(TypeUtils.indexKeyFor(upperKey));
+    }
+    return statistics.estimateRange(lowerKey, lowerOp == OQLLexerTokenTypes.TOK_GE, upperKey,
+        upperOp == OQLLexerTokenTypes.TOK_LE);
+  }
+
+  /**
+   * The key statistics do not cover null and undefined keys, so a bound on them is not estimated.
+   */
+  private static boolean isEstimableBound(Object key, int op) {
+    return op == 0 || (key != null && key != IndexManager.NULL && key != QueryService.UNDEFINED);
+  }
+
+  /**
+   * Returns the estimated number of values of a range condition with both a lower and an upper
+   * bound. Indexes without key statistics use the smaller of the two single bound estimates.
+   */
+  @Override
+  public int getSizeEstimate(Object lowerKey, int lowerOp, Object upperKey, int upperOp,
+      int matchLevel) throws TypeMismatchException {
+    int size = estimateRangeSize(lowerKey, lowerOp, upperKey, upperOp, matchLevel);
+    if (size >= 0) {
+      return size;
+    }
+    return Math.min(getSizeEstimate(lowerKey, lowerOp, matchLevel),
+        getSizeEstimate(upperKey, upperOp, matchLevel));
+  }
+
   @Override
   public void destroy() {
     markValid(false);
@@ -203,6 +331,15 @@ public abstract class AbstractIndex implements IndexProtocol {
     this.internalIndexStats.incUpdateTime(end - start);
   }
 
+  /**
+   * Records a batch of asynchronous updates applied to this index.
+   *
+   * @param lagMillis the time the oldest update of the batch waited to be applied
+   */
+  void recordAsyncUpdateBatch(long lagMillis) {
+    this.internalIndexStats.recordAsyncUpdateBatch(lagMillis);
+  }
+
   long updateIndexUseStats() {
     return updateIndexUseStats(true);
   }
@@ -921,6 +1058,8 @@ public abstract class AbstractIndex implements IndexProtocol {
     public void incReadLockCount(int delta) {}
 
     public void incNumBucketIndexes(int delta) {}
+
+    public void recordAsyncUpdateBatch(long lagMillis) {}
   }
 
   class IMQEvaluator implements IndexedExpressionEvaluator {
@@ -148,6 +148,10 @@ public abstract class AbstractMapIndex extends AbstractIndex {
       this.vsdStats.incReadLockCount(delta);
     }
 
+    public void recordAsyncUpdateBatch(long lagMillis) {
+      this.vsdStats.recordAsyncUpdateBatch(lagMillis);
+    }
+
     /**
      * Returns the total amount of time (in nanoseconds) spent updating this index.
      */
@@ -0,0 +1,453 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.index;
+
+import static org.apache.geode.internal.lang.SystemUtils.getLineSeparator;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.query.FunctionDomainException;
+import org.apache.geode.cache.query.IndexStatistics;
+import org.apache.geode.cache.query.IndexType;
+import org.apache.geode.cache.query.NameResolutionException;
+import org.apache.geode.cache.query.QueryInvocationTargetException;
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.cache.query.TypeMismatchException;
+import org.apache.geode.cache.query.internal.BitmapJunction;
+import org.apache.geode.cache.query.internal.CompiledValue;
+import org.apache.geode.cache.query.internal.ExecutionContext;
+import org.apache.geode.cache.query.internal.IndexInfo;
+import org.apache.geode.cache.query.internal.parse.OQLLexerTokenTypes;
+import org.apache.geode.cache.query.internal.types.TypeUtils;
+import org.apache.geode.internal.cache.InternalCache;
+import org.apache.geode.internal.cache.RegionEntry;
+import org.apache.geode.internal.cache.Token;
+
+/**
+ * A hash index for low cardinality expressions that keeps, for every distinct key, a
+ * {@link CompressedBitmap} of the ordinals of the entries holding that key. Ordinals come from the
+ * {@link EntryOrdinals} of the region, so the bitmaps of all bitmap indexes on a region can be
+ * intersected and unioned directly: a {@link BitmapJunction} answers a conjunction or disjunction
+ * of equality conditions on several bitmap indexes with bitmap operations and only fetches the
+ * entries in the final result.
+ *
+ * The key an entry is held under is found by probing the bitmap of each key for the entry's
+ * ordinal, so removing or moving an entry never has to re-evaluate its old value. Bitmap indexes
+ * are meant for expressions with few distinct values, which keeps that probe cheap; in exchange the
+ * index holds nothing per entry besides its bits. It keeps none of the storage of a
+ * {@link HashIndex} either.
+ *
+ * @since Geode 1.8
+ */
+public class BitmapIndex extends HashIndex {
+
+  private final EntryOrdinals entryOrdinals;
+
+  /** guards the bitmaps below; queries copy what they need under the read lock */
+  private final ReadWriteLock bitmapLock = new ReentrantReadWriteLock();
+
+  /** the ordinals of the entries held under each key. Package access for unit tests. */
+  final ConcurrentMap<Object, CompressedBitmap> keyToBitmap = new ConcurrentHashMap<>();
+
+  public BitmapIndex(InternalCache cache, String indexName, Region region, String fromClause,
+      String indexedExpression, String projectionAttributes, String origFromClause,
+      String origIndexExpr, String[] definitions, IndexStatistics stats,
+      EntryOrdinals entryOrdinals) {
+    super(cache, indexName, region, fromClause, indexedExpression, projectionAttributes,
+        origFromClause, origIndexExpr, definitions, stats, false);
+    this.entryOrdinals = entryOrdinals;
+  }
+
+  @Override
+  public IndexType getType() {
+    return IndexType.BITMAP;
+  }
+
+  public EntryOrdinals getEntryOrdinals() {
+    return this.entryOrdinals;
+  }
+
+  @Override
+  void basicAddMapping(Object key, RegionEntry entry) throws IMQException {
+    try {
+      Object newKey = TypeUtils.indexKeyFor(key);
+      if (newKey.equals(QueryService.UNDEFINED)
+          && Token.isInvalidOrRemoved(getTargetObjectForUpdate(entry))) {
+        // a removed or invalid token is being added; drop any mapping left for the entry
+        removeAllMappings(entry);
+        return;
+      }
+      this.bitmapLock.writeLock().lock();
+      try {
+        int ordinal = this.entryOrdinals.getOrdinal(entry);
+        Object oldKey = ordinal >= 0 ? findKey(ordinal) : null;
+        if (oldKey != null) {
+          if (oldKey.equals(newKey)) {
+            return;
+          }
+          removeFromBitmap(oldKey, ordinal);
+        } else {
+          ordinal = this.entryOrdinals.acquire(entry);
+          internalIndexStats.incNumValues(1);
+        }
+        CompressedBitmap bitmap = this.keyToBitmap.get(newKey);
+        if (bitmap == null) {
+          bitmap = new CompressedBitmap();
+          this.keyToBitmap.put(newKey, bitmap);
+          internalIndexStats.incNumKeys(1);
+        }
+        bitmap.add(ordinal);
+      } finally {
+        this.bitmapLock.writeLock().unlock();
+      }
+    } catch (TypeMismatchException ex) {
+      throw new IMQException("Could not add object of type " + key.getClass().getName(), ex);
+    }
+  }
+
+  @Override
+  void removeMapping(RegionEntry entry, int opCode) throws IMQException {
+    // The key an entry is held under is tracked by ordinal, so there is no old key to capture
+    // before an update and no thread local state to clean up afterwards.
+    if (opCode == BEFORE_UPDATE_OP || opCode == CLEAN_UP_THREAD_LOCALS) {
+      return;
+    }
+    removeAllMappings(entry);
+    if (opCode != REMOVE_DUE_TO_GII_TOMBSTONE_CLEANUP) {
+      this.internalIndexStats.incNumUpdates();
+    }
+  }
+
+  @Override
+  void basicRemoveMapping(Object key, RegionEntry entry, boolean updateReverseMap) {
+    removeAllMappings(entry);
+  }
+
+  @Override
+  void removeAllMappings(RegionEntry entry) {
+    this.bitmapLock.writeLock().lock();
+    try {
+      int ordinal = this.entryOrdinals.getOrdinal(entry);
+      Object key = ordinal >= 0 ? findKey(ordinal) : null;
+      if (key == null) {
+        return;
+      }
+      removeFromBitmap(key, ordinal);
+      this.entryOrdinals.release(entry);
+      internalIndexStats.incNumValues(-1);
+    } finally {
+      this.bitmapLock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the key whose bitmap holds the ordinal, or null if this index does not hold it. Method
+   * called while the lock is held.
+   */
+  private Object findKey(int ordinal) {
+    for (Map.Entry<Object, CompressedBitmap> entry : this.keyToBitmap.entrySet()) {
+      if (entry.getValue().contains(ordinal)) {
+        return entry.getKey();
+      }
+    }
+    return null;
+  }
+
+  /** Method called while the write lock is held */
+  private void removeFromBitmap(Object key, int ordinal) {
+    CompressedBitmap bitmap = this.keyToBitmap.get(key);
+    if (bitmap != null && bitmap.remove(ordinal) && bitmap.isEmpty()) {
+      this.keyToBitmap.remove(key);
+      internalIndexStats.incNumKeys(-1);
+    }
+  }
+
+  @Override
+  public boolean containsEntry(RegionEntry entry) {
+    this.bitmapLock.readLock().lock();
+    try {
+      int ordinal = this.entryOrdinals.getOrdinal(entry);
+      return ordinal >= 0 && findKey(ordinal) != null;
+    } finally {
+      this.bitmapLock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Returns a copy of the ordinals matching the condition "indexedExpression operator key", which
+   * the caller is free to combine with bitmaps of other indexes on the same region.
+   *
+   * @param operator one of TOK_EQ, TOK_NE and TOK_NE_ALT
+   */
+  public CompressedBitmap getBitmap(Object key, int operator) throws TypeMismatchException {
+    key = TypeUtils.indexKeyFor(key);
+    if (key == null) {
+      key = IndexManager.NULL;
+    }
+    switch (operator) {
+      case OQLLexerTokenTypes.TOK_EQ:
+        if (key.equals(QueryService.UNDEFINED)) {
+          // direct comparison with UNDEFINED never matches
+          return new CompressedBitmap();
+        }
+        return getBitmap(key);
+      case OQLLexerTokenTypes.TOK_NE_ALT:
+      case OQLLexerTokenTypes.TOK_NE:
+        return getBitmapNotMatching(Collections.singleton(key));
+      default:
+        throw new AssertionError("Operator = " + operator);
+    }
+  }
+
+  /**
+   * @return a bitmap of every entry held by this index, including those with UNDEFINED keys
+   */
+  public CompressedBitmap getAllEntries() {
+    return getBitmapNotMatching(Collections.emptySet());
+  }
+
+  private CompressedBitmap getBitmap(Object key) {
+    this.bitmapLock.readLock().lock();
+    try {
+      CompressedBitmap bitmap = this.keyToBitmap.get(key);
+      return bitmap == null ? new CompressedBitmap() : bitmap.copy();
+    } finally {
+      this.bitmapLock.readLock().unlock();
+    }
+  }
+
+  private CompressedBitmap getBitmapNotMatching(Collection keysToRemove) {
+    this.bitmapLock.readLock().lock();
+    try {
+      CompressedBitmap result = new CompressedBitmap();
+      for (Map.Entry<Object, CompressedBitmap> entry : this.keyToBitmap.entrySet()) {
+        if (!keysToRemove.contains(entry.getKey())) {
+          result = result.or(entry.getValue());
+        }
+      }
+      return result;
+    } finally {
+      this.bitmapLock.readLock().unlock();
+    }
+  }
+
+  @Override
+  Iterator getEntries(Object key, ExecutionContext context)
+      throws TypeMismatchException, QueryInvocationTargetException {
+    BitmapJunction filter = getActiveFilter(context);
+    if (filter != null) {
+      return new EntryIterator(filter.evaluateBitmap(this, context));
+    }
+    return new EntryIterator(getBitmap(key));
+  }
+
+  @Override
+  Iterator getEntriesNotMatching(Set keysToRemove, ExecutionContext context)
+      throws TypeMismatchException, QueryInvocationTargetException {
+    BitmapJunction filter = getActiveFilter(context);
+    if (filter != null) {
+      return new EntryIterator(filter.evaluateBitmap(this, context));
+    }
+    return new EntryIterator(getBitmapNotMatching(keysToRemove));
+  }
+
+  @Override
+  boolean needsVerification(RegionEntry re, ExecutionContext context,
+      long iteratorCreationTime) {
+    BitmapJunction filter = getActiveFilter(context);
+    if (filter != null && !filter.isExact()) {
+      return true;
+    }
+    return super.needsVerification(re, context, iteratorCreationTime);
+  }
+
+  @Override
+  boolean evaluateEntry(IndexInfo indexInfo, ExecutionContext context, Object keyVal)
+      throws FunctionDomainException, TypeMismatchException, NameResolutionException,
+      QueryInvocationTargetException {
+    BitmapJunction filter = getActiveFilter(context);
+    if (filter != null) {
+      // the entry was found through the combined bitmap, so verify every combined condition
+      return filter.verify(context);
+    }
+    return super.evaluateEntry(indexInfo, context, keyVal);
+  }
+
+  /**
+   * @return the bitmap junction being evaluated through this index, if any
+   */
+  private BitmapJunction getActiveFilter(ExecutionContext context) {
+    if (context == null) {
+      return null;
+    }
+    BitmapJunction filter = (BitmapJunction) context.cacheGet(CompiledValue.BITMAP_FILTER);
+    return filter != null && filter.isEvaluatedBy(this) ? filter : null;
+  }
+
+  @Override
+  public int getSizeEstimate(Object key, int operator, int matchLevel)
+      throws TypeMismatchException {
+    long start = updateIndexUseStats(false);
+    try {
+      key = TypeUtils.indexKeyFor(key);
+      if (key == null) {
+        key = IndexManager.NULL;
+      }
+      CompressedBitmap bitmap = this.keyToBitmap.get(key);
+      int size;
+      this.bitmapLock.readLock().lock();
+      try {
+        size = bitmap == null ? 0 : bitmap.cardinality();
+      } finally {
+        this.bitmapLock.readLock().unlock();
+      }
+      if (operator == OQLLexerTokenTypes.TOK_NE || operator == OQLLexerTokenTypes.TOK_NE_ALT) {
+        size = (int) this.internalIndexStats.getNumberOfValues() - size;
+      }
+      return size;
+    } finally {
+      updateIndexUseEndStats(start, false);
+    }
+  }
+
+  @Override
+  void clearEntries() {
+    this.bitmapLock.writeLock().lock();
+    try {
+      // every ordinal held by this index is in exactly one bitmap
+      for (CompressedBitmap bitmap : this.keyToBitmap.values()) {
+        PrimitiveIterator.OfInt ordinals = bitmap.iterator();
+        while (ordinals.hasNext()) {
+          RegionEntry entry = this.entryOrdinals.getEntry(ordinals.nextInt());
+          if (entry != null) {
+            this.entryOrdinals.release(entry);
+          }
+        }
+      }
+      this.keyToBitmap.clear();
+    } finally {
+      this.bitmapLock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return this.keyToBitmap.isEmpty();
+  }
+
+  @Override
+  public String dump() {
+    StringBuilder sb = new StringBuilder(toString()).append(" {").append(getLineSeparator());
+    sb.append(" -----------------------------------------------").append(getLineSeparator());
+    this.bitmapLock.readLock().lock();
+    try {
+      for (Map.Entry<Object, CompressedBitmap> entry : this.keyToBitmap.entrySet()) {
+        sb.append(" Key = ").append(entry.getKey()).append(getLineSeparator());
+        sb.append(" Value Size = ").append(' ').append(entry.getValue().cardinality())
+            .append(getLineSeparator());
+        sb.append(" -----------------------------------------------").append(getLineSeparator());
+      }
+    } finally {
+      this.bitmapLock.readLock().unlock();
+    }
+    sb.append("}// Index ").append(getName()).append(" end");
+    return sb.toString();
+  }
+
+  @Override
+  public List queryEquijoinCondition(IndexProtocol indx, ExecutionContext context) {
+    throw new UnsupportedOperationException(
+        "Equi join conditions are not supported by bitmap indexes");
+  }
+
+  @Override
+  protected InternalIndexStatistics createStats(String indexName) {
+    return new BitmapIndexStatistics(indexName);
+  }
+
+  class BitmapIndexStatistics extends RangeIndexStatistics {
+
+    BitmapIndexStatistics(String indexName) {
+      super(indexName);
+    }
+
+    /**
+     * Return the number of values for the specified key in this index.
+     */
+    @Override
+    public long getNumberOfValues(Object key) {
+      CompressedBitmap bitmap = keyToBitmap.get(key);
+      if (bitmap == null) {
+        return 0;
+      }
+      bitmapLock.readLock().lock();
+      try {
+        return bitmap.cardinality();
+      } finally {
+        bitmapLock.readLock().unlock();
+      }
+    }
+  }
+
+  /**
+   * Iterates the entries of a bitmap snapshot. Ordinals released since the snapshot was taken are
+   * skipped; entries modified since then are verified by the caller as for any hash index lookup.
+   */
+  private class EntryIterator implements Iterator<RegionEntry> {
+
+    private final PrimitiveIterator.OfInt ordinals;
+
+    private RegionEntry next;
+
+    EntryIterator(CompressedBitmap bitmap) {
+      this.ordinals = bitmap.iterator();
+      advance();
+    }
+
+    private void advance() {
+      this.next = null;
+      while (this.next == null && this.ordinals.hasNext()) {
+        this.next = entryOrdinals.getEntry(this.ordinals.nextInt());
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      return this.next != null;
+    }
+
+    @Override
+    public RegionEntry next() {
+      if (this.next == null) {
+        throw new NoSuchElementException();
+      }
+      RegionEntry entry = this.next;
+      advance();
+      return entry;
+    }
+  }
+}
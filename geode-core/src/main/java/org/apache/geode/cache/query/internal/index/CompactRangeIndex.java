@@ -323,6 +323,10 @@ public class CompactRangeIndex extends AbstractIndex {
           break;
         case OQLLexerTokenTypes.TOK_LE:
         case OQLLexerTokenTypes.TOK_LT:
+          size = estimateRangeSize(null, 0, key, operator, matchLevel);
+          if (size >= 0) {
+            break;
+          }
           if (matchLevel <= 0 && (key instanceof Number)) {
 
             int totalSize = indexStore.size();
@@ -387,6 +391,10 @@ public class CompactRangeIndex extends AbstractIndex {
 
         case OQLLexerTokenTypes.TOK_GE:
         case OQLLexerTokenTypes.TOK_GT:
+          size = estimateRangeSize(key, operator, null, 0, matchLevel);
+          if (size >= 0) {
+            break;
+          }
           if (matchLevel <= 0 && (key instanceof Number)) {
             int totalSize = indexStore.size();
             if (CompactRangeIndex.testHook != null) {
@@ -1023,6 +1031,10 @@ public class CompactRangeIndex extends AbstractIndex {
       this.vsdStats.incReadLockCount(delta);
     }
 
+    public void recordAsyncUpdateBatch(long lagMillis) {
+      this.vsdStats.recordAsyncUpdateBatch(lagMillis);
+    }
+
     /**
      * Returns the total amount of time (in nanoseconds) spent updating this index.
      */
@@ -1632,6 +1644,18 @@ public class CompactRangeIndex extends AbstractIndex {
     return indexStore.size() == 0 ? true : false;
   }
 
+  @Override
+  boolean collectKeyStatistics(IndexKeyStatistics.Builder builder) {
+    if (!(indexStore instanceof MemoryIndexStore)) {
+      return false;
+    }
+    MemoryIndexStore memoryIndexStore = (MemoryIndexStore) indexStore;
+    for (Object key : memoryIndexStore.valueToEntriesMap.keySet()) {
+      builder.add(key, memoryIndexStore.size(key));
+    }
+    return true;
+  }
+
   @Override
   public Map getValueToEntriesMap() {
     throw new UnsupportedOperationException("valuesToEntriesMap should not be accessed directly");
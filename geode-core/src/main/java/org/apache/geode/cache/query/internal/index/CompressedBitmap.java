@@ -0,0 +1,580 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.index;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * A compressed set of non-negative int ordinals used by {@link BitmapIndex}. Ordinals are
+ * partitioned by their high 16 bits into containers; a container keeps the low 16 bits either as a
+ * sorted char array while it is sparse or as a 65536 bit word array once it holds more than
+ * {@link #ARRAY_CONTAINER_MAX} values. Intersections, unions and differences are computed container
+ * by container and always produce a new bitmap, leaving the operands untouched.
+ *
+ * This class is not thread safe; callers are expected to guard shared instances.
+ *
+ * @since Geode 1.8
+ */
+public class CompressedBitmap {
+
+  static final int ARRAY_CONTAINER_MAX = 4096;
+
+  private static final int[] NO_KEYS = new int[0];
+
+  private static final Container[] NO_CONTAINERS = new Container[0];
+
+  private int[] highKeys;
+
+  private Container[] containers;
+
+  private int size;
+
+  public CompressedBitmap() {
+    this(NO_KEYS, NO_CONTAINERS, 0);
+  }
+
+  private CompressedBitmap(int[] highKeys, Container[] containers, int size) {
+    this.highKeys = highKeys;
+    this.containers = containers;
+    this.size = size;
+  }
+
+  /**
+   * @return true if the ordinal was not already present
+   */
+  public boolean add(int ordinal) {
+    int high = ordinal >>> 16;
+    char low = (char) ordinal;
+    int index = Arrays.binarySearch(this.highKeys, 0, this.size, high);
+    if (index >= 0) {
+      Container container = this.containers[index];
+      if (container.contains(low)) {
+        return false;
+      }
+      this.containers[index] = container.add(low);
+    } else {
+      insertContainer(-index - 1, high, new ArrayContainer().add(low));
+    }
+    return true;
+  }
+
+  /**
+   * @return true if the ordinal was present
+   */
+  public boolean remove(int ordinal) {
+    int index = Arrays.binarySearch(this.highKeys, 0, this.size, ordinal >>> 16);
+    if (index < 0) {
+      return false;
+    }
+    char low = (char) ordinal;
+    Container container = this.containers[index];
+    if (!container.contains(low)) {
+      return false;
+    }
+    container = container.remove(low);
+    if (container.cardinality() == 0) {
+      removeContainer(index);
+    } else {
+      this.containers[index] = container;
+    }
+    return true;
+  }
+
+  public boolean contains(int ordinal) {
+    int index = Arrays.binarySearch(this.highKeys, 0, this.size, ordinal >>> 16);
+    return index >= 0 && this.containers[index].contains((char) ordinal);
+  }
+
+  public int cardinality() {
+    int cardinality = 0;
+    for (int i = 0; i < this.size; i++) {
+      cardinality += this.containers[i].cardinality();
+    }
+    return cardinality;
+  }
+
+  public boolean isEmpty() {
+    return this.size == 0;
+  }
+
+  public CompressedBitmap copy() {
+    Container[] copies = new Container[this.size];
+    for (int i = 0; i < this.size; i++) {
+      copies[i] = this.containers[i].copy();
+    }
+    return new CompressedBitmap(Arrays.copyOf(this.highKeys, this.size), copies, this.size);
+  }
+
+  /**
+   * @return a new bitmap holding the ordinals present in both this bitmap and the other
+   */
+  public CompressedBitmap and(CompressedBitmap other) {
+    int capacity = Math.min(this.size, other.size);
+    int[] keys = new int[capacity];
+    Container[] values = new Container[capacity];
+    int count = 0;
+    int i = 0;
+    int j = 0;
+    while (i < this.size && j < other.size) {
+      int compare = Integer.compare(this.highKeys[i], other.highKeys[j]);
+      if (compare < 0) {
+        i++;
+      } else if (compare > 0) {
+        j++;
+      } else {
+        Container container = this.containers[i].and(other.containers[j]);
+        if (container.cardinality() > 0) {
+          keys[count] = this.highKeys[i];
+          values[count++] = container;
+        }
+        i++;
+        j++;
+      }
+    }
+    return new CompressedBitmap(keys, values, count);
+  }
+
+  /**
+   * @return a new bitmap holding the ordinals present in either this bitmap or the other
+   */
+  public CompressedBitmap or(CompressedBitmap other) {
+    int capacity = this.size + other.size;
+    int[] keys = new int[capacity];
+    Container[] values = new Container[capacity];
+    int count = 0;
+    int i = 0;
+    int j = 0;
+    while (i < this.size || j < other.size) {
+      int compare = i == this.size ? 1
+          : j == other.size ? -1 : Integer.compare(this.highKeys[i], other.highKeys[j]);
+      if (compare < 0) {
+        keys[count] = this.highKeys[i];
+        values[count++] = this.containers[i++].copy();
+      } else if (compare > 0) {
+        keys[count] = other.highKeys[j];
+        values[count++] = other.containers[j++].copy();
+      } else {
+        keys[count] = this.highKeys[i];
+        values[count++] = this.containers[i++].or(other.containers[j++]);
+      }
+    }
+    return new CompressedBitmap(keys, values, count);
+  }
+
+  /**
+   * @return a new bitmap holding the ordinals present in this bitmap but not in the other
+   */
+  public CompressedBitmap andNot(CompressedBitmap other) {
+    int[] keys = new int[this.size];
+    Container[] values = new Container[this.size];
+    int count = 0;
+    int j = 0;
+    for (int i = 0; i < this.size; i++) {
+      while (j < other.size && other.highKeys[j] < this.highKeys[i]) {
+        j++;
+      }
+      Container container;
+      if (j < other.size && other.highKeys[j] == this.highKeys[i]) {
+        container = this.containers[i].andNot(other.containers[j]);
+      } else {
+        container = this.containers[i].copy();
+      }
+      if (container.cardinality() > 0) {
+        keys[count] = this.highKeys[i];
+        values[count++] = container;
+      }
+    }
+    return new CompressedBitmap(keys, values, count);
+  }
+
+  /**
+   * @return an iterator over the ordinals of this bitmap in ascending order
+   */
+  public PrimitiveIterator.OfInt iterator() {
+    return new PrimitiveIterator.OfInt() {
+      private int containerIndex = 0;
+      private int nextLow = nextLow(0, 0);
+
+      private int nextLow(int containerIndex, int fromLow) {
+        while (containerIndex < size) {
+          int low = containers[containerIndex].next(fromLow);
+          if (low >= 0) {
+            this.containerIndex = containerIndex;
+            return low;
+          }
+          containerIndex++;
+          fromLow = 0;
+        }
+        this.containerIndex = size;
+        return -1;
+      }
+
+      @Override
+      public boolean hasNext() {
+        return this.nextLow >= 0;
+      }
+
+      @Override
+      public int nextInt() {
+        if (this.nextLow < 0) {
+          throw new NoSuchElementException();
+        }
+        int ordinal = (highKeys[this.containerIndex] << 16) | this.nextLow;
+        this.nextLow = this.nextLow == 0xFFFF ? nextLow(this.containerIndex + 1, 0)
+            : nextLow(this.containerIndex, this.nextLow + 1);
+        return ordinal;
+      }
+    };
+  }
+
+  private void insertContainer(int index, int high, Container container) {
+    if (this.size == this.highKeys.length) {
+      int capacity = Math.max(4, this.size * 2);
+      this.highKeys = Arrays.copyOf(this.highKeys, capacity);
+      this.containers = Arrays.copyOf(this.containers, capacity);
+    }
+    System.arraycopy(this.highKeys, index, this.highKeys, index + 1, this.size - index);
+    System.arraycopy(this.containers, index, this.containers, index + 1, this.size - index);
+    this.highKeys[index] = high;
+    this.containers[index] = container;
+    this.size++;
+  }
+
+  private void removeContainer(int index) {
+    System.arraycopy(this.highKeys, index + 1, this.highKeys, index, this.size - index - 1);
+    System.arraycopy(this.containers, index + 1, this.containers, index, this.size - index - 1);
+    this.size--;
+    this.containers[this.size] = null;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder("CompressedBitmap[cardinality=").append(cardinality())
+        .append(", containers=").append(this.size).append(']');
+    return sb.toString();
+  }
+
+  /**
+   * The low 16 bits of the ordinals sharing the same high 16 bits. Mutators return the container
+   * that holds the result, which may be a different representation than the receiver.
+   */
+  private abstract static class Container {
+
+    abstract Container add(char low);
+
+    abstract Container remove(char low);
+
+    abstract boolean contains(char low);
+
+    abstract int cardinality();
+
+    /**
+     * @return the smallest value greater than or equal to fromLow, or -1 if there is none
+     */
+    abstract int next(int fromLow);
+
+    abstract Container copy();
+
+    abstract Container and(Container other);
+
+    abstract Container or(Container other);
+
+    abstract Container andNot(Container other);
+  }
+
+  private static class ArrayContainer extends Container {
+
+    private char[] values;
+
+    private int cardinality;
+
+    ArrayContainer() {
+      this(new char[4], 0);
+    }
+
+    ArrayContainer(char[] values, int cardinality) {
+      this.values = values;
+      this.cardinality = cardinality;
+    }
+
+    @Override
+    Container add(char low) {
+      int index = Arrays.binarySearch(this.values, 0, this.cardinality, low);
+      if (index >= 0) {
+        return this;
+      }
+      if (this.cardinality >= ARRAY_CONTAINER_MAX) {
+        return toBitmapContainer().add(low);
+      }
+      index = -index - 1;
+      if (this.cardinality == this.values.length) {
+        this.values = Arrays.copyOf(this.values,
+            Math.min(ARRAY_CONTAINER_MAX, Math.max(4, this.cardinality * 2)));
+      }
+      System.arraycopy(this.values, index, this.values, index + 1, this.cardinality - index);
+      this.values[index] = low;
+      this.cardinality++;
+      return this;
+    }
+
+    @Override
+    Container remove(char low) {
+      int index = Arrays.binarySearch(this.values, 0, this.cardinality, low);
+      if (index >= 0) {
+        System.arraycopy(this.values, index + 1, this.values, index, this.cardinality - index - 1);
+        this.cardinality--;
+      }
+      return this;
+    }
+
+    @Override
+    boolean contains(char low) {
+      return Arrays.binarySearch(this.values, 0, this.cardinality, low) >= 0;
+    }
+
+    @Override
+    int cardinality() {
+      return this.cardinality;
+    }
+
+    @Override
+    int next(int fromLow) {
+      if (fromLow > 0xFFFF) {
+        return -1;
+      }
+      int index = Arrays.binarySearch(this.values, 0, this.cardinality, (char) fromLow);
+      if (index < 0) {
+        index = -index - 1;
+      }
+      return index < this.cardinality ? this.values[index] : -1;
+    }
+
+    @Override
+    Container copy() {
+      return new ArrayContainer(Arrays.copyOf(this.values, Math.max(1, this.cardinality)),
+          this.cardinality);
+    }
+
+    @Override
+    Container and(Container other) {
+      char[] result = new char[this.cardinality];
+      int count = 0;
+      for (int i = 0; i < this.cardinality; i++) {
+        if (other.contains(this.values[i])) {
+          result[count++] = this.values[i];
+        }
+      }
+      return new ArrayContainer(result, count);
+    }
+
+    @Override
+    Container or(Container other) {
+      if (other instanceof BitmapContainer) {
+        return other.or(this);
+      }
+      ArrayContainer that = (ArrayContainer) other;
+      if (this.cardinality + that.cardinality > ARRAY_CONTAINER_MAX) {
+        return toBitmapContainer().or(that);
+      }
+      char[] result = new char[this.cardinality + that.cardinality];
+      int count = 0;
+      int i = 0;
+      int j = 0;
+      while (i < this.cardinality || j < that.cardinality) {
+        if (j == that.cardinality
+            || (i < this.cardinality && this.values[i] < that.values[j])) {
+          result[count++] = this.values[i++];
+        } else if (i == this.cardinality || that.values[j] < this.values[i]) {
+          result[count++] = that.values[j++];
+        } else {
+          result[count++] = this.values[i++];
+          j++;
+        }
+      }
+      return new ArrayContainer(result, count);
+    }
+
+    @Override
+    Container andNot(Container other) {
+      char[] result = new char[this.cardinality];
+      int count = 0;
+      for (int i = 0; i < this.cardinality; i++) {
+        if (!other.contains(this.values[i])) {
+          result[count++] = this.values[i];
+        }
+      }
+      return new ArrayContainer(result, count);
+    }
+
+    private BitmapContainer toBitmapContainer() {
+      BitmapContainer bitmap = new BitmapContainer();
+      for (int i = 0; i < this.cardinality; i++) {
+        bitmap.add(this.values[i]);
+      }
+      return bitmap;
+    }
+  }
+
+  private static class BitmapContainer extends Container {
+
+    private final long[] words;
+
+    private int cardinality;
+
+    BitmapContainer() {
+      this(new long[1024], 0);
+    }
+
+    BitmapContainer(long[] words, int cardinality) {
+      this.words = words;
+      this.cardinality = cardinality;
+    }
+
+    @Override
+    Container add(char low) {
+      long mask = 1L << low;
+      int index = low >>> 6;
+      if ((this.words[index] & mask) == 0) {
+        this.words[index] |= mask;
+        this.cardinality++;
+      }
+      return this;
+    }
+
+    @Override
+    Container remove(char low) {
+      long mask = 1L << low;
+      int index = low >>> 6;
+      if ((this.words[index] & mask) != 0) {
+        this.words[index] &= ~mask;
+        this.cardinality--;
+      }
+      return this.cardinality <= ARRAY_CONTAINER_MAX ? toArrayContainer() : this;
+    }
+
+    @Override
+    boolean contains(char low) {
+      return (this.words[low >>> 6] & (1L << low)) != 0;
+    }
+
+    @Override
+    int cardinality() {
+      return this.cardinality;
+    }
+
+    @Override
+    int next(int fromLow) {
+      int index = fromLow >>> 6;
+      if (index >= this.words.length) {
+        return -1;
+      }
+      long word = this.words[index] & (-1L << fromLow);
+      while (true) {
+        if (word != 0) {
+          return (index << 6) + Long.numberOfTrailingZeros(word);
+        }
+        if (++index == this.words.length) {
+          return -1;
+        }
+        word = this.words[index];
+      }
+    }
+
+    @Override
+    Container copy() {
+      return new BitmapContainer(this.words.clone(), this.cardinality);
+    }
+
+    @Override
+    Container and(Container other) {
+      if (other instanceof ArrayContainer) {
+        return other.and(this);
+      }
+      long[] result = new long[this.words.length];
+      long[] otherWords = ((BitmapContainer) other).words;
+      int count = 0;
+      for (int i = 0; i < result.length; i++) {
+        result[i] = this.words[i] & otherWords[i];
+        count += Long.bitCount(result[i]);
+      }
+      return normalize(new BitmapContainer(result, count));
+    }
+
+    @Override
+    Container or(Container other) {
+      BitmapContainer result = (BitmapContainer) copy();
+      if (other instanceof ArrayContainer) {
+        ArrayContainer that = (ArrayContainer) other;
+        for (int i = 0; i < that.cardinality; i++) {
+          result.add(that.values[i]);
+        }
+        return result;
+      }
+      long[] otherWords = ((BitmapContainer) other).words;
+      int count = 0;
+      for (int i = 0; i < result.words.length; i++) {
+        result.words[i] |= otherWords[i];
+        count += Long.bitCount(result.words[i]);
+      }
+      result.cardinality = count;
+      return result;
+    }
+
+    @Override
+    Container andNot(Container other) {
+      BitmapContainer result = (BitmapContainer) copy();
+      if (other instanceof ArrayContainer) {
+        ArrayContainer that = (ArrayContainer) other;
+        for (int i = 0; i < that.cardinality; i++) {
+          long mask = 1L << that.values[i];
+          int index = that.values[i] >>> 6;
+          if ((result.words[index] & mask) != 0) {
+            result.words[index] &= ~mask;
+            result.cardinality--;
+          }
+        }
+        return normalize(result);
+      }
+      long[] otherWords = ((BitmapContainer) other).words;
+      int count = 0;
+      for (int i = 0; i < result.words.length; i++) {
+        result.words[i] &= ~otherWords[i];
+        count += Long.bitCount(result.words[i]);
+      }
+      result.cardinality = count;
+      return normalize(result);
+    }
+
+    private static Container normalize(BitmapContainer container) {
+      return container.cardinality <= ARRAY_CONTAINER_MAX ? container.toArrayContainer()
+          : container;
+    }
+
+    private ArrayContainer toArrayContainer() {
+      char[] values = new char[Math.max(1, this.cardinality)];
+      int count = 0;
+      for (int i = 0; i < this.words.length; i++) {
+        long word = this.words[i];
+        while (word != 0) {
+          values[count++] = (char) ((i << 6) + Long.numberOfTrailingZeros(word));
+          word &= word - 1;
+        }
+      }
+      return new ArrayContainer(values, count);
+    }
+  }
+}
@@ -0,0 +1,284 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.index;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+
+import org.apache.geode.internal.cache.RegionEntry;
+
+/**
+ * Assigns dense int ordinals to the entries of a region so that the {@link BitmapIndex}es defined
+ * on it can represent sets of entries as {@link CompressedBitmap}s, and bitmaps taken from different
+ * indexes of the same region can be combined directly. One instance is shared by all bitmap
+ * indexes of a region through its {@link IndexManager}.
+ *
+ * An ordinal stays assigned while at least one bitmap index holds the entry and is recycled once
+ * the last index releases it, which keeps the ordinal space, and so the bitmaps, compact.
+ *
+ * Entries are spread over stripes by identity hash, and each stripe has its own lock, so writers
+ * on different entries rarely contend. A stripe finds the ordinal of an entry in an open addressing
+ * table that holds only ordinals and resolves them to entries through the ordinal table, the way
+ * {@link HashIndexSet} holds entries and re-evaluates their keys. The ordinal table is kept in
+ * fixed size chunks that are never copied, so it can be read without a lock and grows without
+ * blocking the stripes.
+ *
+ * @since Geode 1.8
+ */
+public class EntryOrdinals {
+
+  private static final int STRIPES = 16;
+
+  private static final int CHUNK_SHIFT = 10;
+
+  private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+
+  private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+  private final Stripe[] stripes = new Stripe[STRIPES];
+
+  private final AtomicInteger nextOrdinal = new AtomicInteger();
+
+  /** ordinal to entry, by chunk; replaced by a larger copy when a chunk is added */
+  private volatile Chunk[] chunks = new Chunk[0];
+
+  public EntryOrdinals() {
+    for (int i = 0; i < STRIPES; i++) {
+      this.stripes[i] = new Stripe();
+    }
+  }
+
+  /**
+   * Returns the ordinal of the entry, assigning one if no bitmap index holds the entry yet, and
+   * records one more reference to it. Each acquire must be matched by a {@link #release}.
+   */
+  public int acquire(RegionEntry entry) {
+    int hash = hash(entry);
+    Stripe stripe = stripeFor(hash);
+    synchronized (stripe) {
+      int slot = stripe.find(entry, hash);
+      int ordinal;
+      if (slot < 0) {
+        ordinal = stripe.freeOrdinals.isEmpty() ? newOrdinal() : stripe.freeOrdinals.popInt();
+        Chunk chunk = chunkFor(ordinal);
+        chunk.entries.set(ordinal & CHUNK_MASK, entry);
+        stripe.insert(ordinal, hash);
+      } else {
+        ordinal = stripe.slots[slot] - 1;
+      }
+      // reference counts of an ordinal are only touched under the lock of the stripe owning it
+      char[] referenceCounts = chunkFor(ordinal).referenceCounts;
+      if (referenceCounts[ordinal & CHUNK_MASK] == Character.MAX_VALUE) {
+        throw new IllegalStateException("Too many bitmap indexes hold the entry " + entry);
+      }
+      referenceCounts[ordinal & CHUNK_MASK]++;
+      return ordinal;
+    }
+  }
+
+  /**
+   * Drops one reference to the entry, recycling its ordinal when no bitmap index holds it anymore.
+   */
+  public void release(RegionEntry entry) {
+    int hash = hash(entry);
+    Stripe stripe = stripeFor(hash);
+    synchronized (stripe) {
+      int slot = stripe.find(entry, hash);
+      if (slot < 0) {
+        return;
+      }
+      int ordinal = stripe.slots[slot] - 1;
+      Chunk chunk = chunkFor(ordinal);
+      if (--chunk.referenceCounts[ordinal & CHUNK_MASK] == 0) {
+        stripe.remove(slot);
+        chunk.entries.set(ordinal & CHUNK_MASK, null);
+        stripe.freeOrdinals.add(ordinal);
+      }
+    }
+  }
+
+  /**
+   * @return the ordinal currently assigned to the entry, or -1 if no bitmap index holds it
+   */
+  public int getOrdinal(RegionEntry entry) {
+    int hash = hash(entry);
+    Stripe stripe = stripeFor(hash);
+    synchronized (stripe) {
+      int slot = stripe.find(entry, hash);
+      return slot < 0 ? -1 : stripe.slots[slot] - 1;
+    }
+  }
+
+  /**
+   * @return the entry holding the ordinal, or null if the ordinal is not assigned. Callers reading
+   *         ordinals out of a bitmap snapshot must be prepared for the ordinal to have been
+   *         released, or recycled for another entry, since the snapshot was taken.
+   */
+  public RegionEntry getEntry(int ordinal) {
+    Chunk[] chunks = this.chunks;
+    int index = ordinal >>> CHUNK_SHIFT;
+    return index < chunks.length ? chunks[index].entries.get(ordinal & CHUNK_MASK) : null;
+  }
+
+  public int size() {
+    int size = 0;
+    for (Stripe stripe : this.stripes) {
+      synchronized (stripe) {
+        size += stripe.size;
+      }
+    }
+    return size;
+  }
+
+  private static int hash(RegionEntry entry) {
+    return HashCommon.mix(System.identityHashCode(entry));
+  }
+
+  private Stripe stripeFor(int hash) {
+    // the low bits pick the slot within a stripe, so pick the stripe with the high bits
+    return this.stripes[hash >>> (Integer.SIZE - Integer.numberOfTrailingZeros(STRIPES))];
+  }
+
+  private int newOrdinal() {
+    int ordinal = this.nextOrdinal.getAndIncrement();
+    if (ordinal < 0) {
+      this.nextOrdinal.decrementAndGet();
+      throw new IllegalStateException("No more ordinals are available for bitmap indexes");
+    }
+    return ordinal;
+  }
+
+  private Chunk chunkFor(int ordinal) {
+    int index = ordinal >>> CHUNK_SHIFT;
+    Chunk[] chunks = this.chunks;
+    if (index < chunks.length) {
+      return chunks[index];
+    }
+    return addChunks(index);
+  }
+
+  /**
+   * Adds chunks up to the given index. Only the array of chunks is copied, never their contents,
+   * so stripes that update other chunks meanwhile lose nothing.
+   */
+  private synchronized Chunk addChunks(int index) {
+    Chunk[] chunks = this.chunks;
+    if (index >= chunks.length) {
+      Chunk[] newChunks = Arrays.copyOf(chunks, Math.max(index + 1, chunks.length * 2));
+      for (int i = chunks.length; i < newChunks.length; i++) {
+        newChunks[i] = new Chunk();
+      }
+      this.chunks = newChunks;
+      chunks = newChunks;
+    }
+    return chunks[index];
+  }
+
+  private static class Chunk {
+    final AtomicReferenceArray<RegionEntry> entries = new AtomicReferenceArray<>(CHUNK_SIZE);
+
+    /** number of bitmap indexes holding each ordinal */
+    final char[] referenceCounts = new char[CHUNK_SIZE];
+  }
+
+  /**
+   * The ordinals of the entries whose hash falls in this stripe. Guarded by synchronizing on the
+   * stripe.
+   */
+  private class Stripe {
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** ordinal + 1 of each entry by hash, using linear probing; 0 marks a free slot */
+    int[] slots = new int[INITIAL_CAPACITY];
+
+    int size;
+
+    final IntArrayList freeOrdinals = new IntArrayList();
+
+    /**
+     * @return the slot holding the entry's ordinal, or -1
+     */
+    int find(RegionEntry entry, int hash) {
+      int mask = this.slots.length - 1;
+      for (int slot = hash & mask;; slot = (slot + 1) & mask) {
+        int value = this.slots[slot];
+        if (value == 0) {
+          return -1;
+        }
+        if (getEntry(value - 1) == entry) {
+          return slot;
+        }
+      }
+    }
+
+    void insert(int ordinal, int hash) {
+      if (this.size + 1 > this.slots.length - (this.slots.length >>> 2)) {
+        rehash(this.slots.length * 2);
+      }
+      place(ordinal + 1, hash);
+      this.size++;
+    }
+
+    private void place(int value, int hash) {
+      int mask = this.slots.length - 1;
+      int slot = hash & mask;
+      while (this.slots[slot] != 0) {
+        slot = (slot + 1) & mask;
+      }
+      this.slots[slot] = value;
+    }
+
+    private void rehash(int capacity) {
+      int[] oldSlots = this.slots;
+      this.slots = new int[capacity];
+      for (int value : oldSlots) {
+        if (value != 0) {
+          place(value, hash(getEntry(value - 1)));
+        }
+      }
+    }
+
+    /**
+     * Empties the slot and shifts back the ordinals probed past it, so lookups never need
+     * tombstones.
+     */
+    void remove(int slot) {
+      int mask = this.slots.length - 1;
+      int last = slot;
+      int current = slot;
+      for (;;) {
+        current = (current + 1) & mask;
+        int value = this.slots[current];
+        if (value == 0) {
+          break;
+        }
+        int home = hash(getEntry(value - 1)) & mask;
+        // move the value back unless its home slot lies cyclically in (last, current]
+        boolean stays = last <= current ? last < home && home <= current
+            : last < home || home <= current;
+        if (!stays) {
+          this.slots[last] = value;
+          last = current;
+        }
+      }
+      this.slots[last] = 0;
+      this.size--;
+    }
+  }
+}
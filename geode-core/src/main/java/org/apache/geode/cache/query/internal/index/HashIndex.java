@@ -133,10 +133,25 @@ public class HashIndex extends AbstractIndex {
   public HashIndex(InternalCache cache, String indexName, Region region, String fromClause,
       String indexedExpression, String projectionAttributes, String origFromClause,
       String origIndexExpr, String[] definitions, IndexStatistics stats) {
+    this(cache, indexName, region, fromClause, indexedExpression, projectionAttributes,
+        origFromClause, origIndexExpr, definitions, stats, true);
+  }
+
+  /**
+   * @param storeEntries false for subclasses that keep their own storage and override every method
+   *        reading {@link #entriesSet}, which is then left null along with the reverse maps
+   */
+  protected HashIndex(InternalCache cache, String indexName, Region region, String fromClause,
+      String indexedExpression, String projectionAttributes, String origFromClause,
+      String origIndexExpr, String[] definitions, IndexStatistics stats, boolean storeEntries) {
     super(cache, indexName, region, fromClause, indexedExpression, projectionAttributes,
         origFromClause, origIndexExpr, definitions, stats);
     RegionAttributes ra = region.getAttributes();
 
+    if (!storeEntries) {
+      entriesSet = null;
+      return;
+    }
 
     if (IndexManager.isObjectModificationInplace()) {
       entryToValuesMap = new ConcurrentHashMap(ra.getInitialCapacity(), ra.getLoadFactor(),
@@ -186,7 +201,7 @@ public class HashIndex extends AbstractIndex {
    * One thing to notice though is no increment in numValues is performed if old key and new index
    * key are found equal using {@link Object#equals(Object)}.
    */
-  private void basicAddMapping(Object key, RegionEntry entry) throws IMQException {
+  void basicAddMapping(Object key, RegionEntry entry) throws IMQException {
 
     try {
       if (DefaultQuery.testHook != null) {
@@ -303,7 +318,7 @@ public class HashIndex extends AbstractIndex {
    * @param entry RegionEntry for which is being updated by user.
    * @param updateReverseMap true only when RegionEntry is invalidated/destroyed.
    */
-  private void basicRemoveMapping(Object key, RegionEntry entry, boolean updateReverseMap)
+  void basicRemoveMapping(Object key, RegionEntry entry, boolean updateReverseMap)
       throws IMQException {
     // after removal, trim the ArrayList to prevent
     // too much extra space.
@@ -537,14 +552,14 @@ public class HashIndex extends AbstractIndex {
       switch (operator) {
         case OQLLexerTokenTypes.TOK_EQ:
           assert keysToRemove.isEmpty();
-          addToResultsFromEntries(this.entriesSet.get(key), results, iterOps, runtimeItr, context,
+          addToResultsFromEntries(getEntries(key, context), results, iterOps, runtimeItr, context,
               projAttrib, intermediateResults, isIntersection, multiColOrderBy ? -1 : limit,
               keysToRemove, applyOrderBy, asc, iteratorCreationTime);
           break;
         case OQLLexerTokenTypes.TOK_NE_ALT:
         case OQLLexerTokenTypes.TOK_NE: {
           keysToRemove.add(key);
-          addToResultsFromEntries(this.entriesSet.getAllNotMatching(keysToRemove), results, iterOps,
+          addToResultsFromEntries(getEntriesNotMatching(keysToRemove, context), results, iterOps,
               runtimeItr, context, projAttrib, intermediateResults, isIntersection,
               multiColOrderBy ? -1 : limit, keysToRemove, applyOrderBy, asc, iteratorCreationTime);
         }
@@ -560,7 +575,7 @@ public class HashIndex extends AbstractIndex {
           || operator == OQLLexerTokenTypes.TOK_NE_ALT) { // put
         keysToRemove.add(key);
         long iteratorCreationTime = cache.cacheTimeMillis();
-        addToResultsFromEntries(this.entriesSet.getAllNotMatching(keysToRemove), results, iterOps,
+        addToResultsFromEntries(getEntriesNotMatching(keysToRemove, context), results, iterOps,
             runtimeItr, context, projAttrib, intermediateResults, isIntersection,
             multiColOrderBy ? -1 : limit, keysToRemove, applyOrderBy, asc, iteratorCreationTime);
       } else { // otherwise throw exception
@@ -569,10 +584,36 @@ public class HashIndex extends AbstractIndex {
     }
   }
 
+  /**
+   * @return Iterator<RegionEntry> over the entries held under the key
+   */
+  Iterator getEntries(Object key, ExecutionContext context)
+      throws TypeMismatchException, QueryInvocationTargetException {
+    return this.entriesSet.get(key);
+  }
+
+  /**
+   * @return Iterator<RegionEntry> over the entries held under any key other than keysToRemove
+   */
+  Iterator getEntriesNotMatching(Set keysToRemove, ExecutionContext context)
+      throws TypeMismatchException, QueryInvocationTargetException {
+    return this.entriesSet.getAllNotMatching(keysToRemove);
+  }
+
+  /**
+   * Removes the entry from the index whatever key it is currently held under. Used when the key can
+   * no longer be evaluated because the entry has been destroyed.
+   */
+  void removeAllMappings(RegionEntry entry) {
+    this.entriesSet.remove(QueryService.UNDEFINED, entry, -1);
+  }
+
   @Override
   void instantiateEvaluator(IndexCreationHelper indexCreationHelper) {
     this.evaluator = new IMQEvaluator(indexCreationHelper);
-    this.entriesSet.setEvaluator((HashIndex.IMQEvaluator) evaluator);
+    if (this.entriesSet != null) {
+      this.entriesSet.setEvaluator((HashIndex.IMQEvaluator) evaluator);
+    }
     this.comparator = ((IMQEvaluator) evaluator).comparator;
   }
 
@@ -656,8 +697,7 @@ public class HashIndex extends AbstractIndex {
       // If the region entry is currently being updated or it has been modified since starting
       // iteration
       // we will reevaluate to be sure the value still matches the key
-      if (re.isUpdateInProgress()
-          || IndexManager.needsRecalculation(iteratorCreationTime, re.getLastModified())) {
+      if (needsVerification(re, context, iteratorCreationTime)) {
         IndexInfo indexInfo = (IndexInfo) context.cacheGet(CompiledValue.INDEX_INFO);
         if (runtimeItr == null) {
           runtimeItr = getRuntimeIteratorForThisIndex(context, indexInfo);
@@ -690,6 +730,16 @@ public class HashIndex extends AbstractIndex {
     }
   }
 
+  /**
+   * @return true if the entry may no longer match the key it was found under, because it is being
+   *         updated or has been modified since the iteration started
+   */
+  boolean needsVerification(RegionEntry re, ExecutionContext context,
+      long iteratorCreationTime) {
+    return re.isUpdateInProgress()
+        || IndexManager.needsRecalculation(iteratorCreationTime, re.getLastModified());
+  }
+
   /**
    * This evaluates the left and right side of a where condition for which this Index was used.
    * Like, if condition is "ID > 1", {@link IndexInfo} will contain Left as ID, Right as '1' and
@@ -700,7 +750,7 @@ public class HashIndex extends AbstractIndex {
    *
    * @return true if RegionEntry value satisfies the where condition (contained in IndexInfo).
    */
-  private boolean evaluateEntry(IndexInfo indexInfo, ExecutionContext context, Object keyVal)
+  boolean evaluateEntry(IndexInfo indexInfo, ExecutionContext context, Object keyVal)
       throws FunctionDomainException, TypeMismatchException, NameResolutionException,
       QueryInvocationTargetException {
     CompiledValue path = ((IndexInfo) indexInfo)._path();
@@ -756,7 +806,7 @@ public class HashIndex extends AbstractIndex {
     return ((LocalRegion) getRegion()).new NonTXEntry(entry);
   }
 
-  private Object getTargetObjectForUpdate(RegionEntry entry) {
+  Object getTargetObjectForUpdate(RegionEntry entry) {
     if (this.indexOnValues) {
       Object o = entry.getValueOffHeapOrDiskWithoutFaultIn((LocalRegion) getRegion());
       try {
@@ -782,10 +832,7 @@ public class HashIndex extends AbstractIndex {
 
   void recreateIndexData() throws IMQException {
     // Mark the data maps to null & call the initialization code of index
-    this.entriesSet.clear();
-    if (IndexManager.isObjectModificationInplace()) {
-      entryToValuesMap.clear();
-    }
+    clearEntries();
     int numKeys = (int) this.internalIndexStats.getNumberOfKeys();
     if (numKeys > 0) {
       this.internalIndexStats.incNumKeys(-numKeys);
@@ -801,6 +848,13 @@ public class HashIndex extends AbstractIndex {
     this.initializeIndex(true);
   }
 
+  void clearEntries() {
+    this.entriesSet.clear();
+    if (IndexManager.isObjectModificationInplace()) {
+      entryToValuesMap.clear();
+    }
+  }
+
   public String dump() {
     StringBuilder sb = new StringBuilder(toString()).append(" {").append(getLineSeparator());
     sb.append(" -----------------------------------------------").append(getLineSeparator());
@@ -896,6 +950,10 @@ public class HashIndex extends AbstractIndex {
       this.vsdStats.incReadLockCount(delta);
     }
 
+    public void recordAsyncUpdateBatch(long lagMillis) {
+      this.vsdStats.recordAsyncUpdateBatch(lagMillis);
+    }
+
     /**
      * Returns the total amount of time (in nanoseconds) spent updating this index.
      */
@@ -1069,7 +1127,7 @@ public class HashIndex extends AbstractIndex {
           // will force a
           // crawl through the index to remove the entry if it exists, even if it is not present at
           // the provided key
-          entriesSet.remove(QueryService.UNDEFINED, target, -1);
+          removeAllMappings(target);
         } else {
           throw new IMQException(tme);
         }
@@ -123,6 +123,8 @@ public class IndexCreationData implements DataSerializableFixedID {
       out.writeByte(0);
     } else if (IndexType.HASH == indexType) {
       out.writeByte(1);
+    } else if (IndexType.BITMAP == indexType) {
+      out.writeByte(3);
     } else {
       out.writeByte(2);
     }
@@ -148,6 +150,8 @@ public class IndexCreationData implements DataSerializableFixedID {
       this.indexType = IndexType.PRIMARY_KEY;
     } else if (1 == byteIndexType) {
       this.indexType = IndexType.HASH;
+    } else if (3 == byteIndexType) {
+      this.indexType = IndexType.BITMAP;
     } else {
       this.indexType = IndexType.FUNCTIONAL;
     }
@@ -0,0 +1,265 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.index;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.apache.geode.cache.query.internal.NullToken;
+import org.apache.geode.cache.query.internal.Undefined;
+import org.apache.geode.cache.query.internal.types.TypeUtils;
+import org.apache.geode.internal.hll.HyperLogLogPlus;
+
+/**
+ * Key distribution statistics of an index, used by the cost-based query planner to estimate the
+ * result size of range conditions. Holds an equi-depth histogram of the index keys, so a range
+ * estimate does not assume the keys are spread evenly between the first and last key, and a
+ * HyperLogLog estimate of the number of distinct keys.
+ * <p>
+ * Instances are immutable. They are built from one ascending scan of the index keys and replaced
+ * by the owning index once it has seen enough updates since the scan, see {@link #isStale(long)}.
+ */
+public class IndexKeyStatistics {
+
+  /** The number of buckets of the histogram */
+  static final int HISTOGRAM_BUCKETS = 64;
+
+  /** The index updates needed, as a fraction of the values, before the statistics are rebuilt */
+  static final double REBUILD_FRACTION = 0.2;
+
+  /** The minimum number of index updates before the statistics are rebuilt */
+  static final int MIN_UPDATES_BEFORE_REBUILD = 100;
+
+  private static final int HLL_PRECISION = 12;
+
+  private static final int HLL_SPARSE_PRECISION = 25;
+
+  private static final Comparator COMPARATOR = TypeUtils.getExtendedNumericComparator();
+
+  private final Object minKey;
+
+  /** The largest key of each bucket; a bucket holds the keys above the previous bound */
+  private final Object[] upperBounds;
+
+  private final long[] bucketValues;
+
+  private final long[] bucketKeys;
+
+  private final long totalValues;
+
+  private final long distinctKeys;
+
+  private final long updatesAtBuild;
+
+  private IndexKeyStatistics(Builder builder) {
+    this.minKey = builder.minKey;
+    this.upperBounds = builder.upperBounds.toArray();
+    this.bucketValues = new long[builder.bucketValues.size()];
+    this.bucketKeys = new long[builder.bucketKeys.size()];
+    for (int i = 0; i < this.bucketValues.length; i++) {
+      this.bucketValues[i] = builder.bucketValues.get(i);
+      this.bucketKeys[i] = builder.bucketKeys.get(i);
+    }
+    this.totalValues = builder.totalValues;
+    this.distinctKeys = Math.max(1, builder.distinctKeys.cardinality());
+    this.updatesAtBuild = builder.updatesAtBuild;
+  }
+
+  public long getTotalValues() {
+    return this.totalValues;
+  }
+
+  /**
+   * Returns the estimated number of distinct keys of the index
+   */
+  public long getDistinctKeys() {
+    return this.distinctKeys;
+  }
+
+  public int getNumBuckets() {
+    return this.upperBounds.length;
+  }
+
+  /**
+   * Returns true if the index has seen enough updates since these statistics were built that they
+   * should be rebuilt.
+   *
+   * @param numUpdates the current update count of the index
+   */
+  public boolean isStale(long numUpdates) {
+    long threshold = Math.max(MIN_UPDATES_BEFORE_REBUILD, (long) (totalValues * REBUILD_FRACTION));
+    return numUpdates - this.updatesAtBuild > threshold;
+  }
+
+  /**
+   * Returns the estimated number of values whose keys fall between the given bounds, or -1 if the
+   * bounds cannot be compared with the keys of the index.
+   *
+   * @param lowerKey the lower bound, or null if there is none
+   * @param lowerInclusive whether values with a key equal to the lower bound are counted
+   * @param upperKey the upper bound, or null if there is none
+   * @param upperInclusive whether values with a key equal to the upper bound are counted
+   */
+  public int estimateRange(Object lowerKey, boolean lowerInclusive, Object upperKey,
+      boolean upperInclusive) {
+    if (this.upperBounds.length == 0) {
+      return 0;
+    }
+    try {
+      double upper = upperKey == null ? this.totalValues : countBelow(upperKey, upperInclusive);
+      double lower = lowerKey == null ? 0 : countBelow(lowerKey, !lowerInclusive);
+      return (int) Math.min(Integer.MAX_VALUE, Math.max(0, Math.round(upper - lower)));
+    } catch (ClassCastException e) {
+      // keys of different types, the caller falls back to its own estimate
+      return -1;
+    }
+  }
+
+  /**
+   * Returns the estimated number of values with a key below, or if inclusive up to, the given key
+   */
+  private double countBelow(Object key, boolean inclusive) {
+    int result = compare(key, this.minKey);
+    if (result <= 0) {
+      return result == 0 && inclusive ? valuesPerKey(0) : 0;
+    }
+    double count = 0;
+    Object lowerBound = this.minKey;
+    for (int i = 0; i < this.upperBounds.length; i++) {
+      result = compare(key, this.upperBounds[i]);
+      if (result > 0) {
+        count += this.bucketValues[i];
+        lowerBound = this.upperBounds[i];
+      } else if (result == 0) {
+        count += this.bucketValues[i];
+        return inclusive ? count : Math.max(count - valuesPerKey(i), 0);
+      } else {
+        return count
+            + this.bucketValues[i] * fractionOfBucket(lowerBound, key, this.upperBounds[i]);
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Returns the average number of values per key of a bucket. A key with many values closes its
+   * bucket by itself, so this is exact for such keys.
+   */
+  private double valuesPerKey(int bucket) {
+    return (double) this.bucketValues[bucket] / this.bucketKeys[bucket];
+  }
+
+  /**
+   * Returns the fraction of a bucket that lies below the given key. Numeric keys are interpolated,
+   * for any other key half the bucket is assumed.
+   */
+  private static double fractionOfBucket(Object lowerBound, Object key, Object upperBound) {
+    if (lowerBound instanceof Number && key instanceof Number && upperBound instanceof Number) {
+      double lower = ((Number) lowerBound).doubleValue();
+      double upper = ((Number) upperBound).doubleValue();
+      if (upper > lower) {
+        double fraction = (((Number) key).doubleValue() - lower) / (upper - lower);
+        return Math.min(1, Math.max(0, fraction));
+      }
+    }
+    return 0.5;
+  }
+
+  private static int compare(Object key, Object bound) {
+    return COMPARATOR.compare(key, bound);
+  }
+
+  @Override
+  public String toString() {
+    return "IndexKeyStatistics[values=" + this.totalValues + "; distinctKeys=" + this.distinctKeys
+        + "; buckets=" + this.upperBounds.length + "]";
+  }
+
+  /**
+   * Builds the statistics from the keys of an index, which must be added in ascending order.
+   */
+  public static class Builder {
+
+    private final long bucketDepth;
+
+    private final long updatesAtBuild;
+
+    private final HyperLogLogPlus distinctKeys =
+        new HyperLogLogPlus(HLL_PRECISION, HLL_SPARSE_PRECISION);
+
+    private final List<Object> upperBounds = new ArrayList<>();
+
+    private final List<Long> bucketValues = new ArrayList<>();
+
+    private final List<Long> bucketKeys = new ArrayList<>();
+
+    private Object minKey;
+
+    private Object lastKey;
+
+    private long currentBucketValues;
+
+    private long currentBucketKeys;
+
+    private long totalValues;
+
+    /**
+     * @param expectedValues the number of values the index is expected to hold, used to size the
+     *        buckets
+     * @param updatesAtBuild the update count of the index when the scan started
+     */
+    public Builder(long expectedValues, long updatesAtBuild) {
+      this.bucketDepth = Math.max(1, expectedValues / HISTOGRAM_BUCKETS);
+      this.updatesAtBuild = updatesAtBuild;
+    }
+
+    /**
+     * Adds the next key of the index and the number of values mapped to it. Null and undefined
+     * keys are not part of any range and are skipped.
+     */
+    public void add(Object key, long numValues) {
+      if (numValues <= 0 || key == null || key instanceof NullToken || key instanceof Undefined) {
+        return;
+      }
+      if (this.minKey == null) {
+        this.minKey = key;
+      }
+      this.distinctKeys.offer(key);
+      this.lastKey = key;
+      this.currentBucketValues += numValues;
+      this.currentBucketKeys++;
+      this.totalValues += numValues;
+      if (this.currentBucketValues >= this.bucketDepth) {
+        closeBucket();
+      }
+    }
+
+    private void closeBucket() {
+      this.upperBounds.add(this.lastKey);
+      this.bucketValues.add(this.currentBucketValues);
+      this.bucketKeys.add(this.currentBucketKeys);
+      this.currentBucketValues = 0;
+      this.currentBucketKeys = 0;
+    }
+
+    public IndexKeyStatistics build() {
+      if (this.currentBucketValues > 0) {
+        closeBucket();
+      }
+      return new IndexKeyStatistics(this);
+    }
+  }
+}
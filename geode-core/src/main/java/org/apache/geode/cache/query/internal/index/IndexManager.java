@@ -58,6 +58,7 @@ import org.apache.geode.cache.query.internal.NullToken;
 import org.apache.geode.cache.query.internal.QueryMonitor;
 import org.apache.geode.cache.query.internal.QueryObserver;
 import org.apache.geode.cache.query.internal.QueryObserverHolder;
+import org.apache.geode.cache.query.internal.QueryPlanCache;
 import org.apache.geode.cache.query.internal.index.AbstractIndex.InternalIndexStatistics;
 import org.apache.geode.cache.query.internal.parse.OQLLexerTokenTypes;
 import org.apache.geode.distributed.internal.DistributionConfig;
@@ -102,15 +103,41 @@ public class IndexManager {
   private final ConcurrentMap indexes = new ConcurrentHashMap();
   // TODO Asif : Fix the appropriate size of the Map & the concurrency level
   private ConcurrentMap canonicalizedIteratorNameMap = new ConcurrentHashMap();
-  private IndexUpdaterThread updater;
+  private IndexUpdaterThread[] updaters;
+
+  /** Ordinals of the entries of this region, shared by its bitmap indexes. Created lazily. */
+  private EntryOrdinals entryOrdinals;
 
   // Threshold for Queue.
   private final int INDEX_MAINTENANCE_BUFFER =
       Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "AsynchIndexMaintenanceThreshold", -1);
 
+  /**
+   * System property for the number of threads applying the asynchronous index updates of a region.
+   * The updates of an entry are always applied by the same thread, in the order they were made.
+   */
+  public static final int ASYNC_INDEX_UPDATER_THREADS =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "index.ASYNC_UPDATER_THREADS",
+          Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+  /**
+   * System property for the maximum number of queued asynchronous updates applied to the indexes
+   * as one batch.
+   */
+  public static final int ASYNC_INDEX_UPDATE_BATCH_SIZE =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "index.ASYNC_UPDATE_BATCH_SIZE", 100);
+
   public static boolean JOIN_OPTIMIZATION =
       !Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "index.DisableJoinOptimization");
 
+  /**
+   * System property to let the query engine choose filters and their evaluation order from the
+   * estimated result sizes of the indexes, using the key statistics kept by the range indexes,
+   * instead of the fixed operator heuristics. Not final so tests can toggle it.
+   */
+  public static boolean COST_BASED_PLANNER =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "Query.COST_BASED_PLANNER");
+
   // Added for test purposes only.
   public static boolean INPLACE_OBJECT_MODIFICATION_FOR_TEST = false;
 
@@ -169,9 +196,17 @@ public class IndexManager {
     if (!indexMaintenanceSynchronous) {
       final LoggingThreadGroup group =
           LoggingThreadGroup.createThreadGroup("QueryMonitor Thread Group", logger);
-      updater = new IndexUpdaterThread(group, this.INDEX_MAINTENANCE_BUFFER,
-          "OqlIndexUpdater:" + region.getFullPath());
-      updater.start();
+      int numUpdaters = Math.max(1, ASYNC_INDEX_UPDATER_THREADS);
+      // the queue threshold applies to the region, so it is shared out among the threads
+      int updateThreshold = this.INDEX_MAINTENANCE_BUFFER > 0
+          ? Math.max(1, (this.INDEX_MAINTENANCE_BUFFER + numUpdaters - 1) / numUpdaters) : -1;
+      updaters = new IndexUpdaterThread[numUpdaters];
+      for (int i = 0; i < numUpdaters; i++) {
+        String threadName = "OqlIndexUpdater:" + region.getFullPath();
+        updaters[i] = new IndexUpdaterThread(group, updateThreshold,
+            numUpdaters == 1 ? threadName : threadName + "-" + i);
+        updaters[i].start();
+      }
     }
   }
 
@@ -237,10 +272,33 @@ public class IndexManager {
   }
 
   /**
-   * Used by tests to access the updater thread to determine its progress
+   * Used by tests to access the updater thread to determine its progress. With several updater
+   * threads this is the first of them; its {@link IndexUpdaterThread#isDone()} covers all of them.
    */
   public IndexUpdaterThread getUpdaterThread() {
-    return this.updater;
+    return this.updaters == null ? null : this.updaters[0];
+  }
+
+  /**
+   * Waits until the asynchronous index updates of this region made up to the given cache time have
+   * been applied. Returns immediately if the indexes of this region are maintained synchronously.
+   *
+   * @param cacheTimeMillis the cache time, as in {@link InternalCache#cacheTimeMillis()}
+   * @param timeoutMillis the maximum time to wait
+   * @return false if the timeout elapsed before the updates were applied
+   */
+  public boolean waitForAsyncUpdates(long cacheTimeMillis, long timeoutMillis)
+      throws InterruptedException {
+    if (this.updaters == null) {
+      return true;
+    }
+    long deadline = System.currentTimeMillis() + timeoutMillis;
+    for (IndexUpdaterThread updater : this.updaters) {
+      if (!updater.waitUntilApplied(cacheTimeMillis, deadline)) {
+        return false;
+      }
+    }
+    return true;
   }
 
   // @todo need more specific list of exceptions
@@ -289,7 +347,7 @@ public class IndexManager {
       // and create a regular compact range index instead. This is due to having to reload entries
       // from overflow just
       // to recalculate the index key for the entry for comparisons during query.
-      if (indexType == IndexType.HASH && isOverFlowRegion()) {
+      if ((indexType == IndexType.HASH || indexType == IndexType.BITMAP) && isOverFlowRegion()) {
         indexType = IndexType.FUNCTIONAL;
       }
       if (indexType != IndexType.PRIMARY_KEY) {
@@ -317,6 +375,16 @@ public class IndexManager {
               LocalizedStrings.DefaultQueryService_HASH_INDEX_CREATION_IS_NOT_SUPPORTED_FOR_MULTIPLE_ITERATORS
                   .toLocalizedString());
         }
+        if (indexType == IndexType.BITMAP) {
+          if (!isIndexMaintenanceTypeSynchronous()) {
+            throw new UnsupportedOperationException(
+                LocalizedStrings.DefaultQueryService_BITMAP_INDEX_CREATION_IS_NOT_SUPPORTED_FOR_ASYNC_MAINTENANCE
+                    .toLocalizedString());
+          }
+          throw new UnsupportedOperationException(
+              LocalizedStrings.DefaultQueryService_BITMAP_INDEX_CREATION_IS_NOT_SUPPORTED_FOR_MULTIPLE_ITERATORS
+                  .toLocalizedString());
+        }
         // Overflow is not supported with range index.
         if (isOverFlowRegion()) {
           throw new UnsupportedOperationException(
@@ -414,6 +482,7 @@ public class IndexManager {
         }
       }
       assert (index != null);
+      invalidateQueryPlans();
       if (logger.isDebugEnabled()) {
         logger.debug("Completed creating index with indexName: {} On region: {}", indexName,
             region.getFullPath());
@@ -505,6 +574,22 @@ public class IndexManager {
   public void addIndex(String indexName, Index index) {
     IndexTask indexTask = new IndexTask(cache, indexName);
     this.indexes.put(indexTask, index);
+    invalidateQueryPlans();
+  }
+
+  /**
+   * Discards the cached query plans of the cache, since they may have been analyzed against the
+   * set of indexes that has just changed. Plans are analyzed against the indexes of the partitioned
+   * region rather than those of its buckets, so bucket index changes keep them.
+   */
+  private void invalidateQueryPlans() {
+    if (this.region instanceof BucketRegion) {
+      return;
+    }
+    QueryPlanCache planCache = this.cache.getQueryPlanCache();
+    if (planCache != null) {
+      planCache.invalidate();
+    }
   }
 
   /**
@@ -537,6 +622,11 @@ public class IndexManager {
       if (!(ind instanceof Index)) {
         continue;
       }
+      // A defined index is not used until it has been populated; queries keep using the
+      // previous plan meanwhile
+      if (!((AbstractIndex) ind).isPopulated()) {
+        continue;
+      }
       Index index = (Index) ind;
       if (!((IndexProtocol) ind).isMatchingWithIndexExpression(indexedExpression, indexExprStr,
           context) || index.getType() != indexType) {
@@ -833,6 +923,7 @@ public class IndexManager {
     if (this.indexes.remove(indexTask) != null) {
       AbstractIndex indexHandle = (AbstractIndex) index;
       indexHandle.destroy();
+      invalidateQueryPlans();
     }
   }
 
@@ -856,6 +947,9 @@ public class IndexManager {
       IndexTask indexTask = (IndexTask) entry.getKey();
       this.indexes.remove(indexTask);
     }
+    if (numIndexes > 0) {
+      invalidateQueryPlans();
+    }
     return numIndexes;
   }
 
@@ -882,26 +976,45 @@ public class IndexManager {
       recreateAllIndexesForRegion();
     } else {
       // System.out.println("Aynchronous update");
-      updater.addTask(RECREATE_INDEX, null, IndexProtocol.OTHER_OP);
+      // recreation excludes the updates of the other threads while it runs
+      updaters[0].addTask(RECREATE_INDEX, null, IndexProtocol.OTHER_OP);
     }
   }
 
   /**
-   * populates all the indexes in the region
+   * populates all the indexes in the region. The region is scanned once and its entries are added
+   * to the indexes by the threads of the {@link IndexPopulator}.
    */
   public void populateIndexes(Collection<Index> indexSet) throws MultiIndexCreationException {
     waitBeforeUpdate();
     if (region.getCache().getLogger().infoEnabled()) {
       region.getCache().getLogger().info("Populating indexes for region " + region.getName());
     }
-    boolean throwException = false;
-    HashMap<String, Exception> exceptionsMap = new HashMap<String, Exception>();
+    Map<String, Exception> exceptionsMap = new ConcurrentHashMap<>();
+    try {
+      Iterator entryIter = ((LocalRegion) region).getBestIterator(true);
+      IndexPopulator.forEachBatch(entryIter,
+          entries -> addToUnpopulatedIndexes(entries, indexSet, exceptionsMap));
+      indexSet.removeIf(index -> exceptionsMap.containsKey(index.getName()));
+      setPopulateFlagForIndexes(indexSet);
+      if (!exceptionsMap.isEmpty()) {
+        throw new MultiIndexCreationException(new HashMap<>(exceptionsMap));
+      }
+    } finally {
+      notifyAfterUpdate();
+    }
+  }
+
+  /**
+   * Adds a batch of entries to the indexes being populated. Called concurrently for different
+   * batches; an index which failed for an entry is skipped for the remaining entries.
+   */
+  private void addToUnpopulatedIndexes(List<RegionEntry> entries, Collection<Index> indexSet,
+      Map<String, Exception> exceptionsMap) {
     boolean oldReadSerialized = this.cache.getPdxReadSerializedOverride();
     this.cache.setPdxReadSerializedOverride(true);
     try {
-      Iterator entryIter = ((LocalRegion) region).getBestIterator(true);
-      while (entryIter.hasNext()) {
-        RegionEntry entry = (RegionEntry) entryIter.next();
+      for (RegionEntry entry : entries) {
         if (entry == null || entry.isInvalidOrRemoved()) {
           continue;
         }
@@ -909,15 +1022,15 @@ public class IndexManager {
         // update does not have
         // to read the value from disk every time.
         entry.getValue((LocalRegion) this.region);
-        Iterator<Index> indexSetIterator = indexSet.iterator();
-        while (indexSetIterator.hasNext()) {
-          AbstractIndex index = (AbstractIndex) indexSetIterator.next();
-          if (!index.isPopulated() && index.getType() != IndexType.PRIMARY_KEY) {
+        for (Index ind : indexSet) {
+          AbstractIndex index = (AbstractIndex) ind;
+          if (!index.isPopulated() && index.getType() != IndexType.PRIMARY_KEY
+              && !exceptionsMap.containsKey(index.indexName)) {
             if (logger.isDebugEnabled()) {
               logger.debug("Adding to index :{}{} value :{}", index.getName(),
                   this.region.getFullPath(), entry.getKey());
             }
-            long start = ((AbstractIndex) index).updateIndexUpdateStats();
+            long start = index.updateIndexUpdateStats();
             try {
               index.addIndexMapping(entry);
             } catch (IMQException e) {
@@ -925,21 +1038,14 @@ public class IndexManager {
                 logger.debug("Adding to index failed for: {}, {}", index.getName(), e.getMessage(),
                     e);
               }
-              exceptionsMap.put(index.indexName, e);
-              indexSetIterator.remove();
-              throwException = true;
+              exceptionsMap.putIfAbsent(index.indexName, e);
             }
-            ((AbstractIndex) index).updateIndexUpdateStats(start);
+            index.updateIndexUpdateStats(start);
           }
         }
       }
-      setPopulateFlagForIndexes(indexSet);
-      if (throwException) {
-        throw new MultiIndexCreationException(exceptionsMap);
-      }
     } finally {
       this.cache.setPdxReadSerializedOverride(oldReadSerialized);
-      notifyAfterUpdate();
     }
   }
 
@@ -984,7 +1090,9 @@ public class IndexManager {
       processAction(entry, action, opCode);
     } else {
       // System.out.println("Aynchronous update");
-      updater.addTask(action, entry, opCode);
+      // the updates of an entry all go to the same thread so that they are applied in order
+      int updater = (System.identityHashCode(entry) & Integer.MAX_VALUE) % updaters.length;
+      updaters[updater].addTask(action, entry, opCode);
     }
   }
 
@@ -1014,8 +1122,6 @@ public class IndexManager {
         testHook.hook(6); // ConcurrentIndexInitOnOverflowRegionDUnitTest
       }
 
-      long start = 0;
-      boolean indexLockAcquired = false;
       switch (action) {
         case ADD_ENTRY: {
           if (IndexManager.testHook != null) {
@@ -1026,41 +1132,6 @@ public class IndexManager {
           }
           // this action is only called after update
           assert opCode == IndexProtocol.OTHER_OP;
-
-          // Asif The behaviour can arise if an index creation has already
-          // acted upon a newly added entry , but by the time callback
-          // occurs , the index is added to the map & thus
-          // the add operation will now have an effect of update.
-          // so we need to remove the mapping even if it is an Add action
-          // as otherwise the new results will get added into the
-          // old results instead of replacement
-          Iterator iter = this.indexes.values().iterator();
-          while (iter.hasNext()) {
-            Object ind = iter.next();
-            // Check if the value is instance of FutureTask, this means
-            // the index is in create phase.
-            if (ind instanceof FutureTask) {
-              continue;
-            }
-            IndexProtocol index = (IndexProtocol) ind;
-
-            if (index.isValid() && ((AbstractIndex) index).isPopulated()
-                && index.getType() != IndexType.PRIMARY_KEY) {
-              // Asif : If the current Index contains an entry inspite
-              // of add operation , this can only mean that Index
-              // has already acted on it during creation, so do not
-              // apply IMQ on it
-              if (!index.containsEntry(entry)) {
-                if (logger.isDebugEnabled()) {
-                  logger.debug("Adding to index: {}{} value: {}", index.getName(),
-                      this.region.getFullPath(), entry.getKey());
-                }
-                start = ((AbstractIndex) index).updateIndexUpdateStats();
-                addIndexMapping(entry, index);
-                ((AbstractIndex) index).updateIndexUpdateStats(start);
-              }
-            }
-          }
           break;
         }
         case UPDATE_ENTRY: {
@@ -1075,28 +1146,6 @@ public class IndexManager {
 
           // this action is only called with opCode AFTER_UPDATE_OP
           assert opCode == IndexProtocol.AFTER_UPDATE_OP;
-          Iterator iter = this.indexes.values().iterator();
-          while (iter.hasNext()) {
-            Object ind = iter.next();
-            // Check if the value is instance of FutureTask, this means
-            // the index is in create phase.
-            if (ind instanceof FutureTask) {
-              continue;
-            }
-            IndexProtocol index = (IndexProtocol) ind;
-
-            if (((AbstractIndex) index).isPopulated() && index.getType() != IndexType.PRIMARY_KEY) {
-              if (logger.isDebugEnabled()) {
-                logger.debug("Updating index: {}{} value: {}", index.getName(),
-                    this.region.getFullPath(), entry.getKey());
-              }
-              start = ((AbstractIndex) index).updateIndexUpdateStats();
-
-              addIndexMapping(entry, index);
-
-              ((AbstractIndex) index).updateIndexUpdateStats(start);
-            }
-          }
           break;
         }
         case REMOVE_ENTRY: {
@@ -1108,29 +1157,6 @@ public class IndexManager {
             testHook.hook(5);
             testHook.hook(10);
           }
-          Iterator iter = this.indexes.values().iterator();
-          while (iter.hasNext()) {
-            Object ind = iter.next();
-            // Check if the value is instance of FutureTask, this means
-            // the index is in create phase.
-            if (ind instanceof FutureTask) {
-              continue;
-            }
-            IndexProtocol index = (IndexProtocol) ind;
-
-            if (((AbstractIndex) index).isPopulated() && index.getType() != IndexType.PRIMARY_KEY) {
-              AbstractIndex abstractIndex = (AbstractIndex) index;
-              if (logger.isDebugEnabled()) {
-                logger.debug("Removing from index: {}{} value: {}", index.getName(),
-                    this.region.getFullPath(), entry.getKey());
-              }
-              start = ((AbstractIndex) index).updateIndexUpdateStats();
-
-              index.removeIndexMapping(entry, opCode);
-
-              ((AbstractIndex) index).updateIndexUpdateStats(start);
-            }
-          }
           break;
         }
         default: {
@@ -1138,6 +1164,55 @@ public class IndexManager {
               LocalizedStrings.IndexManager_INVALID_ACTION.toLocalizedString());
         }
       }
+      Iterator iter = this.indexes.values().iterator();
+      while (iter.hasNext()) {
+        Object ind = iter.next();
+        // Check if the value is instance of FutureTask, this means
+        // the index is in create phase.
+        if (ind instanceof FutureTask) {
+          continue;
+        }
+        applyAction((IndexProtocol) ind, entry, action, opCode);
+      }
+    } finally {
+      this.cache.setPdxReadSerializedOverride(initialPdxReadSerialized);
+      ((TXManagerImpl) this.cache.getCacheTransactionManager()).unpauseTransaction(tx);
+
+      getCachePerfStats().endIndexUpdate(startPA);
+    }
+  }
+
+  /**
+   * Applies a batch of queued asynchronous updates. The batch is applied to one index after
+   * another, rather than one update after another, so that each index is visited once per batch.
+   *
+   * @param tasks the queued updates, each holding an action, an entry, an opCode and the cache time
+   *        at which it was queued
+   */
+  private void processActions(List<Object[]> tasks) throws QueryException {
+    final long startPA = getCachePerfStats().startIndexUpdate();
+    Boolean initialPdxReadSerialized = this.cache.getPdxReadSerializedOverride();
+    this.cache.setPdxReadSerializedOverride(true);
+    TXStateProxy tx = null;
+    if (!this.cache.isClient()) {
+      tx = ((TXManagerImpl) this.cache.getCacheTransactionManager()).pauseTransaction();
+    }
+    long oldestTaskTime = (Long) tasks.get(0)[3];
+    try {
+      Iterator iter = this.indexes.values().iterator();
+      while (iter.hasNext()) {
+        Object ind = iter.next();
+        // Check if the value is instance of FutureTask, this means
+        // the index is in create phase.
+        if (ind instanceof FutureTask) {
+          continue;
+        }
+        AbstractIndex index = (AbstractIndex) ind;
+        for (Object[] task : tasks) {
+          applyAction(index, (RegionEntry) task[1], (Integer) task[0], (Integer) task[2]);
+        }
+        index.recordAsyncUpdateBatch(this.cache.cacheTimeMillis() - oldestTaskTime);
+      }
     } finally {
       this.cache.setPdxReadSerializedOverride(initialPdxReadSerialized);
       ((TXManagerImpl) this.cache.getCacheTransactionManager()).unpauseTransaction(tx);
@@ -1146,6 +1221,71 @@ public class IndexManager {
     }
   }
 
+  /**
+   * Applies an add, update or remove of the entry to the index, if the index is being maintained.
+   */
+  private void applyAction(IndexProtocol index, RegionEntry entry, int action, int opCode)
+      throws QueryException {
+    if (!((AbstractIndex) index).isPopulated() || index.getType() == IndexType.PRIMARY_KEY) {
+      return;
+    }
+    long start = 0;
+    switch (action) {
+      case ADD_ENTRY: {
+        // Asif The behaviour can arise if an index creation has already
+        // acted upon a newly added entry , but by the time callback
+        // occurs , the index is added to the map & thus
+        // the add operation will now have an effect of update.
+        // so we need to remove the mapping even if it is an Add action
+        // as otherwise the new results will get added into the
+        // old results instead of replacement
+
+        // Asif : If the current Index contains an entry inspite
+        // of add operation , this can only mean that Index
+        // has already acted on it during creation, so do not
+        // apply IMQ on it
+        if (index.isValid() && !index.containsEntry(entry)) {
+          if (logger.isDebugEnabled()) {
+            logger.debug("Adding to index: {}{} value: {}", index.getName(),
+                this.region.getFullPath(), entry.getKey());
+          }
+          start = ((AbstractIndex) index).updateIndexUpdateStats();
+          addIndexMapping(entry, index);
+          ((AbstractIndex) index).updateIndexUpdateStats(start);
+        }
+        break;
+      }
+      case UPDATE_ENTRY: {
+        if (logger.isDebugEnabled()) {
+          logger.debug("Updating index: {}{} value: {}", index.getName(),
+              this.region.getFullPath(), entry.getKey());
+        }
+        start = ((AbstractIndex) index).updateIndexUpdateStats();
+
+        addIndexMapping(entry, index);
+
+        ((AbstractIndex) index).updateIndexUpdateStats(start);
+        break;
+      }
+      case REMOVE_ENTRY: {
+        if (logger.isDebugEnabled()) {
+          logger.debug("Removing from index: {}{} value: {}", index.getName(),
+              this.region.getFullPath(), entry.getKey());
+        }
+        start = ((AbstractIndex) index).updateIndexUpdateStats();
+
+        index.removeIndexMapping(entry, opCode);
+
+        ((AbstractIndex) index).updateIndexUpdateStats(start);
+        break;
+      }
+      default: {
+        throw new IndexMaintenanceException(
+            LocalizedStrings.IndexManager_INVALID_ACTION.toLocalizedString());
+      }
+    }
+  }
+
   private void addIndexMapping(RegionEntry entry, IndexProtocol index) throws IMQException {
     try {
       index.addIndexMapping(entry);
@@ -1224,7 +1364,8 @@ public class IndexManager {
           continue;
         }
         IndexProtocol index = (IndexProtocol) ind;
-        if (index.getType() == IndexType.FUNCTIONAL || index.getType() == IndexType.HASH) {
+        if (index.getType() == IndexType.FUNCTIONAL || index.getType() == IndexType.HASH
+            || index.getType() == IndexType.BITMAP) {
           AbstractIndex aIndex = ((AbstractIndex) index);
           start = ((AbstractIndex) index).updateIndexUpdateStats();
           ((AbstractIndex) index).recreateIndexData();
@@ -1291,8 +1432,11 @@ public class IndexManager {
    */
   public void destroy() throws QueryException {
     this.indexes.clear();
-    if (!isIndexMaintenanceTypeSynchronous())
-      updater.shutdown();
+    if (!isIndexMaintenanceTypeSynchronous()) {
+      for (IndexUpdaterThread updater : updaters) {
+        updater.shutdown();
+      }
+    }
   }
 
   /**
@@ -1331,6 +1475,16 @@ public class IndexManager {
     return sb.toString();
   }
 
+  /**
+   * @return the ordinals of the entries of this region, shared by all its bitmap indexes
+   */
+  synchronized EntryOrdinals getEntryOrdinals() {
+    if (this.entryOrdinals == null) {
+      this.entryOrdinals = new EntryOrdinals();
+    }
+    return this.entryOrdinals;
+  }
+
   public boolean isIndexMaintenanceTypeSynchronous() {
     return this.indexMaintenanceSynchronous;
   }
@@ -1399,6 +1553,17 @@ public class IndexManager {
 
     private volatile BlockingQueue pendingTasks;
 
+    /** Queued and in progress tasks; guarded by progressLock */
+    private int numPendingTasks = 0;
+
+    /** The time at which the last applied task was queued; guarded by progressLock */
+    private long appliedThrough = 0;
+
+    /** The time at which the last task was queued; guarded by progressLock */
+    private long lastQueuedTime = 0;
+
+    private final Object progressLock = new Object();
+
     /**
      * Creates instance of IndexUpdaterThread
      */
@@ -1416,11 +1581,18 @@ public class IndexManager {
     }
 
     public void addTask(int action, RegionEntry entry, int opCode) {
-      Object[] task = new Object[3];
+      Object[] task = new Object[4];
       task[0] = action;
       task[1] = entry;
       task[2] = opCode;
-      pendingTasks.add(task);
+      // the tasks are queued in the order of their times, so that a task applied shows that all
+      // the tasks queued before it have been applied
+      synchronized (this.progressLock) {
+        this.lastQueuedTime = Math.max(this.lastQueuedTime, cache.cacheTimeMillis());
+        task[3] = this.lastQueuedTime;
+        pendingTasks.add(task);
+        this.numPendingTasks++;
+      }
     }
 
     /**
@@ -1445,6 +1617,7 @@ public class IndexManager {
       // async writers main loop
       // logger.debug("DiskRegion writer started (writer=" + this + ")");
       org.apache.geode.CancelCriterion stopper = ((LocalRegion) region).getCancelCriterion();
+      List<Object[]> batch = new ArrayList<>(ASYNC_INDEX_UPDATE_BATCH_SIZE);
       try {
         while (!this.shutdownRequested) {
           // Termination checks
@@ -1453,13 +1626,19 @@ public class IndexManager {
             break;
           }
           try {
-            Object[] task = (Object[]) pendingTasks.take();
+            batch.add((Object[]) pendingTasks.take());
+            pendingTasks.drainTo(batch, ASYNC_INDEX_UPDATE_BATCH_SIZE - 1);
             if (this.shutdownRequested) {
               break;
             }
-            updateIndexes(task);
+            updateIndexes(batch);
           } catch (InterruptedException ignore) {
             return; // give up (exit the thread)
+          } finally {
+            if (!batch.isEmpty()) {
+              taskApplied(batch.size(), (Long) batch.get(batch.size() - 1)[3]);
+              batch.clear();
+            }
           }
         }
       } finally {
@@ -1467,38 +1646,81 @@ public class IndexManager {
       }
     }
 
-    private void updateIndexes(Object[] task) {
-      int action = (Integer) task[0];
-      RegionEntry entry = (RegionEntry) task[1];
-      int opCode = (Integer) task[2];
-      // System.out.println("entry = "+entry.getKey());
-      if (entry != null || action == RECREATE_INDEX) {
-        try {
-          if (action == RECREATE_INDEX) {
-            recreateAllIndexesForRegion();
-          } else {
-            if (entry != null) {
-              entry.setUpdateInProgress(true);
+    /**
+     * Applies the batch, recreating the indexes in place of the entry updates queued with a
+     * recreate task. Entry updates are applied while holding off index creation, as the threads
+     * making synchronous updates do.
+     */
+    private void updateIndexes(List<Object[]> batch) {
+      int from = 0;
+      for (int i = 0; i <= batch.size(); i++) {
+        if (i < batch.size() && (Integer) batch.get(i)[0] != RECREATE_INDEX) {
+          continue;
+        }
+        if (i > from) {
+          List<Object[]> entryTasks = batch.subList(from, i);
+          for (Object[] task : entryTasks) {
+            ((RegionEntry) task[1]).setUpdateInProgress(true);
+          }
+          waitForIndexInit();
+          try {
+            processActions(entryTasks);
+          } catch (Exception e) {
+            logger.warn("Asynchronous index update failed on region {}", region.getFullPath(), e);
+          } finally {
+            countDownIndexUpdaters();
+            for (Object[] task : entryTasks) {
+              ((RegionEntry) task[1]).setUpdateInProgress(false);
             }
-            processAction(entry, action, opCode);
           }
-        } catch (Exception e) {
-          e.printStackTrace();
-        } finally {
-          if (entry != null && action != RECREATE_INDEX) {
-            entry.setUpdateInProgress(false);
+        }
+        if (i < batch.size()) {
+          recreateAllIndexesForRegion();
+        }
+        from = i + 1;
+      }
+    }
+
+    private void taskApplied(int numTasks, long queuedTime) {
+      synchronized (this.progressLock) {
+        this.numPendingTasks -= numTasks;
+        this.appliedThrough = queuedTime;
+        this.progressLock.notifyAll();
+      }
+    }
+
+    /**
+     * Waits until every task queued up to the given cache time has been applied.
+     *
+     * @return false if the deadline passed first
+     */
+    boolean waitUntilApplied(long cacheTimeMillis, long deadline) throws InterruptedException {
+      synchronized (this.progressLock) {
+        while (this.numPendingTasks > 0 && this.appliedThrough <= cacheTimeMillis
+            && this.running) {
+          long remaining = deadline - System.currentTimeMillis();
+          if (remaining <= 0) {
+            return false;
           }
+          this.progressLock.wait(remaining);
         }
+        return true;
       }
     }
 
     /**
-     * Used by tests to determine if the updater thread has finished updating its indexes. The list
-     * is cleared without synchronization, which makes this methods somewhat unsafe from a threading
-     * point of view.
+     * Used by tests to determine if the updater threads of the region have finished updating its
+     * indexes, including the updates they have taken off their queues but not yet applied.
      */
-    public synchronized boolean isDone() {
-      return this.pendingTasks.size() == 0;
+    public boolean isDone() {
+      for (IndexUpdaterThread updater : updaters) {
+        synchronized (updater.progressLock) {
+          if (updater.numPendingTasks > 0) {
+            return false;
+          }
+        }
+      }
+      return true;
     }
 
   }
@@ -1614,6 +1836,13 @@ public class IndexManager {
 
         logger.info("Using Hash index implementation for '{}' on region {}", indexName,
             region.getFullPath());
+      } else if (indexType == IndexType.BITMAP) {
+        index = new BitmapIndex(cache, indexName, region, fromClause, indexedExpression,
+            projectionAttributes, origFromClause, origIndexedExpression, definitions, stats,
+            IndexManager.this.getEntryOrdinals());
+
+        logger.info("Using Bitmap index implementation for '{}' on region {}", indexName,
+            region.getFullPath());
       } else {
         // boolean isCompact = !helper.isMapTypeIndex() &&
         // shouldCreateCompactIndex((FunctionalIndexCreationHelper)helper);
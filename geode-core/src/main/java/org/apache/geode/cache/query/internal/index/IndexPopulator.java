@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.index;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.internal.cache.RegionEntry;
+
+/**
+ * Populates indexes on a fork-join pool shared by all regions. A region is scanned once for all
+ * the indexes being populated and its entries are handed out to the pool in batches, every batch
+ * being added to each of the indexes. The buckets of a partitioned region are populated as
+ * separate tasks on the same pool.
+ *
+ * @since Geode 1.8
+ */
+public class IndexPopulator {
+
+  /**
+   * System property for the number of threads populating indexes; 1 populates indexes on the
+   * creating thread, scanning one region or bucket after another.
+   */
+  public static final int POPULATION_THREADS =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "index.POPULATION_THREADS",
+          Runtime.getRuntime().availableProcessors());
+
+  /**
+   * System property for the number of entries handed to a population thread at a time.
+   */
+  static final int BATCH_SIZE =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "index.POPULATION_BATCH_SIZE", 1000);
+
+  /** Batches scanned ahead of the population threads; bounds the entries held by pending tasks */
+  private static final int MAX_PENDING_BATCHES = POPULATION_THREADS * 4;
+
+  private static ForkJoinPool pool = null;
+
+  private IndexPopulator() {}
+
+  private static synchronized ForkJoinPool getPool() {
+    if (pool == null || pool.isShutdown()) {
+      pool = new ForkJoinPool(POPULATION_THREADS, forkJoinPool -> {
+        ForkJoinWorkerThread thread =
+            ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+        thread.setName("IndexPopulator-" + thread.getPoolIndex());
+        return thread;
+      }, null, false);
+    }
+    return pool;
+  }
+
+  /**
+   * Closes the pool. This is called when the cache is closed.
+   */
+  public static synchronized void shutdown() {
+    if (pool != null) {
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * Runs the tasks concurrently on the pool and returns when all of them are done. A runtime
+   * exception thrown by a task is rethrown.
+   */
+  public static void runAll(List<Runnable> tasks) {
+    if (POPULATION_THREADS <= 1 || tasks.size() <= 1) {
+      tasks.forEach(Runnable::run);
+      return;
+    }
+    invoke(new RecursiveAction() {
+      @Override
+      protected void compute() {
+        List<ForkJoinTask<?>> forkJoinTasks = new ArrayList<>(tasks.size());
+        for (Runnable task : tasks) {
+          forkJoinTasks.add(ForkJoinTask.adapt(task));
+        }
+        invokeAll(forkJoinTasks);
+      }
+    });
+  }
+
+  /**
+   * Scans the entries on the calling thread, or on the pool if the calling thread is not one of its
+   * workers, and hands them to the action in batches which are processed concurrently. Returns
+   * when every batch has been processed. A runtime exception thrown by the action is rethrown.
+   */
+  static void forEachBatch(Iterator entries, Consumer<List<RegionEntry>> action) {
+    if (POPULATION_THREADS <= 1) {
+      while (entries.hasNext()) {
+        action.accept(nextBatch(entries));
+      }
+      return;
+    }
+    invoke(new RecursiveAction() {
+      @Override
+      protected void compute() {
+        Deque<ForkJoinTask<?>> pending = new ArrayDeque<>();
+        while (entries.hasNext()) {
+          List<RegionEntry> batch = nextBatch(entries);
+          if (!entries.hasNext()) {
+            // the last batch is processed by the scanning thread itself
+            action.accept(batch);
+            break;
+          }
+          pending.add(ForkJoinTask.adapt(() -> action.accept(batch)).fork());
+          if (pending.size() >= MAX_PENDING_BATCHES) {
+            pending.poll().join();
+          }
+        }
+        for (ForkJoinTask<?> task : pending) {
+          task.join();
+        }
+      }
+    });
+  }
+
+  private static List<RegionEntry> nextBatch(Iterator entries) {
+    List<RegionEntry> batch = new ArrayList<>(BATCH_SIZE);
+    while (batch.size() < BATCH_SIZE && entries.hasNext()) {
+      batch.add((RegionEntry) entries.next());
+    }
+    return batch;
+  }
+
+  /**
+   * Runs the task on the pool and waits for it; a worker of the pool, populating a bucket, runs it
+   * in place so that it keeps helping with the other tasks while it waits.
+   */
+  private static void invoke(ForkJoinTask<?> task) {
+    ForkJoinPool forkJoinPool = getPool();
+    if (ForkJoinTask.getPool() == forkJoinPool) {
+      task.invoke();
+    } else {
+      forkJoinPool.invoke(task);
+    }
+  }
+}
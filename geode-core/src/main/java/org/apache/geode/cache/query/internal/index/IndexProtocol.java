@@ -164,6 +164,13 @@ public interface IndexProtocol extends Index {
 
   int getSizeEstimate(Object key, int op, int matchLevel) throws TypeMismatchException;
 
+  /**
+   * Returns the estimated number of values of a range condition with a lower bound (GT or GE) and
+   * an upper bound (LT or LE).
+   */
+  int getSizeEstimate(Object lowerKey, int lowerOp, Object upperKey, int upperOp, int matchLevel)
+      throws TypeMismatchException;
+
   boolean isMatchingWithIndexExpression(CompiledValue condnExpr, String condnExprStr,
       ExecutionContext context)
       throws AmbiguousNameException, TypeMismatchException, NameResolutionException;
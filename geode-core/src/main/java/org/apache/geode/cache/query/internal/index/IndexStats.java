@@ -40,6 +40,8 @@ public class IndexStats {
   private static final int readLockCountId;
   private static final int numMapIndexKeysId;
   private static final int numBucketIndexesId;
+  private static final int asyncUpdateBatchesId;
+  private static final int asyncUpdateLagId;
 
   /** The Statistics object that we delegate most behavior to */
   private final Statistics stats;
@@ -66,7 +68,13 @@ public class IndexStats {
             f.createIntGauge("readLockCount", "Current number of read locks taken.", "uses"),
             f.createLongGauge("numMapIndexKeys", "Number of keys in this Map index", "keys"),
             f.createIntGauge("numBucketIndexes",
-                "Number of bucket indexes in the partitioned region", "indexes"),});
+                "Number of bucket indexes in the partitioned region", "indexes"),
+            f.createLongCounter("asyncUpdateBatches",
+                "Number of batches of asynchronous updates applied to this index", "operations"),
+            f.createLongGauge("asyncUpdateLag",
+                "Time the oldest update of the last batch of asynchronous updates applied to this"
+                    + " index waited to be applied",
+                "milliseconds"),});
 
     // Initialize id fields
     numKeysId = type.nameToId("numKeys");
@@ -80,6 +88,8 @@ public class IndexStats {
     readLockCountId = type.nameToId("readLockCount");
     numMapIndexKeysId = type.nameToId("numMapIndexKeys");
     numBucketIndexesId = type.nameToId("numBucketIndexes");
+    asyncUpdateBatchesId = type.nameToId("asyncUpdateBatches");
+    asyncUpdateLagId = type.nameToId("asyncUpdateLag");
   }
 
   /**
@@ -126,6 +136,14 @@ public class IndexStats {
     return stats.getInt(numBucketIndexesId);
   }
 
+  public long getAsyncUpdateBatches() {
+    return stats.getLong(asyncUpdateBatchesId);
+  }
+
+  public long getAsyncUpdateLag() {
+    return stats.getLong(asyncUpdateLagId);
+  }
+
   public void incNumUpdates() {
     this.stats.incLong(numUpdatesId, 1);
   }
@@ -182,6 +200,17 @@ public class IndexStats {
     this.stats.incInt(numBucketIndexesId, delta);
   }
 
+  /**
+   * Records a batch of asynchronous updates applied to the index. The updates themselves are
+   * counted by {@link #incNumUpdates()} as they are applied.
+   *
+   * @param lagMillis the time the oldest update of the batch waited to be applied
+   */
+  public void recordAsyncUpdateBatch(long lagMillis) {
+    this.stats.incLong(asyncUpdateBatchesId, 1);
+    this.stats.setLong(asyncUpdateLagId, lagMillis);
+  }
+
   /**
    * Closes these stats so that they can not longer be used. The stats are closed when the cache is
    * closed.
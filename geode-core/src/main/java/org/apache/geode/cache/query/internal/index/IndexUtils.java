@@ -92,6 +92,16 @@ public class IndexUtils {
               context);
         }
       }
+      // Bitmap indexes serve the same equality and not equals conditions
+      if (indxData == null) {
+        if (useOnlyExactIndexs) {
+          indxData =
+              qs.getIndex(regionpath, defintions, IndexType.BITMAP, indexedExpression, context);
+        } else {
+          indxData = qs.getBestMatchIndex(regionpath, defintions, IndexType.BITMAP,
+              indexedExpression, context);
+        }
+      }
     }
 
     // If Primary Key Index not found or is not valid search for FUNCTIONAL
@@ -100,6 +100,12 @@ public class PartitionedIndex extends AbstractIndex {
             LocalizedStrings.DefaultQueryService_HASH_INDEX_CREATION_IS_NOT_SUPPORTED_FOR_ASYNC_MAINTENANCE
                 .toLocalizedString());
       }
+    } else if (iType == IndexType.BITMAP) {
+      if (!getRegion().getAttributes().getIndexMaintenanceSynchronous()) {
+        throw new UnsupportedOperationException(
+            LocalizedStrings.DefaultQueryService_BITMAP_INDEX_CREATION_IS_NOT_SUPPORTED_FOR_ASYNC_MAINTENANCE
+                .toLocalizedString());
+      }
     }
   }
 
@@ -483,6 +489,10 @@ public class PartitionedIndex extends AbstractIndex {
       this.vsdStats.incReadLockCount(delta);
     }
 
+    public void recordAsyncUpdateBatch(long lagMillis) {
+      this.vsdStats.recordAsyncUpdateBatch(lagMillis);
+    }
+
     public void incNumBucketIndexes(int delta) {
       this.vsdStats.incNumBucketIndexes(delta);
     }
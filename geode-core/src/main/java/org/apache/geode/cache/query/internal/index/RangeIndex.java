@@ -677,6 +677,10 @@ public class RangeIndex extends AbstractIndex {
           break;
         case OQLLexerTokenTypes.TOK_LE:
         case OQLLexerTokenTypes.TOK_LT:
+          size = estimateRangeSize(null, 0, key, operator, matchLevel);
+          if (size >= 0) {
+            break;
+          }
           if (matchLevel <= 0 && key instanceof Number) {
             int totalSize = valueToEntriesMapSize;// this.valueToEntriesMap.size();
             if (RangeIndex.testHook != null) {
@@ -716,6 +720,10 @@ public class RangeIndex extends AbstractIndex {
 
         case OQLLexerTokenTypes.TOK_GE:
         case OQLLexerTokenTypes.TOK_GT:
+          size = estimateRangeSize(key, operator, null, 0, matchLevel);
+          if (size >= 0) {
+            break;
+          }
           if (matchLevel <= 0 && key instanceof Number) {
             int totalSize = valueToEntriesMapSize;// this.valueToEntriesMap.size();
             if (testHook != null) {
@@ -1523,6 +1531,10 @@ public class RangeIndex extends AbstractIndex {
       this.vsdStats.incReadLockCount(delta);
     }
 
+    public void recordAsyncUpdateBatch(long lagMillis) {
+      this.vsdStats.recordAsyncUpdateBatch(lagMillis);
+    }
+
     /**
      * Returns the total amount of time (in nanoseconds) spent updating this index.
      */
@@ -1593,6 +1605,15 @@ public class RangeIndex extends AbstractIndex {
     return valueToEntriesMapSize == 0 ? true : false;
   }
 
+  @Override
+  boolean collectKeyStatistics(IndexKeyStatistics.Builder builder) {
+    for (Object entry : this.valueToEntriesMap.entrySet()) {
+      Map.Entry mapEntry = (Map.Entry) entry;
+      builder.add(mapEntry.getKey(), ((RegionEntryToValuesMap) mapEntry.getValue()).getNumValues());
+    }
+    return true;
+  }
+
   @Override
   public Map getValueToEntriesMap() {
     return valueToEntriesMap;
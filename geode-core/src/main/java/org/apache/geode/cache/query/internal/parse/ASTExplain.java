@@ -0,0 +1,38 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.parse;
+
+import antlr.collections.AST;
+
+import org.apache.geode.cache.query.QueryInvalidException;
+import org.apache.geode.cache.query.internal.QCompiler;
+
+/**
+ * The {@code <explain>} or {@code <explain analyze>} prefix of a query.
+ *
+ * @since Geode 1.8
+ */
+public class ASTExplain extends GemFireAST {
+  private static final long serialVersionUID = 4632085743416295391L;
+
+  @Override
+  public void compile(QCompiler compiler) {
+    AST option = getFirstChild();
+    if (option != null && !option.getText().equalsIgnoreCase("analyze")) {
+      throw new QueryInvalidException("Unknown explain option: " + option.getText());
+    }
+    compiler.explainRequest(option != null);
+  }
+}
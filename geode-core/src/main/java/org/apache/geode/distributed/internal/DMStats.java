@@ -108,6 +108,11 @@ public interface DMStats {
    */
   void incSentBytes(long bytes);
 
+  /**
+   * Increments the total number of message bytes that were not sent because they were compressed
+   */
+  void incBytesSavedByCompression(long bytes);
+
   /**
    * Returns the total number of messages processed by the distribution manager
    */
@@ -698,4 +703,24 @@ public interface DMStats {
   long getUdpFinalCheckResponsesReceived();
 
   void incUdpFinalCheckResponsesReceived();
+
+  // Stats for JGroupsMessenger bundling
+  long getUdpMessagesSent();
+
+  void incUdpMessagesSent();
+
+  long getUdpDatagramsSent();
+
+  void incUdpDatagramsSent();
+
+  /**
+   * Counts a message of the given type, and its serialized size, sent by the membership messenger
+   */
+  void incUdpMessageTypeSent(Class<?> messageType, int bytes);
+
+  /**
+   * Counts a message of the given type, and its serialized size, received by the membership
+   * messenger
+   */
+  void incUdpMessageTypeReceived(Class<?> messageType, int bytes);
 }
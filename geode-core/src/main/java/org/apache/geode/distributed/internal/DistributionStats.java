@@ -14,6 +14,9 @@
  */
 package org.apache.geode.distributed.internal;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 import org.apache.logging.log4j.Logger;
 
 import org.apache.geode.StatisticDescriptor;
@@ -24,7 +27,6 @@ import org.apache.geode.StatisticsTypeFactory;
 import org.apache.geode.internal.NanoTimer;
 import org.apache.geode.internal.logging.LogService;
 import org.apache.geode.internal.statistics.StatisticsTypeFactoryImpl;
-import org.apache.geode.internal.tcp.Buffers;
 import org.apache.geode.internal.util.Breadcrumbs;
 
 /**
@@ -52,6 +54,7 @@ public class DistributionStats implements DMStats {
   private static final int receivedMessagesId;
   private static final int receivedBytesId;
   private static final int sentBytesId;
+  private static final int bytesSavedByCompressionId;
   private static final int processedMessagesId;
   private static final int processedMessagesTimeId;
   private static final int messageProcessingScheduleTimeId;
@@ -235,6 +238,16 @@ public class DistributionStats implements DMStats {
   private static final int udpFinalCheckResponsesSentId;
   private static final int udpFinalCheckResponsesReceivedId;
 
+  // For JGroupsMessenger bundling
+  private static final int udpMessagesSentId;
+  private static final int udpDatagramsSentId;
+
+  private static final StatisticsType udpMessageTypeType;
+  private static final int udpMessageTypeMessagesSentId;
+  private static final int udpMessageTypeBytesSentId;
+  private static final int udpMessageTypeMessagesReceivedId;
+  private static final int udpMessageTypeBytesReceivedId;
+
   static {
     String statName = "DistributionStats";
     String statDescription = "Statistics on the gemfire distribution layer.";
@@ -259,6 +272,8 @@ public class DistributionStats implements DMStats {
         "The number of distribution message bytes that this GemFire system has received.";
     final String sentBytesDesc =
         "The number of distribution message bytes that this GemFire system has sent.";
+    final String bytesSavedByCompressionDesc =
+        "The number of distribution message bytes that this GemFire system did not send because they were compressed.";
     final String processedMessagesDesc =
         "The number of distribution messages that this GemFire system has processed.";
     final String processedMessagesTimeDesc =
@@ -439,6 +454,13 @@ public class DistributionStats implements DMStats {
     final String udpFinalCheckResponsesReceivedDesc =
         "UDP final check responses that this member has received.";
 
+    final String udpMessagesSentDesc =
+        "Messages, including JGroups protocol messages, that the membership messenger has passed "
+            + "to its UDP transport.";
+    final String udpDatagramsSentDesc =
+        "UDP datagrams sent by the membership messenger. This is less than udpMessagesSent when "
+            + "messages are bundled.";
+
     StatisticsTypeFactory f = StatisticsTypeFactoryImpl.singleton();
 
     type = f.createType(statName, statDescription, new StatisticDescriptor[] {
@@ -453,6 +475,7 @@ public class DistributionStats implements DMStats {
         f.createLongCounter("receivedMessages", receivedMessagesDesc, "messages"),
         f.createLongCounter("receivedBytes", receivedBytesDesc, "bytes"),
         f.createLongCounter("sentBytes", sentBytesDesc, "bytes"),
+        f.createLongCounter("bytesSavedByCompression", bytesSavedByCompressionDesc, "bytes"),
         f.createLongCounter("processedMessages", processedMessagesDesc, "messages"),
         f.createLongCounter("processedMessagesTime", processedMessagesTimeDesc, "nanoseconds",
             false),
@@ -738,7 +761,11 @@ public class DistributionStats implements DMStats {
         f.createLongCounter("udpFinalCheckResponsesSent", udpFinalCheckResponsesSentDesc,
             "messages"),
         f.createLongCounter("udpFinalCheckResponsesReceived", udpFinalCheckResponsesReceivedDesc,
-            "messages"),});
+            "messages"),
+
+        // For JGroupsMessenger bundling
+        f.createLongCounter("udpMessagesSent", udpMessagesSentDesc, "messages"),
+        f.createLongCounter("udpDatagramsSent", udpDatagramsSentDesc, "datagrams"),});
 
     // Initialize id fields
     sentMessagesId = type.nameToId("sentMessages");
@@ -751,6 +778,7 @@ public class DistributionStats implements DMStats {
     receivedMessagesId = type.nameToId("receivedMessages");
     receivedBytesId = type.nameToId("receivedBytes");
     sentBytesId = type.nameToId("sentBytes");
+    bytesSavedByCompressionId = type.nameToId("bytesSavedByCompression");
     processedMessagesId = type.nameToId("processedMessages");
     processedMessagesTimeId = type.nameToId("processedMessagesTime");
     messageProcessingScheduleTimeId = type.nameToId("messageProcessingScheduleTime");
@@ -928,11 +956,39 @@ public class DistributionStats implements DMStats {
     udpFinalCheckRequestsReceivedId = type.nameToId("udpFinalCheckRequestsReceived");
     udpFinalCheckResponsesSentId = type.nameToId("udpFinalCheckResponsesSent");
     udpFinalCheckResponsesReceivedId = type.nameToId("udpFinalCheckResponsesReceived");
+
+    // For JGroupsMessenger bundling
+    udpMessagesSentId = type.nameToId("udpMessagesSent");
+    udpDatagramsSentId = type.nameToId("udpDatagramsSent");
+
+    udpMessageTypeType = f.createType("UDPMessageTypeStats",
+        "Statistics on one type of message sent and received by the membership messenger.",
+        new StatisticDescriptor[] {
+            f.createLongCounter("messagesSent", "Messages of this type sent.", "messages"),
+            f.createLongCounter("bytesSent", "Serialized bytes of the messages of this type sent.",
+                "bytes"),
+            f.createLongCounter("messagesReceived", "Messages of this type received.",
+                "messages"),
+            f.createLongCounter("bytesReceived",
+                "Serialized bytes of the messages of this type received.", "bytes"),});
+    udpMessageTypeMessagesSentId = udpMessageTypeType.nameToId("messagesSent");
+    udpMessageTypeBytesSentId = udpMessageTypeType.nameToId("bytesSent");
+    udpMessageTypeMessagesReceivedId = udpMessageTypeType.nameToId("messagesReceived");
+    udpMessageTypeBytesReceivedId = udpMessageTypeType.nameToId("bytesReceived");
   }
 
   /** The Statistics object that we delegate most behavior to */
   private final Statistics stats;
 
+  /** Creates the statistics of each type of membership message; null when used by tests */
+  private final StatisticsFactory statisticsFactory;
+
+  private final long statId;
+
+  /** The statistics of each type of membership message, created when the type is first seen */
+  private final ConcurrentMap<Class<?>, Statistics> udpMessageTypeStats =
+      new ConcurrentHashMap<>();
+
   // private final HistogramStats replyHandoffHistogram;
   // private final HistogramStats replyWaitHistogram;
 
@@ -944,13 +1000,14 @@ public class DistributionStats implements DMStats {
    */
   public DistributionStats(StatisticsFactory f, long statId) {
     this.stats = f.createAtomicStatistics(type, "distributionStats", statId);
+    this.statisticsFactory = f;
+    this.statId = statId;
     // this.replyHandoffHistogram = new HistogramStats("ReplyHandOff", "nanoseconds", f,
     // new long[] {100000, 200000, 300000, 400000, 500000, 600000, 700000, 800000, 900000, 1000000},
     // false);
     // this.replyWaitHistogram = new HistogramStats("ReplyWait", "nanoseconds", f,
     // new long[] {100000, 200000, 300000, 400000, 500000, 600000, 700000, 800000, 900000, 1000000},
     // false);
-    Buffers.initBufferStats(this);
   }
 
   /**
@@ -958,6 +1015,8 @@ public class DistributionStats implements DMStats {
    */
   public DistributionStats(Statistics stats) {
     this.stats = stats;
+    this.statisticsFactory = null;
+    this.statId = 0;
     // this.replyHandoffHistogram = null;
     // this.replyWaitHistogram = null;
   }
@@ -975,6 +1034,9 @@ public class DistributionStats implements DMStats {
 
   public void close() {
     this.stats.close();
+    for (Statistics messageTypeStats : this.udpMessageTypeStats.values()) {
+      messageTypeStats.close();
+    }
   }
 
   /**
@@ -1103,6 +1165,10 @@ public class DistributionStats implements DMStats {
     this.stats.incLong(sentBytesId, bytes);
   }
 
+  public void incBytesSavedByCompression(long bytes) {
+    this.stats.incLong(bytesSavedByCompressionId, bytes);
+  }
+
   /**
    * Returns the total number of messages processed by the distribution manager
    */
@@ -2425,4 +2491,48 @@ public class DistributionStats implements DMStats {
     this.stats.incLong(udpFinalCheckResponsesReceivedId, 1L);
   }
 
+  public long getUdpMessagesSent() {
+    return this.stats.getLong(udpMessagesSentId);
+  }
+
+  public void incUdpMessagesSent() {
+    this.stats.incLong(udpMessagesSentId, 1L);
+  }
+
+  public long getUdpDatagramsSent() {
+    return this.stats.getLong(udpDatagramsSentId);
+  }
+
+  public void incUdpDatagramsSent() {
+    this.stats.incLong(udpDatagramsSentId, 1L);
+  }
+
+  public void incUdpMessageTypeSent(Class<?> messageType, int bytes) {
+    Statistics messageTypeStats = getUdpMessageTypeStats(messageType);
+    if (messageTypeStats != null) {
+      messageTypeStats.incLong(udpMessageTypeMessagesSentId, 1L);
+      messageTypeStats.incLong(udpMessageTypeBytesSentId, bytes);
+    }
+  }
+
+  public void incUdpMessageTypeReceived(Class<?> messageType, int bytes) {
+    Statistics messageTypeStats = getUdpMessageTypeStats(messageType);
+    if (messageTypeStats != null) {
+      messageTypeStats.incLong(udpMessageTypeMessagesReceivedId, 1L);
+      messageTypeStats.incLong(udpMessageTypeBytesReceivedId, bytes);
+    }
+  }
+
+  /**
+   * Returns the statistics of the given type of membership message, named after its class, or
+   * null if this instance was created by a test without a statistics factory.
+   */
+  private Statistics getUdpMessageTypeStats(Class<?> messageType) {
+    if (this.statisticsFactory == null) {
+      return null;
+    }
+    return this.udpMessageTypeStats.computeIfAbsent(messageType, k -> this.statisticsFactory
+        .createAtomicStatistics(udpMessageTypeType, k.getSimpleName(), this.statId));
+  }
+
 }
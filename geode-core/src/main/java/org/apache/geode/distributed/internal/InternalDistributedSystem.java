@@ -99,6 +99,8 @@ import org.apache.geode.internal.logging.log4j.AlertAppender;
 import org.apache.geode.internal.logging.log4j.LocalizedMessage;
 import org.apache.geode.internal.logging.log4j.LogWriterAppender;
 import org.apache.geode.internal.logging.log4j.LogWriterAppenders;
+import org.apache.geode.internal.net.BufferPool;
+import org.apache.geode.internal.net.BufferPoolStats;
 import org.apache.geode.internal.net.SocketCreatorFactory;
 import org.apache.geode.internal.offheap.MemoryAllocator;
 import org.apache.geode.internal.offheap.OffHeapStorage;
@@ -811,6 +813,7 @@ public class InternalDistributedSystem extends DistributedSystem
         this.sampler = new GemFireStatSampler(this);
         this.sampler.start();
       }
+      this.bufferPoolStats = new BufferPoolStats(this, BufferPool.getInstance());
 
       if (this.logWriterAppender != null) {
         LogWriterAppenders.startupComplete(LogWriterAppenders.Identifier.MAIN);
@@ -1451,6 +1454,11 @@ public class InternalDistributedSystem extends DistributedSystem
         doShutdownListeners(shutdownListeners);
       }
 
+      if (this.bufferPoolStats != null) {
+        this.bufferPoolStats.close();
+        this.bufferPoolStats = null;
+      }
+
       // closing the Aggregate stats
       if (functionServiceStats != null) {
         functionServiceStats.close();
@@ -1784,6 +1792,9 @@ public class InternalDistributedSystem extends DistributedSystem
       new ConcurrentHashMap<String, FunctionStats>();
   private FunctionServiceStats functionServiceStats = null;
 
+  /** Exposes the occupancy of the shared direct buffer pool */
+  private BufferPoolStats bufferPoolStats = null;
+
   public int getStatListModCount() {
     return this.statsListModCount;
   }
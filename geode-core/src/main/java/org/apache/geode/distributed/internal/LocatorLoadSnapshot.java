@@ -423,9 +423,26 @@ public class LocatorLoadSnapshot {
    * each server.
    */
   public synchronized Map<ServerLocation, ServerLoad> getLoadMap() {
-    Map connectionMap = (Map) connectionLoadMap.get(null);
-    Map queueMap = (Map) queueLoadMap.get(null);
+    return getLoadMap(null);
+  }
+
+  /**
+   * Get the current connection and queue load of each server in the given group. This is the
+   * snapshot handed to clients that lease a server list and pick servers themselves.
+   *
+   * @param group the group, or null or "" for all servers
+   * @return a map of ServerLocation->Load, empty if the group has no servers
+   */
+  public synchronized Map<ServerLocation, ServerLoad> getLoadMap(String group) {
+    if ("".equals(group)) {
+      group = null;
+    }
+    Map connectionMap = (Map) connectionLoadMap.get(group);
+    Map queueMap = (Map) queueLoadMap.get(group);
     Map result = new HashMap();
+    if (connectionMap == null || queueMap == null) {
+      return result;
+    }
 
     for (Iterator itr = connectionMap.entrySet().iterator(); itr.hasNext();) {
       Map.Entry next = (Entry) itr.next();
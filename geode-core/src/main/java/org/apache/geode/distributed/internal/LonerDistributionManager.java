@@ -387,6 +387,9 @@ public class LonerDistributionManager implements DistributionManager {
     @Override
     public void incSentBytes(long bytes) {}
 
+    @Override
+    public void incBytesSavedByCompression(long bytes) {}
+
     @Override
     public long getProcessedMessages() {
       return 0;
@@ -983,6 +986,28 @@ public class LonerDistributionManager implements DistributionManager {
     @Override
     public void incUdpFinalCheckResponsesReceived() {}
 
+    @Override
+    public long getUdpMessagesSent() {
+      return 0;
+    }
+
+    @Override
+    public void incUdpMessagesSent() {}
+
+    @Override
+    public long getUdpDatagramsSent() {
+      return 0;
+    }
+
+    @Override
+    public void incUdpDatagramsSent() {}
+
+    @Override
+    public void incUdpMessageTypeSent(Class<?> messageType, int bytes) {}
+
+    @Override
+    public void incUdpMessageTypeReceived(Class<?> messageType, int bytes) {}
+
     @Override
     public long startUDPMsgEncryption() {
       return 0;
@@ -42,6 +42,8 @@ import org.apache.geode.cache.client.internal.locator.LocatorListResponse;
 import org.apache.geode.cache.client.internal.locator.LocatorStatusResponse;
 import org.apache.geode.cache.client.internal.locator.QueueConnectionRequest;
 import org.apache.geode.cache.client.internal.locator.QueueConnectionResponse;
+import org.apache.geode.cache.client.internal.locator.ServerListLeaseRequest;
+import org.apache.geode.cache.client.internal.locator.ServerListLeaseResponse;
 import org.apache.geode.cache.client.internal.locator.ServerLocationRequest;
 import org.apache.geode.cache.server.ServerLoad;
 import org.apache.geode.distributed.DistributedMember;
@@ -84,6 +86,14 @@ public class ServerLocator implements TcpHandler, DistributionAdvisee {
   private static final long SERVER_LOAD_LOG_INTERVAL = (60 * 60 * 1000); // log server load once an
                                                                          // hour
 
+  /**
+   * How long, in milliseconds, a client may pick servers from a leased server list before asking
+   * for a new one. The default matches the default server load poll interval, so a lease is about
+   * as fresh as the load the locator knows of.
+   */
+  static final long SERVER_LIST_LEASE_TIME =
+      Long.getLong(DistributionConfig.GEMFIRE_PREFIX + "SERVER_LIST_LEASE_TIME", 5000);
+
   private final String logFile;
   private final String hostName;
   private final String memberName;
@@ -199,6 +209,9 @@ public class ServerLocator implements TcpHandler, DistributionAdvisee {
       case DataSerializableFixedID.QUEUE_CONNECTION_REQUEST:
         response = pickQueueServers((QueueConnectionRequest) request);
         break;
+      case DataSerializableFixedID.SERVER_LIST_LEASE_REQUEST:
+        response = leaseServerList((ServerListLeaseRequest) request);
+        break;
       default:
         throw new InternalGemFireException("Unknown ServerLocationRequest: " + request.getClass());
     }
@@ -229,6 +242,18 @@ public class ServerLocator implements TcpHandler, DistributionAdvisee {
     return new GetAllServersResponse(servers);
   }
 
+  private ServerListLeaseResponse leaseServerList(ServerListLeaseRequest clientRequest) {
+    Map<ServerLocation, ServerLoad> loadMap =
+        loadSnapshot.getLoadMap(clientRequest.getServerGroup());
+    ArrayList<ServerLocation> servers = new ArrayList<>(loadMap.size());
+    ArrayList<ServerLoad> loads = new ArrayList<>(loadMap.size());
+    for (Map.Entry<ServerLocation, ServerLoad> entry : loadMap.entrySet()) {
+      servers.add(entry.getKey());
+      loads.add(entry.getValue());
+    }
+    return new ServerListLeaseResponse(servers, loads, SERVER_LIST_LEASE_TIME);
+  }
+
   private Object getLocatorListResponse(LocatorListRequest request) {
     List<ServerLocation> controllers = getLocators();
     boolean balanced = loadSnapshot.hasBalancedConnections(request.getServerGroup());
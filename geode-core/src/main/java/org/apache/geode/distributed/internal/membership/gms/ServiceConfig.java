@@ -27,6 +27,19 @@ public class ServiceConfig {
   public static final long MEMBER_REQUEST_COLLECTION_INTERVAL =
       Long.getLong(DistributionConfig.GEMFIRE_PREFIX + "member-request-collection-interval", 300);
 
+  /**
+   * the longest time that a stream of concurrent join/leave/remove requests is batched into one
+   * membership view. The collection interval is restarted whenever a new request arrives until this
+   * much time has passed since the first one.
+   */
+  public static final long MEMBER_REQUEST_BATCH_WINDOW =
+      Long.getLong(DistributionConfig.GEMFIRE_PREFIX + "member-request-batch-window",
+          MEMBER_REQUEST_COLLECTION_INTERVAL);
+
+  /** whether membership views may be sent as deltas to members that have the previous view */
+  public static final boolean USE_DELTA_VIEWS =
+      !Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "disable-delta-views");
+
   /** in a small cluster we might want to involve all members in operations */
   public static final int SMALL_CLUSTER_SIZE = 9;
 
@@ -17,6 +17,8 @@ package org.apache.geode.distributed.internal.membership.gms.fd;
 import static org.apache.geode.internal.DataSerializableFixedID.FINAL_CHECK_PASSED_MESSAGE;
 import static org.apache.geode.internal.DataSerializableFixedID.HEARTBEAT_REQUEST;
 import static org.apache.geode.internal.DataSerializableFixedID.HEARTBEAT_RESPONSE;
+import static org.apache.geode.internal.DataSerializableFixedID.PROBE_REQUEST_MESSAGE;
+import static org.apache.geode.internal.DataSerializableFixedID.PROBE_RESPONSE_MESSAGE;
 import static org.apache.geode.internal.DataSerializableFixedID.SUSPECT_MEMBERS_MESSAGE;
 
 import java.io.DataInputStream;
@@ -38,6 +40,7 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.Set;
 import java.util.Timer;
 import java.util.TimerTask;
@@ -73,6 +76,9 @@ import org.apache.geode.distributed.internal.membership.gms.interfaces.MessageHa
 import org.apache.geode.distributed.internal.membership.gms.messages.FinalCheckPassedMessage;
 import org.apache.geode.distributed.internal.membership.gms.messages.HeartbeatMessage;
 import org.apache.geode.distributed.internal.membership.gms.messages.HeartbeatRequestMessage;
+import org.apache.geode.distributed.internal.membership.gms.messages.MembershipUpdate;
+import org.apache.geode.distributed.internal.membership.gms.messages.ProbeRequestMessage;
+import org.apache.geode.distributed.internal.membership.gms.messages.ProbeResponseMessage;
 import org.apache.geode.distributed.internal.membership.gms.messages.SuspectMembersMessage;
 import org.apache.geode.distributed.internal.membership.gms.messages.SuspectRequest;
 import org.apache.geode.internal.ConnectionWatcher;
@@ -96,6 +102,14 @@ import org.apache.geode.internal.security.SecurableCommunicationChannel;
  * <p>
  * It has {@link #checkIfAvailable(DistributedMember, String, boolean)} api to see if that member is
  * alive. Then based on removal flag it initiates the suspect processing for that member.
+ * <p>
+ * If the "geode.swim-failure-detection" system property is set the ring is replaced by SWIM-style
+ * probing. In each interval every member probes one other member, chosen in randomized round-robin
+ * order. If the target does not respond, a few other members are asked to probe it indirectly
+ * before it is suspected. Suspicions are disseminated by piggybacking them on probes, so a member
+ * that is already suspected by someone else is not reported again. The load on each member and the
+ * expected time to detect a failure do not depend on the size of the cluster. All members of a
+ * cluster should use the same setting.
  */
 @SuppressWarnings({"SynchronizationOnLocalVariableOrMethodParameter", "NullableProblems"})
 public class GMSHealthMonitor implements HealthMonitor, MessageHandler {
@@ -133,6 +147,33 @@ public class GMSHealthMonitor implements HealthMonitor, MessageHandler {
   public static final long MEMBER_SUSPECT_COLLECTION_INTERVAL =
       Long.getLong("geode.suspect-member-collection-interval", 200);
 
+  /**
+   * Set this system property to true to use SWIM-style probing instead of watching the next
+   * member in the ring
+   */
+  public static final String SWIM_FAILURE_DETECTION_PROPERTY = "geode.swim-failure-detection";
+
+  /**
+   * The number of members asked to probe a member that does not respond to a direct probe
+   */
+  public static final int NUM_INDIRECT_PROBES =
+      Integer.getInteger("geode.swim-indirect-probes", 3);
+
+  /**
+   * whether SWIM-style probing is used instead of ring monitoring
+   */
+  boolean useSwim;
+
+  /**
+   * membership updates piggybacked on probes when using SWIM
+   */
+  private volatile MembershipGossip gossip;
+
+  /**
+   * chooses the members to probe when using SWIM
+   */
+  private volatile ProbeTargetSelector probeTargets;
+
   private volatile long currentTimeStamp;
 
   /**
@@ -248,6 +289,11 @@ public class GMSHealthMonitor implements HealthMonitor, MessageHandler {
       // this is the start of interval to record member activity
       GMSHealthMonitor.this.currentTimeStamp = currentTime;
 
+      if (useSwim) {
+        probeNextMember(currentTime);
+        return;
+      }
+
       if (neighbour != null) {
         TimeStamp nextNeighborTS;
         synchronized (GMSHealthMonitor.this) {
@@ -448,6 +494,11 @@ public class GMSHealthMonitor implements HealthMonitor, MessageHandler {
    * response. If it doesn't see response then it returns false.
    */
   private boolean doCheckMember(InternalDistributedMember member, boolean waitForResponse) {
+    return doCheckMember(member, waitForResponse, memberTimeout);
+  }
+
+  private boolean doCheckMember(InternalDistributedMember member, boolean waitForResponse,
+      long timeout) {
     if (playingDead || beingSick) {
       // a member playingDead should not be sending messages to other
       // members, so we avoid sending heartbeat requests or suspect
@@ -473,7 +524,7 @@ public class GMSHealthMonitor implements HealthMonitor, MessageHandler {
       } else if (waitForResponse) {
         synchronized (pingResp) {
           if (pingResp.getResponseMsg() == null) {
-            pingResp.wait(memberTimeout);
+            pingResp.wait(timeout);
           }
           TimeStamp ts = memberTimeStamps.get(member);
           if (ts != null && ts.getTime() > startTime) {
@@ -507,6 +558,120 @@ public class GMSHealthMonitor implements HealthMonitor, MessageHandler {
     return false;
   }
 
+  /**
+   * Chooses the next member to probe using SWIM and probes it in the background. Members that
+   * have recently sent us a message are known to be alive and are not probed.
+   */
+  private void probeNextMember(long currentTime) {
+    NetView cv = currentView;
+    ProbeTargetSelector selector = probeTargets;
+    if (cv == null || selector == null || playingDead || beingSick) {
+      return;
+    }
+    InternalDistributedMember target = selector.nextTarget(
+        mbr -> suspectedMemberIds.containsKey(mbr) || membersInFinalCheck.contains(mbr));
+    if (target == null) {
+      return;
+    }
+    TimeStamp ts = memberTimeStamps.get(target);
+    if (ts != null && currentTime - ts.getTime() < memberTimeout / LOGICAL_INTERVAL) {
+      return;
+    }
+    checkExecutor.execute(() -> {
+      try {
+        probe(target, cv);
+      } catch (CancelException e) {
+        // shutting down
+      }
+    });
+  }
+
+  /**
+   * Probes a member directly and, if it does not respond, indirectly through other members. If
+   * neither succeeds the member is suspected.
+   */
+  private void probe(InternalDistributedMember target, NetView cv) {
+    long startTime = System.currentTimeMillis();
+    logger.trace("Probing member {}", target);
+    if (probeDirectly(target, memberTimeout / 4)) {
+      return;
+    }
+    List<InternalDistributedMember> helpers = probeTargets.chooseHelpers(target,
+        NUM_INDIRECT_PROBES, mbr -> !supportsProbes(mbr) || suspectedMemberIds.containsKey(mbr)
+            || gossip.isSuspect(mbr));
+    if (!helpers.isEmpty()) {
+      logger.trace("Member {} did not respond - asking {} to probe it", target, helpers);
+      if (awaitProbeResponse(helpers, target, memberTimeout / 2)) {
+        return;
+      }
+    }
+    TimeStamp ts = memberTimeStamps.get(target);
+    if (isStopping || (ts != null && ts.getTime() > startTime)) {
+      return;
+    }
+    if (gossip.suspect(target)) {
+      suspectedMemberIds.put(target, cv);
+      initiateSuspicion(target, "Member isn't responding to direct or indirect probes");
+    } else {
+      logger.debug("Member {} is not responding to probes but is already suspected", target);
+    }
+  }
+
+  private boolean probeDirectly(InternalDistributedMember target, long timeout) {
+    if (!supportsProbes(target)) {
+      return doCheckMember(target, true, timeout);
+    }
+    return awaitProbeResponse(Collections.singletonList(target), target, timeout);
+  }
+
+  /**
+   * Sends probes for the target to the given members and waits for any of them to respond.
+   */
+  private boolean awaitProbeResponse(List<InternalDistributedMember> recipients,
+      InternalDistributedMember target, long timeout) {
+    if (playingDead || beingSick) {
+      return true;
+    }
+    final int reqId = requestId.getAndIncrement();
+    Response resp = new Response();
+    requestIdVsResponse.put(reqId, resp);
+    try {
+      for (InternalDistributedMember recipient : recipients) {
+        ProbeRequestMessage message =
+            new ProbeRequestMessage(recipient, reqId, target, updatesFor(recipient));
+        this.services.getMessenger().send(message);
+        this.stats.incHeartbeatRequestsSent();
+      }
+      synchronized (resp) {
+        if (resp.getResponseMsg() == null) {
+          resp.wait(timeout);
+        }
+        return resp.getResponseMsg() != null || isStopping;
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return isStopping;
+    } finally {
+      requestIdVsResponse.remove(reqId);
+    }
+  }
+
+  /**
+   * Returns the membership updates to piggyback on a probe message sent to the given member
+   */
+  private List<MembershipUpdate> updatesFor(InternalDistributedMember recipient) {
+    MembershipGossip g = gossip;
+    return g == null ? Collections.emptyList() : g.nextUpdates(recipient);
+  }
+
+  /**
+   * Members older than Geode 1.9 do not understand probe messages. They are checked with heartbeat
+   * requests and the final check instead, and are never asked to probe other members.
+   */
+  private boolean supportsProbes(InternalDistributedMember mbr) {
+    return mbr.getVersionObject().compareTo(Version.GEODE_190) >= 0;
+  }
+
   /**
    * During final check, establish TCP connection between current member and suspect member. And
    * exchange PING/PONG message to see if the suspect member is still alive.
@@ -782,6 +947,11 @@ public class GMSHealthMonitor implements HealthMonitor, MessageHandler {
           }
         }
 
+        if (useSwim) {
+          // members that might be watching this one learn that it is alive when they probe it
+          return;
+        }
+
         int index = startIndex;
         int numSent = 0;
         for (;;) {
@@ -840,6 +1010,10 @@ public class GMSHealthMonitor implements HealthMonitor, MessageHandler {
     // }
     currentView = newView;
     setNextNeighbor(newView, null);
+    if (probeTargets != null) {
+      probeTargets.setMembers(newView.getMembers());
+      gossip.viewChanged(newView.getMembers());
+    }
   }
 
   /**
@@ -917,11 +1091,14 @@ public class GMSHealthMonitor implements HealthMonitor, MessageHandler {
     isStopping = false;
     services = s;
     memberTimeout = s.getConfig().getMemberTimeout();
+    useSwim = Boolean.getBoolean(SWIM_FAILURE_DETECTION_PROPERTY);
     this.stats = services.getStatistics();
     services.getMessenger().addHandler(HeartbeatRequestMessage.class, this);
     services.getMessenger().addHandler(HeartbeatMessage.class, this);
     services.getMessenger().addHandler(SuspectMembersMessage.class, this);
     services.getMessenger().addHandler(FinalCheckPassedMessage.class, this);
+    services.getMessenger().addHandler(ProbeRequestMessage.class, this);
+    services.getMessenger().addHandler(ProbeResponseMessage.class, this);
   }
 
   @Override
@@ -1063,6 +1240,14 @@ public class GMSHealthMonitor implements HealthMonitor, MessageHandler {
 
   void setLocalAddress(InternalDistributedMember idm) {
     this.localAddress = idm;
+    this.gossip = new MembershipGossip(idm);
+    ProbeTargetSelector selector = new ProbeTargetSelector(idm, new Random());
+    NetView view = currentView;
+    if (view != null) {
+      selector.setMembers(view.getMembers());
+      gossip.viewChanged(view.getMembers());
+    }
+    this.probeTargets = selector;
   }
 
   @Override
@@ -1098,6 +1283,20 @@ public class GMSHealthMonitor implements HealthMonitor, MessageHandler {
       case FINAL_CHECK_PASSED_MESSAGE:
         contactedBy(((FinalCheckPassedMessage) m).getSuspect());
         break;
+      case PROBE_REQUEST_MESSAGE:
+        if (beingSick || playingDead) {
+          logger.debug("sick member is ignoring probe request");
+        } else {
+          processProbeRequest((ProbeRequestMessage) m);
+        }
+        break;
+      case PROBE_RESPONSE_MESSAGE:
+        if (beingSick || playingDead) {
+          logger.debug("sick member is ignoring probe response");
+        } else {
+          processProbeResponse((ProbeResponseMessage) m);
+        }
+        break;
       default:
         throw new IllegalArgumentException("unknown message type: " + m);
     }
@@ -1145,6 +1344,89 @@ public class GMSHealthMonitor implements HealthMonitor, MessageHandler {
     contactedBy(m.getSender(), System.currentTimeMillis());
   }
 
+  /**
+   * Answers a probe aimed at this member, or probes the target on behalf of the sender
+   */
+  private void processProbeRequest(ProbeRequestMessage m) {
+    this.stats.incHeartbeatRequestsReceived();
+    mergeUpdates(m.getUpdates());
+
+    InternalDistributedMember me = localAddress;
+    InternalDistributedMember sender = m.getSender();
+    InternalDistributedMember target = m.getTarget();
+    if (target.equals(me)) {
+      if (me.getVmViewId() >= 0) {
+        sendProbeResponse(sender, m.getRequestId(), me);
+      }
+      return;
+    }
+    checkExecutor.execute(() -> {
+      try {
+        if (probeDirectly(target, memberTimeout / 4)) {
+          sendProbeResponse(sender, m.getRequestId(), target);
+        }
+      } catch (CancelException e) {
+        // shutting down
+      }
+    });
+  }
+
+  private void sendProbeResponse(InternalDistributedMember recipient, int reqId,
+      InternalDistributedMember target) {
+    ProbeResponseMessage response =
+        new ProbeResponseMessage(recipient, reqId, target, updatesFor(recipient));
+    Set<InternalDistributedMember> membersNotReceivedMsg = services.getMessenger().send(response);
+    this.stats.incHeartbeatsSent();
+    if (membersNotReceivedMsg != null && membersNotReceivedMsg.contains(recipient)) {
+      logger.debug("Unable to send probe response to member: {}", recipient);
+    }
+  }
+
+  private void processProbeResponse(ProbeResponseMessage m) {
+    this.stats.incHeartbeatsReceived();
+    mergeUpdates(m.getUpdates());
+    Response resp = requestIdVsResponse.get(m.getRequestId());
+    if (resp != null) {
+      synchronized (resp) {
+        resp.setResponseMsg(m);
+        resp.notify();
+      }
+    }
+    long now = System.currentTimeMillis();
+    contactedBy(m.getTarget(), now);
+    if (!m.getSender().equals(m.getTarget())) {
+      contactedBy(m.getSender(), now);
+    }
+  }
+
+  /**
+   * Merges membership updates piggybacked on a probe. If another member suspects this one, the
+   * coordinator is sent a heartbeat so that a final check in progress will see recent activity.
+   */
+  private void mergeUpdates(List<MembershipUpdate> updates) {
+    MembershipGossip g = gossip;
+    if (g == null) {
+      return;
+    }
+    int incarnation = g.getIncarnation();
+    for (InternalDistributedMember mbr : g.merge(updates)) {
+      if (suspectedMemberIds.containsKey(mbr)) {
+        memberUnsuspected(mbr);
+      }
+    }
+    if (g.getIncarnation() != incarnation) {
+      NetView cv = currentView;
+      InternalDistributedMember coordinator = cv == null ? null : cv.getCoordinator();
+      if (coordinator != null && !coordinator.equals(localAddress) && !playingDead) {
+        logger.info("Refuting suspicion of this member with incarnation {}", g.getIncarnation());
+        HeartbeatMessage message = new HeartbeatMessage(-1);
+        message.setRecipient(coordinator);
+        services.getMessenger().sendUnreliably(message);
+        this.stats.incHeartbeatsSent();
+      }
+    }
+  }
+
   /**
    * Process a Suspect request from another member. This may cause this member to become the new
    * membership coordinator. it will to final check on that member and then it will send remove
@@ -0,0 +1,199 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal.membership.gms.fd;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
+import org.apache.geode.distributed.internal.membership.gms.messages.MembershipUpdate;
+
+/**
+ * The infection-style dissemination component of SWIM failure detection. Membership updates are
+ * piggybacked on probe messages instead of being multicast. Each update is retransmitted a number
+ * of times proportional to the log of the cluster size, after which it is assumed to have reached
+ * every member.
+ * <p>
+ * Updates about the same member are ordered by incarnation number. A suspicion overrides an alive
+ * update with the same incarnation, and an alive update only overrides a suspicion if it has a
+ * higher incarnation. Only the suspected member itself increases its incarnation, so a suspicion
+ * can only be cleared by the suspect or by a later view that no longer contains it.
+ * <p>
+ * This class is thread safe.
+ */
+class MembershipGossip {
+
+  /** the multiplier of log(n) used to decide how many times an update is retransmitted */
+  static final int RETRANSMIT_MULTIPLIER =
+      Integer.getInteger("geode.swim-retransmit-multiplier", 3);
+
+  /** the maximum number of updates piggybacked on one message */
+  static final int MAX_PIGGYBACKED_UPDATES =
+      Integer.getInteger("geode.swim-max-piggybacked-updates", 6);
+
+  private final InternalDistributedMember localAddress;
+
+  /** the latest update known for each member */
+  private final Map<InternalDistributedMember, State> states = new HashMap<>();
+
+  /** the incarnation of this member, increased to refute suspicion */
+  private int incarnation;
+
+  private int clusterSize = 1;
+
+  MembershipGossip(InternalDistributedMember localAddress) {
+    this.localAddress = localAddress;
+  }
+
+  private static class State {
+    final MembershipUpdate update;
+    int transmissions;
+
+    State(MembershipUpdate update) {
+      this.update = update;
+    }
+  }
+
+  /**
+   * Returns the number of times an update is piggybacked before it is dropped from the
+   * dissemination buffer.
+   */
+  synchronized int getRetransmitLimit() {
+    return RETRANSMIT_MULTIPLIER * (32 - Integer.numberOfLeadingZeros(clusterSize));
+  }
+
+  /**
+   * Forgets members that are no longer in the membership view
+   */
+  synchronized void viewChanged(Collection<InternalDistributedMember> members) {
+    this.clusterSize = Math.max(1, members.size());
+    this.states.keySet().retainAll(members);
+  }
+
+  /**
+   * Records that this member suspects the given member. Returns false if the member was already
+   * suspected.
+   */
+  synchronized boolean suspect(InternalDistributedMember member) {
+    State state = this.states.get(member);
+    int memberIncarnation = state == null ? 0 : state.update.getIncarnation();
+    return apply(new MembershipUpdate(member, true, memberIncarnation));
+  }
+
+  /**
+   * Returns true if some member has reported the given member as suspect and the suspicion has not
+   * been refuted.
+   */
+  synchronized boolean isSuspect(InternalDistributedMember member) {
+    State state = this.states.get(member);
+    return state != null && state.update.isSuspect();
+  }
+
+  synchronized int getIncarnation() {
+    return this.incarnation;
+  }
+
+  /**
+   * Merges updates received from another member.
+   *
+   * @return the members whose suspicion was cleared by the updates
+   */
+  synchronized List<InternalDistributedMember> merge(List<MembershipUpdate> updates) {
+    if (updates == null || updates.isEmpty()) {
+      return Collections.emptyList();
+    }
+    List<InternalDistributedMember> unsuspected = null;
+    for (MembershipUpdate update : updates) {
+      InternalDistributedMember member = update.getMember();
+      if (member.equals(this.localAddress)) {
+        if (update.isSuspect() && update.getIncarnation() >= this.incarnation) {
+          refute(update.getIncarnation());
+        }
+        continue;
+      }
+      boolean wasSuspect = isSuspect(member);
+      if (apply(update) && wasSuspect && !update.isSuspect()) {
+        if (unsuspected == null) {
+          unsuspected = new ArrayList<>();
+        }
+        unsuspected.add(member);
+      }
+    }
+    return unsuspected == null ? Collections.emptyList() : unsuspected;
+  }
+
+  /**
+   * Announces that this member is alive with an incarnation higher than the one it is suspected
+   * at.
+   */
+  private void refute(int suspectedIncarnation) {
+    this.incarnation = suspectedIncarnation + 1;
+    this.states.put(this.localAddress,
+        new State(new MembershipUpdate(this.localAddress, false, this.incarnation)));
+  }
+
+  private boolean apply(MembershipUpdate update) {
+    State existing = this.states.get(update.getMember());
+    if (existing != null && !overrides(update, existing.update)) {
+      return false;
+    }
+    this.states.put(update.getMember(), new State(update));
+    return true;
+  }
+
+  static boolean overrides(MembershipUpdate update, MembershipUpdate existing) {
+    if (update.isSuspect()) {
+      return update.getIncarnation() > existing.getIncarnation()
+          || (update.getIncarnation() == existing.getIncarnation() && !existing.isSuspect());
+    }
+    return update.getIncarnation() > existing.getIncarnation();
+  }
+
+  /**
+   * Returns the updates to piggyback on the next message sent to the given member, preferring the
+   * ones that have been sent the fewest times. Updates that have reached the retransmit limit are no
+   * longer sent, although their state is remembered until the member leaves the view. A suspicion
+   * of the recipient itself is always sent so that the recipient can refute it.
+   */
+  synchronized List<MembershipUpdate> nextUpdates(InternalDistributedMember recipient) {
+    int limit = getRetransmitLimit();
+    List<State> candidates = new ArrayList<>();
+    for (State state : this.states.values()) {
+      if (state.transmissions < limit) {
+        candidates.add(state);
+      }
+    }
+    candidates.sort((s1, s2) -> Integer.compare(s1.transmissions, s2.transmissions));
+
+    List<MembershipUpdate> result = new ArrayList<>(MAX_PIGGYBACKED_UPDATES);
+    State recipientState = this.states.get(recipient);
+    if (recipientState != null && recipientState.update.isSuspect()) {
+      result.add(recipientState.update);
+      candidates.remove(recipientState);
+    }
+    for (Iterator<State> it = candidates.iterator(); it.hasNext()
+        && result.size() < MAX_PIGGYBACKED_UPDATES;) {
+      State state = it.next();
+      state.transmissions++;
+      result.add(state.update);
+    }
+    return result;
+  }
+}
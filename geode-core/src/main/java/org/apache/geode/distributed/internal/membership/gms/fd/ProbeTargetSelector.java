@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal.membership.gms.fd;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
+
+/**
+ * Chooses the members probed by SWIM failure detection. Targets are chosen in randomized
+ * round-robin order: the members of the view are shuffled and probed in turn, and the list is
+ * reshuffled once every member has been probed. This bounds the time between probes of any one
+ * member to twice the number of members in the view while keeping the expected load on every member
+ * to one probe per protocol period.
+ * <p>
+ * This class is thread safe.
+ */
+class ProbeTargetSelector {
+
+  private final InternalDistributedMember localAddress;
+
+  private final Random random;
+
+  private List<InternalDistributedMember> members = Collections.emptyList();
+
+  private List<InternalDistributedMember> order = new ArrayList<>();
+
+  private int next;
+
+  ProbeTargetSelector(InternalDistributedMember localAddress, Random random) {
+    this.localAddress = localAddress;
+    this.random = random;
+  }
+
+  /**
+   * Sets the members that may be probed. Members that are new to the view are inserted at random
+   * positions in the current round so that they are probed as soon as the others.
+   */
+  synchronized void setMembers(Collection<InternalDistributedMember> newMembers) {
+    List<InternalDistributedMember> others = new ArrayList<>(newMembers.size());
+    for (InternalDistributedMember member : newMembers) {
+      if (!member.equals(this.localAddress)) {
+        others.add(member);
+      }
+    }
+    Set<InternalDistributedMember> othersSet = new HashSet<>(others);
+    Set<InternalDistributedMember> oldMembers = new HashSet<>(this.members);
+    List<InternalDistributedMember> newOrder = new ArrayList<>(others.size());
+    int newNext = 0;
+    for (int i = 0; i < this.order.size(); i++) {
+      InternalDistributedMember member = this.order.get(i);
+      if (othersSet.contains(member)) {
+        newOrder.add(member);
+        if (i < this.next) {
+          newNext++;
+        }
+      }
+    }
+    this.next = newNext;
+    for (InternalDistributedMember member : others) {
+      if (!oldMembers.contains(member)) {
+        int position = this.next + this.random.nextInt(newOrder.size() - this.next + 1);
+        newOrder.add(position, member);
+      }
+    }
+    this.members = others;
+    this.order = newOrder;
+  }
+
+  /**
+   * Returns the next member to probe, or null if there is no member that may be probed.
+   *
+   * @param exclude members that should be skipped in this round
+   */
+  synchronized InternalDistributedMember nextTarget(
+      Predicate<InternalDistributedMember> exclude) {
+    int size = this.order.size();
+    for (int i = 0; i < size; i++) {
+      if (this.next >= size) {
+        Collections.shuffle(this.order, this.random);
+        this.next = 0;
+      }
+      InternalDistributedMember target = this.order.get(this.next++);
+      if (!exclude.test(target)) {
+        return target;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Returns up to <code>count</code> members chosen at random to probe the target on this member's
+   * behalf.
+   *
+   * @param exclude members that should not be asked to help
+   */
+  synchronized List<InternalDistributedMember> chooseHelpers(InternalDistributedMember target,
+      int count, Predicate<InternalDistributedMember> exclude) {
+    List<InternalDistributedMember> candidates = new ArrayList<>(this.members.size());
+    for (InternalDistributedMember member : this.members) {
+      if (!member.equals(target) && !exclude.test(member)) {
+        candidates.add(member);
+      }
+    }
+    if (candidates.size() <= count) {
+      return candidates;
+    }
+    // partial Fisher-Yates shuffle of the first count candidates
+    for (int i = 0; i < count; i++) {
+      int j = i + this.random.nextInt(candidates.size() - i);
+      Collections.swap(candidates, i, j);
+    }
+    return new ArrayList<>(candidates.subList(0, count));
+  }
+}
@@ -16,9 +16,13 @@ package org.apache.geode.distributed.internal.membership.gms.membership;
 
 import static org.apache.geode.distributed.ConfigurationProperties.LOCATORS;
 import static org.apache.geode.distributed.ConfigurationProperties.START_LOCATOR;
+import static org.apache.geode.distributed.internal.membership.gms.ServiceConfig.MEMBER_REQUEST_BATCH_WINDOW;
 import static org.apache.geode.distributed.internal.membership.gms.ServiceConfig.MEMBER_REQUEST_COLLECTION_INTERVAL;
+import static org.apache.geode.distributed.internal.membership.gms.ServiceConfig.USE_DELTA_VIEWS;
 import static org.apache.geode.internal.DataSerializableFixedID.FIND_COORDINATOR_REQ;
 import static org.apache.geode.internal.DataSerializableFixedID.FIND_COORDINATOR_RESP;
+import static org.apache.geode.internal.DataSerializableFixedID.FULL_VIEW_REQUEST_MESSAGE;
+import static org.apache.geode.internal.DataSerializableFixedID.INSTALL_VIEW_DELTA_MESSAGE;
 import static org.apache.geode.internal.DataSerializableFixedID.INSTALL_VIEW_MESSAGE;
 import static org.apache.geode.internal.DataSerializableFixedID.JOIN_REQUEST;
 import static org.apache.geode.internal.DataSerializableFixedID.JOIN_RESPONSE;
@@ -71,7 +75,9 @@ import org.apache.geode.distributed.internal.membership.gms.interfaces.JoinLeave
 import org.apache.geode.distributed.internal.membership.gms.interfaces.MessageHandler;
 import org.apache.geode.distributed.internal.membership.gms.locator.FindCoordinatorRequest;
 import org.apache.geode.distributed.internal.membership.gms.locator.FindCoordinatorResponse;
+import org.apache.geode.distributed.internal.membership.gms.messages.FullViewRequestMessage;
 import org.apache.geode.distributed.internal.membership.gms.messages.HasMemberID;
+import org.apache.geode.distributed.internal.membership.gms.messages.InstallViewDeltaMessage;
 import org.apache.geode.distributed.internal.membership.gms.messages.InstallViewMessage;
 import org.apache.geode.distributed.internal.membership.gms.messages.JoinRequestMessage;
 import org.apache.geode.distributed.internal.membership.gms.messages.JoinResponseMessage;
@@ -202,6 +208,16 @@ public class GMSJoinLeave implements JoinLeave, MessageHandler {
    */
   long requestCollectionInterval = MEMBER_REQUEST_COLLECTION_INTERVAL;
 
+  /**
+   * the longest time that requests arriving in quick succession are batched into one view
+   */
+  long requestBatchWindow = MEMBER_REQUEST_BATCH_WINDOW;
+
+  /**
+   * whether views are sent as deltas to members that have the previous view
+   */
+  boolean useDeltaViews = USE_DELTA_VIEWS;
+
   /**
    * collects the response to a join request
    */
@@ -888,7 +904,7 @@ public class GMSJoinLeave implements JoinLeave, MessageHandler {
     if (isShuttingDown()) {
       throw new InterruptedException("shutting down");
     }
-    return sendView(view, true, this.prepareProcessor);
+    return sendView(view, newMembers, true, this.prepareProcessor);
   }
 
   void sendView(NetView view, List<InternalDistributedMember> newMembers)
@@ -896,15 +912,19 @@ public class GMSJoinLeave implements JoinLeave, MessageHandler {
     if (isShuttingDown()) {
       throw new InterruptedException("shutting down");
     }
-    sendView(view, false, this.viewProcessor);
+    sendView(view, newMembers, false, this.viewProcessor);
   }
 
-  private boolean sendView(NetView view, boolean preparing, ViewReplyProcessor viewReplyProcessor)
-      throws InterruptedException {
+  private boolean sendView(NetView view, List<InternalDistributedMember> newMembers,
+      boolean preparing, ViewReplyProcessor viewReplyProcessor) throws InterruptedException {
 
     int id = view.getViewId();
-    InstallViewMessage msg = new InstallViewMessage(view,
-        services.getAuthenticator().getCredentials(this.localAddress), preparing);
+    // members that have prepared this view only need to be told to install it. Otherwise
+    // the view is a delta from our current view
+    NetView baseView = this.preparedView;
+    if (preparing || baseView == null || baseView.getViewId() != id) {
+      baseView = this.currentView;
+    }
     Set<InternalDistributedMember> recips = new HashSet<>(view.getMembers());
 
     // a recent member was seen not to receive a new view - I think this is why
@@ -939,15 +959,13 @@ public class GMSJoinLeave implements JoinLeave, MessageHandler {
 
     logger.info((preparing ? "preparing" : "sending") + " new view " + view);
 
-    msg.setRecipients(recips);
-
     Set<InternalDistributedMember> pendingLeaves = getPendingRequestIDs(LEAVE_REQUEST_MESSAGE);
     Set<InternalDistributedMember> pendingRemovals = getPendingRequestIDs(REMOVE_MEMBER_REQUEST);
     pendingRemovals.removeAll(view.getCrashedMembers());
     viewReplyProcessor.initialize(id, responders);
     viewReplyProcessor.processPendingRequests(pendingLeaves, pendingRemovals);
     addPublicKeysToView(view);
-    services.getMessenger().send(msg, view);
+    sendViewMessages(view, baseView, newMembers, preparing, recips);
 
     // only wait for responses during preparation
     if (preparing) {
@@ -975,6 +993,53 @@ public class GMSJoinLeave implements JoinLeave, MessageHandler {
     return true;
   }
 
+  /**
+   * Sends the view to the given recipients. Members that should have the base view are sent a
+   * delta holding only the changes from the base view and the other recipients are sent the full
+   * view.
+   */
+  private void sendViewMessages(NetView view, NetView baseView,
+      List<InternalDistributedMember> newMembers, boolean preparing,
+      Set<InternalDistributedMember> recips) {
+    Object credentials = services.getAuthenticator().getCredentials(this.localAddress);
+    InstallViewDeltaMessage deltaMsg = null;
+    if (useDeltaViews && baseView != null) {
+      deltaMsg = InstallViewDeltaMessage.create(baseView, view, credentials, preparing);
+    }
+    Set<InternalDistributedMember> fullRecips = recips;
+    if (deltaMsg != null) {
+      Set<InternalDistributedMember> deltaRecips = new HashSet<>();
+      fullRecips = new HashSet<>();
+      for (InternalDistributedMember mbr : recips) {
+        if (baseView.contains(mbr) && view.contains(mbr) && !newMembers.contains(mbr)
+            && supportsDeltaViews(mbr)) {
+          deltaRecips.add(mbr);
+        } else {
+          fullRecips.add(mbr);
+        }
+      }
+      if (!deltaRecips.isEmpty()) {
+        logger.debug("sending view {} as a delta from view {} to {}", view.getViewId(),
+            baseView.getViewId(), deltaRecips);
+        deltaMsg.setRecipients(deltaRecips);
+        services.getMessenger().send(deltaMsg, view);
+      }
+    }
+    if (!fullRecips.isEmpty()) {
+      InstallViewMessage msg = new InstallViewMessage(view, credentials, preparing);
+      msg.setRecipients(fullRecips);
+      services.getMessenger().send(msg, view);
+    }
+  }
+
+  /**
+   * Members older than Geode 1.9 cannot read InstallViewDeltaMessage and are always sent the full
+   * view
+   */
+  private boolean supportsDeltaViews(InternalDistributedMember mbr) {
+    return mbr.getVersionObject().compareTo(Version.GEODE_190) >= 0;
+  }
+
   private void addPublicKeysToView(NetView view) {
     String sDHAlgo = services.getConfig().getDistributionConfig().getSecurityUDPDHAlgo();
     if (sDHAlgo != null && !sDHAlgo.isEmpty()) {
@@ -987,6 +1052,41 @@ public class GMSJoinLeave implements JoinLeave, MessageHandler {
     }
   }
 
+  private void processViewDeltaMessage(final InstallViewDeltaMessage m) {
+    NetView baseView = this.preparedView;
+    if (baseView == null || baseView.getViewId() != m.getBaseViewId()) {
+      baseView = this.currentView;
+    }
+    NetView view = null;
+    if (baseView != null && baseView.getViewId() == m.getBaseViewId()) {
+      view = m.applyTo(baseView);
+    }
+    if (view == null) {
+      logger.info("Unable to apply {} to my view {} - requesting the full view from {}", m,
+          baseView == null ? null : baseView.getViewId(), m.getSender());
+      services.getMessenger()
+          .send(new FullViewRequestMessage(m.getSender(), m.getViewId(), m.isPreparing()));
+      return;
+    }
+    InstallViewMessage fullMessage =
+        new InstallViewMessage(view, m.getCredentials(), m.isPreparing());
+    fullMessage.setSender(m.getSender());
+    processViewMessage(fullMessage);
+  }
+
+  private void processFullViewRequest(FullViewRequestMessage m) {
+    NetView view = m.isPreparing() ? this.preparedView : this.currentView;
+    if (view == null || view.getViewId() != m.getViewId()) {
+      logger.debug("Ignoring {} from {} since that is not my {} view", m, m.getSender(),
+          m.isPreparing() ? "prepared" : "current");
+      return;
+    }
+    InstallViewMessage msg = new InstallViewMessage(view,
+        services.getAuthenticator().getCredentials(this.localAddress), m.isPreparing());
+    msg.setRecipient(m.getSender());
+    services.getMessenger().send(msg, view);
+  }
+
   private void processViewMessage(final InstallViewMessage m) {
 
     NetView view = m.getView();
@@ -1753,6 +1853,8 @@ public class GMSJoinLeave implements JoinLeave, MessageHandler {
     services.getMessenger().addHandler(JoinRequestMessage.class, this);
     services.getMessenger().addHandler(JoinResponseMessage.class, this);
     services.getMessenger().addHandler(InstallViewMessage.class, this);
+    services.getMessenger().addHandler(InstallViewDeltaMessage.class, this);
+    services.getMessenger().addHandler(FullViewRequestMessage.class, this);
     services.getMessenger().addHandler(ViewAckMessage.class, this);
     services.getMessenger().addHandler(LeaveRequestMessage.class, this);
     services.getMessenger().addHandler(RemoveMemberMessage.class, this);
@@ -1798,6 +1900,14 @@ public class GMSJoinLeave implements JoinLeave, MessageHandler {
         assert m instanceof InstallViewMessage;
         processViewMessage((InstallViewMessage) m);
         break;
+      case INSTALL_VIEW_DELTA_MESSAGE:
+        assert m instanceof InstallViewDeltaMessage;
+        processViewDeltaMessage((InstallViewDeltaMessage) m);
+        break;
+      case FULL_VIEW_REQUEST_MESSAGE:
+        assert m instanceof FullViewRequestMessage;
+        processFullViewRequest((FullViewRequestMessage) m);
+        break;
       case VIEW_ACK_MESSAGE:
         assert m instanceof ViewAckMessage;
         processViewAckMessage((ViewAckMessage) m);
@@ -2212,7 +2322,9 @@ public class GMSJoinLeave implements JoinLeave, MessageHandler {
       List<DistributionMessage> requests = null;
       logger.info("View Creator thread is starting");
       sendInitialView();
-      long okayToCreateView = System.currentTimeMillis() + requestCollectionInterval;
+      long collectionStart = System.currentTimeMillis();
+      long okayToCreateView = collectionStart + requestCollectionInterval;
+      int requestsSeen = 0;
       try {
         for (;;) {
           synchronized (viewRequests) {
@@ -2236,11 +2348,23 @@ public class GMSJoinLeave implements JoinLeave, MessageHandler {
                 // start the timer when we have only one request because
                 // concurrent startup / shutdown of multiple members is
                 // a common occurrence
-                okayToCreateView = System.currentTimeMillis() + requestCollectionInterval;
+                collectionStart = System.currentTimeMillis();
+                okayToCreateView = collectionStart + requestCollectionInterval;
+                requestsSeen = 1;
                 continue;
               }
             } else {
-              long timeRemaining = okayToCreateView - System.currentTimeMillis();
+              long now = System.currentTimeMillis();
+              if (viewRequests.size() > requestsSeen) {
+                // more requests have arrived, as happens when many members are started or
+                // stopped together. Restart the collection interval so that they go into the
+                // same view, but don't wait longer than the batch window
+                requestsSeen = viewRequests.size();
+                long batchDeadline = collectionStart + requestBatchWindow;
+                okayToCreateView = Math.max(okayToCreateView,
+                    Math.min(now + requestCollectionInterval, batchDeadline));
+              }
+              long timeRemaining = okayToCreateView - now;
               if (timeRemaining > 0) {
                 // sleep to let more requests arrive
                 try {
@@ -2257,7 +2381,9 @@ public class GMSJoinLeave implements JoinLeave, MessageHandler {
                   requests.addAll(viewRequests);
                 }
                 viewRequests.clear();
-                okayToCreateView = System.currentTimeMillis() + requestCollectionInterval;
+                collectionStart = System.currentTimeMillis();
+                okayToCreateView = collectionStart + requestCollectionInterval;
+                requestsSeen = 0;
               }
             }
           } // synchronized
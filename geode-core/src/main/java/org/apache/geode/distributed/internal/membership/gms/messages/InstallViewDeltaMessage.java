@@ -0,0 +1,231 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal.membership.gms.messages;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.geode.DataSerializer;
+import org.apache.geode.distributed.internal.ClusterDistributionManager;
+import org.apache.geode.distributed.internal.HighPriorityDistributionMessage;
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
+import org.apache.geode.distributed.internal.membership.NetView;
+import org.apache.geode.internal.InternalDataSerializer;
+import org.apache.geode.internal.Version;
+
+/**
+ * An {@link InstallViewMessage} that carries only the differences between a new membership view
+ * and a base view that the recipient is known to hold: the members that joined, the members that
+ * departed and the shutdown and crash sets of the new view. The recipient rebuilds the new view
+ * from its copy of the base view. If it does not have the base view, or the rebuilt view does not
+ * match the one the sender created, the recipient asks for the full view with a
+ * {@link FullViewRequestMessage}.
+ */
+public class InstallViewDeltaMessage extends HighPriorityDistributionMessage {
+
+  private int baseViewId;
+  private int baseViewHash;
+  private int viewId;
+  private int viewHash;
+  private boolean preparing;
+  private InternalDistributedMember creator;
+  private ArrayList<InternalDistributedMember> joined;
+  private int[] joinedPorts;
+  private HashMap<InternalDistributedMember, Object> joinedPublicKeys;
+  private ArrayList<InternalDistributedMember> departed;
+  private Set<InternalDistributedMember> shutdownMembers;
+  private Set<InternalDistributedMember> crashedMembers;
+  private Object credentials;
+
+  public InstallViewDeltaMessage() {
+    // no-arg constructor for serialization
+  }
+
+  /**
+   * Creates a message that installs or prepares the given view on members holding the base view.
+   * Returns null if the delta would not be smaller than the view or cannot reproduce the order of
+   * the view's members, in which case the full view should be sent.
+   */
+  public static InstallViewDeltaMessage create(NetView base, NetView view, Object credentials,
+      boolean preparing) {
+    InstallViewDeltaMessage msg = new InstallViewDeltaMessage();
+    msg.baseViewId = base.getViewId();
+    msg.baseViewHash = base.hashCode();
+    msg.viewId = view.getViewId();
+    msg.viewHash = view.hashCode();
+    msg.preparing = preparing;
+    msg.creator = view.getCreator();
+    msg.credentials = credentials;
+    msg.shutdownMembers = new HashSet<>(view.getShutdownMembers());
+    msg.crashedMembers = new HashSet<>(view.getCrashedMembers());
+
+    msg.joined = new ArrayList<>();
+    msg.joinedPublicKeys = new HashMap<>();
+    for (InternalDistributedMember mbr : view.getMembers()) {
+      if (!base.contains(mbr)) {
+        msg.joined.add(mbr);
+        Object key = view.getPublicKey(mbr);
+        if (key != null) {
+          msg.joinedPublicKeys.put(mbr, key);
+        }
+      }
+    }
+    msg.joinedPorts = new int[msg.joined.size()];
+    for (int i = 0; i < msg.joinedPorts.length; i++) {
+      msg.joinedPorts[i] = view.getFailureDetectionPort(msg.joined.get(i));
+    }
+    msg.departed = new ArrayList<>();
+    for (InternalDistributedMember mbr : base.getMembers()) {
+      if (!view.contains(mbr)) {
+        msg.departed.add(mbr);
+      }
+    }
+
+    if (msg.joined.size() + msg.departed.size() >= view.size()) {
+      return null;
+    }
+    if (!view.getMembers().equals(msg.rebuildMembers(base))) {
+      return null;
+    }
+    return msg;
+  }
+
+  public int getBaseViewId() {
+    return baseViewId;
+  }
+
+  public int getViewId() {
+    return viewId;
+  }
+
+  public boolean isPreparing() {
+    return preparing;
+  }
+
+  public Object getCredentials() {
+    return credentials;
+  }
+
+  public List<InternalDistributedMember> getJoinedMembers() {
+    return joined;
+  }
+
+  public List<InternalDistributedMember> getDepartedMembers() {
+    return departed;
+  }
+
+  private List<InternalDistributedMember> rebuildMembers(NetView base) {
+    List<InternalDistributedMember> members =
+        new ArrayList<>(base.size() + joined.size() - departed.size());
+    Set<InternalDistributedMember> departedSet = new HashSet<>(departed);
+    for (InternalDistributedMember mbr : base.getMembers()) {
+      if (!departedSet.contains(mbr)) {
+        members.add(mbr);
+      }
+    }
+    members.addAll(joined);
+    return members;
+  }
+
+  /**
+   * Rebuilds the new view from the recipient's copy of the base view. Returns null if the given
+   * view is not the base view of this delta or the result does not match the sender's view.
+   */
+  public NetView applyTo(NetView base) {
+    if (base.getViewId() != baseViewId || base.hashCode() != baseViewHash) {
+      return null;
+    }
+    List<InternalDistributedMember> members = rebuildMembers(base);
+    NetView view = new NetView(creator, viewId, members, new HashSet<>(shutdownMembers),
+        new HashSet<>(crashedMembers));
+    if (view.hashCode() != viewHash) {
+      return null;
+    }
+    view.setFailureDetectionPorts(base);
+    view.setPublicKeys(base);
+    for (int i = 0; i < joined.size(); i++) {
+      InternalDistributedMember mbr = joined.get(i);
+      view.setFailureDetectionPort(mbr, joinedPorts[i]);
+      view.setPublicKey(mbr, joinedPublicKeys.get(mbr));
+    }
+    return view;
+  }
+
+  @Override
+  public int getDSFID() {
+    return INSTALL_VIEW_DELTA_MESSAGE;
+  }
+
+  @Override
+  public void process(ClusterDistributionManager dm) {
+    throw new IllegalStateException("this message is not intended to execute in a thread pool");
+  }
+
+  @Override
+  public Version[] getSerializationVersions() {
+    return null;
+  }
+
+  @Override
+  public void toData(DataOutput out) throws IOException {
+    super.toData(out);
+    out.writeInt(baseViewId);
+    out.writeInt(baseViewHash);
+    out.writeInt(viewId);
+    out.writeInt(viewHash);
+    out.writeBoolean(preparing);
+    DataSerializer.writeObject(creator, out);
+    DataSerializer.writeArrayList(joined, out);
+    DataSerializer.writeIntArray(joinedPorts, out);
+    DataSerializer.writeHashMap(joinedPublicKeys, out);
+    DataSerializer.writeArrayList(departed, out);
+    InternalDataSerializer.writeSet(shutdownMembers, out);
+    InternalDataSerializer.writeSet(crashedMembers, out);
+    DataSerializer.writeObject(credentials, out);
+  }
+
+  @Override
+  public void fromData(DataInput in) throws IOException, ClassNotFoundException {
+    super.fromData(in);
+    baseViewId = in.readInt();
+    baseViewHash = in.readInt();
+    viewId = in.readInt();
+    viewHash = in.readInt();
+    preparing = in.readBoolean();
+    creator = DataSerializer.readObject(in);
+    joined = DataSerializer.readArrayList(in);
+    joinedPorts = DataSerializer.readIntArray(in);
+    joinedPublicKeys = DataSerializer.readHashMap(in);
+    departed = DataSerializer.readArrayList(in);
+    shutdownMembers = InternalDataSerializer.readHashSet(in);
+    crashedMembers = InternalDataSerializer.readHashSet(in);
+    credentials = DataSerializer.readObject(in);
+  }
+
+  @Override
+  public String toString() {
+    return "InstallViewDeltaMessage(type=" + (preparing ? "PREPARE" : "INSTALL") + "; View ID="
+        + viewId + "; Base View ID=" + baseViewId + "; joined=" + joined + "; departed="
+        + departed + "; shutdown=" + shutdownMembers + "; crashed=" + crashedMembers + "; cred="
+        + (credentials == null ? "null" : "not null") + ")";
+  }
+}
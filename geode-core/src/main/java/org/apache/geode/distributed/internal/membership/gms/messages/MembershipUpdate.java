@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal.membership.gms.messages;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.geode.DataSerializer;
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
+
+/**
+ * A piece of membership state that is piggybacked on failure detection probes. An update says
+ * that a member is either alive or suspected at a given incarnation. A member that learns it is
+ * suspected refutes the suspicion by announcing that it is alive at a higher incarnation.
+ */
+public class MembershipUpdate {
+  final InternalDistributedMember member;
+  final boolean suspect;
+  final int incarnation;
+
+  public MembershipUpdate(InternalDistributedMember member, boolean suspect, int incarnation) {
+    this.member = member;
+    this.suspect = suspect;
+    this.incarnation = incarnation;
+  }
+
+  public InternalDistributedMember getMember() {
+    return member;
+  }
+
+  public boolean isSuspect() {
+    return suspect;
+  }
+
+  public int getIncarnation() {
+    return incarnation;
+  }
+
+  static void writeUpdates(List<MembershipUpdate> updates, DataOutput out) throws IOException {
+    if (updates == null) {
+      out.writeInt(0);
+      return;
+    }
+    out.writeInt(updates.size());
+    for (MembershipUpdate update : updates) {
+      DataSerializer.writeObject(update.member, out);
+      out.writeBoolean(update.suspect);
+      out.writeInt(update.incarnation);
+    }
+  }
+
+  static List<MembershipUpdate> readUpdates(DataInput in)
+      throws IOException, ClassNotFoundException {
+    int size = in.readInt();
+    if (size == 0) {
+      return Collections.emptyList();
+    }
+    List<MembershipUpdate> updates = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      updates.add(new MembershipUpdate((InternalDistributedMember) DataSerializer.readObject(in),
+          in.readBoolean(), in.readInt()));
+    }
+    return updates;
+  }
+
+  @Override
+  public String toString() {
+    return (suspect ? "suspect" : "alive") + "(" + member + ", " + incarnation + ")";
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal.membership.gms.messages;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.List;
+
+import org.apache.geode.DataSerializer;
+import org.apache.geode.distributed.internal.ClusterDistributionManager;
+import org.apache.geode.distributed.internal.HighPriorityDistributionMessage;
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
+import org.apache.geode.internal.Version;
+
+/**
+ * A failure detection probe. If the recipient is the target of the probe it answers with a
+ * {@link ProbeResponseMessage}. Otherwise the recipient is being asked to probe the target on
+ * behalf of the sender and answers only if the target responds to it.
+ */
+public class ProbeRequestMessage extends HighPriorityDistributionMessage {
+
+  int requestId;
+  InternalDistributedMember target;
+  List<MembershipUpdate> updates;
+
+  public ProbeRequestMessage(InternalDistributedMember recipient, int requestId,
+      InternalDistributedMember target, List<MembershipUpdate> updates) {
+    setRecipient(recipient);
+    this.requestId = requestId;
+    this.target = target;
+    this.updates = updates;
+  }
+
+  public ProbeRequestMessage() {
+    // no-arg constructor for serialization
+  }
+
+  public int getRequestId() {
+    return requestId;
+  }
+
+  public InternalDistributedMember getTarget() {
+    return target;
+  }
+
+  public List<MembershipUpdate> getUpdates() {
+    return updates;
+  }
+
+  @Override
+  public int getDSFID() {
+    return PROBE_REQUEST_MESSAGE;
+  }
+
+  @Override
+  public void process(ClusterDistributionManager dm) {
+    throw new IllegalStateException("this message is not intended to execute in a thread pool");
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName() + " [requestId=" + requestId + ", target=" + target
+        + ", updates=" + updates + "]";
+  }
+
+  @Override
+  public Version[] getSerializationVersions() {
+    return null;
+  }
+
+  @Override
+  public void toData(DataOutput out) throws IOException {
+    out.writeInt(requestId);
+    DataSerializer.writeObject(target, out);
+    MembershipUpdate.writeUpdates(updates, out);
+  }
+
+  @Override
+  public void fromData(DataInput in) throws IOException, ClassNotFoundException {
+    requestId = in.readInt();
+    target = DataSerializer.readObject(in);
+    updates = MembershipUpdate.readUpdates(in);
+  }
+}
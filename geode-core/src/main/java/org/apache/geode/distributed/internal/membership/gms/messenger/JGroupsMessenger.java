@@ -130,6 +130,25 @@ public class JGroupsMessenger implements Messenger {
 
   public static boolean THROW_EXCEPTION_ON_START_HOOK;
 
+  /**
+   * Whether JGroups may bundle several messages into one datagram. Bundling reduces the number of
+   * datagrams sent for bursts of small messages such as heartbeats and suspect notifications.
+   */
+  static final boolean BUNDLING_ENABLED =
+      !Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "jg-disable-bundling");
+
+  /** the maximum number of bytes JGroups will put in a bundle of messages */
+  static final int MAX_BUNDLE_SIZE =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "jg-max-bundle-size", 64000);
+
+  /**
+   * The maximum number of milliseconds a message may wait for others to be bundled with it. With
+   * the default of zero messages are only bundled while the transport is busy sending, so an idle
+   * member sends each message immediately.
+   */
+  static final long MAX_BUNDLE_DELAY =
+      Long.getLong(DistributionConfig.GEMFIRE_PREFIX + "jg-max-bundle-delay", 0);
+
   private String jgStackConfig;
 
   JChannel myChannel;
@@ -168,6 +187,9 @@ public class JGroupsMessenger implements Messenger {
 
   private GMSEncrypt encrypt;
 
+  /** counts the messages of each type sent and received through the JGroups channel */
+  private StatRecorder statRecorder;
+
   /**
    * DistributedMember identifiers already used, either in this JGroupsMessenger instance
    * or in a past one & retained through an auto-reconnect.
@@ -281,6 +303,14 @@ public class JGroupsMessenger implements Messenger {
     properties = replaceStrings(properties, "FC_MAX_BLOCK",
         "" + dc.getMcastFlowControl().getRechargeBlockMs());
 
+    // a bundle must be able to hold a full fragment plus its headers
+    int bundleSize = Math.min(Math.max(MAX_BUNDLE_SIZE, dc.getUdpFragmentSize() + 1000), 65000);
+    properties = replaceStrings(properties, "BUNDLER_TYPE",
+        MAX_BUNDLE_DELAY > 0 ? "sender-sends-with-timer" : "transfer-queue");
+    properties = replaceStrings(properties, "MAX_BUNDLE_SIZE", "" + bundleSize);
+    properties = replaceStrings(properties, "MAX_BUNDLE_TIMEOUT",
+        "" + (MAX_BUNDLE_DELAY > 0 ? MAX_BUNDLE_DELAY : 20));
+
     this.jgStackConfig = properties;
 
     if (!dc.getSecurityUDPDHAlgo().isEmpty()) {
@@ -339,9 +369,11 @@ public class JGroupsMessenger implements Messenger {
     if (sr != null) {
       sr.setServices(services);
     }
+    statRecorder = sr;
 
     Transport transport = (Transport) myChannel.getProtocolStack().getTransport();
     transport.setMessenger(this);
+    transport.setStatRecorder(sr);
 
     nackack2HeaderId = ClassConfigurator.getProtocolId(NAKACK2.class);
 
@@ -692,6 +724,7 @@ public class JGroupsMessenger implements Messenger {
         theStats.incSentBytes(jmsg.getLength());
         logger.trace("Sending JGroups message: {}", jmsg);
         myChannel.send(jmsg);
+        recordMessageSent(msg, jmsg);
       } catch (Exception e) {
         logger.debug("caught unexpected exception", e);
         Throwable cause = e.getCause();
@@ -773,6 +806,7 @@ public class JGroupsMessenger implements Messenger {
           tmp.setSrc(this.jgAddress);
           logger.trace("Unicasting to {}", to);
           myChannel.send(tmp);
+          recordMessageSent(msg, tmp);
         } catch (Exception e) {
           problem = e;
         }
@@ -944,10 +978,19 @@ public class JGroupsMessenger implements Messenger {
     return out_stream.toByteArray();
   }
 
+  private void recordMessageSent(DistributionMessage gfmsg, Message jgmsg) {
+    if (statRecorder != null) {
+      statRecorder.recordMessageSent(gfmsg.getClass(), jgmsg.getLength());
+    }
+  }
+
   void setMessageFlags(DistributionMessage gfmsg, Message msg) {
-    // Bundling is mostly only useful if we're doing no-ack work,
-    // which is fairly rare
-    msg.setFlag(Flag.DONT_BUNDLE);
+    // Bundling lets bursts of small messages, like heartbeats and suspect
+    // notifications, share datagrams. The bundler never holds a message back
+    // for longer than the configured max bundle delay
+    if (!BUNDLING_ENABLED) {
+      msg.setFlag(Flag.DONT_BUNDLE);
+    }
 
     if (gfmsg.getProcessorType() == ClusterDistributionManager.HIGH_PRIORITY_EXECUTOR
         || gfmsg instanceof HighPriorityDistributionMessage || AlertAppender.isThreadAlerting()) {
@@ -1280,6 +1323,9 @@ public class JGroupsMessenger implements Messenger {
         if (o == null) {
           return;
         }
+        if (statRecorder != null) {
+          statRecorder.recordMessageReceived(o.getClass(), jgmsg.getLength());
+        }
 
         DistributionMessage msg = (DistributionMessage) o;
         assert msg.getSender() != null;
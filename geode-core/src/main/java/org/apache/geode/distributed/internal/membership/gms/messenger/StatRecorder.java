@@ -33,7 +33,8 @@ import org.apache.geode.distributed.internal.membership.gms.Services;
 
 /**
  * JGroups doesn't capture quite the stats we want so this protocol is inserted into the stack to
- * gather the missing ones.
+ * gather the missing ones. It also counts each type of message passed through the messenger in
+ * DMStats, which shows what traffic is carried by the UDP transport.
  *
  *
  */
@@ -81,6 +82,9 @@ public class StatRecorder extends Protocol {
         processForMulticast(msg, OUTGOING);
         processForUnicast(msg, OUTGOING);
         filter(msg, OUTGOING);
+        if (stats != null) {
+          stats.incUdpMessagesSent();
+        }
         break;
     }
     do {
@@ -104,6 +108,39 @@ public class StatRecorder extends Protocol {
   }
 
 
+  /**
+   * Records that a message of the given type has been sent to a member or multicast
+   *
+   * @param messageType the class of the message
+   * @param length the serialized size of the message
+   */
+  public void recordMessageSent(Class<?> messageType, int length) {
+    if (stats != null) {
+      stats.incUdpMessageTypeSent(messageType, length);
+    }
+  }
+
+  /**
+   * Records that a message of the given type has been received
+   *
+   * @param messageType the class of the message
+   * @param length the serialized size of the message
+   */
+  public void recordMessageReceived(Class<?> messageType, int length) {
+    if (stats != null) {
+      stats.incUdpMessageTypeReceived(messageType, length);
+    }
+  }
+
+  /**
+   * Records that the transport has sent a datagram, which may hold several bundled messages
+   */
+  public void recordDatagramSent() {
+    if (stats != null) {
+      stats.incUdpDatagramsSent();
+    }
+  }
+
   private void processForMulticast(Message msg, int direction) {
     Object o = msg.getHeader(nakackHeaderId);
     if (o instanceof NakAckHeader2 && stats != null) {
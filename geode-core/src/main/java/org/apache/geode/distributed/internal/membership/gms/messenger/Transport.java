@@ -34,10 +34,16 @@ public class Transport extends UDP {
 
   private JGroupsMessenger messenger;
 
+  private StatRecorder statRecorder;
+
   public void setMessenger(JGroupsMessenger m) {
     messenger = m;
   }
 
+  public void setStatRecorder(StatRecorder recorder) {
+    statRecorder = recorder;
+  }
+
   /*
    * (non-Javadoc) copied from JGroups to perform Geode-specific error handling when there is a
    * network partition
@@ -76,6 +82,9 @@ public class Transport extends UDP {
       throws Exception {
     try {
       super.doSend(cluster_name, buf, offset, length, dest);
+      if (statRecorder != null) {
+        statRecorder.recordDatagramSent();
+      }
     } catch (SocketException sock_ex) {
       if (!this.sock.isClosed() && !stack.getChannel().isClosed()) {
         log.error("Exception caught while sending message", sock_ex);
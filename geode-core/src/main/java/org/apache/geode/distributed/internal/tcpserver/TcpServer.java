@@ -14,19 +14,31 @@
  */
 package org.apache.geode.distributed.internal.tcpserver;
 
+import java.io.ByteArrayInputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.EOFException;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
 import java.io.StreamCorruptedException;
 import java.net.InetAddress;
+import java.net.InetSocketAddress;
 import java.net.ServerSocket;
 import java.net.Socket;
 import java.net.SocketAddress;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.SynchronousQueue;
@@ -124,8 +136,26 @@ public class TcpServer {
   private static final int BACKLOG =
       Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "TcpServer.BACKLOG", P2P_BACKLOG);
 
+  /**
+   * When set, a single selector thread accepts connections and reads requests, and only complete
+   * requests are handed to the request threads. Slow or idle clients then don't tie up request
+   * threads, which lets the locator absorb storms of reconnecting clients. Connections that are
+   * not gossip requests, like protobuf clients, are handed to a request thread as soon as their
+   * first byte arrives. The selector is not used when the locator uses SSL.
+   */
+  public static final String USE_SELECTOR_PROPERTY =
+      DistributionConfig.GEMFIRE_PREFIX + "TcpServer.USE_SELECTOR";
+
+  /** requests larger than this are read by a request thread instead of the selector */
+  private static final int MAX_SELECTOR_REQUEST_SIZE = 64 * 1024;
+
+  private static final long SELECT_TIMEOUT = 1000;
+
   private int port;
   private ServerSocket srv_sock = null;
+  private ServerSocketChannel serverChannel;
+  private volatile Selector selector;
+  private final boolean useSelector;
   private InetAddress bind_address;
   private volatile boolean shuttingDown = false;
   private final PoolStatHelper poolHelper;
@@ -169,6 +199,7 @@ public class TcpServer {
     this.executor = createExecutor(poolHelper, threadGroup);
     this.threadGroup = threadGroup;
     this.threadName = threadName;
+    this.useSelector = Boolean.getBoolean(USE_SELECTOR_PROPERTY);
 
     if (cfg == null) {
       if (sslConfig == null) {
@@ -236,10 +267,20 @@ public class TcpServer {
 
   private void initializeServerSocket() throws IOException {
     if (srv_sock == null || srv_sock.isClosed()) {
-      if (bind_address == null) {
+      if (useSelector && !getSocketCreator().useSSL()) {
+        serverChannel = ServerSocketChannel.open();
+        srv_sock = serverChannel.socket();
+        srv_sock.setReuseAddress(true);
+        srv_sock.bind(new InetSocketAddress(bind_address, port), BACKLOG);
+        if (bind_address == null) {
+          bind_address = srv_sock.getInetAddress();
+        }
+      } else if (bind_address == null) {
+        serverChannel = null;
         srv_sock = getSocketCreator().createServerSocket(port, BACKLOG);
         bind_address = srv_sock.getInetAddress();
       } else {
+        serverChannel = null;
         srv_sock = getSocketCreator().createServerSocket(port, BACKLOG, bind_address);
       }
       // GEODE-4176 - set the port from a wild-card bind so that handlers know the correct value
@@ -290,6 +331,36 @@ public class TcpServer {
   }
 
   protected void run() {
+    if (serverChannel != null) {
+      selectRequests();
+    } else {
+      acceptConnections();
+    }
+
+    if (!srv_sock.isClosed()) {
+      try {
+        srv_sock.close();
+      } catch (java.io.IOException ex) {
+        log.warn("exception closing server socket during shutdown", ex);
+      }
+    }
+
+    if (shuttingDown) {
+      log.info("locator shutting down");
+      executor.shutdown();
+      try {
+        executor.awaitTermination(SHUTDOWN_WAIT_TIME, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException ignore) {
+        Thread.currentThread().interrupt();
+      }
+      handler.shutDown();
+      synchronized (this) {
+        this.notifyAll();
+      }
+    }
+  }
+
+  private void acceptConnections() {
     Socket sock = null;
 
     while (!shuttingDown) {
@@ -326,182 +397,425 @@ public class TcpServer {
         continue;
       }
     }
+  }
 
-    if (!srv_sock.isClosed()) {
-      try {
-        srv_sock.close();
-      } catch (java.io.IOException ex) {
-        log.warn("exception closing server socket during shutdown", ex);
+  /**
+   * Accepts connections and reads their requests with a selector. Complete gossip requests are
+   * handed to the executor for processing. Other connections, and requests that the selector could
+   * not read, are handed to the executor with the bytes read so far.
+   */
+  private void selectRequests() {
+    List<SelectionKey> readyKeys = new ArrayList<>();
+    try (Selector selector = Selector.open()) {
+      this.selector = selector;
+      serverChannel.configureBlocking(false);
+      serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+
+      while (!shuttingDown && serverChannel.isOpen()) {
+        if (SystemFailure.getFailure() != null) {
+          // Allocate no objects here!
+          try {
+            srv_sock.close();
+            return;
+          } catch (IOException ignore) {
+            // ignore
+          }
+          SystemFailure.checkFailure(); // throws
+        }
+        try {
+          selector.select(SELECT_TIMEOUT);
+        } catch (IOException ex) {
+          // like a failed accept in acceptConnections, this must not stop the locator
+          if (!shuttingDown) {
+            log.error("exception=", ex);
+          }
+          continue;
+        }
+        for (Iterator<SelectionKey> it = selector.selectedKeys().iterator(); it.hasNext();) {
+          SelectionKey key = it.next();
+          it.remove();
+          if (!key.isValid()) {
+            continue;
+          }
+          if (key.isAcceptable()) {
+            acceptConnection(selector);
+          } else if (key.isReadable()) {
+            PendingRequest pending = (PendingRequest) key.attachment();
+            try {
+              if (pending.read()) {
+                readyKeys.add(key);
+              }
+            } catch (IOException e) {
+              // client went away
+              pending.close();
+            }
+          }
+        }
+        expireIdleConnections(selector);
+        if (!readyKeys.isEmpty()) {
+          dispatchRequests(selector, readyKeys);
+          readyKeys.clear();
+        }
+      }
+
+      for (SelectionKey key : selector.keys()) {
+        if (key.attachment() instanceof PendingRequest) {
+          ((PendingRequest) key.attachment()).close();
+        }
+      }
+    } catch (Exception ex) {
+      if (!shuttingDown) {
+        log.error("exception=", ex);
+        shuttingDown = true;
       }
+    } finally {
+      this.selector = null;
     }
+  }
 
-    if (shuttingDown) {
-      log.info("locator shutting down");
-      executor.shutdown();
+  private void acceptConnection(Selector selector) {
+    while (true) {
+      SocketChannel channel;
       try {
-        executor.awaitTermination(SHUTDOWN_WAIT_TIME, TimeUnit.MILLISECONDS);
-      } catch (InterruptedException ignore) {
-        Thread.currentThread().interrupt();
+        channel = serverChannel.accept();
+      } catch (IOException ex) {
+        // for example too many open files or a connection aborted before it was accepted; the
+        // selector reports the channel as acceptable again on the next select
+        if (!shuttingDown) {
+          log.error("exception=", ex);
+        }
+        return;
       }
-      handler.shutDown();
-      synchronized (this) {
-        this.notifyAll();
+      if (channel == null) {
+        return;
+      }
+      try {
+        channel.configureBlocking(false);
+        channel.register(selector, SelectionKey.OP_READ, new PendingRequest(channel));
+      } catch (IOException e) {
+        log.debug("Unable to accept connection from {}", channel, e);
+        try {
+          channel.close();
+        } catch (IOException ignore) {
+          // ignore
+        }
+      }
+    }
+  }
+
+  private void expireIdleConnections(Selector selector) {
+    long now = System.currentTimeMillis();
+    for (SelectionKey key : selector.keys()) {
+      Object attachment = key.attachment();
+      if (attachment instanceof PendingRequest
+          && now - ((PendingRequest) attachment).acceptTime > READ_TIMEOUT) {
+        ((PendingRequest) attachment).close();
       }
     }
   }
 
   /**
-   * fix for bug 33711 - client requests are spun off to another thread for processing. Requests are
-   * synchronized in processGossip.
+   * Hands the given connections to the executor. The connections are deregistered from the
+   * selector and put back into blocking mode so that the request threads can use the socket
+   * streams.
    */
-  private void processRequest(final Socket socket) {
-    executor.execute(() -> {
-      long startTime = DistributionStats.getStatTime();
-      DataInputStream input = null;
+  private void dispatchRequests(Selector selector, List<SelectionKey> readyKeys) {
+    for (SelectionKey key : readyKeys) {
+      key.cancel();
+    }
+    // complete the deregistration before changing the blocking mode of the channels
+    try {
+      selector.selectNow();
+    } catch (IOException ex) {
+      // the channels can't be put back into blocking mode; drop them and let the clients retry
+      if (!shuttingDown) {
+        log.error("exception=", ex);
+      }
+      for (SelectionKey key : readyKeys) {
+        ((PendingRequest) key.attachment()).close();
+      }
+      return;
+    }
+    for (SelectionKey key : readyKeys) {
+      PendingRequest pending = (PendingRequest) key.attachment();
       try {
-        socket.setSoTimeout(READ_TIMEOUT);
-        getSocketCreator().handshakeIfSocketIsSSL(socket, READ_TIMEOUT);
+        pending.channel.configureBlocking(true);
+      } catch (IOException e) {
+        pending.close();
+        continue;
+      }
+      Socket socket = pending.channel.socket();
+      if (pending.request != null) {
+        executor.execute(() -> processConnection(socket, null, pending));
+      } else {
+        byte[] bytesRead = new byte[pending.buffer.position()];
+        System.arraycopy(pending.buffer.array(), 0, bytesRead, 0, bytesRead.length);
+        executor.execute(() -> processConnection(socket, bytesRead, null));
+      }
+    }
+  }
 
-        try {
-          input = new DataInputStream(socket.getInputStream());
-        } catch (StreamCorruptedException e) {
-          // Some garbage can be left on the socket stream
-          // if a peer disappears at exactly the wrong moment.
-          log.debug("Discarding illegal request from "
-              + (socket.getInetAddress().getHostAddress() + ":" + socket.getPort()), e);
-          return;
+  /**
+   * A connection accepted by the selector whose request has not been completely read
+   */
+  private class PendingRequest {
+    final SocketChannel channel;
+    final long acceptTime = System.currentTimeMillis();
+    ByteBuffer buffer = ByteBuffer.allocate(1024);
+    Object request;
+    short versionOrdinal;
+
+    PendingRequest(SocketChannel channel) {
+      this.channel = channel;
+    }
+
+    /**
+     * Reads the bytes that are available. Returns true if the connection should be handed to a
+     * request thread, either because the request has been read or because it is not one the
+     * selector can read.
+     */
+    boolean read() throws IOException {
+      if (!buffer.hasRemaining()) {
+        if (buffer.capacity() >= MAX_SELECTOR_REQUEST_SIZE) {
+          return true;
         }
-        // read the first byte & check for an improperly configured client pool trying
-        // to contact a cache server
-        int firstByte = input.readUnsignedByte();
-        if (firstByte == CommunicationMode.ReservedForGossip.getModeNumber()) {
-          processOneConnection(socket, startTime, input);
-        } else if (firstByte == CommunicationMode.ProtobufClientServerProtocol.getModeNumber()) {
-          handleProtobufConnection(socket, input);
-        } else if (CommunicationMode.isValidMode(firstByte)) {
-          socket.getOutputStream().write(Handshake.REPLY_SERVER_IS_LOCATOR);
-          throw new Exception("Improperly configured client detected - use addPoolLocator to "
-              + "configure its locators instead of addPoolServer.");
-
-        } else {
-          rejectUnknownProtocolConnection(socket, firstByte);
+        ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() * 2);
+        buffer.flip();
+        larger.put(buffer);
+        buffer = larger;
+      }
+      if (channel.read(buffer) < 0) {
+        throw new EOFException();
+      }
+      if (buffer.position() == 0) {
+        return false;
+      }
+      if ((buffer.get(0) & 0xff) != CommunicationMode.ReservedForGossip.getModeNumber()) {
+        return true;
+      }
+      return parseRequest();
+    }
+
+    /**
+     * Tries to read a gossip request from the bytes received so far. Returns false if more bytes
+     * are needed.
+     */
+    private boolean parseRequest() {
+      DataInputStream input = new DataInputStream(
+          new ByteArrayInputStream(buffer.array(), 1, buffer.position() - 1));
+      try {
+        int gossipVersion = readGossipVersion(input);
+        if (gossipVersion > getCurrentGossipVersion()
+            || !GOSSIP_TO_GEMFIRE_VERSION_MAP.containsKey(gossipVersion)) {
+          // let a request thread reject the connection
+          return true;
         }
-      } catch (EOFException ignore) {
-        // client went away - ignore
-      } catch (CancelException ignore) {
+        short ordinal = readVersionOrdinal(input, gossipVersion);
+        request = DataSerializer.readObject(
+            new VersionedDataInputStream(input, Version.fromOrdinal(ordinal, false)));
+        versionOrdinal = ordinal;
+        return true;
+      } catch (EOFException e) {
+        return false;
+      } catch (Exception e) {
+        // let a request thread read the request again and report the problem
+        request = null;
+        return true;
+      }
+    }
+
+    void close() {
+      try {
+        channel.close();
+      } catch (IOException ignore) {
         // ignore
-      } catch (ClassNotFoundException ex) {
-        String sender = null;
-        if (socket != null) {
-          sender = socket.getInetAddress().getHostAddress();
-        }
-        log.info("Unable to process request from " + sender + " exception=" + ex.getMessage());
-      } catch (Exception ex) {
-        String sender = null;
-        if (socket != null) {
-          sender = socket.getInetAddress().getHostAddress();
+      }
+    }
+  }
+
+  /**
+   * fix for bug 33711 - client requests are spun off to another thread for processing. Requests are
+   * synchronized in processGossip.
+   */
+  private void processRequest(final Socket socket) {
+    executor.execute(() -> processConnection(socket, null, null));
+  }
+
+  /**
+   * Processes a connection in a request thread.
+   *
+   * @param bytesRead bytes already read from the socket by the selector, or null
+   * @param pending a request that has already been read by the selector, or null
+   */
+  private void processConnection(Socket socket, byte[] bytesRead, PendingRequest pending) {
+    long startTime = DistributionStats.getStatTime();
+    DataInputStream input = null;
+    try {
+      socket.setSoTimeout(READ_TIMEOUT);
+      if (pending != null) {
+        processGossipRequest(socket, startTime, pending.request, pending.versionOrdinal);
+        return;
+      }
+      getSocketCreator().handshakeIfSocketIsSSL(socket, READ_TIMEOUT);
+
+      try {
+        InputStream in = socket.getInputStream();
+        if (bytesRead != null) {
+          in = new SequenceInputStream(new ByteArrayInputStream(bytesRead), in);
         }
-        if (ex instanceof IOException) {
-          // IOException could be caused by a client failure. Don't
-          // log with severe.
-          if (!socket.isClosed()) {
-            log.info("Exception in processing request from " + sender, ex);
-          }
-        } else {
-          log.fatal("Exception in processing request from " + sender, ex);
+        input = new DataInputStream(in);
+      } catch (StreamCorruptedException e) {
+        // Some garbage can be left on the socket stream
+        // if a peer disappears at exactly the wrong moment.
+        log.debug("Discarding illegal request from "
+            + (socket.getInetAddress().getHostAddress() + ":" + socket.getPort()), e);
+        return;
+      }
+      // read the first byte & check for an improperly configured client pool trying
+      // to contact a cache server
+      int firstByte = input.readUnsignedByte();
+      if (firstByte == CommunicationMode.ReservedForGossip.getModeNumber()) {
+        processOneConnection(socket, startTime, input);
+      } else if (firstByte == CommunicationMode.ProtobufClientServerProtocol.getModeNumber()) {
+        handleProtobufConnection(socket, input);
+      } else if (CommunicationMode.isValidMode(firstByte)) {
+        socket.getOutputStream().write(Handshake.REPLY_SERVER_IS_LOCATOR);
+        throw new Exception("Improperly configured client detected - use addPoolLocator to "
+            + "configure its locators instead of addPoolServer.");
+
+      } else {
+        rejectUnknownProtocolConnection(socket, firstByte);
+      }
+    } catch (EOFException ignore) {
+      // client went away - ignore
+    } catch (CancelException ignore) {
+      // ignore
+    } catch (ClassNotFoundException ex) {
+      String sender = null;
+      if (socket != null) {
+        sender = socket.getInetAddress().getHostAddress();
+      }
+      log.info("Unable to process request from " + sender + " exception=" + ex.getMessage());
+    } catch (Exception ex) {
+      String sender = null;
+      if (socket != null) {
+        sender = socket.getInetAddress().getHostAddress();
+      }
+      if (ex instanceof IOException) {
+        // IOException could be caused by a client failure. Don't
+        // log with severe.
+        if (!socket.isClosed()) {
+          log.info("Exception in processing request from " + sender, ex);
         }
+      } else {
+        log.fatal("Exception in processing request from " + sender, ex);
+      }
 
+    } catch (VirtualMachineError err) {
+      SystemFailure.initiateFailure(err);
+      throw err;
+    } catch (Throwable ex) {
+      SystemFailure.checkFailure();
+      String sender = null;
+      if (socket != null) {
+        sender = socket.getInetAddress().getHostAddress();
+      }
+      try {
+        log.fatal("Exception in processing request from " + sender, ex);
       } catch (VirtualMachineError err) {
         SystemFailure.initiateFailure(err);
         throw err;
-      } catch (Throwable ex) {
+      } catch (Throwable t) {
         SystemFailure.checkFailure();
-        String sender = null;
-        if (socket != null) {
-          sender = socket.getInetAddress().getHostAddress();
-        }
-        try {
-          log.fatal("Exception in processing request from " + sender, ex);
-        } catch (VirtualMachineError err) {
-          SystemFailure.initiateFailure(err);
-          throw err;
-        } catch (Throwable t) {
-          SystemFailure.checkFailure();
-          t.printStackTrace();
-        }
-      } finally {
-        try {
-          socket.close();
-        } catch (IOException ignore) {
-          // ignore
-        }
+        t.printStackTrace();
+      }
+    } finally {
+      try {
+        socket.close();
+      } catch (IOException ignore) {
+        // ignore
       }
-    });
+    }
   }
 
-  private void processOneConnection(Socket socket, long startTime, DataInputStream input)
-      throws IOException, UnsupportedVersionException, ClassNotFoundException {
-    // At this point we've read the leading byte of the gossip version and found it to be 0,
-    // continue reading the next three bytes
+  private static int readGossipVersion(DataInputStream input) throws IOException {
+    // the leading byte of the gossip version has already been read and found to be 0,
+    // read the next three bytes
     int gossipVersion = 0;
     for (int i = 0; i < 3; i++) {
       gossipVersion = (gossipVersion << 8) + (0xff & input.readUnsignedByte());
     }
+    return gossipVersion;
+  }
+
+  private static short readVersionOrdinal(DataInputStream input, int gossipVersion)
+      throws IOException {
+    short versionOrdinal = (short) GOSSIP_TO_GEMFIRE_VERSION_MAP.get(gossipVersion);
+    if (Version.GFE_71.compareTo(versionOrdinal) <= 0) {
+      // Recent versions of TcpClient will send the version ordinal
+      versionOrdinal = input.readShort();
+    }
+    return versionOrdinal;
+  }
+
+  private void processOneConnection(Socket socket, long startTime, DataInputStream input)
+      throws IOException, UnsupportedVersionException, ClassNotFoundException {
+    int gossipVersion = readGossipVersion(input);
 
-    Object request;
-    Object response;
-    short versionOrdinal;
     if (gossipVersion <= getCurrentGossipVersion()
         && GOSSIP_TO_GEMFIRE_VERSION_MAP.containsKey(gossipVersion)) {
       // Create a versioned stream to remember sender's GemFire version
-      versionOrdinal = (short) GOSSIP_TO_GEMFIRE_VERSION_MAP.get(gossipVersion);
-
-      if (Version.GFE_71.compareTo(versionOrdinal) <= 0) {
-        // Recent versions of TcpClient will send the version ordinal
-        versionOrdinal = input.readShort();
-      }
-
-      if (log.isDebugEnabled() && versionOrdinal != Version.CURRENT_ORDINAL) {
-        log.debug("Locator reading request from " + socket.getInetAddress() + " with version "
-            + Version.fromOrdinal(versionOrdinal, false));
-      }
+      short versionOrdinal = readVersionOrdinal(input, gossipVersion);
       input = new VersionedDataInputStream(input, Version.fromOrdinal(versionOrdinal, false));
-      request = DataSerializer.readObject(input);
-      if (log.isDebugEnabled()) {
-        log.debug("Locator received request " + request + " from " + socket.getInetAddress());
-      }
-      if (request instanceof ShutdownRequest) {
-        shuttingDown = true;
-        // Don't call shutdown from within the worker thread, see java bug #6576792.
-        // Closing the socket will cause our acceptor thread to shutdown the executor
-        srv_sock.close();
-        response = new ShutdownResponse();
-      } else if (request instanceof InfoRequest) {
-        response = handleInfoRequest(request);
-      } else if (request instanceof VersionRequest) {
-        response = handleVersionRequest(request);
-      } else {
-        response = handler.processRequest(request);
+      Object request = DataSerializer.readObject(input);
+      processGossipRequest(socket, startTime, request, versionOrdinal);
+    } else {
+      // Close the socket. We can not accept requests from a newer version
+      rejectUnknownProtocolConnection(socket, gossipVersion);
+    }
+  }
+
+  private void processGossipRequest(Socket socket, long startTime, Object request,
+      short versionOrdinal) throws IOException {
+    if (log.isDebugEnabled() && versionOrdinal != Version.CURRENT_ORDINAL) {
+      log.debug("Locator reading request from " + socket.getInetAddress() + " with version "
+          + Version.fromOrdinal(versionOrdinal, false));
+    }
+    if (log.isDebugEnabled()) {
+      log.debug("Locator received request " + request + " from " + socket.getInetAddress());
+    }
+    Object response;
+    if (request instanceof ShutdownRequest) {
+      shuttingDown = true;
+      // Don't call shutdown from within the worker thread, see java bug #6576792.
+      // Closing the socket will cause our acceptor thread to shutdown the executor
+      srv_sock.close();
+      Selector selector = this.selector;
+      if (selector != null) {
+        selector.wakeup();
       }
+      response = new ShutdownResponse();
+    } else if (request instanceof InfoRequest) {
+      response = handleInfoRequest(request);
+    } else if (request instanceof VersionRequest) {
+      response = handleVersionRequest(request);
+    } else {
+      response = handler.processRequest(request);
+    }
 
-      handler.endRequest(request, startTime);
+    handler.endRequest(request, startTime);
 
-      startTime = DistributionStats.getStatTime();
-      if (response != null) {
-        DataOutputStream output = new DataOutputStream(socket.getOutputStream());
-        if (versionOrdinal != Version.CURRENT_ORDINAL) {
-          output =
-              new VersionedDataOutputStream(output, Version.fromOrdinal(versionOrdinal, false));
-        }
-        DataSerializer.writeObject(response, output);
-        output.flush();
+    startTime = DistributionStats.getStatTime();
+    if (response != null) {
+      DataOutputStream output = new DataOutputStream(socket.getOutputStream());
+      if (versionOrdinal != Version.CURRENT_ORDINAL) {
+        output = new VersionedDataOutputStream(output, Version.fromOrdinal(versionOrdinal, false));
       }
-
-      handler.endResponse(request, startTime);
-    } else {
-      // Close the socket. We can not accept requests from a newer version
-      rejectUnknownProtocolConnection(socket, gossipVersion);
+      DataSerializer.writeObject(response, output);
+      output.flush();
     }
+
+    handler.endResponse(request, startTime);
   }
 
   private void rejectUnknownProtocolConnection(Socket socket, int gossipVersion) {
@@ -39,6 +39,8 @@ import org.apache.geode.cache.client.internal.locator.LocatorStatusRequest;
 import org.apache.geode.cache.client.internal.locator.LocatorStatusResponse;
 import org.apache.geode.cache.client.internal.locator.QueueConnectionRequest;
 import org.apache.geode.cache.client.internal.locator.QueueConnectionResponse;
+import org.apache.geode.cache.client.internal.locator.ServerListLeaseRequest;
+import org.apache.geode.cache.client.internal.locator.ServerListLeaseResponse;
 import org.apache.geode.cache.query.QueryService;
 import org.apache.geode.cache.query.internal.CqEntry;
 import org.apache.geode.cache.query.internal.CumulativeNonDistinctResults;
@@ -46,7 +48,9 @@ import org.apache.geode.cache.query.internal.LinkedResultSet;
 import org.apache.geode.cache.query.internal.LinkedStructSet;
 import org.apache.geode.cache.query.internal.NWayMergeResults;
 import org.apache.geode.cache.query.internal.NullToken;
+import org.apache.geode.cache.query.internal.PRQueryExplainInfo;
 import org.apache.geode.cache.query.internal.PRQueryTraceInfo;
+import org.apache.geode.cache.query.internal.QueryPlanNode;
 import org.apache.geode.cache.query.internal.ResultsBag;
 import org.apache.geode.cache.query.internal.ResultsCollectionWrapper;
 import org.apache.geode.cache.query.internal.ResultsSet;
@@ -91,13 +95,17 @@ import org.apache.geode.distributed.internal.membership.gms.locator.FindCoordina
 import org.apache.geode.distributed.internal.membership.gms.locator.GetViewRequest;
 import org.apache.geode.distributed.internal.membership.gms.locator.GetViewResponse;
 import org.apache.geode.distributed.internal.membership.gms.messages.FinalCheckPassedMessage;
+import org.apache.geode.distributed.internal.membership.gms.messages.FullViewRequestMessage;
 import org.apache.geode.distributed.internal.membership.gms.messages.HeartbeatMessage;
 import org.apache.geode.distributed.internal.membership.gms.messages.HeartbeatRequestMessage;
+import org.apache.geode.distributed.internal.membership.gms.messages.InstallViewDeltaMessage;
 import org.apache.geode.distributed.internal.membership.gms.messages.InstallViewMessage;
 import org.apache.geode.distributed.internal.membership.gms.messages.JoinRequestMessage;
 import org.apache.geode.distributed.internal.membership.gms.messages.JoinResponseMessage;
 import org.apache.geode.distributed.internal.membership.gms.messages.LeaveRequestMessage;
 import org.apache.geode.distributed.internal.membership.gms.messages.NetworkPartitionMessage;
+import org.apache.geode.distributed.internal.membership.gms.messages.ProbeRequestMessage;
+import org.apache.geode.distributed.internal.membership.gms.messages.ProbeResponseMessage;
 import org.apache.geode.distributed.internal.membership.gms.messages.RemoveMemberMessage;
 import org.apache.geode.distributed.internal.membership.gms.messages.SuspectMembersMessage;
 import org.apache.geode.distributed.internal.membership.gms.messages.ViewAckMessage;
@@ -475,6 +483,10 @@ public class DSFIDFactory implements DataSerializableFixedID {
   }
 
   private static void registerDSFIDTypes() {
+    registerDSFID(PROBE_REQUEST_MESSAGE, ProbeRequestMessage.class);
+    registerDSFID(PROBE_RESPONSE_MESSAGE, ProbeResponseMessage.class);
+    registerDSFID(INSTALL_VIEW_DELTA_MESSAGE, InstallViewDeltaMessage.class);
+    registerDSFID(FULL_VIEW_REQUEST_MESSAGE, FullViewRequestMessage.class);
     registerDSFID(FINAL_CHECK_PASSED_MESSAGE, FinalCheckPassedMessage.class);
     registerDSFID(NETWORK_PARTITION_MESSAGE, NetworkPartitionMessage.class);
     registerDSFID(REMOVE_MEMBER_REQUEST, RemoveMemberMessage.class);
@@ -854,6 +866,8 @@ public class DSFIDFactory implements DataSerializableFixedID {
     registerDSFID(FUNCTION_STREAMING_REPLY_MESSAGE, FunctionStreamingReplyMessage.class);
     registerDSFID(GET_ALL_SERVERS_REQUEST, GetAllServersRequest.class);
     registerDSFID(GET_ALL_SERVRES_RESPONSE, GetAllServersResponse.class);
+    registerDSFID(SERVER_LIST_LEASE_REQUEST, ServerListLeaseRequest.class);
+    registerDSFID(SERVER_LIST_LEASE_RESPONSE, ServerListLeaseResponse.class);
     registerDSFID(PERSISTENT_MEMBERSHIP_VIEW_REQUEST, MembershipViewRequest.class);
     registerDSFID(PERSISTENT_MEMBERSHIP_VIEW_REPLY, MembershipViewReplyMessage.class);
     registerDSFID(PERSISTENT_STATE_QUERY_REQUEST, PersistentStateQueryMessage.class);
@@ -937,6 +951,8 @@ public class DSFIDFactory implements DataSerializableFixedID {
     registerDSFID(GATEWAY_SENDER_QUEUE_ENTRY_SYNCHRONIZATION_ENTRY,
         GatewaySenderQueueEntrySynchronizationOperation.GatewaySenderQueueEntrySynchronizationEntry.class);
     registerDSFID(ABORT_BACKUP_REQUEST, AbortBackupRequest.class);
+    registerDSFID(QUERY_PLAN_NODE, QueryPlanNode.class);
+    registerDSFID(PR_QUERY_EXPLAIN_INFO, PRQueryExplainInfo.class);
   }
 
   /**
@@ -71,6 +71,12 @@ public interface DataSerializableFixedID extends SerializationVersions {
    *
    * In DSFIDFactory, add a case for the new class case FOO: return new FOO(in);
    */
+  short SERVER_LIST_LEASE_RESPONSE = -165;
+  short SERVER_LIST_LEASE_REQUEST = -164;
+  short FULL_VIEW_REQUEST_MESSAGE = -163;
+  short INSTALL_VIEW_DELTA_MESSAGE = -162;
+  short PROBE_RESPONSE_MESSAGE = -161;
+  short PROBE_REQUEST_MESSAGE = -160;
   short CREATE_REGION_MESSAGE_LUCENE = -159;
   short FINAL_CHECK_PASSED_MESSAGE = -158;
   short NETWORK_PARTITION_MESSAGE = -157;
@@ -824,6 +830,8 @@ public interface DataSerializableFixedID extends SerializationVersions {
   short GATEWAY_SENDER_QUEUE_ENTRY_SYNCHRONIZATION_MESSAGE = 2181;
   short GATEWAY_SENDER_QUEUE_ENTRY_SYNCHRONIZATION_ENTRY = 2182;
   short ABORT_BACKUP_REQUEST = 2183;
+  short QUERY_PLAN_NODE = 2184;
+  short PR_QUERY_EXPLAIN_INFO = 2185;
 
   // NOTE, codes > 65535 will take 4 bytes to serialize
 
@@ -56,7 +56,7 @@ public class Version implements Comparable<Version> {
   /** byte used as ordinal to represent this <code>Version</code> */
   private final short ordinal;
 
-  public static final int HIGHEST_VERSION = 95;
+  public static final int HIGHEST_VERSION = 100;
 
   private static final Version[] VALUES = new Version[HIGHEST_VERSION + 1];
 
@@ -225,13 +225,18 @@ public class Version implements Comparable<Version> {
   public static final Version GEODE_180 =
       new Version("GEODE", "1.8.0", (byte) 1, (byte) 8, (byte) 0, (byte) 0, GEODE_180_ORDINAL);
 
+  private static final byte GEODE_190_ORDINAL = 100;
+
+  public static final Version GEODE_190 =
+      new Version("GEODE", "1.9.0", (byte) 1, (byte) 9, (byte) 0, (byte) 0, GEODE_190_ORDINAL);
+
   /* NOTE: when adding a new version bump the ordinal by 5. Ordinals can be short ints */
 
   /**
    * This constant must be set to the most current version of the product. !!! NOTE: update
    * HIGHEST_VERSION when changing CURRENT !!!
    */
-  public static final Version CURRENT = GEODE_180;
+  public static final Version CURRENT = GEODE_190;
 
   /**
    * A lot of versioning code needs access to the current version's ordinal
@@ -80,6 +80,10 @@ public class CachePerfStats {
   protected static final int queryResultsHashCollisionsId;
   protected static final int queryResultsHashCollisionProbeTimeId;
   protected static final int partitionedRegionQueryRetriesId;
+  protected static final int queryPlanCacheHitsId;
+  protected static final int queryPlanCacheMissesId;
+  protected static final int queryPlanCacheEvictionsId;
+  protected static final int queryPlanCacheInvalidationsId;
 
   protected static final int txSuccessLifeTimeId;
   protected static final int txFailedLifeTimeId;
@@ -242,6 +246,14 @@ public class CachePerfStats {
         "Total time spent probing the hashtable in an OQL result set due to hash code collisions, includes reads, writes, and rehashes";
     final String partitionedRegionOQLQueryRetriesDesc =
         "Total number of times an OQL Query on a Partitioned Region had to be retried";
+    final String queryPlanCacheHitsDesc =
+        "Total number of times a query was created from a compiled plan found in the query plan cache";
+    final String queryPlanCacheMissesDesc =
+        "Total number of times a query had to be compiled because its plan was not in the query plan cache";
+    final String queryPlanCacheEvictionsDesc =
+        "Total number of compiled plans evicted from the query plan cache because it was full";
+    final String queryPlanCacheInvalidationsDesc =
+        "Total number of times the query plan cache was cleared because an index or region was created or destroyed";
     final String txSuccessLifeTimeDesc =
         "The total amount of time, in nanoseconds, spent in a transaction before a successful commit. The time measured starts at transaction begin and ends when commit is called.";
     final String txFailedLifeTimeDesc =
@@ -418,6 +430,11 @@ public class CachePerfStats {
                 queryResultsHashCollisionProbeTimeDesc, "nanoseconds"),
             f.createLongCounter("partitionedRegionQueryRetries",
                 partitionedRegionOQLQueryRetriesDesc, "retries"),
+            f.createLongCounter("queryPlanCacheHits", queryPlanCacheHitsDesc, "operations"),
+            f.createLongCounter("queryPlanCacheMisses", queryPlanCacheMissesDesc, "operations"),
+            f.createLongCounter("queryPlanCacheEvictions", queryPlanCacheEvictionsDesc, "plans"),
+            f.createLongCounter("queryPlanCacheInvalidations", queryPlanCacheInvalidationsDesc,
+                "operations"),
 
             f.createIntCounter("txCommits", txCommitsDesc, "commits"),
             f.createIntCounter("txCommitChanges", txCommitChangesDesc, "changes"),
@@ -562,6 +579,10 @@ public class CachePerfStats {
     queryResultsHashCollisionsId = type.nameToId("queryResultsHashCollisions");
     queryResultsHashCollisionProbeTimeId = type.nameToId("queryResultsHashCollisionProbeTime");
     partitionedRegionQueryRetriesId = type.nameToId("partitionedRegionQueryRetries");
+    queryPlanCacheHitsId = type.nameToId("queryPlanCacheHits");
+    queryPlanCacheMissesId = type.nameToId("queryPlanCacheMisses");
+    queryPlanCacheEvictionsId = type.nameToId("queryPlanCacheEvictions");
+    queryPlanCacheInvalidationsId = type.nameToId("queryPlanCacheInvalidations");
 
     txSuccessLifeTimeId = type.nameToId("txSuccessLifeTime");
     txFailedLifeTimeId = type.nameToId("txFailedLifeTime");
@@ -1486,6 +1507,38 @@ public class CachePerfStats {
     return this.stats.getLong(partitionedRegionQueryRetriesId);
   }
 
+  public void incQueryPlanCacheHits() {
+    this.stats.incLong(queryPlanCacheHitsId, 1);
+  }
+
+  public long getQueryPlanCacheHits() {
+    return this.stats.getLong(queryPlanCacheHitsId);
+  }
+
+  public void incQueryPlanCacheMisses() {
+    this.stats.incLong(queryPlanCacheMissesId, 1);
+  }
+
+  public long getQueryPlanCacheMisses() {
+    return this.stats.getLong(queryPlanCacheMissesId);
+  }
+
+  public void incQueryPlanCacheEvictions() {
+    this.stats.incLong(queryPlanCacheEvictionsId, 1);
+  }
+
+  public long getQueryPlanCacheEvictions() {
+    return this.stats.getLong(queryPlanCacheEvictionsId);
+  }
+
+  public void incQueryPlanCacheInvalidations() {
+    this.stats.incLong(queryPlanCacheInvalidationsId, 1);
+  }
+
+  public long getQueryPlanCacheInvalidations() {
+    return this.stats.getLong(queryPlanCacheInvalidationsId);
+  }
+
   public QueueStatHelper getEvictionQueueStatHelper() {
     return new QueueStatHelper() {
       public void add() {
@@ -612,6 +612,21 @@ public class CacheServerImpl extends AbstractCacheServer implements Distribution
     factory.setDataPolicy(DataPolicy.NORMAL);
     // enable statistics
     factory.setStatisticsEnabled(true);
+    if (HARegionQueue.HEAD_AND_TAIL_RESIDENT) {
+      /*
+       * setting LRU related eviction attributes so that the most recently queued events stay in
+       * memory; the dispatcher reads ahead to keep the head of each queue resident too
+       */
+      if (HARegionQueue.HA_EVICTION_POLICY_ENTRY.equals(ePolicy)) {
+        factory.setEvictionAttributes(
+            EvictionAttributes.createLRUEntryAttributes(capacity, EvictionAction.OVERFLOW_TO_DISK));
+        return factory;
+      } else if (HARegionQueue.HA_EVICTION_POLICY_MEMORY.equals(ePolicy)) {
+        factory.setEvictionAttributes(EvictionAttributes.createLRUMemoryAttributes(capacity, null,
+            EvictionAction.OVERFLOW_TO_DISK));
+        return factory;
+      }
+    }
     /* setting LIFO related eviction attributes */
     if (HARegionQueue.HA_EVICTION_POLICY_ENTRY.equals(ePolicy)) {
       factory.setEvictionAttributes(
@@ -29,6 +29,7 @@ import java.util.Set;
 import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import java.util.regex.Pattern;
 
 import org.apache.logging.log4j.Logger;
@@ -139,6 +140,14 @@ public class FilterProfile implements DataSerializableFixedID {
   private final CopyOnWriteHashMap<Object, Map<Object, Pattern>> patternsOfInterestInv =
       new CopyOnWriteHashMap<>();
 
+  /**
+   * Matchers over all of the clients' patterns, kept in sync with patternsOfInterest and
+   * patternsOfInterestInv so that routing an event does not evaluate each client's patterns.
+   */
+  private final transient InterestPatternMatcher patternMatcher = new InterestPatternMatcher();
+
+  private final transient InterestPatternMatcher patternMatcherInv = new InterestPatternMatcher();
+
   /**
    * The filtering classes in which clients are interested. This is a map keyed on client id, with a
    * HashMap (key name to {@link InterestFilter}) as the values.
@@ -173,6 +182,15 @@ public class FilterProfile implements DataSerializableFixedID {
   /** CQs that are registered on the remote node **/
   private final CopyOnWriteHashMap<String, ServerCQ> cqs = new CopyOnWriteHashMap<>();
 
+  /** Guards changes to this.cqs and the building of cqPredicateIndex */
+  private final Object cqsLock = new Object();
+
+  /**
+   * Index of the predicates of the CQs of this profile, built by the CQ service. Cleared before
+   * this.cqs changes, under cqsLock.
+   */
+  private volatile Object cqPredicateIndex;
+
   /* the ID of the member that this profile describes */
   private DistributedMember memberID;
 
@@ -277,7 +295,8 @@ public class FilterProfile implements DataSerializableFixedID {
           } else {
             Map<Object, Map<Object, Pattern>> pats =
                 updatesAsInvalidates ? getPatternsOfInterestInv() : getPatternsOfInterest();
-            registerPatternInMap(interest, keysRegistered, clientID, pats);
+            registerPatternInMap(interest, keysRegistered, clientID, pats,
+                updatesAsInvalidates ? this.patternMatcherInv : this.patternMatcher);
           }
           break;
         case InterestType.FILTER_CLASS: {
@@ -322,7 +341,7 @@ public class FilterProfile implements DataSerializableFixedID {
   }
 
   private void registerPatternInMap(Object interest, Set keysRegistered, Long clientID,
-      Map<Object, Map<Object, Pattern>> pats) {
+      Map<Object, Map<Object, Pattern>> pats, InterestPatternMatcher matcher) {
     Pattern pattern = Pattern.compile((String) interest);
     Map<Object, Pattern> interestMap = pats.get(clientID);
     if (interestMap == null) {
@@ -331,6 +350,7 @@ public class FilterProfile implements DataSerializableFixedID {
     }
     Pattern oldPattern = interestMap.put(interest, pattern);
     if (oldPattern == null) {
+      matcher.add(clientID, (String) interest, pattern);
       // If the pattern didn't exist, add it to the set of keys to pass to any listeners.
       keysRegistered.add(interest);
     }
@@ -435,6 +455,8 @@ public class FilterProfile implements DataSerializableFixedID {
     if (interest == UnregisterAllInterest.singleton()) {
       unregisterClientIDFromMap(clientID, getPatternsOfInterest(), keysUnregistered);
       unregisterClientIDFromMap(clientID, getPatternsOfInterestInv(), keysUnregistered);
+      this.patternMatcher.removeClient(clientID);
+      this.patternMatcherInv.removeClient(clientID);
       if (getAllKeyClients().remove(clientID)) {
         keysUnregistered.add(".*");
       }
@@ -442,17 +464,20 @@ public class FilterProfile implements DataSerializableFixedID {
         keysUnregistered.add(".*");
       }
     } else {
-      unregisterPatternFromMap(getPatternsOfInterest(), interest, clientID, keysUnregistered);
-      unregisterPatternFromMap(getPatternsOfInterestInv(), interest, clientID, keysUnregistered);
+      unregisterPatternFromMap(getPatternsOfInterest(), this.patternMatcher, interest, clientID,
+          keysUnregistered);
+      unregisterPatternFromMap(getPatternsOfInterestInv(), this.patternMatcherInv, interest,
+          clientID, keysUnregistered);
     }
   }
 
-  private void unregisterPatternFromMap(Map<Object, Map<Object, Pattern>> map, Object interest,
-      Long clientID, Set keysUnregistered) {
+  private void unregisterPatternFromMap(Map<Object, Map<Object, Pattern>> map,
+      InterestPatternMatcher matcher, Object interest, Long clientID, Set keysUnregistered) {
     Map interestMap = map.get(clientID);
     if (interestMap != null) {
       Object obj = interestMap.remove(interest);
       if (obj != null) {
+        matcher.remove(clientID, (String) interest);
         keysUnregistered.add(interest);
       }
       if (interestMap.isEmpty()) {
@@ -723,12 +748,14 @@ public class FilterProfile implements DataSerializableFixedID {
         Map<Object, Map<Object, Pattern>> pats = this.getPatternsOfInterest();
         if (pats.containsKey(clientID)) {
           pats.remove(clientID);
+          this.patternMatcher.removeClient(clientID);
         }
       }
       {
         Map<Object, Map<Object, Pattern>> pats = this.getPatternsOfInterestInv();
         if (pats.containsKey(clientID)) {
           pats.remove(clientID);
+          this.patternMatcherInv.removeClient(clientID);
         }
       }
       {
@@ -777,6 +804,39 @@ public class FilterProfile implements DataSerializableFixedID {
     return this.cqs;
   }
 
+  /**
+   * Returns the index of the predicates of the CQs registered on this region, building it with the
+   * given function if a CQ was added or removed since it was last built. The index is built under
+   * the lock that guards changes to the CQs, so it never misses a CQ registered before this call.
+   */
+  public Object getCqPredicateIndex(Function<Collection<ServerCQ>, Object> indexBuilder) {
+    Object index = this.cqPredicateIndex;
+    if (index == null) {
+      synchronized (this.cqsLock) {
+        index = this.cqPredicateIndex;
+        if (index == null) {
+          index = indexBuilder.apply(this.cqs.values());
+          this.cqPredicateIndex = index;
+        }
+      }
+    }
+    return index;
+  }
+
+  private void putCq(String serverCqName, ServerCQ cq) {
+    synchronized (this.cqsLock) {
+      this.cqPredicateIndex = null;
+      this.cqs.put(serverCqName, cq);
+    }
+  }
+
+  private void removeCq(String serverCqName) {
+    synchronized (this.cqsLock) {
+      this.cqPredicateIndex = null;
+      this.cqs.remove(serverCqName);
+    }
+  }
+
   /**
    * does this profile contain any continuous queries?
    */
@@ -793,7 +853,7 @@ public class FilterProfile implements DataSerializableFixedID {
     if (logger.isDebugEnabled()) {
       logger.debug("Adding CQ {} to this members FilterProfile.", cq.getServerCqName());
     }
-    this.cqs.put(cq.getServerCqName(), cq);
+    putCq(cq.getServerCqName(), cq);
     this.incCqCount();
 
     // cq.setFilterID(cqMap.getWireID(cq.getServerCqName()));
@@ -857,7 +917,7 @@ public class FilterProfile implements DataSerializableFixedID {
     // region is not set on the FilterProfile created for the peer nodes.
     if (cq.getCqBaseRegion() != null) {
       if (addToCqMap) {
-        this.cqs.put(serverCqName, cq);
+        putCq(serverCqName, cq);
       }
 
       FilterProfile pf = cq.getCqBaseRegion().getFilterProfile();
@@ -879,7 +939,7 @@ public class FilterProfile implements DataSerializableFixedID {
               this.region.getFullPath(), serverCqName, ex.getMessage(), ex);
         }
       }
-      this.cqs.remove(serverCqName);
+      removeCq(serverCqName);
       cq.getCqBaseRegion().getFilterProfile().decCqCount();
     }
   }
@@ -919,7 +979,7 @@ public class FilterProfile implements DataSerializableFixedID {
   public void closeCq(ServerCQ cq) {
     ensureCqID(cq);
     String serverCqName = cq.getServerCqName();
-    this.cqs.remove(serverCqName);
+    removeCq(serverCqName);
     if (this.cqMap != null) {
       this.cqMap.removeIDMapping(cq.getFilterID());
     }
@@ -1200,12 +1260,12 @@ public class FilterProfile implements DataSerializableFixedID {
           if (this.allKeyClientsInv != null || this.keysOfInterestInv != null
               || this.patternsOfInterestInv != null || this.filtersOfInterestInv != null) {
             clientsInv = this.getInterestedClients(ev, this.allKeyClientsInv,
-                this.keysOfInterestInv, this.patternsOfInterestInv, this.filtersOfInterestInv);
+                this.keysOfInterestInv, this.patternMatcherInv, this.filtersOfInterestInv);
           }
           if (this.allKeyClients != null || this.keysOfInterest != null
               || this.patternsOfInterest != null || this.filtersOfInterest != null) {
             clients = this.getInterestedClients(ev, this.allKeyClients, this.keysOfInterest,
-                this.patternsOfInterest, this.filtersOfInterest);
+                this.patternMatcher, this.filtersOfInterest);
           }
           if (clients != null || clientsInv != null) {
             if (fi == null) {
@@ -1255,12 +1315,12 @@ public class FilterProfile implements DataSerializableFixedID {
           if (this.allKeyClientsInv != null || this.keysOfInterestInv != null
               || this.patternsOfInterestInv != null || this.filtersOfInterestInv != null) {
             clientsInv = this.getInterestedClients(ev, this.allKeyClientsInv,
-                this.keysOfInterestInv, this.patternsOfInterestInv, this.filtersOfInterestInv);
+                this.keysOfInterestInv, this.patternMatcherInv, this.filtersOfInterestInv);
           }
           if (this.allKeyClients != null || this.keysOfInterest != null
               || this.patternsOfInterest != null || this.filtersOfInterest != null) {
             clients = this.getInterestedClients(ev, this.allKeyClients, this.keysOfInterest,
-                this.patternsOfInterest, this.filtersOfInterest);
+                this.patternMatcher, this.filtersOfInterest);
           }
           if (clients != null || clientsInv != null) {
             if (fi == null) {
@@ -1339,12 +1399,12 @@ public class FilterProfile implements DataSerializableFixedID {
         if (pf.allKeyClientsInv != null || pf.keysOfInterestInv != null
             || pf.patternsOfInterestInv != null || pf.filtersOfInterestInv != null) {
           clientsInv = pf.getInterestedClients(entryEvent, pf.allKeyClientsInv,
-              pf.keysOfInterestInv, pf.patternsOfInterestInv, pf.filtersOfInterestInv);
+              pf.keysOfInterestInv, pf.patternMatcherInv, pf.filtersOfInterestInv);
         }
         if (pf.allKeyClients != null || pf.keysOfInterest != null || pf.patternsOfInterest != null
             || pf.filtersOfInterest != null) {
           clients = pf.getInterestedClients(entryEvent, pf.allKeyClients, pf.keysOfInterest,
-              pf.patternsOfInterest, pf.filtersOfInterest);
+              pf.patternMatcher, pf.filtersOfInterest);
         }
       } else {
         if (event.getOperation().isRegionDestroy() || event.getOperation().isClear()) {
@@ -1388,12 +1448,12 @@ public class FilterProfile implements DataSerializableFixedID {
    * @param event the entry event being applied to the cache
    * @param akc allKeyClients collection
    * @param koi keysOfInterest collection
-   * @param pats patternsOfInterest collection
+   * @param pats matcher over the patternsOfInterest collection
    * @param foi filtersOfInterest collection
    * @return a set of the clients interested in the event
    */
   private Set getInterestedClients(EntryEvent event, Set akc, Map<Object, Set> koi,
-      Map<Object, Map<Object, Pattern>> pats, Map<Object, Map> foi) {
+      InterestPatternMatcher pats, Map<Object, Map> foi) {
     Set result = null;
     if (akc != null) {
       result = new HashSet(akc);
@@ -1417,22 +1477,14 @@ public class FilterProfile implements DataSerializableFixedID {
         }
       }
     }
-    if (pats != null && (event.getKey() instanceof String)) {
-      for (Iterator it = pats.entrySet().iterator(); it.hasNext();) {
-        Map.Entry entry = (Map.Entry) it.next();
-        String stringKey = (String) event.getKey();
-        Map<Object, Pattern> interestList = (Map<Object, Pattern>) entry.getValue();
-        for (Pattern keyPattern : interestList.values()) {
-          if (keyPattern.matcher(stringKey).matches()) {
-            Object clientID = entry.getKey();
-            if (result == null)
-              result = new HashSet();
-            result.add(clientID);
-            if (logger.isDebugEnabled()) {
-              logger.debug("client {} matched for pattern ({})", clientID, pats.get(clientID));
-            }
-            break;
-          }
+    if (pats != null && !pats.isEmpty() && (event.getKey() instanceof String)) {
+      Set<Object> matched = pats.getMatchingClients((String) event.getKey());
+      if (matched != null) {
+        if (result == null)
+          result = new HashSet();
+        result.addAll(matched);
+        if (logger.isDebugEnabled()) {
+          logger.debug("these clients matched for patterns: {}", matched);
         }
       }
     }
@@ -1483,11 +1535,13 @@ public class FilterProfile implements DataSerializableFixedID {
     this.allKeyClients.addAll(InternalDataSerializer.readSetOfLongs(in));
     this.keysOfInterest.putAll(DataSerializer.readHashMap(in));
     this.patternsOfInterest.putAll(DataSerializer.readHashMap(in));
+    addToPatternMatcher(this.patternsOfInterest, this.patternMatcher);
     this.filtersOfInterest.putAll(DataSerializer.readHashMap(in));
 
     this.allKeyClientsInv.addAll(InternalDataSerializer.readSetOfLongs(in));
     this.keysOfInterestInv.putAll(DataSerializer.readHashMap(in));
     this.patternsOfInterestInv.putAll(DataSerializer.readHashMap(in));
+    addToPatternMatcher(this.patternsOfInterestInv, this.patternMatcherInv);
     this.filtersOfInterestInv.putAll(DataSerializer.readHashMap(in));
 
     // Read CQ Info.
@@ -1503,7 +1557,7 @@ public class FilterProfile implements DataSerializableFixedID {
           String serverCqName = DataSerializer.readString(in);
           ServerCQ cq = CqServiceProvider.readCq(in);
           processRegisterCq(serverCqName, cq, false);
-          this.cqs.put(serverCqName, cq);
+          putCq(serverCqName, cq);
         }
       } finally {
         LocalRegion.setThreadInitLevelRequirement(oldLevel);
@@ -1512,6 +1566,15 @@ public class FilterProfile implements DataSerializableFixedID {
 
   }
 
+  private static void addToPatternMatcher(Map<Object, Map<Object, Pattern>> pats,
+      InterestPatternMatcher matcher) {
+    for (Map.Entry<Object, Map<Object, Pattern>> entry : pats.entrySet()) {
+      for (Map.Entry<Object, Pattern> pattern : entry.getValue().entrySet()) {
+        matcher.add(entry.getKey(), (String) pattern.getKey(), pattern.getValue());
+      }
+    }
+  }
+
   public int getDSFID() {
     return FILTER_PROFILE;
   }
@@ -138,8 +138,10 @@ import org.apache.geode.cache.query.QueryService;
 import org.apache.geode.cache.query.internal.DefaultQueryService;
 import org.apache.geode.cache.query.internal.InternalQueryService;
 import org.apache.geode.cache.query.internal.QueryMonitor;
+import org.apache.geode.cache.query.internal.QueryPlanCache;
 import org.apache.geode.cache.query.internal.cq.CqService;
 import org.apache.geode.cache.query.internal.cq.CqServiceProvider;
+import org.apache.geode.cache.query.internal.index.IndexPopulator;
 import org.apache.geode.cache.server.CacheServer;
 import org.apache.geode.cache.snapshot.CacheSnapshotService;
 import org.apache.geode.cache.util.GatewayConflictResolver;
@@ -534,6 +536,8 @@ public class GemFireCacheImpl implements InternalCache, InternalClientCache, Has
 
   private final Object queryMonitorLock = new Object();
 
+  private final QueryPlanCache queryPlanCache;
+
   private final PersistentMemberManager persistentMemberManager;
 
   private ClientMetadataService clientMetadataService = null;
@@ -894,6 +898,7 @@ public class GemFireCacheImpl implements InternalCache, InternalClientCache, Has
       // Create the CacheStatistics
       this.cachePerfStats = new CachePerfStats(system);
       CachePerfStats.enableClockStats = this.system.getConfig().getEnableTimeStatistics();
+      this.queryPlanCache = new QueryPlanCache(this, this.cachePerfStats);
 
       this.transactionManager = new TXManagerImpl(this.cachePerfStats, this);
       this.dm.addMembershipListener(this.transactionManager);
@@ -2288,6 +2293,7 @@ public class GemFireCacheImpl implements InternalCache, InternalClientCache, Has
                 logger.debug("{}: finishing partitioned region close...", this);
               }
               PartitionedRegion.afterRegionsClosedByCacheClose(this);
+              IndexPopulator.shutdown();
               if (prRoot != null) {
                 // do the PR meta root region last
                 prRoot.handleCacheClose(op);
@@ -3244,10 +3250,18 @@ public class GemFireCacheImpl implements InternalCache, InternalClientCache, Has
 
   @Override
   public void setRegionByPath(String path, InternalRegion r) {
+    InternalRegion changed;
     if (r == null) {
-      this.pathToRegion.remove(path);
+      changed = this.pathToRegion.remove(path);
     } else {
       this.pathToRegion.put(path, r);
+      changed = r;
+    }
+    // cached query plans may have resolved the region that was added or removed; bucket and
+    // secret regions cannot be named in a query, so they are created and destroyed without
+    // discarding the plans
+    if (changed != null && !changed.isUsedForPartitionedRegionBucket() && !changed.isSecret()) {
+      this.queryPlanCache.invalidate();
     }
   }
 
@@ -4465,6 +4479,11 @@ public class GemFireCacheImpl implements InternalCache, InternalClientCache, Has
     return this.queryMonitorDisabledForLowMem;
   }
 
+  @Override
+  public QueryPlanCache getQueryPlanCache() {
+    return this.queryPlanCache;
+  }
+
   /**
    * Returns the QueryMonitor instance based on system property MAX_QUERY_EXECUTION_TIME.
    *
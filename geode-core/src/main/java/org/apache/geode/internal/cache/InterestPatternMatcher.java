@@ -0,0 +1,323 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.apache.geode.internal.util.concurrent.CopyOnWriteHashMap;
+
+/**
+ * Matches entry keys against the regular expression interest of all clients registered with a
+ * {@link FilterProfile}. Instead of running every client's patterns against every key, patterns
+ * that are a literal prefix followed by <code>.*</code> are kept in a character trie that is walked
+ * once per key, and the remaining patterns are deduplicated across clients and guarded by a single
+ * combined alternation that rejects keys matching none of them in one pass.
+ * <p>
+ * Updates are made incrementally by the owning profile while it holds its interest list lock.
+ * Lookups are lock free and, like the profile's other interest maps, may observe a registration
+ * that is still in progress.
+ *
+ * @since Geode 1.8
+ */
+final class InterestPatternMatcher {
+
+  /** the root of the trie holding pure-prefix patterns */
+  private final PrefixNode prefixRoot = new PrefixNode();
+
+  /** all other patterns, keyed on the regular expression */
+  private final Map<String, GeneralPattern> generalPatterns = new ConcurrentHashMap<>();
+
+  /** a single alternation of all general patterns, or null if it has to be rebuilt */
+  private volatile Pattern combinedPattern;
+
+  /** false if the general patterns could not be combined into one alternation */
+  private volatile boolean combinedUsable = true;
+
+  /**
+   * Adds a client's interest in the given regular expression.
+   */
+  synchronized void add(Object clientID, String regex, Pattern pattern) {
+    String prefix = getLiteralPrefix(regex);
+    if (prefix != null) {
+      PrefixNode node = this.prefixRoot;
+      for (int i = 0; i < prefix.length(); i++) {
+        node = node.children.computeIfAbsent(prefix.charAt(i), c -> new PrefixNode());
+      }
+      node.addClient(clientID);
+    } else {
+      GeneralPattern general = this.generalPatterns.get(regex);
+      if (general == null) {
+        general = new GeneralPattern(pattern);
+        this.generalPatterns.put(regex, general);
+        invalidateCombinedPattern();
+      }
+      general.addClient(clientID);
+    }
+  }
+
+  /**
+   * Removes a client's interest in the given regular expression.
+   */
+  synchronized void remove(Object clientID, String regex) {
+    String prefix = getLiteralPrefix(regex);
+    if (prefix != null) {
+      removeFromPrefix(this.prefixRoot, prefix, 0, clientID);
+    } else {
+      GeneralPattern general = this.generalPatterns.get(regex);
+      if (general != null && general.removeClient(clientID)) {
+        this.generalPatterns.remove(regex);
+        invalidateCombinedPattern();
+      }
+    }
+  }
+
+  /**
+   * Removes all of a client's pattern interest.
+   */
+  synchronized void removeClient(Object clientID) {
+    removeClientFromPrefixes(this.prefixRoot, clientID);
+    boolean removed = false;
+    for (Iterator<GeneralPattern> it = this.generalPatterns.values().iterator(); it.hasNext();) {
+      GeneralPattern general = it.next();
+      if (general.clients.containsKey(clientID) && general.removeAll(clientID)) {
+        it.remove();
+        removed = true;
+      }
+    }
+    if (removed) {
+      invalidateCombinedPattern();
+    }
+  }
+
+  boolean isEmpty() {
+    return this.prefixRoot.isEmpty() && this.generalPatterns.isEmpty();
+  }
+
+  /**
+   * Returns the clients with at least one pattern matching the given key, or null if there are
+   * none.
+   */
+  Set<Object> getMatchingClients(String key) {
+    Set<Object> result = null;
+    if (!this.prefixRoot.children.isEmpty() || !this.prefixRoot.clients.isEmpty()) {
+      result = addPrefixMatches(key, result);
+    }
+    if (!this.generalPatterns.isEmpty()) {
+      Pattern combined = getCombinedPattern();
+      if (combined == null || combined.matcher(key).matches()) {
+        for (GeneralPattern general : this.generalPatterns.values()) {
+          if (general.pattern.matcher(key).matches()) {
+            if (result == null) {
+              result = new HashSet<>();
+            }
+            result.addAll(general.clients.keySet());
+          }
+        }
+      }
+    }
+    return result;
+  }
+
+  private Set<Object> addPrefixMatches(String key, Set<Object> result) {
+    // ".*" does not match line terminators, so a prefix only matches if the rest of the key is
+    // free of them
+    int lastTerminator = -1;
+    for (int i = key.length() - 1; i >= 0; i--) {
+      if (isLineTerminator(key.charAt(i))) {
+        lastTerminator = i;
+        break;
+      }
+    }
+    PrefixNode node = this.prefixRoot;
+    int depth = 0;
+    while (node != null) {
+      if (depth > lastTerminator && !node.clients.isEmpty()) {
+        if (result == null) {
+          result = new HashSet<>();
+        }
+        result.addAll(node.clients.keySet());
+      }
+      if (depth == key.length()) {
+        break;
+      }
+      node = node.children.get(key.charAt(depth));
+      depth++;
+    }
+    return result;
+  }
+
+  private Pattern getCombinedPattern() {
+    Pattern combined = this.combinedPattern;
+    if (combined == null && this.combinedUsable) {
+      combined = buildCombinedPattern();
+    }
+    return combined;
+  }
+
+  private synchronized Pattern buildCombinedPattern() {
+    if (this.combinedPattern != null || !this.combinedUsable) {
+      return this.combinedPattern;
+    }
+    StringBuilder sb = new StringBuilder();
+    for (String regex : this.generalPatterns.keySet()) {
+      if (hasGroupReference(regex)) {
+        // numbered and named groups shift once the patterns are combined
+        this.combinedUsable = false;
+        return null;
+      }
+      if (sb.length() > 0) {
+        sb.append('|');
+      }
+      sb.append("(?:").append(regex).append(')');
+    }
+    try {
+      this.combinedPattern = Pattern.compile(sb.toString());
+    } catch (PatternSyntaxException e) {
+      this.combinedUsable = false;
+    }
+    return this.combinedPattern;
+  }
+
+  private void invalidateCombinedPattern() {
+    this.combinedPattern = null;
+    this.combinedUsable = true;
+  }
+
+  private static boolean removeFromPrefix(PrefixNode node, String prefix, int depth,
+      Object clientID) {
+    if (depth == prefix.length()) {
+      node.removeClient(clientID);
+    } else {
+      char c = prefix.charAt(depth);
+      PrefixNode child = node.children.get(c);
+      if (child != null && removeFromPrefix(child, prefix, depth + 1, clientID)) {
+        node.children.remove(c);
+      }
+    }
+    return node.isEmpty();
+  }
+
+  private static boolean removeClientFromPrefixes(PrefixNode node, Object clientID) {
+    node.clients.remove(clientID);
+    for (Iterator<PrefixNode> it = node.children.values().iterator(); it.hasNext();) {
+      if (removeClientFromPrefixes(it.next(), clientID)) {
+        it.remove();
+      }
+    }
+    return node.isEmpty();
+  }
+
+  /**
+   * Returns the literal prefix of a regular expression of the form <code>prefix.*</code>, or null
+   * if the expression has any other form. Non-alphanumeric characters in the prefix may be escaped
+   * with a backslash.
+   */
+  static String getLiteralPrefix(String regex) {
+    if (!regex.endsWith(".*")) {
+      return null;
+    }
+    int end = regex.length() - 2;
+    StringBuilder prefix = new StringBuilder(end);
+    for (int i = 0; i < end; i++) {
+      char c = regex.charAt(i);
+      if (c == '\\') {
+        if (i + 1 >= end) {
+          return null;
+        }
+        char escaped = regex.charAt(++i);
+        if (Character.isLetterOrDigit(escaped) || escaped > 0x7f) {
+          return null;
+        }
+        prefix.append(escaped);
+      } else if (".[]{}()*+?^$|".indexOf(c) >= 0 || Character.isHighSurrogate(c)
+          || Character.isLowSurrogate(c)) {
+        return null;
+      } else {
+        prefix.append(c);
+      }
+    }
+    return prefix.toString();
+  }
+
+  private static boolean hasGroupReference(String regex) {
+    for (int i = 0; i < regex.length() - 1; i++) {
+      if (regex.charAt(i) == '\\') {
+        char next = regex.charAt(i + 1);
+        if (Character.isDigit(next) || next == 'k') {
+          return true;
+        }
+        i++;
+      }
+    }
+    return false;
+  }
+
+  private static boolean isLineTerminator(char c) {
+    return c == '\n' || c == '\r' || c == 0x0085 || c == 0x2028 || c == 0x2029;
+  }
+
+  /**
+   * Counts the registrations of each client, since distinct expressions can describe the same
+   * prefix or be registered by the same client.
+   */
+  private static class ClientCounts {
+    final Map<Object, Integer> clients = new CopyOnWriteHashMap<>();
+
+    void addClient(Object clientID) {
+      this.clients.merge(clientID, 1, Integer::sum);
+    }
+
+    /** returns true if no clients remain */
+    boolean removeClient(Object clientID) {
+      Integer count = this.clients.get(clientID);
+      if (count != null) {
+        if (count > 1) {
+          this.clients.put(clientID, count - 1);
+        } else {
+          this.clients.remove(clientID);
+        }
+      }
+      return this.clients.isEmpty();
+    }
+
+    /** returns true if no clients remain */
+    boolean removeAll(Object clientID) {
+      this.clients.remove(clientID);
+      return this.clients.isEmpty();
+    }
+  }
+
+  private static class PrefixNode extends ClientCounts {
+    final Map<Character, PrefixNode> children = new ConcurrentHashMap<>();
+
+    boolean isEmpty() {
+      return this.clients.isEmpty() && this.children.isEmpty();
+    }
+  }
+
+  private static class GeneralPattern extends ClientCounts {
+    final Pattern pattern;
+
+    GeneralPattern(Pattern pattern) {
+      this.pattern = pattern;
+    }
+  }
+}
@@ -55,6 +55,7 @@ import org.apache.geode.cache.control.ResourceManager;
 import org.apache.geode.cache.query.QueryService;
 import org.apache.geode.cache.query.internal.InternalQueryService;
 import org.apache.geode.cache.query.internal.QueryMonitor;
+import org.apache.geode.cache.query.internal.QueryPlanCache;
 import org.apache.geode.cache.query.internal.cq.CqService;
 import org.apache.geode.cache.server.CacheServer;
 import org.apache.geode.cache.snapshot.CacheSnapshotService;
@@ -974,6 +975,11 @@ public class InternalCacheForClientAccess implements InternalCache {
     return delegate.getQueryMonitor();
   }
 
+  @Override
+  public QueryPlanCache getQueryPlanCache() {
+    return delegate.getQueryPlanCache();
+  }
+
   @Override
   public void close(String reason, Throwable systemFailureCause, boolean keepAlive,
       boolean keepDS) {
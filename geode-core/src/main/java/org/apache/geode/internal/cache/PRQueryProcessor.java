@@ -26,10 +26,13 @@ import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
@@ -41,15 +44,15 @@ import org.apache.geode.cache.RegionDestroyedException;
 import org.apache.geode.cache.query.QueryException;
 import org.apache.geode.cache.query.QueryInvocationTargetException;
 import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.cache.query.internal.CompiledGroupBySelect;
 import org.apache.geode.cache.query.internal.CompiledSelect;
+import org.apache.geode.cache.query.internal.CompiledValue;
 import org.apache.geode.cache.query.internal.DefaultQuery;
 import org.apache.geode.cache.query.internal.ExecutionContext;
-import org.apache.geode.cache.query.internal.IndexTrackingQueryObserver;
 import org.apache.geode.cache.query.internal.NWayMergeResults;
 import org.apache.geode.cache.query.internal.QueryExecutionContext;
+import org.apache.geode.cache.query.internal.QueryExplanation;
 import org.apache.geode.cache.query.internal.QueryMonitor;
-import org.apache.geode.cache.query.internal.QueryObserver;
-import org.apache.geode.cache.query.internal.QueryObserverHolder;
 import org.apache.geode.cache.query.types.ObjectType;
 import org.apache.geode.distributed.internal.DistributionConfig;
 import org.apache.geode.internal.Assert;
@@ -62,20 +65,27 @@ import org.apache.geode.internal.logging.LogService;
 
 /**
  * This class takes the responsibility of executing the query on a data store for the buckets
- * specified in bucketList. It contains a {@code PRQueryExecutor} thread-pool executor that takes a
- * {@code Callable} task identified by {@code PartitionedRegion}, queryString and bucketId.
+ * specified in bucketList. When more than one thread is configured the buckets are split into at
+ * most that many groups, each evaluated by a {@code QueryTask} on the fork-join pool of
+ * {@code PRQueryExecutor}, so a single query is bounded in how much of the pool it can use.
  *
- * The QueryTasks add results directly to a results queue. The BucketQueryResult is used not only to
+ * The QueryTasks add their partial results directly to the result collector. Ordered queries are
+ * evaluated per bucket and merged in order; other partial results are merged by the query
+ * coordinator like the results of different members. The BucketQueryResult is used not only to
  * indicate completion, and holds an exception if there one occurred while processing a query.
  */
 public class PRQueryProcessor {
   private static final Logger logger = LogService.getLogger();
 
-  static final int BUCKET_QUERY_TIMEOUT = 60;
-
+  /**
+   * The maximum number of threads evaluating the local buckets of a single query
+   */
   public static final int NUM_THREADS =
       getInteger(DistributionConfig.GEMFIRE_PREFIX + "PRQueryProcessor.numThreads", 1);
 
+  /** The time in seconds a query waits for all its bucket groups to be evaluated */
+  static final int QUERY_TASKS_TIMEOUT = 300;
+
   /* For Test purpose */
   public static int TEST_NUM_THREADS = 0;
 
@@ -87,12 +97,13 @@ public class PRQueryProcessor {
   private volatile int numBucketsProcessed = 0;
   private volatile ObjectType resultType = null;
 
-  private boolean isIndexUsedForLocalQuery = false;
+  private volatile boolean isIndexUsedForLocalQuery = false;
 
   public PRQueryProcessor(PartitionedRegionDataStore prDS, DefaultQuery query, Object[] parameters,
       List<Integer> buckets) {
     Assert.assertTrue(!buckets.isEmpty(), "bucket list can not be empty. ");
     this._prds = prDS;
+    this.pr = prDS.getPartitionedRegion();
     this._bucketsToQuery = buckets;
     prDS.partitionedRegion.getCache().getLocalQueryService();
     this.query = query;
@@ -132,7 +143,7 @@ public class PRQueryProcessor {
     // ((IndexTrackingQueryObserver)observer).setIndexInfo(resultCollector.getIndexInfoMap());
     // }
 
-    if (NUM_THREADS > 1 || TEST_NUM_THREADS > 1) {
+    if (getParallelism() > 1 && this._bucketsToQuery.size() > 1) {
       executeWithThreadPool(resultCollector);
     } else {
       executeSequentially(resultCollector, this._bucketsToQuery);
@@ -140,72 +151,99 @@ public class PRQueryProcessor {
     return this.resultType.isStructType();
   }
 
+  static int getParallelism() {
+    return TEST_NUM_THREADS > 1 ? TEST_NUM_THREADS : NUM_THREADS;
+  }
+
   private void executeWithThreadPool(Collection<Collection> resultCollector)
       throws QueryException, InterruptedException, ForceReattemptException {
     if (Thread.interrupted())
       throw new InterruptedException();
 
-    java.util.List callableTasks = buildCallableTaskList(resultCollector);
+    CompiledSelect cs = this.query.getSimpleSelect();
+    // ordered results are merged per bucket, all other partial results are merged by the
+    // coordinator the same way it merges the results of different members
+    boolean ordered = cs != null && cs.isOrderBy();
+    List<QueryTask> callableTasks = buildCallableTaskList(resultCollector, ordered);
     ExecutorService execService = PRQueryExecutor.getExecutorService();
 
-    boolean reattemptNeeded = false;
+    List<Future<QueryTask.BucketQueryResult>> futures = new ArrayList<>(callableTasks.size());
     ForceReattemptException fre = null;
-
-    if (callableTasks != null && !callableTasks.isEmpty()) {
-      List futures = null;
-      futures = execService.invokeAll(callableTasks, 300, TimeUnit.SECONDS);
-
-      if (futures != null) {
-        Iterator itr = futures.iterator();
-        while (itr.hasNext() && !execService.isShutdown() && !execService.isTerminated()) {
-          Future fut = (Future) itr.next();
-          QueryTask.BucketQueryResult bqr = null;
-
-          try {
-            bqr = (QueryTask.BucketQueryResult) fut.get(BUCKET_QUERY_TIMEOUT, TimeUnit.SECONDS);
-            bqr.handleAndThrowException();
-            if (bqr.retry) {
-              reattemptNeeded = true;
-            }
-
-          } catch (TimeoutException e) {
+    try {
+      for (QueryTask task : callableTasks) {
+        futures.add(execService.submit(task));
+      }
+      long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(QUERY_TASKS_TIMEOUT);
+      for (Future<QueryTask.BucketQueryResult> fut : futures) {
+        QueryTask.BucketQueryResult bqr;
+        try {
+          bqr = fut.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+          throw new InternalGemFireException(
+              LocalizedStrings.PRQueryProcessor_TIMED_OUT_WHILE_EXECUTING_QUERY_TIME_EXCEEDED_0
+                  .toLocalizedString(QUERY_TASKS_TIMEOUT),
+              e);
+        } catch (ExecutionException ee) {
+          Throwable cause = ee.getCause();
+          if (cause instanceof QueryException) {
+            throw (QueryException) cause;
+          } else {
             throw new InternalGemFireException(
-                LocalizedStrings.PRQueryProcessor_TIMED_OUT_WHILE_EXECUTING_QUERY_TIME_EXCEEDED_0
-                    .toLocalizedString(BUCKET_QUERY_TIMEOUT),
-                e);
-          } catch (ExecutionException ee) {
-            Throwable cause = ee.getCause();
-            if (cause instanceof QueryException) {
-              throw (QueryException) cause;
-            } else {
-              throw new InternalGemFireException(
-                  LocalizedStrings.PRQueryProcessor_GOT_UNEXPECTED_EXCEPTION_WHILE_EXECUTING_QUERY_ON_PARTITIONED_REGION_BUCKET
-                      .toLocalizedString(),
-                  cause);
-            }
+                LocalizedStrings.PRQueryProcessor_GOT_UNEXPECTED_EXCEPTION_WHILE_EXECUTING_QUERY_ON_PARTITIONED_REGION_BUCKET
+                    .toLocalizedString(),
+                cause);
           }
         }
-
-        CompiledSelect cs = this.query.getSimpleSelect();
-
-        if (cs != null && (cs.isOrderBy() || cs.isGroupBy())) {
-          ExecutionContext context = new QueryExecutionContext(this.parameters, pr.getCache());
-          int limit = this.query.getLimit(parameters);
-          Collection mergedResults = coalesceOrderedResults(resultCollector, context, cs, limit);
-          resultCollector.clear();
-          resultCollector.add(mergedResults);
+        if (bqr.isReattemptNeeded()) {
+          fre = (ForceReattemptException) bqr.getException();
+        } else {
+          bqr.handleAndThrowException();
         }
       }
+    } catch (RejectedExecutionException | CancellationException e) {
+      // the pool is shut down when the cache closes
+      this.pr.checkReadiness();
+      throw e;
+    } finally {
+      for (Future<QueryTask.BucketQueryResult> fut : futures) {
+        fut.cancel(true);
+      }
     }
 
-    if (execService == null || execService.isShutdown() || execService.isTerminated()) {
-      this._prds.partitionedRegion.checkReadiness();
+    if (fre != null) {
+      throw fre;
     }
 
-    if (reattemptNeeded) {
-      throw fre;
+    int limit = this.query.getLimit(parameters);
+    if (ordered) {
+      ExecutionContext context = new QueryExecutionContext(this.parameters, pr.getCache());
+      Collection mergedResults = coalesceOrderedResults(resultCollector, context, cs, limit);
+      resultCollector.clear();
+      resultCollector.add(mergedResults);
     }
+    if (cs != null && cs.getType() == CompiledValue.GROUP_BY_SELECT) {
+      combineGroupedResults(resultCollector, (CompiledGroupBySelect) cs);
+    } else if (!ordered && limit >= 0 && cs != null && !cs.isDistinct() && !cs.isCount()) {
+      // each bucket group applied the limit on its own; distinct and count partial results are
+      // left to the coordinator as they cannot be cut without changing the result
+      applyLimit(resultCollector, limit);
+    }
+  }
 
+  /**
+   * Drops the partial results that are not needed to reach the limit, which the coordinator would
+   * drop anyway
+   */
+  private static void applyLimit(Collection<Collection> resultCollector, int limit) {
+    int remaining = limit;
+    for (Iterator<Collection> itr = resultCollector.iterator(); itr.hasNext();) {
+      Collection results = itr.next();
+      if (remaining <= 0) {
+        itr.remove();
+      } else {
+        remaining -= results.size();
+      }
+    }
   }
 
   /**
@@ -335,6 +373,26 @@ public class PRQueryProcessor {
       context.setBucketList(buckets);
       executeQueryOnBuckets(resultCollector, context);
     }
+    if (cs != null && cs.getType() == CompiledValue.GROUP_BY_SELECT) {
+      combineGroupedResults(resultCollector, (CompiledGroupBySelect) cs);
+    }
+  }
+
+  /**
+   * Folds the partial aggregates of the local buckets into one row per group, so only one partial
+   * state per group is sent to the query node
+   */
+  private void combineGroupedResults(Collection<Collection> resultCollector,
+      CompiledGroupBySelect cgs) throws QueryException {
+    if (resultCollector.isEmpty()) {
+      return;
+    }
+    ExecutionContext context = new QueryExecutionContext(this.parameters, pr.getCache());
+    context.setBucketList(this._bucketsToQuery);
+    context.setCombinesBucketResults(true);
+    Collection combinedResults = cgs.combineBucketResults(resultCollector, context);
+    resultCollector.clear();
+    resultCollector.add(combinedResults);
   }
 
   private Collection coalesceOrderedResults(Collection<Collection> results,
@@ -376,7 +434,9 @@ public class PRQueryProcessor {
         this.resultType = ((SelectResults) results).getCollectionType().getElementType();
         resultCollector.add((Collection) results);
       }
-      isIndexUsedForLocalQuery = ((QueryExecutionContext) context).isIndexUsed();
+      if (((QueryExecutionContext) context).isIndexUsed()) {
+        isIndexUsedForLocalQuery = true;
+      }
 
     } catch (BucketMovedException bme) {
       if (logger.isDebugEnabled()) {
@@ -401,11 +461,25 @@ public class PRQueryProcessor {
     }
   }
 
-  private List buildCallableTaskList(Collection<Collection> resultsColl) {
-    List callableTasks = new ArrayList();
-    for (Iterator itr = _bucketsToQuery.iterator(); itr.hasNext();) {
-      Integer bId = (Integer) itr.next();
-      callableTasks.add(new QueryTask(this.query, this.parameters, _prds, bId, resultsColl));
+  /**
+   * Splits the buckets into at most as many groups as the parallelism of a query allows, with one
+   * task per group
+   */
+  private List<QueryTask> buildCallableTaskList(Collection<Collection> resultsColl,
+      boolean perBucket) {
+    int numTasks = Math.min(getParallelism(), this._bucketsToQuery.size());
+    List<List<Integer>> bucketGroups = new ArrayList<>(numTasks);
+    for (int i = 0; i < numTasks; i++) {
+      bucketGroups.add(new ArrayList<>());
+    }
+    int i = 0;
+    for (Integer bId : this._bucketsToQuery) {
+      bucketGroups.get(i++ % numTasks).add(bId);
+    }
+    List<QueryTask> callableTasks = new ArrayList<>(numTasks);
+    for (List<Integer> bucketGroup : bucketGroups) {
+      callableTasks.add(
+          new QueryTask(this.query, this.parameters, bucketGroup, perBucket, resultsColl));
     }
     return callableTasks;
   }
@@ -423,10 +497,9 @@ public class PRQueryProcessor {
   }
 
   /**
-   * A ThreadPool ( Fixed Size ) with an executor service to execute the query execution spread over
-   * buckets.
-   *
-   *
+   * A fork-join pool to execute the query execution spread over buckets. The pool is shared by all
+   * queries and sized to the larger of the processor count and the parallelism of a query; each
+   * query submits at most its parallelism in tasks.
    */
   static class PRQueryExecutor {
 
@@ -460,8 +533,13 @@ public class PRQueryProcessor {
      */
     static synchronized void initializeExecutorService() {
       if (execService == null || execService.isShutdown() || execService.isTerminated()) {
-        int numThreads = (TEST_NUM_THREADS > 1 ? TEST_NUM_THREADS : NUM_THREADS);
-        execService = Executors.newFixedThreadPool(numThreads);
+        int numThreads = Math.max(getParallelism(), Runtime.getRuntime().availableProcessors());
+        execService = new ForkJoinPool(numThreads, pool -> {
+          ForkJoinWorkerThread thread =
+              ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+          thread.setName("PRQueryProcessor-" + thread.getPoolIndex());
+          return thread;
+        }, null, false);
       }
     }
   }
@@ -514,40 +592,46 @@ public class PRQueryProcessor {
    *
    */
   @SuppressWarnings("synthetic-access")
-  private class QueryTask implements Callable {
+  private class QueryTask implements Callable<QueryTask.BucketQueryResult> {
     private final DefaultQuery query;
     private final Object[] parameters;
-    private final PartitionedRegionDataStore _prDs;
-    private final Integer _bucketId;
+    private final List<Integer> _bucketIds;
+    private final boolean perBucket;
     private final Collection<Collection> resultColl;
+    // the plan of an explained query, captured on the thread executing the query
+    private final QueryExplanation explanation;
 
-    public QueryTask(DefaultQuery query, Object[] parameters, PartitionedRegionDataStore prDS,
-        Integer bucketId, final Collection<Collection> rColl) {
+    /**
+     * @param bucketIds the buckets evaluated by this task
+     * @param perBucket whether each bucket is evaluated on its own, for results that are merged
+     *        per bucket
+     */
+    public QueryTask(DefaultQuery query, Object[] parameters, List<Integer> bucketIds,
+        boolean perBucket, final Collection<Collection> rColl) {
       this.query = query;
-      this._prDs = prDS;
-      this._bucketId = bucketId;
+      this._bucketIds = bucketIds;
+      this.perBucket = perBucket;
       this.resultColl = rColl;
       this.parameters = parameters;
+      this.explanation = query.getExplanation();
     }
 
-    public Object call() throws Exception {
-      BucketQueryResult bukResult = new BucketQueryResult(this._bucketId);
-      boolean retry = false;
+    public BucketQueryResult call() throws Exception {
+      BucketQueryResult bukResult = new BucketQueryResult(this._bucketIds.get(0));
       try {
-        // Add indexInfo of this thread to result collector
-        QueryObserver observer = QueryObserverHolder.getInstance();
-        if (observer != null && observer instanceof IndexTrackingQueryObserver) {
-          // ((IndexTrackingQueryObserver)observer).setIndexInfo(resultColl.getIndexInfoMap());
+        if (this.perBucket) {
+          for (Integer bucketId : this._bucketIds) {
+            ExecutionContext context = new QueryExecutionContext(this.parameters, pr.getCache(),
+                this.query, this.explanation);
+            context.setBucketList(Collections.singletonList(bucketId));
+            executeQueryOnBuckets(this.resultColl, context);
+          }
+        } else {
+          ExecutionContext context = new QueryExecutionContext(this.parameters, pr.getCache(),
+              this.query, this.explanation);
+          context.setBucketList(this._bucketIds);
+          executeQueryOnBuckets(this.resultColl, context);
         }
-
-        List<Integer> bucketList = Collections.singletonList(this._bucketId);
-        ExecutionContext context =
-            new QueryExecutionContext(this.parameters, pr.getCache(), this.query);
-        context.setBucketList(bucketList);
-        executeQueryOnBuckets(this.resultColl, context);
-        // executeSequentially(this.resultColl, bucketList);
-        // success
-        // doBucketQuery(bId, this._prDs, this.query, this.parameters, this.resultColl);
       } catch (ForceReattemptException fre) {
         bukResult.setException(fre);
       } catch (QueryException e) {
@@ -567,7 +651,6 @@ public class PRQueryProcessor {
 
       private int _buk;
       private Exception _ex = null;
-      public boolean retry = false;
 
       public BucketQueryResult(int bukId) {
         this._buk = bukId;
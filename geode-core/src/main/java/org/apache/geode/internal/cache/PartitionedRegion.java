@@ -127,6 +127,7 @@ import org.apache.geode.cache.query.internal.ResultsSet;
 import org.apache.geode.cache.query.internal.index.AbstractIndex;
 import org.apache.geode.cache.query.internal.index.IndexCreationData;
 import org.apache.geode.cache.query.internal.index.IndexManager;
+import org.apache.geode.cache.query.internal.index.IndexPopulator;
 import org.apache.geode.cache.query.internal.index.IndexUtils;
 import org.apache.geode.cache.query.internal.index.PartitionedIndex;
 import org.apache.geode.cache.query.internal.types.ObjectTypeImpl;
@@ -8492,11 +8493,16 @@ public class PartitionedRegion extends LocalRegion
     }
   }
 
+  /**
+   * Populates the indexes on all the local buckets, the buckets being populated concurrently by the
+   * {@link IndexPopulator}.
+   */
   private boolean populateEmptyIndexes(Set<Index> indexes,
       HashMap<String, Exception> exceptionsMap) {
-    boolean throwException = false;
+    Map<String, Exception> bucketExceptionsMap = new ConcurrentHashMap<>();
     if (getDataStore() != null && indexes.size() > 0) {
       Set localBuckets = getDataStore().getAllLocalBuckets();
+      List<Runnable> bucketTasks = new ArrayList<>(localBuckets.size());
       Iterator it = localBuckets.iterator();
       while (it.hasNext()) {
         Map.Entry entry = (Map.Entry) it.next();
@@ -8507,15 +8513,18 @@ public class PartitionedRegion extends LocalRegion
         }
         IndexManager bucketIndexManager = IndexUtils.getIndexManager(cache, bucket, true);
         Set<Index> bucketIndexes = getBucketIndexesForPRIndexes(bucket, indexes);
-        try {
-          bucketIndexManager.populateIndexes(bucketIndexes);
-        } catch (MultiIndexCreationException ex) {
-          exceptionsMap.putAll(ex.getExceptionsMap());
-          throwException = true;
-        }
+        bucketTasks.add(() -> {
+          try {
+            bucketIndexManager.populateIndexes(bucketIndexes);
+          } catch (MultiIndexCreationException ex) {
+            bucketExceptionsMap.putAll(ex.getExceptionsMap());
+          }
+        });
       }
+      IndexPopulator.runAll(bucketTasks);
     }
-    return throwException;
+    exceptionsMap.putAll(bucketExceptionsMap);
+    return !bucketExceptionsMap.isEmpty();
   }
 
   private Set<Index> getBucketIndexesForPRIndexes(Region bucket, Set<Index> indexes) {
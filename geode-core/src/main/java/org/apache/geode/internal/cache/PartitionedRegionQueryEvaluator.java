@@ -54,6 +54,8 @@ import org.apache.geode.cache.query.internal.IndexTrackingQueryObserver.IndexInf
 import org.apache.geode.cache.query.internal.NWayMergeResults;
 import org.apache.geode.cache.query.internal.OrderByComparator;
 import org.apache.geode.cache.query.internal.PRQueryTraceInfo;
+import org.apache.geode.cache.query.internal.QueryExplanation;
+import org.apache.geode.cache.query.internal.QueryPlanNode;
 import org.apache.geode.cache.query.internal.QueryExecutionContext;
 import org.apache.geode.cache.query.internal.QueryMonitor;
 import org.apache.geode.cache.query.internal.ResultsSet;
@@ -130,6 +132,8 @@ public class PartitionedRegionQueryEvaluator extends StreamingPartitionOperation
    */
   private final ConcurrentMap<InternalDistributedMember, Collection<Collection>> resultsPerMember;
   private ConcurrentLinkedQueue<PRQueryTraceInfo> prQueryTraceInfoList = null;
+  // the plan node gathering the plans of the members, if the query is explained
+  private volatile QueryPlanNode explainNode;
   private final Set<Integer> bucketsToQuery;
   private final IntOpenHashSet successfulBuckets;
   // set of members failed to execute query
@@ -219,6 +223,11 @@ public class PartitionedRegionQueryEvaluator extends StreamingPartitionOperation
         if (prQueryTraceInfoList != null) {
           prQueryTraceInfoList.add(queryTrace);
         }
+        QueryPlanNode memberPlan = queryTrace.getExplanation();
+        if (this.explainNode != null && memberPlan != null) {
+          this.explainNode.mergeChildren(memberPlan);
+          this.explainNode.addMembers(1);
+        }
       }
     }
     // Only way objects is null is if we are a QUERY_MSG_TYPE and the msg was canceled, that is set
@@ -481,6 +490,28 @@ public class PartitionedRegionQueryEvaluator extends StreamingPartitionOperation
     Assert.assertTrue(!this.node2bucketIds.isEmpty(),
         " There are no data stores hosting any of the buckets.");
 
+    QueryExplanation explanation = this.query.getExplanation();
+    if (explanation == null) {
+      return queryBucketsWithRetry(th);
+    }
+    this.explainNode =
+        explanation.getExecutionRoot().getChild("PartitionedRegion", this.pr.getFullPath());
+    long start = System.nanoTime();
+    SelectResults results = null;
+    try {
+      results = queryBucketsWithRetry(th);
+      return results;
+    } finally {
+      this.explainNode.addTime(System.nanoTime() - start);
+      if (results != null) {
+        this.explainNode.addRows(results.size());
+      }
+    }
+  }
+
+  private SelectResults queryBucketsWithRetry(final TestHook th)
+      throws QueryException, InterruptedException {
+    final boolean isDebugEnabled = logger.isDebugEnabled();
     boolean needsRetry = true;
     int retry = 0;
     while (needsRetry && retry < MAX_PR_QUERY_RETRIES) {
@@ -956,7 +987,20 @@ public class PartitionedRegionQueryEvaluator extends StreamingPartitionOperation
         MemberResultsList resultCollector = new MemberResultsList();
 
         // Execute Query.
-        qp.executeQuery(resultCollector);
+        QueryExplanation explanation = this.query.getExplanation();
+        if (explanation != null && this.explainNode != null) {
+          // add the operators executed on the local buckets under the gathering node
+          QueryPlanNode executionRoot = explanation.getExecutionRoot();
+          explanation.setExecutionRoot(this.explainNode);
+          try {
+            qp.executeQuery(resultCollector);
+          } finally {
+            explanation.setExecutionRoot(executionRoot);
+          }
+          this.explainNode.addMembers(1);
+        } else {
+          qp.executeQuery(resultCollector);
+        }
 
         // Only wrap/copy results when copy on read is set and an index is used on a local query
         // This is because when an index is used, the results are actual references to values in the
@@ -40,6 +40,7 @@ public class PoolStats {
   private static final String KNOWN_LOCATORS = LOCATORS; // gauge
   private static final String REQUESTS_TO_LOCATOR = "locatorRequests"; // counter
   private static final String RESPONSES_FROM_LOCATOR = "locatorResponses"; // counter
+  private static final String LEASED_SERVER_PICKS = "leasedServerPicks"; // counter
   private static final String ENDPOINTS_KNOWN = "servers"; // gauge
   private static final String SUBSCRIPTION_SERVERS = "subscriptionServers"; // gauge
 
@@ -47,6 +48,7 @@ public class PoolStats {
   private static final int _KNOWN_LOCATORS;
   private static final int _REQUESTS_TO_LOCATOR;
   private static final int _RESPONSES_FROM_LOCATOR;
+  private static final int _LEASED_SERVER_PICKS;
   private static final int _ENDPOINTS_KNOWN;
   private static final int _SUBSCRIPTION_SERVERS;
   private static final int _PREFILL_CONNECT;
@@ -91,6 +93,9 @@ public class PoolStats {
                 "Number of requests from this connection pool to a locator", "requests"),
             f.createLongCounter(RESPONSES_FROM_LOCATOR,
                 "Number of responses from the locator to this connection pool", "responses"),
+            f.createLongCounter(LEASED_SERVER_PICKS,
+                "Number of servers this connection pool picked from a server list leased from a locator instead of asking a locator",
+                "picks"),
 
             f.createIntGauge("connections", "Current number of connections", "connections"),
             // f.createIntGauge("conCount", "Current number of connections", "connections"),
@@ -150,6 +155,7 @@ public class PoolStats {
     _KNOWN_LOCATORS = _type.nameToId(KNOWN_LOCATORS);
     _REQUESTS_TO_LOCATOR = _type.nameToId(REQUESTS_TO_LOCATOR);
     _RESPONSES_FROM_LOCATOR = _type.nameToId(RESPONSES_FROM_LOCATOR);
+    _LEASED_SERVER_PICKS = _type.nameToId(LEASED_SERVER_PICKS);
     _ENDPOINTS_KNOWN = _type.nameToId(ENDPOINTS_KNOWN);
     _SUBSCRIPTION_SERVERS = _type.nameToId(SUBSCRIPTION_SERVERS);
     _PREFILL_CONNECT = _type.nameToId("minPoolSizeConnects");
@@ -230,6 +236,14 @@ public class PoolStats {
     this._stats.incLong(_RESPONSES_FROM_LOCATOR, 1);
   }
 
+  public long getLeasedServerPicks() {
+    return this._stats.getLong(_LEASED_SERVER_PICKS);
+  }
+
+  public void incLeasedServerPicks() {
+    this._stats.incLong(_LEASED_SERVER_PICKS, 1);
+  }
+
   public void setLocatorRequests(long rl) {
     this._stats.setLong(_REQUESTS_TO_LOCATOR, rl);
   }
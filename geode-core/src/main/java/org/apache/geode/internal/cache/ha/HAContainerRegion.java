@@ -23,6 +23,8 @@ import org.apache.geode.CancelException;
 import org.apache.geode.cache.EntryDestroyedException;
 import org.apache.geode.cache.Region;
 import org.apache.geode.cache.RegionDestroyedException;
+import org.apache.geode.internal.cache.InternalRegion;
+import org.apache.geode.internal.cache.RegionEntry;
 import org.apache.geode.internal.cache.tier.sockets.CacheClientProxy;
 import org.apache.geode.internal.cache.tier.sockets.ClientProxyMembershipID;
 import org.apache.geode.internal.cache.tier.sockets.ClientUpdateMessageImpl;
@@ -135,6 +137,21 @@ public class HAContainerRegion implements HAContainerWrapper {
     return entry;
   }
 
+  /**
+   * Reads the message of the given wrapper back into memory if it has been overflowed to disk.
+   * Unlike {@link #get(Object)} the shared message is not updated with the wrapper's event id or
+   * CQs.
+   *
+   * @return whether the message was read from disk
+   */
+  public boolean faultIn(HAEventWrapper wrapper) {
+    RegionEntry entry = ((InternalRegion) map).getRegionEntry(wrapper);
+    if (entry == null || !entry.isValueNull()) {
+      return false;
+    }
+    return map.get(wrapper) != null;
+  }
+
   public boolean isEmpty() {
     return map.isEmpty();
   }
@@ -15,7 +15,10 @@
 package org.apache.geode.internal.cache.ha;
 
 import static org.apache.geode.internal.lang.SystemPropertyHelper.HA_REGION_QUEUE_EXPIRY_TIME_PROPERTY;
+import static org.apache.geode.internal.lang.SystemPropertyHelper.HA_REGION_QUEUE_HEAD_AND_TAIL_RESIDENT;
+import static org.apache.geode.internal.lang.SystemPropertyHelper.HA_REGION_QUEUE_READ_AHEAD_EVENTS;
 import static org.apache.geode.internal.lang.SystemPropertyHelper.THREAD_ID_EXPIRY_TIME_PROPERTY;
+import static org.apache.geode.internal.lang.SystemPropertyHelper.getProductBooleanProperty;
 import static org.apache.geode.internal.lang.SystemPropertyHelper.getProductIntegerProperty;
 
 import java.io.DataInput;
@@ -57,6 +60,7 @@ import org.apache.geode.cache.CacheException;
 import org.apache.geode.cache.CacheListener;
 import org.apache.geode.cache.CacheWriterException;
 import org.apache.geode.cache.CustomExpiry;
+import org.apache.geode.cache.EntryDestroyedException;
 import org.apache.geode.cache.EntryEvent;
 import org.apache.geode.cache.EntryNotFoundException;
 import org.apache.geode.cache.ExpirationAction;
@@ -65,6 +69,7 @@ import org.apache.geode.cache.MirrorType;
 import org.apache.geode.cache.Region;
 import org.apache.geode.cache.RegionAttributes;
 import org.apache.geode.cache.RegionDestroyedException;
+import org.apache.geode.cache.StatisticsDisabledException;
 import org.apache.geode.cache.TimeoutException;
 import org.apache.geode.cache.query.internal.CqQueryVsdStats;
 import org.apache.geode.cache.query.internal.cq.CqService;
@@ -243,6 +248,22 @@ public class HARegionQueue implements RegionQueue {
 
   public static final String HA_EVICTION_POLICY_ENTRY = "entry";
 
+  /**
+   * Whether overflowed client subscription queues keep both their head and their tail in memory.
+   * Enabled by the "geode.HARegionQueue.headAndTailResident" system property.
+   *
+   * @since Geode 1.8
+   */
+  public static final boolean HEAD_AND_TAIL_RESIDENT =
+      getProductBooleanProperty(HA_REGION_QUEUE_HEAD_AND_TAIL_RESIDENT).orElse(false);
+
+  /**
+   * The number of events ahead of the dispatcher whose payloads are kept in memory when
+   * {@link #HEAD_AND_TAIL_RESIDENT} is enabled.
+   */
+  static final int READ_AHEAD_EVENTS =
+      getProductIntegerProperty(HA_REGION_QUEUE_READ_AHEAD_EVENTS).orElse(100);
+
   public static final long INIT_OF_SEQUENCEID = -1L;
 
   /**
@@ -264,6 +285,12 @@ public class HARegionQueue implements RegionQueue {
    */
   protected Map haContainer;
 
+  /**
+   * The number of peeks left before the dispatcher next reads ahead. Only used by the dispatcher
+   * thread, see {@link #readAhead(int, int)}.
+   */
+  private int peeksUntilReadAhead;
+
   /**
    * Boolean to indicate whether this HARegionQueue is having active dispatcher or not( primary node
    * or the secondary node). This will be used to prevent the events from expiry if the node is
@@ -279,6 +306,18 @@ public class HARegionQueue implements RegionQueue {
   /** @since GemFire 5.7 */
   protected byte clientConflation = Handshake.CONFLATION_DEFAULT;
 
+  /**
+   * Whether updates are conflated regardless of their region's setting because the client is
+   * falling behind. See {@link #setAdaptiveConflation(boolean)}.
+   */
+  private volatile boolean adaptiveConflation = false;
+
+  /**
+   * Whether adaptive conflation has ever been enabled, in which case queued events may have been
+   * conflated even though {@link #shouldBeConflated(Conflatable)} is false for them.
+   */
+  private volatile boolean adaptiveConflationUsed = false;
+
   /**
    * Boolean to indicate whether client is a slow receiver
    *
@@ -583,6 +622,92 @@ public class HARegionQueue implements RegionQueue {
     return retVal;
   }
 
+  /**
+   * Check whether to conflate an event being put, which also applies adaptive conflation.
+   *
+   * @param eventInHARegion the event as stored in the queue's region
+   * @param event the event as passed to the put, which still carries its message if it is an
+   *        {@link HAEventWrapper}
+   */
+  boolean shouldBeConflatedOnPut(Conflatable eventInHARegion, Conflatable event) {
+    return shouldBeConflated(eventInHARegion)
+        || (this.adaptiveConflation && isAdaptivelyConflatable(event));
+  }
+
+  /**
+   * Check whether an event being removed may have been added to the conflation map.
+   */
+  boolean mayHaveBeenConflated(Conflatable event) {
+    return shouldBeConflated(event) || (this.adaptiveConflationUsed
+        && event.getRegionToConflate() != null && event.getKeyToConflate() != null);
+  }
+
+  /**
+   * Returns whether an event can be conflated while adaptive conflation is enabled. Only full value
+   * updates without CQs qualify: conflating away a delta or a CQ event would leave the client
+   * unable to apply the next delta or to track its CQ results.
+   */
+  private boolean isAdaptivelyConflatable(Conflatable event) {
+    if (this.clientConflation != Handshake.CONFLATION_DEFAULT
+        || event instanceof ClientMarkerMessageImpl) {
+      return false;
+    }
+    // Use the wrapper's own message, the shared one in the container may be being dispatched. It
+    // is only missing for events received through GII, which are then not conflated.
+    Object message =
+        event instanceof HAEventWrapper ? ((HAEventWrapper) event).getClientUpdateMessage() : event;
+    if (!(message instanceof ClientUpdateMessageImpl)) {
+      return false;
+    }
+    ClientUpdateMessageImpl update = (ClientUpdateMessageImpl) message;
+    return update.isUpdate() && !update.hasDelta() && !update.hasCqs();
+  }
+
+  /**
+   * Enables or disables conflation of updates regardless of their region's conflation setting. The
+   * client's own conflation override still takes precedence.
+   *
+   * @since Geode 1.8
+   */
+  public void setAdaptiveConflation(boolean enabled) {
+    if (enabled) {
+      this.adaptiveConflationUsed = true;
+    }
+    this.adaptiveConflation = enabled;
+  }
+
+  /**
+   * Returns how long in milliseconds the event at the head of this queue has been queued for, or
+   * zero if the queue is empty.
+   *
+   * @since Geode 1.8
+   */
+  public long getHeadAge() {
+    Object head = null;
+    acquireReadLock();
+    try {
+      Iterator iterator = this.idsAvailable.iterator();
+      if (iterator.hasNext()) {
+        head = iterator.next();
+      }
+    } finally {
+      releaseReadLock();
+    }
+    if (head == null) {
+      return 0;
+    }
+    try {
+      Region.Entry entry = this.region.getEntry(head);
+      if (entry == null) {
+        return 0;
+      }
+      return Math.max(
+          this.region.cacheTimeMillis() - entry.getStatistics().getLastModifiedTime(), 0);
+    } catch (EntryDestroyedException | StatisticsDisabledException e) {
+      return 0;
+    }
+  }
+
   /**
    * Adds an object at the queue's tail. The implementation supports concurrent put operations in a
    * performant manner. This is done in following steps: <br>
@@ -1021,7 +1146,7 @@ public class HARegionQueue implements RegionQueue {
       long threadId = id.getThreadID();
       DispatchedAndCurrentEvents dace =
           (DispatchedAndCurrentEvents) eventsMap.get(new ThreadIdentifier(memID, threadId));
-      if (shouldBeConflated(cf)) {
+      if (mayHaveBeenConflated(cf)) {
         dace.destroy((Long) key, cf.getKeyToConflate(), cf.getRegionToConflate());
       } else {
         dace.destroy((Long) key);
@@ -1229,7 +1354,7 @@ public class HARegionQueue implements RegionQueue {
       DispatchedAndCurrentEvents dace = (DispatchedAndCurrentEvents) this.eventsMap.get(threadid);
       Assert.assertTrue(dace != null);
       Object keyToConflate = null;
-      if (shouldBeConflated(object)) {
+      if (mayHaveBeenConflated(object)) {
         keyToConflate = object.getKeyToConflate();
       }
       dace.removeEventAndSetSequenceID(
@@ -1317,7 +1442,7 @@ public class HARegionQueue implements RegionQueue {
 
         Object key = null;
         String r = null;
-        if (shouldBeConflated(event)) {
+        if (mayHaveBeenConflated(event)) {
           key = event.getKeyToConflate();
           r = event.getRegionToConflate();
         }
@@ -1407,15 +1532,7 @@ public class HARegionQueue implements RegionQueue {
             : object;
 
         if (object != null) {
-          List peekedEvents;
-          if ((peekedEvents = (List) HARegionQueue.peekedEventsContext.get()) != null) {
-            peekedEvents.add(next);
-          } else {
-            peekedEvents = new LinkedList();
-            peekedEvents.add(next);
-            HARegionQueue.peekedEventsContext.set(peekedEvents);
-          }
-          this.storePeekedID(next);
+          addPeekedID(next);
           break;
         }
       }
@@ -1427,6 +1544,135 @@ public class HARegionQueue implements RegionQueue {
     return object;
   }
 
+  /**
+   * Peeks the event queued behind the events already peeked by this thread, without waiting for
+   * one to be queued. A dispatcher uses it to gather several events to send together, all of which
+   * are then removed by a single {@link #remove()}.
+   *
+   * @return the event, or null if no event is queued behind the events already peeked
+   */
+  public Object peekNext() throws InterruptedException {
+    if (Thread.interrupted()) {
+      throw new InterruptedException();
+    }
+    Long next;
+    while ((next = getNextUnpeekedID()) != null) {
+      Conflatable object = (Conflatable) this.region.get(next);
+      // as in peek(), the event may have been removed since its id was read
+      if (object instanceof HAEventWrapper) {
+        object = (Conflatable) this.haContainer.get(object);
+      }
+      if (object != null) {
+        addPeekedID(next);
+        return object;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Returns the first available id not peeked by this thread yet, or null if there is none.
+   */
+  protected Long getNextUnpeekedID() {
+    List peekedIds = (List) HARegionQueue.peekedEventsContext.get();
+    Set peeked = peekedIds == null ? Collections.emptySet() : new HashSet(peekedIds);
+    acquireReadLock();
+    try {
+      for (Object id : this.idsAvailable) {
+        if (!peeked.contains(id)) {
+          return (Long) id;
+        }
+      }
+      return null;
+    } finally {
+      releaseReadLock();
+    }
+  }
+
+  /**
+   * Gives back the given number of events most recently peeked by this thread, so that the next
+   * {@link #remove()} leaves them in the queue and they are peeked again. Used by a dispatcher that
+   * could not send the events it peeked.
+   */
+  public void unpeek(int count) {
+    List peekedIds = (List) HARegionQueue.peekedEventsContext.get();
+    if (peekedIds == null || count <= 0) {
+      return;
+    }
+    List returned = new ArrayList(peekedIds.subList(Math.max(0, peekedIds.size() - count),
+        peekedIds.size()));
+    peekedIds.subList(peekedIds.size() - returned.size(), peekedIds.size()).clear();
+    if (peekedIds.isEmpty()) {
+      HARegionQueue.peekedEventsContext.set(null);
+    }
+    returnPeekedIDs(returned);
+  }
+
+  /**
+   * Makes the given ids available to be peeked again. They are still available in this class.
+   */
+  protected void returnPeekedIDs(List ids) {
+    // ARB: Implemented in DurableHARegionQueue.
+  }
+
+  private void addPeekedID(Long next) {
+    List peekedEvents;
+    if ((peekedEvents = (List) HARegionQueue.peekedEventsContext.get()) != null) {
+      peekedEvents.add(next);
+    } else {
+      peekedEvents = new LinkedList();
+      peekedEvents.add(next);
+      HARegionQueue.peekedEventsContext.set(peekedEvents);
+    }
+    this.storePeekedID(next);
+    if (HEAD_AND_TAIL_RESIDENT) {
+      readAhead(1, 0);
+    }
+  }
+
+  /**
+   * Faults the payloads of the events queued just behind the head back into memory if the queue
+   * overflows to disk. Eviction of the shared container keeps the most recently used events in
+   * memory, so reading ahead of the dispatcher every half window keeps the head of the queue
+   * resident while its middle stays on disk. The shared messages are only read, never updated for
+   * this queue, as other proxies may be dispatching them concurrently.
+   *
+   * @param peeked the number of events just peeked by the dispatcher
+   * @param skip the number of those events still at the front of {@code idsAvailable}
+   */
+  void readAhead(int peeked, int skip) {
+    if (!(this.haContainer instanceof HAContainerRegion)) {
+      return;
+    }
+    this.peeksUntilReadAhead -= peeked;
+    if (this.peeksUntilReadAhead > 0) {
+      return;
+    }
+    this.peeksUntilReadAhead = Math.max(READ_AHEAD_EVENTS / 2, 1);
+    List counters = new ArrayList(READ_AHEAD_EVENTS);
+    acquireReadLock();
+    try {
+      Iterator iterator = this.idsAvailable.iterator();
+      for (int i = 0; i < skip && iterator.hasNext(); i++) {
+        iterator.next();
+      }
+      while (iterator.hasNext() && counters.size() < READ_AHEAD_EVENTS) {
+        counters.add(iterator.next());
+      }
+    } finally {
+      releaseReadLock();
+    }
+    HAContainerRegion container = (HAContainerRegion) this.haContainer;
+    long faultedIn = 0;
+    for (Object counter : counters) {
+      Object wrapper = this.region.get(counter);
+      if (wrapper instanceof HAEventWrapper && container.faultIn((HAEventWrapper) wrapper)) {
+        faultedIn++;
+      }
+    }
+    this.stats.incEventsReadAhead(faultedIn);
+  }
+
   @Override
   public List peek(int batchSize) throws InterruptedException {
     return peek(batchSize, -1);
@@ -1439,6 +1685,7 @@ public class HARegionQueue implements RegionQueue {
    * @return null if minimum was not present
    */
   private List doReturn(int minSize, int maxSize) {
+    List batch;
     acquireReadLock();
     try {
       int numToReturn = this.idsAvailable.size();
@@ -1448,11 +1695,15 @@ public class HARegionQueue implements RegionQueue {
       if (numToReturn > maxSize) {
         numToReturn = maxSize;
       }
-      return getBatchAndUpdateThreadContext(numToReturn);
+      batch = getBatchAndUpdateThreadContext(numToReturn);
     } finally {
       releaseReadLock();
     }
-
+    if (HEAD_AND_TAIL_RESIDENT && !batch.isEmpty()) {
+      // the peeked events stay in idsAvailable until they are removed
+      readAhead(batch.size(), batch.size());
+    }
+    return batch;
   }
 
   /**
@@ -2524,6 +2775,38 @@ public class HARegionQueue implements RegionQueue {
       }
     }
 
+    /**
+     * The peeked ids are moved out of idsAvailable, so the first available id is not peeked yet.
+     */
+    @Override
+    protected Long getNextUnpeekedID() {
+      acquireWriteLock();
+      try {
+        Iterator itr = this.idsAvailable.iterator();
+        if (!itr.hasNext()) {
+          return null;
+        }
+        Long next = (Long) itr.next();
+        itr.remove();
+        return next;
+      } finally {
+        releaseWriteLock();
+      }
+    }
+
+    @Override
+    protected void returnPeekedIDs(List ids) {
+      acquireWriteLock();
+      try {
+        this.durableIDsList.removeAll(ids);
+        LinkedHashSet available = new LinkedHashSet(ids);
+        available.addAll(this.idsAvailable);
+        this.idsAvailable = available;
+      } finally {
+        releaseWriteLock();
+      }
+    }
+
     @Override
     protected boolean checkPrevAcks() {
       this.unremovedElements = new LinkedList();
@@ -3053,7 +3336,7 @@ public class HARegionQueue implements RegionQueue {
           this.counters.put(position, null);
 
           // Check if the event is conflatable
-          if (owningQueue.shouldBeConflated(eventInHARegion)) {
+          if (owningQueue.shouldBeConflatedOnPut(eventInHARegion, event)) {
             // Add to the conflation map & get the position of the
             // old conflatable entry. The old entry may have inserted by the
             // same
@@ -3147,8 +3430,11 @@ public class HARegionQueue implements RegionQueue {
       // position
       // that is passed
       ConcurrentMap conflationMap = (ConcurrentMap) owningQueue.indexes.get(rName);
-      Assert.assertTrue(conflationMap != null);
-      conflationMap.remove(key, position);
+      // There may be no conflation map if the event was only indexed because adaptive conflation
+      // was enabled when it was removed
+      if (conflationMap != null) {
+        conflationMap.remove(key, position);
+      }
     }
 
     /**
@@ -3278,7 +3564,7 @@ public class HARegionQueue implements RegionQueue {
             // so increment the statistic
             owningQueue.stats.incEventsRemovedByQrm();
 
-            if (!owningQueue.shouldBeConflated(event)) {
+            if (!owningQueue.mayHaveBeenConflated(event)) {
               // Just update the counters set
               this.destroy(counter);
               continue; // we're done
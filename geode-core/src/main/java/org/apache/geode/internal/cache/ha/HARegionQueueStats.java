@@ -70,6 +70,12 @@ public class HARegionQueueStats {
    */
   protected static final String NUM_SEQUENCE_VIOLATED = "numSequenceViolated";
 
+  /**
+   * Name of the events read ahead statistic. This refers to the events whose payloads were faulted
+   * back into memory ahead of the dispatcher.
+   */
+  protected static final String EVENTS_READ_AHEAD = "eventsReadAhead";
+
   /** Id of the events queued statistic */
   private static final int _eventsQueuedId;
 
@@ -103,6 +109,9 @@ public class HARegionQueueStats {
   /** Id of the num sequence violated statistic */
   private static final int _numSequenceViolated;
 
+  /** Id of the events read ahead statistic */
+  private static final int _eventsReadAheadId;
+
   /**
    * Static initializer to create and initialize the <code>StatisticsType</code>
    */
@@ -141,7 +150,10 @@ public class HARegionQueueStats {
             "operations"),
 
         f.createLongCounter(NUM_SEQUENCE_VIOLATED, "Number of events that has violated sequence.",
-            "operations")});
+            "operations"),
+
+        f.createLongCounter(EVENTS_READ_AHEAD,
+            "Number of events read back into memory ahead of the dispatcher.", "operations")});
 
     // Initialize id fields
     _eventsQueuedId = _type.nameToId(EVENTS_QUEUED);
@@ -155,6 +167,7 @@ public class HARegionQueueStats {
     _eventsDispatched = _type.nameToId(EVENTS_DISPATCHED);
     _numVoidRemovals = _type.nameToId(NUM_VOID_REMOVALS);
     _numSequenceViolated = _type.nameToId(NUM_SEQUENCE_VIOLATED);
+    _eventsReadAheadId = _type.nameToId(EVENTS_READ_AHEAD);
   }
 
   /** The <code>Statistics</code> instance to which most behavior is delegated */
@@ -363,6 +376,22 @@ public class HARegionQueueStats {
     this._stats.incLong(_numSequenceViolated, 1);
   }
 
+  /**
+   * Returns the current value of the "eventsReadAhead" stat.
+   *
+   * @return the current value of the "eventsReadAhead" stat
+   */
+  public long getEventsReadAhead() {
+    return this._stats.getLong(_eventsReadAheadId);
+  }
+
+  /**
+   * Increments the "eventsReadAhead" stat by the given amount.
+   */
+  public void incEventsReadAhead(long delta) {
+    this._stats.incLong(_eventsReadAheadId, delta);
+  }
+
   /**
    * Returns true if the stats instance has been closed.
    *
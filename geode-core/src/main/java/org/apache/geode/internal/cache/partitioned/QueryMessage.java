@@ -33,9 +33,11 @@ import org.apache.geode.cache.query.QueryExecutionLowMemoryException;
 import org.apache.geode.cache.query.Struct;
 import org.apache.geode.cache.query.internal.DefaultQuery;
 import org.apache.geode.cache.query.internal.IndexTrackingQueryObserver;
+import org.apache.geode.cache.query.internal.PRQueryExplainInfo;
 import org.apache.geode.cache.query.internal.PRQueryTraceInfo;
 import org.apache.geode.cache.query.internal.QueryMonitor;
 import org.apache.geode.cache.query.internal.QueryObserver;
+import org.apache.geode.cache.query.internal.QueryPlanCache;
 import org.apache.geode.cache.query.internal.types.ObjectTypeImpl;
 import org.apache.geode.cache.query.types.ObjectType;
 import org.apache.geode.distributed.internal.ClusterDistributionManager;
@@ -167,13 +169,18 @@ public class QueryMessage extends StreamingPartitionOperation.StreamingPartition
       throw new QueryExecutionLowMemoryException(reason);
     }
 
-    DefaultQuery query = new DefaultQuery(this.queryString, pr.getCache(), false);
+    QueryPlanCache planCache = pr.getCache().getQueryPlanCache();
+    DefaultQuery query = planCache != null ? planCache.newQuery(this.queryString)
+        : new DefaultQuery(this.queryString, pr.getCache(), false);
     // Remote query, use the PDX types in serialized form.
     Boolean initialPdxReadSerialized = pr.getCache().getPdxReadSerializedOverride();
     pr.getCache().setPdxReadSerializedOverride(true);
     // In case of "select *" queries we can keep the results in serialized form and send
     query.setRemoteQuery(true);
     QueryObserver indexObserver = query.startTrace();
+    if (query.isExplained()) {
+      query.startExplanation();
+    }
     boolean isQueryTraced = false;
     List queryTraceList = null;
 
@@ -183,8 +190,9 @@ public class QueryMessage extends StreamingPartitionOperation.StreamingPartition
       if (logger.isDebugEnabled()) {
         logger.debug("Started executing query from remote node: {}", query.getQueryString());
       }
-      isQueryTraced =
-          query.isTraced() && this.sender.getVersionObject().compareTo(Version.GFE_81) >= 0;
+      // the plan of an explained query is sent back with the trace info
+      isQueryTraced = (query.isTraced() || query.getExplanation() != null)
+          && this.sender.getVersionObject().compareTo(Version.GFE_81) >= 0;
 
       // Adds a query trace info object to the results list for remote queries
       PRQueryTraceInfo queryTraceInfo = null;
@@ -193,7 +201,8 @@ public class QueryMessage extends StreamingPartitionOperation.StreamingPartition
         if (DefaultQuery.testHook != null) {
           DefaultQuery.testHook.doTestHook("Create PR Query Trace Info for Remote Query");
         }
-        queryTraceInfo = new PRQueryTraceInfo();
+        queryTraceInfo = query.getExplanation() != null ? new PRQueryExplainInfo()
+            : new PRQueryTraceInfo();
         queryTraceList = Collections.singletonList(queryTraceInfo);
       }
 
@@ -219,6 +228,9 @@ public class QueryMessage extends StreamingPartitionOperation.StreamingPartition
         traceSize -= 1;
         queryTraceInfo.setTimeInMillis((NanoTimer.getTime() - traceStartTime) / 1.0e6f);
         queryTraceInfo.setNumResults(traceSize);
+        if (queryTraceInfo instanceof PRQueryExplainInfo) {
+          ((PRQueryExplainInfo) queryTraceInfo).setExplanation(query.getExplanation().getRoot());
+        }
 
         // created the indexes used string
         if (indexObserver instanceof IndexTrackingQueryObserver) {
@@ -255,6 +267,7 @@ public class QueryMessage extends StreamingPartitionOperation.StreamingPartition
       pr.getCache().setPdxReadSerializedOverride(initialPdxReadSerialized);
       query.setRemoteQuery(false);
       query.endTrace(indexObserver, traceStartTime, this.resultCollector);
+      query.endExplanation();
     }
 
     // Unless there was an exception thrown, this message handles sending the response
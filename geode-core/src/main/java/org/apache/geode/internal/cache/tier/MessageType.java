@@ -382,10 +382,25 @@ public class MessageType {
   public static final int PUT_ALL_WITH_CALLBACK = 108;
 
   public static final int REMOVE_ALL = 109;
+
+  /** Executes a query and returns the first batch of rows of a server-side cursor. */
+  public static final int QUERY_CURSOR_OPEN = 110;
+
+  /** Returns the next batch of rows of an open server-side query cursor. */
+  public static final int QUERY_CURSOR_FETCH = 111;
+
+  /** Releases a server-side query cursor before it is exhausted. */
+  public static final int QUERY_CURSOR_CLOSE = 112;
+
+  /**
+   * A batch of subscription events sent by the server to a client that asked for batched event
+   * dispatch. Each event is encoded as its message type, its number of parts and then its parts.
+   */
+  public static final int CLIENT_EVENT_BATCH = 113;
   /**
    * Must be equal to last valid message id.
    */
-  private static final int LAST_VALID_MESSAGE_ID = REMOVE_ALL;
+  private static final int LAST_VALID_MESSAGE_ID = CLIENT_EVENT_BATCH;
 
 
   public static boolean validate(int messageType) {
@@ -605,6 +620,14 @@ public class MessageType {
         return "PUT_ALL_WITH_CALLBACK";
       case REMOVE_ALL:
         return "REMOVE_ALL";
+      case QUERY_CURSOR_OPEN:
+        return "QUERY_CURSOR_OPEN";
+      case QUERY_CURSOR_FETCH:
+        return "QUERY_CURSOR_FETCH";
+      case QUERY_CURSOR_CLOSE:
+        return "QUERY_CURSOR_CLOSE";
+      case CLIENT_EVENT_BATCH:
+        return "CLIENT_EVENT_BATCH";
       default:
         return Integer.toString(type);
     }
@@ -92,6 +92,8 @@ import org.apache.geode.internal.logging.LogService;
 import org.apache.geode.internal.logging.LoggingThreadGroup;
 import org.apache.geode.internal.logging.log4j.LocalizedMessage;
 import org.apache.geode.internal.monitoring.ThreadsMonitoring;
+import org.apache.geode.internal.net.BufferPool;
+import org.apache.geode.internal.net.NioSslSocket;
 import org.apache.geode.internal.net.SocketCreator;
 import org.apache.geode.internal.net.SocketCreatorFactory;
 import org.apache.geode.internal.security.SecurableCommunicationChannel;
@@ -158,10 +160,6 @@ public class AcceptorImpl implements Acceptor, Runnable, CommBufferPool {
    */
   private final Selector selector;
   // private final Selector tmpSel;
-  /**
-   * Used for managing direct byte buffer for client comms; null if no selector.
-   */
-  private final LinkedBlockingQueue commBufferQueue;
   /**
    * Used to timeout accepted sockets that we are waiting for the handshake packet
    */
@@ -396,21 +394,18 @@ public class AcceptorImpl implements Acceptor, Runnable, CommBufferPool {
       Selector tmp_s = null;
       // Selector tmp2_s = null;
       LinkedBlockingQueue tmp_q = null;
-      LinkedBlockingQueue tmp_commQ = null;
       HashSet tmp_hs = null;
       SystemTimer tmp_timer = null;
       if (isSelector()) {
         tmp_s = Selector.open(); // no longer catch ex to fix bug 36907
         // tmp2_s = Selector.open(); // workaround for bug 39624
         tmp_q = new LinkedBlockingQueue();
-        tmp_commQ = new LinkedBlockingQueue();
         tmp_hs = new HashSet(512);
         tmp_timer = new SystemTimer(internalCache.getDistributedSystem(), true);
       }
       this.selector = tmp_s;
       // this.tmpSel = tmp2_s;
       this.selectorQueue = tmp_q;
-      this.commBufferQueue = tmp_commQ;
       this.selectorRegistrations = tmp_hs;
       this.hsTimer = tmp_timer;
       this.tcpNoDelay = tcpNoDelay;
@@ -436,11 +431,7 @@ public class AcceptorImpl implements Acceptor, Runnable, CommBufferPool {
       final long tilt = System.currentTimeMillis() + 120 * 1000;
 
       if (isSelector()) {
-        if (this.socketCreator.useSSL()) {
-          throw new IllegalArgumentException(
-              LocalizedStrings.AcceptorImpl_SELECTOR_THREAD_POOLING_CAN_NOT_BE_USED_WITH_CLIENTSERVER_SSL_THE_SELECTOR_CAN_BE_DISABLED_BY_SETTING_MAXTHREADS0
-                  .toLocalizedString());
-        }
+        // with SSL the accepted channels are wrapped in an SSLEngine by the handshake pool
         ServerSocketChannel channel = ServerSocketChannel.open();
         this.serverSock = channel.socket();
         this.serverSock.setReuseAddress(true);
@@ -1340,9 +1331,13 @@ public class AcceptorImpl implements Acceptor, Runnable, CommBufferPool {
       this.stats.incAcceptsInProgress();
       this.hsPool.execute(new Runnable() {
         public void run() {
+          Socket clientSocket = socket;
           boolean finished = false;
           try {
-            handleNewClientConnection(socket, serverConnectionFactory);
+            if (isSelector() && socketCreator.useSSL()) {
+              clientSocket = handshakeSelectorSocket(socket);
+            }
+            handleNewClientConnection(clientSocket, serverConnectionFactory);
             finished = true;
           } catch (RegionDestroyedException rde) {
             // aborted due to disconnect - bug 42273
@@ -1369,7 +1364,7 @@ public class AcceptorImpl implements Acceptor, Runnable, CommBufferPool {
             }
           } finally {
             if (!finished) {
-              closeSocket(socket);
+              closeSocket(clientSocket);
             }
             if (isRunning()) {
               AcceptorImpl.this.stats.decAcceptsInProgress();
@@ -1386,21 +1381,27 @@ public class AcceptorImpl implements Acceptor, Runnable, CommBufferPool {
     }
   }
 
+  /**
+   * Performs the SSL handshake on a socket accepted from the selector's server socket channel and
+   * returns a socket that encrypts its streams with an SSLEngine. The underlying channel can still
+   * be registered with the selector.
+   */
+  private NioSslSocket handshakeSelectorSocket(Socket socket) throws IOException {
+    NioSslSocket sslSocket =
+        this.socketCreator.handshakeNioSocket(socket, false, this.acceptTimeout);
+    this.stats.incSslHandshakes(sslSocket.getEngine().isSessionResumed());
+    return sslSocket;
+  }
+
   private ByteBuffer takeCommBuffer() {
-    ByteBuffer result = (ByteBuffer) this.commBufferQueue.poll();
-    if (result == null) {
-      result = ByteBuffer.allocateDirect(this.socketBufferSize);
-    }
-    return result;
+    return BufferPool.getInstance().acquireDirectBuffer(this.socketBufferSize);
   }
 
   private void releaseCommBuffer(ByteBuffer bb) {
     if (bb == null) { // fix for bug 37107
       return;
     }
-    if (isRunning()) {
-      this.commBufferQueue.offer(bb);
-    }
+    BufferPool.getInstance().release(bb);
   }
 
   public void incClientServerCnxCount() {
@@ -1427,7 +1428,9 @@ public class AcceptorImpl implements Acceptor, Runnable, CommBufferPool {
     // for processing.
     final CommunicationMode communicationMode;
     try {
-      if (isSelector()) {
+      if (socket instanceof NioSslSocket) {
+        communicationMode = getCommunicationModeForSslSelector((NioSslSocket) socket);
+      } else if (isSelector()) {
         communicationMode = getCommunicationModeForSelector(socket);
       } else {
         communicationMode = getCommunicationModeForNonSelector(socket);
@@ -1581,16 +1584,7 @@ public class AcceptorImpl implements Acceptor, Runnable, CommBufferPool {
     } else if (res == 0) {
       // now do a blocking read so setup a timer to close the socket if the
       // the read takes too long
-      SystemTimer.SystemTimerTask timerTask = new SystemTimer.SystemTimerTask() {
-        @Override
-        public void run2() {
-          logger.warn(LocalizedMessage.create(
-              LocalizedStrings.AcceptorImpl_CACHE_SERVER_TIMED_OUT_WAITING_FOR_HANDSHAKE_FROM__0,
-              socket.getRemoteSocketAddress()));
-          closeSocket(socket);
-        }
-      };
-      this.hsTimer.schedule(timerTask, this.acceptTimeout);
+      SystemTimer.SystemTimerTask timerTask = scheduleHandshakeTimeout(socket);
       res = socketChannel.read(byteBuffer);
       if ((!timerTask.cancel()) || res <= 0) {
         throw new EOFException();
@@ -1599,6 +1593,41 @@ public class AcceptorImpl implements Acceptor, Runnable, CommBufferPool {
     return CommunicationMode.fromModeNumber(byteBuffer.get(0));
   }
 
+  private CommunicationMode getCommunicationModeForSslSelector(NioSslSocket socket)
+      throws IOException {
+    int res;
+    if (socket.hasBufferedInput()) {
+      // clients usually send the mode right after the handshake
+      res = socket.getInputStream().read();
+    } else {
+      // reads through the engine block so setup a timer to close the socket if the
+      // the read takes too long
+      SystemTimer.SystemTimerTask timerTask = scheduleHandshakeTimeout(socket);
+      res = socket.getInputStream().read();
+      if (!timerTask.cancel()) {
+        throw new EOFException();
+      }
+    }
+    if (res < 0) {
+      throw new EOFException();
+    }
+    return CommunicationMode.fromModeNumber((byte) res);
+  }
+
+  private SystemTimer.SystemTimerTask scheduleHandshakeTimeout(final Socket socket) {
+    SystemTimer.SystemTimerTask timerTask = new SystemTimer.SystemTimerTask() {
+      @Override
+      public void run2() {
+        logger.warn(LocalizedMessage.create(
+            LocalizedStrings.AcceptorImpl_CACHE_SERVER_TIMED_OUT_WAITING_FOR_HANDSHAKE_FROM__0,
+            socket.getRemoteSocketAddress()));
+        closeSocket(socket);
+      }
+    };
+    this.hsTimer.schedule(timerTask, this.acceptTimeout);
+    return timerTask;
+  }
+
   @Override
   public boolean isRunning() {
     return !this.shutdownStarted;
@@ -1681,7 +1710,6 @@ public class AcceptorImpl implements Acceptor, Runnable, CommBufferPool {
       if (this.selectorThread != null) {
         this.selectorThread.interrupt();
       }
-      this.commBufferQueue.clear();
     }
   }
 
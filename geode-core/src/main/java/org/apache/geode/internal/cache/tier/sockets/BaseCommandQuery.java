@@ -15,6 +15,7 @@
 package org.apache.geode.internal.cache.tier.sockets;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
@@ -70,6 +71,23 @@ public abstract class BaseCommandQuery extends BaseCommand {
       Set regionNames, long start, ServerCQ cqQuery, QueryOperationContext queryContext,
       ServerConnection servConn, boolean sendResults, Object[] params,
       final SecurityService securityService) throws IOException, InterruptedException {
+    return processQueryUsingParams(msg, query, queryString, regionNames, start, cqQuery,
+        queryContext, servConn, sendResults, params, securityService, 0);
+  }
+
+  /**
+   * Process the give query and sends the resulset back to the client. If
+   * <code>cursorFetchSize</code> is positive, the results are kept in a server-side cursor and only
+   * the first <code>cursorFetchSize</code> rows are sent; the client reads the rest with
+   * {@link MessageType#QUERY_CURSOR_FETCH}.
+   *
+   * @return true if successful execution false in case of failure.
+   */
+  protected boolean processQueryUsingParams(Message msg, Query query, String queryString,
+      Set regionNames, long start, ServerCQ cqQuery, QueryOperationContext queryContext,
+      ServerConnection servConn, boolean sendResults, Object[] params,
+      final SecurityService securityService, int cursorFetchSize)
+      throws IOException, InterruptedException {
     ChunkedMessage queryResponseMsg = servConn.getQueryResponseMessage();
     CacheServerStats stats = servConn.getCacheServerStats();
     CachedRegionHelper crHelper = servConn.getCachedRegionHelper();
@@ -133,7 +151,13 @@ public abstract class BaseCommandQuery extends BaseCommand {
         result = queryContext.getQueryResult();
       }
 
-      if (result instanceof SelectResults) {
+      if (cursorFetchSize > 0 && result instanceof SelectResults) {
+        long oldStart = start;
+        start = DistributionStats.getStatTime();
+        stats.incProcessQueryTime(start - oldStart);
+        openQueryCursor(msg, query, (SelectResults) result, cursorFetchSize, servConn,
+            securityService);
+      } else if (result instanceof SelectResults) {
         SelectResults selectResults = (SelectResults) result;
 
         if (logger.isDebugEnabled()) {
@@ -226,7 +250,14 @@ public abstract class BaseCommandQuery extends BaseCommand {
         }
 
       } else if (result instanceof Integer) {
-        if (sendResults) {
+        if (cursorFetchSize > 0) {
+          // A scalar result is sent whole, with no cursor left open for it.
+          queryResponseMsg.setMessageType(MessageType.RESPONSE);
+          queryResponseMsg.setTransactionId(msg.getTransactionId());
+          queryResponseMsg.setNumberOfParts(3);
+          queryResponseMsg.sendHeader();
+          writeQueryCursorChunk(result, null, 0L, true, servConn);
+        } else if (sendResults) {
           queryResponseMsg.setMessageType(MessageType.RESPONSE);
           queryResponseMsg.setTransactionId(msg.getTransactionId());
           queryResponseMsg.sendHeader();
@@ -292,6 +323,112 @@ public abstract class BaseCommandQuery extends BaseCommand {
     return results.getCollectionType();
   }
 
+  /**
+   * Registers a cursor over the given query results with the {@link CacheClientNotifier} and sends
+   * its first batch of rows to the client.
+   */
+  private void openQueryCursor(Message msg, Query query, SelectResults selectResults,
+      int fetchSize, ServerConnection servConn, final SecurityService securityService)
+      throws IOException {
+    CacheClientNotifier ccn = servConn.getAcceptor().getCacheClientNotifier();
+    CollectionType collectionType = getCollectionType(selectResults);
+    ServerQueryCursor cursor = new ServerQueryCursor(ccn.newQueryCursorId(),
+        servConn.getProxyID(), query.getQueryString(), selectResults.iterator(), collectionType,
+        collectionType.getElementType().isStructType(), ((DefaultQuery) query).isKeepSerialized());
+    if (logger.isDebugEnabled()) {
+      logger.debug("{}: Query result size for cursor {} is {}", servConn.getName(), cursor.getId(),
+          selectResults.size());
+    }
+    // The cursor is registered before the first batch goes out so that a fetch sent by the client
+    // as soon as it reads that batch always finds it.
+    ccn.addQueryCursor(cursor);
+    boolean success = false;
+    try {
+      sendQueryCursorBatch(msg, cursor, fetchSize, servConn, securityService);
+      success = true;
+    } finally {
+      if (!success) {
+        ccn.removeQueryCursor(cursor.getId());
+      }
+    }
+  }
+
+  /**
+   * Sends up to <code>fetchSize</code> rows from the given cursor to the client in chunks of at
+   * most {@link #MAXIMUM_CHUNK_SIZE} rows. Rows are only read from the results and serialized as
+   * each chunk is written, so a batch never holds more than one chunk of serialized rows. Every
+   * chunk carries the id of the cursor, or zero once the cursor is exhausted, in which case it is
+   * removed.
+   */
+  protected void sendQueryCursorBatch(Message msg, ServerQueryCursor cursor, int fetchSize,
+      ServerConnection servConn, final SecurityService securityService) throws IOException {
+    CacheClientNotifier ccn = servConn.getAcceptor().getCacheClientNotifier();
+    ChunkedMessage queryResponseMsg = servConn.getQueryResponseMessage();
+    queryResponseMsg.setMessageType(MessageType.RESPONSE);
+    queryResponseMsg.setTransactionId(msg.getTransactionId());
+    queryResponseMsg.setNumberOfParts(3);
+    queryResponseMsg.sendHeader();
+
+    boolean exhausted;
+    synchronized (cursor) {
+      cursor.setLastUsed(true);
+      Iterator<?> results = cursor.getResults();
+      CollectionType collectionType = cursor.getCollectionType();
+      int remaining = fetchSize;
+      boolean lastChunk;
+      do {
+        int chunkSize = Math.min(remaining, MAXIMUM_CHUNK_SIZE);
+        List<Object> rows = new ArrayList<>(chunkSize);
+        while (rows.size() < chunkSize && results.hasNext()) {
+          rows.add(results.next());
+        }
+        remaining -= rows.size();
+        exhausted = !results.hasNext();
+        lastChunk = exhausted || remaining == 0;
+
+        Object chunk;
+        if (cursor.hasSerializedObjects()) {
+          ObjectPartList serializedObjs = new ObjectPartList(rows.size(), false);
+          for (Object row : rows) {
+            addToObjectPartList(serializedObjs, row, collectionType, false, servConn,
+                cursor.isStructs(), securityService);
+          }
+          chunk = serializedObjs;
+        } else {
+          Object[] objs = new Object[rows.size()];
+          for (int i = 0; i < objs.length; i++) {
+            Object row = rows.get(i);
+            objs[i] = cursor.isStructs() && row instanceof Struct
+                ? ((Struct) row).getFieldValues() : row;
+          }
+          chunk = objs;
+        }
+        writeQueryCursorChunk(chunk, collectionType, exhausted ? 0L : cursor.getId(), lastChunk,
+            servConn);
+      } while (!lastChunk);
+    }
+    ccn.getStats().incQueryCursorBatches();
+    if (exhausted) {
+      ccn.removeQueryCursor(cursor.getId());
+    }
+    if (logger.isDebugEnabled()) {
+      logger.debug("{}: Sent batch of query cursor {} for query {}; exhausted: {}",
+          servConn.getName(), cursor.getId(), cursor.getQueryString(), exhausted);
+    }
+  }
+
+  private static void writeQueryCursorChunk(Object queryResponseChunk,
+      CollectionType collectionType, long cursorId, boolean lastChunk, ServerConnection servConn)
+      throws IOException {
+    ChunkedMessage queryResponseMsg = servConn.getQueryResponseMessage();
+    queryResponseMsg.setNumberOfParts(3);
+    queryResponseMsg.setLastChunk(lastChunk);
+    queryResponseMsg.addObjPart(collectionType, false);
+    queryResponseMsg.addObjPart(queryResponseChunk, false);
+    queryResponseMsg.addLongPart(cursorId);
+    queryResponseMsg.sendChunk(servConn);
+  }
+
   private boolean sendCqResultsWithKey(ServerConnection servConn) {
     Version clientVersion = servConn.getClientVersion();
     if (clientVersion.compareTo(Version.GFE_65) >= 0) {
@@ -40,6 +40,7 @@ import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.logging.log4j.Logger;
 import org.apache.shiro.subject.Subject;
@@ -298,6 +299,7 @@ public class CacheClientNotifier {
     CacheClientProxy proxy;
     AccessControl authzCallback = null;
     byte clientConflation;
+    boolean eventBatching = false;
     try {
       proxyID = ClientProxyMembershipID.readCanonicalized(dis);
       if (getBlacklistedClient().contains(proxyID)) {
@@ -315,6 +317,8 @@ public class CacheClientNotifier {
       if (clientVersion.compareTo(Version.GFE_603) >= 0) {
         byte[] overrides = Handshake.extractOverrides(new byte[] {(byte) dis.read()});
         clientConflation = overrides[0];
+        eventBatching = clientVersion.compareTo(Version.GEODE_190) >= 0
+            && overrides[1] == Handshake.EVENT_BATCHING_ON;
       } else {
         clientConflation = (byte) dis.read();
       }
@@ -346,6 +350,9 @@ public class CacheClientNotifier {
           subject != null && subject instanceof Subject ? (Subject) subject : null;
       proxy = registerClient(socket, proxyID, proxy, isPrimary, clientConflation, clientVersion,
           acceptorId, notifyBySubscription, shiroSubject);
+      if (proxy != null) {
+        proxy.setEventBatching(eventBatching);
+      }
 
       if (proxy != null && subject != null) {
         if (subject instanceof Principal) {
@@ -1458,6 +1465,7 @@ public class CacheClientNotifier {
         }
       }
       this.clearCompiledQueries();
+      this.clearQueryCursors();
       blackListedClients.clear();
 
       // cancel the ping task
@@ -1995,6 +2003,80 @@ public class CacheClientNotifier {
     }
   }
 
+  /**
+   * Returns a new id for a client query cursor. Ids are never zero, which clients take to mean that
+   * a cursor has no more results.
+   */
+  public long newQueryCursorId() {
+    return this.queryCursorIdGenerator.incrementAndGet();
+  }
+
+  public void addQueryCursor(ServerQueryCursor cursor) {
+    if (this.queryCursors.putIfAbsent(cursor.getId(), cursor) == null) {
+      this.statistics.incQueryCursorCount(1);
+      if (logger.isDebugEnabled()) {
+        logger.debug("Opened {}. Total query cursors: {}", cursor,
+            this.statistics.getQueryCursorCount());
+      }
+      startQueryCursorCleanupThread();
+    }
+  }
+
+  public ServerQueryCursor getQueryCursor(long cursorId) {
+    return this.queryCursors.get(cursorId);
+  }
+
+  public ServerQueryCursor removeQueryCursor(long cursorId) {
+    ServerQueryCursor cursor = this.queryCursors.remove(cursorId);
+    if (cursor != null) {
+      this.statistics.incQueryCursorCount(-1);
+      if (logger.isDebugEnabled()) {
+        logger.debug("Closed {}. Total query cursors: {}", cursor,
+            this.statistics.getQueryCursorCount());
+      }
+    }
+    return cursor;
+  }
+
+  private void clearQueryCursors() {
+    if (this.queryCursors.size() > 0) {
+      this.statistics.incQueryCursorCount(-(this.queryCursors.size()));
+      this.queryCursors.clear();
+    }
+  }
+
+  /**
+   * This starts the cleanup thread that periodically (QUERY_CURSOR_EXPIRY_PERIOD) checks for query
+   * cursors that have not been read from since the last check and removes them. This bounds the
+   * results held for clients that stop iterating without closing their cursor.
+   */
+  private void startQueryCursorCleanupThread() {
+    if (isQueryCursorCleanupThreadStarted) {
+      return;
+    }
+
+    SystemTimer.SystemTimerTask task = new SystemTimer.SystemTimerTask() {
+      @Override
+      public void run2() {
+        for (ServerQueryCursor cursor : queryCursors.values()) {
+          if (cursor.getLastUsed()) {
+            cursor.setLastUsed(false);
+          } else if (removeQueryCursor(cursor.getId()) != null) {
+            statistics.incQueryCursorsExpired();
+          }
+        }
+      }
+    };
+
+    synchronized (lockIsQueryCursorCleanupThreadStarted) {
+      if (!isQueryCursorCleanupThreadStarted) {
+        cache.getCCPTimer().scheduleAtFixedRate(task, QUERY_CURSOR_EXPIRY_PERIOD,
+            QUERY_CURSOR_EXPIRY_PERIOD);
+      }
+      isQueryCursorCleanupThreadStarted = true;
+    }
+  }
+
   protected void scheduleClientPingTask() {
     this.clientPingTask = new SystemTimer.SystemTimerTask() {
 
@@ -2164,6 +2246,22 @@ public class CacheClientNotifier {
 
   private final Object lockIsCompiledQueryCleanupThreadStarted = new Object();
 
+  private final ConcurrentHashMap<Long, ServerQueryCursor> queryCursors =
+      new ConcurrentHashMap<Long, ServerQueryCursor>();
+
+  private final AtomicLong queryCursorIdGenerator = new AtomicLong();
+
+  private volatile boolean isQueryCursorCleanupThreadStarted = false;
+
+  private final Object lockIsQueryCursorCleanupThreadStarted = new Object();
+
+  /**
+   * How often, in milliseconds, idle query cursors are looked for. A cursor that is not read from
+   * for between one and two periods is discarded.
+   */
+  private static final long QUERY_CURSOR_EXPIRY_PERIOD =
+      Long.getLong(DistributionConfig.GEMFIRE_PREFIX + "queryCursorExpiryPeriod", 60000);
+
   private SystemTimer.SystemTimerTask clientPingTask;
 
   private final SocketCloser socketCloser;
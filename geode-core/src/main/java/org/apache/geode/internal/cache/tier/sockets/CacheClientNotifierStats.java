@@ -46,6 +46,9 @@ public class CacheClientNotifierStats {
   private static final String CQ_PROCESSING_TIME = "cqProcessingTime";
   private static final String COMPILED_QUERY_COUNT = "compiledQueryCount";
   private static final String COMPILED_QUERY_USED_COUNT = "compiledQueryUsedCount";
+  private static final String QUERY_CURSOR_COUNT = "queryCursorCount";
+  private static final String QUERY_CURSOR_BATCHES = "queryCursorBatches";
+  private static final String QUERY_CURSORS_EXPIRED = "queryCursorsExpired";
 
   private static final int _eventsId;
   private static final int _eventProcessingTimeId;
@@ -67,6 +70,11 @@ public class CacheClientNotifierStats {
 
   private static final int _compiledQueryUsedCount;
 
+  // Query cursor stats.
+  private static final int _queryCursorCount;
+  private static final int _queryCursorBatches;
+  private static final int _queryCursorsExpired;
+
   static {
     String statName = "CacheClientNotifierStatistics";
 
@@ -108,6 +116,15 @@ public class CacheClientNotifierStats {
         f.createLongCounter(COMPILED_QUERY_USED_COUNT, "Number of times compiled queries are used.",
             "used"),
 
+        f.createLongGauge(QUERY_CURSOR_COUNT, "Number of client query cursors currently open.",
+            "cursors"),
+
+        f.createLongCounter(QUERY_CURSOR_BATCHES,
+            "Number of batches of query results sent to clients from query cursors.", "batches"),
+
+        f.createLongCounter(QUERY_CURSORS_EXPIRED,
+            "Number of client query cursors discarded because they were left idle.", "cursors"),
+
     });
 
     // Initialize id fields
@@ -127,6 +144,9 @@ public class CacheClientNotifierStats {
     _cqProcessingTimeId = _type.nameToId(CQ_PROCESSING_TIME);
     _compiledQueryCount = _type.nameToId(COMPILED_QUERY_COUNT);
     _compiledQueryUsedCount = _type.nameToId(COMPILED_QUERY_USED_COUNT);
+    _queryCursorCount = _type.nameToId(QUERY_CURSOR_COUNT);
+    _queryCursorBatches = _type.nameToId(QUERY_CURSOR_BATCHES);
+    _queryCursorsExpired = _type.nameToId(QUERY_CURSORS_EXPIRED);
   }
 
   ////////////////////// Instance Fields //////////////////////
@@ -231,6 +251,18 @@ public class CacheClientNotifierStats {
     return this._stats.getLong(_compiledQueryUsedCount);
   }
 
+  public long getQueryCursorCount() {
+    return this._stats.getLong(_queryCursorCount);
+  }
+
+  public long getQueryCursorBatches() {
+    return this._stats.getLong(_queryCursorBatches);
+  }
+
+  public long getQueryCursorsExpired() {
+    return this._stats.getLong(_queryCursorsExpired);
+  }
+
   public void incDurableReconnectionCount() {
     this._stats.incInt(_durableReconnectionCount, 1);
   }
@@ -255,6 +287,18 @@ public class CacheClientNotifierStats {
     this._stats.incLong(_compiledQueryUsedCount, count);
   }
 
+  public void incQueryCursorCount(long count) {
+    this._stats.incLong(_queryCursorCount, count);
+  }
+
+  public void incQueryCursorBatches() {
+    this._stats.incLong(_queryCursorBatches, 1);
+  }
+
+  public void incQueryCursorsExpired() {
+    this._stats.incLong(_queryCursorsExpired, 1);
+  }
+
   public int getClientUnRegisterRequests() {
     return this._stats.getInt(_clientHealthMonitorUnRegisterId);
   }
@@ -193,6 +193,21 @@ public class CacheClientProxy implements ClientSession {
   protected static final int MAXIMUM_SHUTDOWN_PEEKS = Integer
       .getInteger(DistributionConfig.GEMFIRE_PREFIX + "MAXIMUM_SHUTDOWN_PEEKS", 50).intValue();
 
+  /**
+   * The maximum number of queued messages the dispatcher sends in one batch to a client that asked
+   * for batched event dispatch
+   */
+  protected static final int DISPATCH_BATCH_SIZE = Integer
+      .getInteger(DistributionConfig.GEMFIRE_PREFIX + "CacheClientProxy.DISPATCH_BATCH_SIZE", 100)
+      .intValue();
+
+  /**
+   * The number of payload bytes after which the dispatcher stops adding queued messages to a batch
+   */
+  protected static final int DISPATCH_BATCH_BYTES = Integer.getInteger(
+      DistributionConfig.GEMFIRE_PREFIX + "CacheClientProxy.DISPATCH_BATCH_BYTES", 1024 * 1024)
+      .intValue();
+
   /**
    * The number of milliseconds to wait for an offering to the message queue
    */
@@ -243,6 +258,20 @@ public class CacheClientProxy implements ClientSession {
   /** @since GemFire 5.7 */
   protected byte clientConflation = Handshake.CONFLATION_DEFAULT;
 
+  /**
+   * Whether the client asked for queued messages to be dispatched in batches
+   *
+   * @since Geode 1.8
+   */
+  private volatile boolean eventBatching = false;
+
+  /**
+   * Decides when this proxy's queue is backlogged and what to do about it
+   *
+   * @since Geode 1.8
+   */
+  private SlowConsumerPolicy slowConsumerPolicy = new SlowConsumerPolicy();
+
   /**
    * Flag to indicate whether to keep a durable client's queue alive
    */
@@ -752,6 +781,104 @@ public class CacheClientProxy implements ClientSession {
     this._isPaused = isPaused;
   }
 
+  /**
+   * Returns whether queued messages are dispatched to the client in batches.
+   *
+   * @since Geode 1.8
+   */
+  public boolean isEventBatching() {
+    return this.eventBatching && DISPATCH_BATCH_SIZE > 1;
+  }
+
+  void setEventBatching(boolean eventBatching) {
+    this.eventBatching = eventBatching;
+  }
+
+  void setSlowConsumerPolicyForTest(SlowConsumerPolicy policy) {
+    this.slowConsumerPolicy = policy;
+  }
+
+  /**
+   * Returns whether updates are sent to the client as invalidates because its queue is backlogged.
+   *
+   * @since Geode 1.8
+   */
+  public boolean isInvalidatingUpdates() {
+    return this.slowConsumerPolicy.isInvalidating();
+  }
+
+  /**
+   * Re-evaluates, at most every {@link SlowConsumerPolicy#CHECK_INTERVAL} milliseconds, whether the
+   * queue is backlogged, and applies or lifts the configured slow consumer policies accordingly.
+   */
+  private void checkBacklog(MessageDispatcher dispatcher) {
+    checkBacklog(dispatcher._messageQueue, System.currentTimeMillis());
+  }
+
+  void checkBacklog(HARegionQueue queue, long now) {
+    SlowConsumerPolicy policy = this.slowConsumerPolicy;
+    if (!policy.isEnabled() || !policy.isCheckDue(now)) {
+      return;
+    }
+    policy.evaluate(queue.size(), queue::getHeadAge,
+        backlogged -> backlogChanged(policy, queue, backlogged));
+  }
+
+  /**
+   * Applies or lifts the slow consumer policies. Invoked by the policy while it is locked.
+   */
+  private void backlogChanged(SlowConsumerPolicy policy, HARegionQueue queue,
+      boolean backlogged) {
+    if (policy.hasAction(SlowConsumerPolicy.Action.CONFLATE)) {
+      queue.setAdaptiveConflation(backlogged);
+    }
+    if (backlogged) {
+      if (policy.hasAction(SlowConsumerPolicy.Action.CONFLATE)) {
+        this._statistics.incConflationPolicyActivations();
+      }
+      if (policy.hasAction(SlowConsumerPolicy.Action.INVALIDATE)) {
+        this._statistics.incInvalidationPolicyActivations();
+      }
+      if (policy.hasAction(SlowConsumerPolicy.Action.SAMPLE)) {
+        this._statistics.incSamplingPolicyActivations();
+      }
+    }
+    if (logger.isDebugEnabled()) {
+      logger.debug("{}: The queue of {} entries is {} backlogged", this, queue.size(),
+          backlogged ? "now" : "no longer");
+    }
+  }
+
+  /**
+   * Returns whether a message should be left out of the queue because CQ updates are being sampled
+   * for this non-durable client.
+   */
+  boolean isSampledOut(ClientUpdateMessage clientMessage) {
+    return this.slowConsumerPolicy.isSampling() && !isDurable()
+        && clientMessage instanceof ClientUpdateMessageImpl
+        && ((ClientUpdateMessageImpl) clientMessage).isCqUpdateOnly(this.proxyID)
+        && !this.slowConsumerPolicy.sample();
+  }
+
+  /**
+   * Returns the message to queue for the given one. While updates are sent as invalidates because
+   * the queue is backlogged, an update is queued without its value, so that the backlog does not
+   * hold on to values the client will not be sent. Clients with CQs on the update still get the
+   * value.
+   */
+  Conflatable getMessageToQueue(Conflatable conflatable, ClientUpdateMessage clientMessage) {
+    if (!isInvalidatingUpdates() || !(clientMessage instanceof ClientUpdateMessageImpl)) {
+      return conflatable;
+    }
+    ClientUpdateMessageImpl update = (ClientUpdateMessageImpl) clientMessage;
+    if (!update.isUpdate() || update.hasCqs(this.proxyID)
+        || update.isClientInterestedInInvalidates(this.proxyID)) {
+      return conflatable;
+    }
+    this._statistics.incMessagesQueuedAsInvalidates();
+    return update.withoutValue(this.proxyID);
+  }
+
   /**
    * Closes the proxy. This method checks the message queue for any unprocessed messages and
    * processes them for MAXIMUM_SHUTDOWN_PEEKS.
@@ -1593,8 +1720,14 @@ public class CacheClientProxy implements ClientSession {
         }
       }
 
-      if (this._messageDispatcher != null) {
-        this._messageDispatcher.enqueueMessage(conflatable);
+      MessageDispatcher dispatcher = this._messageDispatcher;
+      if (dispatcher != null) {
+        checkBacklog(dispatcher);
+        if (isSampledOut(clientMessage)) {
+          this._statistics.incMessagesNotQueuedSampled();
+          return;
+        }
+        dispatcher.enqueueMessage(getMessageToQueue(conflatable, clientMessage));
       } else {
         this._statistics.incMessagesFailedQueued();
 
@@ -2543,8 +2676,16 @@ public class CacheClientProxy implements ClientSession {
             // Process the message
             long start = getStatistics().startTime();
             //// BUGFIX for BUG#38206 and BUG#37791
-            boolean isDispatched = dispatchMessage(clientMessage);
-            getStatistics().endMessage(start);
+            boolean isDispatched;
+            ClientMessage nextMessage = getProxy().isEventBatching()
+                ? (ClientMessage) this._messageQueue.peekNext() : null;
+            if (nextMessage != null) {
+              // more messages are ready, so send them along with this one
+              isDispatched = dispatchBatch(clientMessage, nextMessage, start);
+            } else {
+              isDispatched = dispatchMessage(clientMessage);
+              getStatistics().endMessage(start);
+            }
             if (isDispatched) {
               this._messageQueue.remove();
               if (clientMessage instanceof ClientMarkerMessageImpl) {
@@ -2751,6 +2892,94 @@ public class CacheClientProxy implements ClientSession {
       if (logger.isTraceEnabled(LogMarker.BRIDGE_SERVER_VERBOSE)) {
         logger.trace(LogMarker.BRIDGE_SERVER_VERBOSE, "Dispatching {}", clientMessage);
       }
+      Message message = createMessage(clientMessage);
+
+      if (!this._proxy.isPaused()) {
+        sendMessage(message);
+
+        if (logger.isTraceEnabled()) {
+          logger.trace("{}: Dispatched {}", this, clientMessage);
+        }
+        isDispatched = true;
+      } else {
+        if (logger.isDebugEnabled()) {
+          logger.debug("Message Dispatcher of a Paused CCProxy is trying to dispatch message");
+        }
+      }
+      if (isDispatched) {
+        this._messageQueue.getStatistics().incEventsDispatched();
+      }
+      return isDispatched;
+    }
+
+    /**
+     * Sends the given messages, and as many of the messages queued behind them as fit in a batch,
+     * to the client attached to this proxy in a single message. All of the messages sent are peeked
+     * from the queue so that one remove acknowledges the whole batch.
+     *
+     * @param first The <code>ClientMessage</code> already peeked from the queue
+     * @param second The <code>ClientMessage</code> already peeked behind the first one
+     * @param start The time at which dispatching of the batch started
+     */
+    private boolean dispatchBatch(ClientMessage first, ClientMessage second, long start)
+        throws IOException, InterruptedException {
+      ClientEventBatch batch = new ClientEventBatch();
+      boolean hasMarker = false;
+      ClientMessage clientMessage = first;
+      ClientMessage nextMessage = second;
+      int peeked = 2;
+      while (true) {
+        if (logger.isTraceEnabled(LogMarker.BRIDGE_SERVER_VERBOSE)) {
+          logger.trace(LogMarker.BRIDGE_SERVER_VERBOSE, "Batching {}", clientMessage);
+        }
+        Message message = createMessage(clientMessage);
+        if (message != null) {
+          batch.add(message);
+        }
+        hasMarker |= clientMessage instanceof ClientMarkerMessageImpl;
+        if (nextMessage == null || this._proxy.isPaused()) {
+          break;
+        }
+        clientMessage = nextMessage;
+        nextMessage = null;
+        if (batch.size() + 1 < DISPATCH_BATCH_SIZE
+            && batch.getPayloadSize() < DISPATCH_BATCH_BYTES) {
+          nextMessage = (ClientMessage) this._messageQueue.peekNext();
+          if (nextMessage != null) {
+            peeked++;
+          }
+        }
+      }
+
+      if (this._proxy.isPaused()) {
+        if (logger.isDebugEnabled()) {
+          logger.debug("Message Dispatcher of a Paused CCProxy is trying to dispatch a batch");
+        }
+        // give the messages of the batch back to the queue, so that they are peeked again once
+        // dispatching resumes instead of being taken for sent when acknowledged events are removed
+        this._messageQueue.unpeek(peeked);
+        return false;
+      }
+      if (batch.size() > 0) {
+        sendMessage(batch.toMessage(getProxy().getVersion()));
+        if (logger.isTraceEnabled()) {
+          logger.trace("{}: Dispatched a batch of {} messages", this, batch.size());
+        }
+      }
+      for (int i = 0; i < batch.size(); i++) {
+        this._messageQueue.getStatistics().incEventsDispatched();
+      }
+      getStatistics().endMessageBatch(start, batch.size());
+      if (hasMarker) {
+        getProxy().markerEnqueued = false;
+      }
+      return true;
+    }
+
+    /**
+     * Creates the wire message for the given client message
+     */
+    private Message createMessage(ClientMessage clientMessage) throws IOException {
       Message message = null;
 
       // byte[] latestValue =
@@ -2779,23 +3008,7 @@ public class CacheClientProxy implements ClientSession {
       } else {
         message = clientMessage.getMessage(getProxy(), true /* notify */);
       }
-
-      if (!this._proxy.isPaused()) {
-        sendMessage(message);
-
-        if (logger.isTraceEnabled()) {
-          logger.trace("{}: Dispatched {}", this, clientMessage);
-        }
-        isDispatched = true;
-      } else {
-        if (logger.isDebugEnabled()) {
-          logger.debug("Message Dispatcher of a Paused CCProxy is trying to dispatch message");
-        }
-      }
-      if (isDispatched) {
-        this._messageQueue.getStatistics().incEventsDispatched();
-      }
-      return isDispatched;
+      return message;
     }
 
     private void sendMessage(Message message) throws IOException {
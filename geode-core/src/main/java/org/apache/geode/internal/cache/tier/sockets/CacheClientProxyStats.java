@@ -58,6 +58,18 @@ public class CacheClientProxyStats implements MessageStats {
   private static final String DELTA_FULL_MESSAGES_SENT = "deltaFullMessagesSent";
   /** Name of the CQ count statistic */
   private static final String CQ_COUNT = "cqCount";
+  /** Name of the event batches sent statistic */
+  private static final String EVENT_BATCHES_SENT = "eventBatchesSent";
+  /** Name of the messages not queued because sampled out statistic */
+  private static final String MESSAGES_NOT_QUEUED_SAMPLED = "messagesNotQueuedSampled";
+  /** Name of the messages queued as invalidates statistic */
+  private static final String MESSAGES_QUEUED_AS_INVALIDATES = "messagesQueuedAsInvalidates";
+  /** Name of the conflation policy activations statistic */
+  private static final String CONFLATION_POLICY_ACTIVATIONS = "conflationPolicyActivations";
+  /** Name of the invalidation policy activations statistic */
+  private static final String INVALIDATION_POLICY_ACTIVATIONS = "invalidationPolicyActivations";
+  /** Name of the sampling policy activations statistic */
+  private static final String SAMPLING_POLICY_ACTIVATIONS = "samplingPolicyActivations";
 
   /** Id of the messages received statistic */
   private static final int _messagesReceivedId;
@@ -81,7 +93,20 @@ public class CacheClientProxyStats implements MessageStats {
   private static final int _deltaFullMessagesSentId;
   /** Id of the CQ count statistic */
   private static final int _cqCountId;
+  /** Id of the event batches sent statistic */
+  private static final int _eventBatchesSentId;
+  /** Id of the messages not queued because sampled out statistic */
+  private static final int _messagesNotQueuedSampledId;
+  /** Id of the messages queued as invalidates statistic */
+  private static final int _messagesQueuedAsInvalidatesId;
+  /** Id of the conflation policy activations statistic */
+  private static final int _conflationPolicyActivationsId;
+  /** Id of the invalidation policy activations statistic */
+  private static final int _invalidationPolicyActivationsId;
+  /** Id of the sampling policy activations statistic */
+  private static final int _samplingPolicyActivationsId;
   private static final int _sentBytesId;
+  private static final int _bytesSavedByCompressionId;
 
   /**
    * Static initializer to create and initialize the <code>StatisticsType</code>
@@ -126,7 +151,28 @@ public class CacheClientProxyStats implements MessageStats {
             "operations"),
 
         f.createLongCounter(CQ_COUNT, "Number of CQs on the client.", "operations"),
-        f.createLongCounter("sentBytes", "Total number of bytes sent to client.", "bytes"),});
+        f.createIntCounter(EVENT_BATCHES_SENT,
+            "Number of messages sent to the client that carried a batch of queued messages.",
+            "operations"),
+        f.createIntCounter(MESSAGES_NOT_QUEUED_SAMPLED,
+            "Number of CQ update messages received but not added to the message queue because the queue was backlogged and the message was sampled out.",
+            "operations"),
+        f.createIntCounter(MESSAGES_QUEUED_AS_INVALIDATES,
+            "Number of update messages added to the message queue as invalidates, without their value, because the queue was backlogged.",
+            "operations"),
+        f.createIntCounter(CONFLATION_POLICY_ACTIVATIONS,
+            "Number of times updates started being conflated because the message queue was backlogged.",
+            "operations"),
+        f.createIntCounter(INVALIDATION_POLICY_ACTIVATIONS,
+            "Number of times updates started being sent as invalidates because the message queue was backlogged.",
+            "operations"),
+        f.createIntCounter(SAMPLING_POLICY_ACTIVATIONS,
+            "Number of times CQ update messages started being sampled because the message queue was backlogged.",
+            "operations"),
+        f.createLongCounter("sentBytes", "Total number of bytes sent to client.", "bytes"),
+        f.createLongCounter("bytesSavedByCompression",
+            "Total number of bytes not sent to client because message parts were compressed.",
+            "bytes"),});
 
     // Initialize id fields
     _messagesReceivedId = _type.nameToId(MESSAGES_RECEIVED);
@@ -140,7 +186,14 @@ public class CacheClientProxyStats implements MessageStats {
     _deltaMessagesSentId = _type.nameToId(DELTA_MESSAGES_SENT);
     _deltaFullMessagesSentId = _type.nameToId(DELTA_FULL_MESSAGES_SENT);
     _cqCountId = _type.nameToId(CQ_COUNT);
+    _eventBatchesSentId = _type.nameToId(EVENT_BATCHES_SENT);
+    _messagesNotQueuedSampledId = _type.nameToId(MESSAGES_NOT_QUEUED_SAMPLED);
+    _messagesQueuedAsInvalidatesId = _type.nameToId(MESSAGES_QUEUED_AS_INVALIDATES);
+    _conflationPolicyActivationsId = _type.nameToId(CONFLATION_POLICY_ACTIVATIONS);
+    _invalidationPolicyActivationsId = _type.nameToId(INVALIDATION_POLICY_ACTIVATIONS);
+    _samplingPolicyActivationsId = _type.nameToId(SAMPLING_POLICY_ACTIVATIONS);
     _sentBytesId = _type.nameToId("sentBytes");
+    _bytesSavedByCompressionId = _type.nameToId("bytesSavedByCompression");
   }
 
   ////////////////////// Instance Fields //////////////////////
@@ -269,6 +322,60 @@ public class CacheClientProxyStats implements MessageStats {
     return this._stats.getInt(_cqCountId);
   }
 
+  /**
+   * Returns the current value of the "eventBatchesSent" stat.
+   *
+   * @return the current value of the "eventBatchesSent" stat
+   */
+  public int getEventBatchesSent() {
+    return this._stats.getInt(_eventBatchesSentId);
+  }
+
+  /**
+   * Returns the current value of the "messagesNotQueuedSampled" stat.
+   *
+   * @return the current value of the "messagesNotQueuedSampled" stat
+   */
+  public int getMessagesNotQueuedSampled() {
+    return this._stats.getInt(_messagesNotQueuedSampledId);
+  }
+
+  /**
+   * Returns the current value of the "messagesQueuedAsInvalidates" stat.
+   *
+   * @return the current value of the "messagesQueuedAsInvalidates" stat
+   */
+  public int getMessagesQueuedAsInvalidates() {
+    return this._stats.getInt(_messagesQueuedAsInvalidatesId);
+  }
+
+  /**
+   * Returns the current value of the "conflationPolicyActivations" stat.
+   *
+   * @return the current value of the "conflationPolicyActivations" stat
+   */
+  public int getConflationPolicyActivations() {
+    return this._stats.getInt(_conflationPolicyActivationsId);
+  }
+
+  /**
+   * Returns the current value of the "invalidationPolicyActivations" stat.
+   *
+   * @return the current value of the "invalidationPolicyActivations" stat
+   */
+  public int getInvalidationPolicyActivations() {
+    return this._stats.getInt(_invalidationPolicyActivationsId);
+  }
+
+  /**
+   * Returns the current value of the "samplingPolicyActivations" stat.
+   *
+   * @return the current value of the "samplingPolicyActivations" stat
+   */
+  public int getSamplingPolicyActivations() {
+    return this._stats.getInt(_samplingPolicyActivationsId);
+  }
+
   /**
    * Increments the "messagesReceived" stat.
    */
@@ -297,6 +404,41 @@ public class CacheClientProxyStats implements MessageStats {
     this._stats.incInt(_messagesNotQueuedNotInterestedId, 1);
   }
 
+  /**
+   * Increments the "messagesNotQueuedSampled" stat.
+   */
+  public void incMessagesNotQueuedSampled() {
+    this._stats.incInt(_messagesNotQueuedSampledId, 1);
+  }
+
+  /**
+   * Increments the "messagesQueuedAsInvalidates" stat.
+   */
+  public void incMessagesQueuedAsInvalidates() {
+    this._stats.incInt(_messagesQueuedAsInvalidatesId, 1);
+  }
+
+  /**
+   * Increments the "conflationPolicyActivations" stat.
+   */
+  public void incConflationPolicyActivations() {
+    this._stats.incInt(_conflationPolicyActivationsId, 1);
+  }
+
+  /**
+   * Increments the "invalidationPolicyActivations" stat.
+   */
+  public void incInvalidationPolicyActivations() {
+    this._stats.incInt(_invalidationPolicyActivationsId, 1);
+  }
+
+  /**
+   * Increments the "samplingPolicyActivations" stat.
+   */
+  public void incSamplingPolicyActivations() {
+    this._stats.incInt(_samplingPolicyActivationsId, 1);
+  }
+
   /**
    * Increments the "messagesFailedQueued" stat.
    */
@@ -353,6 +495,21 @@ public class CacheClientProxyStats implements MessageStats {
     this._stats.incLong(_messageProcessingTimeId, elapsed);
   }
 
+  /**
+   * Increments the "eventBatchesSent" stat, and the "messagesProcessed" and
+   * "messageProcessingTime" stats by the messages in the batch.
+   *
+   * @param start The start of the batch (which is decremented from the current time to determine
+   *        the message processing time).
+   * @param messages The number of messages sent in the batch
+   */
+  public void endMessageBatch(long start, int messages) {
+    long ts = DistributionStats.getStatTime();
+    this._stats.incInt(_eventBatchesSentId, 1);
+    this._stats.incInt(_messagesProcessedId, messages);
+    this._stats.incLong(_messageProcessingTimeId, ts - start);
+  }
+
   /**
    * Increments the "deltaMessagesSent" stats.
    */
@@ -375,6 +532,10 @@ public class CacheClientProxyStats implements MessageStats {
     this._stats.incLong(_sentBytesId, v);
   }
 
+  public void incBytesSavedByCompression(long v) {
+    this._stats.incLong(_bytesSavedByCompressionId, v);
+  }
+
   public void incMessagesBeingReceived(int bytes) {
     // noop since we never receive
   }
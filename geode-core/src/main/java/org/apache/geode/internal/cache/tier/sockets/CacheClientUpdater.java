@@ -1548,6 +1548,121 @@ public class CacheClientUpdater extends Thread implements ClientUpdater, Disconn
     }
   }
 
+  /**
+   * Processes the events in a batch message, in the order the server queued them.
+   *
+   * @param batch the message containing the batch
+   * @since Geode 1.8
+   */
+  private void processBatch(Message batch) throws IOException, ClassNotFoundException {
+    Message eventMessage = new Message(1, Version.CURRENT);
+    int eventCount = ClientEventBatch.getEventCount(batch);
+    int partIndex = 1;
+    for (int i = 0; i < eventCount; i++) {
+      if (quitting()) {
+        if (logger.isDebugEnabled()) {
+          logger.debug("processBatch quitting before processing message");
+        }
+        return;
+      }
+      partIndex = ClientEventBatch.readEvent(batch, partIndex, eventMessage);
+      try {
+        processMessage(eventMessage);
+      } finally {
+        eventMessage.clearParts();
+      }
+    }
+  }
+
+  /**
+   * Processes a single event sent by the server.
+   *
+   * @param clientMessage the message containing the event
+   */
+  private void processMessage(Message clientMessage) throws IOException, ClassNotFoundException {
+    boolean isDeltaSent = false;
+    boolean isCreateOrUpdate = clientMessage.getMessageType() == MessageType.LOCAL_CREATE
+        || clientMessage.getMessageType() == MessageType.LOCAL_UPDATE;
+    if (isCreateOrUpdate) {
+      isDeltaSent = (Boolean) clientMessage.getPart(2).getObject();
+    }
+
+    // extract the eventId and verify if it is a duplicate event
+    // if it is a duplicate event, ignore
+    // @since GemFire 5.1
+    int numberOfParts = clientMessage.getNumberOfParts();
+    Part eid = clientMessage.getPart(numberOfParts - 1);
+
+    // TODO the message handling methods also deserialized the eventID - inefficient
+    EventID eventId = (EventID) eid.getObject();
+
+    // no need to verify if the instantiator msg is duplicate or not
+    if (clientMessage.getMessageType() != MessageType.REGISTER_INSTANTIATORS
+        && clientMessage.getMessageType() != MessageType.REGISTER_DATASERIALIZERS) {
+      if (this.qManager.getState().verifyIfDuplicate(eventId,
+          !(this.isDurableClient || isDeltaSent))) {
+        return;
+      }
+    }
+
+    if (logger.isTraceEnabled(LogMarker.BRIDGE_SERVER_VERBOSE)) {
+      logger.trace(LogMarker.BRIDGE_SERVER_VERBOSE, "Processing event with id {}",
+          eventId.expensiveToString());
+    }
+
+    this.isOpCompleted = true;
+
+    // Process the message
+    switch (clientMessage.getMessageType()) {
+      case MessageType.LOCAL_CREATE:
+      case MessageType.LOCAL_UPDATE:
+        handleUpdate(clientMessage);
+        break;
+      case MessageType.LOCAL_INVALIDATE:
+        handleInvalidate(clientMessage);
+        break;
+      case MessageType.LOCAL_DESTROY:
+        handleDestroy(clientMessage);
+        break;
+      case MessageType.LOCAL_DESTROY_REGION:
+        handleDestroyRegion(clientMessage);
+        break;
+      case MessageType.CLEAR_REGION:
+        handleClearRegion(clientMessage);
+        break;
+      case MessageType.REGISTER_INSTANTIATORS:
+        handleRegisterInstantiator(clientMessage, eventId);
+        break;
+      case MessageType.REGISTER_DATASERIALIZERS:
+        handleRegisterDataSerializer(clientMessage, eventId);
+        break;
+      case MessageType.CLIENT_MARKER:
+        handleMarker(clientMessage);
+        break;
+      case MessageType.INVALIDATE_REGION:
+        handleInvalidateRegion(clientMessage);
+        break;
+      case MessageType.CLIENT_REGISTER_INTEREST:
+        handleRegisterInterest(clientMessage);
+        break;
+      case MessageType.CLIENT_UNREGISTER_INTEREST:
+        handleUnregisterInterest(clientMessage);
+        break;
+      case MessageType.TOMBSTONE_OPERATION:
+        handleTombstoneOperation(clientMessage);
+        break;
+      default:
+        logger.warn(LocalizedMessage.create(
+            LocalizedStrings.CacheClientUpdater_0_RECEIVED_AN_UNSUPPORTED_MESSAGE_TYPE_1,
+            new Object[] {this, MessageType.getString(clientMessage.getMessageType())}));
+        break;
+    }
+
+    if (this.isOpCompleted && (this.isDurableClient || isDeltaSent)) {
+      this.qManager.getState().verifyIfDuplicate(eventId, true);
+    }
+  }
+
   /**
    * Processes messages received from the server.
    *
@@ -1625,86 +1740,10 @@ public class CacheClientUpdater extends Thread implements ClientUpdater, Disconn
             continue;
           }
 
-          boolean isDeltaSent = false;
-          boolean isCreateOrUpdate = clientMessage.getMessageType() == MessageType.LOCAL_CREATE
-              || clientMessage.getMessageType() == MessageType.LOCAL_UPDATE;
-          if (isCreateOrUpdate) {
-            isDeltaSent = (Boolean) clientMessage.getPart(2).getObject();
-          }
-
-          // extract the eventId and verify if it is a duplicate event
-          // if it is a duplicate event, ignore
-          // @since GemFire 5.1
-          int numberOfParts = clientMessage.getNumberOfParts();
-          Part eid = clientMessage.getPart(numberOfParts - 1);
-
-          // TODO the message handling methods also deserialized the eventID - inefficient
-          EventID eventId = (EventID) eid.getObject();
-
-          // no need to verify if the instantiator msg is duplicate or not
-          if (clientMessage.getMessageType() != MessageType.REGISTER_INSTANTIATORS
-              && clientMessage.getMessageType() != MessageType.REGISTER_DATASERIALIZERS) {
-            if (this.qManager.getState().verifyIfDuplicate(eventId,
-                !(this.isDurableClient || isDeltaSent))) {
-              continue;
-            }
-          }
-
-          if (logger.isTraceEnabled(LogMarker.BRIDGE_SERVER_VERBOSE)) {
-            logger.trace(LogMarker.BRIDGE_SERVER_VERBOSE, "Processing event with id {}",
-                eventId.expensiveToString());
-          }
-
-          this.isOpCompleted = true;
-
-          // Process the message
-          switch (clientMessage.getMessageType()) {
-            case MessageType.LOCAL_CREATE:
-            case MessageType.LOCAL_UPDATE:
-              handleUpdate(clientMessage);
-              break;
-            case MessageType.LOCAL_INVALIDATE:
-              handleInvalidate(clientMessage);
-              break;
-            case MessageType.LOCAL_DESTROY:
-              handleDestroy(clientMessage);
-              break;
-            case MessageType.LOCAL_DESTROY_REGION:
-              handleDestroyRegion(clientMessage);
-              break;
-            case MessageType.CLEAR_REGION:
-              handleClearRegion(clientMessage);
-              break;
-            case MessageType.REGISTER_INSTANTIATORS:
-              handleRegisterInstantiator(clientMessage, eventId);
-              break;
-            case MessageType.REGISTER_DATASERIALIZERS:
-              handleRegisterDataSerializer(clientMessage, eventId);
-              break;
-            case MessageType.CLIENT_MARKER:
-              handleMarker(clientMessage);
-              break;
-            case MessageType.INVALIDATE_REGION:
-              handleInvalidateRegion(clientMessage);
-              break;
-            case MessageType.CLIENT_REGISTER_INTEREST:
-              handleRegisterInterest(clientMessage);
-              break;
-            case MessageType.CLIENT_UNREGISTER_INTEREST:
-              handleUnregisterInterest(clientMessage);
-              break;
-            case MessageType.TOMBSTONE_OPERATION:
-              handleTombstoneOperation(clientMessage);
-              break;
-            default:
-              logger.warn(LocalizedMessage.create(
-                  LocalizedStrings.CacheClientUpdater_0_RECEIVED_AN_UNSUPPORTED_MESSAGE_TYPE_1,
-                  new Object[] {this, MessageType.getString(clientMessage.getMessageType())}));
-              break;
-          }
-
-          if (this.isOpCompleted && (this.isDurableClient || isDeltaSent)) {
-            this.qManager.getState().verifyIfDuplicate(eventId, true);
+          if (clientMessage.getMessageType() == MessageType.CLIENT_EVENT_BATCH) {
+            processBatch(clientMessage);
+          } else {
+            processMessage(clientMessage);
           }
 
           // TODO we should maintain the client's "live" view of the server
@@ -1888,6 +1927,11 @@ public class CacheClientUpdater extends Thread implements ClientUpdater, Disconn
       // noop since we never send messages
     }
 
+    @Override
+    public void incBytesSavedByCompression(long v) {
+      // noop since we never send messages
+    }
+
     @Override
     public void incMessagesBeingReceived(int bytes) {
       this.stats.incInt(messagesBeingReceivedId, 1);
@@ -201,6 +201,7 @@ public class CacheServerStats implements MessageStats {
 
   int receivedBytesId;
   int sentBytesId;
+  int bytesSavedByCompressionId;
 
   int outOfOrderBatchIdsId;
   int abandonedWriteRequestsId;
@@ -215,6 +216,8 @@ public class CacheServerStats implements MessageStats {
   int acceptThreadStartsId;
   int connectionThreadStartsId;
   int connectionThreadsId;
+  int sslHandshakesId;
+  int sslSessionsResumedId;
 
   // Load callback stats
   int connectionLoadId;
@@ -445,6 +448,9 @@ public class CacheServerStats implements MessageStats {
             "Total number of bytes received from clients.", "bytes"),
         statisticsFactory.createLongCounter("sentBytes", "Total number of bytes sent to clients.",
             "bytes"),
+        statisticsFactory.createLongCounter("bytesSavedByCompression",
+            "Total number of bytes not sent to clients because message parts were compressed.",
+            "bytes"),
         statisticsFactory.createIntGauge("messagesBeingReceived",
             "Current number of message being received off the network or being processed after reception.",
             "messages"),
@@ -467,6 +473,12 @@ public class CacheServerStats implements MessageStats {
             "starts"),
         statisticsFactory.createIntGauge("connectionThreads",
             "Current number of threads dealing with a client connection.", "threads"),
+        statisticsFactory.createIntCounter("sslHandshakes",
+            "Total number of TLS handshakes completed on connections accepted by the selector.",
+            "handshakes"),
+        statisticsFactory.createIntCounter("sslSessionsResumed",
+            "Total number of TLS handshakes on connections accepted by the selector that resumed a cached session instead of negotiating a new one.",
+            "handshakes"),
         statisticsFactory.createDoubleGauge("connectionLoad",
             "The load from client to server connections as reported by the load probe installed in this server",
             "load"),
@@ -587,6 +599,7 @@ public class CacheServerStats implements MessageStats {
 
     receivedBytesId = this.stats.nameToId("receivedBytes");
     sentBytesId = this.stats.nameToId("sentBytes");
+    bytesSavedByCompressionId = this.stats.nameToId("bytesSavedByCompression");
 
     messagesBeingReceivedId = this.stats.nameToId("messagesBeingReceived");
     messageBytesBeingReceivedId = this.stats.nameToId("messageBytesBeingReceived");
@@ -596,6 +609,8 @@ public class CacheServerStats implements MessageStats {
     acceptThreadStartsId = this.stats.nameToId("acceptThreadStarts");
     connectionThreadStartsId = this.stats.nameToId("connectionThreadStarts");
     connectionThreadsId = this.stats.nameToId("connectionThreads");
+    sslHandshakesId = this.stats.nameToId("sslHandshakes");
+    sslSessionsResumedId = this.stats.nameToId("sslSessionsResumed");
 
     connectionLoadId = this.stats.nameToId("connectionLoad");
     queueLoadId = this.stats.nameToId("queueLoad");
@@ -619,6 +634,21 @@ public class CacheServerStats implements MessageStats {
     this.stats.incInt(acceptsInProgressId, -1);
   }
 
+  public void incSslHandshakes(boolean resumed) {
+    this.stats.incInt(sslHandshakesId, 1);
+    if (resumed) {
+      this.stats.incInt(sslSessionsResumedId, 1);
+    }
+  }
+
+  public int getSslHandshakes() {
+    return this.stats.getInt(sslHandshakesId);
+  }
+
+  public int getSslSessionsResumed() {
+    return this.stats.getInt(sslSessionsResumedId);
+  }
+
   public void incConnectionThreads() {
     this.stats.incInt(connectionThreadsId, 1);
   }
@@ -938,6 +968,10 @@ public class CacheServerStats implements MessageStats {
     this.stats.incLong(sentBytesId, v);
   }
 
+  public void incBytesSavedByCompression(long v) {
+    this.stats.incLong(bytesSavedByCompressionId, v);
+  }
+
   public void incMessagesBeingReceived(int bytes) {
     stats.incInt(messagesBeingReceivedId, 1);
     if (bytes > 0) {
@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.tier.sockets;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.geode.internal.Version;
+import org.apache.geode.internal.cache.tier.MessageType;
+
+/**
+ * Packs the messages of several subscription events into a single
+ * {@link MessageType#CLIENT_EVENT_BATCH} message, and unpacks them again on the client. The first
+ * part of the batch message holds the number of events. Each event then contributes a part holding
+ * its message type, a part holding its number of parts, and each of its parts. The payloads of the
+ * event parts are moved into the batch rather than copied.
+ *
+ * @since Geode 1.8
+ */
+class ClientEventBatch {
+
+  private final List<Part> parts = new ArrayList<>();
+
+  private int eventCount;
+
+  private long payloadSize;
+
+  /**
+   * Adds the given event message to this batch, taking over the payloads of its parts. The message
+   * is left without payloads, so it may be cleared and reused as soon as this method returns.
+   */
+  void add(Message message) {
+    Part type = new Part();
+    type.setInt(message.getMessageType());
+    this.parts.add(type);
+    int numberOfParts = message.getNumberOfParts();
+    Part count = new Part();
+    count.setInt(numberOfParts);
+    this.parts.add(count);
+    for (int i = 0; i < numberOfParts; i++) {
+      Part part = new Part();
+      part.takeFrom(message.getPart(i));
+      this.payloadSize += part.getLength();
+      this.parts.add(part);
+    }
+    this.eventCount++;
+  }
+
+  int size() {
+    return this.eventCount;
+  }
+
+  /**
+   * Returns the number of payload bytes held by the events in this batch.
+   */
+  long getPayloadSize() {
+    return this.payloadSize;
+  }
+
+  /**
+   * Moves the events of this batch into a batch message, so it may only be called once.
+   */
+  Message toMessage(Version clientVersion) {
+    Message message = new Message(this.parts.size() + 1, clientVersion);
+    message.setMessageType(MessageType.CLIENT_EVENT_BATCH);
+    message.addIntPart(this.eventCount);
+    for (Part part : this.parts) {
+      message.addPartFrom(part);
+    }
+    return message;
+  }
+
+  /**
+   * Returns the number of events in a received batch message.
+   */
+  static int getEventCount(Message batch) {
+    return batch.getPart(0).getInt();
+  }
+
+  /**
+   * Loads the event starting at the given part of a received batch message into the given message.
+   *
+   * @return the index of the part at which the next event starts
+   */
+  static int readEvent(Message batch, int partIndex, Message event) {
+    event.clearParts();
+    event.setMessageType(batch.getPart(partIndex).getInt());
+    int numberOfParts = batch.getPart(partIndex + 1).getInt();
+    event.setNumberOfParts(numberOfParts);
+    int first = partIndex + 2;
+    for (int i = 0; i < numberOfParts; i++) {
+      Part part = batch.getPart(first + i);
+      event.getPart(i).init(part.getSerializedForm(), part.getTypeCode());
+    }
+    return first + numberOfParts;
+  }
+}
@@ -32,9 +32,11 @@ import org.apache.logging.log4j.Logger;
 import org.apache.geode.DataSerializer;
 import org.apache.geode.GemFireIOException;
 import org.apache.geode.InternalGemFireError;
+import org.apache.geode.SerializationException;
 import org.apache.geode.cache.query.internal.cq.InternalCqQuery;
 import org.apache.geode.cache.util.ObjectSizer;
 import org.apache.geode.internal.DSCODE;
+import org.apache.geode.internal.HeapDataOutputStream;
 import org.apache.geode.internal.InternalDataSerializer;
 import org.apache.geode.internal.Sendable;
 import org.apache.geode.internal.Version;
@@ -49,6 +51,7 @@ import org.apache.geode.internal.cache.tier.MessageType;
 import org.apache.geode.internal.cache.versions.VersionTag;
 import org.apache.geode.internal.logging.LogService;
 import org.apache.geode.internal.size.Sizeable;
+import org.apache.geode.internal.util.BlobHelper;
 
 
 /**
@@ -145,6 +148,19 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
 
   private VersionTag versionTag;
 
+  /**
+   * The parts of this message's client messages that are the same for every client of a version,
+   * serialized once per version. See {@link #addSharedPart}.
+   *
+   * @since Geode 1.8
+   */
+  private transient volatile SharedParts sharedParts;
+
+  private static final int KEY_PART = 0;
+  private static final int CALLBACK_ARGUMENT_PART = 1;
+  private static final int EVENT_ID_PART = 2;
+  private static final int VERSION_TAG_PART = 3;
+
   /* added up all constants and form single value */
   private static final int CONSTANT_MEMORY_OVERHEAD;
 
@@ -299,6 +315,13 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
     return this._operation == EnumListenerEvent.AFTER_UPDATE;
   }
 
+  /**
+   * Returns whether this message carries the delta of an update in addition to its full value.
+   */
+  public boolean hasDelta() {
+    return this.deltaBytes != null;
+  }
+
   public boolean isDestroy() {
     return this._operation == EnumListenerEvent.AFTER_DESTROY;
   }
@@ -397,8 +420,8 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
         message.addStringPart(this._regionName, true);
         // Currently serializing the key here instead of when the message
         // is put in the queue so that it can be conflated it later
-        message.addStringOrObjPart(this._keyOfInterest);
-        message.addObjPart(this._callbackArgument);
+        addSharedPart(message, clientVersion, KEY_PART, this._keyOfInterest);
+        addSharedPart(message, clientVersion, CALLBACK_ARGUMENT_PART, this._callbackArgument);
         message.addObjPart(Boolean.valueOf(isClientInterested(proxyId)));
         message.addObjPart(Boolean.FALSE);
 
@@ -415,9 +438,9 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
         message.addStringPart(this._regionName, true);
         // Currently serializing the key here instead of when the message
         // is put in the queue so that it can be conflated it later
-        message.addStringOrObjPart(this._keyOfInterest);
+        addSharedPart(message, clientVersion, KEY_PART, this._keyOfInterest);
         message.addRawPart(latestValue, (this._valueIsObject == 0x01));
-        message.addObjPart(this._callbackArgument);
+        addSharedPart(message, clientVersion, CALLBACK_ARGUMENT_PART, this._callbackArgument);
         message.addObjPart(Boolean.valueOf(isClientInterested(proxyId)));
         message.addObjPart(Boolean.valueOf(clientHasCq));
 
@@ -436,8 +459,8 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
 
       // Currently serializing the key here instead of when the message
       // is put in the queue so that it can be conflated it later
-      message.addStringOrObjPart(this._keyOfInterest);
-      message.addObjPart(this._callbackArgument);
+      addSharedPart(message, clientVersion, KEY_PART, this._keyOfInterest);
+      addSharedPart(message, clientVersion, CALLBACK_ARGUMENT_PART, this._callbackArgument);
       message.addObjPart(Boolean.valueOf(isClientInterested(proxyId)));
       message.addObjPart(Boolean.valueOf(clientHasCq));
 
@@ -448,7 +471,7 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
       message = new Message(4 + cqMsgParts, clientVersion);
       message.setMessageType(MessageType.LOCAL_DESTROY_REGION);
       message.addStringPart(this._regionName, true);
-      message.addObjPart(this._callbackArgument);
+      addSharedPart(message, clientVersion, CALLBACK_ARGUMENT_PART, this._callbackArgument);
       message.addObjPart(Boolean.valueOf(clientHasCq));
 
       if (clientHasCq) {
@@ -458,7 +481,7 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
       message = new Message(4 + cqMsgParts, clientVersion);
       message.setMessageType(MessageType.CLEAR_REGION);
       message.addStringPart(this._regionName, true);
-      message.addObjPart(this._callbackArgument);
+      addSharedPart(message, clientVersion, CALLBACK_ARGUMENT_PART, this._callbackArgument);
       message.addObjPart(Boolean.valueOf(clientHasCq));
 
       if (clientHasCq) {
@@ -468,7 +491,7 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
       message = new Message(4 + cqMsgParts, clientVersion);
       message.setMessageType(MessageType.INVALIDATE_REGION);
       message.addStringPart(this._regionName, true);
-      message.addObjPart(this._callbackArgument);
+      addSharedPart(message, clientVersion, CALLBACK_ARGUMENT_PART, this._callbackArgument);
       message.addObjPart(Boolean.valueOf(clientHasCq));
 
       if (clientHasCq) {
@@ -481,7 +504,7 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
     message.setTransactionId(0);
     // Add the EventId since 5.1 (used to prevent duplicate events
     // received on the client side after a failover)
-    message.addObjPart(this._eventIdentifier);
+    addSharedPart(message, clientVersion, EVENT_ID_PART, this._eventIdentifier);
     return message;
   }
 
@@ -511,10 +534,10 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
         // Add the key
         // Currently serializing the key here instead of when the message
         // is put in the queue so that it can be conflated it later
-        message.addStringOrObjPart(this._keyOfInterest);
+        addSharedPart(message, clientVersion, KEY_PART, this._keyOfInterest);
 
         // Add the callback argument
-        message.addObjPart(this._callbackArgument);
+        addSharedPart(message, clientVersion, CALLBACK_ARGUMENT_PART, this._callbackArgument);
 
         // Add interestlist status.
         message.addObjPart(Boolean.valueOf(isClientInterested(proxyId)));
@@ -537,7 +560,7 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
           // Add the key
           // Currently serializing the key here instead of when the message
           // is put in the queue so that it can be conflated it later
-          message.addStringOrObjPart(this._keyOfInterest);
+          addSharedPart(message, clientVersion, KEY_PART, this._keyOfInterest);
 
           message.addObjPart(Boolean.FALSE); // NO delta
           // Add the value (which has already been serialized)
@@ -551,7 +574,7 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
           // Add the key
           // Currently serializing the key here instead of when the message
           // is put in the queue so that it can be conflated it later
-          message.addStringOrObjPart(this._keyOfInterest);
+          addSharedPart(message, clientVersion, KEY_PART, this._keyOfInterest);
 
           if (this.deltaBytes != null && !conflation && !proxy.isMarkerEnqueued()
               && !proxy.getRegionsWithEmptyDataPolicy().containsKey(_regionName)) {
@@ -573,7 +596,7 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
         }
 
         // Add the callback argument
-        message.addObjPart(this._callbackArgument);
+        addSharedPart(message, clientVersion, CALLBACK_ARGUMENT_PART, this._callbackArgument);
 
         // Add interest list status.
         message.addObjPart(Boolean.valueOf(isClientInterested));
@@ -599,9 +622,9 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
 
       // Currently serializing the key here instead of when the message
       // is put in the queue so that it can be conflated later
-      message.addStringOrObjPart(this._keyOfInterest);
+      addSharedPart(message, clientVersion, KEY_PART, this._keyOfInterest);
 
-      message.addObjPart(this._callbackArgument);
+      addSharedPart(message, clientVersion, CALLBACK_ARGUMENT_PART, this._callbackArgument);
       message.addObjPart(Boolean.valueOf(isClientInterested(proxyId)));
       message.addObjPart(Boolean.valueOf(clientHasCq));
 
@@ -612,7 +635,7 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
       message = new Message(4 + cqMsgParts, clientVersion);
       message.setMessageType(MessageType.LOCAL_DESTROY_REGION);
       message.addStringPart(this._regionName, true);
-      message.addObjPart(this._callbackArgument);
+      addSharedPart(message, clientVersion, CALLBACK_ARGUMENT_PART, this._callbackArgument);
       message.addObjPart(Boolean.valueOf(clientHasCq));
 
       if (clientHasCq) {
@@ -622,7 +645,7 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
       message = new Message(4 + cqMsgParts, clientVersion);
       message.setMessageType(MessageType.CLEAR_REGION);
       message.addStringPart(this._regionName, true);
-      message.addObjPart(this._callbackArgument);
+      addSharedPart(message, clientVersion, CALLBACK_ARGUMENT_PART, this._callbackArgument);
       message.addObjPart(Boolean.valueOf(clientHasCq));
 
       if (clientHasCq) {
@@ -632,7 +655,7 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
       message = new Message(4 + cqMsgParts, clientVersion);
       message.setMessageType(MessageType.INVALIDATE_REGION);
       message.addStringPart(this._regionName, true);
-      message.addObjPart(this._callbackArgument);
+      addSharedPart(message, clientVersion, CALLBACK_ARGUMENT_PART, this._callbackArgument);
       message.addObjPart(Boolean.valueOf(clientHasCq));
 
       if (clientHasCq) {
@@ -645,7 +668,7 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
     message.setTransactionId(0);
     // Add the EventId since 5.1 (used to prevent duplicate events
     // received on the client side after a failover)
-    message.addObjPart(this._eventIdentifier);
+    addSharedPart(message, clientVersion, EVENT_ID_PART, this._eventIdentifier);
     return message;
   }
 
@@ -680,7 +703,7 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
         // Add the key
         // Currently serializing the key here instead of when the message
         // is put in the queue so that it can be conflated it later
-        message.addStringOrObjPart(this._keyOfInterest);
+        addSharedPart(message, clientVersion, KEY_PART, this._keyOfInterest);
       } else {
         // Notify by subscription - send the value
         message = new Message(8 + cqMsgParts, clientVersion);
@@ -695,7 +718,7 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
           // Add the key
           // Currently serializing the key here instead of when the message
           // is put in the queue so that it can be conflated it later
-          message.addStringOrObjPart(this._keyOfInterest);
+          addSharedPart(message, clientVersion, KEY_PART, this._keyOfInterest);
 
           message.addObjPart(Boolean.FALSE); // NO delta
           // Add the value (which has already been serialized)
@@ -709,7 +732,7 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
           // Add the key
           // Currently serializing the key here instead of when the message
           // is put in the queue so that it can be conflated it later
-          message.addStringOrObjPart(this._keyOfInterest);
+          addSharedPart(message, clientVersion, KEY_PART, this._keyOfInterest);
 
           if (this.deltaBytes != null && !conflation && !proxy.isMarkerEnqueued()
               && !proxy.getRegionsWithEmptyDataPolicy().containsKey(_regionName)) {
@@ -730,7 +753,7 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
         }
       }
 
-      message.addObjPart(this._callbackArgument);
+      addSharedPart(message, clientVersion, CALLBACK_ARGUMENT_PART, this._callbackArgument);
       message.addObjPart(Boolean.valueOf(isClientInterested(proxyId)));
       message.addObjPart(Boolean.valueOf(clientHasCq));
 
@@ -753,8 +776,8 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
         message.setMessageType(MessageType.LOCAL_INVALIDATE);
       }
       message.addStringPart(this._regionName, true);
-      message.addStringOrObjPart(this._keyOfInterest);
-      message.addObjPart(this._callbackArgument);
+      addSharedPart(message, clientVersion, KEY_PART, this._keyOfInterest);
+      addSharedPart(message, clientVersion, CALLBACK_ARGUMENT_PART, this._callbackArgument);
       message.addObjPart(Boolean.valueOf(isClientInterested(proxyId)));
       message.addObjPart(Boolean.valueOf(clientHasCq));
 
@@ -770,7 +793,7 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
       message = new Message(4 + cqMsgParts, clientVersion);
       message.setMessageType(MessageType.LOCAL_DESTROY_REGION);
       message.addStringPart(this._regionName, true);
-      message.addObjPart(this._callbackArgument);
+      addSharedPart(message, clientVersion, CALLBACK_ARGUMENT_PART, this._callbackArgument);
       message.addObjPart(Boolean.valueOf(clientHasCq));
 
       if (clientHasCq) {
@@ -780,7 +803,7 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
       message = new Message(4 + cqMsgParts, clientVersion);
       message.setMessageType(MessageType.CLEAR_REGION);
       message.addStringPart(this._regionName, true);
-      message.addObjPart(this._callbackArgument);
+      addSharedPart(message, clientVersion, CALLBACK_ARGUMENT_PART, this._callbackArgument);
       message.addObjPart(Boolean.valueOf(clientHasCq));
 
       if (clientHasCq) {
@@ -790,7 +813,7 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
       message = new Message(4 + cqMsgParts, clientVersion);
       message.setMessageType(MessageType.INVALIDATE_REGION);
       message.addStringPart(this._regionName, true);
-      message.addObjPart(this._callbackArgument);
+      addSharedPart(message, clientVersion, CALLBACK_ARGUMENT_PART, this._callbackArgument);
 
       // Add CQ status.
       message.addObjPart(Boolean.valueOf(clientHasCq));
@@ -805,7 +828,7 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
     message.setTransactionId(0);
     // Add the EventId since 5.1 (used to prevent duplicate events
     // received on the client side after a failover)
-    message.addObjPart(this._eventIdentifier);
+    addSharedPart(message, clientVersion, EVENT_ID_PART, this._eventIdentifier);
     return message;
   }
 
@@ -834,21 +857,21 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
         message = getMessage(7 + cqMsgParts, clientVersion);
         message.setMessageType(MessageType.LOCAL_INVALIDATE);
         message.addStringPart(this._regionName, true);
-        message.addStringOrObjPart(this._keyOfInterest);
+        addSharedPart(message, clientVersion, KEY_PART, this._keyOfInterest);
       } else {
         // Notify by subscription - send the value
         message = getMessage(9 + cqMsgParts, clientVersion);
         if (isCreate()) {
           message.setMessageType(MessageType.LOCAL_CREATE);
           message.addStringPart(this._regionName, true);
-          message.addStringOrObjPart(this._keyOfInterest);
+          addSharedPart(message, clientVersion, KEY_PART, this._keyOfInterest);
           message.addObjPart(Boolean.FALSE); // NO delta
           // Add the value (which has already been serialized)
           message.addRawPart(latestValue, (this._valueIsObject == 0x01));
         } else {
           message.setMessageType(MessageType.LOCAL_UPDATE);
           message.addStringPart(this._regionName, true);
-          message.addStringOrObjPart(this._keyOfInterest);
+          addSharedPart(message, clientVersion, KEY_PART, this._keyOfInterest);
 
           if (this.deltaBytes != null && !conflation && !proxy.isMarkerEnqueued()
               && !proxy.getRegionsWithEmptyDataPolicy().containsKey(_regionName)) {
@@ -869,11 +892,11 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
         }
       }
 
-      message.addObjPart(this._callbackArgument);
+      addSharedPart(message, clientVersion, CALLBACK_ARGUMENT_PART, this._callbackArgument);
       if (this.versionTag != null) {
         this.versionTag.setCanonicalIDs(proxy.getCache().getDistributionManager());
       }
-      message.addObjPart(this.versionTag);
+      addSharedPart(message, clientVersion, VERSION_TAG_PART, this.versionTag);
       message.addObjPart(Boolean.valueOf(isClientInterested(proxyId)));
       message.addObjPart(Boolean.valueOf(clientHasCq));
 
@@ -896,9 +919,9 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
         message.setMessageType(MessageType.LOCAL_INVALIDATE);
       }
       message.addStringPart(this._regionName, true);
-      message.addStringOrObjPart(this._keyOfInterest);
-      message.addObjPart(this._callbackArgument);
-      message.addObjPart(this.versionTag);
+      addSharedPart(message, clientVersion, KEY_PART, this._keyOfInterest);
+      addSharedPart(message, clientVersion, CALLBACK_ARGUMENT_PART, this._callbackArgument);
+      addSharedPart(message, clientVersion, VERSION_TAG_PART, this.versionTag);
       message.addObjPart(Boolean.valueOf(isClientInterested(proxyId)));
       message.addObjPart(Boolean.valueOf(clientHasCq));
 
@@ -914,7 +937,7 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
       message = getMessage(4 + cqMsgParts, clientVersion);
       message.setMessageType(MessageType.LOCAL_DESTROY_REGION);
       message.addStringPart(this._regionName, true);
-      message.addObjPart(this._callbackArgument);
+      addSharedPart(message, clientVersion, CALLBACK_ARGUMENT_PART, this._callbackArgument);
       message.addObjPart(Boolean.valueOf(clientHasCq));
 
       if (clientHasCq) {
@@ -924,7 +947,7 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
       message = getMessage(4 + cqMsgParts, clientVersion);
       message.setMessageType(MessageType.CLEAR_REGION);
       message.addStringPart(this._regionName, true);
-      message.addObjPart(this._callbackArgument);
+      addSharedPart(message, clientVersion, CALLBACK_ARGUMENT_PART, this._callbackArgument);
       message.addObjPart(Boolean.valueOf(clientHasCq));
 
       if (clientHasCq) {
@@ -934,7 +957,7 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
       message = getMessage(4 + cqMsgParts, clientVersion);
       message.setMessageType(MessageType.INVALIDATE_REGION);
       message.addStringPart(this._regionName, true);
-      message.addObjPart(this._callbackArgument);
+      addSharedPart(message, clientVersion, CALLBACK_ARGUMENT_PART, this._callbackArgument);
 
       // Add CQ status.
       message.addObjPart(Boolean.valueOf(clientHasCq));
@@ -949,10 +972,90 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
     message.setTransactionId(0);
     // Add the EventId since 5.1 (used to prevent duplicate events
     // received on the client side after a failover)
-    message.addObjPart(this._eventIdentifier);
+    addSharedPart(message, clientVersion, EVENT_ID_PART, this._eventIdentifier);
     return message;
   }
 
+  /**
+   * Adds the key, callback argument, event id or version tag of this message to a client message.
+   * Unlike {@link Message#addObjPart(Object)}, the part is serialized only for the first client of
+   * each version; the client messages built for all other clients share those bytes. The value is
+   * shared the same way because it is serialized once when this message is created.
+   */
+  private void addSharedPart(Message message, Version clientVersion, int index, Object part) {
+    if (part == null
+        || (index != KEY_PART && (part instanceof byte[] || part instanceof Boolean))) {
+      // Nothing to serialize
+      message.addObjPart(part);
+      return;
+    }
+    SharedParts shared = getSharedParts(clientVersion);
+    SerializedPart serialized = shared.parts[index];
+    if (serialized == null || serialized.source != part) {
+      serialized = new SerializedPart(part, index == KEY_PART, clientVersion);
+      shared.parts[index] = serialized;
+    }
+    message.addRawPart(serialized.bytes, serialized.isObject);
+  }
+
+  private SharedParts getSharedParts(Version clientVersion) {
+    SharedParts head = this.sharedParts;
+    for (SharedParts shared = head; shared != null; shared = shared.next) {
+      if (shared.version.equals(clientVersion)) {
+        return shared;
+      }
+    }
+    // Dispatchers racing here for different versions may drop each other's parts, which only
+    // costs serializing them again
+    SharedParts shared = new SharedParts(clientVersion, head);
+    this.sharedParts = shared;
+    return shared;
+  }
+
+  /**
+   * The serialized shared parts for one client version. Dispatcher threads read and fill them
+   * without locking; a part serialized twice by racing threads is harmless.
+   */
+  private static class SharedParts {
+    private final Version version;
+    private final SharedParts next;
+    private final SerializedPart[] parts = new SerializedPart[4];
+
+    private SharedParts(Version version, SharedParts next) {
+      this.version = version;
+      this.next = next;
+    }
+  }
+
+  private static class SerializedPart {
+    private final Object source;
+    private final byte[] bytes;
+    private final boolean isObject;
+
+    /**
+     * Serializes the part exactly like {@link Message#addStringOrObjPart(Object)} does for keys and
+     * {@link Message#addObjPart(Object)} does for everything else.
+     */
+    private SerializedPart(Object source, boolean isKey, Version clientVersion) {
+      this.source = source;
+      if (isKey && source instanceof String) {
+        try (HeapDataOutputStream hdos = new HeapDataOutputStream((String) source)) {
+          this.bytes = hdos.toByteArray();
+        }
+        this.isObject = false;
+        return;
+      }
+      Version version = clientVersion.equals(Version.CURRENT) ? null : clientVersion;
+      try (HeapDataOutputStream hdos = new HeapDataOutputStream(version)) {
+        BlobHelper.serializeTo(source, hdos);
+        this.bytes = hdos.toByteArray();
+      } catch (IOException ex) {
+        throw new SerializationException("failed serializing object", ex);
+      }
+      this.isObject = true;
+    }
+  }
+
   private static final ThreadLocal<Map<Integer, Message>> CACHED_MESSAGES =
       new ThreadLocal<Map<Integer, Message>>() {
         protected Map<Integer, Message> initialValue() {
@@ -1187,6 +1290,41 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
     return (this._clientInterestListInv != null && this._clientInterestListInv.contains(clientId));
   }
 
+  /**
+   * Returns whether the given client only receives this message because it updates entries already
+   * in the results of its CQs, so that dropping it does not affect which entries the client
+   * considers to be in those results.
+   */
+  public boolean isCqUpdateOnly(ClientProxyMembershipID clientId) {
+    if (!isUpdate() || isClientInterested(clientId) || this._clientCqs == null) {
+      return false;
+    }
+    CqNameToOp cqs = this._clientCqs.get(clientId);
+    return cqs != null && !cqs.isEmpty() && cqs.hasOnlyOp(MessageType.LOCAL_UPDATE);
+  }
+
+  /**
+   * Returns a copy of this update without its value, to be queued for the given client in place of
+   * this message. The client is sent the copy as an invalidate, as if it had registered interest
+   * without values. The copy has no CQ information, so it must not be used for clients with CQs on
+   * this event.
+   *
+   * @since Geode 1.9
+   */
+  ClientUpdateMessageImpl withoutValue(ClientProxyMembershipID clientId) {
+    ClientUpdateMessageImpl copy =
+        new ClientUpdateMessageImpl(this._operation, this._membershipId, this._eventIdentifier);
+    copy._regionName = this._regionName;
+    copy._keyOfInterest = this._keyOfInterest;
+    copy._valueIsObject = this._valueIsObject;
+    copy._callbackArgument = this._callbackArgument;
+    copy.versionTag = this.versionTag;
+    copy._shouldConflate = this._shouldConflate;
+    copy._isInterestListPassed = true;
+    copy.addClientInterestList(clientId, false);
+    return copy;
+  }
+
   protected Object deserialize(byte[] serializedBytes) {
     Object deserializedObject = serializedBytes;
     // This is a debugging method so ignore all exceptions like
@@ -1442,6 +1580,11 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
 
     String[] getNames();
 
+    /**
+     * Returns true if every CQ is mapped to the given operation.
+     */
+    boolean hasOnlyOp(int op);
+
     void add(String name, Integer op);
 
     void delete(String name);
@@ -1501,6 +1644,11 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
       return (isEmpty()) ? EMPTY_NAMES_ARRAY : this.name;
     }
 
+    @Override
+    public boolean hasOnlyOp(int op) {
+      return isEmpty() || this.op == op;
+    }
+
     @Override
     public void add(String name, Integer op) {
       if (isEmpty()) {
@@ -1552,6 +1700,16 @@ public class ClientUpdateMessageImpl implements ClientUpdateMessage, Sizeable, N
       return cqNames;
     }
 
+    @Override
+    public boolean hasOnlyOp(int op) {
+      for (Integer value : values()) {
+        if (value.intValue() != op) {
+          return false;
+        }
+      }
+      return true;
+    }
+
     @Override
     public void addToMessage(Message message) {
       Iterator<Entry<String, Integer>> entries = entrySet().iterator();
@@ -81,6 +81,9 @@ import org.apache.geode.internal.cache.tier.sockets.command.PutAll80;
 import org.apache.geode.internal.cache.tier.sockets.command.PutAllWithCallback;
 import org.apache.geode.internal.cache.tier.sockets.command.PutUserCredentials;
 import org.apache.geode.internal.cache.tier.sockets.command.Query651;
+import org.apache.geode.internal.cache.tier.sockets.command.QueryCursorClose;
+import org.apache.geode.internal.cache.tier.sockets.command.QueryCursorFetch;
+import org.apache.geode.internal.cache.tier.sockets.command.QueryCursorOpen;
 import org.apache.geode.internal.cache.tier.sockets.command.QueryGeode10;
 import org.apache.geode.internal.cache.tier.sockets.command.QueryWithParametersGeode10;
 import org.apache.geode.internal.cache.tier.sockets.command.RegisterDataSerializers;
@@ -329,8 +332,17 @@ public class CommandInitializer {
     ALL_COMMANDS.put(Version.GEODE_150, commands);
     ALL_COMMANDS.put(Version.GEODE_160, commands);
     ALL_COMMANDS.put(Version.GEODE_170, commands);
+
     ALL_COMMANDS.put(Version.GEODE_180, commands);
 
+    Map<Integer, Command> geode19Commands = new HashMap<Integer, Command>();
+    geode19Commands.putAll(commands);
+    // Query results streamed in client-requested batches through server-side cursors
+    geode19Commands.put(MessageType.QUERY_CURSOR_OPEN, QueryCursorOpen.getCommand());
+    geode19Commands.put(MessageType.QUERY_CURSOR_FETCH, QueryCursorFetch.getCommand());
+    geode19Commands.put(MessageType.QUERY_CURSOR_CLOSE, QueryCursorClose.getCommand());
+    ALL_COMMANDS.put(Version.GEODE_190, geode19Commands);
+
   }
 
   public static Map<Integer, Command> getCommands(Version version) {
@@ -122,6 +122,11 @@ public abstract class Handshake {
   /** @since GemFire 5.7 */
   protected byte clientConflation = CONFLATION_DEFAULT;
 
+  /** @since Geode 1.8 */
+  public static final byte EVENT_BATCHING_OFF = 0;
+  /** @since Geode 1.8 */
+  public static final byte EVENT_BATCHING_ON = 1;
+
   /**
    * @since GemFire 6.0.3 List of per client property override bits.
    */
@@ -176,7 +181,7 @@ public abstract class Handshake {
   // used by CacheClientNotifier's handshake reading code
   public static byte[] extractOverrides(byte[] values) {
     byte override = values[0];
-    byte[] overrides = new byte[1];
+    byte[] overrides = new byte[2];
     for (int item = 0; item < overrides.length; item++) {
       overrides[item] = (byte) (override & 0x03);
       override = (byte) (override >>> 2);
@@ -38,6 +38,7 @@ import org.apache.geode.internal.cache.tier.MessageType;
 import org.apache.geode.internal.i18n.LocalizedStrings;
 import org.apache.geode.internal.logging.LogService;
 import org.apache.geode.internal.logging.log4j.LocalizedMessage;
+import org.apache.geode.internal.net.WireCompressor;
 import org.apache.geode.internal.offheap.StoredObject;
 import org.apache.geode.internal.offheap.annotations.Unretained;
 import org.apache.geode.internal.util.BlobHelper;
@@ -88,6 +89,16 @@ public class Message {
 
   static final int DEFAULT_MAX_MESSAGE_SIZE = 1073741824;
 
+  /**
+   * Parts at least this many bytes long are compressed before being sent to a peer that has said
+   * it can read compressed parts. Compression is disabled if this property is not set.
+   */
+  public static final String WIRE_COMPRESSION_THRESHOLD_PROPERTY =
+      DistributionConfig.GEMFIRE_PREFIX + "client.wire-compression-threshold";
+
+  private static final WireCompressor defaultWireCompressor =
+      WireCompressor.fromSystemProperty(WIRE_COMPRESSION_THRESHOLD_PROPERTY);
+
   private static final Logger logger = LogService.getLogger();
 
   private static final int PART_HEADER_SIZE = 5; // 4 bytes for length, 1 byte for isObject
@@ -101,6 +112,9 @@ public class Message {
   // is left in place
   private static final byte MESSAGE_HAS_SECURE_PART = (byte) 0x02;
   private static final byte MESSAGE_IS_RETRY = (byte) 0x04;
+  // Set by a sender that is able to read compressed parts. A server only compresses the parts of
+  // its replies once the client has set this bit and only sets it on replies to clients that did.
+  private static final byte MESSAGE_ACCEPTS_COMPRESSED_PARTS = (byte) 0x08;
 
   private static final byte MESSAGE_IS_RETRY_MASK = (byte) 0xFB;
 
@@ -164,6 +178,14 @@ public class Message {
 
   private Version version;
 
+  private WireCompressor wireCompressor = defaultWireCompressor;
+
+  /** client side: should this message tell the server that we can read compressed parts? */
+  private boolean advertiseCompressedParts = false;
+
+  /** client side: has the server told us that it can read compressed parts? */
+  private boolean peerAcceptsCompressedParts = false;
+
   /**
    * Creates a new message with the given number of parts
    */
@@ -208,6 +230,56 @@ public class Message {
     this.flags &= MESSAGE_HAS_SECURE_PART;
   }
 
+  /**
+   * Used on the client side to negotiate compression of message parts with the server. If this
+   * member has compression enabled, the message tells the server that we can read compressed parts
+   * and, if the server has already told us the same, its own large parts are compressed.
+   *
+   * @param serverAcceptsCompressedParts true if a reply from the server on this endpoint has
+   *        returned true from {@link #isCompressedPartsAccepted()}
+   */
+  public void setCompressedPartsNegotiation(boolean serverAcceptsCompressedParts) {
+    this.advertiseCompressedParts = wireCompressor.isEnabled();
+    this.peerAcceptsCompressedParts = this.advertiseCompressedParts && serverAcceptsCompressedParts;
+  }
+
+  // for tests
+  void setWireCompressor(WireCompressor wireCompressor) {
+    this.wireCompressor = wireCompressor;
+  }
+
+  /**
+   * Returns true if the sender of this received message is able to read compressed parts.
+   */
+  public boolean isCompressedPartsAccepted() {
+    return (this.flags & MESSAGE_ACCEPTS_COMPRESSED_PARTS) != 0;
+  }
+
+  /**
+   * Returns true if this message should tell its receiver that we can read compressed parts. On
+   * the server side this is only done in reply to a client that said the same.
+   */
+  private boolean shouldAdvertiseCompressedParts() {
+    if (this.serverConnection != null) {
+      return shouldCompressParts();
+    }
+    return this.advertiseCompressedParts;
+  }
+
+  /**
+   * Returns true if large parts of this message should be compressed before they are sent.
+   */
+  private boolean shouldCompressParts() {
+    if (!wireCompressor.isEnabled()) {
+      return false;
+    }
+    if (this.serverConnection != null) {
+      Message request = this.serverConnection.getRequestMessage();
+      return request != null && request.isCompressedPartsAccepted();
+    }
+    return this.peerAcceptsCompressedParts;
+  }
+
   /**
    * Sets and builds the {@link Part}s that are sent in the payload of the Message
    */
@@ -430,6 +502,17 @@ public class Message {
     this.currentPart++;
   }
 
+  /**
+   * Adds a new part to this message holding the payload of the given part, which is moved rather
+   * than copied.
+   */
+  void addPartFrom(Part other) {
+    this.messageModified = true;
+    Part part = this.partsList[this.currentPart];
+    part.takeFrom(other);
+    this.currentPart++;
+  }
+
   public int getMessageType() {
     return this.messageType;
   }
@@ -516,6 +599,9 @@ public class Message {
     if (this.isRetry) {
       flagsByte |= MESSAGE_IS_RETRY;
     }
+    if (shouldAdvertiseCompressedParts()) {
+      flagsByte |= MESSAGE_ACCEPTS_COMPRESSED_PARTS;
+    }
     getCommBuffer().putInt(this.messageType).putInt(msgLen).putInt(this.numberOfParts)
         .putInt(this.transactionId).put(flagsByte);
   }
@@ -564,8 +650,18 @@ public class Message {
         long headerLen = 0;
         int partsToTransmit = this.numberOfParts;
 
+        // compressed copies of the parts are sent in their place, leaving the parts themselves
+        // untouched in case this message is resent to a server that can't read them
+        Part[] compressedParts = null;
+        if (shouldCompressParts()) {
+          compressedParts = compressParts();
+        }
+
         for (int i = 0; i < this.numberOfParts; i++) {
           Part part = this.partsList[i];
+          if (compressedParts != null && compressedParts[i] != null) {
+            part = compressedParts[i];
+          }
           headerLen += PART_HEADER_SIZE;
           totalPartLen += part.getLength();
         }
@@ -596,6 +692,9 @@ public class Message {
         packHeaderInfoForSending(msgLen, securityPart != null);
         for (int i = 0; i < partsToTransmit; i++) {
           Part part = i == this.numberOfParts ? securityPart : this.partsList[i];
+          if (compressedParts != null && i < this.numberOfParts && compressedParts[i] != null) {
+            part = compressedParts[i];
+          }
 
           if (commBuffer.remaining() < PART_HEADER_SIZE) {
             flushBuffer();
@@ -633,6 +732,31 @@ public class Message {
     }
   }
 
+  /**
+   * Compresses the parts of this message that are large enough to be worth compressing.
+   *
+   * @return the compressed parts, indexed like partsList, or null if none were compressed
+   */
+  private Part[] compressParts() {
+    Part[] compressedParts = null;
+    long bytesSaved = 0;
+    for (int i = 0; i < this.numberOfParts; i++) {
+      Part part = this.partsList[i];
+      Part compressed = part.compress(wireCompressor);
+      if (compressed != null) {
+        if (compressedParts == null) {
+          compressedParts = new Part[this.numberOfParts];
+        }
+        compressedParts[i] = compressed;
+        bytesSaved += part.getLength() - compressed.getLength();
+      }
+    }
+    if (bytesSaved > 0 && this.messageStats != null) {
+      this.messageStats.incBytesSavedByCompression(bytesSaved);
+    }
+    return compressedParts;
+  }
+
   void flushBuffer() throws IOException {
     final ByteBuffer cb = getCommBuffer();
     if (this.socketChannel != null) {
@@ -932,6 +1056,10 @@ public class Message {
           }
         }
       }
+      if ((partType & Part.COMPRESSED_BIT) != 0) {
+        partType &= ~Part.COMPRESSED_BIT;
+        partBytes = wireCompressor.decompress(partBytes);
+      }
       part.init(partBytes, partType);
     }
   }
@@ -1090,6 +1218,8 @@ public class Message {
     this.outputStream = null;
     this.cachedCommBuffer = null;
     this.messageStats = null;
+    this.advertiseCompressedParts = false;
+    this.peerAcceptsCompressedParts = false;
   }
 
   /**
@@ -25,6 +25,8 @@ public interface MessageStats {
 
   void incSentBytes(long v);
 
+  void incBytesSavedByCompression(long v);
+
   void incMessagesBeingReceived(int bytes);
 
   void decMessagesBeingReceived(int bytes);
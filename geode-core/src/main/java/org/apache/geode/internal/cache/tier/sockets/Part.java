@@ -25,6 +25,7 @@ import org.apache.geode.internal.Assert;
 import org.apache.geode.internal.DSCODE;
 import org.apache.geode.internal.HeapDataOutputStream;
 import org.apache.geode.internal.Version;
+import org.apache.geode.internal.net.WireCompressor;
 import org.apache.geode.internal.offheap.AddressableMemoryManager;
 import org.apache.geode.internal.offheap.StoredObject;
 
@@ -51,6 +52,14 @@ public class Part {
   private static final byte EMPTY_BYTEARRAY_CODE = 2;
   private static final byte[] EMPTY_BYTE_ARRAY = new byte[0];
 
+  /**
+   * Or'd into the type code of a part whose payload was compressed by the sender. Only sent to
+   * peers that have said they can read compressed parts.
+   *
+   * @see Message#isCompressedPartsAccepted()
+   */
+  static final byte COMPRESSED_BIT = 0x10;
+
   /**
    * The payload of this part. Could be null, a byte[] or a HeapDataOutputStream on the send side.
    * Could be null, or a byte[] on the receiver side.
@@ -162,6 +171,46 @@ public class Part {
     }
   }
 
+  /**
+   * Returns a copy of this part whose payload has been compressed, or null if this part is too
+   * small to be compressed or does not get smaller when compressed. This part is left unchanged so
+   * that the message can still be resent uncompressed.
+   */
+  Part compress(WireCompressor compressor) {
+    if (!compressor.shouldCompress(getLength())) {
+      return null;
+    }
+    byte[] compressed = compressor.compress(getPayloadBytes());
+    if (compressed == null) {
+      return null;
+    }
+    Part result = new Part();
+    result.part = compressed;
+    result.typeCode = (byte) (this.typeCode | COMPRESSED_BIT);
+    return result;
+  }
+
+  /**
+   * Moves the payload of the given part to this part without copying it, leaving the given part
+   * empty so that clearing or reusing it does not affect this part.
+   */
+  void takeFrom(Part other) {
+    this.part = other.part;
+    this.typeCode = other.typeCode;
+    other.part = null;
+    other.typeCode = BYTE_CODE;
+  }
+
+  private byte[] getPayloadBytes() {
+    if (this.part instanceof byte[]) {
+      return (byte[]) this.part;
+    } else if (this.part instanceof StoredObject) {
+      return ((StoredObject) this.part).getValueAsHeapByteArray();
+    } else {
+      return ((HeapDataOutputStream) this.part).toByteArray();
+    }
+  }
+
   public String getString() {
     if (this.part == null) {
       return null;
@@ -35,7 +35,6 @@ import java.util.Map;
 import java.util.Properties;
 import java.util.Random;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.LinkedBlockingQueue;
 
 import org.apache.commons.lang.mutable.MutableInt;
 import org.apache.logging.log4j.Logger;
@@ -66,6 +65,8 @@ import org.apache.geode.internal.i18n.LocalizedStrings;
 import org.apache.geode.internal.logging.InternalLogWriter;
 import org.apache.geode.internal.logging.LogService;
 import org.apache.geode.internal.logging.log4j.LocalizedMessage;
+import org.apache.geode.internal.net.BufferPool;
+import org.apache.geode.internal.net.NioSslSocket;
 import org.apache.geode.internal.security.AuthorizeRequest;
 import org.apache.geode.internal.security.AuthorizeRequestPP;
 import org.apache.geode.internal.security.SecurityService;
@@ -109,50 +110,27 @@ public abstract class ServerConnection implements Runnable {
 
   private final ServerSideHandshakeFactory handshakeFactory = new ServerSideHandshakeFactory();
 
-  // The key is the size of each ByteBuffer. The value is a queue of byte buffers all of that size.
-  private static final ConcurrentHashMap<Integer, LinkedBlockingQueue<ByteBuffer>> commBufferMap =
-      new ConcurrentHashMap<>(4, 0.75f, 1);
   private ServerConnectionCollection serverConnectionCollection;
 
+  /**
+   * Returns a buffer for reading and writing messages on the given socket. Sockets that have a
+   * channel get a direct buffer from the shared {@link BufferPool}.
+   */
   public static ByteBuffer allocateCommBuffer(int size, Socket sock) {
-    // I expect that size will almost always be the same value
     if (sock.getChannel() == null) {
       // The socket this commBuffer will be used for is old IO (it has no channel).
       // So the commBuffer should be heap based.
       return ByteBuffer.allocate(size);
     }
-    LinkedBlockingQueue<ByteBuffer> q = commBufferMap.get(size);
-    ByteBuffer result = null;
-    if (q != null) {
-      result = q.poll();
-    }
-    if (result == null) {
-      result = ByteBuffer.allocateDirect(size);
-    } else {
-      result.position(0);
-      result.limit(result.capacity());
-    }
-    return result;
+    return BufferPool.getInstance().acquireDirectBuffer(size);
   }
 
   public static void releaseCommBuffer(ByteBuffer bb) {
-    if (bb != null && bb.isDirect()) {
-      LinkedBlockingQueue<ByteBuffer> q = commBufferMap.get(bb.capacity());
-      if (q == null) {
-        q = new LinkedBlockingQueue<>();
-        LinkedBlockingQueue<ByteBuffer> oldQ = commBufferMap.putIfAbsent(bb.capacity(), q);
-        if (oldQ != null) {
-          q = oldQ;
-        }
-      }
-      q.offer(bb);
-    }
+    BufferPool.getInstance().release(bb);
   }
 
   public static void emptyCommBufferPool() {
-    for (LinkedBlockingQueue<ByteBuffer> q : commBufferMap.values()) {
-      q.clear();
-    }
+    BufferPool.getInstance().clear();
   }
 
   protected Socket theSocket;
@@ -1215,6 +1193,11 @@ public abstract class ServerConnection implements Runnable {
         if (!isTerminated()) {
           getAcceptor().setTLCommBuffer();
           doOneMessage();
+          // the selector does not see requests that an SSLEngine has already
+          // read from the channel, so process them before reregistering
+          while (this.processMessages && !(this.crHelper.isShutdown()) && hasBufferedInput()) {
+            doOneMessage();
+          }
           if (this.processMessages && !(this.crHelper.isShutdown())) {
             registerWithSelector(); // finished msg so reregister
             finishedMsg = true;
@@ -1281,7 +1264,12 @@ public abstract class ServerConnection implements Runnable {
   }
 
   public SelectableChannel getSelectableChannel() {
-    return this.theSocket.getChannel();
+    return NioSslSocket.getSocketChannel(this.theSocket);
+  }
+
+  private boolean hasBufferedInput() throws IOException {
+    return this.theSocket instanceof NioSslSocket
+        && ((NioSslSocket) this.theSocket).hasBufferedInput();
   }
 
   public void registerWithSelector2(Selector s) throws IOException {
@@ -1297,7 +1285,7 @@ public abstract class ServerConnection implements Runnable {
     // if (this.sKey != null) {
     // this.sKey = null;
     // }
-    SelectableChannel c = this.theSocket.getChannel();
+    SelectableChannel c = getSelectableChannel();
     c.configureBlocking(true);
   }
 
@@ -1483,11 +1471,12 @@ public abstract class ServerConnection implements Runnable {
 
   protected void initStreams(Socket s, int socketBufferSize, MessageStats msgStats) {
     try {
-      if (getAcceptor().isSelector()) {
+      if (getAcceptor().isSelector() && s.getChannel() != null) {
         // set it on the message to null. This causes Message
         // to fetch it from a thread local. That way we only need
         // one per thread in our selector thread pool instead of
-        // one per connection.
+        // one per connection. SSL connections use streams, which
+        // need a heap buffer of their own.
         commBuffer = null;
       } else {
         commBuffer = allocateCommBuffer(socketBufferSize, s);
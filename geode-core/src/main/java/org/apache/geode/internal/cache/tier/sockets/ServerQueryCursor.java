@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.tier.sockets;
+
+import java.util.Iterator;
+import java.util.Objects;
+
+import org.apache.geode.cache.query.types.CollectionType;
+
+/**
+ * The server side of a client query cursor. Holds the results of a query executed on behalf of a
+ * client and hands them out in batches as the client asks for them, so that the client controls
+ * how many rows are in flight at any time. Cursors are kept by the {@link CacheClientNotifier} and
+ * are discarded once they are exhausted, closed by the client or left idle.
+ *
+ * @see org.apache.geode.internal.cache.tier.MessageType#QUERY_CURSOR_OPEN
+ */
+public class ServerQueryCursor {
+
+  private final long id;
+
+  private final ClientProxyMembershipID proxyId;
+
+  private final String queryString;
+
+  private final Iterator<?> results;
+
+  private final CollectionType collectionType;
+
+  private final boolean isStructs;
+
+  private final boolean hasSerializedObjects;
+
+  /**
+   * Set whenever a batch is read and cleared by the idle cursor cleanup task; a cursor that is
+   * found unused by the task is discarded.
+   */
+  private volatile boolean lastUsed = true;
+
+  public ServerQueryCursor(long id, ClientProxyMembershipID proxyId, String queryString,
+      Iterator<?> results, CollectionType collectionType, boolean isStructs,
+      boolean hasSerializedObjects) {
+    this.id = id;
+    this.proxyId = proxyId;
+    this.queryString = queryString;
+    this.results = results;
+    this.collectionType = collectionType;
+    this.isStructs = isStructs;
+    this.hasSerializedObjects = hasSerializedObjects;
+  }
+
+  public long getId() {
+    return this.id;
+  }
+
+  public ClientProxyMembershipID getProxyId() {
+    return this.proxyId;
+  }
+
+  /**
+   * Returns true if this cursor was opened by the given client. Cursors are only read or closed by
+   * the client that opened them.
+   */
+  public boolean isOwnedBy(ClientProxyMembershipID proxyId) {
+    return Objects.equals(this.proxyId, proxyId);
+  }
+
+  public String getQueryString() {
+    return this.queryString;
+  }
+
+  public CollectionType getCollectionType() {
+    return this.collectionType;
+  }
+
+  public boolean isStructs() {
+    return this.isStructs;
+  }
+
+  public boolean hasSerializedObjects() {
+    return this.hasSerializedObjects;
+  }
+
+  /**
+   * Returns the remaining results. Callers must synchronize on this cursor while iterating.
+   */
+  Iterator<?> getResults() {
+    return this.results;
+  }
+
+  public boolean getLastUsed() {
+    return this.lastUsed;
+  }
+
+  public void setLastUsed(boolean lastUsed) {
+    this.lastUsed = lastUsed;
+  }
+
+  @Override
+  public String toString() {
+    return "ServerQueryCursor[id=" + this.id + "; client=" + this.proxyId + "; query="
+        + this.queryString + "]";
+  }
+}
@@ -0,0 +1,203 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.tier.sockets;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.internal.logging.LogService;
+
+/**
+ * Decides when a client's subscription queue is backlogged and which actions the server takes to
+ * bound it while it is, instead of letting it grow until the client has to be disconnected. A queue
+ * is backlogged once it holds more than a configured number of events or its oldest event has been
+ * queued for longer than a configured time. It stops being backlogged once both have fallen to half
+ * of those thresholds.
+ *
+ * <p>
+ * The actions are configured with the comma separated "gemfire.CacheClientProxy.slowConsumerPolicy"
+ * system property and default to none. One instance is kept per {@link CacheClientProxy}.
+ *
+ * @since Geode 1.8
+ */
+class SlowConsumerPolicy {
+  private static final Logger logger = LogService.getLogger();
+
+  /**
+   * Applies or lifts the configured actions when a queue enters or leaves the backlogged state.
+   */
+  interface BacklogListener {
+    void backlogChanged(boolean backlogged);
+  }
+
+  /**
+   * The actions that can be taken while a queue is backlogged.
+   */
+  enum Action {
+    /** Conflate queued updates of the same key, even if their region does not enable conflation */
+    CONFLATE,
+    /** Queue updates without their values, so that the client is sent invalidates instead */
+    INVALIDATE,
+    /** Queue only a sample of the CQ update events of non-durable clients */
+    SAMPLE
+  }
+
+  static final Set<Action> ACTIONS = parseActions(System
+      .getProperty(DistributionConfig.GEMFIRE_PREFIX + "CacheClientProxy.slowConsumerPolicy", ""));
+
+  /**
+   * The number of queued events above which a queue is backlogged. Zero disables the check.
+   */
+  static final int QUEUE_SIZE_THRESHOLD = Integer.getInteger(
+      DistributionConfig.GEMFIRE_PREFIX + "CacheClientProxy.slowConsumerQueueSize", 0);
+
+  /**
+   * The age in milliseconds of the oldest queued event above which a queue is backlogged. Zero
+   * disables the check.
+   */
+  static final long QUEUE_AGE_THRESHOLD = Long.getLong(
+      DistributionConfig.GEMFIRE_PREFIX + "CacheClientProxy.slowConsumerQueueAgeMillis", 0);
+
+  /**
+   * One in this many CQ update events is queued while sampling.
+   */
+  static final int SAMPLE_RATE = Math.max(Integer.getInteger(
+      DistributionConfig.GEMFIRE_PREFIX + "CacheClientProxy.slowConsumerSampleRate", 10), 1);
+
+  /**
+   * The minimum time in milliseconds between two checks of a queue.
+   */
+  static final long CHECK_INTERVAL = 100;
+
+  private final Set<Action> actions;
+
+  private final int sizeThreshold;
+
+  private final long ageThreshold;
+
+  private final int sampleRate;
+
+  private final AtomicLong sampled = new AtomicLong();
+
+  private volatile boolean backlogged;
+
+  private final AtomicLong nextCheck = new AtomicLong();
+
+  SlowConsumerPolicy() {
+    this(ACTIONS, QUEUE_SIZE_THRESHOLD, QUEUE_AGE_THRESHOLD, SAMPLE_RATE);
+  }
+
+  SlowConsumerPolicy(Set<Action> actions, int sizeThreshold, long ageThreshold, int sampleRate) {
+    this.actions = actions;
+    this.sizeThreshold = sizeThreshold;
+    this.ageThreshold = ageThreshold;
+    this.sampleRate = sampleRate;
+  }
+
+  /**
+   * Parses a comma separated list of action names, ignoring case. "none" and the empty string stand
+   * for no action; unknown names are logged and ignored.
+   */
+  static Set<Action> parseActions(String value) {
+    Set<Action> result = EnumSet.noneOf(Action.class);
+    for (String name : value.split(",")) {
+      name = name.trim().toUpperCase(Locale.ENGLISH);
+      if (name.isEmpty() || name.equals("NONE")) {
+        continue;
+      }
+      try {
+        result.add(Action.valueOf(name));
+      } catch (IllegalArgumentException e) {
+        logger.warn("Ignoring unknown slow consumer policy {}", name);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns whether any action is configured together with a threshold to trigger it.
+   */
+  boolean isEnabled() {
+    return !this.actions.isEmpty() && (this.sizeThreshold > 0 || this.ageThreshold > 0);
+  }
+
+  boolean hasAction(Action action) {
+    return this.actions.contains(action);
+  }
+
+  /**
+   * Returns whether the queue should be checked at the given time, claiming the check if so.
+   */
+  boolean isCheckDue(long now) {
+    long next = this.nextCheck.get();
+    return now >= next && this.nextCheck.compareAndSet(next, now + CHECK_INTERVAL);
+  }
+
+  /**
+   * Re-evaluates whether the queue is backlogged. The listener is notified of a change while the
+   * policy is locked, so that concurrent evaluations apply their changes in order.
+   *
+   * @param queueSize the number of events in the queue
+   * @param headAge supplies the age in milliseconds of the oldest event in the queue; only invoked
+   *        when a queue age threshold is configured
+   * @param listener notified if the queue entered or left the backlogged state
+   * @return whether the queue is backlogged
+   */
+  synchronized boolean evaluate(int queueSize, LongSupplier headAge, BacklogListener listener) {
+    // Leave the backlogged state only at half the thresholds so that a queue hovering around them
+    // does not flip on every check
+    boolean wasBacklogged = this.backlogged;
+    int sizeLimit = wasBacklogged ? this.sizeThreshold / 2 : this.sizeThreshold;
+    long ageLimit = wasBacklogged ? this.ageThreshold / 2 : this.ageThreshold;
+    boolean nowBacklogged = (this.sizeThreshold > 0 && queueSize > sizeLimit)
+        || (this.ageThreshold > 0 && headAge.getAsLong() > ageLimit);
+    if (nowBacklogged != wasBacklogged) {
+      listener.backlogChanged(nowBacklogged);
+      this.backlogged = nowBacklogged;
+    }
+    return nowBacklogged;
+  }
+
+  boolean isBacklogged() {
+    return this.backlogged;
+  }
+
+  /**
+   * Returns whether updates should currently be sent as invalidates.
+   */
+  boolean isInvalidating() {
+    return this.backlogged && this.actions.contains(Action.INVALIDATE);
+  }
+
+  /**
+   * Returns whether CQ update events should currently be sampled.
+   */
+  boolean isSampling() {
+    return this.backlogged && this.actions.contains(Action.SAMPLE);
+  }
+
+  /**
+   * Returns whether the next CQ update event should be queued while sampling.
+   */
+  boolean sample() {
+    return this.sampled.incrementAndGet() % this.sampleRate == 0;
+  }
+}
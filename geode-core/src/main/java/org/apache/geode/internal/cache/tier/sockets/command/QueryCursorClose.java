@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.tier.sockets.command;
+
+import java.io.IOException;
+
+import org.apache.geode.internal.cache.tier.Command;
+import org.apache.geode.internal.cache.tier.sockets.BaseCommand;
+import org.apache.geode.internal.cache.tier.sockets.CacheClientNotifier;
+import org.apache.geode.internal.cache.tier.sockets.Message;
+import org.apache.geode.internal.cache.tier.sockets.ServerConnection;
+import org.apache.geode.internal.cache.tier.sockets.ServerQueryCursor;
+import org.apache.geode.internal.security.SecurityService;
+
+/**
+ * Discards a query cursor opened by {@link QueryCursorOpen} before it has been read to the end.
+ * The only message part is the cursor id. Closing a cursor that no longer exists is not an error.
+ */
+public class QueryCursorClose extends BaseCommand {
+
+  private static final QueryCursorClose singleton = new QueryCursorClose();
+
+  public static Command getCommand() {
+    return singleton;
+  }
+
+  private QueryCursorClose() {}
+
+  @Override
+  public void cmdExecute(final Message clientMessage, final ServerConnection serverConnection,
+      final SecurityService securityService, long start) throws IOException, InterruptedException {
+    serverConnection.setAsTrue(REQUIRES_RESPONSE);
+    long cursorId = clientMessage.getPart(0).getLong();
+    CacheClientNotifier ccn = serverConnection.getAcceptor().getCacheClientNotifier();
+    ServerQueryCursor cursor = ccn.getQueryCursor(cursorId);
+    if (cursor != null && cursor.isOwnedBy(serverConnection.getProxyID())) {
+      ccn.removeQueryCursor(cursorId);
+    }
+    if (logger.isDebugEnabled()) {
+      logger.debug("{}: Closed query cursor {} for {}", serverConnection.getName(), cursorId,
+          serverConnection.getSocketString());
+    }
+    writeReply(clientMessage, serverConnection);
+    serverConnection.setAsTrue(RESPONDED);
+  }
+}
@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.tier.sockets.command;
+
+import java.io.IOException;
+
+import org.apache.geode.cache.query.QueryException;
+import org.apache.geode.internal.cache.tier.Command;
+import org.apache.geode.internal.cache.tier.sockets.BaseCommandQuery;
+import org.apache.geode.internal.cache.tier.sockets.CacheClientNotifier;
+import org.apache.geode.internal.cache.tier.sockets.Message;
+import org.apache.geode.internal.cache.tier.sockets.ServerConnection;
+import org.apache.geode.internal.cache.tier.sockets.ServerQueryCursor;
+import org.apache.geode.internal.security.SecurityService;
+
+/**
+ * Sends the next batch of rows of a query cursor opened by {@link QueryCursorOpen}. The message
+ * parts are the cursor id and the batch size.
+ */
+public class QueryCursorFetch extends BaseCommandQuery {
+
+  private static final QueryCursorFetch singleton = new QueryCursorFetch();
+
+  public static Command getCommand() {
+    return singleton;
+  }
+
+  private QueryCursorFetch() {}
+
+  @Override
+  public void cmdExecute(final Message clientMessage, final ServerConnection serverConnection,
+      final SecurityService securityService, long start) throws IOException, InterruptedException {
+    serverConnection.setAsTrue(REQUIRES_RESPONSE);
+    serverConnection.setAsTrue(REQUIRES_CHUNKED_RESPONSE);
+    long cursorId = clientMessage.getPart(0).getLong();
+    int fetchSize = Math.max(clientMessage.getPart(1).getInt(), 1);
+
+    if (logger.isDebugEnabled()) {
+      logger.debug("{}: Received query cursor fetch request from {} for cursor {} fetchSize: {}",
+          serverConnection.getName(), serverConnection.getSocketString(), cursorId, fetchSize);
+    }
+    CacheClientNotifier ccn = serverConnection.getAcceptor().getCacheClientNotifier();
+    ServerQueryCursor cursor = ccn.getQueryCursor(cursorId);
+    if (cursor == null || !cursor.isOwnedBy(serverConnection.getProxyID())) {
+      writeQueryResponseException(clientMessage, new QueryException(
+          "Query cursor " + cursorId + " does not exist; it may have expired or been closed"),
+          serverConnection);
+      return;
+    }
+    try {
+      sendQueryCursorBatch(clientMessage, cursor, fetchSize, serverConnection, securityService);
+    } catch (Exception e) {
+      checkForInterrupt(serverConnection, e);
+      // The rows of a failed batch are lost, so the cursor cannot be read any further.
+      ccn.removeQueryCursor(cursorId);
+      writeQueryResponseException(clientMessage, e, serverConnection);
+    }
+  }
+}
@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.tier.sockets.command;
+
+import java.io.IOException;
+import java.util.Set;
+
+import org.apache.geode.cache.operations.QueryOperationContext;
+import org.apache.geode.cache.query.Query;
+import org.apache.geode.cache.query.QueryInvalidException;
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.cache.query.internal.DefaultQuery;
+import org.apache.geode.internal.cache.tier.Command;
+import org.apache.geode.internal.cache.tier.sockets.BaseCommandQuery;
+import org.apache.geode.internal.cache.tier.sockets.CacheClientNotifier;
+import org.apache.geode.internal.cache.tier.sockets.Message;
+import org.apache.geode.internal.cache.tier.sockets.ServerConnection;
+import org.apache.geode.internal.security.AuthorizeRequest;
+import org.apache.geode.internal.security.SecurityService;
+
+/**
+ * Executes a query and returns the first batch of its results, keeping the rest in a server-side
+ * cursor that the client reads with {@link QueryCursorFetch}. The message parts are the query
+ * string, the batch size, the number of query parameters and the parameters themselves.
+ */
+public class QueryCursorOpen extends BaseCommandQuery {
+
+  private static final QueryCursorOpen singleton = new QueryCursorOpen();
+
+  public static Command getCommand() {
+    return singleton;
+  }
+
+  private QueryCursorOpen() {}
+
+  @Override
+  public void cmdExecute(final Message clientMessage, final ServerConnection serverConnection,
+      final SecurityService securityService, long start) throws IOException, InterruptedException {
+    serverConnection.setAsTrue(REQUIRES_RESPONSE);
+    serverConnection.setAsTrue(REQUIRES_CHUNKED_RESPONSE);
+    String queryString = clientMessage.getPart(0).getString();
+    int fetchSize = clientMessage.getPart(1).getInt();
+    Object[] queryParams = null;
+    try {
+      int params = clientMessage.getPart(2).getInt();
+      if (params > 0) {
+        queryParams = new Object[params];
+        for (int i = 0; i < queryParams.length; i++) {
+          queryParams[i] = clientMessage.getPart(i + 3).getObject();
+        }
+      }
+    } catch (ClassNotFoundException cne) {
+      throw new QueryInvalidException(cne.getMessage() + queryString);
+    }
+
+    if (logger.isDebugEnabled()) {
+      logger.debug("{}: Received query cursor request from {} queryString: {} fetchSize: {}{}",
+          serverConnection.getName(), serverConnection.getSocketString(), queryString, fetchSize,
+          (queryParams != null ? (" with num query parameters :" + queryParams.length) : ""));
+    }
+    try {
+      QueryService queryService =
+          serverConnection.getCachedRegionHelper().getCache().getLocalQueryService();
+      Query query;
+      if (queryParams != null) {
+        // Its a compiled query.
+        CacheClientNotifier ccn = serverConnection.getAcceptor().getCacheClientNotifier();
+        query = ccn.getCompiledQuery(queryString);
+        if (query == null) {
+          query = queryService.newQuery(queryString);
+          ccn.addCompiledQuery((DefaultQuery) query);
+        }
+        ccn.getStats().incCompiledQueryUsedCount(1);
+        ((DefaultQuery) query).setLastUsed(true);
+      } else {
+        query = queryService.newQuery(queryString);
+      }
+
+      Set regionNames = ((DefaultQuery) query).getRegionsInQuery(queryParams);
+
+      // Authorization check
+      QueryOperationContext queryContext = null;
+      AuthorizeRequest authzRequest = serverConnection.getAuthzRequest();
+      if (authzRequest != null) {
+        queryContext = authzRequest.queryAuthorize(queryString, regionNames, queryParams);
+        String newQueryString = queryContext.getQuery();
+        if (queryString != null && !queryString.equals(newQueryString)) {
+          query = queryService.newQuery(newQueryString);
+          queryString = newQueryString;
+          regionNames = queryContext.getRegionNames();
+          if (regionNames == null) {
+            regionNames = ((DefaultQuery) query).getRegionsInQuery(null);
+          }
+        }
+      }
+
+      processQueryUsingParams(clientMessage, query, queryString, regionNames, start, null,
+          queryContext, serverConnection, true, queryParams, securityService,
+          Math.max(fetchSize, 1));
+    } catch (QueryInvalidException e) {
+      throw new QueryInvalidException(e.getMessage() + queryString);
+    }
+  }
+}
@@ -85,6 +85,7 @@ import org.apache.geode.cache.query.RegionNotFoundException;
 import org.apache.geode.cache.query.internal.InternalQueryService;
 import org.apache.geode.cache.query.internal.MethodInvocationAuthorizer;
 import org.apache.geode.cache.query.internal.QueryMonitor;
+import org.apache.geode.cache.query.internal.QueryPlanCache;
 import org.apache.geode.cache.query.internal.cq.CqService;
 import org.apache.geode.cache.server.CacheServer;
 import org.apache.geode.cache.snapshot.CacheSnapshotService;
@@ -1205,6 +1206,11 @@ public class CacheCreation implements InternalCache {
     throw new UnsupportedOperationException(LocalizedStrings.SHOULDNT_INVOKE.toLocalizedString());
   }
 
+  @Override
+  public QueryPlanCache getQueryPlanCache() {
+    throw new UnsupportedOperationException(LocalizedStrings.SHOULDNT_INVOKE.toLocalizedString());
+  }
+
   @Override
   public void close(final String reason, final Throwable systemFailureCause,
       final boolean keepAlive, final boolean keepDS) {
@@ -1909,6 +1915,20 @@ public class CacheCreation implements InternalCache {
       return createIndex(indexName, IndexType.HASH, indexedExpression, regionPath, imports);
     }
 
+    @Override
+    public Index createBitmapIndex(String indexName, String indexedExpression, String regionPath)
+        throws IndexInvalidException, IndexNameConflictException, IndexExistsException,
+        RegionNotFoundException, UnsupportedOperationException {
+      return createBitmapIndex(indexName, indexedExpression, regionPath, "");
+    }
+
+    @Override
+    public Index createBitmapIndex(String indexName, String indexedExpression, String regionPath,
+        String imports) throws IndexInvalidException, IndexNameConflictException,
+        IndexExistsException, RegionNotFoundException, UnsupportedOperationException {
+      return createIndex(indexName, IndexType.BITMAP, indexedExpression, regionPath, imports);
+    }
+
     @Override
     public Index createIndex(String indexName, IndexType indexType, String indexedExpression,
         String fromClause) throws IndexInvalidException, IndexNameConflictException,
@@ -7742,6 +7742,12 @@ public class LocalizedStrings {
           "Lucene indexing in progress status cannot be determined if all members hosting the user data region : {0}, are not above Apache Geode 1.6.0 version ");
   public static final StringId LuceneQueryException_INDEX_NOT_AVAILABLE_CURRENTLY_INDEXING =
       new StringId(6677, "Lucene Index is not available, currently indexing");
+  public static final StringId DefaultQueryService_BITMAP_INDEX_CREATION_IS_NOT_SUPPORTED_FOR_MULTIPLE_ITERATORS =
+      new StringId(6678,
+          "Bitmap Index is not supported with from clause having multiple iterators(collections).");
+  public static final StringId DefaultQueryService_BITMAP_INDEX_CREATION_IS_NOT_SUPPORTED_FOR_ASYNC_MAINTENANCE =
+      new StringId(6679,
+          "Bitmap index is currently not supported for regions with Asynchronous index maintenance.");
   /** Testing strings, messageId 90000-99999 **/
 
   /**
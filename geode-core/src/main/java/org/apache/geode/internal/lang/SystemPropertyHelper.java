@@ -66,6 +66,25 @@ public class SystemPropertyHelper {
 
   public static final String THREAD_ID_EXPIRY_TIME_PROPERTY = "threadIdExpiryTime";
 
+  /**
+   * When set to "true", client subscription queues that overflow to disk evict their least recently
+   * used events instead of their most recently queued ones (defaults to false). Together with
+   * {@link #HA_REGION_QUEUE_READ_AHEAD_EVENTS} this keeps the tail, where events are enqueued, and
+   * the head, where they are dispatched, in memory while the middle of a large queue is on disk.
+   *
+   * @since Geode 1.8
+   */
+  public static final String HA_REGION_QUEUE_HEAD_AND_TAIL_RESIDENT =
+      "HARegionQueue.headAndTailResident";
+
+  /**
+   * This property configures how many events ahead of the dispatcher are faulted back in from disk
+   * when {@link #HA_REGION_QUEUE_HEAD_AND_TAIL_RESIDENT} is enabled. It defaults to 100.
+   *
+   * @since Geode 1.8
+   */
+  public static final String HA_REGION_QUEUE_READ_AHEAD_EVENTS = "HARegionQueue.readAheadEvents";
+
   public static final String PERSISTENT_VIEW_RETRY_TIMEOUT_SECONDS =
       "PERSISTENT_VIEW_RETRY_TIMEOUT_SECONDS";
 
@@ -0,0 +1,335 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.net;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.internal.logging.LogService;
+
+/**
+ * A pool of direct byte buffers shared by the peer-to-peer, client/server and gateway socket
+ * paths. Allocating direct memory is expensive and is only freed by the garbage collector, so
+ * connections borrow buffers from this pool and give them back when they are closed rather than
+ * allocating their own.
+ * <p>
+ * Buffers are pooled in power-of-two size classes. A buffer acquired from the pool has a capacity
+ * of at least the requested size and its limit set to the requested size. Requests larger than the
+ * largest size class are allocated exactly and are not pooled. The pool holds at most
+ * "gemfire.BufferPool.maxPooledBytes" of idle buffers; buffers released while the pool is full are
+ * left for the garbage collector.
+ * <p>
+ * One in every "gemfire.BufferPool.leakDetectionInterval" acquired buffers is tracked with a weak
+ * reference. If a tracked buffer is garbage collected without having been released a warning is
+ * logged, with the stack of the thread that acquired it, and the leak is counted.
+ *
+ * @see BufferPoolStats
+ */
+public class BufferPool {
+  private static final Logger logger = LogService.getLogger();
+
+  public static final String MAX_POOLED_BYTES_PROPERTY =
+      DistributionConfig.GEMFIRE_PREFIX + "BufferPool.maxPooledBytes";
+
+  public static final String LEAK_DETECTION_INTERVAL_PROPERTY =
+      DistributionConfig.GEMFIRE_PREFIX + "BufferPool.leakDetectionInterval";
+
+  static final long DEFAULT_MAX_POOLED_BYTES = 128L * 1024 * 1024;
+
+  static final int DEFAULT_LEAK_DETECTION_INTERVAL = 128;
+
+  /** log2 of the smallest size class */
+  static final int MIN_SIZE_CLASS = 10;
+
+  /** log2 of the largest size class */
+  static final int MAX_SIZE_CLASS = 24;
+
+  private static final BufferPool instance =
+      new BufferPool(Long.getLong(MAX_POOLED_BYTES_PROPERTY, DEFAULT_MAX_POOLED_BYTES),
+          Integer.getInteger(LEAK_DETECTION_INTERVAL_PROPERTY, DEFAULT_LEAK_DETECTION_INTERVAL));
+
+  private final long maxPooledBytes;
+
+  /** track every Nth acquired buffer for leaks; 0 disables leak detection */
+  private final int leakDetectionInterval;
+
+  private final ConcurrentLinkedQueue<ByteBuffer>[] sizeClasses;
+
+  private final AtomicLong pooledBytes = new AtomicLong();
+  private final AtomicLong pooledBuffers = new AtomicLong();
+  private final AtomicLong buffersInUse = new AtomicLong();
+  private final AtomicLong bytesInUse = new AtomicLong();
+  private final LongAdder acquires = new LongAdder();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder allocations = new LongAdder();
+  private final LongAdder allocatedBytes = new LongAdder();
+  private final LongAdder discards = new LongAdder();
+  private final LongAdder leaksDetected = new LongAdder();
+
+  private final AtomicLong acquireCount = new AtomicLong();
+
+  /**
+   * Trackers of the buffers currently being tracked for leaks, by the identity hash code of their
+   * buffer. Keyed by hash code rather than by buffer so that the map does not keep the buffers
+   * strongly reachable. Guarded by synchronizing on itself
+   */
+  private final Map<Integer, List<LeakTracker>> trackedBuffers = new HashMap<>();
+
+  private final ReferenceQueue<ByteBuffer> leakedBuffers = new ReferenceQueue<>();
+
+  @SuppressWarnings("unchecked")
+  BufferPool(long maxPooledBytes, int leakDetectionInterval) {
+    this.maxPooledBytes = maxPooledBytes;
+    this.leakDetectionInterval = leakDetectionInterval;
+    this.sizeClasses = new ConcurrentLinkedQueue[MAX_SIZE_CLASS + 1];
+    for (int i = MIN_SIZE_CLASS; i <= MAX_SIZE_CLASS; i++) {
+      this.sizeClasses[i] = new ConcurrentLinkedQueue<>();
+    }
+  }
+
+  /**
+   * Returns the pool shared by all connections in this JVM.
+   */
+  public static BufferPool getInstance() {
+    return instance;
+  }
+
+  /**
+   * Returns the size class that a buffer of the given size is pooled in, or -1 if buffers of that
+   * size are not pooled.
+   */
+  static int sizeClass(int size) {
+    if (size <= (1 << MIN_SIZE_CLASS)) {
+      return MIN_SIZE_CLASS;
+    }
+    int result = 32 - Integer.numberOfLeadingZeros(size - 1);
+    return result <= MAX_SIZE_CLASS ? result : -1;
+  }
+
+  /**
+   * Returns a direct buffer with a capacity of at least <code>size</code>, a position of zero and
+   * a limit of <code>size</code>. The buffer should be given back with {@link #release} once it is
+   * no longer used.
+   */
+  public ByteBuffer acquireDirectBuffer(int size) {
+    expungeLeakedBuffers();
+    this.acquires.increment();
+    int sizeClass = sizeClass(size);
+    ByteBuffer result = null;
+    if (sizeClass != -1) {
+      result = this.sizeClasses[sizeClass].poll();
+    }
+    if (result != null) {
+      this.hits.increment();
+      this.pooledBuffers.decrementAndGet();
+      this.pooledBytes.addAndGet(-result.capacity());
+      result.clear();
+    } else {
+      int capacity = sizeClass == -1 ? size : 1 << sizeClass;
+      result = ByteBuffer.allocateDirect(capacity);
+      this.allocations.increment();
+      this.allocatedBytes.add(capacity);
+    }
+    result.limit(size);
+    this.buffersInUse.incrementAndGet();
+    this.bytesInUse.addAndGet(result.capacity());
+    if (this.leakDetectionInterval > 0
+        && this.acquireCount.incrementAndGet() % this.leakDetectionInterval == 0) {
+      track(result);
+    }
+    return result;
+  }
+
+  /**
+   * Gives back a buffer obtained from {@link #acquireDirectBuffer}. Heap buffers are ignored. The
+   * caller must not use the buffer after releasing it.
+   */
+  public void release(ByteBuffer bb) {
+    if (bb == null || !bb.isDirect()) {
+      return;
+    }
+    expungeLeakedBuffers();
+    untrack(bb);
+    this.buffersInUse.decrementAndGet();
+    this.bytesInUse.addAndGet(-bb.capacity());
+
+    int sizeClass = sizeClass(bb.capacity());
+    if (sizeClass == -1 || (1 << sizeClass) != bb.capacity()) {
+      // not one of ours; leave it to the garbage collector
+      this.discards.increment();
+      return;
+    }
+    if (this.pooledBytes.addAndGet(bb.capacity()) > this.maxPooledBytes) {
+      this.pooledBytes.addAndGet(-bb.capacity());
+      this.discards.increment();
+      return;
+    }
+    bb.clear();
+    this.pooledBuffers.incrementAndGet();
+    this.sizeClasses[sizeClass].offer(bb);
+  }
+
+  /**
+   * Drops all idle buffers so that their memory can be reclaimed.
+   */
+  public void clear() {
+    for (int i = MIN_SIZE_CLASS; i <= MAX_SIZE_CLASS; i++) {
+      ByteBuffer bb = this.sizeClasses[i].poll();
+      while (bb != null) {
+        this.pooledBuffers.decrementAndGet();
+        this.pooledBytes.addAndGet(-bb.capacity());
+        bb = this.sizeClasses[i].poll();
+      }
+    }
+  }
+
+  private void track(ByteBuffer bb) {
+    LeakTracker tracker = new LeakTracker(bb, this.leakedBuffers);
+    synchronized (this.trackedBuffers) {
+      this.trackedBuffers.computeIfAbsent(tracker.identityHash, k -> new ArrayList<>(1))
+          .add(tracker);
+    }
+  }
+
+  private void untrack(ByteBuffer bb) {
+    if (this.leakDetectionInterval == 0) {
+      return;
+    }
+    LeakTracker tracker = null;
+    Integer identityHash = System.identityHashCode(bb);
+    synchronized (this.trackedBuffers) {
+      List<LeakTracker> trackers = this.trackedBuffers.get(identityHash);
+      if (trackers == null) {
+        return;
+      }
+      for (int i = 0; i < trackers.size(); i++) {
+        if (trackers.get(i).get() == bb) {
+          tracker = trackers.remove(i);
+          break;
+        }
+      }
+      if (trackers.isEmpty()) {
+        this.trackedBuffers.remove(identityHash);
+      }
+    }
+    if (tracker != null) {
+      tracker.clear();
+    }
+  }
+
+  private void forget(LeakTracker tracker) {
+    synchronized (this.trackedBuffers) {
+      List<LeakTracker> trackers = this.trackedBuffers.get(tracker.identityHash);
+      if (trackers != null && trackers.remove(tracker) && trackers.isEmpty()) {
+        this.trackedBuffers.remove(tracker.identityHash);
+      }
+    }
+  }
+
+  /**
+   * Accounts for tracked buffers that were garbage collected without being released.
+   */
+  private void expungeLeakedBuffers() {
+    LeakTracker tracker = (LeakTracker) this.leakedBuffers.poll();
+    while (tracker != null) {
+      forget(tracker);
+      this.leaksDetected.increment();
+      this.buffersInUse.decrementAndGet();
+      this.bytesInUse.addAndGet(-tracker.capacity);
+      logger.warn("A direct buffer of {} bytes was garbage collected without being released.",
+          tracker.capacity, tracker.acquiredAt);
+      tracker = (LeakTracker) this.leakedBuffers.poll();
+    }
+  }
+
+  /** Returns the number of idle buffers held by the pool */
+  public long getPooledBuffers() {
+    return this.pooledBuffers.get();
+  }
+
+  /** Returns the number of bytes of direct memory held by idle buffers in the pool */
+  public long getPooledBytes() {
+    return this.pooledBytes.get();
+  }
+
+  /** Returns the number of acquired buffers that have not been released */
+  public long getBuffersInUse() {
+    return this.buffersInUse.get();
+  }
+
+  /** Returns the capacity in bytes of acquired buffers that have not been released */
+  public long getBytesInUse() {
+    return this.bytesInUse.get();
+  }
+
+  /** Returns the number of buffers that have been acquired */
+  public long getAcquires() {
+    return this.acquires.sum();
+  }
+
+  /** Returns the number of acquired buffers that were satisfied from the pool */
+  public long getHits() {
+    return this.hits.sum();
+  }
+
+  /** Returns the number of buffers allocated from direct memory */
+  public long getAllocations() {
+    return this.allocations.sum();
+  }
+
+  /** Returns the number of bytes allocated from direct memory */
+  public long getAllocatedBytes() {
+    return this.allocatedBytes.sum();
+  }
+
+  /** Returns the number of released buffers that were not pooled */
+  public long getDiscards() {
+    return this.discards.sum();
+  }
+
+  /** Returns the number of tracked buffers that were garbage collected without being released */
+  public long getLeaksDetected() {
+    expungeLeakedBuffers();
+    return this.leaksDetected.sum();
+  }
+
+  /**
+   * A weak reference to an acquired buffer that is enqueued if the buffer is garbage collected
+   * before it is released.
+   */
+  private static class LeakTracker extends WeakReference<ByteBuffer> {
+    private final int capacity;
+    private final Integer identityHash;
+    private final Throwable acquiredAt;
+
+    LeakTracker(ByteBuffer bb, ReferenceQueue<ByteBuffer> queue) {
+      super(bb, queue);
+      this.capacity = bb.capacity();
+      this.identityHash = System.identityHashCode(bb);
+      this.acquiredAt = new Throwable("Buffer acquired by " + Thread.currentThread().getName());
+    }
+  }
+}
@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.net;
+
+import org.apache.geode.StatisticDescriptor;
+import org.apache.geode.Statistics;
+import org.apache.geode.StatisticsFactory;
+import org.apache.geode.StatisticsType;
+import org.apache.geode.StatisticsTypeFactory;
+import org.apache.geode.internal.statistics.StatisticsTypeFactoryImpl;
+
+/**
+ * Statistics that expose the occupancy and effectiveness of a {@link BufferPool}. The values are
+ * read from the pool each time the statistics are sampled.
+ */
+public class BufferPoolStats {
+
+  private static final StatisticsType type;
+
+  private static final int pooledBuffersId;
+  private static final int pooledBytesId;
+  private static final int buffersInUseId;
+  private static final int bytesInUseId;
+  private static final int acquiresId;
+  private static final int hitsId;
+  private static final int allocationsId;
+  private static final int allocatedBytesId;
+  private static final int discardsId;
+  private static final int leaksDetectedId;
+
+  static {
+    StatisticsTypeFactory f = StatisticsTypeFactoryImpl.singleton();
+    type = f.createType("BufferPoolStats", "Statistics about the shared pool of direct buffers",
+        new StatisticDescriptor[] {
+            f.createLongGauge("pooledBuffers",
+                "The number of idle direct buffers held by the pool.", "buffers"),
+            f.createLongGauge("pooledBytes",
+                "The number of bytes of direct memory held by idle buffers in the pool.", "bytes"),
+            f.createLongGauge("buffersInUse",
+                "The number of direct buffers acquired from the pool that have not been released.",
+                "buffers"),
+            f.createLongGauge("bytesInUse",
+                "The number of bytes of direct memory in buffers acquired from the pool that have not been released.",
+                "bytes"),
+            f.createLongCounter("acquires",
+                "The number of direct buffers that have been acquired from the pool.", "operations"),
+            f.createLongCounter("hits",
+                "The number of acquired buffers that were reused from the pool rather than allocated.",
+                "operations"),
+            f.createLongCounter("allocations",
+                "The number of direct buffers that the pool has allocated.", "operations"),
+            f.createLongCounter("allocatedBytes",
+                "The number of bytes of direct memory that the pool has allocated.", "bytes"),
+            f.createLongCounter("discards",
+                "The number of released buffers that were not kept because the pool was full or the buffer was too large.",
+                "operations"),
+            f.createLongCounter("leaksDetected",
+                "The number of sampled buffers that were garbage collected without being released to the pool.",
+                "operations")});
+
+    pooledBuffersId = type.nameToId("pooledBuffers");
+    pooledBytesId = type.nameToId("pooledBytes");
+    buffersInUseId = type.nameToId("buffersInUse");
+    bytesInUseId = type.nameToId("bytesInUse");
+    acquiresId = type.nameToId("acquires");
+    hitsId = type.nameToId("hits");
+    allocationsId = type.nameToId("allocations");
+    allocatedBytesId = type.nameToId("allocatedBytes");
+    discardsId = type.nameToId("discards");
+    leaksDetectedId = type.nameToId("leaksDetected");
+  }
+
+  private final Statistics stats;
+
+  public BufferPoolStats(StatisticsFactory factory, BufferPool pool) {
+    this.stats = factory.createAtomicStatistics(type, "bufferPool");
+    this.stats.setLongSupplier(pooledBuffersId, pool::getPooledBuffers);
+    this.stats.setLongSupplier(pooledBytesId, pool::getPooledBytes);
+    this.stats.setLongSupplier(buffersInUseId, pool::getBuffersInUse);
+    this.stats.setLongSupplier(bytesInUseId, pool::getBytesInUse);
+    this.stats.setLongSupplier(acquiresId, pool::getAcquires);
+    this.stats.setLongSupplier(hitsId, pool::getHits);
+    this.stats.setLongSupplier(allocationsId, pool::getAllocations);
+    this.stats.setLongSupplier(allocatedBytesId, pool::getAllocatedBytes);
+    this.stats.setLongSupplier(discardsId, pool::getDiscards);
+    this.stats.setLongSupplier(leaksDetectedId, pool::getLeaksDetected);
+  }
+
+  public void close() {
+    this.stats.close();
+  }
+}
@@ -0,0 +1,508 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.net;
+
+import static javax.net.ssl.SSLEngineResult.HandshakeStatus.FINISHED;
+import static javax.net.ssl.SSLEngineResult.HandshakeStatus.NEED_TASK;
+import static javax.net.ssl.SSLEngineResult.HandshakeStatus.NEED_WRAP;
+import static javax.net.ssl.SSLEngineResult.HandshakeStatus.NOT_HANDSHAKING;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLEngineResult;
+import javax.net.ssl.SSLEngineResult.HandshakeStatus;
+import javax.net.ssl.SSLException;
+import javax.net.ssl.SSLHandshakeException;
+import javax.net.ssl.SSLSession;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.internal.logging.LogService;
+
+/**
+ * Performs TLS over a {@link SocketChannel} with an {@link SSLEngine}, so that encrypted
+ * connections can be accepted and multiplexed by a selector instead of requiring a blocking
+ * {@link javax.net.ssl.SSLSocket}. Encrypted network data and decrypted application data are held
+ * in direct buffers borrowed from the {@link BufferPool}; they are given back when the engine is
+ * closed.
+ * <p>
+ * The handshake is done with the channel in non-blocking mode so that it can be bounded by a
+ * timeout, and the channel is left in blocking mode afterwards. The channel must be in blocking
+ * mode whenever the engine's streams are used.
+ * <p>
+ * Only the client/server {@code AcceptorImpl} uses this class. Peer-to-peer connections in
+ * {@code TCPConduit} still use blocking {@link javax.net.ssl.SSLSocket}s and give up NIO when
+ * SSL is enabled; moving them onto an engine is separate work.
+ *
+ * @see SocketCreator#createSSLEngine
+ * @see NioSslSocket
+ */
+public class NioSslEngine {
+  private static final Logger logger = LogService.getLogger();
+
+  private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+  private final SocketChannel channel;
+
+  private final SSLEngine engine;
+
+  private final Object readLock = new Object();
+
+  private final Object writeLock = new Object();
+
+  /** encrypted data waiting to be written to the channel */
+  private ByteBuffer myNetData;
+
+  /** encrypted data read from the channel that has not been unwrapped yet */
+  private ByteBuffer peerNetData;
+
+  /** decrypted data that has not been consumed by the input stream yet */
+  private ByteBuffer peerAppData;
+
+  private boolean resumed;
+
+  private volatile boolean inboundDone;
+
+  private volatile boolean closed;
+
+  private final InputStream inputStream = new EngineInputStream();
+
+  private final OutputStream outputStream = new EngineOutputStream();
+
+  public NioSslEngine(SocketChannel channel, SSLEngine engine) {
+    this.channel = channel;
+    this.engine = engine;
+    SSLSession session = engine.getSession();
+    this.myNetData = acquire(session.getPacketBufferSize());
+    this.peerNetData = acquire(session.getPacketBufferSize());
+    this.peerAppData = acquire(session.getApplicationBufferSize());
+  }
+
+  private static ByteBuffer acquire(int size) {
+    ByteBuffer buffer = BufferPool.getInstance().acquireDirectBuffer(size);
+    buffer.clear();
+    return buffer;
+  }
+
+  /**
+   * Returns a pooled buffer with room for at least <code>size</code> more bytes than the given
+   * buffer holds, containing the given buffer's data, and gives the given buffer back to the pool.
+   * The given buffer must be in fill mode.
+   */
+  private static ByteBuffer expand(ByteBuffer buffer, int size) {
+    if (buffer.remaining() >= size) {
+      return buffer;
+    }
+    ByteBuffer result = acquire(buffer.position() + size);
+    buffer.flip();
+    result.put(buffer);
+    BufferPool.getInstance().release(buffer);
+    return result;
+  }
+
+  public SocketChannel getChannel() {
+    return this.channel;
+  }
+
+  public SSLSession getSession() {
+    return this.engine.getSession();
+  }
+
+  /**
+   * Returns true if the last handshake resumed a cached session rather than negotiating a new
+   * one.
+   */
+  public boolean isSessionResumed() {
+    return this.resumed;
+  }
+
+  /**
+   * Performs the TLS handshake. The channel is switched to non-blocking mode for the duration of
+   * the handshake and back to blocking mode afterwards.
+   *
+   * @param timeout the maximum number of milliseconds to wait for the peer, or zero to wait forever
+   * @throws SocketTimeoutException if the handshake does not finish in time
+   */
+  public void handshake(int timeout) throws IOException {
+    long start = System.currentTimeMillis();
+    long deadline = timeout > 0 ? start + timeout : Long.MAX_VALUE;
+    Selector selector = Selector.open();
+    try {
+      this.channel.configureBlocking(false);
+      SelectionKey key = this.channel.register(selector, 0);
+      synchronized (this.readLock) {
+        synchronized (this.writeLock) {
+          this.engine.beginHandshake();
+          HandshakeStatus status = this.engine.getHandshakeStatus();
+          while (status != FINISHED && status != NOT_HANDSHAKING) {
+            switch (status) {
+              case NEED_TASK:
+                runDelegatedTasks();
+                status = this.engine.getHandshakeStatus();
+                break;
+              case NEED_WRAP:
+                status = wrapHandshake(key, deadline);
+                break;
+              case NEED_UNWRAP:
+                status = unwrapHandshake(key, deadline);
+                break;
+              default:
+                throw new IllegalStateException("Unexpected TLS handshake status " + status);
+            }
+          }
+        }
+      }
+    } finally {
+      selector.close();
+      this.channel.configureBlocking(true);
+    }
+    SSLSession session = this.engine.getSession();
+    this.resumed = session.getCreationTime() < start;
+    if (logger.isDebugEnabled()) {
+      logger.debug("Completed TLS handshake with {} using {} and {} (session resumed: {})",
+          this.channel.socket().getRemoteSocketAddress(), session.getProtocol(),
+          session.getCipherSuite(), this.resumed);
+    }
+  }
+
+  private HandshakeStatus wrapHandshake(SelectionKey key, long deadline) throws IOException {
+    this.myNetData.clear();
+    SSLEngineResult result = this.engine.wrap(EMPTY, this.myNetData);
+    switch (result.getStatus()) {
+      case BUFFER_OVERFLOW:
+        this.myNetData = expand(this.myNetData, this.engine.getSession().getPacketBufferSize());
+        return NEED_WRAP;
+      case CLOSED:
+        this.myNetData.flip();
+        writeNonBlocking(key, deadline);
+        throw new SSLHandshakeException("TLS handshake aborted by the local engine");
+      default:
+        this.myNetData.flip();
+        writeNonBlocking(key, deadline);
+        return result.getHandshakeStatus();
+    }
+  }
+
+  private HandshakeStatus unwrapHandshake(SelectionKey key, long deadline) throws IOException {
+    this.peerNetData.flip();
+    SSLEngineResult result;
+    try {
+      result = this.engine.unwrap(this.peerNetData, this.peerAppData);
+    } finally {
+      this.peerNetData.compact();
+    }
+    switch (result.getStatus()) {
+      case BUFFER_UNDERFLOW:
+        this.peerNetData = expand(this.peerNetData, this.engine.getSession().getPacketBufferSize());
+        if (readNonBlocking(key, deadline) < 0) {
+          this.engine.closeInbound();
+          throw new SSLHandshakeException("Connection closed by peer during TLS handshake");
+        }
+        return this.engine.getHandshakeStatus();
+      case BUFFER_OVERFLOW:
+        this.peerAppData =
+            expand(this.peerAppData, this.engine.getSession().getApplicationBufferSize());
+        return this.engine.getHandshakeStatus();
+      case CLOSED:
+        throw new SSLHandshakeException("Connection closed by peer during TLS handshake");
+      default:
+        return result.getHandshakeStatus();
+    }
+  }
+
+  private void writeNonBlocking(SelectionKey key, long deadline) throws IOException {
+    while (this.myNetData.hasRemaining()) {
+      if (this.channel.write(this.myNetData) == 0) {
+        await(key, SelectionKey.OP_WRITE, deadline);
+      }
+    }
+  }
+
+  private int readNonBlocking(SelectionKey key, long deadline) throws IOException {
+    int bytesRead = this.channel.read(this.peerNetData);
+    while (bytesRead == 0) {
+      await(key, SelectionKey.OP_READ, deadline);
+      bytesRead = this.channel.read(this.peerNetData);
+    }
+    return bytesRead;
+  }
+
+  private void await(SelectionKey key, int ops, long deadline) throws IOException {
+    long remaining = deadline - System.currentTimeMillis();
+    if (remaining <= 0) {
+      throw new SocketTimeoutException("Timed out during TLS handshake with "
+          + this.channel.socket().getRemoteSocketAddress());
+    }
+    key.interestOps(ops);
+    key.selector().select(deadline == Long.MAX_VALUE ? 0 : remaining);
+    key.selector().selectedKeys().clear();
+  }
+
+  private void runDelegatedTasks() {
+    Runnable task = this.engine.getDelegatedTask();
+    while (task != null) {
+      task.run();
+      task = this.engine.getDelegatedTask();
+    }
+  }
+
+  /**
+   * Returns true if data that has already been read from the channel can be returned by the input
+   * stream without reading the channel again. A selector will not report such a connection as
+   * readable, so its owner should keep reading from it.
+   */
+  public boolean hasBufferedInput() throws IOException {
+    synchronized (this.readLock) {
+      if (this.closed) {
+        return false;
+      }
+      while (this.peerAppData.position() == 0 && !this.inboundDone) {
+        if (!unwrapBuffered()) {
+          break;
+        }
+      }
+      return this.peerAppData.position() > 0;
+    }
+  }
+
+  /**
+   * Unwraps one record that has already been read from the channel. Returns false if there is no
+   * complete record to unwrap.
+   */
+  private boolean unwrapBuffered() throws IOException {
+    if (this.peerNetData.position() == 0) {
+      return false;
+    }
+    SSLEngineResult result;
+    for (;;) {
+      this.peerNetData.flip();
+      try {
+        result = this.engine.unwrap(this.peerNetData, this.peerAppData);
+      } finally {
+        this.peerNetData.compact();
+      }
+      if (result.getStatus() != SSLEngineResult.Status.BUFFER_OVERFLOW) {
+        break;
+      }
+      this.peerAppData =
+          expand(this.peerAppData, this.engine.getSession().getApplicationBufferSize());
+    }
+    switch (result.getStatus()) {
+      case BUFFER_UNDERFLOW:
+        this.peerNetData = expand(this.peerNetData, this.engine.getSession().getPacketBufferSize());
+        return false;
+      case CLOSED:
+        this.inboundDone = true;
+        return false;
+      default:
+        finishPostHandshake(result.getHandshakeStatus());
+        return true;
+    }
+  }
+
+  /**
+   * Completes messages that the engine exchanges after the handshake, such as session tickets or
+   * key updates.
+   */
+  private void finishPostHandshake(HandshakeStatus status) throws IOException {
+    if (status == NEED_TASK) {
+      runDelegatedTasks();
+      status = this.engine.getHandshakeStatus();
+    }
+    if (status == NEED_WRAP) {
+      synchronized (this.writeLock) {
+        wrapAndWrite(EMPTY);
+      }
+    }
+  }
+
+  private int read(byte[] bytes, int offset, int length) throws IOException {
+    if (length == 0) {
+      return 0;
+    }
+    synchronized (this.readLock) {
+      checkClosed();
+      while (this.peerAppData.position() == 0) {
+        if (this.inboundDone) {
+          return -1;
+        }
+        if (!unwrapBuffered() && !this.inboundDone) {
+          if (this.channel.read(this.peerNetData) < 0) {
+            this.inboundDone = true;
+            try {
+              this.engine.closeInbound();
+            } catch (SSLException ignore) {
+              // the peer closed the connection without sending close_notify
+            }
+          }
+        }
+      }
+      this.peerAppData.flip();
+      int bytesRead = Math.min(length, this.peerAppData.remaining());
+      this.peerAppData.get(bytes, offset, bytesRead);
+      this.peerAppData.compact();
+      return bytesRead;
+    }
+  }
+
+  private void write(byte[] bytes, int offset, int length) throws IOException {
+    ByteBuffer source = ByteBuffer.wrap(bytes, offset, length);
+    synchronized (this.writeLock) {
+      checkClosed();
+      while (source.hasRemaining()) {
+        wrapAndWrite(source);
+      }
+    }
+  }
+
+  /**
+   * Wraps data from the given buffer into one or more records and writes them to the channel,
+   * which must be in blocking mode. Must be called while holding the write lock.
+   */
+  private void wrapAndWrite(ByteBuffer source) throws IOException {
+    for (;;) {
+      this.myNetData.clear();
+      SSLEngineResult result = this.engine.wrap(source, this.myNetData);
+      switch (result.getStatus()) {
+        case BUFFER_OVERFLOW:
+          this.myNetData = expand(this.myNetData, this.engine.getSession().getPacketBufferSize());
+          continue;
+        case CLOSED:
+          if (result.bytesProduced() == 0) {
+            throw new SocketException("TLS connection is closed");
+          }
+          break;
+        default:
+          break;
+      }
+      this.myNetData.flip();
+      while (this.myNetData.hasRemaining()) {
+        this.channel.write(this.myNetData);
+      }
+      if (result.getHandshakeStatus() == NEED_TASK) {
+        runDelegatedTasks();
+      }
+      return;
+    }
+  }
+
+  private void checkClosed() throws SocketException {
+    if (this.closed) {
+      throw new SocketException("Socket is closed");
+    }
+  }
+
+  public InputStream getInputStream() {
+    return this.inputStream;
+  }
+
+  public OutputStream getOutputStream() {
+    return this.outputStream;
+  }
+
+  /**
+   * Sends a close_notify to the peer if the channel is still open and in blocking mode. The
+   * channel itself is not closed.
+   */
+  public void closeOutbound() {
+    if (this.closed) {
+      return;
+    }
+    synchronized (this.writeLock) {
+      if (this.closed) {
+        return;
+      }
+      this.engine.closeOutbound();
+      if (this.channel.isOpen() && this.channel.isBlocking()) {
+        try {
+          wrapAndWrite(EMPTY);
+        } catch (IOException e) {
+          logger.debug("Unable to send TLS close_notify to {}",
+              this.channel.socket().getRemoteSocketAddress(), e);
+        }
+      }
+    }
+  }
+
+  /**
+   * Gives the engine's buffers back to the pool. The channel should be closed first so that a
+   * thread blocked reading from it is released.
+   */
+  public void close() {
+    synchronized (this.readLock) {
+      synchronized (this.writeLock) {
+        if (this.closed) {
+          return;
+        }
+        this.closed = true;
+        BufferPool pool = BufferPool.getInstance();
+        pool.release(this.myNetData);
+        pool.release(this.peerNetData);
+        pool.release(this.peerAppData);
+        this.myNetData = null;
+        this.peerNetData = null;
+        this.peerAppData = null;
+      }
+    }
+  }
+
+  public boolean isClosed() {
+    return this.closed;
+  }
+
+  private class EngineInputStream extends InputStream {
+    private final byte[] single = new byte[1];
+
+    @Override
+    public int read() throws IOException {
+      int result = read(this.single, 0, 1);
+      return result < 0 ? -1 : (this.single[0] & 0xff);
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+      return NioSslEngine.this.read(bytes, offset, length);
+    }
+
+    @Override
+    public int available() throws IOException {
+      synchronized (NioSslEngine.this.readLock) {
+        return NioSslEngine.this.closed ? 0 : NioSslEngine.this.peerAppData.position();
+      }
+    }
+  }
+
+  private class EngineOutputStream extends OutputStream {
+    @Override
+    public void write(int b) throws IOException {
+      write(new byte[] {(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+      NioSslEngine.this.write(bytes, offset, length);
+    }
+  }
+}
@@ -0,0 +1,255 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.net;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.SocketAddress;
+import java.net.SocketException;
+import java.nio.channels.SocketChannel;
+
+/**
+ * A connected socket whose streams are encrypted by a {@link NioSslEngine}. All other operations
+ * are delegated to the socket of the engine's channel.
+ * <p>
+ * {@link #getChannel()} returns null so that code which writes to a socket's channel directly
+ * when it has one uses the encrypting streams instead. Code that registers the connection with a
+ * selector should use {@link #getSocketChannel()}.
+ */
+public class NioSslSocket extends Socket {
+
+  private final Socket socket;
+
+  private final NioSslEngine engine;
+
+  public NioSslSocket(NioSslEngine engine) {
+    super();
+    this.engine = engine;
+    this.socket = engine.getChannel().socket();
+  }
+
+  public NioSslEngine getEngine() {
+    return this.engine;
+  }
+
+  /**
+   * Returns the channel that carries the encrypted data.
+   */
+  public SocketChannel getSocketChannel() {
+    return this.engine.getChannel();
+  }
+
+  /**
+   * @see NioSslEngine#hasBufferedInput()
+   */
+  public boolean hasBufferedInput() throws IOException {
+    return this.engine.hasBufferedInput();
+  }
+
+  /**
+   * Returns the channel that carries the given socket's data, or null if it does not have one.
+   */
+  public static SocketChannel getSocketChannel(Socket socket) {
+    if (socket instanceof NioSslSocket) {
+      return ((NioSslSocket) socket).getSocketChannel();
+    }
+    return socket.getChannel();
+  }
+
+  @Override
+  public SocketChannel getChannel() {
+    return null;
+  }
+
+  @Override
+  public InputStream getInputStream() throws IOException {
+    if (isClosed()) {
+      throw new SocketException("Socket is closed");
+    }
+    return this.engine.getInputStream();
+  }
+
+  @Override
+  public OutputStream getOutputStream() throws IOException {
+    if (isClosed()) {
+      throw new SocketException("Socket is closed");
+    }
+    return this.engine.getOutputStream();
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    try {
+      this.engine.closeOutbound();
+      this.socket.close();
+    } finally {
+      this.engine.close();
+    }
+  }
+
+  @Override
+  public boolean isClosed() {
+    return this.socket.isClosed() || this.engine.isClosed();
+  }
+
+  @Override
+  public boolean isConnected() {
+    return this.socket.isConnected();
+  }
+
+  @Override
+  public boolean isBound() {
+    return this.socket.isBound();
+  }
+
+  @Override
+  public boolean isInputShutdown() {
+    return this.socket.isInputShutdown();
+  }
+
+  @Override
+  public boolean isOutputShutdown() {
+    return this.socket.isOutputShutdown();
+  }
+
+  @Override
+  public void shutdownInput() throws IOException {
+    this.socket.shutdownInput();
+  }
+
+  @Override
+  public void shutdownOutput() throws IOException {
+    this.engine.closeOutbound();
+    this.socket.shutdownOutput();
+  }
+
+  @Override
+  public InetAddress getInetAddress() {
+    return this.socket.getInetAddress();
+  }
+
+  @Override
+  public InetAddress getLocalAddress() {
+    return this.socket.getLocalAddress();
+  }
+
+  @Override
+  public int getPort() {
+    return this.socket.getPort();
+  }
+
+  @Override
+  public int getLocalPort() {
+    return this.socket.getLocalPort();
+  }
+
+  @Override
+  public SocketAddress getRemoteSocketAddress() {
+    return this.socket.getRemoteSocketAddress();
+  }
+
+  @Override
+  public SocketAddress getLocalSocketAddress() {
+    return this.socket.getLocalSocketAddress();
+  }
+
+  @Override
+  public void setTcpNoDelay(boolean on) throws SocketException {
+    this.socket.setTcpNoDelay(on);
+  }
+
+  @Override
+  public boolean getTcpNoDelay() throws SocketException {
+    return this.socket.getTcpNoDelay();
+  }
+
+  @Override
+  public void setSoLinger(boolean on, int linger) throws SocketException {
+    this.socket.setSoLinger(on, linger);
+  }
+
+  @Override
+  public int getSoLinger() throws SocketException {
+    return this.socket.getSoLinger();
+  }
+
+  @Override
+  public synchronized void setSoTimeout(int timeout) throws SocketException {
+    this.socket.setSoTimeout(timeout);
+  }
+
+  @Override
+  public synchronized int getSoTimeout() throws SocketException {
+    return this.socket.getSoTimeout();
+  }
+
+  @Override
+  public synchronized void setSendBufferSize(int size) throws SocketException {
+    this.socket.setSendBufferSize(size);
+  }
+
+  @Override
+  public synchronized int getSendBufferSize() throws SocketException {
+    return this.socket.getSendBufferSize();
+  }
+
+  @Override
+  public synchronized void setReceiveBufferSize(int size) throws SocketException {
+    this.socket.setReceiveBufferSize(size);
+  }
+
+  @Override
+  public synchronized int getReceiveBufferSize() throws SocketException {
+    return this.socket.getReceiveBufferSize();
+  }
+
+  @Override
+  public void setKeepAlive(boolean on) throws SocketException {
+    this.socket.setKeepAlive(on);
+  }
+
+  @Override
+  public boolean getKeepAlive() throws SocketException {
+    return this.socket.getKeepAlive();
+  }
+
+  @Override
+  public void setTrafficClass(int tc) throws SocketException {
+    this.socket.setTrafficClass(tc);
+  }
+
+  @Override
+  public int getTrafficClass() throws SocketException {
+    return this.socket.getTrafficClass();
+  }
+
+  @Override
+  public void setReuseAddress(boolean on) throws SocketException {
+    this.socket.setReuseAddress(on);
+  }
+
+  @Override
+  public boolean getReuseAddress() throws SocketException {
+    return this.socket.getReuseAddress();
+  }
+
+  @Override
+  public String toString() {
+    return "NioSslSocket[" + this.socket + "]";
+  }
+}
@@ -28,6 +28,7 @@ import java.net.SocketAddress;
 import java.net.SocketException;
 import java.net.UnknownHostException;
 import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
 import java.security.GeneralSecurityException;
 import java.security.KeyStore;
 import java.security.KeyStoreException;
@@ -66,6 +67,7 @@ import javax.net.ssl.SSLHandshakeException;
 import javax.net.ssl.SSLPeerUnverifiedException;
 import javax.net.ssl.SSLServerSocket;
 import javax.net.ssl.SSLSession;
+import javax.net.ssl.SSLSessionContext;
 import javax.net.ssl.SSLSocket;
 import javax.net.ssl.TrustManager;
 import javax.net.ssl.TrustManagerFactory;
@@ -167,6 +169,20 @@ public class SocketCreator {
    */
   private boolean ready = false;
 
+  /**
+   * The maximum number of TLS sessions cached for resumption by each side of the SSLContext. When
+   * not set the JDK's default is used.
+   */
+  public static final String SSL_SESSION_CACHE_SIZE_PROPERTY =
+      DistributionConfig.GEMFIRE_PREFIX + "ssl.sessionCacheSize";
+
+  /**
+   * The number of seconds a cached TLS session may be resumed for. When not set the JDK's default
+   * is used.
+   */
+  public static final String SSL_SESSION_TIMEOUT_PROPERTY =
+      DistributionConfig.GEMFIRE_PREFIX + "ssl.sessionTimeout";
+
   /**
    * Only print this SocketCreator's config once
    */
@@ -394,9 +410,28 @@ public class SocketCreator {
     TrustManager[] trustManagers = getTrustManagers();
 
     newSSLContext.init(keyManagers, trustManagers, null /* use the default secure random */);
+    configureSessionCache(newSSLContext.getServerSessionContext());
+    configureSessionCache(newSSLContext.getClientSessionContext());
     return newSSLContext;
   }
 
+  /**
+   * Sizes the cache of sessions that connections can resume instead of doing a full handshake.
+   */
+  private static void configureSessionCache(SSLSessionContext sessionContext) {
+    if (sessionContext == null) {
+      return;
+    }
+    Integer cacheSize = Integer.getInteger(SSL_SESSION_CACHE_SIZE_PROPERTY);
+    if (cacheSize != null) {
+      sessionContext.setSessionCacheSize(cacheSize);
+    }
+    Integer timeout = Integer.getInteger(SSL_SESSION_TIMEOUT_PROPERTY);
+    if (timeout != null) {
+      sessionContext.setSessionTimeout(timeout);
+    }
+  }
+
   /**
    * Used by CacheServerLauncher and SystemAdmin to read the properties from console
    *
@@ -992,6 +1027,78 @@ public class SocketCreator {
     }
   }
 
+  /**
+   * Creates an SSLEngine with this SocketCreator's protocols, ciphers and client authentication
+   * settings. Client engines are created with the peer's host and port so that a session cached for
+   * that peer can be resumed.
+   */
+  public SSLEngine createSSLEngine(String peerHost, int peerPort, boolean clientMode) {
+    if (this.sslContext == null) {
+      throw new GemFireConfigException(
+          "SSL not configured correctly, Please look at previous error");
+    }
+    SSLEngine engine;
+    if (clientMode) {
+      engine = this.sslContext.createSSLEngine(peerHost, peerPort);
+    } else {
+      engine = this.sslContext.createSSLEngine();
+    }
+    engine.setUseClientMode(clientMode);
+    engine.setEnableSessionCreation(true);
+    if (!clientMode && this.sslConfig.isRequireAuth()) {
+      engine.setNeedClientAuth(true);
+    }
+
+    String[] protocols = this.sslConfig.getProtocolsAsStringArray();
+    if (protocols != null && !"any".equalsIgnoreCase(protocols[0])) {
+      engine.setEnabledProtocols(protocols);
+    }
+    String[] ciphers = this.sslConfig.getCiphersAsStringArray();
+    if (ciphers != null && !"any".equalsIgnoreCase(ciphers[0])) {
+      engine.setEnabledCipherSuites(ciphers);
+    }
+    return engine;
+  }
+
+  /**
+   * Performs the SSL handshake on a socket that has a channel, such as one accepted from a
+   * ServerSocketChannel, and returns a socket whose streams are encrypted by an SSLEngine. Unlike
+   * an SSLSocket, the returned socket's channel can still be registered with a selector.
+   *
+   * @param timeout the number of milliseconds allowed for the handshake to complete
+   */
+  public NioSslSocket handshakeNioSocket(Socket socket, boolean clientMode, int timeout)
+      throws IOException {
+    SocketChannel channel = socket.getChannel();
+    SSLEngine engine = createSSLEngine(socket.getInetAddress().getHostAddress(),
+        socket.getPort(), clientMode);
+    NioSslEngine nioSslEngine = new NioSslEngine(channel, engine);
+    try {
+      nioSslEngine.handshake(timeout);
+      if (logger.isDebugEnabled()) {
+        Certificate[] peer = nioSslEngine.getSession().getPeerCertificates();
+        logger.debug(
+            LocalizedMessage.create(LocalizedStrings.SocketCreator_SSL_CONNECTION_FROM_PEER_0,
+                ((X509Certificate) peer[0]).getSubjectDN()));
+      }
+    } catch (SSLPeerUnverifiedException ex) {
+      if (this.sslConfig.isRequireAuth()) {
+        nioSslEngine.close();
+        logger.fatal(
+            LocalizedMessage.create(
+                LocalizedStrings.SocketCreator_SSL_ERROR_IN_AUTHENTICATING_PEER_0_1,
+                new Object[] {socket.getInetAddress(), Integer.valueOf(socket.getPort())}),
+            ex);
+        throw ex;
+      }
+      // else ignore
+    } catch (IOException | RuntimeException ex) {
+      nioSslEngine.close();
+      throw ex;
+    }
+    return new NioSslSocket(nioSslEngine);
+  }
+
   // -------------------------------------------------------------------------
   // Private implementation methods
   // -------------------------------------------------------------------------
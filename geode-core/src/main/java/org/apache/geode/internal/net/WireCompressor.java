@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.net;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.compression.CompressionException;
+import org.apache.geode.compression.Compressor;
+import org.apache.geode.compression.SnappyCompressor;
+import org.apache.geode.internal.logging.LogService;
+
+/**
+ * Compresses message payloads before they are written to a socket. This is used by the
+ * client/server protocol for individual message parts and by the peer-to-peer conduit for message
+ * frames. Payloads smaller than the threshold are sent as-is, as are payloads that do not shrink
+ * when compressed.
+ * <p>
+ * Decompression is always available, even if compression of outgoing payloads is disabled, so a
+ * member that has not enabled compression can still read what its peers send.
+ *
+ * @see SnappyCompressor
+ */
+public class WireCompressor {
+  private static final Logger logger = LogService.getLogger();
+
+  /**
+   * Threshold value that disables compression of outgoing payloads
+   */
+  public static final int DISABLED = -1;
+
+  private static final Compressor DEFAULT_COMPRESSOR = createDefaultCompressor();
+
+  private final int threshold;
+
+  private final Compressor compressor;
+
+  /**
+   * Creates a compressor that compresses payloads of at least <code>threshold</code> bytes using
+   * the default (snappy) codec.
+   */
+  public WireCompressor(int threshold) {
+    this(threshold, DEFAULT_COMPRESSOR);
+  }
+
+  WireCompressor(int threshold, Compressor compressor) {
+    this.threshold = threshold;
+    this.compressor = compressor;
+  }
+
+  /**
+   * Creates a compressor whose threshold is read from the given system property. Compression is
+   * disabled if the property is not set.
+   */
+  public static WireCompressor fromSystemProperty(String propertyName) {
+    return new WireCompressor(Integer.getInteger(propertyName, DISABLED));
+  }
+
+  private static Compressor createDefaultCompressor() {
+    try {
+      Class.forName("org.iq80.snappy.Snappy");
+      return new SnappyCompressor();
+    } catch (ClassNotFoundException | LinkageError e) {
+      logger.debug("Snappy is not available so messages will not be compressed on the wire", e);
+      return null;
+    }
+  }
+
+  public int getThreshold() {
+    return this.threshold;
+  }
+
+  /**
+   * Returns true if outgoing payloads may be compressed.
+   */
+  public boolean isEnabled() {
+    return this.threshold >= 0 && this.compressor != null;
+  }
+
+  /**
+   * Returns true if a payload of the given size should be compressed.
+   */
+  public boolean shouldCompress(int length) {
+    return isEnabled() && length > 0 && length >= this.threshold;
+  }
+
+  /**
+   * Compresses the given payload.
+   *
+   * @return the compressed bytes or null if the payload is too small to be compressed or does not
+   *         get smaller when compressed
+   */
+  public byte[] compress(byte[] payload) {
+    if (payload == null || !shouldCompress(payload.length)) {
+      return null;
+    }
+    byte[] result;
+    try {
+      result = this.compressor.compress(payload);
+    } catch (CompressionException e) {
+      logger.debug("Unable to compress a {} byte payload; sending it uncompressed", payload.length,
+          e);
+      return null;
+    }
+    if (result.length >= payload.length) {
+      return null;
+    }
+    return result;
+  }
+
+  /**
+   * Compresses the remaining bytes of the given buffer without changing its position.
+   *
+   * @return the compressed bytes or null if the payload was not compressed
+   * @see #compress(byte[])
+   */
+  public byte[] compress(ByteBuffer payload) {
+    if (!shouldCompress(payload.remaining())) {
+      return null;
+    }
+    byte[] bytes = new byte[payload.remaining()];
+    payload.duplicate().get(bytes);
+    return compress(bytes);
+  }
+
+  /**
+   * Decompresses a payload that was produced by {@link #compress(byte[])} on the sending side.
+   *
+   * @throws IOException if the payload could not be decompressed
+   */
+  public byte[] decompress(byte[] payload) throws IOException {
+    if (this.compressor == null) {
+      throw new IOException(
+          "Received a compressed message but no compression codec is available to read it");
+    }
+    try {
+      return this.compressor.decompress(payload);
+    } catch (CompressionException e) {
+      throw new IOException("Unable to decompress a " + payload.length + " byte message payload",
+          e);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "WireCompressor[threshold=" + this.threshold + "; compressor=" + this.compressor + "]";
+  }
+}
@@ -82,6 +82,7 @@ import org.apache.geode.internal.logging.LoggingThreadGroup;
 import org.apache.geode.internal.logging.log4j.AlertAppender;
 import org.apache.geode.internal.logging.log4j.LocalizedMessage;
 import org.apache.geode.internal.net.SocketCreator;
+import org.apache.geode.internal.net.WireCompressor;
 import org.apache.geode.internal.tcp.MsgReader.Header;
 import org.apache.geode.internal.util.concurrent.ReentrantSemaphore;
 
@@ -103,6 +104,15 @@ public class Connection implements Runnable {
   public static final int CHUNKED_MSG_TYPE = 0x4d; // a chunk of one logical msg
   public static final int END_CHUNKED_MSG_TYPE = 0x4e; // last in a series of chunks
   public static final int DIRECT_ACK_BIT = 0x20;
+  /** set in the message type of a frame whose payload was compressed by the sender */
+  public static final int COMPRESSED_BIT = 0x10;
+
+  /**
+   * Compresses outgoing frames of at least "p2p.compressionThreshold" bytes and decompresses
+   * incoming ones
+   */
+  static final WireCompressor wireCompressor =
+      WireCompressor.fromSystemProperty("p2p.compressionThreshold");
 
   public static final int MSG_HEADER_SIZE_OFFSET = 0;
   public static final int MSG_HEADER_TYPE_OFFSET = 4;
@@ -228,6 +238,12 @@ public class Connection implements Runnable {
    */
   Version remoteVersion;
 
+  /**
+   * True if the remote side of this sending connection said in its handshake reply that it can
+   * read compressed frames
+   */
+  private volatile boolean compressedFramesAccepted;
+
   /**
    * True if this connection was accepted by a listening socket. This makes it a receiver. False if
    * this connection was explicitly created by a connect call. This makes it a sender.
@@ -315,6 +331,13 @@ public class Connection implements Runnable {
   private static final byte REPLY_CODE_OK = (byte) 69;
   private static final byte REPLY_CODE_OK_WITH_ASYNC_INFO = (byte) 70;
 
+  /**
+   * Set in the optional features byte that follows the product version in the handshake reply of
+   * a receiver that can read compressed frames. Older receivers do not send the byte and older
+   * senders ignore it.
+   */
+  static final byte HANDSHAKE_FEATURE_COMPRESSED_FRAMES = (byte) 0x01;
+
   private final Object handshakeSync = new Object();
 
   /** message reader thread */
@@ -389,6 +412,9 @@ public class Connection implements Runnable {
 
   boolean directAck;
 
+  /** whether the payload of the message being received is compressed */
+  boolean nioMessageCompressed;
+
   short nioMsgId;
 
   /** whether the length of the next message has been established */
@@ -694,6 +720,7 @@ public class Connection implements Runnable {
       bb.putInt(cfg.getAsyncMaxQueueSize());
       // write own product version
       Version.writeOrdinal(bb, Version.CURRENT.ordinal(), true);
+      bb.put(HANDSHAKE_FEATURE_COMPRESSED_FRAMES);
       // now set the msg length into position 0
       bb.putInt(0, calcHdrSize(bb.position() - MSG_HEADER_BYTES));
       if (useNIO()) {
@@ -2071,6 +2098,10 @@ public class Connection implements Runnable {
         if (myDirectAck) {
           msgType &= ~DIRECT_ACK_BIT; // clear the bit
         }
+        boolean compressed = (msgType & COMPRESSED_BIT) != 0;
+        if (compressed) {
+          msgType &= ~COMPRESSED_BIT; // clear the bit
+        }
         // Following validation fixes bug 31145
         if (!validMsgType(msgType)) {
           logger.fatal(LocalizedMessage.create(
@@ -2087,6 +2118,9 @@ public class Connection implements Runnable {
           stopped = true;
           continue;
         }
+        if (compressed) {
+          bytes = wireCompressor.decompress(bytes);
+        }
         boolean interrupted = Thread.interrupted();
         try {
           if (this.handshakeRead) {
@@ -2155,7 +2189,8 @@ public class Connection implements Runnable {
               }
             } else if (msgType == CHUNKED_MSG_TYPE) {
               MsgDestreamer md = obtainMsgDestreamer(msgId, remoteVersion);
-              this.owner.getConduit().getStats().incMessagesBeingReceived(md.size() == 0, len);
+              this.owner.getConduit().getStats().incMessagesBeingReceived(md.size() == 0,
+                  bytes.length);
               try {
                 md.addChunk(bytes);
               } catch (IOException ex) {
@@ -2164,7 +2199,8 @@ public class Connection implements Runnable {
               }
             } else /* (messageType == END_CHUNKED_MSG_TYPE) */ {
               MsgDestreamer md = obtainMsgDestreamer(msgId, remoteVersion);
-              this.owner.getConduit().getStats().incMessagesBeingReceived(md.size() == 0, len);
+              this.owner.getConduit().getStats().incMessagesBeingReceived(md.size() == 0,
+                  bytes.length);
               try {
                 md.addChunk(bytes);
               } catch (IOException ex) {
@@ -2290,6 +2326,7 @@ public class Connection implements Runnable {
                 // read the product version ordinal for on-the-fly serialization
                 // transformations (for rolling upgrades)
                 this.remoteVersion = Version.readVersion(dis, true);
+                this.compressedFramesAccepted = readCompressedFramesAccepted(dis);
               }
               notifyHandshakeWaiter(true);
             } else {
@@ -3505,6 +3542,10 @@ public class Connection implements Runnable {
           if (directAck) {
             nioMessageType &= ~DIRECT_ACK_BIT; // clear the ack bit
           }
+          nioMessageCompressed = (nioMessageType & COMPRESSED_BIT) != 0;
+          if (nioMessageCompressed) {
+            nioMessageType &= ~COMPRESSED_BIT; // clear the compressed bit
+          }
           // Following validation fixes bug 31145
           if (!validMsgType(nioMessageType)) {
             Integer nioMessageTypeInteger = Integer.valueOf(nioMessageType);
@@ -3530,11 +3571,17 @@ public class Connection implements Runnable {
           int oldLimit = nioInputBuffer.limit();
           nioInputBuffer.limit(startPos + nioMessageLength);
           if (this.handshakeRead) {
+            ByteBuffer messageBuffer = nioInputBuffer;
+            int messageLength = nioMessageLength;
+            if (nioMessageCompressed) {
+              messageBuffer = decompressFrame(nioInputBuffer, nioMessageLength);
+              messageLength = messageBuffer.remaining();
+            }
             if (nioMessageType == NORMAL_MSG_TYPE) {
               this.owner.getConduit().getStats().incMessagesBeingReceived(true, nioMessageLength);
               ByteBufferInputStream bbis =
-                  remoteVersion == null ? new ByteBufferInputStream(nioInputBuffer)
-                      : new VersionedByteBufferInputStream(nioInputBuffer, remoteVersion);
+                  remoteVersion == null ? new ByteBufferInputStream(messageBuffer)
+                      : new VersionedByteBufferInputStream(messageBuffer, remoteVersion);
               DistributionMessage msg = null;
               try {
                 ReplyProcessor21.initMessageRPId();
@@ -3607,9 +3654,9 @@ public class Connection implements Runnable {
             } else if (nioMessageType == CHUNKED_MSG_TYPE) {
               MsgDestreamer md = obtainMsgDestreamer(nioMsgId, remoteVersion);
               this.owner.getConduit().getStats().incMessagesBeingReceived(md.size() == 0,
-                  nioMessageLength);
+                  messageLength);
               try {
-                md.addChunk(nioInputBuffer, nioMessageLength);
+                md.addChunk(messageBuffer, messageLength);
               } catch (IOException ex) {
                 logger.fatal(LocalizedMessage
                     .create(LocalizedStrings.Connection_FAILED_HANDLING_CHUNK_MESSAGE), ex);
@@ -3618,9 +3665,9 @@ public class Connection implements Runnable {
               // logger.info("END_CHUNK msgId="+nioMsgId);
               MsgDestreamer md = obtainMsgDestreamer(nioMsgId, remoteVersion);
               this.owner.getConduit().getStats().incMessagesBeingReceived(md.size() == 0,
-                  nioMessageLength);
+                  messageLength);
               try {
-                md.addChunk(nioInputBuffer, nioMessageLength);
+                md.addChunk(messageBuffer, messageLength);
               } catch (IOException ex) {
                 logger.fatal(LocalizedMessage
                     .create(LocalizedStrings.Connection_FAILED_HANDLING_END_CHUNK_MESSAGE), ex);
@@ -3737,6 +3784,7 @@ public class Connection implements Runnable {
                   // read the product version ordinal for on-the-fly serialization
                   // transformations (for rolling upgrades)
                   this.remoteVersion = Version.readVersion(dis, true);
+                  this.compressedFramesAccepted = readCompressedFramesAccepted(dis);
                 }
               } catch (Exception e) {
                 this.owner.getConduit().getCancelCriterion().checkCancelInProgress(e);
@@ -3919,6 +3967,16 @@ public class Connection implements Runnable {
     }
   }
 
+  /**
+   * Reads a compressed frame payload of the given length from the buffer and returns a buffer
+   * holding the decompressed payload.
+   */
+  static ByteBuffer decompressFrame(ByteBuffer buffer, int length) throws IOException {
+    byte[] compressed = new byte[length];
+    buffer.get(compressed);
+    return ByteBuffer.wrap(wireCompressor.decompress(compressed));
+  }
+
   private void setThreadName(int dominoNumber) {
     Thread.currentThread().setName("P2P message reader for " + this.remoteAddr + " "
         + (this.sharedResource ? "" : "un") + "shared" + " " + (this.preserveOrder ? "" : "un")
@@ -4016,6 +4074,22 @@ public class Connection implements Runnable {
     return this.remoteVersion;
   }
 
+  /**
+   * Reads the optional features byte that ends the handshake reply of a receiver.
+   *
+   * @return true if the receiver can read compressed frames
+   */
+  static boolean readCompressedFramesAccepted(InputStream in) throws IOException {
+    return in.available() > 0 && (in.read() & HANDSHAKE_FEATURE_COMPRESSED_FRAMES) != 0;
+  }
+
+  /**
+   * Returns true if the receiver at the other end of this connection can read compressed frames.
+   */
+  boolean isCompressedFramesAccepted() {
+    return this.compressedFramesAccepted;
+  }
+
   @Override
   public String toString() {
     return String.valueOf(remoteAddr) + '@' + this.uniqueId
@@ -51,9 +51,14 @@ public abstract class MsgReader {
       // logger.info("DEBUG: msg from " + getRemoteAddress() + " is direct ack" );
       nioMessageType &= ~Connection.DIRECT_ACK_BIT; // clear the ack bit
     }
+    boolean compressed = (nioMessageType & Connection.COMPRESSED_BIT) != 0;
+    if (compressed) {
+      nioMessageType &= ~Connection.COMPRESSED_BIT; // clear the compressed bit
+    }
 
     header.nioMessageLength = nioMessageLength;
     header.nioMessageType = nioMessageType;
+    header.compressed = compressed;
     header.nioMsgId = nioMsgId;
     return header;
   }
@@ -66,6 +71,9 @@ public abstract class MsgReader {
   public DistributionMessage readMessage(Header header)
       throws IOException, ClassNotFoundException, InterruptedException {
     ByteBuffer nioInputBuffer = readAtLeast(header.nioMessageLength);
+    if (header.compressed) {
+      nioInputBuffer = Connection.decompressFrame(nioInputBuffer, header.nioMessageLength);
+    }
     this.getStats().incMessagesBeingReceived(true, header.nioMessageLength);
     long startSer = this.getStats().startMsgDeserialization();
     try {
@@ -84,8 +92,13 @@ public abstract class MsgReader {
   public void readChunk(Header header, MsgDestreamer md)
       throws IOException, ClassNotFoundException, InterruptedException {
     ByteBuffer nioInputBuffer = readAtLeast(header.nioMessageLength);
-    this.getStats().incMessagesBeingReceived(md.size() == 0, header.nioMessageLength);
-    md.addChunk(nioInputBuffer, header.nioMessageLength);
+    int chunkLength = header.nioMessageLength;
+    if (header.compressed) {
+      nioInputBuffer = Connection.decompressFrame(nioInputBuffer, header.nioMessageLength);
+      chunkLength = nioInputBuffer.remaining();
+    }
+    this.getStats().incMessagesBeingReceived(md.size() == 0, chunkLength);
+    md.addChunk(nioInputBuffer, chunkLength);
   }
 
   public abstract ByteBuffer readAtLeast(int bytes) throws IOException;
@@ -99,6 +112,7 @@ public abstract class MsgReader {
     int nioMessageLength;
     byte nioMessageType;
     short nioMsgId;
+    boolean compressed;
 
     public Header() {}
 
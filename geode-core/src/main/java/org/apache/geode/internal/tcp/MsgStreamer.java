@@ -39,6 +39,7 @@ import org.apache.geode.internal.ObjToByteArraySerializer;
 import org.apache.geode.internal.Version;
 import org.apache.geode.internal.i18n.LocalizedStrings;
 import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.internal.net.WireCompressor;
 
 /**
  * <p>
@@ -220,6 +221,19 @@ public class MsgStreamer extends OutputStream
     }
   }
 
+  /**
+   * Returns true if the receivers of this streamer said in their handshake replies that they are
+   * able to read compressed frames.
+   */
+  boolean isCompressionSupported() {
+    for (Object con : this.cons) {
+      if (!((Connection) con).isCompressedFramesAccepted()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   private void startSerialization() {
     this.serStartTime = stats.startMsgSerialization();
   }
@@ -301,7 +315,8 @@ public class MsgStreamer extends OutputStream
       return;
     }
     this.buffer.flip();
-    setMessageHeader();
+    boolean compressed = compressPayload();
+    setMessageHeader(compressed);
     final int serializedBytes = this.buffer.limit();
     this.flushedBytes += serializedBytes;
     DistributionMessage conflationMsg = null;
@@ -417,10 +432,35 @@ public class MsgStreamer extends OutputStream
     }
   }
 
+  /**
+   * Replaces the payload in the flipped buffer with its compressed form if compression is enabled
+   * and the payload is large enough and shrinks. The compressed form always fits in the buffer
+   * since it is smaller than what it replaces.
+   *
+   * @return true if the payload was compressed
+   */
+  private boolean compressPayload() {
+    final WireCompressor compressor = Connection.wireCompressor;
+    final int payloadLength = this.buffer.limit() - Connection.MSG_HEADER_BYTES;
+    if (!compressor.shouldCompress(payloadLength) || !isCompressionSupported()) {
+      return false;
+    }
+    this.buffer.position(Connection.MSG_HEADER_BYTES);
+    byte[] compressed = compressor.compress(this.buffer);
+    if (compressed == null) {
+      this.buffer.position(0);
+      return false;
+    }
+    this.buffer.put(compressed);
+    this.buffer.flip();
+    this.stats.incBytesSavedByCompression(payloadLength - compressed.length);
+    return true;
+  }
+
   /**
    * write the header after the message has been written to the stream
    */
-  private void setMessageHeader() {
+  private void setMessageHeader(boolean compressed) {
     Assert.assertTrue(this.overflowBuf == null);
     Assert.assertTrue(!isOverflowMode());
     // int processorType = this.msg.getProcessorType();
@@ -437,6 +477,9 @@ public class MsgStreamer extends OutputStream
     } else {
       msgType = Connection.CHUNKED_MSG_TYPE;
     }
+    if (compressed) {
+      msgType |= Connection.COMPRESSED_BIT;
+    }
     if (!this.normalMsg) {
       if (this.msgId == MsgIdGenerator.NO_MSG_ID) {
         this.msgId = MsgIdGenerator.obtain();
@@ -142,7 +142,8 @@ public class TCPConduit implements Runnable {
 
   public static void init() {
     useSSL = Boolean.getBoolean("p2p.useSSL");
-    // only use nio if not SSL
+    // only use nio if not SSL. Peer-to-peer TLS still runs over blocking SSLSockets with a
+    // reader thread per connection; NioSslEngine is only used by the client/server acceptor.
     USE_NIO = !useSSL && !Boolean.getBoolean("p2p.oldIO");
     // only use direct buffers if we are using nio
     useDirectBuffers = USE_NIO && !Boolean.getBoolean("p2p.nodirectBuffers");
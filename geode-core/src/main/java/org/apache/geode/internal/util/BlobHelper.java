@@ -15,6 +15,7 @@
 package org.apache.geode.internal.util;
 
 import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.geode.DataSerializer;
 import org.apache.geode.distributed.internal.DMStats;
@@ -35,6 +36,12 @@ import org.apache.geode.pdx.internal.PdxInputStream;
  */
 public class BlobHelper {
 
+  /** the number of blobs deserialized by each thread that is counting its deserializations */
+  private static final ThreadLocal<long[]> deserializationCounts = new ThreadLocal<>();
+
+  /** the number of threads counting their deserializations */
+  private static final AtomicInteger countingThreads = new AtomicInteger();
+
   /**
    * A blob is a serialized Object. This method serializes the object into a blob and returns the
    * byte array that contains the blob.
@@ -160,6 +167,45 @@ public class BlobHelper {
     if (stats != null) {
       stats.endDeserialization(start, bytes);
     }
+    if (countingThreads.get() > 0) {
+      long[] count = deserializationCounts.get();
+      if (count != null) {
+        count[0]++;
+      }
+    }
+  }
+
+  /**
+   * Starts counting the blobs deserialized by the current thread.
+   *
+   * @return false if the current thread was already counting its deserializations
+   */
+  public static boolean startCountingDeserializations() {
+    if (deserializationCounts.get() != null) {
+      return false;
+    }
+    deserializationCounts.set(new long[1]);
+    countingThreads.incrementAndGet();
+    return true;
+  }
+
+  /**
+   * Stops counting the blobs deserialized by the current thread.
+   */
+  public static void stopCountingDeserializations() {
+    if (deserializationCounts.get() != null) {
+      deserializationCounts.remove();
+      countingThreads.decrementAndGet();
+    }
+  }
+
+  /**
+   * Returns the number of blobs deserialized by the current thread since it started counting them,
+   * or zero if it is not counting them.
+   */
+  public static long getDeserializationCount() {
+    long[] count = deserializationCounts.get();
+    return count == null ? 0 : count[0];
   }
 
 }
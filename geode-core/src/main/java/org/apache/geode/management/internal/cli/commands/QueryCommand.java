@@ -76,8 +76,10 @@ public class QueryCommand extends InternalGfshCommand {
 
     boolean limitAdded = false;
 
+    // an explained query returns its plan, which must not be changed by an added limit
     if (!StringUtils.containsIgnoreCase(query, " limit")
-        && !StringUtils.containsIgnoreCase(query, " count(")) {
+        && !StringUtils.containsIgnoreCase(query, " count(")
+        && !StringUtils.containsIgnoreCase(query, "<explain")) {
       query = query + " limit " + CommandExecutionContext.getShellFetchSize();
       limitAdded = true;
     }
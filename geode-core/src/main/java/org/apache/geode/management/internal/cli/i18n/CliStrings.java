@@ -1836,7 +1836,8 @@ public class CliStrings {
           + Gfsh.ENV_APP_COLLECTION_LIMIT + "\" variable.";
   public static final String QUERY__QUERY = "query";
   public static final String QUERY__INTERACTIVE = "interactive";
-  public static final String QUERY__QUERY__HELP = "The OQL string.";
+  public static final String QUERY__QUERY__HELP =
+      "The OQL string. Prefix it with <explain> or <explain analyze> to get the plan of the query instead of its results.";
   public static final String QUERY__INTERACTIVE__HELP =
       "Deprecated: Since Geode 1.4. This option has no effect, but is kept around to maintain backwards compatibility with existing scripts.";
   public static final String QUERY__MSG__QUERY_EMPTY = "Query is either empty or Null";
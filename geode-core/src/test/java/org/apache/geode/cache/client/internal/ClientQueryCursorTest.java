@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.distributed.internal.ServerLocation;
+import org.apache.geode.test.junit.categories.ClientServerTest;
+
+@Category({ClientServerTest.class})
+public class ClientQueryCursorTest {
+
+  private ExecutablePool pool;
+  private ServerLocation server;
+
+  @Before
+  public void setUp() {
+    pool = mock(ExecutablePool.class);
+    server = new ServerLocation("localhost", 40404);
+  }
+
+  @Test
+  public void nextBatchIsOnlyFetchedOnceCurrentBatchIsConsumed() {
+    when(pool.executeOn(eq(server), any(QueryCursorOp.FetchOpImpl.class)))
+        .thenReturn(batch(7L, 3, 4)).thenReturn(batch(0L, 5));
+    ClientQueryCursor<Integer> cursor =
+        new ClientQueryCursor<>(pool, batch(7L, 1, 2), 2, null);
+
+    assertThat(cursor.next()).isEqualTo(1);
+    assertThat(cursor.next()).isEqualTo(2);
+    verify(pool, never()).executeOn(any(ServerLocation.class), any(Op.class));
+
+    List<Integer> rest = new ArrayList<>();
+    cursor.forEachRemaining(rest::add);
+
+    assertThat(rest).containsExactly(3, 4, 5);
+    verify(pool, times(2)).executeOn(eq(server), any(QueryCursorOp.FetchOpImpl.class));
+    assertThat(cursor.hasNext()).isFalse();
+    assertThatThrownBy(cursor::next).isInstanceOf(NoSuchElementException.class);
+  }
+
+  @Test
+  public void closeOfExhaustedCursorDoesNotContactServer() {
+    ClientQueryCursor<Integer> cursor = new ClientQueryCursor<>(pool, batch(0L, 1), 10, null);
+
+    assertThat(cursor.next()).isEqualTo(1);
+    assertThat(cursor.hasNext()).isFalse();
+    cursor.close();
+
+    verify(pool, never()).executeOn(any(ServerLocation.class), any(Op.class));
+  }
+
+  @Test
+  public void closeReleasesOpenCursorOnServer() {
+    ClientQueryCursor<Integer> cursor = new ClientQueryCursor<>(pool, batch(7L, 1, 2), 2, null);
+
+    assertThat(cursor.next()).isEqualTo(1);
+    cursor.close();
+    cursor.close();
+
+    assertThat(cursor.hasNext()).isFalse();
+    verify(pool, times(1)).executeOn(eq(server), any(QueryCursorOp.CloseOpImpl.class));
+    verify(pool, never()).executeOn(any(ServerLocation.class),
+        any(QueryCursorOp.FetchOpImpl.class));
+  }
+
+  private QueryCursorOp.Batch batch(long cursorId, Object... rows) {
+    return new QueryCursorOp.Batch(new ArrayList<>(Arrays.asList(rows)), cursorId, server);
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.server.ServerLoad;
+import org.apache.geode.distributed.internal.ServerLocation;
+import org.apache.geode.test.junit.categories.ClientServerTest;
+
+@Category({ClientServerTest.class})
+public class LeasedServerListTest {
+
+  private final ServerLocation server1 = new ServerLocation("localhost", 1);
+  private final ServerLocation server2 = new ServerLocation("localhost", 2);
+  private final ServerLocation server3 = new ServerLocation("localhost", 3);
+
+  private LeasedServerList createList(ServerLoad... loads) {
+    return new LeasedServerList(Arrays.asList(server1, server2, server3), Arrays.asList(loads),
+        1000, new Random(1));
+  }
+
+  @Test
+  public void leaseExpiresAtExpirationTime() {
+    LeasedServerList list = createList(new ServerLoad(), new ServerLoad(), new ServerLoad());
+
+    assertThat(list.isExpired(999)).isFalse();
+    assertThat(list.isExpired(1000)).isTrue();
+  }
+
+  @Test
+  public void connectionsAreSpreadAcrossServers() {
+    LeasedServerList list =
+        createList(new ServerLoad(0, 1, 0, 1), new ServerLoad(0, 1, 0, 1),
+            new ServerLoad(0, 1, 0, 1));
+
+    Map<ServerLocation, Integer> counts = new HashMap<>();
+    for (int i = 0; i < 300; i++) {
+      counts.merge(list.pickServer(null), 1, Integer::sum);
+    }
+
+    assertThat(counts).containsOnlyKeys(server1, server2, server3);
+    assertThat(counts.values()).allSatisfy(count -> assertThat(count).isBetween(90, 110));
+  }
+
+  @Test
+  public void mostLoadedServerIsNotPickedWhileOthersAreLessLoaded() {
+    LeasedServerList list =
+        createList(new ServerLoad(0, 1, 0, 1), new ServerLoad(0, 1, 0, 1),
+            new ServerLoad(50, 1, 0, 1));
+
+    for (int i = 0; i < 40; i++) {
+      assertThat(list.pickServer(null)).isNotEqualTo(server3);
+    }
+  }
+
+  @Test
+  public void excludedServersAreNotPicked() {
+    LeasedServerList list = createList(new ServerLoad(), new ServerLoad(), new ServerLoad());
+
+    assertThat(list.pickServer(new HashSet<>(Arrays.asList(server1, server3))))
+        .isEqualTo(server2);
+    assertThat(list.pickServer(new HashSet<>(Arrays.asList(server1, server2, server3)))).isNull();
+  }
+
+  @Test
+  public void leastLoadedServersArePickedForQueues() {
+    LeasedServerList list =
+        createList(new ServerLoad(0, 1, 5, 1), new ServerLoad(0, 1, 1, 1),
+            new ServerLoad(0, 1, 2, 1));
+
+    assertThat(list.pickServersForQueue(Collections.emptySet(), 2))
+        .containsExactlyInAnyOrder(server2, server3);
+    assertThat(list.pickServersForQueue(Collections.singleton(server1), -1))
+        .containsExactlyInAnyOrder(server2, server3);
+  }
+
+  @Test
+  public void allServersArePickedForQueuesWhenCountIsNegative() {
+    LeasedServerList list = createList(new ServerLoad(), new ServerLoad(), new ServerLoad());
+
+    List<ServerLocation> picked = new ArrayList<>(list.pickServersForQueue(null, -1));
+
+    assertThat(picked).containsExactlyInAnyOrder(server1, server2, server3);
+  }
+}
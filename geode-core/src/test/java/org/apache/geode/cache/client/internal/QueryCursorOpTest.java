@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.cache.query.internal.ResultsBag;
+import org.apache.geode.distributed.DistributedMember;
+import org.apache.geode.distributed.internal.ServerLocation;
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
+import org.apache.geode.internal.Version;
+import org.apache.geode.internal.cache.tier.MessageType;
+import org.apache.geode.test.junit.categories.ClientServerTest;
+
+@Category({ClientServerTest.class})
+public class QueryCursorOpTest {
+
+  @Test
+  public void serversOfGeode190OrLaterSupportCursors() {
+    assertThat(QueryCursorOp.supportsCursors(connectionTo(Version.GEODE_190))).isTrue();
+    assertThat(QueryCursorOp.supportsCursors(connectionTo(Version.CURRENT))).isTrue();
+  }
+
+  @Test
+  public void serversOlderThanGeode190DoNotSupportCursors() {
+    assertThat(QueryCursorOp.supportsCursors(connectionTo(Version.GEODE_180))).isFalse();
+    assertThat(QueryCursorOp.supportsCursors(connectionTo(Version.GFE_90))).isFalse();
+  }
+
+  @Test
+  public void serverWithUnknownVersionDoesNotSupportCursors() {
+    Connection cnx = mock(Connection.class);
+    Endpoint endpoint = mock(Endpoint.class);
+    when(cnx.getEndpoint()).thenReturn(endpoint);
+    when(endpoint.getMemberId()).thenReturn(mock(DistributedMember.class));
+
+    assertThat(QueryCursorOp.supportsCursors(cnx)).isFalse();
+  }
+
+  @Test
+  public void fallbackQueryWithoutParametersIsAPlainQuery() {
+    QueryCursorOp.OpenOpImpl op =
+        new QueryCursorOp.OpenOpImpl("select * from /region", null, 10);
+
+    assertThat(op.createQueryOp().getMessage().getMessageType()).isEqualTo(MessageType.QUERY);
+  }
+
+  @Test
+  public void fallbackQueryKeepsTheParameters() {
+    QueryCursorOp.OpenOpImpl op = new QueryCursorOp.OpenOpImpl(
+        "select * from /region where id > $1", new Object[] {5}, 10);
+
+    assertThat(op.createQueryOp().getMessage().getMessageType())
+        .isEqualTo(MessageType.QUERY_WITH_PARAMETERS);
+  }
+
+  @Test
+  public void fallbackResultsAreReturnedAsTheOnlyBatch() {
+    SelectResults<Object> results = new ResultsBag();
+    results.add(1);
+    results.add(2);
+    ServerLocation server = new ServerLocation("localhost", 40404);
+
+    QueryCursorOp.Batch batch = QueryCursorOp.OpenOpImpl.toFinalBatch(results, server);
+
+    assertThat(batch.getRows()).containsExactlyInAnyOrder(1, 2);
+    assertThat(batch.hasMore()).isFalse();
+    assertThat(batch.getServer()).isEqualTo(server);
+  }
+
+  private Connection connectionTo(Version version) {
+    Connection cnx = mock(Connection.class);
+    Endpoint endpoint = mock(Endpoint.class);
+    InternalDistributedMember member = mock(InternalDistributedMember.class);
+    when(cnx.getEndpoint()).thenReturn(endpoint);
+    when(endpoint.getMemberId()).thenReturn(member);
+    when(member.getVersionObject()).thenReturn(version);
+    return cnx;
+  }
+}
@@ -14,7 +14,9 @@
  */
 package org.apache.geode.cache.query.internal;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
@@ -129,6 +131,43 @@ public class QueryObjectSerializationJUnitTest implements Serializable {
     // checkRoundTrip(sssWithoutData);
   }
 
+  /**
+   * The trace info of queries that are not explained keeps the format older members read
+   */
+  @Test
+  public void testSerializationOfQueryTraceInfo() throws IOException {
+    PRQueryTraceInfo traceInfo = new PRQueryTraceInfo();
+    traceInfo.setTimeInMillis(1.5f);
+    traceInfo.setNumResults(3);
+    traceInfo.setIndexesUsed(" indexesUsed(0)");
+    traceInfo.toData(getDataOutput());
+
+    ByteArrayOutputStream expected = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(expected);
+    out.writeFloat(1.5f);
+    out.writeInt(3);
+    DataSerializer.writeString(" indexesUsed(0)", out);
+    assertArrayEquals(expected.toByteArray(), this.baos.toByteArray());
+  }
+
+  @Test
+  public void testSerializationOfQueryExplainInfo() throws IOException, ClassNotFoundException {
+    QueryPlanNode plan = new QueryPlanNode("Query", "select * from /pr1");
+    plan.getChild("Scan", "/pr1 p").addRows(20);
+    PRQueryExplainInfo explainInfo = new PRQueryExplainInfo(plan);
+    explainInfo.setTimeInMillis(1.5f);
+    DataOutputStream out = getDataOutput();
+    DataSerializer.writeObject(explainInfo, out);
+    out.flush();
+
+    PRQueryTraceInfo traceInfo = DataSerializer.readObject(getDataInput());
+    assertTrue(traceInfo instanceof PRQueryExplainInfo);
+    assertEquals(1.5f, traceInfo.getTimeInMillis(), 0f);
+    QueryPlanNode scan = traceInfo.getExplanation().getChildren().get(0);
+    assertEquals("Scan", scan.getOperator());
+    assertEquals(20L, scan.getRows());
+  }
+
   private static class SimpleObjectType implements ObjectType {
     public SimpleObjectType() {}
 
@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.internal.cache.CachePerfStats;
+import org.apache.geode.internal.cache.InternalCache;
+import org.apache.geode.test.junit.categories.OQLQueryTest;
+
+@Category({OQLQueryTest.class})
+public class QueryPlanCacheJUnitTest {
+
+  private static final String QUERY = "select * from /portfolios p where p.ID > $1";
+
+  private InternalCache cache;
+  private CachePerfStats stats;
+
+  @Before
+  public void setUp() {
+    cache = mock(InternalCache.class);
+    stats = mock(CachePerfStats.class);
+  }
+
+  @Test
+  public void queriesWithSameTextShareCompiledPlan() {
+    QueryPlanCache planCache = new QueryPlanCache(cache, stats, 10);
+
+    DefaultQuery first = planCache.newQuery(QUERY);
+    DefaultQuery second = planCache.newQuery(QUERY);
+
+    assertThat(second).isNotSameAs(first);
+    assertThat(second.getSimpleSelect()).isSameAs(first.getSimpleSelect());
+    assertThat(second.getQueryString()).isEqualTo(QUERY);
+    verify(stats, times(1)).incQueryPlanCacheMisses();
+    verify(stats, times(1)).incQueryPlanCacheHits();
+  }
+
+  @Test
+  public void leastRecentlyUsedPlanIsEvicted() {
+    QueryPlanCache planCache = new QueryPlanCache(cache, stats, 2);
+    String other = "select * from /portfolios p where p.status = 'active'";
+
+    CompiledSelect plan = planCache.newQuery(QUERY).getSimpleSelect();
+    planCache.newQuery(other);
+    planCache.newQuery(QUERY);
+    planCache.newQuery("select * from /positions");
+
+    assertThat(planCache.size()).isEqualTo(2);
+    assertThat(planCache.newQuery(QUERY).getSimpleSelect()).isSameAs(plan);
+    verify(stats, times(1)).incQueryPlanCacheEvictions();
+    verify(stats, times(3)).incQueryPlanCacheMisses();
+  }
+
+  @Test
+  public void invalidateDiscardsCachedPlans() {
+    QueryPlanCache planCache = new QueryPlanCache(cache, stats, 10);
+    CompiledSelect plan = planCache.newQuery(QUERY).getSimpleSelect();
+
+    planCache.invalidate();
+
+    assertThat(planCache.size()).isZero();
+    assertThat(planCache.newQuery(QUERY).getSimpleSelect()).isNotSameAs(plan);
+    verify(stats, times(1)).incQueryPlanCacheInvalidations();
+  }
+
+  @Test
+  public void countQueriesAreNotCached() {
+    QueryPlanCache planCache = new QueryPlanCache(cache, stats, 10);
+    String count = "select count(*) from /portfolios p where p.ID > 10";
+
+    CompiledSelect plan = planCache.newQuery(count).getSimpleSelect();
+
+    assertThat(planCache.size()).isZero();
+    assertThat(planCache.newQuery(count).getSimpleSelect()).isNotSameAs(plan);
+  }
+
+  @Test
+  public void zeroSizeDisablesCache() {
+    QueryPlanCache planCache = new QueryPlanCache(cache, stats, 0);
+    CompiledSelect plan = planCache.newQuery(QUERY).getSimpleSelect();
+
+    assertThat(planCache.size()).isZero();
+    assertThat(planCache.newQuery(QUERY).getSimpleSelect()).isNotSameAs(plan);
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Comparator;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.query.internal.types.ObjectTypeImpl;
+import org.apache.geode.test.junit.categories.OQLQueryTest;
+
+@Category({OQLQueryTest.class})
+public class SortedResultsTopNJUnitTest {
+
+  private static final Comparator<Integer> DESCENDING = Comparator.reverseOrder();
+
+  @Test
+  public void boundedBagKeepsOnlyTheFirstRowsInSortOrder() {
+    SortedResultsBag<Integer> bag = new SortedResultsBag<>(DESCENDING, false);
+    bag.setElementType(new ObjectTypeImpl(Integer.class));
+    bag.setTopNBound(3);
+    for (int i = 0; i < 100; i++) {
+      bag.add(i % 50);
+    }
+
+    assertThat(bag.size()).isEqualTo(3);
+    assertThat(bag.asList()).containsExactly(49, 49, 48);
+  }
+
+  @Test
+  public void boundedBagDropsNullsEmittedLast() {
+    SortedResultsBag<Integer> bag = new SortedResultsBag<>(DESCENDING, false);
+    bag.setTopNBound(2);
+    bag.add(null);
+    bag.add(1);
+    bag.add(null);
+    bag.add(2);
+
+    assertThat(bag.asList()).containsExactly(2, 1);
+  }
+
+  @Test
+  public void boundedBagKeepsNullsEmittedFirst() {
+    SortedResultsBag<Integer> bag = new SortedResultsBag<>(Comparator.naturalOrder(), true);
+    bag.setTopNBound(2);
+    bag.add(5);
+    bag.add(null);
+    bag.add(3);
+    bag.add(4);
+
+    assertThat(bag.asList()).containsExactly(null, 3);
+  }
+
+  @Test
+  public void unboundedBagKeepsEveryRow() {
+    SortedResultsBag<Integer> bag = new SortedResultsBag<>(DESCENDING, false);
+    for (int i = 0; i < 100; i++) {
+      bag.add(i);
+    }
+
+    assertThat(bag.size()).isEqualTo(100);
+  }
+
+  @Test
+  public void boundedSetKeepsOnlyTheFirstDistinctRows() {
+    SortedResultSet set = new SortedResultSet(DESCENDING);
+    set.setTopNBound(2);
+    for (int i = 0; i < 100; i++) {
+      set.add(i % 10);
+    }
+
+    assertThat(set).containsExactly(9, 8);
+  }
+}
@@ -199,4 +199,75 @@ public class AggregatorJUnitTest {
     assertEquals(1, ((Integer) min.terminate()).intValue());
   }
 
+  @Test
+  public void testAvgMemberNode() throws Exception {
+    AvgBucketNode bucket1 = new AvgBucketNode();
+    bucket1.accumulate(new Integer(1));
+    bucket1.accumulate(new Integer(2));
+    AvgBucketNode bucket2 = new AvgBucketNode();
+    bucket2.accumulate(new Integer(6));
+
+    AvgMemberNode member = new AvgMemberNode();
+    member.accumulate(bucket1.terminate());
+    member.accumulate(bucket2.terminate());
+    Object[] partial = (Object[]) member.terminate();
+    assertEquals(3, ((Integer) partial[0]).intValue());
+    assertEquals(9, ((Number) partial[1]).intValue());
+
+    AvgPRQueryNode prQueryNode = new AvgPRQueryNode();
+    prQueryNode.accumulate(partial);
+    assertEquals(3, ((Number) prQueryNode.terminate()).intValue());
+  }
+
+  @Test
+  public void testDistinctMemberNode() throws Exception {
+    Set<Integer> set1 = new HashSet<Integer>();
+    set1.add(1);
+    set1.add(2);
+    Set<Integer> set2 = new HashSet<Integer>();
+    set2.add(2);
+    set2.add(3);
+
+    DistinctMemberNode member = new DistinctMemberNode();
+    member.accumulate(set1);
+    member.accumulate(set2);
+
+    CountDistinctPRQueryNode cdpr = new CountDistinctPRQueryNode();
+    cdpr.accumulate(member.terminate());
+    assertEquals(3, ((Number) cdpr.terminate()).intValue());
+  }
+
+  @Test
+  public void testApproxCountDistinct() throws Exception {
+    ApproxCountDistinct count = new ApproxCountDistinct();
+    for (int i = 0; i < 10000; i++) {
+      count.accumulate(new Integer(i % 5000));
+    }
+    count.accumulate(null);
+    assertEquals(5000, ((Number) count.terminate()).intValue(), 5000 * 0.05);
+
+    ApproxCountDistinctBucketNode bucket1 = new ApproxCountDistinctBucketNode();
+    ApproxCountDistinctBucketNode bucket2 = new ApproxCountDistinctBucketNode();
+    for (int i = 0; i < 3000; i++) {
+      bucket1.accumulate("key" + i);
+      bucket2.accumulate("key" + (i + 2000));
+    }
+    ApproxCountDistinctMemberNode member = new ApproxCountDistinctMemberNode();
+    member.accumulate(bucket1.terminate());
+    ApproxCountDistinctPRQueryNode prQueryNode = new ApproxCountDistinctPRQueryNode();
+    prQueryNode.accumulate(member.terminate());
+    prQueryNode.accumulate(bucket2.terminate());
+    assertEquals(5000, ((Number) prQueryNode.terminate()).intValue(), 5000 * 0.05);
+  }
+
+  @Test
+  public void testApproxCountDistinctOfValuesWithSameHashCode() throws Exception {
+    ApproxCountDistinct count = new ApproxCountDistinct();
+    for (long i = 0; i < 5000; i++) {
+      // all of these have a hash code of 0
+      count.accumulate(Long.valueOf(i << 32 | i));
+    }
+    assertEquals(5000, ((Number) count.terminate()).intValue(), 5000 * 0.05);
+  }
+
 }
@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.BitSet;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.OQLIndexTest;
+
+@Category({OQLIndexTest.class})
+public class CompressedBitmapJUnitTest {
+
+  private static final int MAX_VALUE = 200000;
+
+  /**
+   * Builds a bitmap and the equivalent BitSet. The density decides whether the containers end up
+   * as sorted arrays or as plain bitmaps.
+   */
+  private CompressedBitmap createBitmap(Random random, double density, BitSet expected) {
+    CompressedBitmap bitmap = new CompressedBitmap();
+    for (int value = 0; value < MAX_VALUE; value++) {
+      if (random.nextDouble() < density) {
+        assertThat(bitmap.add(value)).isTrue();
+        expected.set(value);
+      }
+    }
+    return bitmap;
+  }
+
+  private void assertSameValues(CompressedBitmap bitmap, BitSet expected) {
+    assertThat(bitmap.cardinality()).isEqualTo(expected.cardinality());
+    assertThat(bitmap.isEmpty()).isEqualTo(expected.isEmpty());
+    PrimitiveIterator.OfInt iterator = bitmap.iterator();
+    for (int value = expected.nextSetBit(0); value >= 0; value = expected.nextSetBit(value + 1)) {
+      assertThat(iterator.hasNext()).isTrue();
+      assertThat(iterator.nextInt()).isEqualTo(value);
+    }
+    assertThat(iterator.hasNext()).isFalse();
+  }
+
+  @Test
+  public void addAndRemoveTrackMembership() {
+    CompressedBitmap bitmap = new CompressedBitmap();
+
+    assertThat(bitmap.add(5)).isTrue();
+    assertThat(bitmap.add(5)).isFalse();
+    assertThat(bitmap.add(70000)).isTrue();
+    assertThat(bitmap.contains(5)).isTrue();
+    assertThat(bitmap.contains(6)).isFalse();
+    assertThat(bitmap.cardinality()).isEqualTo(2);
+
+    assertThat(bitmap.remove(5)).isTrue();
+    assertThat(bitmap.remove(5)).isFalse();
+    assertThat(bitmap.remove(70000)).isTrue();
+    assertThat(bitmap.isEmpty()).isTrue();
+  }
+
+  @Test
+  public void denseContainerConvertsBackToSparseOnRemoval() {
+    CompressedBitmap bitmap = new CompressedBitmap();
+    BitSet expected = new BitSet();
+    for (int value = 0; value < 10000; value++) {
+      bitmap.add(value);
+      expected.set(value);
+    }
+    for (int value = 0; value < 9000; value++) {
+      bitmap.remove(value);
+      expected.clear(value);
+    }
+
+    assertSameValues(bitmap, expected);
+  }
+
+  @Test
+  public void setOperationsMatchBitSet() {
+    Random random = new Random(17);
+    double[] densities = {0.001, 0.05, 0.5};
+    for (double thisDensity : densities) {
+      for (double thatDensity : densities) {
+        BitSet thisExpected = new BitSet();
+        BitSet thatExpected = new BitSet();
+        CompressedBitmap thisBitmap = createBitmap(random, thisDensity, thisExpected);
+        CompressedBitmap thatBitmap = createBitmap(random, thatDensity, thatExpected);
+
+        BitSet and = (BitSet) thisExpected.clone();
+        and.and(thatExpected);
+        assertSameValues(thisBitmap.and(thatBitmap), and);
+
+        BitSet or = (BitSet) thisExpected.clone();
+        or.or(thatExpected);
+        assertSameValues(thisBitmap.or(thatBitmap), or);
+
+        BitSet andNot = (BitSet) thisExpected.clone();
+        andNot.andNot(thatExpected);
+        assertSameValues(thisBitmap.andNot(thatBitmap), andNot);
+
+        // the operands are left unchanged
+        assertSameValues(thisBitmap, thisExpected);
+        assertSameValues(thatBitmap, thatExpected);
+      }
+    }
+  }
+
+  @Test
+  public void copyIsIndependentOfOriginal() {
+    CompressedBitmap bitmap = new CompressedBitmap();
+    bitmap.add(1);
+    CompressedBitmap copy = bitmap.copy();
+    copy.add(2);
+    bitmap.remove(1);
+
+    assertThat(bitmap.isEmpty()).isTrue();
+    assertThat(copy.cardinality()).isEqualTo(2);
+  }
+}
@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.internal.cache.RegionEntry;
+import org.apache.geode.test.junit.categories.OQLIndexTest;
+
+@Category({OQLIndexTest.class})
+public class EntryOrdinalsJUnitTest {
+
+  private static final int ENTRIES = 3000;
+
+  private final EntryOrdinals entryOrdinals = new EntryOrdinals();
+
+  private List<RegionEntry> createEntries(int count) {
+    List<RegionEntry> entries = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      entries.add(mock(RegionEntry.class));
+    }
+    return entries;
+  }
+
+  @Test
+  public void acquireAssignsDenseOrdinalsThatResolveToTheirEntries() {
+    List<RegionEntry> entries = createEntries(ENTRIES);
+    Set<Integer> ordinals = new HashSet<>();
+    for (RegionEntry entry : entries) {
+      int ordinal = entryOrdinals.acquire(entry);
+      assertThat(ordinals.add(ordinal)).isTrue();
+      assertThat(entryOrdinals.getEntry(ordinal)).isSameAs(entry);
+    }
+    assertThat(ordinals).hasSize(ENTRIES).allMatch(ordinal -> ordinal < ENTRIES);
+    assertThat(entryOrdinals.size()).isEqualTo(ENTRIES);
+    for (RegionEntry entry : entries) {
+      assertThat(entryOrdinals.getEntry(entryOrdinals.getOrdinal(entry))).isSameAs(entry);
+    }
+  }
+
+  @Test
+  public void ordinalIsKeptUntilTheLastReferenceIsReleased() {
+    RegionEntry entry = mock(RegionEntry.class);
+    int ordinal = entryOrdinals.acquire(entry);
+    assertThat(entryOrdinals.acquire(entry)).isEqualTo(ordinal);
+
+    entryOrdinals.release(entry);
+    assertThat(entryOrdinals.getOrdinal(entry)).isEqualTo(ordinal);
+
+    entryOrdinals.release(entry);
+    assertThat(entryOrdinals.getOrdinal(entry)).isEqualTo(-1);
+    assertThat(entryOrdinals.getEntry(ordinal)).isNull();
+    assertThat(entryOrdinals.size()).isZero();
+  }
+
+  @Test
+  public void releasedOrdinalsAreRecycledAndRemainingEntriesAreStillFound() {
+    List<RegionEntry> entries = createEntries(ENTRIES);
+    for (RegionEntry entry : entries) {
+      entryOrdinals.acquire(entry);
+    }
+    for (int i = 0; i < ENTRIES; i += 2) {
+      entryOrdinals.release(entries.get(i));
+    }
+    for (int i = 0; i < ENTRIES; i++) {
+      int ordinal = entryOrdinals.getOrdinal(entries.get(i));
+      if (i % 2 == 0) {
+        assertThat(ordinal).isEqualTo(-1);
+      } else {
+        assertThat(entryOrdinals.getEntry(ordinal)).isSameAs(entries.get(i));
+      }
+    }
+
+    // acquiring again reuses the released ordinals instead of growing the ordinal space
+    for (int i = 0; i < ENTRIES; i += 2) {
+      assertThat(entryOrdinals.acquire(entries.get(i))).isLessThan(ENTRIES);
+    }
+    assertThat(entryOrdinals.size()).isEqualTo(ENTRIES);
+  }
+
+  @Test
+  public void concurrentAcquiresAssignDistinctOrdinals() throws Exception {
+    int threads = 4;
+    List<List<RegionEntry>> entriesByThread = new ArrayList<>();
+    for (int i = 0; i < threads; i++) {
+      entriesByThread.add(createEntries(ENTRIES / threads));
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<List<Integer>>> futures = new ArrayList<>();
+      for (List<RegionEntry> entries : entriesByThread) {
+        futures.add(executor.submit(() -> {
+          List<Integer> ordinals = new ArrayList<>();
+          for (RegionEntry entry : entries) {
+            ordinals.add(entryOrdinals.acquire(entry));
+          }
+          return ordinals;
+        }));
+      }
+      Set<Integer> allOrdinals = new HashSet<>();
+      for (Future<List<Integer>> future : futures) {
+        allOrdinals.addAll(future.get(30, TimeUnit.SECONDS));
+      }
+      assertThat(allOrdinals).hasSize(threads * (ENTRIES / threads));
+    } finally {
+      executor.shutdownNow();
+    }
+    for (List<RegionEntry> entries : entriesByThread) {
+      for (RegionEntry entry : entries) {
+        assertThat(entryOrdinals.getEntry(entryOrdinals.getOrdinal(entry))).isSameAs(entry);
+      }
+    }
+  }
+}
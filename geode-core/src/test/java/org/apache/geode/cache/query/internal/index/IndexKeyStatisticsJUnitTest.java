@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.query.internal.NullToken;
+import org.apache.geode.cache.query.internal.Undefined;
+import org.apache.geode.test.junit.categories.OQLIndexTest;
+
+@Category({OQLIndexTest.class})
+public class IndexKeyStatisticsJUnitTest {
+
+  /**
+   * Keys 0 to 999 with one value each, except keys 0 to 9 which have 1000 values each
+   */
+  private IndexKeyStatistics createSkewedStatistics() {
+    IndexKeyStatistics.Builder builder = new IndexKeyStatistics.Builder(10990, 0);
+    for (int key = 0; key < 1000; key++) {
+      builder.add(key, key < 10 ? 1000 : 1);
+    }
+    return builder.build();
+  }
+
+  @Test
+  public void rangeEstimatesFollowSkewedDistribution() {
+    IndexKeyStatistics statistics = createSkewedStatistics();
+
+    assertThat(statistics.getTotalValues()).isEqualTo(10990);
+    assertThat(statistics.estimateRange(null, false, 10, false)).isBetween(9900, 10100);
+    assertThat(statistics.estimateRange(500, true, null, false)).isBetween(490, 510);
+    assertThat(statistics.estimateRange(100, false, 200, true)).isBetween(90, 110);
+  }
+
+  @Test
+  public void boundsOutsideTheKeysAreEstimatedExactly() {
+    IndexKeyStatistics statistics = createSkewedStatistics();
+
+    assertThat(statistics.estimateRange(null, false, -5, false)).isEqualTo(0);
+    assertThat(statistics.estimateRange(2000, false, null, false)).isEqualTo(0);
+    assertThat(statistics.estimateRange(null, false, 2000, false)).isEqualTo(10990);
+  }
+
+  @Test
+  public void keyWithManyValuesIsEstimatedFromItsOwnBucket() {
+    IndexKeyStatistics statistics = createSkewedStatistics();
+
+    assertThat(statistics.estimateRange(null, false, 0, true)).isEqualTo(1000);
+    assertThat(statistics.estimateRange(0, true, 0, true)).isEqualTo(1000);
+  }
+
+  @Test
+  public void numericKeysOfDifferentTypesAreCompared() {
+    IndexKeyStatistics statistics = createSkewedStatistics();
+
+    assertThat(statistics.estimateRange(990L, false, null, false)).isBetween(8, 10);
+    assertThat(statistics.estimateRange(100.5d, false, 200.5f, false)).isBetween(90, 110);
+  }
+
+  @Test
+  public void incomparableKeyIsNotEstimated() {
+    IndexKeyStatistics statistics = createSkewedStatistics();
+
+    assertThat(statistics.estimateRange("key", false, null, false)).isEqualTo(-1);
+  }
+
+  @Test
+  public void nonNumericKeysAreEstimated() {
+    IndexKeyStatistics.Builder builder = new IndexKeyStatistics.Builder(260, 0);
+    for (char c = 'a'; c <= 'z'; c++) {
+      builder.add(String.valueOf(c), 10);
+    }
+    IndexKeyStatistics statistics = builder.build();
+
+    assertThat(statistics.estimateRange(null, false, "m", false)).isEqualTo(120);
+    assertThat(statistics.estimateRange("m", true, null, false)).isEqualTo(140);
+  }
+
+  @Test
+  public void nullAndUndefinedKeysAreSkipped() {
+    IndexKeyStatistics.Builder builder = new IndexKeyStatistics.Builder(10, 0);
+    builder.add(new NullToken(), 100);
+    builder.add(new Undefined(), 100);
+    for (int key = 0; key < 10; key++) {
+      builder.add(key, 1);
+    }
+    IndexKeyStatistics statistics = builder.build();
+
+    assertThat(statistics.getTotalValues()).isEqualTo(10);
+    assertThat(statistics.estimateRange(null, false, 5, false)).isEqualTo(5);
+  }
+
+  @Test
+  public void distinctKeysAreEstimated() {
+    IndexKeyStatistics statistics = createSkewedStatistics();
+
+    assertThat(statistics.getDistinctKeys()).isBetween(950L, 1050L);
+  }
+
+  @Test
+  public void emptyStatisticsEstimateNoValues() {
+    IndexKeyStatistics statistics = new IndexKeyStatistics.Builder(0, 0).build();
+
+    assertThat(statistics.getNumBuckets()).isEqualTo(0);
+    assertThat(statistics.estimateRange(1, true, null, false)).isEqualTo(0);
+  }
+
+  @Test
+  public void statisticsBecomeStaleAfterAFractionOfTheValuesIsUpdated() {
+    IndexKeyStatistics statistics = createSkewedStatistics();
+
+    assertThat(statistics.isStale(1000)).isFalse();
+    assertThat(statistics.isStale(3000)).isTrue();
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.ArgumentCaptor;
+
+import org.apache.geode.Statistics;
+import org.apache.geode.StatisticsFactory;
+import org.apache.geode.StatisticsType;
+import org.apache.geode.distributed.internal.membership.gms.messages.HeartbeatMessage;
+import org.apache.geode.distributed.internal.membership.gms.messages.SuspectMembersMessage;
+import org.apache.geode.test.junit.categories.MembershipTest;
+
+@Category({MembershipTest.class})
+public class DistributionStatsTest {
+
+  private StatisticsFactory factory;
+  private Statistics heartbeatStats;
+  private Statistics suspectStats;
+  private DistributionStats distributionStats;
+
+  @Before
+  public void setUp() {
+    factory = mock(StatisticsFactory.class);
+    heartbeatStats = mock(Statistics.class);
+    suspectStats = mock(Statistics.class);
+    when(factory.createAtomicStatistics(any(), eq("distributionStats"), anyLong()))
+        .thenReturn(mock(Statistics.class));
+    when(factory.createAtomicStatistics(any(), eq("HeartbeatMessage"), anyLong()))
+        .thenReturn(heartbeatStats);
+    when(factory.createAtomicStatistics(any(), eq("SuspectMembersMessage"), anyLong()))
+        .thenReturn(suspectStats);
+    distributionStats = new DistributionStats(factory, 7);
+  }
+
+  @Test
+  public void messageTypeStatisticsAreCreatedOncePerType() {
+    distributionStats.incUdpMessageTypeSent(HeartbeatMessage.class, 100);
+    distributionStats.incUdpMessageTypeReceived(HeartbeatMessage.class, 50);
+    distributionStats.incUdpMessageTypeSent(SuspectMembersMessage.class, 250);
+
+    ArgumentCaptor<StatisticsType> type = ArgumentCaptor.forClass(StatisticsType.class);
+    verify(factory, times(1)).createAtomicStatistics(type.capture(), eq("HeartbeatMessage"),
+        eq(7L));
+    assertThat(type.getValue().getName()).isEqualTo("UDPMessageTypeStats");
+    verify(factory, times(1)).createAtomicStatistics(any(), eq("SuspectMembersMessage"), eq(7L));
+
+    int messagesSentId = type.getValue().nameToId("messagesSent");
+    int bytesSentId = type.getValue().nameToId("bytesSent");
+    int messagesReceivedId = type.getValue().nameToId("messagesReceived");
+    int bytesReceivedId = type.getValue().nameToId("bytesReceived");
+    verify(heartbeatStats).incLong(messagesSentId, 1L);
+    verify(heartbeatStats).incLong(bytesSentId, 100L);
+    verify(heartbeatStats).incLong(messagesReceivedId, 1L);
+    verify(heartbeatStats).incLong(bytesReceivedId, 50L);
+    verify(suspectStats).incLong(bytesSentId, 250L);
+  }
+
+  @Test
+  public void closeClosesMessageTypeStatistics() {
+    distributionStats.incUdpMessageTypeSent(HeartbeatMessage.class, 100);
+
+    distributionStats.close();
+
+    verify(heartbeatStats).close();
+  }
+}
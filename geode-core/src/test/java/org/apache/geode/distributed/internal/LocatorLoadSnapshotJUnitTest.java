@@ -173,6 +173,27 @@ public class LocatorLoadSnapshotJUnitTest {
         sn.getServersForQueue("b", Collections.EMPTY_SET, 5));
   }
 
+  /**
+   * Test that the load map handed to clients leasing a server list only holds the servers of the
+   * requested group
+   */
+  @Test
+  public void testLoadMapForGroup() {
+    LocatorLoadSnapshot sn = new LocatorLoadSnapshot();
+    ServerLocation l1 = new ServerLocation("localhost", 1);
+    ServerLocation l2 = new ServerLocation("localhost", 2);
+    sn.addServer(l1, new String[] {"a"}, new ServerLoad(1, 1, 2, 1));
+    sn.addServer(l2, new String[] {"b"}, new ServerLoad(3, 1, 4, 1));
+
+    Map<ServerLocation, ServerLoad> expected = new HashMap<>();
+    expected.put(l1, new ServerLoad(1, 1, 2, 1));
+    assertEquals(expected, sn.getLoadMap("a"));
+    expected.put(l2, new ServerLoad(3, 1, 4, 1));
+    assertEquals(expected, sn.getLoadMap(""));
+    assertEquals(expected, sn.getLoadMap(null));
+    assertTrue(sn.getLoadMap("c").isEmpty());
+  }
+
   /**
    * Test to make sure that we balancing three servers with interecting groups correctly.
    */
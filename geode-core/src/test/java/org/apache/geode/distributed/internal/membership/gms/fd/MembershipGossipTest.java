@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal.membership.gms.fd;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
+import org.apache.geode.distributed.internal.membership.gms.messages.MembershipUpdate;
+import org.apache.geode.test.junit.categories.MembershipTest;
+
+@Category({MembershipTest.class})
+public class MembershipGossipTest {
+
+  private InternalDistributedMember me;
+  private InternalDistributedMember other;
+  private InternalDistributedMember third;
+  private MembershipGossip gossip;
+
+  @Before
+  public void setUp() {
+    me = mock(InternalDistributedMember.class);
+    other = mock(InternalDistributedMember.class);
+    third = mock(InternalDistributedMember.class);
+    gossip = new MembershipGossip(me);
+    gossip.viewChanged(Arrays.asList(me, other, third));
+  }
+
+  @Test
+  public void suspicionIsOnlyRecordedOnce() {
+    assertThat(gossip.suspect(other)).isTrue();
+    assertThat(gossip.suspect(other)).isFalse();
+    assertThat(gossip.isSuspect(other)).isTrue();
+  }
+
+  @Test
+  public void receivedSuspicionPreventsReportingAgain() {
+    gossip.merge(Collections.singletonList(new MembershipUpdate(other, true, 0)));
+
+    assertThat(gossip.isSuspect(other)).isTrue();
+    assertThat(gossip.suspect(other)).isFalse();
+  }
+
+  @Test
+  public void suspicionOfThisMemberIsRefuted() {
+    gossip.merge(Collections.singletonList(new MembershipUpdate(me, true, 0)));
+
+    assertThat(gossip.getIncarnation()).isEqualTo(1);
+    assertThat(gossip.nextUpdates(other)).extracting(MembershipUpdate::getMember,
+        MembershipUpdate::isSuspect, MembershipUpdate::getIncarnation)
+        .containsExactly(tuple(me, false, 1));
+  }
+
+  @Test
+  public void aliveWithHigherIncarnationClearsSuspicion() {
+    gossip.suspect(other);
+
+    List<InternalDistributedMember> unsuspected =
+        gossip.merge(Collections.singletonList(new MembershipUpdate(other, false, 1)));
+
+    assertThat(unsuspected).containsExactly(other);
+    assertThat(gossip.isSuspect(other)).isFalse();
+  }
+
+  @Test
+  public void aliveWithSameIncarnationDoesNotClearSuspicion() {
+    gossip.suspect(other);
+
+    List<InternalDistributedMember> unsuspected =
+        gossip.merge(Collections.singletonList(new MembershipUpdate(other, false, 0)));
+
+    assertThat(unsuspected).isEmpty();
+    assertThat(gossip.isSuspect(other)).isTrue();
+  }
+
+  @Test
+  public void updatesStopBeingSentAfterRetransmitLimit() {
+    gossip.suspect(other);
+    int limit = gossip.getRetransmitLimit();
+
+    for (int i = 0; i < limit; i++) {
+      assertThat(gossip.nextUpdates(third)).hasSize(1);
+    }
+
+    assertThat(gossip.nextUpdates(third)).isEmpty();
+    assertThat(gossip.isSuspect(other)).isTrue();
+  }
+
+  @Test
+  public void suspicionOfRecipientIsAlwaysSent() {
+    gossip.suspect(other);
+    int limit = gossip.getRetransmitLimit();
+    for (int i = 0; i < limit; i++) {
+      gossip.nextUpdates(third);
+    }
+
+    assertThat(gossip.nextUpdates(other)).extracting(MembershipUpdate::getMember)
+        .containsExactly(other);
+  }
+
+  @Test
+  public void piggybackedUpdatesAreLimited() {
+    List<InternalDistributedMember> members = new ArrayList<>();
+    members.add(me);
+    for (int i = 0; i < MembershipGossip.MAX_PIGGYBACKED_UPDATES * 2; i++) {
+      members.add(mock(InternalDistributedMember.class));
+    }
+    gossip.viewChanged(members);
+    for (InternalDistributedMember member : members.subList(1, members.size())) {
+      gossip.suspect(member);
+    }
+
+    assertThat(gossip.nextUpdates(me)).hasSize(MembershipGossip.MAX_PIGGYBACKED_UPDATES);
+  }
+
+  @Test
+  public void departedMembersAreForgotten() {
+    gossip.suspect(other);
+
+    gossip.viewChanged(Arrays.asList(me, third));
+
+    assertThat(gossip.isSuspect(other)).isFalse();
+    assertThat(gossip.nextUpdates(third)).isEmpty();
+  }
+}
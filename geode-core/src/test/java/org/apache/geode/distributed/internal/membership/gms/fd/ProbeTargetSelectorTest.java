@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal.membership.gms.fd;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
+import org.apache.geode.test.junit.categories.MembershipTest;
+
+@Category({MembershipTest.class})
+public class ProbeTargetSelectorTest {
+
+  private InternalDistributedMember me;
+  private List<InternalDistributedMember> members;
+  private ProbeTargetSelector selector;
+
+  @Before
+  public void setUp() {
+    me = mock(InternalDistributedMember.class);
+    members = new ArrayList<>();
+    members.add(me);
+    for (int i = 0; i < 10; i++) {
+      members.add(mock(InternalDistributedMember.class));
+    }
+    selector = new ProbeTargetSelector(me, new Random(1));
+    selector.setMembers(members);
+  }
+
+  @Test
+  public void everyOtherMemberIsProbedOncePerRound() {
+    Set<InternalDistributedMember> probed = new HashSet<>();
+    for (int i = 0; i < members.size() - 1; i++) {
+      assertThat(probed.add(selector.nextTarget(mbr -> false))).isTrue();
+    }
+
+    assertThat(probed).doesNotContain(me).hasSize(members.size() - 1);
+  }
+
+  @Test
+  public void excludedMembersAreSkipped() {
+    InternalDistributedMember excluded = members.get(1);
+    for (int i = 0; i < members.size() * 3; i++) {
+      assertThat(selector.nextTarget(mbr -> mbr == excluded)).isNotSameAs(excluded);
+    }
+  }
+
+  @Test
+  public void noTargetIfAllMembersAreExcluded() {
+    assertThat(selector.nextTarget(mbr -> true)).isNull();
+  }
+
+  @Test
+  public void departedMembersAreNotProbed() {
+    InternalDistributedMember departed = members.remove(5);
+    selector.nextTarget(mbr -> false);
+
+    selector.setMembers(members);
+
+    for (int i = 0; i < members.size() * 3; i++) {
+      assertThat(selector.nextTarget(mbr -> false)).isNotSameAs(departed);
+    }
+  }
+
+  @Test
+  public void newMembersAreProbedInTheCurrentRound() {
+    for (int i = 0; i < 5; i++) {
+      selector.nextTarget(mbr -> false);
+    }
+    InternalDistributedMember joined = mock(InternalDistributedMember.class);
+    members.add(joined);
+    selector.setMembers(members);
+
+    Set<InternalDistributedMember> probed = new HashSet<>();
+    for (int i = 5; i < members.size() - 1; i++) {
+      probed.add(selector.nextTarget(mbr -> false));
+    }
+
+    assertThat(probed).contains(joined);
+  }
+
+  @Test
+  public void helpersExcludeTheTargetAndThisMember() {
+    InternalDistributedMember target = members.get(1);
+
+    List<InternalDistributedMember> helpers = selector.chooseHelpers(target, 3, mbr -> false);
+
+    assertThat(helpers).hasSize(3).doesNotContain(target, me).doesNotHaveDuplicates();
+  }
+
+  @Test
+  public void allCandidatesAreHelpersInSmallViews() {
+    selector.setMembers(members.subList(0, 3));
+
+    assertThat(selector.chooseHelpers(members.get(1), 3, mbr -> false))
+        .containsExactly(members.get(2));
+  }
+}
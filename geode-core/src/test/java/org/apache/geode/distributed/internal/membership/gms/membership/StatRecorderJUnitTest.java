@@ -17,6 +17,7 @@ package org.apache.geode.distributed.internal.membership.gms.membership;
 import static org.apache.geode.distributed.ConfigurationProperties.LOCATORS;
 import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.isA;
@@ -26,6 +27,8 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.RejectedExecutionException;
 
@@ -44,6 +47,8 @@ import org.apache.geode.distributed.internal.LonerDistributionManager.DummyDMSta
 import org.apache.geode.distributed.internal.membership.gms.ServiceConfig;
 import org.apache.geode.distributed.internal.membership.gms.Services;
 import org.apache.geode.distributed.internal.membership.gms.interfaces.Manager;
+import org.apache.geode.distributed.internal.membership.gms.messages.HeartbeatMessage;
+import org.apache.geode.distributed.internal.membership.gms.messages.SuspectMembersMessage;
 import org.apache.geode.distributed.internal.membership.gms.messenger.JGroupsMessenger;
 import org.apache.geode.distributed.internal.membership.gms.messenger.StatRecorder;
 import org.apache.geode.internal.admin.remote.RemoteTransportConfig;
@@ -132,6 +137,44 @@ public class StatRecorderJUnitTest {
     verify(mockDownProtocol, times(2)).down(isA(Event.class));
   }
 
+  /**
+   * Ensure that messages passed to the transport and datagrams sent by it are counted separately
+   * so that the effect of bundling can be seen
+   */
+  @Test
+  public void testUdpMessageAndDatagramStats() throws Exception {
+    Message msg = mock(Message.class);
+    when(msg.getHeader(any(Short.class))).thenReturn(Header.createDataHeader(1L, (short) 1, true));
+    when(msg.size()).thenReturn(150L);
+
+    recorder.down(new Event(Event.MSG, msg));
+    recorder.down(new Event(Event.MSG, msg));
+    recorder.down(new Event(Event.MSG, msg));
+    recorder.recordDatagramSent();
+
+    assertEquals(3, stats.udpMessagesSent);
+    assertEquals(1, stats.udpDatagramsSent);
+  }
+
+  /**
+   * Ensure that messages sent and received are counted by message type in DMStats
+   */
+  @Test
+  public void testMessageTypeCounts() throws Exception {
+    recorder.recordMessageSent(HeartbeatMessage.class, 100);
+    recorder.recordMessageSent(HeartbeatMessage.class, 100);
+    recorder.recordMessageSent(SuspectMembersMessage.class, 250);
+    recorder.recordMessageReceived(HeartbeatMessage.class, 100);
+
+    assertEquals(2, stats.messagesSentByType.get(HeartbeatMessage.class).intValue());
+    assertEquals(200, stats.bytesSentByType.get(HeartbeatMessage.class).intValue());
+    assertEquals(1, stats.messagesReceivedByType.get(HeartbeatMessage.class).intValue());
+    assertEquals(100, stats.bytesReceivedByType.get(HeartbeatMessage.class).intValue());
+    assertEquals(1, stats.messagesSentByType.get(SuspectMembersMessage.class).intValue());
+    assertEquals(250, stats.bytesSentByType.get(SuspectMembersMessage.class).intValue());
+    assertFalse(stats.messagesReceivedByType.containsKey(SuspectMembersMessage.class));
+  }
+
   /**
    * ensure that multicast events are recorded in DMStats
    */
@@ -193,6 +236,8 @@ public class StatRecorderJUnitTest {
     String jgroupsConfig = messenger.getJGroupsStackConfig();
     System.out.println(jgroupsConfig);
     assertTrue(jgroupsConfig.contains("gms.messenger.StatRecorder"));
+    assertTrue(jgroupsConfig.contains("max_bundle_size=\"64000\""));
+    assertFalse(jgroupsConfig.contains("BUNDLER_TYPE"));
 
     // now test to see if the multicast stack has the recorder installed
     nonDefault.put(MCAST_PORT, "12345");
@@ -203,6 +248,8 @@ public class StatRecorderJUnitTest {
     messenger = new JGroupsMessenger();
     messenger.init(mockServices);
     assertTrue(jgroupsConfig.contains("gms.messenger.StatRecorder"));
+    jgroupsConfig = messenger.getJGroupsStackConfig();
+    assertFalse(jgroupsConfig.contains("MAX_BUNDLE_TIMEOUT"));
   }
 
   private static class MyStats extends DummyDMStats {
@@ -220,6 +267,14 @@ public class StatRecorderJUnitTest {
     public int mcastRetransmits;
     public int mcastRetransmitRequests;
 
+    public int udpMessagesSent;
+    public int udpDatagramsSent;
+
+    public Map<Class<?>, Integer> messagesSentByType = new HashMap<>();
+    public Map<Class<?>, Integer> bytesSentByType = new HashMap<>();
+    public Map<Class<?>, Integer> messagesReceivedByType = new HashMap<>();
+    public Map<Class<?>, Integer> bytesReceivedByType = new HashMap<>();
+
     @Override
     public void incUcastReadBytes(int i) {
       ucastMessagesReceived++;
@@ -258,6 +313,28 @@ public class StatRecorderJUnitTest {
     public void incMcastRetransmitRequests() {
       mcastRetransmitRequests++;
     }
+
+    @Override
+    public void incUdpMessagesSent() {
+      udpMessagesSent++;
+    }
+
+    @Override
+    public void incUdpDatagramsSent() {
+      udpDatagramsSent++;
+    }
+
+    @Override
+    public void incUdpMessageTypeSent(Class<?> messageType, int bytes) {
+      messagesSentByType.merge(messageType, 1, Integer::sum);
+      bytesSentByType.merge(messageType, bytes, Integer::sum);
+    }
+
+    @Override
+    public void incUdpMessageTypeReceived(Class<?> messageType, int bytes) {
+      messagesReceivedByType.merge(messageType, 1, Integer::sum);
+      bytesReceivedByType.merge(messageType, bytes, Integer::sum);
+    }
   }
 
 }
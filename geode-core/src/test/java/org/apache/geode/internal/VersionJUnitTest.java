@@ -39,6 +39,7 @@ public class VersionJUnitTest {
     compare(Version.GEODE_130, Version.GEODE_120);
     compare(Version.GEODE_140, Version.GEODE_130);
     compare(Version.GEODE_150, Version.GEODE_140);
+    compare(Version.GEODE_190, Version.GEODE_180);
   }
 
   private void compare(Version later, Version earlier) {
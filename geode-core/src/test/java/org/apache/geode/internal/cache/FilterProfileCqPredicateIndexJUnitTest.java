@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.geode.cache.query.internal.CqStateImpl;
+import org.apache.geode.cache.query.internal.cq.CqService;
+import org.apache.geode.cache.query.internal.cq.ServerCQ;
+
+public class FilterProfileCqPredicateIndexJUnitTest {
+
+  private FilterProfile filterProfile;
+  private GemFireCacheImpl mockCache;
+  private ServerCQ serverCQ;
+  private AtomicInteger builds;
+  private Function<Collection<ServerCQ>, Object> indexBuilder;
+
+  @Before
+  public void setUp() {
+    mockCache = mock(GemFireCacheImpl.class);
+    CqService mockCqService = mock(CqService.class);
+    LocalRegion baseRegion = mock(LocalRegion.class);
+    serverCQ = mock(ServerCQ.class);
+
+    when(mockCache.getCqService()).thenReturn(mockCqService);
+    when(mockCache.getCacheServers()).thenReturn(Collections.emptyList());
+    when(serverCQ.getState()).thenReturn(mock(CqStateImpl.class));
+    when(serverCQ.getCqBaseRegion()).thenReturn(baseRegion);
+    when(baseRegion.getFilterProfile()).thenReturn(mock(FilterProfile.class));
+
+    filterProfile = new FilterProfile();
+    builds = new AtomicInteger();
+    indexBuilder = cqs -> {
+      builds.incrementAndGet();
+      return new ArrayList<>(cqs);
+    };
+  }
+
+  @Test
+  public void indexIsReusedWhileTheCqsAreUnchanged() {
+    Object index = filterProfile.getCqPredicateIndex(indexBuilder);
+
+    assertThat(filterProfile.getCqPredicateIndex(indexBuilder)).isSameAs(index);
+    assertThat(builds.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void indexIsRebuiltWithTheCqsAddedOrRemovedSinceItWasBuilt() {
+    assertThat((Collection<?>) filterProfile.getCqPredicateIndex(indexBuilder)).isEmpty();
+
+    filterProfile.processRegisterCq("TestCq", serverCQ, true, mockCache);
+    assertThat((Collection<?>) filterProfile.getCqPredicateIndex(indexBuilder))
+        .containsExactly(serverCQ);
+
+    filterProfile.processCloseCq("TestCq");
+    assertThat((Collection<?>) filterProfile.getCqPredicateIndex(indexBuilder)).isEmpty();
+    assertThat(builds.get()).isEqualTo(3);
+  }
+}
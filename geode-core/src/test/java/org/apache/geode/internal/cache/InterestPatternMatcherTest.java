@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+public class InterestPatternMatcherTest {
+
+  private final InterestPatternMatcher matcher = new InterestPatternMatcher();
+
+  private void add(Object clientID, String regex) {
+    matcher.add(clientID, regex, Pattern.compile(regex));
+  }
+
+  @Test
+  public void literalPrefixIsRecognized() {
+    assertThat(InterestPatternMatcher.getLiteralPrefix("key-.*")).isEqualTo("key-");
+    assertThat(InterestPatternMatcher.getLiteralPrefix("a\\.b.*")).isEqualTo("a.b");
+    assertThat(InterestPatternMatcher.getLiteralPrefix(".*")).isEqualTo("");
+    assertThat(InterestPatternMatcher.getLiteralPrefix("a.b.*")).isNull();
+    assertThat(InterestPatternMatcher.getLiteralPrefix("a\\d.*")).isNull();
+    assertThat(InterestPatternMatcher.getLiteralPrefix("ab\\.*")).isNull();
+    assertThat(InterestPatternMatcher.getLiteralPrefix("key[0-9]+")).isNull();
+  }
+
+  @Test
+  public void prefixPatternsMatchKeysWithThatPrefix() {
+    add(1L, "order-.*");
+    add(2L, "order-1.*");
+    add(3L, "customer-.*");
+
+    assertThat(matcher.getMatchingClients("order-17")).containsExactlyInAnyOrder(1L, 2L);
+    assertThat(matcher.getMatchingClients("order-2")).containsExactly(1L);
+    assertThat(matcher.getMatchingClients("order")).isNull();
+    assertThat(matcher.getMatchingClients("customer-")).containsExactly(3L);
+  }
+
+  @Test
+  public void prefixPatternsDoNotMatchLineTerminatorsAfterThePrefix() {
+    add(1L, "a.*");
+    add(2L, "a\n.*");
+
+    assertThat(matcher.getMatchingClients("a\nb")).containsExactly(2L);
+    assertThat(Pattern.compile("a.*").matcher("a\nb").matches()).isFalse();
+  }
+
+  @Test
+  public void generalPatternsAreEvaluatedOncePerExpression() {
+    add(1L, "key[0-9]+");
+    add(2L, "key[0-9]+");
+    add(3L, "(a)\\1");
+
+    assertThat(matcher.getMatchingClients("key42")).containsExactlyInAnyOrder(1L, 2L);
+    assertThat(matcher.getMatchingClients("aa")).containsExactly(3L);
+    assertThat(matcher.getMatchingClients("keyX")).isNull();
+  }
+
+  @Test
+  public void removingInterestUpdatesTheMatcher() {
+    add(1L, "order-.*");
+    add(2L, "order-.*");
+    add(1L, "key[0-9]+");
+
+    matcher.remove(2L, "order-.*");
+    assertThat(matcher.getMatchingClients("order-1")).containsExactly(1L);
+
+    matcher.removeClient(1L);
+    assertThat(matcher.getMatchingClients("order-1")).isNull();
+    assertThat(matcher.getMatchingClients("key1")).isNull();
+    assertThat(matcher.isEmpty()).isTrue();
+  }
+
+  @Test
+  public void resultsAgreeWithIndividualPatterns() {
+    String[] regexes = {"k.*", "k1.*", "k[0-5]", "k\\d\\d", ".*9", "k1\\..*"};
+    for (int i = 0; i < regexes.length; i++) {
+      add((long) i, regexes[i]);
+    }
+    String[] keys = {"k", "k1", "k19", "k1.5", "x9", "k7", "", "k1\n"};
+    for (String key : keys) {
+      Set<Object> expected = new HashSet<>();
+      for (int i = 0; i < regexes.length; i++) {
+        if (Pattern.compile(regexes[i]).matcher(key).matches()) {
+          expected.add((long) i);
+        }
+      }
+      Set<Object> matched = matcher.getMatchingClients(key);
+      assertThat(matched == null ? new HashSet<>() : matched).isEqualTo(expected);
+    }
+  }
+}
@@ -0,0 +1,197 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.tier.sockets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.EnumSet;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.StatisticsFactory;
+import org.apache.geode.StatisticsType;
+import org.apache.geode.distributed.DistributedMember;
+import org.apache.geode.distributed.internal.InternalDistributedSystem;
+import org.apache.geode.internal.Version;
+import org.apache.geode.internal.cache.EnumListenerEvent;
+import org.apache.geode.internal.cache.EventID;
+import org.apache.geode.internal.cache.InternalCache;
+import org.apache.geode.internal.cache.LocalRegion;
+import org.apache.geode.internal.cache.ha.HARegionQueue;
+import org.apache.geode.internal.cache.tier.MessageType;
+import org.apache.geode.internal.cache.tier.sockets.SlowConsumerPolicy.Action;
+import org.apache.geode.internal.security.SecurityService;
+import org.apache.geode.internal.statistics.LocalStatisticsFactory;
+import org.apache.geode.test.junit.categories.ClientServerTest;
+
+@Category({ClientServerTest.class})
+public class CacheClientProxyTest {
+
+  private CacheClientProxy proxy;
+
+  private ClientProxyMembershipID proxyId;
+
+  private HARegionQueue queue;
+
+  private LocalRegion region;
+
+  private int sequenceId;
+
+  @Before
+  public void setUp() throws Exception {
+    StatisticsFactory statisticsFactory = new LocalStatisticsFactory(null);
+    InternalDistributedSystem system = mock(InternalDistributedSystem.class);
+    when(system.createAtomicStatistics(any(StatisticsType.class), any(String.class)))
+        .then(invocation -> statisticsFactory.createAtomicStatistics(invocation.getArgument(0),
+            invocation.getArgument(1)));
+    InternalCache cache = mock(InternalCache.class);
+    when(cache.getDistributedSystem()).thenReturn(system);
+    CacheClientNotifier notifier = mock(CacheClientNotifier.class);
+    when(notifier.getCache()).thenReturn(cache);
+    when(notifier.getAcceptorStats()).thenReturn(mock(CacheServerStats.class));
+
+    Socket socket = mock(Socket.class);
+    when(socket.getInetAddress()).thenReturn(InetAddress.getLoopbackAddress());
+    proxyId = mock(ClientProxyMembershipID.class);
+    when(proxyId.getDistributedMember()).thenReturn(mock(DistributedMember.class));
+
+    proxy = new CacheClientProxy(notifier, socket, proxyId, true, Handshake.CONFLATION_DEFAULT,
+        Version.CURRENT, 0, true, mock(SecurityService.class), null);
+    queue = mock(HARegionQueue.class);
+    region = mock(LocalRegion.class);
+    when(region.getFullPath()).thenReturn("/region");
+  }
+
+  private ClientUpdateMessageImpl createMessage(EnumListenerEvent operation) {
+    return new ClientUpdateMessageImpl(operation, region, "key", new byte[] {1, 2, 3}, (byte) 0x00,
+        null, mock(ClientProxyMembershipID.class), new EventID(new byte[] {1}, 1, sequenceId++));
+  }
+
+  private ClientUpdateMessageImpl createCqUpdate() {
+    ClientUpdateMessageImpl update = createMessage(EnumListenerEvent.AFTER_UPDATE);
+    update.addClientCq(proxyId, "cq", MessageType.LOCAL_UPDATE);
+    return update;
+  }
+
+  private int getMessageType(ClientUpdateMessageImpl message) throws Exception {
+    return message.getMessage(proxy, (byte[]) message.getValue()).getMessageType();
+  }
+
+  @Test
+  public void conflatesQueueOnlyWhileBacklogged() {
+    proxy.setSlowConsumerPolicyForTest(
+        new SlowConsumerPolicy(EnumSet.of(Action.CONFLATE), 10, 0, 1));
+
+    when(queue.size()).thenReturn(11);
+    proxy.checkBacklog(queue, 1000);
+    verify(queue).setAdaptiveConflation(true);
+
+    when(queue.size()).thenReturn(5);
+    proxy.checkBacklog(queue, 1000 + SlowConsumerPolicy.CHECK_INTERVAL);
+    verify(queue).setAdaptiveConflation(false);
+
+    assertThat(proxy.getStatistics().getConflationPolicyActivations()).isEqualTo(1);
+    assertThat(proxy.getStatistics().getInvalidationPolicyActivations()).isEqualTo(0);
+  }
+
+  @Test
+  public void checksQueueAtMostOncePerInterval() {
+    proxy.setSlowConsumerPolicyForTest(
+        new SlowConsumerPolicy(EnumSet.of(Action.CONFLATE), 10, 0, 1));
+
+    when(queue.size()).thenReturn(11);
+    proxy.checkBacklog(queue, 1000);
+    when(queue.size()).thenReturn(5);
+    proxy.checkBacklog(queue, 1001);
+
+    verify(queue).setAdaptiveConflation(true);
+    verify(queue, never()).setAdaptiveConflation(false);
+  }
+
+  @Test
+  public void queuesUpdatesWithoutValuesWhileBacklogged() throws Exception {
+    proxy.setSlowConsumerPolicyForTest(
+        new SlowConsumerPolicy(EnumSet.of(Action.INVALIDATE), 10, 0, 1));
+    ClientUpdateMessageImpl update = createMessage(EnumListenerEvent.AFTER_UPDATE);
+    assertThat(proxy.getMessageToQueue(update, update)).isSameAs(update);
+
+    when(queue.size()).thenReturn(11);
+    proxy.checkBacklog(queue, 1000);
+    assertThat(proxy.isInvalidatingUpdates()).isTrue();
+
+    update = createMessage(EnumListenerEvent.AFTER_UPDATE);
+    ClientUpdateMessageImpl queued =
+        (ClientUpdateMessageImpl) proxy.getMessageToQueue(update, update);
+    assertThat(queued.getValue()).isNull();
+    assertThat(queued.getEventId()).isEqualTo(update.getEventId());
+    assertThat(queued.getKeyToConflate()).isEqualTo("key");
+    assertThat(queued.isClientInterestedInInvalidates(proxyId)).isTrue();
+    assertThat(getMessageType(queued)).isEqualTo(MessageType.LOCAL_INVALIDATE);
+    assertThat(getMessageType(update)).isEqualTo(MessageType.LOCAL_UPDATE);
+
+    ClientUpdateMessageImpl create = createMessage(EnumListenerEvent.AFTER_CREATE);
+    assertThat(proxy.getMessageToQueue(create, create)).isSameAs(create);
+    ClientUpdateMessageImpl cqUpdate = createCqUpdate();
+    assertThat(proxy.getMessageToQueue(cqUpdate, cqUpdate)).isSameAs(cqUpdate);
+
+    assertThat(proxy.getStatistics().getMessagesQueuedAsInvalidates()).isEqualTo(1);
+    assertThat(proxy.getStatistics().getInvalidationPolicyActivations()).isEqualTo(1);
+  }
+
+  @Test
+  public void samplesCqOnlyUpdatesWhileBacklogged() {
+    proxy.setSlowConsumerPolicyForTest(
+        new SlowConsumerPolicy(EnumSet.of(Action.SAMPLE), 10, 0, 2));
+    assertThat(proxy.isSampledOut(createCqUpdate())).isFalse();
+
+    when(queue.size()).thenReturn(11);
+    proxy.checkBacklog(queue, 1000);
+
+    int sampledOut = 0;
+    for (int i = 0; i < 10; i++) {
+      if (proxy.isSampledOut(createCqUpdate())) {
+        sampledOut++;
+      }
+    }
+    assertThat(sampledOut).isEqualTo(5);
+
+    ClientUpdateMessageImpl interested = createCqUpdate();
+    interested.addClientInterestList(proxyId, true);
+    assertThat(proxy.isSampledOut(interested)).isFalse();
+    assertThat(proxy.isSampledOut(createMessage(EnumListenerEvent.AFTER_UPDATE))).isFalse();
+  }
+
+  @Test
+  public void doesNotSampleDurableClients() {
+    when(proxyId.isDurable()).thenReturn(true);
+    proxy.setSlowConsumerPolicyForTest(
+        new SlowConsumerPolicy(EnumSet.of(Action.SAMPLE), 10, 0, 2));
+    when(queue.size()).thenReturn(11);
+    proxy.checkBacklog(queue, 1000);
+
+    for (int i = 0; i < 10; i++) {
+      assertThat(proxy.isSampledOut(createCqUpdate())).isFalse();
+    }
+  }
+}
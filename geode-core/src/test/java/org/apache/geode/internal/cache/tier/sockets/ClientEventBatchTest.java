@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.tier.sockets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.internal.Version;
+import org.apache.geode.internal.cache.tier.MessageType;
+import org.apache.geode.test.junit.categories.ClientServerTest;
+
+@Category({ClientServerTest.class})
+public class ClientEventBatchTest {
+
+  @Test
+  public void batchRoundTripsEventsInOrder() throws Exception {
+    ClientEventBatch batch = new ClientEventBatch();
+    Message update = new Message(3, Version.CURRENT);
+    update.setMessageType(MessageType.LOCAL_UPDATE);
+    update.addStringPart("region");
+    update.addObjPart("value");
+    update.addIntPart(7);
+    batch.add(update);
+    // the dispatcher reuses its messages, so the batch must not depend on them
+    update.clearParts();
+
+    Message destroy = new Message(2, Version.CURRENT);
+    destroy.setMessageType(MessageType.LOCAL_DESTROY);
+    destroy.addStringPart("region");
+    destroy.addBytesPart(new byte[0]);
+    batch.add(destroy);
+    destroy.clearParts();
+
+    assertThat(batch.size()).isEqualTo(2);
+    Message message = batch.toMessage(Version.CURRENT);
+    assertThat(message.getMessageType()).isEqualTo(MessageType.CLIENT_EVENT_BATCH);
+    assertThat(ClientEventBatch.getEventCount(message)).isEqualTo(2);
+
+    Message event = new Message(1, Version.CURRENT);
+    int next = ClientEventBatch.readEvent(message, 1, event);
+    assertThat(event.getMessageType()).isEqualTo(MessageType.LOCAL_UPDATE);
+    assertThat(event.getNumberOfParts()).isEqualTo(3);
+    assertThat(event.getPart(0).getString()).isEqualTo("region");
+    assertThat(event.getPart(1).getObject()).isEqualTo("value");
+    assertThat(event.getPart(2).getInt()).isEqualTo(7);
+
+    next = ClientEventBatch.readEvent(message, next, event);
+    assertThat(event.getMessageType()).isEqualTo(MessageType.LOCAL_DESTROY);
+    assertThat(event.getNumberOfParts()).isEqualTo(2);
+    assertThat(event.getPart(0).getString()).isEqualTo("region");
+    assertThat(event.getPart(1).getSerializedForm()).isEmpty();
+    assertThat(next).isEqualTo(message.getNumberOfParts());
+  }
+
+  @Test
+  public void batchReferencesEventPayloadsWithoutCopying() throws Exception {
+    ClientEventBatch batch = new ClientEventBatch();
+    byte[] value = new byte[] {1, 2, 3};
+    Message update = new Message(1, Version.CURRENT);
+    update.setMessageType(MessageType.LOCAL_UPDATE);
+    update.addRawPart(value, true);
+
+    batch.add(update);
+
+    assertThat(update.getPart(0).getLength()).isEqualTo(0);
+    Message message = batch.toMessage(Version.CURRENT);
+    assertThat(message.getPart(3).getSerializedForm()).isSameAs(value);
+    assertThat(message.getPart(3).isObject()).isTrue();
+  }
+
+  @Test
+  public void payloadSizeCountsEventParts() {
+    ClientEventBatch batch = new ClientEventBatch();
+    Message message = new Message(1, Version.CURRENT);
+    message.setMessageType(MessageType.LOCAL_INVALIDATE);
+    message.addBytesPart(new byte[100]);
+
+    batch.add(message);
+
+    assertThat(batch.getPayloadSize()).isEqualTo(100);
+  }
+}
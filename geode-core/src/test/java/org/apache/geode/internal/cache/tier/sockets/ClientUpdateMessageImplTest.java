@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.tier.sockets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.internal.Version;
+import org.apache.geode.internal.cache.EnumListenerEvent;
+import org.apache.geode.internal.cache.EventID;
+import org.apache.geode.internal.cache.LocalRegion;
+import org.apache.geode.internal.cache.tier.MessageType;
+import org.apache.geode.test.junit.categories.ClientServerTest;
+
+@Category({ClientServerTest.class})
+public class ClientUpdateMessageImplTest {
+
+  private static final int KEY_PART = 1;
+  private static final int VALUE_PART = 3;
+  private static final int CALLBACK_ARGUMENT_PART = 4;
+
+  private ClientUpdateMessageImpl update;
+
+  @Before
+  public void setUp() {
+    LocalRegion region = mock(LocalRegion.class);
+    when(region.getFullPath()).thenReturn("/region");
+    update = new ClientUpdateMessageImpl(EnumListenerEvent.AFTER_UPDATE, region, 42,
+        new byte[] {1, 2, 3}, (byte) 0x00, 7, mock(ClientProxyMembershipID.class),
+        new EventID(new byte[] {1}, 1, 1));
+  }
+
+  private CacheClientProxy createProxy() {
+    CacheClientProxy proxy = mock(CacheClientProxy.class);
+    when(proxy.getVersion()).thenReturn(Version.CURRENT);
+    when(proxy.getProxyID()).thenReturn(mock(ClientProxyMembershipID.class));
+    return proxy;
+  }
+
+  @Test
+  public void sharesSerializedPartsBetweenClients() throws Exception {
+    Message first = update.getMessage(createProxy(), (byte[]) update.getValue());
+    assertThat(first.getMessageType()).isEqualTo(MessageType.LOCAL_UPDATE);
+    assertThat(first.getPart(KEY_PART).getObject()).isEqualTo(42);
+    assertThat(first.getPart(CALLBACK_ARGUMENT_PART).getObject()).isEqualTo(7);
+    byte[] key = first.getPart(KEY_PART).getSerializedForm();
+    byte[] value = first.getPart(VALUE_PART).getSerializedForm();
+    byte[] callbackArgument = first.getPart(CALLBACK_ARGUMENT_PART).getSerializedForm();
+
+    Message second = update.getMessage(createProxy(), (byte[]) update.getValue());
+    assertThat(second.getPart(KEY_PART).getSerializedForm()).isSameAs(key);
+    assertThat(second.getPart(VALUE_PART).getSerializedForm()).isSameAs(value);
+    assertThat(second.getPart(CALLBACK_ARGUMENT_PART).getSerializedForm())
+        .isSameAs(callbackArgument);
+  }
+
+  @Test
+  public void serializesSharedPartsPerClientVersion() throws Exception {
+    byte[] key = update.getMessage(createProxy(), (byte[]) update.getValue()).getPart(KEY_PART)
+        .getSerializedForm();
+
+    CacheClientProxy oldClient = createProxy();
+    when(oldClient.getVersion()).thenReturn(Version.GFE_70);
+    Message message = update.getMessage(oldClient, (byte[]) update.getValue());
+
+    assertThat(message.getPart(KEY_PART).getSerializedForm()).isNotSameAs(key);
+    assertThat(message.getPart(KEY_PART).getObject()).isEqualTo(42);
+  }
+}
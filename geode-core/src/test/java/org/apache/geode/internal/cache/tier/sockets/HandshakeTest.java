@@ -17,6 +17,7 @@
 package org.apache.geode.internal.cache.tier.sockets;
 
 import static org.apache.geode.internal.i18n.LocalizedStrings.HandShake_NO_SECURITY_CREDENTIALS_ARE_PROVIDED;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import org.junit.Test;
@@ -50,4 +51,22 @@ public class HandshakeTest {
     Handshake.throwIfMissingRequiredCredentials(false, false);
   }
 
+  @Test
+  public void extractOverridesReadsConflationAndEventBatching() {
+    byte override = (byte) (Handshake.CONFLATION_OFF | (Handshake.EVENT_BATCHING_ON << 2));
+
+    byte[] overrides = Handshake.extractOverrides(new byte[] {override});
+
+    assertThat(overrides[0]).isEqualTo(Handshake.CONFLATION_OFF);
+    assertThat(overrides[1]).isEqualTo(Handshake.EVENT_BATCHING_ON);
+  }
+
+  @Test
+  public void extractOverridesDefaultsEventBatchingToOff() {
+    byte[] overrides = Handshake.extractOverrides(new byte[] {Handshake.CONFLATION_ON});
+
+    assertThat(overrides[0]).isEqualTo(Handshake.CONFLATION_ON);
+    assertThat(overrides[1]).isEqualTo(Handshake.EVENT_BATCHING_OFF);
+  }
+
 }
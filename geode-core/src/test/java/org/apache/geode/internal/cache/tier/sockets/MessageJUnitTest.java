@@ -23,6 +23,8 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
@@ -30,12 +32,15 @@ import java.net.ServerSocket;
 import java.net.Socket;
 import java.net.SocketTimeoutException;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
 import org.apache.geode.internal.Version;
+import org.apache.geode.internal.cache.tier.MessageType;
+import org.apache.geode.internal.net.WireCompressor;
 import org.apache.geode.test.junit.categories.ClientServerTest;
 
 @Category({ClientServerTest.class})
@@ -171,4 +176,108 @@ public class MessageJUnitTest {
       }
     }
   }
+
+  @Test
+  public void compressedPartsRoundTripToServerThatAcceptsThem() throws Exception {
+    byte[] payload = compressiblePayload(4096);
+    Message request = createRequest(new WireCompressor(1024), payload);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    request.setComms(mock(Socket.class), null, out, ByteBuffer.allocate(1000),
+        mock(MessageStats.class));
+    request.setCompressedPartsNegotiation(true);
+    request.send();
+
+    assertTrue(out.size() < payload.length);
+    Message received = receive(out.toByteArray());
+    assertTrue(received.isCompressedPartsAccepted());
+    assertTrue(Arrays.equals(payload, received.getPart(0).getSerializedForm()));
+  }
+
+  @Test
+  public void partsAreNotCompressedUntilServerHasAcceptedThem() throws Exception {
+    byte[] payload = compressiblePayload(4096);
+    Message request = createRequest(new WireCompressor(1024), payload);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    request.setComms(mock(Socket.class), null, out, ByteBuffer.allocate(1000),
+        mock(MessageStats.class));
+    request.setCompressedPartsNegotiation(false);
+    request.send();
+
+    assertTrue(out.size() > payload.length);
+    Message received = receive(out.toByteArray());
+    // the request still tells the server that the client can read compressed parts
+    assertTrue(received.isCompressedPartsAccepted());
+    assertTrue(Arrays.equals(payload, received.getPart(0).getSerializedForm()));
+  }
+
+  @Test
+  public void compressionIsNotAdvertisedWhenDisabled() throws Exception {
+    byte[] payload = compressiblePayload(4096);
+    Message request = createRequest(new WireCompressor(WireCompressor.DISABLED), payload);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    request.setComms(mock(Socket.class), null, out, ByteBuffer.allocate(1000),
+        mock(MessageStats.class));
+    request.setCompressedPartsNegotiation(true);
+    request.send();
+
+    assertTrue(out.size() > payload.length);
+    assertFalse(receive(out.toByteArray()).isCompressedPartsAccepted());
+  }
+
+  @Test
+  public void serverCompressesRepliesOnlyToClientsThatAcceptCompressedParts() throws Exception {
+    byte[] payload = compressiblePayload(4096);
+
+    byte[] compressedReply = sendReply(payload, true);
+    assertTrue(compressedReply.length < payload.length);
+    Message received = receive(compressedReply);
+    assertTrue(received.isCompressedPartsAccepted());
+    assertTrue(Arrays.equals(payload, received.getPart(0).getSerializedForm()));
+
+    byte[] reply = sendReply(payload, false);
+    assertTrue(reply.length > payload.length);
+    received = receive(reply);
+    assertFalse(received.isCompressedPartsAccepted());
+    assertTrue(Arrays.equals(payload, received.getPart(0).getSerializedForm()));
+  }
+
+  private static byte[] compressiblePayload(int length) {
+    byte[] payload = new byte[length];
+    Arrays.fill(payload, (byte) 'a');
+    return payload;
+  }
+
+  private Message createRequest(WireCompressor wireCompressor, byte[] payload) {
+    Message request = new Message(1, Version.CURRENT);
+    request.setWireCompressor(wireCompressor);
+    request.setMessageType(MessageType.PUT);
+    request.addBytesPart(payload);
+    return request;
+  }
+
+  private byte[] sendReply(byte[] payload, boolean clientAcceptsCompressedParts)
+      throws IOException {
+    Message request = mock(Message.class);
+    when(request.isCompressedPartsAccepted()).thenReturn(clientAcceptsCompressedParts);
+    ServerConnection serverConnection = mock(ServerConnection.class);
+    when(serverConnection.getRequestMessage()).thenReturn(request);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    Socket socket = mock(Socket.class);
+    when(socket.getOutputStream()).thenReturn(out);
+
+    Message reply = createRequest(new WireCompressor(1024), payload);
+    reply.setMessageType(MessageType.REPLY);
+    reply.setComms(serverConnection, socket, ByteBuffer.allocate(1000), mock(MessageStats.class));
+    reply.send();
+    return out.toByteArray();
+  }
+
+  private Message receive(byte[] bytes) throws IOException {
+    Message received = new Message(1, Version.CURRENT);
+    received.setWireCompressor(new WireCompressor(WireCompressor.DISABLED));
+    received.setComms(mock(Socket.class), new ByteArrayInputStream(bytes), null,
+        ByteBuffer.allocate(1000), mock(MessageStats.class));
+    received.receive();
+    return received;
+  }
 }
@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.tier.sockets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.internal.cache.tier.sockets.SlowConsumerPolicy.Action;
+import org.apache.geode.internal.cache.tier.sockets.SlowConsumerPolicy.BacklogListener;
+import org.apache.geode.test.junit.categories.ClientServerTest;
+
+@Category({ClientServerTest.class})
+public class SlowConsumerPolicyTest {
+
+  private static final BacklogListener IGNORE = backlogged -> {
+  };
+
+  @Test
+  public void parsesCommaSeparatedActionsIgnoringCaseAndUnknownNames() {
+    assertThat(SlowConsumerPolicy.parseActions("")).isEmpty();
+    assertThat(SlowConsumerPolicy.parseActions("none")).isEmpty();
+    assertThat(SlowConsumerPolicy.parseActions("Conflate, invalidate,bogus"))
+        .containsExactlyInAnyOrder(Action.CONFLATE, Action.INVALIDATE);
+  }
+
+  @Test
+  public void isDisabledWithoutActionsOrThresholds() {
+    assertThat(new SlowConsumerPolicy(EnumSet.noneOf(Action.class), 10, 10, 1).isEnabled())
+        .isFalse();
+    assertThat(new SlowConsumerPolicy(EnumSet.of(Action.CONFLATE), 0, 0, 1).isEnabled()).isFalse();
+    assertThat(new SlowConsumerPolicy(EnumSet.of(Action.CONFLATE), 10, 0, 1).isEnabled()).isTrue();
+  }
+
+  @Test
+  public void leavesBackloggedStateAtHalfTheSizeThreshold() {
+    SlowConsumerPolicy policy = new SlowConsumerPolicy(EnumSet.of(Action.INVALIDATE), 100, 0, 1);
+
+    assertThat(policy.evaluate(100, () -> 0, IGNORE)).isFalse();
+    assertThat(policy.evaluate(101, () -> 0, IGNORE)).isTrue();
+    assertThat(policy.isInvalidating()).isTrue();
+    assertThat(policy.isSampling()).isFalse();
+    assertThat(policy.evaluate(51, () -> 0, IGNORE)).isTrue();
+    assertThat(policy.evaluate(50, () -> 0, IGNORE)).isFalse();
+    assertThat(policy.isInvalidating()).isFalse();
+  }
+
+  @Test
+  public void becomesBackloggedWhenTheHeadIsTooOld() {
+    SlowConsumerPolicy policy = new SlowConsumerPolicy(EnumSet.of(Action.SAMPLE), 0, 1000, 1);
+
+    assertThat(policy.evaluate(1, () -> 1000, IGNORE)).isFalse();
+    assertThat(policy.evaluate(1, () -> 1001, IGNORE)).isTrue();
+    assertThat(policy.isSampling()).isTrue();
+    assertThat(policy.evaluate(1, () -> 500, IGNORE)).isFalse();
+  }
+
+  @Test
+  public void doesNotComputeHeadAgeWithoutAgeThreshold() {
+    SlowConsumerPolicy policy = new SlowConsumerPolicy(EnumSet.of(Action.CONFLATE), 10, 0, 1);
+
+    assertThat(policy.evaluate(1, () -> {
+      throw new AssertionError("head age should not be computed");
+    }, IGNORE)).isFalse();
+  }
+
+  @Test
+  public void notifiesListenerOnlyOfTransitions() {
+    SlowConsumerPolicy policy = new SlowConsumerPolicy(EnumSet.of(Action.CONFLATE), 10, 0, 1);
+    List<Boolean> transitions = new ArrayList<>();
+
+    policy.evaluate(5, () -> 0, transitions::add);
+    policy.evaluate(11, () -> 0, transitions::add);
+    policy.evaluate(12, () -> 0, transitions::add);
+    policy.evaluate(5, () -> 0, transitions::add);
+    policy.evaluate(4, () -> 0, transitions::add);
+
+    assertThat(transitions).containsExactly(true, false);
+  }
+
+  @Test
+  public void staysInPreviousStateIfListenerFails() {
+    SlowConsumerPolicy policy = new SlowConsumerPolicy(EnumSet.of(Action.INVALIDATE), 10, 0, 1);
+
+    assertThatThrownBy(() -> policy.evaluate(11, () -> 0, backlogged -> {
+      throw new IllegalStateException();
+    })).isInstanceOf(IllegalStateException.class);
+
+    assertThat(policy.isInvalidating()).isFalse();
+    List<Boolean> transitions = new ArrayList<>();
+    policy.evaluate(11, () -> 0, transitions::add);
+    assertThat(transitions).containsExactly(true);
+  }
+
+  @Test
+  public void samplesOneInEveryRateEvents() {
+    SlowConsumerPolicy policy = new SlowConsumerPolicy(EnumSet.of(Action.SAMPLE), 1, 0, 3);
+
+    int kept = 0;
+    for (int i = 0; i < 30; i++) {
+      if (policy.sample()) {
+        kept++;
+      }
+    }
+    assertThat(kept).isEqualTo(10);
+  }
+
+  @Test
+  public void claimsAtMostOneCheckPerInterval() {
+    SlowConsumerPolicy policy = new SlowConsumerPolicy(EnumSet.of(Action.SAMPLE), 1, 0, 1);
+
+    assertThat(policy.isCheckDue(1000)).isTrue();
+    assertThat(policy.isCheckDue(1000 + SlowConsumerPolicy.CHECK_INTERVAL - 1)).isFalse();
+    assertThat(policy.isCheckDue(1000 + SlowConsumerPolicy.CHECK_INTERVAL)).isTrue();
+  }
+}
@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.net;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.ByteBuffer;
+
+import org.awaitility.Awaitility;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.MembershipTest;
+
+@Category({MembershipTest.class})
+public class BufferPoolTest {
+
+  private final BufferPool pool = new BufferPool(1024 * 1024, 0);
+
+  @Test
+  public void sizeClassesArePowersOfTwo() {
+    assertThat(BufferPool.sizeClass(1)).isEqualTo(BufferPool.MIN_SIZE_CLASS);
+    assertThat(BufferPool.sizeClass(1024)).isEqualTo(10);
+    assertThat(BufferPool.sizeClass(1025)).isEqualTo(11);
+    assertThat(BufferPool.sizeClass(32768)).isEqualTo(15);
+    assertThat(BufferPool.sizeClass(1 << BufferPool.MAX_SIZE_CLASS))
+        .isEqualTo(BufferPool.MAX_SIZE_CLASS);
+    assertThat(BufferPool.sizeClass((1 << BufferPool.MAX_SIZE_CLASS) + 1)).isEqualTo(-1);
+  }
+
+  @Test
+  public void acquiredBufferIsDirectWithLimitOfRequestedSize() {
+    ByteBuffer buffer = pool.acquireDirectBuffer(3000);
+
+    assertThat(buffer.isDirect()).isTrue();
+    assertThat(buffer.position()).isEqualTo(0);
+    assertThat(buffer.limit()).isEqualTo(3000);
+    assertThat(buffer.capacity()).isEqualTo(4096);
+    assertThat(pool.getBuffersInUse()).isEqualTo(1);
+    assertThat(pool.getBytesInUse()).isEqualTo(4096);
+  }
+
+  @Test
+  public void releasedBufferIsReused() {
+    ByteBuffer buffer = pool.acquireDirectBuffer(4096);
+    buffer.putInt(42);
+    pool.release(buffer);
+
+    assertThat(pool.getPooledBuffers()).isEqualTo(1);
+    assertThat(pool.getPooledBytes()).isEqualTo(4096);
+
+    ByteBuffer reused = pool.acquireDirectBuffer(3000);
+
+    assertThat(reused).isSameAs(buffer);
+    assertThat(reused.position()).isEqualTo(0);
+    assertThat(reused.limit()).isEqualTo(3000);
+    assertThat(pool.getAcquires()).isEqualTo(2);
+    assertThat(pool.getHits()).isEqualTo(1);
+    assertThat(pool.getAllocations()).isEqualTo(1);
+    assertThat(pool.getPooledBuffers()).isEqualTo(0);
+  }
+
+  @Test
+  public void heapBuffersAreNotPooled() {
+    pool.release(ByteBuffer.allocate(4096));
+
+    assertThat(pool.getPooledBuffers()).isEqualTo(0);
+    assertThat(pool.getBuffersInUse()).isEqualTo(0);
+  }
+
+  @Test
+  public void buffersLargerThanTheLargestSizeClassAreNotPooled() {
+    int size = (1 << BufferPool.MAX_SIZE_CLASS) + 1;
+    BufferPool unbounded = new BufferPool(Long.MAX_VALUE, 0);
+    ByteBuffer buffer = unbounded.acquireDirectBuffer(size);
+
+    assertThat(buffer.capacity()).isEqualTo(size);
+
+    unbounded.release(buffer);
+
+    assertThat(unbounded.getPooledBuffers()).isEqualTo(0);
+    assertThat(unbounded.getDiscards()).isEqualTo(1);
+  }
+
+  @Test
+  public void pooledBytesAreBounded() {
+    BufferPool small = new BufferPool(8192, 0);
+    ByteBuffer first = small.acquireDirectBuffer(8192);
+    ByteBuffer second = small.acquireDirectBuffer(8192);
+
+    small.release(first);
+    small.release(second);
+
+    assertThat(small.getPooledBuffers()).isEqualTo(1);
+    assertThat(small.getPooledBytes()).isEqualTo(8192);
+    assertThat(small.getDiscards()).isEqualTo(1);
+    assertThat(small.getBuffersInUse()).isEqualTo(0);
+  }
+
+  @Test
+  public void clearEmptiesThePool() {
+    pool.release(pool.acquireDirectBuffer(1024));
+    pool.release(pool.acquireDirectBuffer(65536));
+
+    pool.clear();
+
+    assertThat(pool.getPooledBuffers()).isEqualTo(0);
+    assertThat(pool.getPooledBytes()).isEqualTo(0);
+  }
+
+  @Test
+  public void bufferDroppedWithoutBeingReleasedIsReportedAsLeak() {
+    BufferPool tracking = new BufferPool(1024 * 1024, 1);
+    tracking.acquireDirectBuffer(1024);
+
+    Awaitility.await().until(() -> {
+      System.gc();
+      return tracking.getLeaksDetected() == 1;
+    });
+    assertThat(tracking.getBuffersInUse()).isEqualTo(0);
+    assertThat(tracking.getBytesInUse()).isEqualTo(0);
+  }
+
+  @Test
+  public void releasedTrackedBufferIsNotReportedAsLeak() {
+    BufferPool tracking = new BufferPool(1024 * 1024, 1);
+    ByteBuffer buffer = tracking.acquireDirectBuffer(1024);
+    tracking.release(buffer);
+    tracking.clear();
+    buffer = null;
+
+    System.gc();
+
+    assertThat(tracking.getLeaksDetected()).isEqualTo(0);
+    assertThat(tracking.getBuffersInUse()).isEqualTo(0);
+  }
+}
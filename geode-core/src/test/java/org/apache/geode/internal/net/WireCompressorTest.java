@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.net;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.ClientServerTest;
+
+@Category({ClientServerTest.class})
+public class WireCompressorTest {
+
+  private static byte[] compressiblePayload(int length) {
+    byte[] payload = new byte[length];
+    Arrays.fill(payload, (byte) 'a');
+    return payload;
+  }
+
+  @Test
+  public void disabledByDefault() {
+    WireCompressor compressor =
+        WireCompressor.fromSystemProperty("WireCompressorTest.notSetProperty");
+
+    assertThat(compressor.isEnabled()).isFalse();
+    assertThat(compressor.compress(compressiblePayload(100000))).isNull();
+  }
+
+  @Test
+  public void payloadBelowThresholdIsNotCompressed() {
+    WireCompressor compressor = new WireCompressor(1024);
+
+    assertThat(compressor.shouldCompress(1023)).isFalse();
+    assertThat(compressor.compress(compressiblePayload(1023))).isNull();
+  }
+
+  @Test
+  public void compressedPayloadRoundTrips() throws IOException {
+    WireCompressor compressor = new WireCompressor(1024);
+    byte[] payload = compressiblePayload(4096);
+
+    byte[] compressed = compressor.compress(payload);
+
+    assertThat(compressed).isNotNull();
+    assertThat(compressed.length).isLessThan(payload.length);
+    assertThat(compressor.decompress(compressed)).isEqualTo(payload);
+  }
+
+  @Test
+  public void incompressiblePayloadIsNotCompressed() {
+    WireCompressor compressor = new WireCompressor(0);
+    byte[] payload = new byte[4096];
+    new Random(1).nextBytes(payload);
+
+    assertThat(compressor.compress(payload)).isNull();
+  }
+
+  @Test
+  public void compressingBufferDoesNotChangeItsPosition() throws IOException {
+    WireCompressor compressor = new WireCompressor(0);
+    ByteBuffer buffer = ByteBuffer.allocateDirect(8192);
+    buffer.put(compressiblePayload(4096));
+    buffer.flip();
+
+    byte[] compressed = compressor.compress(buffer);
+
+    assertThat(buffer.position()).isEqualTo(0);
+    assertThat(buffer.remaining()).isEqualTo(4096);
+    assertThat(compressor.decompress(compressed)).isEqualTo(compressiblePayload(4096));
+  }
+
+  @Test
+  public void decompressingAlwaysWorksEvenIfCompressionIsDisabled() throws IOException {
+    byte[] compressed = new WireCompressor(0).compress(compressiblePayload(4096));
+
+    WireCompressor disabled = new WireCompressor(WireCompressor.DISABLED);
+
+    assertThat(disabled.decompress(compressed)).isEqualTo(compressiblePayload(4096));
+  }
+}
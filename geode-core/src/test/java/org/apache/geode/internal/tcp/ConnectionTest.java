@@ -14,10 +14,12 @@
  */
 package org.apache.geode.internal.tcp;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
+import java.io.ByteArrayInputStream;
 import java.nio.ByteBuffer;
 import java.nio.channels.SocketChannel;
 
@@ -43,4 +45,19 @@ public class ConnectionTest {
     verify(mockConnection, times(1)).nioWriteFully(channel, buffer, forceAsync,
         mockDistributionMessage);
   }
+
+  @Test
+  public void receiverThatCanReadCompressedFramesSaysSoInHandshakeReply() throws Exception {
+    assertThat(Connection.readCompressedFramesAccepted(
+        new ByteArrayInputStream(new byte[] {Connection.HANDSHAKE_FEATURE_COMPRESSED_FRAMES})))
+            .isTrue();
+  }
+
+  @Test
+  public void receiverWithoutFeaturesByteCannotReadCompressedFrames() throws Exception {
+    assertThat(Connection.readCompressedFramesAccepted(new ByteArrayInputStream(new byte[0])))
+        .isFalse();
+    assertThat(Connection.readCompressedFramesAccepted(new ByteArrayInputStream(new byte[] {0})))
+        .isFalse();
+  }
 }
@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.tcp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.distributed.internal.DMStats;
+import org.apache.geode.distributed.internal.DistributionMessage;
+import org.apache.geode.internal.Version;
+import org.apache.geode.test.junit.categories.MembershipTest;
+
+@Category({MembershipTest.class})
+public class MsgStreamerTest {
+
+  private final DMStats stats = mock(DMStats.class);
+
+  private final DistributionMessage message = mock(DistributionMessage.class);
+
+  private Connection createConnection(boolean compressedFramesAccepted) {
+    Connection connection = mock(Connection.class);
+    when(connection.isCompressedFramesAccepted()).thenReturn(compressedFramesAccepted);
+    when(connection.getRemoteVersion()).thenReturn(Version.CURRENT);
+    return connection;
+  }
+
+  @Test
+  public void compressesForReceiversThatAcceptCompressedFrames() {
+    MsgStreamer streamer = new MsgStreamer(
+        Arrays.asList(createConnection(true), createConnection(true)), message, false, stats, 1024);
+
+    assertThat(streamer.isCompressionSupported()).isTrue();
+  }
+
+  @Test
+  public void doesNotCompressForReceiversThatDidNotAcceptCompressedFrames() {
+    // e.g. members running a release without compression, even at the same product version
+    MsgStreamer streamer = new MsgStreamer(Collections.singletonList(createConnection(false)),
+        message, false, stats, 1024);
+
+    assertThat(streamer.isCompressionSupported()).isFalse();
+  }
+
+  @Test
+  public void doesNotCompressIfAnyReceiverDidNotAcceptCompressedFrames() {
+    MsgStreamer streamer = new VersionedMsgStreamer(
+        Arrays.asList(createConnection(true), createConnection(false)), message, false, stats,
+        1024, Version.CURRENT);
+
+    assertThat(streamer.isCompressionSupported()).isFalse();
+  }
+}
@@ -0,0 +1,345 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.cq;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.cache.query.internal.CompiledComparison;
+import org.apache.geode.cache.query.internal.CompiledID;
+import org.apache.geode.cache.query.internal.CompiledIteratorDef;
+import org.apache.geode.cache.query.internal.CompiledJunction;
+import org.apache.geode.cache.query.internal.CompiledLiteral;
+import org.apache.geode.cache.query.internal.CompiledPath;
+import org.apache.geode.cache.query.internal.CompiledSelect;
+import org.apache.geode.cache.query.internal.CompiledValue;
+import org.apache.geode.cache.query.internal.DefaultQuery;
+import org.apache.geode.cache.query.internal.ExecutionContext;
+import org.apache.geode.cache.query.internal.HashJoin;
+import org.apache.geode.cache.query.internal.PathUtils;
+import org.apache.geode.cache.query.internal.parse.OQLLexerTokenTypes;
+
+/**
+ * An index of the WHERE clauses of the CQs registered on a region, used to find the CQs that an
+ * entry value could satisfy without evaluating every CQ on it.
+ *
+ * A CQ whose WHERE clause is, or is a conjunction containing, an equality or a numeric range
+ * comparison between an attribute of its iterator and a literal is indexed by that attribute: by
+ * the key of the literal for an equality, and by the literal as a lower or upper bound for a range.
+ * Every other CQ is a candidate for every value. The candidates for a value include all the CQs it
+ * satisfies, so the CQs must still be evaluated on it.
+ *
+ * The index is immutable; the CQ service builds a new one when the CQs of the region change.
+ *
+ * @since Geode 1.8
+ */
+class CqPredicateIndex {
+
+  /** value of an attribute that could not be read */
+  private static final Object UNKNOWN = new Object();
+
+  private final int size;
+
+  private final List<ServerCQ> unindexedCqs = new ArrayList<>();
+
+  /** indexes of the attribute paths used by the indexed CQs */
+  private final Map<List<String>, AttributeIndex> attributeIndexes = new HashMap<>();
+
+  /**
+   * Creates the index of the given CQs.
+   */
+  CqPredicateIndex(Collection<ServerCQ> cqs) {
+    this.size = cqs.size();
+    for (ServerCQ cq : cqs) {
+      if (!addIndexedCq(cq)) {
+        this.unindexedCqs.add(cq);
+      }
+    }
+  }
+
+  /**
+   * Returns the number of CQs in this index.
+   */
+  int size() {
+    return this.size;
+  }
+
+  /**
+   * Returns the number of CQs in this index which are candidates for every value.
+   */
+  int getUnindexedCount() {
+    return this.unindexedCqs.size();
+  }
+
+  /**
+   * Returns the CQs which could be satisfied by the given entry value.
+   */
+  Set<ServerCQ> getCandidates(Object value, ExecutionContext context) {
+    Set<ServerCQ> candidates = Collections.newSetFromMap(new IdentityHashMap<>());
+    candidates.addAll(this.unindexedCqs);
+    for (Map.Entry<List<String>, AttributeIndex> entry : this.attributeIndexes.entrySet()) {
+      entry.getValue().addCandidates(readAttribute(value, entry.getKey(), context), candidates);
+    }
+    return candidates;
+  }
+
+  private static Object readAttribute(Object value, List<String> path, ExecutionContext context) {
+    Object result = value;
+    try {
+      for (String attribute : path) {
+        if (result == null || result == QueryService.UNDEFINED) {
+          return QueryService.UNDEFINED;
+        }
+        result = PathUtils.evaluateAttribute(context, result, attribute);
+      }
+      return result;
+    } catch (Exception e) {
+      // the CQs reading this attribute will report the failure when they are evaluated
+      return UNKNOWN;
+    }
+  }
+
+  private boolean addIndexedCq(ServerCQ cq) {
+    if (!(cq.getQuery() instanceof DefaultQuery)) {
+      return false;
+    }
+    CompiledSelect select = ((DefaultQuery) cq.getQuery()).getSimpleSelect();
+    if (select == null || select.getIterators().size() != 1) {
+      return false;
+    }
+    String iteratorName = ((CompiledIteratorDef) select.getIterators().get(0)).getName();
+    CompiledValue whereClause = select.getWhereClause();
+
+    List<CompiledComparison> comparisons = new ArrayList<>();
+    if (whereClause instanceof CompiledComparison) {
+      comparisons.add((CompiledComparison) whereClause);
+    } else if (whereClause instanceof CompiledJunction
+        && ((CompiledJunction) whereClause).getOperator() == OQLLexerTokenTypes.LITERAL_and) {
+      for (Object operand : ((CompiledJunction) whereClause).getOperands()) {
+        if (operand instanceof CompiledComparison) {
+          comparisons.add((CompiledComparison) operand);
+        }
+      }
+    }
+
+    // an equality is more selective than a range
+    Predicate range = null;
+    for (CompiledComparison comparison : comparisons) {
+      Predicate predicate = Predicate.create(comparison, iteratorName);
+      if (predicate == null) {
+        continue;
+      }
+      if (predicate.operator == OQLLexerTokenTypes.TOK_EQ) {
+        getAttributeIndex(predicate.path).addEquality(predicate.key, cq);
+        return true;
+      }
+      if (range == null) {
+        range = predicate;
+      }
+    }
+    if (range != null) {
+      getAttributeIndex(range.path).addRange(range.operator, (Double) range.key, cq);
+      return true;
+    }
+    return false;
+  }
+
+  private AttributeIndex getAttributeIndex(List<String> path) {
+    return this.attributeIndexes.computeIfAbsent(path, p -> new AttributeIndex());
+  }
+
+  /**
+   * Returns the key of a number in the range indexes. Since rounding a number to a double preserves
+   * its order, a value exceeding a bound has a key at least that of the bound.
+   */
+  private static Double getRangeKey(Number number) {
+    double key = number.doubleValue();
+    // -0.0 and 0.0 are equal but their Doubles are ordered
+    return key == 0.0 ? 0.0 : key;
+  }
+
+  /**
+   * A comparison of an attribute of the iterator of a CQ with a literal, with the attribute on the
+   * left.
+   */
+  private static class Predicate {
+
+    private final List<String> path;
+
+    private final int operator;
+
+    /** the key of the literal for an equality, or its range key for a range */
+    private final Object key;
+
+    private Predicate(List<String> path, int operator, Object key) {
+      this.path = path;
+      this.operator = operator;
+      this.key = key;
+    }
+
+    /**
+     * Returns the predicate of the given comparison, or null if it cannot be indexed.
+     */
+    static Predicate create(CompiledComparison comparison, String iteratorName) {
+      int operator = comparison.getOperator();
+      CompiledValue attribute = comparison._left;
+      CompiledValue literal = comparison._right;
+      if (attribute instanceof CompiledLiteral) {
+        attribute = comparison._right;
+        literal = comparison._left;
+        operator = reflectOperator(operator);
+      }
+      if (!(literal instanceof CompiledLiteral)) {
+        return null;
+      }
+      List<String> path = getAttributePath(attribute, iteratorName);
+      if (path == null || path.isEmpty()) {
+        return null;
+      }
+      Object value;
+      try {
+        value = literal.evaluate(null);
+      } catch (Exception e) {
+        return null;
+      }
+      if (value == null || value == QueryService.UNDEFINED) {
+        return null;
+      }
+      switch (operator) {
+        case OQLLexerTokenTypes.TOK_EQ:
+          Object key = HashJoin.getHashKey(value);
+          return key == null ? null : new Predicate(path, operator, key);
+        case OQLLexerTokenTypes.TOK_LT:
+        case OQLLexerTokenTypes.TOK_LE:
+        case OQLLexerTokenTypes.TOK_GT:
+        case OQLLexerTokenTypes.TOK_GE:
+          if (!(value instanceof Number) || Double.isNaN(((Number) value).doubleValue())) {
+            return null;
+          }
+          return new Predicate(path, operator, getRangeKey((Number) value));
+        default:
+          return null;
+      }
+    }
+
+    private static int reflectOperator(int operator) {
+      switch (operator) {
+        case OQLLexerTokenTypes.TOK_LT:
+          return OQLLexerTokenTypes.TOK_GT;
+        case OQLLexerTokenTypes.TOK_LE:
+          return OQLLexerTokenTypes.TOK_GE;
+        case OQLLexerTokenTypes.TOK_GT:
+          return OQLLexerTokenTypes.TOK_LT;
+        case OQLLexerTokenTypes.TOK_GE:
+          return OQLLexerTokenTypes.TOK_LE;
+        default:
+          return operator;
+      }
+    }
+
+    /**
+     * Returns the attributes read from the iterator by the given expression, or null if it is not
+     * a path of attributes of the iterator.
+     */
+    private static List<String> getAttributePath(CompiledValue expression, String iteratorName) {
+      if (expression instanceof CompiledID) {
+        String id = ((CompiledID) expression).getId();
+        List<String> path = new ArrayList<>();
+        if (!id.equals(iteratorName)) {
+          // an implicit attribute of the iterator
+          path.add(id);
+        }
+        return path;
+      }
+      if (expression instanceof CompiledPath) {
+        CompiledPath compiledPath = (CompiledPath) expression;
+        List<String> path = getAttributePath(compiledPath.getReceiver(), iteratorName);
+        if (path != null) {
+          path.add(compiledPath.getTailID());
+        }
+        return path;
+      }
+      return null;
+    }
+  }
+
+  /**
+   * The CQs comparing one attribute path with a literal.
+   */
+  private static class AttributeIndex {
+
+    private final Map<Object, List<ServerCQ>> equalities = new HashMap<>();
+
+    /** the CQs satisfied by values above their bound, by bound */
+    private final TreeMap<Double, List<ServerCQ>> lowerBounds = new TreeMap<>();
+
+    /** the CQs satisfied by values below their bound, by bound */
+    private final TreeMap<Double, List<ServerCQ>> upperBounds = new TreeMap<>();
+
+    private final List<ServerCQ> all = new ArrayList<>();
+
+    void addEquality(Object key, ServerCQ cq) {
+      this.equalities.computeIfAbsent(key, k -> new ArrayList<>(1)).add(cq);
+      this.all.add(cq);
+    }
+
+    void addRange(int operator, Double bound, ServerCQ cq) {
+      TreeMap<Double, List<ServerCQ>> bounds =
+          operator == OQLLexerTokenTypes.TOK_GT || operator == OQLLexerTokenTypes.TOK_GE
+              ? this.lowerBounds : this.upperBounds;
+      bounds.computeIfAbsent(bound, k -> new ArrayList<>(1)).add(cq);
+      this.all.add(cq);
+    }
+
+    void addCandidates(Object value, Set<ServerCQ> candidates) {
+      Object key = value == UNKNOWN || value == QueryService.UNDEFINED ? null
+          : HashJoin.getHashKey(value);
+      if (key == null) {
+        candidates.addAll(this.all);
+        return;
+      }
+      List<ServerCQ> equal = this.equalities.get(key);
+      if (equal != null) {
+        candidates.addAll(equal);
+      }
+      if (this.lowerBounds.isEmpty() && this.upperBounds.isEmpty()) {
+        return;
+      }
+      if (!(value instanceof Number) || Double.isNaN(((Number) value).doubleValue())) {
+        addAll(this.lowerBounds.values(), candidates);
+        addAll(this.upperBounds.values(), candidates);
+        return;
+      }
+      // the bounds are inclusive since distinct numbers can have the same range key
+      Double rangeKey = getRangeKey((Number) value);
+      addAll(this.lowerBounds.headMap(rangeKey, true).values(), candidates);
+      addAll(this.upperBounds.tailMap(rangeKey, true).values(), candidates);
+    }
+
+    private static void addAll(Collection<List<ServerCQ>> cqLists, Set<ServerCQ> candidates) {
+      for (List<ServerCQ> cqs : cqLists) {
+        candidates.addAll(cqs);
+      }
+    }
+  }
+}
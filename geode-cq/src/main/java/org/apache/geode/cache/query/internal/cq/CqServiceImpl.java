@@ -100,6 +100,13 @@ public class CqServiceImpl implements CqService {
   public static boolean EXECUTE_QUERY_DURING_INIT = Boolean.valueOf(System
       .getProperty(DistributionConfig.GEMFIRE_PREFIX + "cq.EXECUTE_QUERY_DURING_INIT", "true"));
 
+  /**
+   * System property to evaluate every CQ on an event, instead of only the CQs found by the index of
+   * the predicates of the CQs to be possibly satisfied by the event.
+   */
+  public static boolean USE_PREDICATE_INDEX =
+      !Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "cq.DISABLE_PREDICATE_INDEX");
+
   private static final String CQ_NAME_PREFIX = "GfCq";
 
   private final InternalCache cache;
@@ -1318,6 +1325,16 @@ public class CqServiceImpl implements CqService {
         }
       }
 
+      // Find the CQs which could be satisfied by the new value. The CQs of each profile are
+      // different objects, so they are found again for each profile.
+      CqPredicateIndex predicateIndex = USE_PREDICATE_INDEX ? getPredicateIndex(pf) : null;
+      Set<ServerCQ> newValueCandidates = null;
+      Set<ServerCQ> oldValueCandidates = null;
+      if (predicateIndex != null && !cqUnfilteredEventsSet_newValue.isEmpty()) {
+        newValueCandidates =
+            getCandidates(predicateIndex, cqUnfilteredEventsSet_newValue.iterator().next());
+      }
+
       HashMap<Long, Integer> cqInfo = new HashMap<>();
       Iterator cqIter = cqs.entrySet().iterator();
 
@@ -1360,11 +1377,15 @@ public class CqServiceImpl implements CqService {
               synchronized (cQuery) {
                 // Apply query on new value.
                 if (!cqUnfilteredEventsSet_newValue.isEmpty()) {
-                  executionStartTime = this.stats.startCqQueryExecution();
-
-                  b_cqResults_newValue =
-                      evaluateQuery(cQuery, new Object[] {cqUnfilteredEventsSet_newValue});
-                  this.stats.endCqQueryExecution(executionStartTime);
+                  if (newValueCandidates == null || newValueCandidates.contains(cQuery)) {
+                    executionStartTime = this.stats.startCqQueryExecution();
+
+                    b_cqResults_newValue =
+                        evaluateQuery(cQuery, new Object[] {cqUnfilteredEventsSet_newValue});
+                    this.stats.endCqQueryExecution(executionStartTime);
+                  } else {
+                    this.stats.incCqQueryExecutionsSkipped();
+                  }
                 }
               }
 
@@ -1399,14 +1420,23 @@ public class CqServiceImpl implements CqService {
                       cqUnfilteredEventsSet_oldValue.add(oldValue);
                     }
                   }
+                  if (predicateIndex != null && oldValueCandidates == null
+                      && !cqUnfilteredEventsSet_oldValue.isEmpty()) {
+                    oldValueCandidates = getCandidates(predicateIndex,
+                        cqUnfilteredEventsSet_oldValue.iterator().next());
+                  }
 
                   synchronized (cQuery) {
                     // Apply query on old value.
                     if (!cqUnfilteredEventsSet_oldValue.isEmpty()) {
-                      executionStartTime = this.stats.startCqQueryExecution();
-                      b_cqResults_oldValue =
-                          evaluateQuery(cQuery, new Object[] {cqUnfilteredEventsSet_oldValue});
-                      this.stats.endCqQueryExecution(executionStartTime);
+                      if (oldValueCandidates == null || oldValueCandidates.contains(cQuery)) {
+                        executionStartTime = this.stats.startCqQueryExecution();
+                        b_cqResults_oldValue =
+                            evaluateQuery(cQuery, new Object[] {cqUnfilteredEventsSet_oldValue});
+                        this.stats.endCqQueryExecution(executionStartTime);
+                      } else {
+                        this.stats.incCqQueryExecutionsSkipped();
+                      }
                     } else {
                       if (isDebugEnabled) {
                         logger.debug(
@@ -1605,6 +1635,24 @@ public class CqServiceImpl implements CqService {
     return matchingCqMap;
   }
 
+  /**
+   * Returns the index of the predicates of the CQs of the given profile, building it if the CQs
+   * changed since it was last built.
+   */
+  private CqPredicateIndex getPredicateIndex(FilterProfile pf) {
+    return (CqPredicateIndex) pf.getCqPredicateIndex(CqPredicateIndex::new);
+  }
+
+  /**
+   * Returns the CQs of the given index which could be satisfied by the given entry value.
+   */
+  private Set<ServerCQ> getCandidates(CqPredicateIndex index, Object value) {
+    long start = this.stats.startCqEventMatch();
+    Set<ServerCQ> candidates = index.getCandidates(value, new ExecutionContext(null, this.cache));
+    this.stats.endCqEventMatch(start, candidates.size());
+    return candidates;
+  }
+
   /**
    * Applies the query on the event. This method takes care of the performance related changed done
    * to improve the CQ-query performance. When CQ-query is executed first time, it saves the query
@@ -73,6 +73,18 @@ public class CqServiceVsdStats {
   /** Unique CQs, number of different CQ queries */
   private static final String UNIQUE_CQ_QUERY = "numUniqueCqQuery";
 
+  /** Time spent finding the CQs an event value could satisfy */
+  private static final String CQ_EVENT_MATCH_TIME = "cqEventMatchTime";
+
+  /** Completed searches of the CQs an event value could satisfy */
+  private static final String CQ_EVENT_MATCHES_COMPLETED = "cqEventMatchesCompleted";
+
+  /** CQs found to be possibly satisfied by event values */
+  private static final String CQ_EVENT_MATCH_CANDIDATES = "cqEventMatchCandidates";
+
+  /** CQ query executions skipped because the CQ could not be satisfied by the event value */
+  private static final String CQ_QUERY_EXECUTIONS_SKIPPED = "cqQueryExecutionsSkipped";
+
   /** Id of the CQs created statistic */
   private static final int _numCqsCreatedId;
 
@@ -103,6 +115,18 @@ public class CqServiceVsdStats {
   /** Id for unique CQs, difference in CQ queries */
   private static final int _numUniqueCqQuery;
 
+  /** Id for the time spent finding the CQs an event value could satisfy */
+  private static final int _cqEventMatchTimeId;
+
+  /** Id for completed searches of the CQs an event value could satisfy */
+  private static final int _cqEventMatchesCompletedId;
+
+  /** Id for the CQs found to be possibly satisfied by event values */
+  private static final int _cqEventMatchCandidatesId;
+
+  /** Id for the skipped CQ query executions */
+  private static final int _cqQueryExecutionsSkippedId;
+
   /*
    * Static initializer to create and initialize the <code>StatisticsType</code>
    */
@@ -125,6 +149,16 @@ public class CqServiceVsdStats {
             f.createIntGauge(CQ_QUERY_EXECUTION_IN_PROGRESS, "CQ Query Execution In Progress.",
                 "operations"),
             f.createIntGauge(UNIQUE_CQ_QUERY, "Number of Unique CQ Querys.", "Queries"),
+            f.createLongCounter(CQ_EVENT_MATCH_TIME,
+                "Time taken finding the CQs an event value could satisfy.", "nanoseconds"),
+            f.createLongCounter(CQ_EVENT_MATCHES_COMPLETED,
+                "Number of searches of the CQs an event value could satisfy.", "operations"),
+            f.createLongCounter(CQ_EVENT_MATCH_CANDIDATES,
+                "Number of CQs found to be possibly satisfied by event values.", "operations"),
+            f.createLongCounter(CQ_QUERY_EXECUTIONS_SKIPPED,
+                "Number of CQ Query Executions skipped because the CQ could not be satisfied by"
+                    + " the event value.",
+                "operations"),
 
         });
 
@@ -139,6 +173,10 @@ public class CqServiceVsdStats {
     _cqQueryExecutionsCompletedId = _type.nameToId(CQ_QUERY_EXECUTIONS_COMPLETED);
     _cqQueryExecutionInProgressId = _type.nameToId(CQ_QUERY_EXECUTION_IN_PROGRESS);
     _numUniqueCqQuery = _type.nameToId(UNIQUE_CQ_QUERY);
+    _cqEventMatchTimeId = _type.nameToId(CQ_EVENT_MATCH_TIME);
+    _cqEventMatchesCompletedId = _type.nameToId(CQ_EVENT_MATCHES_COMPLETED);
+    _cqEventMatchCandidatesId = _type.nameToId(CQ_EVENT_MATCH_CANDIDATES);
+    _cqQueryExecutionsSkippedId = _type.nameToId(CQ_QUERY_EXECUTIONS_SKIPPED);
   }
 
   /** The <code>Statistics</code> instance to which most behavior is delegated */
@@ -314,6 +352,65 @@ public class CqServiceVsdStats {
     return this._stats.getLong(_cqQueryExecutionTimeId);
   }
 
+  /**
+   * Start finding the CQs an event value could satisfy.
+   */
+  long startCqEventMatch() {
+    return NanoTimer.getTime();
+  }
+
+  /**
+   * End finding the CQs an event value could satisfy.
+   *
+   * @param start long time value.
+   * @param candidates the number of CQs found.
+   */
+  void endCqEventMatch(long start, int candidates) {
+    long ts = NanoTimer.getTime();
+    this._stats.incLong(_cqEventMatchTimeId, ts - start);
+    this._stats.incLong(_cqEventMatchesCompletedId, 1);
+    this._stats.incLong(_cqEventMatchCandidatesId, candidates);
+  }
+
+  /**
+   * Returns the total time spent finding the CQs event values could satisfy.
+   *
+   * @return long time spent.
+   */
+  public long getCqEventMatchTime() {
+    return this._stats.getLong(_cqEventMatchTimeId);
+  }
+
+  /**
+   * Returns the number of searches of the CQs an event value could satisfy.
+   */
+  public long getCqEventMatchesCompleted() {
+    return this._stats.getLong(_cqEventMatchesCompletedId);
+  }
+
+  /**
+   * Returns the total number of CQs found to be possibly satisfied by event values.
+   */
+  public long getCqEventMatchCandidates() {
+    return this._stats.getLong(_cqEventMatchCandidatesId);
+  }
+
+  /**
+   * Increments the number of CQ query executions skipped because the CQ could not be satisfied by
+   * the event value.
+   */
+  void incCqQueryExecutionsSkipped() {
+    this._stats.incLong(_cqQueryExecutionsSkippedId, 1);
+  }
+
+  /**
+   * Returns the number of CQ query executions skipped because the CQ could not be satisfied by the
+   * event value.
+   */
+  public long getCqQueryExecutionsSkipped() {
+    return this._stats.getLong(_cqQueryExecutionsSkippedId);
+  }
+
   /**
    * Increments number of Unique queries.
    */
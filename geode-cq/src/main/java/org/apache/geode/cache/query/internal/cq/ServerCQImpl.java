@@ -283,7 +283,9 @@ public class ServerCQImpl extends CqQueryImpl implements DataSerializable, Serve
    */
   private Query constructServerSideQuery() throws QueryException {
     InternalCache cache = cqService.getInternalCache();
-    DefaultQuery locQuery = (DefaultQuery) cache.getLocalQueryService().newQuery(this.queryString);
+    // The FROM clause of the compiled query is rewritten below, so it must not come from the
+    // query plan cache where it would be shared with other queries.
+    DefaultQuery locQuery = new DefaultQuery(this.queryString, cache, false);
     CompiledSelect select = locQuery.getSimpleSelect();
     CompiledIteratorDef from = (CompiledIteratorDef) select.getIterators().get(0);
     // WARNING: ASSUMES QUERY WAS ALREADY VALIDATED FOR PROPER "FORM" ON CLIENT;
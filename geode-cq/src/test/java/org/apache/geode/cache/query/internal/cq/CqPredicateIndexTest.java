@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.cq;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.query.data.Portfolio;
+import org.apache.geode.cache.query.internal.DefaultQuery;
+import org.apache.geode.cache.query.internal.ExecutionContext;
+import org.apache.geode.cache.query.internal.InternalQueryService;
+import org.apache.geode.cache.query.internal.MethodInvocationAuthorizer;
+import org.apache.geode.internal.cache.InternalCache;
+import org.apache.geode.test.junit.categories.ClientSubscriptionTest;
+
+@Category({ClientSubscriptionTest.class})
+public class CqPredicateIndexTest {
+
+  private InternalCache cache;
+
+  private ExecutionContext context;
+
+  private final List<ServerCQ> cqs = new ArrayList<>();
+
+  @Before
+  public void setup() {
+    cache = mock(InternalCache.class);
+    InternalQueryService queryService = mock(InternalQueryService.class);
+    when(cache.getQueryService()).thenReturn(queryService);
+    when(queryService.getMethodInvocationAuthorizer())
+        .thenReturn(mock(MethodInvocationAuthorizer.class));
+    context = new ExecutionContext(null, cache);
+  }
+
+  @Test
+  public void equalityCandidatesHaveTheSameAttributeValue() {
+    ServerCQ active = addCq("select * from $1 p where p.status = 'active'");
+    ServerCQ inactive = addCq("select * from $1 p where p.status = 'inactive'");
+    ServerCQ id = addCq("select * from $1 p where p.ID = 2");
+    CqPredicateIndex index = new CqPredicateIndex(cqs);
+
+    assertThat(index.getUnindexedCount()).isZero();
+    assertThat(index.getCandidates(new Portfolio(2), context)).containsOnly(active, id);
+    assertThat(index.getCandidates(new Portfolio(3), context)).containsOnly(inactive);
+  }
+
+  @Test
+  public void rangeCandidatesHaveAttributeValuesWithinTheRange() {
+    ServerCQ above = addCq("select * from $1 p where p.ID > 10");
+    ServerCQ reflected = addCq("select * from $1 p where 5 < p.ID");
+    ServerCQ below = addCq("select * from $1 p where p.ID <= 3");
+    CqPredicateIndex index = new CqPredicateIndex(cqs);
+
+    assertThat(index.getCandidates(new Portfolio(12), context)).containsOnly(above, reflected);
+    assertThat(index.getCandidates(new Portfolio(4), context)).isEmpty();
+    assertThat(index.getCandidates(new Portfolio(3), context)).containsOnly(below);
+  }
+
+  @Test
+  public void conjunctionIsIndexedByItsEquality() {
+    ServerCQ cq = addCq("select * from $1 p where p.ID > 100 and p.status = 'active'");
+    CqPredicateIndex index = new CqPredicateIndex(cqs);
+
+    assertThat(index.getUnindexedCount()).isZero();
+    assertThat(index.getCandidates(new Portfolio(2), context)).containsOnly(cq);
+    assertThat(index.getCandidates(new Portfolio(1), context)).isEmpty();
+  }
+
+  @Test
+  public void implicitAttributeIsIndexed() {
+    ServerCQ cq = addCq("select * from $1 where ID = 3");
+    CqPredicateIndex index = new CqPredicateIndex(cqs);
+
+    assertThat(index.getCandidates(new Portfolio(3), context)).containsOnly(cq);
+    assertThat(index.getCandidates(new Portfolio(4), context)).isEmpty();
+  }
+
+  @Test
+  public void unindexedCqsAreCandidatesForEveryValue() {
+    ServerCQ disjunction = addCq("select * from $1 p where p.status = 'active' or p.ID = 1");
+    ServerCQ notEqual = addCq("select * from $1 p where p.status != 'active'");
+    ServerCQ all = addCq("select * from $1 p");
+    CqPredicateIndex index = new CqPredicateIndex(cqs);
+
+    assertThat(index.getUnindexedCount()).isEqualTo(3);
+    assertThat(index.getCandidates(new Portfolio(4), context))
+        .containsOnly(disjunction, notEqual, all);
+  }
+
+  @Test
+  public void cqsOnUnreadableAttributeAreCandidates() {
+    ServerCQ cq = addCq("select * from $1 p where p.noSuchAttribute = 1");
+    CqPredicateIndex index = new CqPredicateIndex(cqs);
+
+    assertThat(index.getCandidates(new Portfolio(4), context)).containsOnly(cq);
+    assertThat(index.getCandidates(null, context)).containsOnly(cq);
+  }
+
+  private ServerCQ addCq(String queryString) {
+    ServerCQ cq = mock(ServerCQ.class);
+    when(cq.getQuery()).thenReturn(new DefaultQuery(queryString, cache, false));
+    cqs.add(cq);
+    return cq;
+  }
+}
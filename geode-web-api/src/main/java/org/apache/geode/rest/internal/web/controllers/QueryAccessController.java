@@ -161,7 +161,7 @@ public class QueryAccessController extends AbstractBaseController {
   @RequestMapping(method = RequestMethod.GET, value = "/adhoc",
       produces = {MediaType.APPLICATION_JSON_UTF8_VALUE})
   @ApiOperation(value = "run an adhoc query",
-      notes = "Run an unnamed (unidentified), ad-hoc query passed as a URL parameter")
+      notes = "Run an unnamed (unidentified), ad-hoc query passed as a URL parameter. Prefix the query with <explain> or <explain analyze> to get its plan instead of its results")
   @ApiResponses({@ApiResponse(code = 200, message = "OK."),
       @ApiResponse(code = 401, message = "Invalid Username or Password."),
       @ApiResponse(code = 403, message = "Insufficient privileges for operation."),